@@ -111,6 +111,8 @@ import org.thingsboard.server.dao.user.UserService;
 import org.thingsboard.server.dao.widget.WidgetTypeService;
 import org.thingsboard.server.dao.widget.WidgetsBundleService;
 import org.thingsboard.server.dao.nexus.DataDistributionService;
+import org.thingsboard.server.dao.nexus.ReelFatigueService;
+import org.thingsboard.server.dao.nexus.RigActivityService;
 import org.thingsboard.server.queue.discovery.DiscoveryService;
 import org.thingsboard.server.queue.discovery.PartitionService;
 import org.thingsboard.server.queue.discovery.TbServiceInfoProvider;
@@ -326,6 +328,14 @@ public class ActorSystemContext {
     @Getter
     private DataDistributionService dataDistributionService;
 
+    @Autowired
+    @Getter
+    private RigActivityService rigActivityService;
+
+    @Autowired
+    @Getter
+    private ReelFatigueService reelFatigueService;
+
     @Autowired
     @Getter
     private EntityViewService entityViewService;
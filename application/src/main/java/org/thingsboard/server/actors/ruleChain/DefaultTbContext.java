@@ -122,6 +122,8 @@ import org.thingsboard.server.dao.user.UserService;
 import org.thingsboard.server.dao.widget.WidgetTypeService;
 import org.thingsboard.server.dao.widget.WidgetsBundleService;
 import org.thingsboard.server.dao.nexus.DataDistributionService;
+import org.thingsboard.server.dao.nexus.ReelFatigueService;
+import org.thingsboard.server.dao.nexus.RigActivityService;
 import org.thingsboard.server.gen.transport.TransportProtos;
 import org.thingsboard.server.queue.TbQueueCallback;
 import org.thingsboard.server.queue.common.SimpleTbQueueCallback;
@@ -1061,6 +1063,16 @@ public class DefaultTbContext implements TbContext {
         return mainCtx.getDataDistributionService();
     }
 
+    @Override
+    public RigActivityService getRigActivityService() {
+        return mainCtx.getRigActivityService();
+    }
+
+    @Override
+    public ReelFatigueService getReelFatigueService() {
+        return mainCtx.getReelFatigueService();
+    }
+
     private TbMsgMetaData getActionMetaData(RuleNodeId ruleNodeId) {
         TbMsgMetaData metaData = new TbMsgMetaData();
         metaData.putValue("ruleNodeId", ruleNodeId.toString());
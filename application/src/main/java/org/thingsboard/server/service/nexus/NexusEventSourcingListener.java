@@ -0,0 +1,83 @@
+/**
+ * Copyright © 2016-2026 The Thingsboard Authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.thingsboard.server.service.nexus;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.thingsboard.nexus.rv.service.RvHierarchyService;
+import org.thingsboard.nexus.rv.service.RvRelationGraphCache;
+import org.thingsboard.nexus.rv.service.RvReservesRollupService;
+import org.thingsboard.server.common.data.EntityType;
+import org.thingsboard.server.common.data.audit.ActionType;
+import org.thingsboard.server.dao.eventsourcing.DeleteEntityEvent;
+import org.thingsboard.server.common.data.relation.EntityRelation;
+import org.thingsboard.server.common.data.relation.RelationTypeGroup;
+import org.thingsboard.server.dao.eventsourcing.RelationActionEvent;
+
+/**
+ * Propagates platform entity and relation events to the in-memory indexes of the NEXUS modules.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class NexusEventSourcingListener {
+
+    private final RvRelationGraphCache rvRelationGraphCache;
+    private final RvReservesRollupService rvReservesRollupService;
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onDelete(DeleteEntityEvent<?> event) {
+        if (event.getEntityId() == null) {
+            return;
+        }
+        if (event.getEntityId().getEntityType() == EntityType.TENANT) {
+            rvRelationGraphCache.evictTenant(event.getEntityId().getId());
+            rvReservesRollupService.evictTenant(event.getEntityId().getId());
+            return;
+        }
+        rvRelationGraphCache.onEntityDeleted(event.getTenantId(), event.getEntityId());
+        if (event.getEntityId().getEntityType() == EntityType.ASSET) {
+            rvReservesRollupService.onAssetDeleted(event.getTenantId().getId(), event.getEntityId().getId());
+        }
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void handleEvent(RelationActionEvent relationEvent) {
+        if (relationEvent.getActionType() == ActionType.RELATION_ADD_OR_UPDATE) {
+            rvRelationGraphCache.onRelationSaved(relationEvent.getTenantId(), relationEvent.getRelation());
+            onContainsChanged(relationEvent, true);
+        } else if (relationEvent.getActionType() == ActionType.RELATION_DELETED) {
+            rvRelationGraphCache.onRelationDeleted(relationEvent.getTenantId(), relationEvent.getRelation());
+            onContainsChanged(relationEvent, false);
+        }
+    }
+
+    private void onContainsChanged(RelationActionEvent relationEvent, boolean added) {
+        EntityRelation relation = relationEvent.getRelation();
+        if (relation == null || relationEvent.getTenantId() == null
+                || !RvHierarchyService.RELATION_CONTAINS.equals(relation.getType())
+                || relation.getTypeGroup() != RelationTypeGroup.COMMON
+                || relation.getFrom().getEntityType() != EntityType.ASSET
+                || relation.getTo().getEntityType() != EntityType.ASSET) {
+            return;
+        }
+        rvReservesRollupService.onContainsRelationChanged(relationEvent.getTenantId().getId(),
+                relation.getFrom().getId(), relation.getTo().getId(), added);
+    }
+
+}
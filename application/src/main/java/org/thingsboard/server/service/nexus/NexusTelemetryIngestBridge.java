@@ -0,0 +1,106 @@
+/**
+ * Copyright © 2016-2026 The Thingsboard Authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.thingsboard.server.service.nexus;
+
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import com.google.common.util.concurrent.Futures;
+import com.google.common.util.concurrent.ListenableFuture;
+import com.google.common.util.concurrent.SettableFuture;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Service;
+import org.thingsboard.common.util.JacksonUtil;
+import org.thingsboard.server.cluster.TbClusterService;
+import org.thingsboard.server.common.data.id.EntityId;
+import org.thingsboard.server.common.data.id.TenantId;
+import org.thingsboard.server.common.data.kv.TsKvEntry;
+import org.thingsboard.server.common.data.msg.TbMsgType;
+import org.thingsboard.server.common.msg.TbMsg;
+import org.thingsboard.server.common.msg.TbMsgMetaData;
+import org.thingsboard.server.dao.nexus.TelemetryIngestBridge;
+import org.thingsboard.server.queue.TbQueueCallback;
+import org.thingsboard.server.queue.TbQueueMsgMetadata;
+
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Pushes ingested telemetry to the rule engine as one POST_TELEMETRY_REQUEST per timestamp, the
+ * shape the rule nodes expect from a device ({@code ts} in the metadata, an object body). The
+ * originator's profile selects the rule chain and queue.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class NexusTelemetryIngestBridge implements TelemetryIngestBridge {
+
+    private final TbClusterService clusterService;
+
+    @Override
+    public ListenableFuture<Void> pushTelemetry(TenantId tenantId, EntityId originator, List<TsKvEntry> entries, long ttlSeconds) {
+        Map<Long, ObjectNode> rows = new TreeMap<>();
+        for (TsKvEntry entry : entries) {
+            put(rows.computeIfAbsent(entry.getTs(), ts -> JacksonUtil.newObjectNode()), entry);
+        }
+        if (rows.isEmpty()) {
+            return Futures.immediateVoidFuture();
+        }
+        SettableFuture<Void> result = SettableFuture.create();
+        AtomicInteger pending = new AtomicInteger(rows.size());
+        TbQueueCallback callback = new TbQueueCallback() {
+            @Override
+            public void onSuccess(TbQueueMsgMetadata metadata) {
+                if (pending.decrementAndGet() == 0) {
+                    result.set(null);
+                }
+            }
+
+            @Override
+            public void onFailure(Throwable t) {
+                log.warn("[{}][{}] Failed to push ingested telemetry to the rule engine", tenantId, originator, t);
+                result.setException(t);
+            }
+        };
+        for (Map.Entry<Long, ObjectNode> row : rows.entrySet()) {
+            TbMsgMetaData metaData = new TbMsgMetaData();
+            metaData.putValue("ts", Long.toString(row.getKey()));
+            if (ttlSeconds > 0) {
+                metaData.putValue("TTL", Long.toString(ttlSeconds));
+            }
+            TbMsg msg = TbMsg.newMsg()
+                    .type(TbMsgType.POST_TELEMETRY_REQUEST)
+                    .originator(originator)
+                    .copyMetaData(metaData)
+                    .data(JacksonUtil.toString(row.getValue()))
+                    .build();
+            clusterService.pushMsgToRuleEngine(tenantId, originator, msg, callback);
+        }
+        return result;
+    }
+
+    private static void put(ObjectNode values, TsKvEntry entry) {
+        String key = entry.getKey();
+        switch (entry.getDataType()) {
+            case BOOLEAN -> values.put(key, entry.getBooleanValue().orElse(null));
+            case LONG -> values.put(key, entry.getLongValue().orElse(null));
+            case DOUBLE -> values.put(key, entry.getDoubleValue().orElse(null));
+            case JSON -> values.set(key, JacksonUtil.toJsonNode(entry.getJsonValue().orElse(null)));
+            default -> values.put(key, entry.getValueAsString());
+        }
+    }
+}
@@ -61,6 +61,96 @@ public class CTModuleConfiguration {
      */
     private int simulationSteps = 100;
 
+    /**
+     * Longitud de segmento del mapa de fatiga por posición de la sarta (ft)
+     */
+    private double fatigueSegmentLengthFt = 5.0;
+
+    /**
+     * Intervalo mínimo entre instantáneas persistidas del mapa de fatiga de un reel (ms)
+     */
+    private long fatigueSnapshotIntervalMs = 60_000L;
+
+    /**
+     * Histéresis del conteo rainflow: variaciones de esfuerzo menores no forman inversiones (psi)
+     */
+    private double fatigueRainflowHysteresisPsi = 500.0;
+
+    /**
+     * Inversiones máximas retenidas en el residuo rainflow de cada reel
+     */
+    private int fatigueRainflowResidueCapacity = 64;
+
+    /**
+     * Capacidad de la cola de registros de fatiga pendientes de escritura
+     */
+    private int fatigueLogQueueCapacity = 10_000;
+
+    /**
+     * Intervalo de vaciado de la cola de registros de fatiga (ms)
+     */
+    private long fatigueLogFlushIntervalMs = 1000L;
+
+    /**
+     * Número máximo de registros de fatiga escritos por lote
+     */
+    private int fatigueLogBatchSize = 500;
+
+    /**
+     * Meses de registros de fatiga individuales que se conservan (0 = sin límite); los agregados no caducan
+     */
+    private int fatigueLogRetentionMonths = 0;
+
+    /**
+     * Rango máximo del historial de fatiga servido con registros individuales (ms)
+     */
+    private long fatigueHistoryRawMaxRangeMs = 2L * 24 * 60 * 60 * 1000;
+
+    /**
+     * Rango máximo del historial de fatiga servido con agregados horarios (ms); por encima se usan diarios
+     */
+    private long fatigueHistoryHourlyMaxRangeMs = 90L * 24 * 60 * 60 * 1000;
+
+    /**
+     * Paso de profundidad de la simulación de trabajos (ft)
+     */
+    private double simulationStepFt = 25.0;
+
+    /**
+     * Hilos para simular escenarios en paralelo (0 = número de procesadores)
+     */
+    private int simulationParallelism = 0;
+
+    /**
+     * Número máximo de escenarios por solicitud de simulación
+     */
+    private int simulationMaxScenarios = 64;
+
+    /**
+     * Hilos para generar reportes en segundo plano
+     */
+    private int reportWorkerThreads = 2;
+
+    /**
+     * Reportes en cola o en curso admitidos a la vez
+     */
+    private int reportMaxPendingJobs = 20;
+
+    /**
+     * Tiempo que un reporte terminado queda disponible para descarga (ms)
+     */
+    private long reportRetentionMs = 3_600_000L;
+
+    /**
+     * Directorio de los archivos de reporte (vacío = directorio temporal del sistema)
+     */
+    private String reportTempDir = "";
+
+    /**
+     * Tiempo que se sirve el índice de flota (reels y unidades) de un tenant antes de recargarlo completo (ms)
+     */
+    private long fleetIndexTtlMs = 300_000L;
+
     /**
      * Timeout para llamadas REST (ms)
      */
@@ -21,8 +21,11 @@ import org.springframework.data.domain.Page;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.thingsboard.nexus.ct.dto.CTFatigueHistoryDto;
 import org.thingsboard.nexus.ct.dto.CTFatigueLogDto;
+import org.thingsboard.nexus.ct.dto.CTSegmentFatigueDto;
 import org.thingsboard.nexus.ct.service.CTFatigueService;
+import org.thingsboard.nexus.ct.service.CTStringFatigueService;
 
 import jakarta.validation.Valid;
 import java.math.BigDecimal;
@@ -36,11 +39,14 @@ import java.util.UUID;
 public class CTFatigueController {
 
     private final CTFatigueService fatigueService;
+    private final CTStringFatigueService stringFatigueService;
 
     @PostMapping("/log")
     public ResponseEntity<Void> logFatigueCalculation(@Valid @RequestBody CTFatigueLogDto logDto) {
-        log.info("Received fatigue calculation log for reel: {}", logDto.getReelId());
-        fatigueService.logFatigueCalculation(logDto);
+        log.debug("Received fatigue calculation log for reel: {}", logDto.getReelId());
+        if (!fatigueService.logFatigueCalculation(logDto)) {
+            return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE).build();
+        }
         return ResponseEntity.status(HttpStatus.ACCEPTED).build();
     }
 
@@ -54,6 +60,17 @@ public class CTFatigueController {
         return ResponseEntity.ok(history);
     }
 
+    @GetMapping("/reel/{reelId}/history/series")
+    public ResponseEntity<CTFatigueHistoryDto> getFatigueHistorySeries(
+            @PathVariable UUID reelId,
+            @RequestParam(required = false) Long fromTime,
+            @RequestParam(required = false) Long toTime,
+            @RequestParam(required = false) CTFatigueHistoryDto.Resolution resolution) {
+        log.info("Getting fatigue history series for reel: {}", reelId);
+        CTFatigueHistoryDto history = fatigueService.getFatigueHistorySeries(reelId, fromTime, toTime, resolution);
+        return ResponseEntity.ok(history);
+    }
+
     @GetMapping("/reel/{reelId}/history/paged")
     public ResponseEntity<Page<CTFatigueLogDto>> getFatigueHistoryPaged(
             @PathVariable UUID reelId,
@@ -85,6 +102,22 @@ public class CTFatigueController {
         return ResponseEntity.ok(totalCycles);
     }
 
+    @GetMapping("/reel/{reelId}/segments")
+    public ResponseEntity<CTSegmentFatigueDto> getSegmentFatigue(
+            @PathVariable UUID reelId,
+            @RequestParam(defaultValue = "500") int maxBins) {
+        log.info("Getting segment fatigue profile for reel: {}", reelId);
+        CTSegmentFatigueDto profile = stringFatigueService.getSegmentFatigue(reelId, maxBins);
+        return ResponseEntity.ok(profile);
+    }
+
+    @PostMapping("/reel/{reelId}/segments/snapshot")
+    public ResponseEntity<Void> snapshotSegmentFatigue(@PathVariable UUID reelId) {
+        log.info("Persisting segment fatigue map for reel: {}", reelId);
+        stringFatigueService.flush(reelId);
+        return ResponseEntity.noContent().build();
+    }
+
     @GetMapping("/high-fatigue")
     public ResponseEntity<List<CTFatigueLogDto>> getHighFatigueReels(
             @RequestParam UUID tenantId,
@@ -0,0 +1,60 @@
+/**
+ * Copyright © 2016-2026 The Thingsboard Authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.thingsboard.nexus.ct.controller;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+import org.thingsboard.nexus.ct.dto.CTFleetMatchDto;
+import org.thingsboard.nexus.ct.dto.CTFleetMatchRequest;
+import org.thingsboard.nexus.ct.service.CTFleetMatchService;
+
+import java.math.BigDecimal;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * REST Controller for matching CT reel + unit combinations to job requirements.
+ */
+@RestController
+@RequestMapping("/api/nexus/ct/fleet")
+@RequiredArgsConstructor
+@Slf4j
+public class CTFleetController {
+
+    private final CTFleetMatchService matchService;
+
+    @PostMapping("/tenant/{tenantId}/match")
+    public ResponseEntity<List<CTFleetMatchDto>> match(
+            @PathVariable UUID tenantId,
+            @RequestBody CTFleetMatchRequest request) {
+        log.debug("REST request to match CT reels and units for tenant: {}", tenantId);
+        List<CTFleetMatchDto> matches = matchService.match(tenantId, request);
+        return ResponseEntity.ok(matches);
+    }
+
+    @GetMapping("/job/{jobId}/match")
+    public ResponseEntity<List<CTFleetMatchDto>> matchForJob(
+            @PathVariable UUID jobId,
+            @RequestParam(required = false) BigDecimal odInch,
+            @RequestParam(defaultValue = "90.0") BigDecimal maxFatigue,
+            @RequestParam(defaultValue = "10") int limit) {
+        log.debug("REST request to match CT reels and units for job: {}", jobId);
+        List<CTFleetMatchDto> matches = matchService.matchForJob(jobId, odInch, maxFatigue, limit);
+        return ResponseEntity.ok(matches);
+    }
+}
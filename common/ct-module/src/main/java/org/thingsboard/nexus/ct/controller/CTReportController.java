@@ -17,16 +17,26 @@ package org.thingsboard.nexus.ct.controller;
 
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.core.io.FileSystemResource;
+import org.springframework.core.io.Resource;
 import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
+import org.springframework.security.access.AccessDeniedException;
 import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.security.core.annotation.AuthenticationPrincipal;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+import org.thingsboard.nexus.ct.dto.CTReportJobDto;
 import org.thingsboard.nexus.ct.dto.CTReportRequest;
-import org.thingsboard.nexus.ct.dto.CTReportResponse;
+import org.thingsboard.nexus.ct.service.CTReportJobService;
 import org.thingsboard.nexus.ct.service.CTReportService;
+import org.thingsboard.server.common.data.User;
+import org.thingsboard.server.common.data.security.Authority;
 
+import java.nio.file.Path;
+import java.util.List;
 import java.util.UUID;
 
 @RestController
@@ -36,25 +46,64 @@ import java.util.UUID;
 public class CTReportController {
 
     private final CTReportService reportService;
+    private final CTReportJobService reportJobService;
 
     @PostMapping("/generate")
     @PreAuthorize("hasAnyAuthority('SYS_ADMIN', 'TENANT_ADMIN')")
-    public ResponseEntity<byte[]> generateReport(@RequestBody CTReportRequest request) {
+    public ResponseEntity<StreamingResponseBody> generateReport(@AuthenticationPrincipal User user,
+                                                                @RequestBody CTReportRequest request) {
+        request.setTenantId(tenantScope(user, request.getTenantId()));
         log.info("Generating report: type={}, format={}", request.getReportType(), request.getFormat());
 
-        CTReportResponse response = reportService.generateReport(request);
+        StreamingResponseBody body = out -> reportService.writeReport(request, out, new CTReportService.Progress());
 
-        HttpHeaders headers = new HttpHeaders();
-        headers.setContentType(MediaType.parseMediaType(response.getContentType()));
-        headers.setContentDispositionFormData("attachment", response.getFileName());
-        headers.setCacheControl("must-revalidate, post-check=0, pre-check=0");
+        return new ResponseEntity<>(body,
+                downloadHeaders(reportService.contentType(request), reportService.fileName(request)), HttpStatus.OK);
+    }
+
+    @PostMapping("/jobs")
+    @PreAuthorize("hasAnyAuthority('SYS_ADMIN', 'TENANT_ADMIN')")
+    public ResponseEntity<CTReportJobDto> submitReportJob(@AuthenticationPrincipal User user,
+                                                          @RequestBody CTReportRequest request) {
+        request.setTenantId(tenantScope(user, request.getTenantId()));
+        log.info("Submitting report job: type={}, format={}", request.getReportType(), request.getFormat());
+        return ResponseEntity.status(HttpStatus.ACCEPTED).body(reportJobService.submit(request));
+    }
+
+    @GetMapping("/jobs")
+    @PreAuthorize("hasAnyAuthority('SYS_ADMIN', 'TENANT_ADMIN')")
+    public ResponseEntity<List<CTReportJobDto>> getReportJobs(@AuthenticationPrincipal User user,
+                                                              @RequestParam(required = false) UUID tenantId) {
+        return ResponseEntity.ok(reportJobService.getJobs(tenantScope(user, tenantId)));
+    }
+
+    @GetMapping("/jobs/{jobId}")
+    @PreAuthorize("hasAnyAuthority('SYS_ADMIN', 'TENANT_ADMIN')")
+    public ResponseEntity<CTReportJobDto> getReportJob(@AuthenticationPrincipal User user, @PathVariable UUID jobId) {
+        return ResponseEntity.ok(reportJobService.getJob(tenantScope(user, null), jobId));
+    }
+
+    @GetMapping("/jobs/{jobId}/download")
+    @PreAuthorize("hasAnyAuthority('SYS_ADMIN', 'TENANT_ADMIN')")
+    public ResponseEntity<Resource> downloadReport(@AuthenticationPrincipal User user, @PathVariable UUID jobId) {
+        UUID tenantId = tenantScope(user, null);
+        CTReportJobDto job = reportJobService.getJob(tenantId, jobId);
+        Path file = reportJobService.getReportFile(tenantId, jobId);
+        return new ResponseEntity<>(new FileSystemResource(file),
+                downloadHeaders(job.getContentType(), job.getFileName()), HttpStatus.OK);
+    }
 
-        return new ResponseEntity<>(response.getContent(), headers, HttpStatus.OK);
+    @DeleteMapping("/jobs/{jobId}")
+    @PreAuthorize("hasAnyAuthority('SYS_ADMIN', 'TENANT_ADMIN')")
+    public ResponseEntity<Void> deleteReportJob(@AuthenticationPrincipal User user, @PathVariable UUID jobId) {
+        reportJobService.cancel(tenantScope(user, null), jobId);
+        return ResponseEntity.noContent().build();
     }
 
     @GetMapping("/job-summary/{tenantId}")
     @PreAuthorize("hasAnyAuthority('SYS_ADMIN', 'TENANT_ADMIN')")
-    public ResponseEntity<byte[]> generateJobSummary(
+    public ResponseEntity<StreamingResponseBody> generateJobSummary(
+            @AuthenticationPrincipal User user,
             @PathVariable UUID tenantId,
             @RequestParam(defaultValue = "CSV") String format) {
         
@@ -64,12 +113,13 @@ public class CTReportController {
                 .tenantId(tenantId)
                 .build();
 
-        return generateReport(request);
+        return generateReport(user, request);
     }
 
     @GetMapping("/reel-lifecycle/{tenantId}")
     @PreAuthorize("hasAnyAuthority('SYS_ADMIN', 'TENANT_ADMIN')")
-    public ResponseEntity<byte[]> generateReelLifecycle(
+    public ResponseEntity<StreamingResponseBody> generateReelLifecycle(
+            @AuthenticationPrincipal User user,
             @PathVariable UUID tenantId,
             @RequestParam(defaultValue = "CSV") String format) {
         
@@ -79,12 +129,13 @@ public class CTReportController {
                 .tenantId(tenantId)
                 .build();
 
-        return generateReport(request);
+        return generateReport(user, request);
     }
 
     @GetMapping("/fleet-utilization/{tenantId}")
     @PreAuthorize("hasAnyAuthority('SYS_ADMIN', 'TENANT_ADMIN')")
-    public ResponseEntity<byte[]> generateFleetUtilization(
+    public ResponseEntity<StreamingResponseBody> generateFleetUtilization(
+            @AuthenticationPrincipal User user,
             @PathVariable UUID tenantId,
             @RequestParam(defaultValue = "CSV") String format) {
         
@@ -94,12 +145,13 @@ public class CTReportController {
                 .tenantId(tenantId)
                 .build();
 
-        return generateReport(request);
+        return generateReport(user, request);
     }
 
     @GetMapping("/fatigue-analysis/{tenantId}")
     @PreAuthorize("hasAnyAuthority('SYS_ADMIN', 'TENANT_ADMIN')")
-    public ResponseEntity<byte[]> generateFatigueAnalysis(
+    public ResponseEntity<StreamingResponseBody> generateFatigueAnalysis(
+            @AuthenticationPrincipal User user,
             @PathVariable UUID tenantId,
             @RequestParam(defaultValue = "CSV") String format) {
         
@@ -109,12 +161,13 @@ public class CTReportController {
                 .tenantId(tenantId)
                 .build();
 
-        return generateReport(request);
+        return generateReport(user, request);
     }
 
     @GetMapping("/maintenance-schedule/{tenantId}")
     @PreAuthorize("hasAnyAuthority('SYS_ADMIN', 'TENANT_ADMIN')")
-    public ResponseEntity<byte[]> generateMaintenanceSchedule(
+    public ResponseEntity<StreamingResponseBody> generateMaintenanceSchedule(
+            @AuthenticationPrincipal User user,
             @PathVariable UUID tenantId,
             @RequestParam(defaultValue = "CSV") String format) {
         
@@ -124,6 +177,32 @@ public class CTReportController {
                 .tenantId(tenantId)
                 .build();
 
-        return generateReport(request);
+        return generateReport(user, request);
+    }
+
+    /**
+     * Tenant al que se limita la petición: el propio para administradores de tenant (rechazando otro
+     * explícito) y el pedido, o todos si es nulo, para administradores del sistema.
+     */
+    static UUID tenantScope(User user, UUID requestedTenantId) {
+        if (user == null) {
+            throw new AccessDeniedException("Authentication required");
+        }
+        if (user.getAuthority() == Authority.SYS_ADMIN) {
+            return requestedTenantId;
+        }
+        UUID ownTenantId = user.getTenantId() != null ? user.getTenantId().getId() : null;
+        if (ownTenantId == null || (requestedTenantId != null && !requestedTenantId.equals(ownTenantId))) {
+            throw new AccessDeniedException("Reports of another tenant are not accessible");
+        }
+        return ownTenantId;
+    }
+
+    private HttpHeaders downloadHeaders(String contentType, String fileName) {
+        HttpHeaders headers = new HttpHeaders();
+        headers.setContentType(MediaType.parseMediaType(contentType));
+        headers.setContentDispositionFormData("attachment", fileName);
+        headers.setCacheControl("must-revalidate, post-check=0, pre-check=0");
+        return headers;
     }
 }
@@ -20,10 +20,13 @@ import lombok.extern.slf4j.Slf4j;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 import org.thingsboard.nexus.ct.rule.CTJobSimulationNode.JobParameters;
+import org.thingsboard.nexus.ct.rule.CTJobSimulationNode.Scenario;
+import org.thingsboard.nexus.ct.rule.CTJobSimulationNode.ScenarioRequest;
 import org.thingsboard.nexus.ct.rule.CTJobSimulationNode.SimulationResult;
 import org.thingsboard.nexus.ct.service.CTSimulationService;
 
 import jakarta.validation.Valid;
+import java.util.List;
 import java.util.UUID;
 
 @RestController
@@ -48,4 +51,22 @@ public class CTSimulationController {
         SimulationResult result = simulationService.simulateCustomJob(params);
         return ResponseEntity.ok(result);
     }
+
+    @PostMapping("/job/{jobId}/scenarios")
+    public ResponseEntity<List<SimulationResult>> simulateJobScenarios(
+            @PathVariable UUID jobId,
+            @RequestBody List<Scenario> scenarios) {
+        log.info("Received {} simulation scenarios for job: {}", scenarios.size(), jobId);
+        List<SimulationResult> results = simulationService.simulateJobScenarios(jobId, scenarios);
+        return ResponseEntity.ok(results);
+    }
+
+    @PostMapping("/custom/scenarios")
+    public ResponseEntity<List<SimulationResult>> simulateCustomScenarios(
+            @RequestBody ScenarioRequest request) {
+        log.info("Received {} custom simulation scenarios", request.getScenarios().size());
+        List<SimulationResult> results = simulationService.simulateCustomScenarios(
+            request.getParameters(), request.getScenarios());
+        return ResponseEntity.ok(results);
+    }
 }
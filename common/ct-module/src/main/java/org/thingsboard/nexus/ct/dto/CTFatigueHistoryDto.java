@@ -0,0 +1,74 @@
+/**
+ * Copyright © 2016-2026 The Thingsboard Authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.thingsboard.nexus.ct.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Serie temporal de fatiga de un reel a la resolución elegida para el rango consultado.
+ * En resolución RAW cada punto es un registro de {@code ct_fatigue_log}; en HOURLY/DAILY, un intervalo agregado.
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class CTFatigueHistoryDto {
+
+    private UUID reelId;
+    private Resolution resolution;
+    private Long fromTime;
+    private Long toTime;
+    private List<Point> points;
+
+    public enum Resolution {
+        RAW(0L),
+        HOURLY(3_600_000L),
+        DAILY(86_400_000L);
+
+        private final long bucketMs;
+
+        Resolution(long bucketMs) {
+            this.bucketMs = bucketMs;
+        }
+
+        public long getBucketMs() {
+            return bucketMs;
+        }
+    }
+
+    @Data
+    @Builder
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class Point {
+        // Inicio del intervalo (o instante del registro en RAW)
+        private Long timestamp;
+        private Integer samples;
+        private Long cycles;
+        private Integer cycleNumber;
+        private BigDecimal maxVonMisesStressPsi;
+        // Suma de incrementos de daño (Palmgren-Miner) del intervalo
+        private BigDecimal damageSum;
+        private BigDecimal accumulatedFatiguePercent;
+    }
+}
@@ -0,0 +1,51 @@
+/**
+ * Copyright © 2016-2026 The Thingsboard Authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.thingsboard.nexus.ct.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+import java.util.UUID;
+
+/**
+ * Combinación reel + unidad compatible con un trabajo, con su puntuación (mayor es mejor).
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class CTFleetMatchDto {
+
+    private UUID reelId;
+    private String reelCode;
+    private UUID unitId;
+    private String unitCode;
+
+    private Double score;
+
+    private BigDecimal tubingOdInch;
+    private BigDecimal unitMaxTubingOdInch;
+    private BigDecimal reelFatiguePercent;
+    private BigDecimal reelLengthFt;
+
+    // El reel ya está acoplado a la unidad (no requiere cambio de reel)
+    private Boolean coupled;
+    private Boolean unitAtLocation;
+    private Boolean reelAtLocation;
+}
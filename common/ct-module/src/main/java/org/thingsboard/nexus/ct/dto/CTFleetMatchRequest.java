@@ -0,0 +1,49 @@
+/**
+ * Copyright © 2016-2026 The Thingsboard Authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.thingsboard.nexus.ct.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+
+/**
+ * Requisitos de un trabajo para buscar combinaciones reel + unidad compatibles.
+ * Los campos nulos no restringen la búsqueda.
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class CTFleetMatchRequest {
+
+    // Reel
+    private BigDecimal tubingOdInch;
+    private BigDecimal maxFatiguePercent;
+    private BigDecimal minReelLengthFt;
+
+    // Unidad
+    private Integer requiredPressurePsi;
+    private Integer requiredTensionLbf;
+    private Integer requiredSpeedFtMin;
+
+    // Ubicación preferida (campo o locación del trabajo); no excluye, solo puntúa
+    private String location;
+
+    private Integer limit;
+}
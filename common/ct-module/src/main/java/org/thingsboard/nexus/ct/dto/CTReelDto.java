@@ -68,6 +68,9 @@ public class CTReelDto {
     public static final String ATTR_TOTAL_CYCLES = "total_cycles";
     public static final String ATTR_ESTIMATED_REMAINING_CYCLES = "estimated_remaining_cycles";
     public static final String ATTR_FATIGUE_CALCULATION_METHOD = "fatigue_calculation_method";
+    public static final String ATTR_WORST_SEGMENT_FATIGUE_PERCENT = "worst_segment_fatigue_percent";
+    public static final String ATTR_WORST_SEGMENT_POSITION_FT = "worst_segment_position_ft";
+    public static final String ATTR_FATIGUE_SEGMENT_SNAPSHOT = "fatigue_segment_snapshot";
     public static final String ATTR_TOTAL_JOBS_USED = "total_jobs_used";
     public static final String ATTR_TOTAL_METERS_DEPLOYED = "total_meters_deployed";
     public static final String ATTR_TOTAL_HOURS_IN_USE = "total_hours_in_use";
@@ -128,6 +131,8 @@ public class CTReelDto {
     private Integer estimatedRemainingCycles;
     private String fatigueCalculationMethod;
     private String fatigueLevel;  // Calculated field
+    private BigDecimal worstSegmentFatiguePercent;
+    private BigDecimal worstSegmentPositionFt;
 
     // Usage statistics
     private Integer totalJobsUsed;
@@ -188,6 +193,8 @@ public class CTReelDto {
         putIfNotNull(attributes, ATTR_TOTAL_CYCLES, totalCycles);
         putIfNotNull(attributes, ATTR_ESTIMATED_REMAINING_CYCLES, estimatedRemainingCycles);
         putIfNotNull(attributes, ATTR_FATIGUE_CALCULATION_METHOD, fatigueCalculationMethod);
+        putIfNotNull(attributes, ATTR_WORST_SEGMENT_FATIGUE_PERCENT, worstSegmentFatiguePercent);
+        putIfNotNull(attributes, ATTR_WORST_SEGMENT_POSITION_FT, worstSegmentPositionFt);
         putIfNotNull(attributes, ATTR_TOTAL_JOBS_USED, totalJobsUsed);
         putIfNotNull(attributes, ATTR_TOTAL_METERS_DEPLOYED, totalMetersDeployed);
         putIfNotNull(attributes, ATTR_TOTAL_HOURS_IN_USE, totalHoursInUse);
@@ -278,7 +285,7 @@ public class CTReelDto {
                     dto.status = attr.getStrValue().map(ReelStatus::valueOf).orElse(null);
                     break;
                 case ATTR_CURRENT_UNIT_ID:
-                    dto.currentUnitId = attr.getStrValue().map(UUID::fromString).orElse(null);
+                    dto.currentUnitId = attr.getStrValue().filter(s -> !s.isEmpty()).map(UUID::fromString).orElse(null);
                     break;
                 case ATTR_CURRENT_UNIT_CODE:
                     dto.currentUnitCode = attr.getStrValue().orElse(null);
@@ -298,6 +305,12 @@ public class CTReelDto {
                 case ATTR_FATIGUE_CALCULATION_METHOD:
                     dto.fatigueCalculationMethod = attr.getStrValue().orElse(null);
                     break;
+                case ATTR_WORST_SEGMENT_FATIGUE_PERCENT:
+                    dto.worstSegmentFatiguePercent = attr.getDoubleValue().map(BigDecimal::valueOf).orElse(null);
+                    break;
+                case ATTR_WORST_SEGMENT_POSITION_FT:
+                    dto.worstSegmentPositionFt = attr.getDoubleValue().map(BigDecimal::valueOf).orElse(null);
+                    break;
                 case ATTR_TOTAL_JOBS_USED:
                     dto.totalJobsUsed = attr.getLongValue().map(Long::intValue).orElse(null);
                     break;
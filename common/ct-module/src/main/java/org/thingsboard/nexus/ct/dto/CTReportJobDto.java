@@ -0,0 +1,60 @@
+/**
+ * Copyright © 2016-2026 The Thingsboard Authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.thingsboard.nexus.ct.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.UUID;
+
+/**
+ * Estado de un reporte generado en segundo plano, con su progreso y el enlace de descarga al terminar.
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class CTReportJobDto {
+
+    private UUID jobId;
+    private UUID tenantId;
+    private String reportType;
+    private String format;
+    private Status status;
+    private String fileName;
+    private String contentType;
+
+    // Progreso
+    private Long rowsProcessed;
+    private Long totalRows;
+    private Double progressPercent;
+    private Long sizeBytes;
+
+    private Long createdTime;
+    private Long completedTime;
+    private String errorMessage;
+    private String downloadUrl;
+
+    public enum Status {
+        QUEUED,
+        RUNNING,
+        COMPLETED,
+        FAILED,
+        CANCELLED
+    }
+}
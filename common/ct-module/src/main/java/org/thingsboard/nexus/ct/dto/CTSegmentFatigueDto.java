@@ -0,0 +1,56 @@
+/**
+ * Copyright © 2016-2026 The Thingsboard Authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.thingsboard.nexus.ct.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Fatiga por posición a lo largo de la sarta de un reel, con el peor segmento y su vida remanente.
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class CTSegmentFatigueDto {
+
+    private UUID reelId;
+    private Double segmentLengthFt;
+    private Integer segmentCount;
+    private Double worstSegmentFatiguePercent;
+    private Double worstSegmentPositionFt;
+    private Long remainingPasses;
+    private Long passedFt;
+    private Double lastDepthFt;
+
+    // Perfil agregado (máximo por tramo) para gráficos
+    private List<Bin> bins;
+
+    @Data
+    @Builder
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class Bin {
+        private Double fromFt;
+        private Double toFt;
+        private Double maxFatiguePercent;
+    }
+}
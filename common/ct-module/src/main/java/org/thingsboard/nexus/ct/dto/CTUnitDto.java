@@ -239,7 +239,7 @@ public class CTUnitDto {
                     dto.totalMetersDeployed = attr.getDoubleValue().map(BigDecimal::valueOf).orElse(null);
                     break;
                 case ATTR_CURRENT_REEL_ID:
-                    dto.currentReelId = attr.getStrValue().map(UUID::fromString).orElse(null);
+                    dto.currentReelId = attr.getStrValue().filter(s -> !s.isEmpty()).map(UUID::fromString).orElse(null);
                     break;
                 case ATTR_CURRENT_REEL_CODE:
                     dto.currentReelCode = attr.getStrValue().orElse(null);
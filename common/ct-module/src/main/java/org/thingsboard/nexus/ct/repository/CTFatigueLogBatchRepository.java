@@ -0,0 +1,160 @@
+/**
+ * Copyright © 2016-2026 The Thingsboard Authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.thingsboard.nexus.ct.repository;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+import org.thingsboard.nexus.ct.dto.CTFatigueLogDto;
+
+import java.math.BigDecimal;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Types;
+import java.time.Instant;
+import java.time.ZoneOffset;
+import java.time.ZonedDateTime;
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Escritura JDBC por lotes de {@code ct_fatigue_log}.
+ * Inserta cada lote de registros en un único batch, sin pasar por el contexto de persistencia JPA,
+ * y acumula el lote en los agregados horarios y diarios dentro de la misma transacción.
+ * La tabla está particionada por mes; las particiones se crean bajo demanda antes de escribir.
+ */
+@Repository
+@RequiredArgsConstructor
+public class CTFatigueLogBatchRepository {
+
+    private static final int BATCH_SIZE = 1000;
+
+    private static final String INSERT_LOG =
+            "INSERT INTO ct_fatigue_log (id, tenant_id, reel_id, job_id, timestamp, cycle_number, " +
+            "pressure_psi, tension_lbf, bend_radius_in, temperature_f, " +
+            "hoop_stress_psi, axial_stress_psi, bending_stress_psi, von_mises_stress_psi, " +
+            "cycles_to_failure, fatigue_increment, accumulated_fatigue_percent, " +
+            "corrosion_factor, weld_factor, temperature_factor, calculation_method, notes, created_time) " +
+            "VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?)";
+
+    private static final String CREATE_PARTITION = "SELECT ct_fatigue_log_create_partition(?)";
+
+    private static final String DROP_PARTITIONS_BEFORE = "SELECT ct_fatigue_log_drop_partitions_before(?)";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final CTFatigueRollupRepository rollupRepository;
+
+    // Meses (inicio en epoch ms) cuya partición ya se ha comprobado
+    private final Set<Long> knownPartitions = ConcurrentHashMap.newKeySet();
+
+    /**
+     * Crea las particiones mensuales que necesitan los registros y que aún no se han comprobado.
+     * Se ejecuta fuera de la transacción de inserción para que una partición creada no se pierda con un rollback.
+     */
+    public void ensurePartitions(List<CTFatigueLogDto> logs, long defaultTimestamp) {
+        for (CTFatigueLogDto log : logs) {
+            ensurePartition(log.getTimestamp() != null ? log.getTimestamp() : defaultTimestamp);
+        }
+    }
+
+    public void ensurePartition(long ts) {
+        long month = monthStart(ts);
+        if (!knownPartitions.contains(month)) {
+            jdbcTemplate.queryForList(CREATE_PARTITION, month);
+            knownPartitions.add(month);
+        }
+    }
+
+    /**
+     * Elimina las particiones de registros anteriores al mes que contiene {@code ts}. Los agregados se conservan.
+     *
+     * @return número de particiones eliminadas
+     */
+    public int dropPartitionsBefore(long ts) {
+        long month = monthStart(ts);
+        Integer dropped = jdbcTemplate.queryForObject(DROP_PARTITIONS_BEFORE, Integer.class, month);
+        knownPartitions.removeIf(known -> known < month);
+        return dropped != null ? dropped : 0;
+    }
+
+    /**
+     * Inserta los registros en lotes y los acumula en los agregados. Los registros sin id los reciben aquí;
+     * los que no traen timestamp o fecha de creación toman {@code now}.
+     *
+     * @return número de registros insertados
+     */
+    @Transactional
+    public int insertAll(List<CTFatigueLogDto> logs, long now) {
+        if (logs.isEmpty()) {
+            return 0;
+        }
+        jdbcTemplate.batchUpdate(INSERT_LOG, logs, BATCH_SIZE, (ps, log) -> {
+            ps.setObject(1, log.getId() != null ? log.getId() : UUID.randomUUID());
+            ps.setObject(2, log.getTenantId());
+            ps.setObject(3, log.getReelId());
+            ps.setObject(4, log.getJobId());
+            ps.setLong(5, log.getTimestamp() != null ? log.getTimestamp() : now);
+            setInteger(ps, 6, log.getCycleNumber());
+            setDecimal(ps, 7, log.getPressurePsi());
+            setDecimal(ps, 8, log.getTensionLbf());
+            setDecimal(ps, 9, log.getBendRadiusIn());
+            setDecimal(ps, 10, log.getTemperatureF());
+            setDecimal(ps, 11, log.getHoopStressPsi());
+            setDecimal(ps, 12, log.getAxialStressPsi());
+            setDecimal(ps, 13, log.getBendingStressPsi());
+            setDecimal(ps, 14, log.getVonMisesStressPsi());
+            if (log.getCyclesToFailure() != null) {
+                ps.setLong(15, log.getCyclesToFailure());
+            } else {
+                ps.setNull(15, Types.BIGINT);
+            }
+            setDecimal(ps, 16, log.getFatigueIncrement());
+            setDecimal(ps, 17, log.getAccumulatedFatiguePercent());
+            setDecimal(ps, 18, log.getCorrosionFactor());
+            setDecimal(ps, 19, log.getWeldFactor());
+            setDecimal(ps, 20, log.getTemperatureFactor());
+            ps.setString(21, log.getCalculationMethod());
+            ps.setString(22, log.getNotes());
+            ps.setLong(23, log.getCreatedTime() != null ? log.getCreatedTime() : now);
+        });
+        rollupRepository.accumulate(logs, now);
+        return logs.size();
+    }
+
+    private static long monthStart(long ts) {
+        ZonedDateTime time = Instant.ofEpochMilli(ts).atZone(ZoneOffset.UTC);
+        return time.toLocalDate().withDayOfMonth(1).atStartOfDay(ZoneOffset.UTC).toInstant().toEpochMilli();
+    }
+
+    private static void setInteger(PreparedStatement ps, int index, Integer value) throws SQLException {
+        if (value != null) {
+            ps.setInt(index, value);
+        } else {
+            ps.setNull(index, Types.INTEGER);
+        }
+    }
+
+    private static void setDecimal(PreparedStatement ps, int index, BigDecimal value) throws SQLException {
+        if (value != null) {
+            ps.setBigDecimal(index, value);
+        } else {
+            ps.setNull(index, Types.NUMERIC);
+        }
+    }
+}
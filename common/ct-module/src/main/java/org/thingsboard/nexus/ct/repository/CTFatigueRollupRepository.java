@@ -0,0 +1,243 @@
+/**
+ * Copyright © 2016-2026 The Thingsboard Authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.thingsboard.nexus.ct.repository;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+import org.thingsboard.nexus.ct.dto.CTFatigueHistoryDto;
+import org.thingsboard.nexus.ct.dto.CTFatigueLogDto;
+
+import java.math.BigDecimal;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Types;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.UUID;
+
+/**
+ * Agregados horarios y diarios de {@code ct_fatigue_log} ({@code ct_fatigue_log_hourly} / {@code ct_fatigue_log_daily}).
+ * Cada lote de registros se reduce en memoria a una fila por reel e intervalo y se acumula con un upsert,
+ * de modo que el coste de mantenerlos no depende del número de registros del lote.
+ */
+@Repository
+@RequiredArgsConstructor
+public class CTFatigueRollupRepository {
+
+    private static final int BATCH_SIZE = 1000;
+
+    private static final CTFatigueHistoryDto.Resolution[] ROLLUPS = {
+            CTFatigueHistoryDto.Resolution.HOURLY, CTFatigueHistoryDto.Resolution.DAILY
+    };
+
+    private static final Comparator<BucketKey> BUCKET_ORDER =
+            Comparator.comparing((BucketKey k) -> k.reelId).thenComparingLong(k -> k.bucketTs);
+
+    private static final String UPSERT_BUCKET =
+            "INSERT INTO %s AS r (reel_id, bucket_ts, tenant_id, samples, min_cycle_number, max_cycle_number, " +
+            "max_von_mises_stress_psi, damage_sum, max_accumulated_fatigue_percent, last_ts) " +
+            "VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, ?) " +
+            "ON CONFLICT (reel_id, bucket_ts) DO UPDATE SET " +
+            "samples = r.samples + EXCLUDED.samples, " +
+            "min_cycle_number = LEAST(r.min_cycle_number, EXCLUDED.min_cycle_number), " +
+            "max_cycle_number = GREATEST(r.max_cycle_number, EXCLUDED.max_cycle_number), " +
+            "max_von_mises_stress_psi = GREATEST(r.max_von_mises_stress_psi, EXCLUDED.max_von_mises_stress_psi), " +
+            "damage_sum = COALESCE(r.damage_sum, 0) + COALESCE(EXCLUDED.damage_sum, 0), " +
+            "max_accumulated_fatigue_percent = GREATEST(r.max_accumulated_fatigue_percent, EXCLUDED.max_accumulated_fatigue_percent), " +
+            "last_ts = GREATEST(r.last_ts, EXCLUDED.last_ts)";
+
+    private static final String SELECT_BUCKETS =
+            "SELECT bucket_ts, samples, min_cycle_number, max_cycle_number, max_von_mises_stress_psi, damage_sum, " +
+            "max_accumulated_fatigue_percent FROM %s WHERE reel_id = ? AND bucket_ts >= ? AND bucket_ts <= ? " +
+            "ORDER BY bucket_ts ASC";
+
+    private static final String SELECT_PREVIOUS_CYCLE =
+            "SELECT max_cycle_number FROM %s WHERE reel_id = ? AND bucket_ts < ? AND max_cycle_number IS NOT NULL " +
+            "ORDER BY bucket_ts DESC LIMIT 1";
+
+    private final JdbcTemplate jdbcTemplate;
+
+    /**
+     * Acumula los registros en los agregados horarios y diarios.
+     * Debe ejecutarse en la misma transacción que la inserción de los registros.
+     */
+    public void accumulate(List<CTFatigueLogDto> logs, long defaultTimestamp) {
+        if (logs.isEmpty()) {
+            return;
+        }
+        for (CTFatigueHistoryDto.Resolution resolution : ROLLUPS) {
+            Map<BucketKey, Bucket> buckets = new HashMap<>();
+            for (CTFatigueLogDto log : logs) {
+                long ts = log.getTimestamp() != null ? log.getTimestamp() : defaultTimestamp;
+                BucketKey key = new BucketKey(log.getReelId(), bucketStart(resolution, ts));
+                buckets.computeIfAbsent(key, k -> new Bucket(log.getTenantId())).add(log, ts);
+            }
+            // Orden estable de filas para que escritores concurrentes no se bloqueen mutuamente
+            List<Map.Entry<BucketKey, Bucket>> rows = new ArrayList<>(buckets.entrySet());
+            rows.sort(Map.Entry.comparingByKey(BUCKET_ORDER));
+            jdbcTemplate.batchUpdate(String.format(UPSERT_BUCKET, tableName(resolution)), rows, BATCH_SIZE, (ps, row) -> {
+                BucketKey key = row.getKey();
+                Bucket bucket = row.getValue();
+                ps.setObject(1, key.reelId);
+                ps.setLong(2, key.bucketTs);
+                ps.setObject(3, bucket.tenantId);
+                ps.setInt(4, bucket.samples);
+                setInteger(ps, 5, bucket.minCycle);
+                setInteger(ps, 6, bucket.maxCycle);
+                setDecimal(ps, 7, bucket.maxVonMises);
+                setDecimal(ps, 8, bucket.damageSum);
+                setDecimal(ps, 9, bucket.maxAccumulated);
+                ps.setLong(10, bucket.lastTs);
+            });
+        }
+    }
+
+    /**
+     * Intervalos agregados de un reel entre {@code fromTime} y {@code toTime}, en orden cronológico.
+     * Los ciclos de cada intervalo se obtienen como diferencia del contador acumulado respecto al intervalo anterior.
+     */
+    public List<CTFatigueHistoryDto.Point> findBuckets(CTFatigueHistoryDto.Resolution resolution, UUID reelId,
+                                                       long fromTime, long toTime) {
+        String table = tableName(resolution);
+        long from = bucketStart(resolution, fromTime);
+        List<Integer> previous = jdbcTemplate.queryForList(String.format(SELECT_PREVIOUS_CYCLE, table),
+                Integer.class, reelId, from);
+        Integer[] lastCycle = {previous.isEmpty() ? null : previous.get(0)};
+        return jdbcTemplate.query(String.format(SELECT_BUCKETS, table), (rs, rowNum) -> {
+            Integer minCycle = (Integer) rs.getObject("min_cycle_number");
+            Integer maxCycle = (Integer) rs.getObject("max_cycle_number");
+            Long cycles = null;
+            if (maxCycle != null) {
+                Integer base = lastCycle[0] != null ? lastCycle[0] : minCycle;
+                cycles = (long) Math.max(0, maxCycle - base);
+                lastCycle[0] = maxCycle;
+            }
+            return CTFatigueHistoryDto.Point.builder()
+                    .timestamp(rs.getLong("bucket_ts"))
+                    .samples(rs.getInt("samples"))
+                    .cycles(cycles)
+                    .cycleNumber(maxCycle)
+                    .maxVonMisesStressPsi(rs.getBigDecimal("max_von_mises_stress_psi"))
+                    .damageSum(rs.getBigDecimal("damage_sum"))
+                    .accumulatedFatiguePercent(rs.getBigDecimal("max_accumulated_fatigue_percent"))
+                    .build();
+        }, reelId, from, toTime);
+    }
+
+    /**
+     * Inicio (epoch ms, UTC) del intervalo que contiene {@code ts}
+     */
+    public static long bucketStart(CTFatigueHistoryDto.Resolution resolution, long ts) {
+        long width = resolution.getBucketMs();
+        return width > 0 ? Math.floorDiv(ts, width) * width : ts;
+    }
+
+    private static String tableName(CTFatigueHistoryDto.Resolution resolution) {
+        switch (resolution) {
+            case HOURLY:
+                return "ct_fatigue_log_hourly";
+            case DAILY:
+                return "ct_fatigue_log_daily";
+            default:
+                throw new IllegalArgumentException("No rollup table for resolution " + resolution);
+        }
+    }
+
+    private static final class BucketKey {
+        final UUID reelId;
+        final long bucketTs;
+
+        BucketKey(UUID reelId, long bucketTs) {
+            this.reelId = reelId;
+            this.bucketTs = bucketTs;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) {
+                return true;
+            }
+            if (!(o instanceof BucketKey)) {
+                return false;
+            }
+            BucketKey other = (BucketKey) o;
+            return bucketTs == other.bucketTs && reelId.equals(other.reelId);
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hash(reelId, bucketTs);
+        }
+    }
+
+    private static final class Bucket {
+        final UUID tenantId;
+        int samples;
+        Integer minCycle;
+        Integer maxCycle;
+        BigDecimal maxVonMises;
+        BigDecimal damageSum;
+        BigDecimal maxAccumulated;
+        long lastTs = Long.MIN_VALUE;
+
+        Bucket(UUID tenantId) {
+            this.tenantId = tenantId;
+        }
+
+        void add(CTFatigueLogDto log, long ts) {
+            samples++;
+            Integer cycle = log.getCycleNumber();
+            if (cycle != null) {
+                minCycle = minCycle == null ? cycle : Math.min(minCycle, cycle);
+                maxCycle = maxCycle == null ? cycle : Math.max(maxCycle, cycle);
+            }
+            maxVonMises = max(maxVonMises, log.getVonMisesStressPsi());
+            maxAccumulated = max(maxAccumulated, log.getAccumulatedFatiguePercent());
+            if (log.getFatigueIncrement() != null) {
+                damageSum = damageSum == null ? log.getFatigueIncrement() : damageSum.add(log.getFatigueIncrement());
+            }
+            lastTs = Math.max(lastTs, ts);
+        }
+
+        private static BigDecimal max(BigDecimal current, BigDecimal value) {
+            if (value == null) {
+                return current;
+            }
+            return current == null || value.compareTo(current) > 0 ? value : current;
+        }
+    }
+
+    private static void setInteger(PreparedStatement ps, int index, Integer value) throws SQLException {
+        if (value != null) {
+            ps.setInt(index, value);
+        } else {
+            ps.setNull(index, Types.INTEGER);
+        }
+    }
+
+    private static void setDecimal(PreparedStatement ps, int index, BigDecimal value) throws SQLException {
+        if (value != null) {
+            ps.setBigDecimal(index, value);
+        } else {
+            ps.setNull(index, Types.NUMERIC);
+        }
+    }
+}
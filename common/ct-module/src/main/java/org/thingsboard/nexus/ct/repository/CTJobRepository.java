@@ -90,5 +90,38 @@ public interface CTJobRepository extends JpaRepository<CTJob, UUID> {
         @Param("toDate") Long toDate
     );
 
+    /**
+     * Página de trabajos del tenant posteriores a {@code afterId}, en orden de id (cursor por clave para reportes)
+     */
+    @Query("SELECT j FROM CTJob j WHERE j.tenantId = :tenantId " +
+           "AND j.id > :afterId " +
+           "AND (:fromDate IS NULL OR j.plannedStartDate >= :fromDate) " +
+           "AND (:toDate IS NULL OR j.plannedStartDate <= :toDate) " +
+           "ORDER BY j.id ASC")
+    List<CTJob> findReportPage(
+        @Param("tenantId") UUID tenantId,
+        @Param("afterId") UUID afterId,
+        @Param("fromDate") Long fromDate,
+        @Param("toDate") Long toDate,
+        Pageable pageable
+    );
+
+    @Query("SELECT COUNT(j) FROM CTJob j WHERE j.tenantId = :tenantId " +
+           "AND (:fromDate IS NULL OR j.plannedStartDate >= :fromDate) " +
+           "AND (:toDate IS NULL OR j.plannedStartDate <= :toDate)")
+    long countForReport(
+        @Param("tenantId") UUID tenantId,
+        @Param("fromDate") Long fromDate,
+        @Param("toDate") Long toDate
+    );
+
+    @Query("SELECT j.unitId, COUNT(j) FROM CTJob j WHERE j.tenantId = :tenantId " +
+           "AND j.unitId IS NOT NULL AND j.status = :status " +
+           "GROUP BY j.unitId")
+    List<Object[]> countByUnitAndStatus(
+        @Param("tenantId") UUID tenantId,
+        @Param("status") JobStatus status
+    );
+
     boolean existsByJobNumber(String jobNumber);
 }
@@ -16,10 +16,6 @@
 package org.thingsboard.nexus.ct.rule;
 
 import lombok.extern.slf4j.Slf4j;
-import org.springframework.http.HttpEntity;
-import org.springframework.http.HttpHeaders;
-import org.springframework.http.MediaType;
-import org.springframework.web.client.RestTemplate;
 import org.thingsboard.nexus.ct.dto.CTFatigueLogDto;
 
 import java.math.BigDecimal;
@@ -29,23 +25,20 @@ import java.util.Map;
 import java.util.UUID;
 
 /**
- * Nodo personalizado de ThingsBoard para cálculo de fatiga en reels de Coiled Tubing.
+ * Cálculo de fatiga en reels de Coiled Tubing.
  * 
- * Este nodo:
+ * Este cálculo:
  * 1. Recibe telemetría de reels (presión, tensión, temperatura, dirección)
- * 2. Obtiene atributos del reel (geometría, material, fatiga actual)
- * 3. Calcula fatiga usando algoritmo de Palmgren-Miner
- * 4. Guarda el registro en base de datos
- * 5. Actualiza atributos del reel
- * 6. Genera alarmas según umbrales
+ * 2. Usa los atributos del reel (geometría, material, fatiga actual)
+ * 3. Calcula fatiga usando Palmgren-Miner sobre los ciclos del conteo rainflow
+ * 4. Construye el registro de fatiga para la cola de escritura por lotes
  * 
- * Uso: Asignar este nodo a la Rule Chain de assets tipo CT_REEL
+ * No es un nodo de la rule chain: lo ejecuta {@code CTStringFatigueService}, que recibe la telemetría
+ * del nodo "ct reel fatigue" asignado a la Rule Chain de assets tipo CT_REEL.
  */
 @Slf4j
 public class CTFatigueCalculationNode {
 
-    private static final RestTemplate restTemplate = new RestTemplate();
-    
     // Propiedades de materiales (módulo de elasticidad, constantes S-N)
     private static final Map<String, MaterialProperties> MATERIALS = new HashMap<>();
     
@@ -55,6 +48,12 @@ public class CTFatigueCalculationNode {
         MATERIALS.put("QT-1000", new MaterialProperties(30e6, 5e14, 3.0, 100000));
     }
     
+    // Esfuerzo equivalente por debajo del cual no se acumula daño (psi)
+    private static final double MIN_STRESS_PSI = 1000.0;
+
+    // Acumulador de los ciclos cerrados por una muestra, reutilizado entre llamadas
+    private final CycleDamage cycleDamage = new CycleDamage();
+    
     // Factores de corrosión
     private static final Map<String, Double> CORROSION_FACTORS = new HashMap<>();
     
@@ -69,6 +68,22 @@ public class CTFatigueCalculationNode {
      * Procesa telemetría del reel y calcula fatiga
      */
     public FatigueCalculationResult calculate(TelemetryData telemetry, ReelAttributes attributes) {
+        return evaluate(telemetry, attributes, null);
+    }
+
+    /**
+     * Calcula la fatiga a partir de los ciclos que cierra la muestra en el conteo rainflow del reel, en
+     * lugar de un ciclo por mensaje: el daño no depende de la frecuencia de la telemetría. El conteo
+     * recibe el esfuerzo principal de presión o tensión con signo (compresión negativa), sin la flexión: la flexión
+     * en reel y gooseneck se cuenta aparte, por pasada de cada segmento en {@link CTStringFatigueMap}.
+     */
+    public FatigueCalculationResult calculate(TelemetryData telemetry, ReelAttributes attributes,
+                                              CTRainflowCounter rainflow) {
+        return evaluate(telemetry, attributes, rainflow);
+    }
+
+    private FatigueCalculationResult evaluate(TelemetryData telemetry, ReelAttributes attributes,
+                                              CTRainflowCounter rainflow) {
         try {
             log.debug("Calculating fatigue for reel: {}", attributes.getReelId());
             
@@ -110,17 +125,13 @@ public class CTFatigueCalculationNode {
                 sigma_a * sigma_b
             );
             
-            // 7. Verificar si el esfuerzo es significativo
-            if (sigma_vm < 1000) {
+            // 7. Verificar si el esfuerzo es significativo (con rainflow, toda muestra forma parte de la historia)
+            if (rainflow == null && sigma_vm < MIN_STRESS_PSI) {
                 log.debug("Stress too low ({} psi), skipping fatigue calculation", sigma_vm);
                 return FatigueCalculationResult.skip("Stress below threshold");
             }
             
-            // 8. Ciclos hasta falla (curva S-N)
-            double N = material.getA() * Math.pow(sigma_vm, -material.getM());
-            N = Math.max(Math.min(N, 1e9), 1.0);
-            
-            // 9. Factores de corrección
+            // 8. Factores de corrección
             double corrosionFactor = CORROSION_FACTORS.getOrDefault(
                 attributes.getCorrosionEnvironment(), 
                 1.0
@@ -128,27 +139,43 @@ public class CTFatigueCalculationNode {
             double weldFactor = attributes.getWeldStressConcentrationFactor();
             double tempFactor = 1.0 + ((telemetry.getTemperature() - 70.0) / 1000.0);
             
-            // 10. Incremento de fatiga
-            double fatigueIncrement = (1.0 / N) * corrosionFactor * weldFactor * tempFactor;
-            
-            // Solo incrementar si hay movimiento
-            boolean shouldIncrement = telemetry.getDirection().equals("IN") || 
-                                     telemetry.getDirection().equals("OUT");
-            
-            if (!shouldIncrement) {
-                fatigueIncrement = 0.0;
+            // 9. Ciclos hasta falla (curva S-N) e incremento de fatiga
+            double N;
+            double fatigueIncrement;
+            int closedCycles;
+            if (rainflow != null) {
+                synchronized (cycleDamage) {
+                    cycleDamage.reset(material);
+                    double cyclesBefore = rainflow.getCycles();
+                    rainflow.add(signedLoadStress(sigma_h, sigma_a), cycleDamage);
+                    closedCycles = (int) (Math.floor(rainflow.getCycles()) - Math.floor(cyclesBefore));
+                    N = cycleDamage.minCyclesToFailure;
+                    fatigueIncrement = cycleDamage.damage * corrosionFactor * weldFactor * tempFactor;
+                }
+            } else {
+                N = cyclesToFailure(material, sigma_vm);
+                fatigueIncrement = (1.0 / N) * corrosionFactor * weldFactor * tempFactor;
+                
+                // Solo incrementar si hay movimiento
+                boolean shouldIncrement = telemetry.getDirection().equals("IN") || 
+                                         telemetry.getDirection().equals("OUT");
+                
+                if (!shouldIncrement) {
+                    fatigueIncrement = 0.0;
+                }
+                closedCycles = shouldIncrement ? 1 : 0;
             }
             
-            // 11. Nueva fatiga acumulada
+            // 10. Nueva fatiga acumulada
             double currentFatigue = attributes.getAccumulatedFatiguePercent();
             double newFatiguePercent = Math.min(currentFatigue + (fatigueIncrement * 100.0), 100.0);
-            int newTotalCycles = attributes.getTotalCycles() + (shouldIncrement ? 1 : 0);
+            int newTotalCycles = attributes.getTotalCycles() + closedCycles;
             
-            // 12. Ciclos restantes estimados
+            // 11. Ciclos restantes estimados
             double avgFatiguePerCycle = newFatiguePercent / Math.max(newTotalCycles, 1);
             int remainingCycles = (int) Math.floor((100.0 - newFatiguePercent) / Math.max(avgFatiguePerCycle, 0.001));
             
-            // 13. Construir resultado
+            // 12. Construir resultado
             FatigueCalculationResult result = new FatigueCalculationResult();
             result.setSuccess(true);
             result.setReelId(attributes.getReelId());
@@ -169,7 +196,7 @@ public class CTFatigueCalculationNode {
             result.setVonMisesStressPsi(round(sigma_vm, 0));
             
             // Fatiga
-            result.setCyclesToFailure((long) Math.round(N));
+            result.setCyclesToFailure(Double.isNaN(N) ? null : Math.round(N));
             result.setFatigueIncrement(round(fatigueIncrement, 10));
             result.setAccumulatedFatiguePercent(round(newFatiguePercent, 3));
             
@@ -179,8 +206,10 @@ public class CTFatigueCalculationNode {
             result.setTemperatureFactor(round(tempFactor, 3));
             
             // Metadata
-            result.setCalculationMethod("PALMGREN_MINER");
-            result.setNotes("Direction: " + telemetry.getDirection());
+            result.setCalculationMethod(rainflow != null ? "RAINFLOW_PALMGREN_MINER" : "PALMGREN_MINER");
+            result.setNotes(rainflow != null
+                ? "Direction: " + telemetry.getDirection() + ", closed cycles: " + closedCycles
+                : "Direction: " + telemetry.getDirection());
             
             // Estado de fatiga
             result.setNewFatiguePercent(newFatiguePercent);
@@ -203,51 +232,116 @@ public class CTFatigueCalculationNode {
     }
     
     /**
-     * Guarda el registro de fatiga en la base de datos
+     * Calcula la fatiga del reel y además actualiza el mapa de fatiga por segmento con el recorrido
+     * de la sarta desde la última profundidad reportada.
      */
-    public void saveFatigueLog(FatigueCalculationResult result, String backendUrl) {
-        try {
-            CTFatigueLogDto logDto = CTFatigueLogDto.builder()
-                .tenantId(result.getTenantId())
-                .reelId(result.getReelId())
-                .timestamp(result.getTimestamp())
-                .cycleNumber(result.getCycleNumber())
-                .pressurePsi(BigDecimal.valueOf(result.getPressurePsi()))
-                .tensionLbf(BigDecimal.valueOf(result.getTensionLbf()))
-                .bendRadiusIn(BigDecimal.valueOf(result.getBendRadiusIn()))
-                .temperatureF(BigDecimal.valueOf(result.getTemperatureF()))
-                .hoopStressPsi(BigDecimal.valueOf(result.getHoopStressPsi()))
-                .axialStressPsi(BigDecimal.valueOf(result.getAxialStressPsi()))
-                .bendingStressPsi(BigDecimal.valueOf(result.getBendingStressPsi()))
-                .vonMisesStressPsi(BigDecimal.valueOf(result.getVonMisesStressPsi()))
-                .cyclesToFailure(result.getCyclesToFailure())
-                .fatigueIncrement(BigDecimal.valueOf(result.getFatigueIncrement()))
-                .accumulatedFatiguePercent(BigDecimal.valueOf(result.getAccumulatedFatiguePercent()))
-                .corrosionFactor(BigDecimal.valueOf(result.getCorrosionFactor()))
-                .weldFactor(BigDecimal.valueOf(result.getWeldFactor()))
-                .temperatureFactor(BigDecimal.valueOf(result.getTemperatureFactor()))
-                .calculationMethod(result.getCalculationMethod())
-                .notes(result.getNotes())
-                .build();
-            
-            HttpHeaders headers = new HttpHeaders();
-            headers.setContentType(MediaType.APPLICATION_JSON);
-            HttpEntity<CTFatigueLogDto> request = new HttpEntity<>(logDto, headers);
-            
-            String url = backendUrl + "/api/nexus/ct/fatigue/log";
-            restTemplate.postForEntity(url, request, Void.class);
-            
-            log.debug("Fatigue log saved successfully for reel: {}", result.getReelId());
-            
-        } catch (Exception e) {
-            log.error("Error saving fatigue log: {}", e.getMessage(), e);
+    public FatigueCalculationResult calculate(TelemetryData telemetry, ReelAttributes attributes,
+                                              CTStringFatigueMap segments) {
+        return calculate(telemetry, attributes, segments, null);
+    }
+
+    /**
+     * Como {@link #calculate(TelemetryData, ReelAttributes, CTStringFatigueMap)}, con la fatiga del reel
+     * calculada por conteo rainflow cuando {@code rainflow} no es nulo.
+     */
+    public FatigueCalculationResult calculate(TelemetryData telemetry, ReelAttributes attributes,
+                                              CTStringFatigueMap segments, CTRainflowCounter rainflow) {
+        FatigueCalculationResult result = evaluate(telemetry, attributes, rainflow);
+        if (segments == null || telemetry == null || Double.isNaN(telemetry.getDepthFt())) {
+            return result;
+        }
+        boolean moving = "IN".equals(telemetry.getDirection()) || "OUT".equals(telemetry.getDirection());
+        double damagePerPass = moving ? damagePerPass(telemetry, attributes) : 0.0;
+        segments.advance(telemetry.getDepthFt(), damagePerPass);
+
+        if (result.isSuccess()) {
+            double worstPercent = segments.getWorstFatiguePercent();
+            result.setWorstSegmentFatiguePercent(round(worstPercent, 3));
+            result.setWorstSegmentPositionFt(round(segments.getWorstPositionFt(), 1));
+            result.setSegmentRemainingPasses(segments.getRemainingPasses());
+            result.setFatigueStatus(getFatigueStatus(Math.max(result.getNewFatiguePercent(), worstPercent)));
+        }
+        return result;
+    }
+
+    /**
+     * Daño Palmgren-Miner de una pasada de un punto de la sarta: enderezado al salir del reel
+     * (radio del núcleo) y doblado/enderezado en el gooseneck.
+     */
+    public double damagePerPass(TelemetryData telemetry, ReelAttributes attributes) {
+        MaterialProperties material = MATERIALS.getOrDefault(attributes.getMaterialGrade(), MATERIALS.get("QT-800"));
+        double corrosionFactor = CORROSION_FACTORS.getOrDefault(attributes.getCorrosionEnvironment(), 1.0);
+        double tempFactor = 1.0 + ((telemetry.getTemperature() - 70.0) / 1000.0);
+        double factors = corrosionFactor * attributes.getWeldStressConcentrationFactor() * tempFactor;
+
+        double reelDamage = bendingDamage(material, telemetry, attributes, attributes.getReelCoreDiameterInch() / 2.0);
+        double gooseneckDamage = bendingDamage(material, telemetry, attributes, attributes.getTypicalGooseneckRadiusInch());
+        return (reelDamage + 2.0 * gooseneckDamage) * factors;
+    }
+
+    private double bendingDamage(MaterialProperties material, TelemetryData telemetry, ReelAttributes attributes, double radius) {
+        double Do = attributes.getTubingOdInch();
+        double Di = attributes.getTubingIdInch();
+        double t = (Do - Di) / 2.0;
+        double area = Math.PI / 4.0 * (Do * Do - Di * Di);
+        double sigma_h = (telemetry.getPressure() * Di) / (2.0 * t);
+        double sigma_a = telemetry.getTension() / area;
+        double sigma_b = (material.getE() * (Do / 2.0)) / radius;
+        double sigma_vm = Math.sqrt(sigma_h * sigma_h + sigma_a * sigma_a + sigma_b * sigma_b
+                - sigma_h * sigma_a - sigma_h * sigma_b - sigma_a * sigma_b);
+        if (sigma_vm < MIN_STRESS_PSI) {
+            return 0.0;
         }
+        return 1.0 / cyclesToFailure(material, sigma_vm);
+    }
+
+    /**
+     * Esfuerzo principal de presión o tensión de mayor magnitud, con su signo. Es monótono en cada carga
+     * (el von Mises baja y vuelve a subir al aumentar la presión con tensión, y esas inversiones dependen
+     * del muestreo) y negativo en compresión, de modo que un paso de tensión a compresión cuenta el rango
+     * completo en lugar de plegarse sobre la magnitud.
+     */
+    static double signedLoadStress(double hoopPsi, double axialPsi) {
+        return Math.abs(hoopPsi) >= Math.abs(axialPsi) ? hoopPsi : axialPsi;
+    }
+
+    private static double cyclesToFailure(MaterialProperties material, double stressPsi) {
+        return Math.max(Math.min(material.getA() * Math.pow(stressPsi, -material.getM()), 1e9), 1.0);
+    }
+
+    /**
+     * Construye el registro de fatiga de un cálculo, listo para encolarlo en {@code CTFatigueLogSink}
+     */
+    public CTFatigueLogDto toFatigueLog(FatigueCalculationResult result) {
+        return CTFatigueLogDto.builder()
+            .tenantId(result.getTenantId())
+            .reelId(result.getReelId())
+            .timestamp(result.getTimestamp())
+            .cycleNumber(result.getCycleNumber())
+            .pressurePsi(BigDecimal.valueOf(result.getPressurePsi()))
+            .tensionLbf(BigDecimal.valueOf(result.getTensionLbf()))
+            .bendRadiusIn(BigDecimal.valueOf(result.getBendRadiusIn()))
+            .temperatureF(BigDecimal.valueOf(result.getTemperatureF()))
+            .hoopStressPsi(BigDecimal.valueOf(result.getHoopStressPsi()))
+            .axialStressPsi(BigDecimal.valueOf(result.getAxialStressPsi()))
+            .bendingStressPsi(BigDecimal.valueOf(result.getBendingStressPsi()))
+            .vonMisesStressPsi(BigDecimal.valueOf(result.getVonMisesStressPsi()))
+            .cyclesToFailure(result.getCyclesToFailure())
+            .fatigueIncrement(BigDecimal.valueOf(result.getFatigueIncrement()))
+            .accumulatedFatiguePercent(BigDecimal.valueOf(result.getAccumulatedFatiguePercent()))
+            .corrosionFactor(BigDecimal.valueOf(result.getCorrosionFactor()))
+            .weldFactor(BigDecimal.valueOf(result.getWeldFactor()))
+            .temperatureFactor(BigDecimal.valueOf(result.getTemperatureFactor()))
+            .calculationMethod(result.getCalculationMethod())
+            .notes(result.getNotes())
+            .build();
     }
     
     private boolean isValidTelemetry(TelemetryData telemetry) {
+        // La tensión puede ser negativa (sarta en compresión al empujar contra presión)
         return telemetry != null && 
                telemetry.getPressure() >= 0 && 
-               telemetry.getTension() >= 0 &&
+               !Double.isNaN(telemetry.getTension()) &&
                telemetry.getDirection() != null;
     }
     
@@ -271,6 +365,7 @@ public class CTFatigueCalculationNode {
         private double tension;
         private double temperature = 70.0;
         private String direction = "STOPPED";
+        private double depthFt = Double.NaN;
         
         public double getPressure() { return pressure; }
         public void setPressure(double pressure) { this.pressure = pressure; }
@@ -280,6 +375,8 @@ public class CTFatigueCalculationNode {
         public void setTemperature(double temperature) { this.temperature = temperature; }
         public String getDirection() { return direction; }
         public void setDirection(String direction) { this.direction = direction; }
+        public double getDepthFt() { return depthFt; }
+        public void setDepthFt(double depthFt) { this.depthFt = depthFt; }
     }
     
     public static class ReelAttributes {
@@ -290,6 +387,7 @@ public class CTFatigueCalculationNode {
         private String materialGrade = "QT-800";
         private double typicalGooseneckRadiusInch = 72.0;
         private double reelCoreDiameterInch = 96.0;
+        private double tubingLengthFt = 15000.0;
         private double accumulatedFatiguePercent = 0.0;
         private int totalCycles = 0;
         private String corrosionEnvironment = "SWEET";
@@ -314,6 +412,8 @@ public class CTFatigueCalculationNode {
         public void setReelCoreDiameterInch(double reelCoreDiameterInch) { 
             this.reelCoreDiameterInch = reelCoreDiameterInch; 
         }
+        public double getTubingLengthFt() { return tubingLengthFt; }
+        public void setTubingLengthFt(double tubingLengthFt) { this.tubingLengthFt = tubingLengthFt; }
         public double getAccumulatedFatiguePercent() { return accumulatedFatiguePercent; }
         public void setAccumulatedFatiguePercent(double accumulatedFatiguePercent) { 
             this.accumulatedFatiguePercent = accumulatedFatiguePercent; 
@@ -357,6 +457,9 @@ public class CTFatigueCalculationNode {
         private int newTotalCycles;
         private int remainingCycles;
         private String fatigueStatus;
+        private Double worstSegmentFatiguePercent;
+        private Double worstSegmentPositionFt;
+        private Long segmentRemainingPasses;
         
         public static FatigueCalculationResult skip(String reason) {
             FatigueCalculationResult result = new FatigueCalculationResult();
@@ -427,6 +530,44 @@ public class CTFatigueCalculationNode {
         public void setRemainingCycles(int remainingCycles) { this.remainingCycles = remainingCycles; }
         public String getFatigueStatus() { return fatigueStatus; }
         public void setFatigueStatus(String fatigueStatus) { this.fatigueStatus = fatigueStatus; }
+        public Double getWorstSegmentFatiguePercent() { return worstSegmentFatiguePercent; }
+        public void setWorstSegmentFatiguePercent(Double worstSegmentFatiguePercent) {
+            this.worstSegmentFatiguePercent = worstSegmentFatiguePercent;
+        }
+        public Double getWorstSegmentPositionFt() { return worstSegmentPositionFt; }
+        public void setWorstSegmentPositionFt(Double worstSegmentPositionFt) { this.worstSegmentPositionFt = worstSegmentPositionFt; }
+        public Long getSegmentRemainingPasses() { return segmentRemainingPasses; }
+        public void setSegmentRemainingPasses(Long segmentRemainingPasses) { this.segmentRemainingPasses = segmentRemainingPasses; }
+    }
+    
+    /**
+     * Suma Palmgren-Miner de los ciclos rainflow cerrados por una muestra. La amplitud de cada ciclo se
+     * lleva a una amplitud totalmente alternante equivalente con Smith-Watson-Topper antes de entrar en
+     * la curva S-N, para que la media del ciclo (presión, tensión) también cuente.
+     */
+    private static final class CycleDamage implements CTRainflowCounter.CycleConsumer {
+        private MaterialProperties material;
+        private double damage;
+        private double minCyclesToFailure;
+
+        void reset(MaterialProperties material) {
+            this.material = material;
+            this.damage = 0.0;
+            this.minCyclesToFailure = Double.NaN;
+        }
+
+        @Override
+        public void accept(double range, double mean, double max, double count) {
+            double amplitude = Math.sqrt(Math.max(max, 0.0) * range / 2.0);
+            if (amplitude < MIN_STRESS_PSI) {
+                return;
+            }
+            double n = cyclesToFailure(material, amplitude);
+            damage += count / n;
+            if (Double.isNaN(minCyclesToFailure) || n < minCyclesToFailure) {
+                minCyclesToFailure = n;
+            }
+        }
     }
     
     private static class MaterialProperties {
@@ -27,7 +27,7 @@ import java.util.UUID;
  * Este nodo:
  * 1. Recibe parámetros de un trabajo planificado
  * 2. Simula el despliegue de tubería en el pozo
- * 3. Calcula fuerzas (hookload, fricción, pandeo)
+ * 3. Calcula fuerzas (hookload, fricción, pandeo) sobre la trayectoria del survey
  * 4. Calcula presiones hidráulicas
  * 5. Estima tiempos de operación
  * 6. Predice fatiga acumulada
@@ -40,20 +40,52 @@ public class CTJobSimulationNode {
 
     private static final double GRAVITY = 32.174; // ft/s²
     private static final double PI = Math.PI;
+    private static final double DEFAULT_STEP_FT = 50.0;
+    private static final double STEEL_DENSITY_PPG = 65.5;
+    private static final double STEEL_E_PSI = 30e6;
+    private static final double BBL_TO_FT3 = 5.6146;
+    private static final double PPG_TO_LBM_FT3 = 7.4805;
+    private static final double CP_TO_LBM_FT_S = 6.7197e-4;
     
     /**
      * Simula un trabajo de coiled tubing
      */
     public SimulationResult simulate(JobParameters params) {
         try {
-            log.info("Starting job simulation for well: {}", params.getWellName());
+            return simulate(params, wellboreModel(params));
+        } catch (Exception e) {
+            log.error("Error simulating job: {}", e.getMessage(), e);
+            return SimulationResult.error(e.getMessage());
+        }
+    }
+    
+    /**
+     * Construye el modelo del pozo de un trabajo: el survey si viene en los parámetros, o una inclinación
+     * constante igual a {@code maxInclinationDeg} si no. El modelo puede reutilizarse entre escenarios.
+     */
+    public CTWellboreModel wellboreModel(JobParameters params) {
+        double stepFt = params.getStepFt() != null && params.getStepFt() > 0 ? params.getStepFt() : DEFAULT_STEP_FT;
+        if (params.getSurveyMdFt() != null && params.getSurveyMdFt().length > 0) {
+            return CTWellboreModel.fromSurvey(params.getSurveyMdFt(), params.getSurveyInclinationDeg(),
+                    params.getSurveyAzimuthDeg(), params.getTargetDepthFt(), stepFt);
+        }
+        return CTWellboreModel.constantInclination(params.getTargetDepthFt(), params.getMaxInclinationDeg(), stepFt);
+    }
+    
+    /**
+     * Simula un trabajo sobre un modelo de pozo ya construido para su profundidad objetivo
+     */
+    public SimulationResult simulate(JobParameters params, CTWellboreModel well) {
+        try {
+            log.debug("Starting job simulation for well: {}", params.getWellName());
             
             SimulationResult result = new SimulationResult();
             result.setJobId(params.getJobId());
             result.setWellName(params.getWellName());
+            result.setTrajectorySource(well.isFromSurvey() ? "SURVEY" : "CONSTANT_INCLINATION");
             
             // 1. Validar factibilidad básica
-            FeasibilityCheck feasibility = checkFeasibility(params);
+            FeasibilityCheck feasibility = checkFeasibility(params, well);
             result.setFeasibility(feasibility);
             
             if (!feasibility.isFeasible()) {
@@ -62,11 +94,11 @@ public class CTJobSimulationNode {
             }
             
             // 2. Calcular análisis de fuerzas
-            ForceAnalysis forces = calculateForces(params);
+            ForceAnalysis forces = calculateForces(params, well);
             result.setForces(forces);
             
             // 3. Calcular análisis hidráulico
-            HydraulicAnalysis hydraulics = calculateHydraulics(params);
+            HydraulicAnalysis hydraulics = calculateHydraulics(params, well);
             result.setHydraulics(hydraulics);
             
             // 4. Estimar tiempos
@@ -78,10 +110,10 @@ public class CTJobSimulationNode {
             result.setFatigue(fatigue);
             
             // 6. Identificar riesgos
-            List<Risk> risks = identifyRisks(params, forces, hydraulics);
+            List<Risk> risks = identifyRisks(params, well, forces, hydraulics);
             result.setRisks(risks);
             
-            log.info("Simulation completed. Feasible: {}, Max hookload: {} lbf, Duration: {} hrs",
+            log.debug("Simulation completed. Feasible: {}, Max hookload: {} lbf, Duration: {} hrs",
                      feasibility.isFeasible(), 
                      forces.getMaxHookload(),
                      times.getTotalDurationHours());
@@ -97,7 +129,7 @@ public class CTJobSimulationNode {
     /**
      * Verifica si el trabajo es factible
      */
-    private FeasibilityCheck checkFeasibility(JobParameters params) {
+    private FeasibilityCheck checkFeasibility(JobParameters params, CTWellboreModel well) {
         FeasibilityCheck check = new FeasibilityCheck();
         check.setFeasible(true);
         List<String> limitingFactors = new ArrayList<>();
@@ -127,7 +159,7 @@ public class CTJobSimulationNode {
             warnings.add("Deep well - expect high friction forces");
         }
         
-        if (params.getMaxInclinationDeg() > 60) {
+        if (well.getMaxInclinationDeg() > 60) {
             warnings.add("High deviation - risk of buckling");
         }
         
@@ -138,68 +170,103 @@ public class CTJobSimulationNode {
     }
     
     /**
-     * Calcula fuerzas a lo largo del pozo
+     * Calcula fuerzas a lo largo del pozo con el modelo de sarta blanda (Johancsik) sobre la trayectoria:
+     * para cada profundidad de la punta integra la fuerza axial desde la punta hasta superficie, sacando
+     * tubería (pickup) y bajándola (slack-off). En compresión compara la carga con el pandeo sinusoidal
+     * crítico (Dawson-Paslay en tramos inclinados, Lubinski en verticales).
      */
-    private ForceAnalysis calculateForces(JobParameters params) {
+    private ForceAnalysis calculateForces(JobParameters params, CTWellboreModel well) {
         ForceAnalysis analysis = new ForceAnalysis();
         
-        int steps = 100;
-        double depthIncrement = params.getTargetDepthFt() / steps;
+        int n = well.getPoints();
+        double[] md = well.md;
+        double[] sin = well.segmentSin;
+        double[] cos = well.segmentCos;
+        double[] dInc = well.deltaInclination;
+        double[] dAzi = well.deltaAzimuth;
         
-        List<Double> depths = new ArrayList<>();
-        List<Double> hookloads = new ArrayList<>();
-        List<Double> frictions = new ArrayList<>();
-        List<Double> bucklingMargins = new ArrayList<>();
+        double[] depths = new double[n];
+        double[] tvds = new double[n];
+        double[] hookloads = new double[n];
+        double[] slackOffHookloads = new double[n];
+        double[] frictions = new double[n];
+        double[] bucklingMargins = new double[n];
         
         // Propiedades de la tubería
         double Do = params.getTubingOdInch();
         double Di = params.getTubingIdInch();
-        double area = PI / 4.0 * (Math.pow(Do, 2) - Math.pow(Di, 2));
+        double area = PI / 4.0 * (Do * Do - Di * Di);
         double weight = area * 490.0 / 144.0; // lbf/ft (acero)
+        double buoyedWeight = weight * (1.0 - params.getFluidDensityPpg() / STEEL_DENSITY_PPG);
+        double mu = params.getFrictionCoefficient();
+        
+        // Carga crítica de pandeo por tramo
+        double EI = STEEL_E_PSI * PI / 64.0 * (Math.pow(Do, 4) - Math.pow(Di, 4));
+        double weightPerInch = Math.max(buoyedWeight, 1e-6) / 12.0;
+        double clearance = Math.max((params.getWellboreDiameterInch() - Do) / 2.0, 0.01);
+        double verticalCritical = 1.94 * Math.cbrt(EI * weightPerInch * weightPerInch);
+        double[] critical = new double[n];
+        for (int j = 1; j < n; j++) {
+            critical[j] = Math.max(verticalCritical, 2.0 * Math.sqrt(EI * weightPerInch * sin[j] / clearance));
+        }
         
         double maxHookload = 0;
-        
-        for (int i = 0; i <= steps; i++) {
-            double depth = i * depthIncrement;
-            
-            // Peso de tubería
-            double tubingWeight = weight * depth;
-            
-            // Fricción (simplificado - modelo de Johancsik)
-            double frictionCoef = 0.25;
-            double normalForce = tubingWeight * Math.sin(Math.toRadians(params.getMaxInclinationDeg()));
-            double frictionForce = frictionCoef * normalForce;
-            
-            // Hookload (running in)
-            double hookload = tubingWeight + frictionForce;
-            
-            // Margen de pandeo
-            double criticalBucklingForce = calculateBucklingForce(params, depth);
-            double bucklingMargin = (criticalBucklingForce - hookload) / criticalBucklingForce * 100;
+        double minSlackOff = Double.MAX_VALUE;
+        
+        for (int k = 0; k < n; k++) {
+            double pickup = 0;
+            double slackOff = 0;
+            double minMargin = 100.0;
+            for (int j = k; j > 0; j--) {
+                double segmentWeight = buoyedWeight * (md[j] - md[j - 1]);
+                double lateral = segmentWeight * sin[j];
+                double axial = segmentWeight * cos[j];
+                
+                double pickupSide = pickup * dAzi[j] * sin[j];
+                double pickupPlane = pickup * dInc[j] + lateral;
+                pickup += axial + mu * Math.sqrt(pickupSide * pickupSide + pickupPlane * pickupPlane);
+                
+                double slackSide = slackOff * dAzi[j] * sin[j];
+                double slackPlane = slackOff * dInc[j] + lateral;
+                slackOff += axial - mu * Math.sqrt(slackSide * slackSide + slackPlane * slackPlane);
+                
+                if (slackOff < 0) {
+                    minMargin = Math.min(minMargin, (critical[j] + slackOff) / critical[j] * 100.0);
+                }
+            }
             
-            depths.add(depth);
-            hookloads.add(hookload);
-            frictions.add(frictionForce);
-            bucklingMargins.add(Math.max(bucklingMargin, 0));
+            depths[k] = md[k];
+            tvds[k] = well.getTvdFt(k);
+            hookloads[k] = pickup;
+            slackOffHookloads[k] = slackOff;
+            frictions[k] = (pickup - slackOff) / 2.0;
+            bucklingMargins[k] = Math.max(minMargin, 0);
             
-            if (hookload > maxHookload) {
-                maxHookload = hookload;
+            if (pickup > maxHookload) {
+                maxHookload = pickup;
+            }
+            if (slackOff < minSlackOff) {
+                minSlackOff = slackOff;
             }
         }
         
         analysis.setDepths(depths);
+        analysis.setTvds(tvds);
         analysis.setHookloads(hookloads);
+        analysis.setSlackOffHookloads(slackOffHookloads);
         analysis.setFrictions(frictions);
         analysis.setBucklingMargins(bucklingMargins);
         analysis.setMaxHookload(maxHookload);
+        analysis.setMinSlackOffHookload(minSlackOff);
         
         return analysis;
     }
     
     /**
-     * Calcula presiones hidráulicas
+     * Calcula presiones hidráulicas. La fricción dentro de la tubería se aplica a toda su longitud (en el
+     * pozo y enrollada en el reel); la del anular y la hidrostática (por TVD) dependen de la profundidad.
      */
-    private HydraulicAnalysis calculateHydraulics(JobParameters params) {
+    private HydraulicAnalysis calculateHydraulics(JobParameters params, CTWellboreModel well) {
         HydraulicAnalysis analysis = new HydraulicAnalysis();
         
         if (params.getPumpRateBpm() == null || params.getPumpRateBpm() == 0) {
@@ -207,41 +274,45 @@ public class CTJobSimulationNode {
             return analysis;
         }
         
-        int steps = 100;
-        double depthIncrement = params.getTargetDepthFt() / steps;
-        
-        List<Double> depths = new ArrayList<>();
-        List<Double> pressures = new ArrayList<>();
-        List<Double> frictionPressures = new ArrayList<>();
-        List<Double> velocities = new ArrayList<>();
+        int n = well.getPoints();
+        double[] depths = new double[n];
+        double[] pressures = new double[n];
+        double[] frictionPressures = new double[n];
+        double[] bottomholePressures = new double[n];
+        double[] velocities = new double[n];
         
         double Do = params.getTubingOdInch();
         double Di = params.getTubingIdInch();
-        double area = PI / 4.0 * Math.pow(Di / 12.0, 2); // ft²
-        
-        double flowRate = params.getPumpRateBpm() * 0.0238; // bpm to ft³/s
-        double velocity = flowRate / area; // ft/s
+        double Dw = params.getWellboreDiameterInch();
+        double density = params.getFluidDensityPpg() * PPG_TO_LBM_FT3;
+        double viscosity = params.getFluidViscosityCp() * CP_TO_LBM_FT_S;
+        double flowRate = params.getPumpRateBpm() * BBL_TO_FT3 / 60.0; // ft³/s
+        
+        // Gradientes de fricción (psi/ft) dentro de la tubería y en el anular
+        double tubingDiameter = Di / 12.0;
+        double velocity = flowRate / (PI / 4.0 * tubingDiameter * tubingDiameter);
+        double tubingGradient = frictionGradient(density, viscosity, velocity, tubingDiameter);
+        double annularDiameter = Math.max(Dw - Do, 0.01) / 12.0;
+        double annularVelocity = flowRate / (PI / 4.0 * (Dw * Dw - Do * Do) / 144.0);
+        double annularGradient = Dw > Do ? frictionGradient(density, viscosity, annularVelocity, annularDiameter) : 0.0;
+        
+        double tubingFriction = tubingGradient * Math.max(params.getTubingLengthFt(), well.getTargetDepthFt());
+        double hydrostaticGradient = params.getFluidDensityPpg() * 0.052;
+        double wellheadPressure = params.getWellheadPressurePsi();
         
         double maxPressure = 0;
         
-        for (int i = 0; i <= steps; i++) {
-            double depth = i * depthIncrement;
-            
-            // Presión hidrostática
-            double hydrostaticPressure = params.getFluidDensityPpg() * 0.052 * depth;
-            
-            // Presión de fricción (ecuación de Darcy-Weisbach simplificada)
-            double frictionFactor = 0.02;
-            double frictionPressure = frictionFactor * (depth / (Di / 12.0)) * 
-                                     (params.getFluidDensityPpg() * 8.33 * Math.pow(velocity, 2)) / 
-                                     (2 * GRAVITY);
+        for (int i = 0; i < n; i++) {
+            double depth = well.md[i];
+            double annularFriction = annularGradient * depth;
+            double frictionPressure = tubingFriction + annularFriction;
+            double totalPressure = frictionPressure + wellheadPressure;
             
-            double totalPressure = hydrostaticPressure + frictionPressure;
-            
-            depths.add(depth);
-            pressures.add(totalPressure);
-            frictionPressures.add(frictionPressure);
-            velocities.add(velocity);
+            depths[i] = depth;
+            pressures[i] = totalPressure;
+            frictionPressures[i] = frictionPressure;
+            bottomholePressures[i] = hydrostaticGradient * well.getTvdFt(i) + annularFriction + wellheadPressure;
+            velocities[i] = velocity;
             
             if (totalPressure > maxPressure) {
                 maxPressure = totalPressure;
@@ -251,12 +322,26 @@ public class CTJobSimulationNode {
         analysis.setDepths(depths);
         analysis.setPressures(pressures);
         analysis.setFrictionPressures(frictionPressures);
+        analysis.setBottomholePressures(bottomholePressures);
         analysis.setVelocities(velocities);
+        analysis.setAnnularVelocity(annularVelocity);
         analysis.setMaxPressure(maxPressure);
         
         return analysis;
     }
     
+    /**
+     * Gradiente de fricción de Darcy-Weisbach (psi/ft): laminar 64/Re, turbulento Blasius
+     */
+    private static double frictionGradient(double density, double viscosity, double velocity, double diameter) {
+        double reynolds = density * velocity * diameter / viscosity;
+        if (reynolds <= 0) {
+            return 0.0;
+        }
+        double frictionFactor = reynolds < 2100 ? 64.0 / reynolds : 0.316 / Math.pow(reynolds, 0.25);
+        return frictionFactor / diameter * density * velocity * velocity / (2 * GRAVITY) / 144.0;
+    }
+    
     /**
      * Estima tiempos de operación
      */
@@ -322,7 +407,7 @@ public class CTJobSimulationNode {
     /**
      * Identifica riesgos potenciales
      */
-    private List<Risk> identifyRisks(JobParameters params, ForceAnalysis forces, 
+    private List<Risk> identifyRisks(JobParameters params, CTWellboreModel well, ForceAnalysis forces,
                                      HydraulicAnalysis hydraulics) {
         List<Risk> risks = new ArrayList<>();
         
@@ -334,8 +419,13 @@ public class CTJobSimulationNode {
         }
         
         // Riesgo de pandeo
-        boolean hasBucklingRisk = forces.getBucklingMargins().stream()
-                                        .anyMatch(margin -> margin < 20);
+        boolean hasBucklingRisk = false;
+        for (double margin : forces.getBucklingMargins()) {
+            if (margin < 20) {
+                hasBucklingRisk = true;
+                break;
+            }
+        }
         if (hasBucklingRisk) {
             risks.add(new Risk("MEDIUM", "BUCKLING", 
                               "Low buckling margin in deviated sections"));
@@ -350,7 +440,7 @@ public class CTJobSimulationNode {
         }
         
         // Riesgo de stuck pipe
-        if (params.getMaxInclinationDeg() > 45 && params.getTargetDepthFt() > 15000) {
+        if (well.getMaxInclinationDeg() > 45 && params.getTargetDepthFt() > 15000) {
             risks.add(new Risk("MEDIUM", "STUCK_PIPE", 
                               "High deviation and depth increase stuck pipe risk"));
         }
@@ -358,16 +448,6 @@ public class CTJobSimulationNode {
         return risks;
     }
     
-    private double calculateBucklingForce(JobParameters params, double depth) {
-        // Fuerza crítica de pandeo (ecuación de Euler simplificada)
-        double E = 30e6; // psi
-        double I = PI / 64.0 * (Math.pow(params.getTubingOdInch(), 4) - 
-                                Math.pow(params.getTubingIdInch(), 4));
-        double L = depth * 12.0; // pulgadas
-        
-        return (Math.pow(PI, 2) * E * I) / Math.pow(L, 2);
-    }
-    
     // Clases auxiliares
     
     public static class JobParameters {
@@ -386,6 +466,45 @@ public class CTJobSimulationNode {
         private double unitMaxPressurePsi;
         private double unitMaxTensionLbf;
         private Double estimatedTreatmentHours;
+        private double wellheadPressurePsi;
+        private double fluidViscosityCp = 1.0;
+        private double frictionCoefficient = 0.25;
+        private Double stepFt;
+        private double[] surveyMdFt;
+        private double[] surveyInclinationDeg;
+        private double[] surveyAzimuthDeg;
+        
+        /**
+         * Copia de los parámetros con los valores que fija el escenario
+         */
+        public JobParameters withScenario(Scenario scenario) {
+            JobParameters copy = new JobParameters();
+            copy.jobId = jobId;
+            copy.wellName = wellName;
+            copy.targetDepthFt = targetDepthFt;
+            copy.wellboreDiameterInch = wellboreDiameterInch;
+            copy.maxInclinationDeg = maxInclinationDeg;
+            copy.tubingOdInch = tubingOdInch;
+            copy.tubingIdInch = tubingIdInch;
+            copy.tubingLengthFt = tubingLengthFt;
+            copy.fluidDensityPpg = scenario.getFluidDensityPpg() != null ? scenario.getFluidDensityPpg() : fluidDensityPpg;
+            copy.pumpRateBpm = scenario.getPumpRateBpm() != null ? scenario.getPumpRateBpm() : pumpRateBpm;
+            copy.maxPressurePsi = maxPressurePsi;
+            copy.maxRunningSpeedFtMin = scenario.getRunningSpeedFtMin() != null
+                ? scenario.getRunningSpeedFtMin() : maxRunningSpeedFtMin;
+            copy.unitMaxPressurePsi = unitMaxPressurePsi;
+            copy.unitMaxTensionLbf = unitMaxTensionLbf;
+            copy.estimatedTreatmentHours = estimatedTreatmentHours;
+            copy.wellheadPressurePsi = wellheadPressurePsi;
+            copy.fluidViscosityCp = scenario.getFluidViscosityCp() != null ? scenario.getFluidViscosityCp() : fluidViscosityCp;
+            copy.frictionCoefficient = scenario.getFrictionCoefficient() != null
+                ? scenario.getFrictionCoefficient() : frictionCoefficient;
+            copy.stepFt = stepFt;
+            copy.surveyMdFt = surveyMdFt;
+            copy.surveyInclinationDeg = surveyInclinationDeg;
+            copy.surveyAzimuthDeg = surveyAzimuthDeg;
+            return copy;
+        }
         
         // Getters y setters
         public UUID getJobId() { return jobId; }
@@ -430,11 +549,73 @@ public class CTJobSimulationNode {
         public void setEstimatedTreatmentHours(Double estimatedTreatmentHours) { 
             this.estimatedTreatmentHours = estimatedTreatmentHours; 
         }
+        public double getWellheadPressurePsi() { return wellheadPressurePsi; }
+        public void setWellheadPressurePsi(double wellheadPressurePsi) { 
+            this.wellheadPressurePsi = wellheadPressurePsi; 
+        }
+        public double getFluidViscosityCp() { return fluidViscosityCp; }
+        public void setFluidViscosityCp(double fluidViscosityCp) { this.fluidViscosityCp = fluidViscosityCp; }
+        public double getFrictionCoefficient() { return frictionCoefficient; }
+        public void setFrictionCoefficient(double frictionCoefficient) { 
+            this.frictionCoefficient = frictionCoefficient; 
+        }
+        public Double getStepFt() { return stepFt; }
+        public void setStepFt(Double stepFt) { this.stepFt = stepFt; }
+        public double[] getSurveyMdFt() { return surveyMdFt; }
+        public void setSurveyMdFt(double[] surveyMdFt) { this.surveyMdFt = surveyMdFt; }
+        public double[] getSurveyInclinationDeg() { return surveyInclinationDeg; }
+        public void setSurveyInclinationDeg(double[] surveyInclinationDeg) { 
+            this.surveyInclinationDeg = surveyInclinationDeg; 
+        }
+        public double[] getSurveyAzimuthDeg() { return surveyAzimuthDeg; }
+        public void setSurveyAzimuthDeg(double[] surveyAzimuthDeg) { this.surveyAzimuthDeg = surveyAzimuthDeg; }
+    }
+    
+    /**
+     * Variante de un plan de trabajo: los valores no nulos reemplazan a los de los parámetros base
+     */
+    public static class Scenario {
+        private String name;
+        private Double pumpRateBpm;
+        private Double runningSpeedFtMin;
+        private Double fluidDensityPpg;
+        private Double fluidViscosityCp;
+        private Double frictionCoefficient;
+        
+        public String getName() { return name; }
+        public void setName(String name) { this.name = name; }
+        public Double getPumpRateBpm() { return pumpRateBpm; }
+        public void setPumpRateBpm(Double pumpRateBpm) { this.pumpRateBpm = pumpRateBpm; }
+        public Double getRunningSpeedFtMin() { return runningSpeedFtMin; }
+        public void setRunningSpeedFtMin(Double runningSpeedFtMin) { this.runningSpeedFtMin = runningSpeedFtMin; }
+        public Double getFluidDensityPpg() { return fluidDensityPpg; }
+        public void setFluidDensityPpg(Double fluidDensityPpg) { this.fluidDensityPpg = fluidDensityPpg; }
+        public Double getFluidViscosityCp() { return fluidViscosityCp; }
+        public void setFluidViscosityCp(Double fluidViscosityCp) { this.fluidViscosityCp = fluidViscosityCp; }
+        public Double getFrictionCoefficient() { return frictionCoefficient; }
+        public void setFrictionCoefficient(Double frictionCoefficient) { 
+            this.frictionCoefficient = frictionCoefficient; 
+        }
+    }
+    
+    /**
+     * Parámetros base de un trabajo y los escenarios a comparar sobre ellos
+     */
+    public static class ScenarioRequest {
+        private JobParameters parameters;
+        private List<Scenario> scenarios = new ArrayList<>();
+        
+        public JobParameters getParameters() { return parameters; }
+        public void setParameters(JobParameters parameters) { this.parameters = parameters; }
+        public List<Scenario> getScenarios() { return scenarios; }
+        public void setScenarios(List<Scenario> scenarios) { this.scenarios = scenarios; }
     }
     
     public static class SimulationResult {
         private UUID jobId;
         private String wellName;
+        private String scenarioName;
+        private String trajectorySource;
         private FeasibilityCheck feasibility;
         private ForceAnalysis forces;
         private HydraulicAnalysis hydraulics;
@@ -456,6 +637,10 @@ public class CTJobSimulationNode {
         public void setJobId(UUID jobId) { this.jobId = jobId; }
         public String getWellName() { return wellName; }
         public void setWellName(String wellName) { this.wellName = wellName; }
+        public String getScenarioName() { return scenarioName; }
+        public void setScenarioName(String scenarioName) { this.scenarioName = scenarioName; }
+        public String getTrajectorySource() { return trajectorySource; }
+        public void setTrajectorySource(String trajectorySource) { this.trajectorySource = trajectorySource; }
         public FeasibilityCheck getFeasibility() { return feasibility; }
         public void setFeasibility(FeasibilityCheck feasibility) { this.feasibility = feasibility; }
         public ForceAnalysis getForces() { return forces; }
@@ -490,43 +675,64 @@ public class CTJobSimulationNode {
     }
     
     public static class ForceAnalysis {
-        private List<Double> depths;
-        private List<Double> hookloads;
-        private List<Double> frictions;
-        private List<Double> bucklingMargins;
+        private double[] depths;
+        private double[] tvds;
+        private double[] hookloads;
+        private double[] slackOffHookloads;
+        private double[] frictions;
+        private double[] bucklingMargins;
         private double maxHookload;
-        
-        public List<Double> getDepths() { return depths; }
-        public void setDepths(List<Double> depths) { this.depths = depths; }
-        public List<Double> getHookloads() { return hookloads; }
-        public void setHookloads(List<Double> hookloads) { this.hookloads = hookloads; }
-        public List<Double> getFrictions() { return frictions; }
-        public void setFrictions(List<Double> frictions) { this.frictions = frictions; }
-        public List<Double> getBucklingMargins() { return bucklingMargins; }
-        public void setBucklingMargins(List<Double> bucklingMargins) { 
+        private double minSlackOffHookload;
+        
+        public double[] getDepths() { return depths; }
+        public void setDepths(double[] depths) { this.depths = depths; }
+        public double[] getTvds() { return tvds; }
+        public void setTvds(double[] tvds) { this.tvds = tvds; }
+        public double[] getHookloads() { return hookloads; }
+        public void setHookloads(double[] hookloads) { this.hookloads = hookloads; }
+        public double[] getSlackOffHookloads() { return slackOffHookloads; }
+        public void setSlackOffHookloads(double[] slackOffHookloads) { 
+            this.slackOffHookloads = slackOffHookloads; 
+        }
+        public double[] getFrictions() { return frictions; }
+        public void setFrictions(double[] frictions) { this.frictions = frictions; }
+        public double[] getBucklingMargins() { return bucklingMargins; }
+        public void setBucklingMargins(double[] bucklingMargins) { 
             this.bucklingMargins = bucklingMargins; 
         }
         public double getMaxHookload() { return maxHookload; }
         public void setMaxHookload(double maxHookload) { this.maxHookload = maxHookload; }
+        public double getMinSlackOffHookload() { return minSlackOffHookload; }
+        public void setMinSlackOffHookload(double minSlackOffHookload) { 
+            this.minSlackOffHookload = minSlackOffHookload; 
+        }
     }
     
     public static class HydraulicAnalysis {
-        private List<Double> depths;
-        private List<Double> pressures;
-        private List<Double> frictionPressures;
-        private List<Double> velocities;
+        private double[] depths;
+        private double[] pressures;
+        private double[] frictionPressures;
+        private double[] bottomholePressures;
+        private double[] velocities;
+        private Double annularVelocity;
         private Double maxPressure;
         
-        public List<Double> getDepths() { return depths; }
-        public void setDepths(List<Double> depths) { this.depths = depths; }
-        public List<Double> getPressures() { return pressures; }
-        public void setPressures(List<Double> pressures) { this.pressures = pressures; }
-        public List<Double> getFrictionPressures() { return frictionPressures; }
-        public void setFrictionPressures(List<Double> frictionPressures) { 
+        public double[] getDepths() { return depths; }
+        public void setDepths(double[] depths) { this.depths = depths; }
+        public double[] getPressures() { return pressures; }
+        public void setPressures(double[] pressures) { this.pressures = pressures; }
+        public double[] getFrictionPressures() { return frictionPressures; }
+        public void setFrictionPressures(double[] frictionPressures) { 
             this.frictionPressures = frictionPressures; 
         }
-        public List<Double> getVelocities() { return velocities; }
-        public void setVelocities(List<Double> velocities) { this.velocities = velocities; }
+        public double[] getBottomholePressures() { return bottomholePressures; }
+        public void setBottomholePressures(double[] bottomholePressures) { 
+            this.bottomholePressures = bottomholePressures; 
+        }
+        public double[] getVelocities() { return velocities; }
+        public void setVelocities(double[] velocities) { this.velocities = velocities; }
+        public Double getAnnularVelocity() { return annularVelocity; }
+        public void setAnnularVelocity(Double annularVelocity) { this.annularVelocity = annularVelocity; }
         public Double getMaxPressure() { return maxPressure; }
         public void setMaxPressure(Double maxPressure) { this.maxPressure = maxPressure; }
     }
@@ -0,0 +1,156 @@
+/**
+ * Copyright © 2016-2026 The Thingsboard Authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.thingsboard.nexus.ct.rule;
+
+/**
+ * Conteo rainflow incremental (ASTM E1049, método de cuatro puntos) sobre una historia de esfuerzos.
+ *
+ * Las muestras se reducen primero a inversiones (picos y valles) con una histéresis que descarta el
+ * ruido, de modo que las muestras intermedias de un tramo monótono no cuentan y el resultado no depende
+ * de la frecuencia de muestreo. Cada inversión confirmada se apila y se extraen los ciclos completos con
+ * la regla de cuatro puntos; lo que queda es el residuo, acotado a {@code capacity} inversiones: al
+ * llenarse, la inversión más antigua se cierra como medio ciclo.
+ *
+ * No es thread-safe; el llamador sincroniza por reel.
+ */
+public final class CTRainflowCounter {
+
+    /**
+     * Receptor de ciclos cerrados: rango, media, valor máximo y cantidad (1.0 ciclo completo, 0.5 medio ciclo).
+     */
+    @FunctionalInterface
+    public interface CycleConsumer {
+        void accept(double range, double mean, double max, double count);
+    }
+
+    private final double hysteresis;
+    private final double[] reversals;
+    private int size;
+    private int direction;
+    private double candidate;
+    private double cycles;
+
+    public CTRainflowCounter(double hysteresis, int capacity) {
+        if (capacity < 4) {
+            throw new IllegalArgumentException("Residue capacity must be at least 4");
+        }
+        this.hysteresis = Math.max(0.0, hysteresis);
+        this.reversals = new double[capacity];
+    }
+
+    /**
+     * Añade una muestra y entrega a {@code consumer} los ciclos que cierra.
+     *
+     * @return número de ciclos (completos y medios) entregados
+     */
+    public int add(double value, CycleConsumer consumer) {
+        if (Double.isNaN(value)) {
+            return 0;
+        }
+        if (size == 0) {
+            reversals[size++] = value;
+            candidate = value;
+            direction = 0;
+            return 0;
+        }
+        if (direction == 0) {
+            double delta = value - reversals[size - 1];
+            if (Math.abs(delta) > hysteresis) {
+                direction = delta > 0 ? 1 : -1;
+                candidate = value;
+            }
+            return 0;
+        }
+        if (direction > 0 ? value >= candidate : value <= candidate) {
+            candidate = value;
+            return 0;
+        }
+        if (Math.abs(candidate - value) <= hysteresis) {
+            return 0;
+        }
+        int closed = push(candidate, consumer);
+        direction = -direction;
+        candidate = value;
+        return closed;
+    }
+
+    /**
+     * Cierra el residuo como medios ciclos (p.ej. al terminar un trabajo). Conserva la última inversión
+     * como punto de partida de la historia siguiente.
+     *
+     * @return número de medios ciclos entregados
+     */
+    public int closeResidue(CycleConsumer consumer) {
+        if (size == 0) {
+            return 0;
+        }
+        if (direction != 0) {
+            push(candidate, consumer);
+        }
+        int closed = 0;
+        for (int i = 0; i + 1 < size; i++) {
+            emit(reversals[i], reversals[i + 1], 0.5, consumer);
+            closed++;
+        }
+        reversals[0] = reversals[size - 1];
+        candidate = reversals[0];
+        size = 1;
+        direction = 0;
+        return closed;
+    }
+
+    /**
+     * Ciclos contados hasta ahora (los medios ciclos suman 0.5).
+     */
+    public double getCycles() {
+        return cycles;
+    }
+
+    public int getResidueSize() {
+        return size;
+    }
+
+    private int push(double value, CycleConsumer consumer) {
+        int closed = 0;
+        if (size == reversals.length) {
+            emit(reversals[0], reversals[1], 0.5, consumer);
+            System.arraycopy(reversals, 1, reversals, 0, size - 1);
+            size--;
+            closed++;
+        }
+        reversals[size++] = value;
+        while (size >= 4) {
+            double a = reversals[size - 4];
+            double b = reversals[size - 3];
+            double c = reversals[size - 2];
+            double d = reversals[size - 1];
+            double inner = Math.abs(c - b);
+            if (inner > Math.abs(b - a) || inner > Math.abs(d - c)) {
+                break;
+            }
+            emit(b, c, 1.0, consumer);
+            reversals[size - 3] = d;
+            size -= 2;
+            closed++;
+        }
+        return closed;
+    }
+
+    private void emit(double from, double to, double count, CycleConsumer consumer) {
+        cycles += count;
+        consumer.accept(Math.abs(to - from), (from + to) / 2.0, Math.max(from, to), count);
+    }
+}
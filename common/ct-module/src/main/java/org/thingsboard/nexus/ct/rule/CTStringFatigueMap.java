@@ -0,0 +1,231 @@
+/**
+ * Copyright © 2016-2026 The Thingsboard Authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.thingsboard.nexus.ct.rule;
+
+import java.io.ByteArrayOutputStream;
+import java.nio.ByteBuffer;
+import java.util.zip.DataFormatException;
+import java.util.zip.Deflater;
+import java.util.zip.Inflater;
+
+/**
+ * Mapa de fatiga por segmento de la sarta de un reel.
+ *
+ * La posición se mide desde la punta (extremo de fondo) de la tubería: con el inyector a una
+ * profundidad D, el punto de la sarta a D ft de la punta está en el gooseneck. Al moverse de D1 a D2,
+ * cada segmento recorrido pasa una vez por reel y gooseneck y recibe el daño de una pasada,
+ * proporcional a la fracción del segmento recorrida. El daño (Palmgren-Miner, 1.0 = falla) se guarda
+ * en un {@code double[]} y el peor segmento se mantiene de forma incremental, por lo que la consulta
+ * de vida remanente es O(1).
+ *
+ * No es thread-safe; el llamador sincroniza por reel.
+ */
+public final class CTStringFatigueMap {
+
+    private static final byte SNAPSHOT_VERSION = 1;
+
+    private final double segmentLengthFt;
+    private final double[] damage;
+    private int worstIndex;
+    private double lastDepthFt = Double.NaN;
+    private double lastPassDamage;
+    private long passedFt;
+
+    public CTStringFatigueMap(double tubingLengthFt, double segmentLengthFt) {
+        if (tubingLengthFt <= 0 || segmentLengthFt <= 0) {
+            throw new IllegalArgumentException("Tubing and segment length must be positive");
+        }
+        this.segmentLengthFt = segmentLengthFt;
+        this.damage = new double[(int) Math.ceil(tubingLengthFt / segmentLengthFt)];
+    }
+
+    private CTStringFatigueMap(double segmentLengthFt, double[] damage) {
+        this.segmentLengthFt = segmentLengthFt;
+        this.damage = damage;
+        for (int i = 1; i < damage.length; i++) {
+            if (damage[i] > damage[worstIndex]) {
+                worstIndex = i;
+            }
+        }
+    }
+
+    /**
+     * Aplica el recorrido desde la última profundidad conocida hasta {@code depthFt} con el daño de una
+     * pasada completa por segmento. La primera lectura sólo fija la profundidad.
+     *
+     * @return pies de sarta que pasaron por el gooseneck
+     */
+    public double advance(double depthFt, double damagePerPass) {
+        double previous = lastDepthFt;
+        lastDepthFt = depthFt;
+        if (Double.isNaN(previous) || Double.isNaN(depthFt) || depthFt == previous) {
+            return 0.0;
+        }
+        double lengthFt = damage.length * segmentLengthFt;
+        double from = clamp(Math.min(previous, depthFt), lengthFt);
+        double to = clamp(Math.max(previous, depthFt), lengthFt);
+        if (to <= from) {
+            return 0.0;
+        }
+        if (damagePerPass > 0) {
+            lastPassDamage = damagePerPass;
+            int first = (int) (from / segmentLengthFt);
+            int last = Math.min((int) Math.ceil(to / segmentLengthFt), damage.length) - 1;
+            double worst = damage[worstIndex];
+            for (int i = first; i <= last; i++) {
+                double top = i * segmentLengthFt;
+                double overlap = Math.min(to, top + segmentLengthFt) - Math.max(from, top);
+                if (overlap > 0) {
+                    double value = damage[i] + damagePerPass * overlap / segmentLengthFt;
+                    damage[i] = value;
+                    if (value > worst) {
+                        worst = value;
+                        worstIndex = i;
+                    }
+                }
+            }
+        }
+        passedFt += Math.round(to - from);
+        return to - from;
+    }
+
+    /**
+     * Olvida la última profundidad (p.ej. al montar el reel en otra unidad).
+     */
+    public void resetDepth() {
+        lastDepthFt = Double.NaN;
+    }
+
+    public double getWorstDamage() {
+        return damage[worstIndex];
+    }
+
+    public double getWorstFatiguePercent() {
+        return Math.min(damage[worstIndex] * 100.0, 100.0);
+    }
+
+    public int getWorstIndex() {
+        return worstIndex;
+    }
+
+    /**
+     * Posición del centro del peor segmento, en ft desde la punta.
+     */
+    public double getWorstPositionFt() {
+        return (worstIndex + 0.5) * segmentLengthFt;
+    }
+
+    /**
+     * Pasadas restantes del peor segmento al daño por pasada de la última operación.
+     */
+    public long getRemainingPasses() {
+        double remaining = 1.0 - damage[worstIndex];
+        if (remaining <= 0) {
+            return 0L;
+        }
+        return lastPassDamage > 0 ? (long) Math.floor(remaining / lastPassDamage) : Long.MAX_VALUE;
+    }
+
+    public double getDamage(int segment) {
+        return damage[segment];
+    }
+
+    public int getSegmentCount() {
+        return damage.length;
+    }
+
+    public double getSegmentLengthFt() {
+        return segmentLengthFt;
+    }
+
+    public double getLastDepthFt() {
+        return lastDepthFt;
+    }
+
+    public long getPassedFt() {
+        return passedFt;
+    }
+
+    /**
+     * Instantánea comprimida (deflate) del mapa.
+     */
+    public byte[] toSnapshot() {
+        ByteBuffer buffer = ByteBuffer.allocate(1 + 8 + 8 + 8 + 8 + 4 + damage.length * 8);
+        buffer.put(SNAPSHOT_VERSION)
+                .putDouble(segmentLengthFt)
+                .putDouble(lastDepthFt)
+                .putDouble(lastPassDamage)
+                .putLong(passedFt)
+                .putInt(damage.length);
+        for (double value : damage) {
+            buffer.putDouble(value);
+        }
+        Deflater deflater = new Deflater(Deflater.BEST_SPEED);
+        try {
+            deflater.setInput(buffer.array());
+            deflater.finish();
+            ByteArrayOutputStream out = new ByteArrayOutputStream(256);
+            byte[] chunk = new byte[8192];
+            while (!deflater.finished()) {
+                out.write(chunk, 0, deflater.deflate(chunk));
+            }
+            return out.toByteArray();
+        } finally {
+            deflater.end();
+        }
+    }
+
+    public static CTStringFatigueMap fromSnapshot(byte[] snapshot) {
+        Inflater inflater = new Inflater();
+        try {
+            inflater.setInput(snapshot);
+            ByteArrayOutputStream out = new ByteArrayOutputStream(snapshot.length * 4);
+            byte[] chunk = new byte[8192];
+            while (!inflater.finished()) {
+                int n = inflater.inflate(chunk);
+                if (n == 0 && (inflater.needsInput() || inflater.needsDictionary())) {
+                    throw new IllegalArgumentException("Truncated fatigue snapshot");
+                }
+                out.write(chunk, 0, n);
+            }
+            ByteBuffer buffer = ByteBuffer.wrap(out.toByteArray());
+            if (buffer.get() != SNAPSHOT_VERSION) {
+                throw new IllegalArgumentException("Unsupported fatigue snapshot version");
+            }
+            double segmentLengthFt = buffer.getDouble();
+            double lastDepthFt = buffer.getDouble();
+            double lastPassDamage = buffer.getDouble();
+            long passedFt = buffer.getLong();
+            double[] damage = new double[buffer.getInt()];
+            for (int i = 0; i < damage.length; i++) {
+                damage[i] = buffer.getDouble();
+            }
+            CTStringFatigueMap map = new CTStringFatigueMap(segmentLengthFt, damage);
+            map.lastDepthFt = lastDepthFt;
+            map.lastPassDamage = lastPassDamage;
+            map.passedFt = passedFt;
+            return map;
+        } catch (DataFormatException e) {
+            throw new IllegalArgumentException("Invalid fatigue snapshot", e);
+        } finally {
+            inflater.end();
+        }
+    }
+
+    private static double clamp(double depthFt, double lengthFt) {
+        return Math.max(0.0, Math.min(depthFt, lengthFt));
+    }
+}
@@ -0,0 +1,163 @@
+/**
+ * Copyright © 2016-2026 The Thingsboard Authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.thingsboard.nexus.ct.rule;
+
+/**
+ * Trayectoria del pozo remuestreada a paso constante de profundidad medida, en arreglos primitivos.
+ *
+ * Se construye una vez por pozo y resolución a partir de las estaciones del survey (o de una inclinación
+ * constante cuando no hay survey) y es inmutable, así que puede compartirse entre escenarios que se
+ * simulan en paralelo. El nodo i está a {@code i * stepFt} de superficie; para el tramo (i-1, i) se
+ * guardan el seno y coseno de la inclinación media y las variaciones de inclinación y azimut que usa el
+ * modelo de fricción, para que los bucles de la simulación no evalúen trigonometría.
+ */
+public final class CTWellboreModel {
+
+    private final double stepFt;
+    private final int points;
+    final double[] md;
+    final double[] tvd;
+    final double[] inclination;
+    final double[] segmentSin;
+    final double[] segmentCos;
+    final double[] deltaInclination;
+    final double[] deltaAzimuth;
+    private final double maxInclinationDeg;
+    private final boolean fromSurvey;
+
+    private CTWellboreModel(double targetDepthFt, double stepFt, double[] stationMd, double[] stationInc,
+                            double[] stationAzi, boolean fromSurvey) {
+        if (targetDepthFt <= 0 || stepFt <= 0) {
+            throw new IllegalArgumentException("Target depth and step must be positive");
+        }
+        this.stepFt = stepFt;
+        this.fromSurvey = fromSurvey;
+        this.points = (int) Math.ceil(targetDepthFt / stepFt) + 1;
+        this.md = new double[points];
+        this.tvd = new double[points];
+        this.inclination = new double[points];
+        this.segmentSin = new double[points];
+        this.segmentCos = new double[points];
+        this.deltaInclination = new double[points];
+        this.deltaAzimuth = new double[points];
+
+        double[] azimuth = new double[points];
+        int station = 0;
+        double maxInc = 0;
+        for (int i = 0; i < points; i++) {
+            double depth = Math.min(i * stepFt, targetDepthFt);
+            while (station + 1 < stationMd.length - 1 && stationMd[station + 1] <= depth) {
+                station++;
+            }
+            double inc;
+            double azi;
+            if (stationMd.length == 1 || depth >= stationMd[stationMd.length - 1]) {
+                inc = stationInc[stationInc.length - 1];
+                azi = stationAzi[stationAzi.length - 1];
+            } else {
+                double span = stationMd[station + 1] - stationMd[station];
+                double f = span > 0 ? (depth - stationMd[station]) / span : 0.0;
+                inc = stationInc[station] + f * (stationInc[station + 1] - stationInc[station]);
+                azi = stationAzi[station] + f * wrap(stationAzi[station + 1] - stationAzi[station]);
+            }
+            md[i] = depth;
+            inclination[i] = inc;
+            azimuth[i] = azi;
+            maxInc = Math.max(maxInc, inc);
+            if (i > 0) {
+                double ds = depth - md[i - 1];
+                double segmentInc = (inclination[i - 1] + inc) / 2.0;
+                segmentSin[i] = Math.sin(segmentInc);
+                segmentCos[i] = Math.cos(segmentInc);
+                deltaInclination[i] = inc - inclination[i - 1];
+                deltaAzimuth[i] = wrap(azi - azimuth[i - 1]);
+                tvd[i] = tvd[i - 1] + ds * segmentCos[i];
+            }
+        }
+        this.maxInclinationDeg = Math.toDegrees(maxInc);
+    }
+
+    /**
+     * Modelo a partir de estaciones de survey (MD ft, inclinación y azimut en grados, ordenadas por MD).
+     * Por encima de la primera estación se asume pozo vertical; por debajo de la última se mantiene su dirección.
+     */
+    public static CTWellboreModel fromSurvey(double[] mdFt, double[] inclinationDeg, double[] azimuthDeg,
+                                             double targetDepthFt, double stepFt) {
+        int n = mdFt != null ? mdFt.length : 0;
+        if (n == 0 || inclinationDeg == null || inclinationDeg.length != n
+                || (azimuthDeg != null && azimuthDeg.length != n)) {
+            throw new IllegalArgumentException("Survey arrays must be non-empty and of equal length");
+        }
+        int offset = mdFt[0] > 0 ? 1 : 0;
+        double[] md = new double[n + offset];
+        double[] inc = new double[n + offset];
+        double[] azi = new double[n + offset];
+        for (int i = 0; i < n; i++) {
+            if (i > 0 && mdFt[i] < mdFt[i - 1]) {
+                throw new IllegalArgumentException("Survey stations must be ordered by measured depth");
+            }
+            md[i + offset] = mdFt[i];
+            inc[i + offset] = Math.toRadians(inclinationDeg[i]);
+            azi[i + offset] = azimuthDeg != null ? Math.toRadians(azimuthDeg[i]) : 0.0;
+        }
+        if (offset == 1) {
+            azi[0] = azi[1];
+        }
+        return new CTWellboreModel(targetDepthFt, stepFt, md, inc, azi, true);
+    }
+
+    /**
+     * Modelo de inclinación constante en todo el pozo, para trabajos sin survey.
+     */
+    public static CTWellboreModel constantInclination(double targetDepthFt, double inclinationDeg, double stepFt) {
+        return new CTWellboreModel(targetDepthFt, stepFt, new double[]{0.0},
+                new double[]{Math.toRadians(inclinationDeg)}, new double[]{0.0}, false);
+    }
+
+    public int getPoints() {
+        return points;
+    }
+
+    public double getStepFt() {
+        return stepFt;
+    }
+
+    public double getTargetDepthFt() {
+        return md[points - 1];
+    }
+
+    public double getTvdFt(int index) {
+        return tvd[index];
+    }
+
+    public double getMaxInclinationDeg() {
+        return maxInclinationDeg;
+    }
+
+    public boolean isFromSurvey() {
+        return fromSurvey;
+    }
+
+    private static double wrap(double angle) {
+        if (angle > Math.PI) {
+            return angle - 2 * Math.PI;
+        }
+        if (angle < -Math.PI) {
+            return angle + 2 * Math.PI;
+        }
+        return angle;
+    }
+}
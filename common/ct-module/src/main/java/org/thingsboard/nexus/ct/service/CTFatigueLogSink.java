@@ -0,0 +1,207 @@
+/**
+ * Copyright © 2016-2026 The Thingsboard Authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.thingsboard.nexus.ct.service;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Service;
+import org.thingsboard.nexus.ct.config.CTModuleConfiguration;
+import org.thingsboard.nexus.ct.dto.CTFatigueLogDto;
+import org.thingsboard.nexus.ct.repository.CTFatigueLogBatchRepository;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import java.time.ZoneOffset;
+import java.time.ZonedDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Cola en proceso de registros de fatiga. Los cálculos encolan sus registros sin bloquear; un hilo de
+ * vaciado los inserta por lotes (junto con sus agregados horarios y diarios) y actualiza la fatiga
+ * acumulada de cada reel una sola vez por vaciado, con el último registro recibido de ese reel.
+ * El mismo hilo mantiene las particiones mensuales de {@code ct_fatigue_log}.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class CTFatigueLogSink {
+
+    private final CTFatigueLogBatchRepository batchRepository;
+    private final CTReelService reelService;
+    private final CTModuleConfiguration config;
+
+    private final Object flushLock = new Object();
+    private final AtomicBoolean flushRequested = new AtomicBoolean();
+    private final AtomicLong written = new AtomicLong();
+    private final AtomicLong dropped = new AtomicLong();
+
+    private BlockingQueue<CTFatigueLogDto> queue;
+    private ScheduledExecutorService scheduler;
+
+    @PostConstruct
+    public void init() {
+        queue = new ArrayBlockingQueue<>(Math.max(1, config.getFatigueLogQueueCapacity()));
+        scheduler = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread thread = new Thread(r, "ct-fatigue-log-sink");
+            thread.setDaemon(true);
+            return thread;
+        });
+        long interval = Math.max(1, config.getFatigueLogFlushIntervalMs());
+        scheduler.scheduleWithFixedDelay(this::scheduledFlush, interval, interval, TimeUnit.MILLISECONDS);
+        scheduler.scheduleWithFixedDelay(this::maintainPartitions, 0, 1, TimeUnit.DAYS);
+    }
+
+    @PreDestroy
+    public void destroy() {
+        scheduler.shutdownNow();
+        flush();
+    }
+
+    /**
+     * Encola un registro de fatiga sin bloquear al llamante. Si la cola está llena, el registro se
+     * descarta y se contabiliza, y se despierta al hilo de vaciado: la escritura en base de datos nunca
+     * se hace en el hilo del productor.
+     *
+     * @return {@code false} si el registro no pudo encolarse
+     */
+    public boolean submit(CTFatigueLogDto logDto) {
+        if (logDto == null || logDto.getReelId() == null || logDto.getTenantId() == null) {
+            return false;
+        }
+        if (!queue.offer(logDto)) {
+            requestFlush();
+            dropped.incrementAndGet();
+            log.warn("Fatigue log queue full, dropping log for reel {}", logDto.getReelId());
+            return false;
+        }
+        if (queue.size() >= config.getFatigueLogBatchSize()) {
+            requestFlush();
+        }
+        return true;
+    }
+
+    /**
+     * Vacía la cola: inserta los registros pendientes por lotes y actualiza la fatiga de cada reel afectado.
+     *
+     * @return número de registros escritos
+     */
+    public int flush() {
+        synchronized (flushLock) {
+            int batchSize = Math.max(1, config.getFatigueLogBatchSize());
+            List<CTFatigueLogDto> batch = new ArrayList<>(Math.min(batchSize, queue.size() + 1));
+            Map<UUID, CTFatigueLogDto> latestByReel = new HashMap<>();
+            int total = 0;
+            while (queue.drainTo(batch, batchSize) > 0) {
+                try {
+                    long now = System.currentTimeMillis();
+                    batchRepository.ensurePartitions(batch, now);
+                    total += batchRepository.insertAll(batch, now);
+                    for (CTFatigueLogDto logDto : batch) {
+                        latestByReel.merge(logDto.getReelId(), logDto, CTFatigueLogSink::later);
+                    }
+                } catch (Exception e) {
+                    dropped.addAndGet(batch.size());
+                    log.error("Error writing batch of {} fatigue logs: {}", batch.size(), e.getMessage(), e);
+                }
+                batch.clear();
+            }
+            for (CTFatigueLogDto latest : latestByReel.values()) {
+                updateReel(latest);
+            }
+            if (total > 0) {
+                written.addAndGet(total);
+                log.debug("Flushed {} fatigue logs for {} reels", total, latestByReel.size());
+            }
+            return total;
+        }
+    }
+
+    public int getPendingCount() {
+        return queue.size();
+    }
+
+    public long getWrittenCount() {
+        return written.get();
+    }
+
+    public long getDroppedCount() {
+        return dropped.get();
+    }
+
+    private void requestFlush() {
+        if (flushRequested.compareAndSet(false, true)) {
+            scheduler.execute(this::scheduledFlush);
+        }
+    }
+
+    private void scheduledFlush() {
+        flushRequested.set(false);
+        try {
+            flush();
+        } catch (Exception e) {
+            log.error("Error flushing fatigue logs: {}", e.getMessage(), e);
+        }
+    }
+
+    /**
+     * Crea por adelantado la partición del mes actual y la del siguiente y, si hay retención configurada,
+     * elimina las particiones de registros más antiguas. Los agregados no caducan.
+     */
+    private void maintainPartitions() {
+        try {
+            ZonedDateTime now = ZonedDateTime.now(ZoneOffset.UTC);
+            batchRepository.ensurePartition(now.toInstant().toEpochMilli());
+            batchRepository.ensurePartition(now.plusMonths(1).toInstant().toEpochMilli());
+            int retentionMonths = config.getFatigueLogRetentionMonths();
+            if (retentionMonths > 0) {
+                int dropped = batchRepository.dropPartitionsBefore(now.minusMonths(retentionMonths).toInstant().toEpochMilli());
+                if (dropped > 0) {
+                    log.info("Dropped {} fatigue log partitions older than {} months", dropped, retentionMonths);
+                }
+            }
+        } catch (Exception e) {
+            log.error("Error maintaining fatigue log partitions: {}", e.getMessage(), e);
+        }
+    }
+
+    private void updateReel(CTFatigueLogDto latest) {
+        if (latest.getAccumulatedFatiguePercent() == null) {
+            return;
+        }
+        try {
+            reelService.updateFatigue(latest.getReelId(), latest.getAccumulatedFatiguePercent(), latest.getCycleNumber());
+        } catch (Exception e) {
+            log.error("Error updating accumulated fatigue for reel {}: {}", latest.getReelId(), e.getMessage());
+        }
+    }
+
+    private static CTFatigueLogDto later(CTFatigueLogDto a, CTFatigueLogDto b) {
+        long ta = a.getTimestamp() != null ? a.getTimestamp() : Long.MIN_VALUE;
+        long tb = b.getTimestamp() != null ? b.getTimestamp() : Long.MIN_VALUE;
+        return tb >= ta ? b : a;
+    }
+}
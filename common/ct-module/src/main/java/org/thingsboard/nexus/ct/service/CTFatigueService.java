@@ -20,15 +20,19 @@ import lombok.extern.slf4j.Slf4j;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
-import org.springframework.scheduling.annotation.Async;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
+import org.thingsboard.nexus.ct.config.CTModuleConfiguration;
+import org.thingsboard.nexus.ct.dto.CTFatigueHistoryDto;
 import org.thingsboard.nexus.ct.dto.CTFatigueLogDto;
 import org.thingsboard.nexus.ct.dto.CTReelDto;
+import org.thingsboard.nexus.ct.exception.CTBusinessException;
 import org.thingsboard.nexus.ct.model.CTFatigueLog;
 import org.thingsboard.nexus.ct.repository.CTFatigueLogRepository;
+import org.thingsboard.nexus.ct.repository.CTFatigueRollupRepository;
 
 import java.math.BigDecimal;
+import java.util.ArrayList;
 import java.util.List;
 import java.util.UUID;
 import java.util.stream.Collectors;
@@ -40,43 +44,16 @@ public class CTFatigueService {
 
     private final CTFatigueLogRepository fatigueLogRepository;
     private final CTReelService reelService;
-
-    @Async
-    @Transactional
-    public void logFatigueCalculation(CTFatigueLogDto logDto) {
-        log.info("Logging fatigue calculation for reel: {}", logDto.getReelId());
-
-        CTFatigueLog fatigueLog = CTFatigueLog.builder()
-            .tenantId(logDto.getTenantId())
-            .reelId(logDto.getReelId())
-            .jobId(logDto.getJobId())
-            .timestamp(logDto.getTimestamp())
-            .cycleNumber(logDto.getCycleNumber())
-            .pressurePsi(logDto.getPressurePsi())
-            .tensionLbf(logDto.getTensionLbf())
-            .bendRadiusIn(logDto.getBendRadiusIn())
-            .temperatureF(logDto.getTemperatureF())
-            .hoopStressPsi(logDto.getHoopStressPsi())
-            .axialStressPsi(logDto.getAxialStressPsi())
-            .bendingStressPsi(logDto.getBendingStressPsi())
-            .vonMisesStressPsi(logDto.getVonMisesStressPsi())
-            .cyclesToFailure(logDto.getCyclesToFailure())
-            .fatigueIncrement(logDto.getFatigueIncrement())
-            .accumulatedFatiguePercent(logDto.getAccumulatedFatiguePercent())
-            .corrosionFactor(logDto.getCorrosionFactor())
-            .weldFactor(logDto.getWeldFactor())
-            .temperatureFactor(logDto.getTemperatureFactor())
-            .calculationMethod(logDto.getCalculationMethod())
-            .notes(logDto.getNotes())
-            .build();
-
-        fatigueLogRepository.save(fatigueLog);
-
-        // Actualizar fatiga acumulada en el reel
-        updateReelAccumulatedFatigue(logDto.getReelId(), logDto.getAccumulatedFatiguePercent());
-
-        log.info("Fatigue calculation logged successfully. Accumulated fatigue: {}%", 
-                 logDto.getAccumulatedFatiguePercent());
+    private final CTFatigueLogSink fatigueLogSink;
+    private final CTFatigueRollupRepository rollupRepository;
+    private final CTModuleConfiguration config;
+
+    /**
+     * Encola el registro en {@link CTFatigueLogSink}; la inserción y la actualización del reel se hacen por lotes.
+     */
+    public boolean logFatigueCalculation(CTFatigueLogDto logDto) {
+        log.debug("Queueing fatigue calculation for reel: {}", logDto.getReelId());
+        return fatigueLogSink.submit(logDto);
     }
 
     @Transactional
@@ -102,6 +79,80 @@ public class CTFatigueService {
             .collect(Collectors.toList());
     }
 
+    /**
+     * Serie de fatiga del reel entre {@code fromTime} y {@code toTime}. Si no se indica resolución se elige
+     * por la amplitud del rango: registros individuales para rangos cortos, agregados horarios o diarios
+     * para los largos. Sin {@code fromTime} se sirve la vida completa del reel, salvo con resolución RAW,
+     * que se limita a {@code fatigueHistoryRawMaxRangeMs} antes de {@code toTime}; un rango RAW explícito
+     * más amplio se rechaza.
+     */
+    @Transactional(readOnly = true)
+    public CTFatigueHistoryDto getFatigueHistorySeries(UUID reelId, Long fromTime, Long toTime,
+                                                       CTFatigueHistoryDto.Resolution resolution) {
+        long to = toTime != null ? toTime : System.currentTimeMillis();
+        long rawMaxRange = config.getFatigueHistoryRawMaxRangeMs();
+        long from;
+        if (fromTime != null) {
+            from = fromTime;
+        } else if (resolution == CTFatigueHistoryDto.Resolution.RAW) {
+            from = Math.max(0L, to - rawMaxRange);
+        } else {
+            from = 0L;
+        }
+        if (from > to) {
+            throw new CTBusinessException("fromTime must not be after toTime");
+        }
+        CTFatigueHistoryDto.Resolution effective = resolution != null ? resolution : selectResolution(to - from);
+        if (effective == CTFatigueHistoryDto.Resolution.RAW && to - from > rawMaxRange) {
+            throw new CTBusinessException("RAW fatigue history is limited to " + rawMaxRange
+                    + " ms, use HOURLY or DAILY for longer ranges");
+        }
+        log.debug("Retrieving {} fatigue history for reel: {} from {} to {}", effective, reelId, from, to);
+
+        List<CTFatigueHistoryDto.Point> points;
+        if (effective == CTFatigueHistoryDto.Resolution.RAW) {
+            List<CTFatigueLog> logs = fatigueLogRepository.findByReelIdAndTimeRange(reelId, from, to);
+            points = new ArrayList<>(logs.size());
+            Integer lastCycle = null;
+            for (CTFatigueLog fatigueLog : logs) {
+                Integer cycle = fatigueLog.getCycleNumber();
+                Long cycles = cycle != null && lastCycle != null ? (long) Math.max(0, cycle - lastCycle) : null;
+                if (cycle != null) {
+                    lastCycle = cycle;
+                }
+                points.add(CTFatigueHistoryDto.Point.builder()
+                        .timestamp(fatigueLog.getTimestamp())
+                        .samples(1)
+                        .cycles(cycles)
+                        .cycleNumber(cycle)
+                        .maxVonMisesStressPsi(fatigueLog.getVonMisesStressPsi())
+                        .damageSum(fatigueLog.getFatigueIncrement())
+                        .accumulatedFatiguePercent(fatigueLog.getAccumulatedFatiguePercent())
+                        .build());
+            }
+        } else {
+            points = rollupRepository.findBuckets(effective, reelId, from, to);
+        }
+
+        return CTFatigueHistoryDto.builder()
+            .reelId(reelId)
+            .resolution(effective)
+            .fromTime(from)
+            .toTime(to)
+            .points(points)
+            .build();
+    }
+
+    private CTFatigueHistoryDto.Resolution selectResolution(long rangeMs) {
+        if (rangeMs <= config.getFatigueHistoryRawMaxRangeMs()) {
+            return CTFatigueHistoryDto.Resolution.RAW;
+        }
+        if (rangeMs <= config.getFatigueHistoryHourlyMaxRangeMs()) {
+            return CTFatigueHistoryDto.Resolution.HOURLY;
+        }
+        return CTFatigueHistoryDto.Resolution.DAILY;
+    }
+
     @Transactional(readOnly = true)
     public Page<CTFatigueLogDto> getFatigueHistoryPaged(UUID reelId, int page, int pageSize) {
         log.info("Retrieving paged fatigue history for reel: {} (page: {}, size: {})", 
@@ -0,0 +1,781 @@
+/**
+ * Copyright © 2016-2026 The Thingsboard Authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.thingsboard.nexus.ct.service;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.Page;
+import org.springframework.stereotype.Service;
+import org.thingsboard.nexus.ct.config.CTModuleConfiguration;
+import org.thingsboard.nexus.ct.dto.CTFleetMatchDto;
+import org.thingsboard.nexus.ct.dto.CTFleetMatchRequest;
+import org.thingsboard.nexus.ct.dto.CTReelDto;
+import org.thingsboard.nexus.ct.dto.CTUnitDto;
+import org.thingsboard.nexus.ct.model.ReelStatus;
+import org.thingsboard.nexus.ct.model.UnitStatus;
+import org.thingsboard.server.common.data.asset.Asset;
+import org.thingsboard.server.common.data.kv.AttributeKvEntry;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.Optional;
+import java.util.PriorityQueue;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+ * Índice en memoria de la flota CT de cada tenant: reels y unidades (Asset + atributos SERVER_SCOPE)
+ * con índices secundarios por estado, ubicación y código, e índices ordenados por OD de tubería,
+ * OD máximo admitido por la unidad y fatiga acumulada (vida remanente).
+ * <p>
+ * Un tenant se carga una vez, página a página y con lecturas de atributos en lotes paralelos (las peticiones
+ * concurrentes de un tenant frío esperan a la misma carga), y se mantiene al día con
+ * {@link CTAttributesUpdatedEvent}: el Asset modificado se marca sucio y se relee en el siguiente acceso.
+ * Tras {@code fleetIndexTtlMs} la instantánea se recarga en segundo plano, para recoger escrituras hechas fuera
+ * del módulo, mientras las peticiones se siguen sirviendo con la actual.
+ * <p>
+ * Los DTOs devueltos son instantáneas compartidas y no deben modificarse.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class CTFleetIndex {
+
+    private static final int LOAD_PAGE_SIZE = 1000;
+
+    // Pesos de la puntuación de combinaciones reel + unidad
+    private static final double WEIGHT_REMAINING_LIFE = 0.6;
+    private static final double WEIGHT_COUPLED = 0.15;
+    private static final double WEIGHT_UNIT_AT_LOCATION = 0.15;
+    private static final double WEIGHT_REEL_AT_LOCATION = 0.1;
+    private static final double WEIGHT_OD_HEADROOM = 0.05;
+
+    private static final Comparator<CTReelDto> BY_FATIGUE = Comparator.comparing(
+            CTReelDto::getAccumulatedFatiguePercent, Comparator.nullsLast(Comparator.naturalOrder()));
+
+    private final CTAssetService assetService;
+    private final CTAttributeService attributeService;
+    private final CTModuleConfiguration config;
+
+    private final Map<UUID, TenantFleet> tenants = new ConcurrentHashMap<>();
+    private final Map<UUID, UUID> tenantByAsset = new ConcurrentHashMap<>();
+    private final Map<UUID, CompletableFuture<TenantFleet>> loading = new ConcurrentHashMap<>();
+
+    private ExecutorService refreshExecutor;
+
+    @PostConstruct
+    public void init() {
+        refreshExecutor = Executors.newSingleThreadExecutor(r -> {
+            Thread thread = new Thread(r, "ct-fleet-index");
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    @PreDestroy
+    public void destroy() {
+        refreshExecutor.shutdownNow();
+    }
+
+    /**
+     * Reels y unidades de un tenant y sus índices. Todo acceso se sincroniza sobre la instancia.
+     * Las claves {@link BigDecimal} de los índices ordenados se comparan con {@code compareTo}, de modo que
+     * 1.5 y 1.50 caen en la misma entrada.
+     */
+    static final class TenantFleet {
+        final long loadedTime;
+
+        private final Map<UUID, CTReelDto> reels = new LinkedHashMap<>();
+        private final Map<ReelStatus, Set<UUID>> reelsByStatus = new EnumMap<>(ReelStatus.class);
+        private final NavigableMap<BigDecimal, Set<UUID>> reelsByOd = new TreeMap<>();
+        private final NavigableMap<BigDecimal, Set<UUID>> reelsByFatigue = new TreeMap<>();
+        private final Map<String, Set<UUID>> reelsByLocation = new HashMap<>();
+        private final Map<String, UUID> reelsByCode = new HashMap<>();
+
+        private final Map<UUID, CTUnitDto> units = new LinkedHashMap<>();
+        private final Map<UnitStatus, Set<UUID>> unitsByStatus = new EnumMap<>(UnitStatus.class);
+        private final NavigableMap<BigDecimal, Set<UUID>> unitsByMaxOd = new TreeMap<>();
+        private final Map<String, Set<UUID>> unitsByLocation = new HashMap<>();
+        private final Map<String, UUID> unitsByCode = new HashMap<>();
+
+        private final Set<UUID> dirty = ConcurrentHashMap.newKeySet();
+
+        TenantFleet(long loadedTime) {
+            this.loadedTime = loadedTime;
+        }
+
+        synchronized void putReel(CTReelDto reel) {
+            UUID id = reel.getAssetId();
+            removeReel(id);
+            reels.put(id, reel);
+            index(reelsByStatus, reel.getStatus(), id);
+            index(reelsByOd, reel.getTubingOdInch(), id);
+            index(reelsByFatigue, reel.getAccumulatedFatiguePercent(), id);
+            index(reelsByLocation, locationKey(reel.getCurrentLocation()), id);
+            if (reel.getReelCode() != null) {
+                reelsByCode.put(reel.getReelCode(), id);
+            }
+        }
+
+        synchronized void putUnit(CTUnitDto unit) {
+            UUID id = unit.getAssetId();
+            removeUnit(id);
+            units.put(id, unit);
+            index(unitsByStatus, unit.getOperationalStatus(), id);
+            index(unitsByMaxOd, unit.getMaxTubingOdInch(), id);
+            index(unitsByLocation, locationKey(unit.getCurrentLocation()), id);
+            if (unit.getUnitCode() != null) {
+                unitsByCode.put(unit.getUnitCode(), id);
+            }
+        }
+
+        synchronized void remove(UUID assetId) {
+            removeReel(assetId);
+            removeUnit(assetId);
+        }
+
+        // --- Reels ---
+
+        synchronized CTReelDto reelWithCode(String reelCode) {
+            UUID id = reelsByCode.get(reelCode);
+            return id != null ? reels.get(id) : null;
+        }
+
+        synchronized List<CTReelDto> reelPage(int offset, int limit) {
+            return page(reels.values(), offset, limit);
+        }
+
+        synchronized int reelCount() {
+            return reels.size();
+        }
+
+        synchronized List<CTReelDto> reelsWithStatus(ReelStatus status) {
+            return resolve(reels, reelsByStatus.get(status));
+        }
+
+        synchronized int countReelsWithStatus(ReelStatus status) {
+            Set<UUID> ids = reelsByStatus.get(status);
+            return ids != null ? ids.size() : 0;
+        }
+
+        /**
+         * Reels disponibles con el OD dado y fatiga no superior a {@code maxFatigue}, de mayor a menor vida remanente.
+         * Se recorre el índice más selectivo disponible: el OD exacto o el rango de fatiga.
+         */
+        synchronized List<CTReelDto> availableReels(BigDecimal odInch, BigDecimal maxFatigue) {
+            List<CTReelDto> available = new ArrayList<>();
+            if (odInch != null) {
+                for (UUID id : ids(reelsByOd.get(odInch))) {
+                    CTReelDto reel = reels.get(id);
+                    if (reel.getStatus() == ReelStatus.AVAILABLE && withinFatigue(reel, maxFatigue)) {
+                        available.add(reel);
+                    }
+                }
+                available.sort(BY_FATIGUE);
+            } else if (maxFatigue != null) {
+                for (Set<UUID> ids : reelsByFatigue.headMap(maxFatigue, true).values()) {
+                    for (UUID id : ids) {
+                        CTReelDto reel = reels.get(id);
+                        if (reel.getStatus() == ReelStatus.AVAILABLE) {
+                            available.add(reel);
+                        }
+                    }
+                }
+            } else {
+                available.addAll(resolve(reels, reelsByStatus.get(ReelStatus.AVAILABLE)));
+                available.sort(BY_FATIGUE);
+            }
+            return available;
+        }
+
+        /**
+         * Reels con fatiga igual o superior al umbral, de mayor a menor fatiga
+         */
+        synchronized List<CTReelDto> reelsAboveFatigue(BigDecimal threshold) {
+            List<CTReelDto> result = new ArrayList<>();
+            for (Set<UUID> ids : reelsByFatigue.tailMap(threshold, true).descendingMap().values()) {
+                for (UUID id : ids) {
+                    result.add(reels.get(id));
+                }
+            }
+            return result;
+        }
+
+        // --- Unidades ---
+
+        synchronized CTUnitDto unitWithCode(String unitCode) {
+            UUID id = unitsByCode.get(unitCode);
+            return id != null ? units.get(id) : null;
+        }
+
+        synchronized List<CTUnitDto> unitPage(int offset, int limit) {
+            return page(units.values(), offset, limit);
+        }
+
+        synchronized int unitCount() {
+            return units.size();
+        }
+
+        synchronized List<CTUnitDto> allUnits() {
+            return new ArrayList<>(units.values());
+        }
+
+        synchronized List<CTUnitDto> unitsWithStatus(UnitStatus status) {
+            return resolve(units, unitsByStatus.get(status));
+        }
+
+        synchronized int countUnitsWithStatus(UnitStatus status) {
+            Set<UUID> ids = unitsByStatus.get(status);
+            return ids != null ? ids.size() : 0;
+        }
+
+        // --- Emparejamiento ---
+
+        /**
+         * Mejores {@code limit} combinaciones reel + unidad para los requisitos, de mayor a menor puntuación.
+         * Candidatos: reels disponibles combinados con unidades operativas sin reel acoplado y cuyo OD máximo
+         * admite el del reel, y parejas ya acopladas (reel en uso sobre una unidad operativa).
+         * Las unidades sin OD máximo declarado solo se consideran con el reel que ya llevan acoplado.
+         * Un reel cuya puntuación máxima alcanzable no supera la peor de las ya retenidas se descarta sin
+         * recorrer unidades, y solo las combinaciones retenidas se materializan como DTO.
+         */
+        synchronized List<CTFleetMatchDto> match(CTFleetMatchRequest request, int limit) {
+            String location = locationKey(request.getLocation());
+            Set<UUID> unitsAtLocation = location != null ? ids(unitsByLocation.get(location)) : Collections.emptySet();
+            Set<UUID> reelsAtLocation = location != null ? ids(reelsByLocation.get(location)) : Collections.emptySet();
+            PriorityQueue<Candidate> best = new PriorityQueue<>(limit + 1, Comparator.comparingDouble(c -> c.score));
+
+            // Unidades libres y aptas, en orden de OD máximo, en arreglos para el bucle interno
+            int freeCount = 0;
+            CTUnitDto[] freeUnits = new CTUnitDto[units.size()];
+            double[] freeMaxOd = new double[units.size()];
+            double[] freeLocationBonus = new double[units.size()];
+            for (Map.Entry<BigDecimal, Set<UUID>> entry : unitsByMaxOd.entrySet()) {
+                for (UUID unitId : entry.getValue()) {
+                    CTUnitDto unit = units.get(unitId);
+                    if (unit.getCurrentReelId() == null && usable(unit, request)) {
+                        freeUnits[freeCount] = unit;
+                        freeMaxOd[freeCount] = entry.getKey().doubleValue();
+                        freeLocationBonus[freeCount] = unitsAtLocation.contains(unitId) ? WEIGHT_UNIT_AT_LOCATION : 0.0;
+                        freeCount++;
+                    }
+                }
+            }
+
+            for (UUID reelId : reelCandidates(request)) {
+                CTReelDto reel = reels.get(reelId);
+                if (reel.getTubingOdInch() == null || !withinFatigue(reel, request.getMaxFatiguePercent())
+                        || !atLeast(reel.getTotalLengthFt(), request.getMinReelLengthFt())) {
+                    continue;
+                }
+                boolean reelAtLocation = reelsAtLocation.contains(reelId);
+                double reelScore = remainingLifeScore(reel) + (reelAtLocation ? WEIGHT_REEL_AT_LOCATION : 0.0);
+                if (best.size() == limit
+                        && reelScore + WEIGHT_COUPLED + WEIGHT_UNIT_AT_LOCATION <= best.peek().score) {
+                    continue;
+                }
+                double reelOd = reel.getTubingOdInch().doubleValue();
+                if (reel.getStatus() == ReelStatus.AVAILABLE) {
+                    for (int i = firstAtLeast(freeMaxOd, freeCount, reelOd); i < freeCount; i++) {
+                        double score = reelScore - odHeadroomPenalty(freeMaxOd[i], reelOd) + freeLocationBonus[i];
+                        if (best.size() < limit || score > best.peek().score) {
+                            offer(best, limit, score, reel, freeUnits[i], false, freeLocationBonus[i] > 0.0, reelAtLocation);
+                        }
+                    }
+                } else if (reel.getStatus() == ReelStatus.IN_USE && reel.getCurrentUnitId() != null) {
+                    CTUnitDto unit = units.get(reel.getCurrentUnitId());
+                    BigDecimal maxOd = unit != null ? unit.getMaxTubingOdInch() : null;
+                    if (unit != null && reelId.equals(unit.getCurrentReelId()) && usable(unit, request)
+                            && (maxOd == null || maxOd.compareTo(reel.getTubingOdInch()) >= 0)) {
+                        boolean unitAtLocation = unitsAtLocation.contains(unit.getAssetId());
+                        double score = reelScore + WEIGHT_COUPLED - (maxOd != null ? odHeadroomPenalty(maxOd.doubleValue(), reelOd) : 0.0)
+                                + (unitAtLocation ? WEIGHT_UNIT_AT_LOCATION : 0.0);
+                        offer(best, limit, score, reel, unit, true, unitAtLocation, reelAtLocation);
+                    }
+                }
+            }
+
+            List<Candidate> retained = new ArrayList<>(best);
+            retained.sort(Comparator.comparingDouble((Candidate c) -> c.score).reversed());
+            List<CTFleetMatchDto> ranked = new ArrayList<>(retained.size());
+            for (Candidate candidate : retained) {
+                ranked.add(candidate.toDto());
+            }
+            return ranked;
+        }
+
+        private Collection<UUID> reelCandidates(CTFleetMatchRequest request) {
+            if (request.getTubingOdInch() != null) {
+                return ids(reelsByOd.get(request.getTubingOdInch()));
+            }
+            if (request.getMaxFatiguePercent() != null) {
+                List<UUID> candidates = new ArrayList<>();
+                for (Set<UUID> ids : reelsByFatigue.headMap(request.getMaxFatiguePercent(), true).values()) {
+                    candidates.addAll(ids);
+                }
+                return candidates;
+            }
+            return reels.keySet();
+        }
+
+        void markDirty(UUID assetId) {
+            dirty.add(assetId);
+        }
+
+        boolean hasDirty() {
+            return !dirty.isEmpty();
+        }
+
+        List<UUID> drainDirty() {
+            List<UUID> drained = new ArrayList<>(dirty);
+            dirty.removeAll(drained);
+            return drained;
+        }
+
+        void inheritDirty(TenantFleet previous) {
+            dirty.addAll(previous.dirty);
+        }
+
+        private void removeReel(UUID id) {
+            CTReelDto previous = reels.remove(id);
+            if (previous != null) {
+                unindex(reelsByStatus, previous.getStatus(), id);
+                unindex(reelsByOd, previous.getTubingOdInch(), id);
+                unindex(reelsByFatigue, previous.getAccumulatedFatiguePercent(), id);
+                unindex(reelsByLocation, locationKey(previous.getCurrentLocation()), id);
+                if (previous.getReelCode() != null) {
+                    reelsByCode.remove(previous.getReelCode(), id);
+                }
+            }
+        }
+
+        private void removeUnit(UUID id) {
+            CTUnitDto previous = units.remove(id);
+            if (previous != null) {
+                unindex(unitsByStatus, previous.getOperationalStatus(), id);
+                unindex(unitsByMaxOd, previous.getMaxTubingOdInch(), id);
+                unindex(unitsByLocation, locationKey(previous.getCurrentLocation()), id);
+                if (previous.getUnitCode() != null) {
+                    unitsByCode.remove(previous.getUnitCode(), id);
+                }
+            }
+        }
+
+        private static <T> List<T> resolve(Map<UUID, T> byId, Set<UUID> ids) {
+            if (ids == null) {
+                return Collections.emptyList();
+            }
+            List<T> resolved = new ArrayList<>(ids.size());
+            for (UUID id : ids) {
+                resolved.add(byId.get(id));
+            }
+            return resolved;
+        }
+
+        private static <T> List<T> page(Collection<T> values, int offset, int limit) {
+            List<T> page = new ArrayList<>(Math.max(0, Math.min(limit, values.size() - offset)));
+            int i = 0;
+            for (T value : values) {
+                if (i >= offset + limit) {
+                    break;
+                }
+                if (i++ >= offset) {
+                    page.add(value);
+                }
+            }
+            return page;
+        }
+
+        private static Set<UUID> ids(Set<UUID> ids) {
+            return ids != null ? ids : Collections.emptySet();
+        }
+
+        private static <K> void index(Map<K, Set<UUID>> index, K key, UUID id) {
+            if (key != null) {
+                index.computeIfAbsent(key, k -> new LinkedHashSet<>()).add(id);
+            }
+        }
+
+        private static <K> void unindex(Map<K, Set<UUID>> index, K key, UUID id) {
+            if (key == null) {
+                return;
+            }
+            Set<UUID> ids = index.get(key);
+            if (ids != null) {
+                ids.remove(id);
+                if (ids.isEmpty()) {
+                    index.remove(key);
+                }
+            }
+        }
+    }
+
+    // --- Consultas de reels ---
+
+    public Optional<CTReelDto> findReelByCode(UUID tenantId, String reelCode) {
+        return Optional.ofNullable(fleet(tenantId).reelWithCode(reelCode));
+    }
+
+    public List<CTReelDto> getReelPage(UUID tenantId, int page, int pageSize) {
+        return fleet(tenantId).reelPage(page * pageSize, pageSize);
+    }
+
+    public long countReels(UUID tenantId) {
+        return fleet(tenantId).reelCount();
+    }
+
+    public List<CTReelDto> getReelsByStatus(UUID tenantId, ReelStatus status) {
+        return fleet(tenantId).reelsWithStatus(status);
+    }
+
+    public long countReelsByStatus(UUID tenantId, ReelStatus status) {
+        return fleet(tenantId).countReelsWithStatus(status);
+    }
+
+    public List<CTReelDto> getAvailableReels(UUID tenantId, BigDecimal odInch, BigDecimal maxFatigue) {
+        return fleet(tenantId).availableReels(odInch, maxFatigue);
+    }
+
+    public List<CTReelDto> getReelsAboveFatigue(UUID tenantId, BigDecimal threshold) {
+        return fleet(tenantId).reelsAboveFatigue(threshold);
+    }
+
+    // --- Consultas de unidades ---
+
+    public Optional<CTUnitDto> findUnitByCode(UUID tenantId, String unitCode) {
+        return Optional.ofNullable(fleet(tenantId).unitWithCode(unitCode));
+    }
+
+    public List<CTUnitDto> getUnitPage(UUID tenantId, int page, int pageSize) {
+        return fleet(tenantId).unitPage(page * pageSize, pageSize);
+    }
+
+    public long countUnits(UUID tenantId) {
+        return fleet(tenantId).unitCount();
+    }
+
+    public List<CTUnitDto> getAllUnits(UUID tenantId) {
+        return fleet(tenantId).allUnits();
+    }
+
+    public List<CTUnitDto> getUnitsByStatus(UUID tenantId, UnitStatus status) {
+        return fleet(tenantId).unitsWithStatus(status);
+    }
+
+    public long countUnitsByStatus(UUID tenantId, UnitStatus status) {
+        return fleet(tenantId).countUnitsWithStatus(status);
+    }
+
+    // --- Emparejamiento ---
+
+    /**
+     * Combinaciones reel + unidad compatibles con los requisitos, de mayor a menor puntuación.
+     * La puntuación prima la vida remanente del reel, que el reel ya esté acoplado a la unidad y que
+     * unidad y reel estén en la ubicación del trabajo, y penaliza ligeramente el sobredimensionamiento de la unidad.
+     */
+    public List<CTFleetMatchDto> match(UUID tenantId, CTFleetMatchRequest request) {
+        int limit = request.getLimit() != null && request.getLimit() > 0 ? request.getLimit() : 10;
+        return fleet(tenantId).match(request, limit);
+    }
+
+    // --- Invalidación ---
+
+    /**
+     * Relee un reel o unidad del tenant en el siguiente acceso (se usa tras crearlo,
+     * ya que el índice aún no lo conoce cuando se guardan sus atributos).
+     */
+    public void refresh(UUID tenantId, UUID assetId) {
+        TenantFleet fleet = tenants.get(tenantId);
+        if (fleet != null) {
+            tenantByAsset.put(assetId, tenantId);
+            fleet.markDirty(assetId);
+        }
+    }
+
+    public void evict(UUID tenantId, UUID assetId) {
+        tenantByAsset.remove(assetId);
+        TenantFleet fleet = tenants.get(tenantId);
+        if (fleet != null) {
+            fleet.remove(assetId);
+        }
+    }
+
+    public void invalidateTenant(UUID tenantId) {
+        tenants.remove(tenantId);
+    }
+
+    @EventListener
+    public void onAttributesUpdated(CTAttributesUpdatedEvent event) {
+        UUID tenantId = tenantByAsset.get(event.getEntityId());
+        if (tenantId != null) {
+            TenantFleet fleet = tenants.get(tenantId);
+            if (fleet != null) {
+                fleet.markDirty(event.getEntityId());
+            }
+        }
+    }
+
+    // --- Internos ---
+
+    private TenantFleet fleet(UUID tenantId) {
+        TenantFleet fleet = tenants.get(tenantId);
+        if (fleet == null) {
+            fleet = loadOnce(tenantId);
+        } else if (System.currentTimeMillis() - fleet.loadedTime > config.getFleetIndexTtlMs()) {
+            refreshInBackground(tenantId);
+        }
+        if (fleet.hasDirty()) {
+            reload(tenantId, fleet, fleet.drainDirty());
+        }
+        return fleet;
+    }
+
+    /**
+     * Carga un tenant frío; las peticiones concurrentes esperan a la carga en curso.
+     */
+    private TenantFleet loadOnce(UUID tenantId) {
+        CompletableFuture<TenantFleet> created = new CompletableFuture<>();
+        CompletableFuture<TenantFleet> inProgress = loading.putIfAbsent(tenantId, created);
+        if (inProgress != null) {
+            return inProgress.join();
+        }
+        try {
+            TenantFleet fleet = swapIn(tenantId, load(tenantId));
+            created.complete(fleet);
+            return fleet;
+        } catch (RuntimeException e) {
+            created.completeExceptionally(e);
+            throw e;
+        } finally {
+            loading.remove(tenantId, created);
+        }
+    }
+
+    private void refreshInBackground(UUID tenantId) {
+        CompletableFuture<TenantFleet> created = new CompletableFuture<>();
+        if (loading.putIfAbsent(tenantId, created) != null) {
+            return;
+        }
+        refreshExecutor.execute(() -> {
+            try {
+                created.complete(swapIn(tenantId, load(tenantId)));
+            } catch (Exception e) {
+                log.warn("Failed to reload CT fleet of tenant {}: {}", tenantId, e.getMessage());
+                created.completeExceptionally(e);
+            } finally {
+                loading.remove(tenantId, created);
+            }
+        });
+    }
+
+    /**
+     * Los Assets marcados sucios mientras se cargaba la instantánea pueden haberse leído antes de su cambio.
+     */
+    private TenantFleet swapIn(UUID tenantId, TenantFleet fleet) {
+        TenantFleet previous = tenants.put(tenantId, fleet);
+        if (previous != null) {
+            fleet.inheritDirty(previous);
+        }
+        return fleet;
+    }
+
+    private TenantFleet load(UUID tenantId) {
+        long start = System.currentTimeMillis();
+        TenantFleet fleet = new TenantFleet(start);
+        for (String assetType : new String[]{CTReelDto.ASSET_TYPE, CTUnitDto.ASSET_TYPE}) {
+            int page = 0;
+            Page<Asset> assets;
+            do {
+                assets = assetService.getAssetsByType(tenantId, assetType, page++, LOAD_PAGE_SIZE);
+                List<UUID> ids = new ArrayList<>(assets.getNumberOfElements());
+                for (Asset asset : assets.getContent()) {
+                    ids.add(asset.getId().getId());
+                }
+                Map<UUID, List<AttributeKvEntry>> attributes = attributeService.getServerAttributes(ids);
+                for (Asset asset : assets.getContent()) {
+                    UUID assetId = asset.getId().getId();
+                    put(fleet, asset, attributes.get(assetId));
+                    tenantByAsset.put(assetId, tenantId);
+                }
+            } while (assets.hasNext());
+        }
+        log.debug("Loaded {} CT reels and {} CT units of tenant {} in {} ms", fleet.reelCount(), fleet.unitCount(),
+                tenantId, System.currentTimeMillis() - start);
+        return fleet;
+    }
+
+    private void reload(UUID tenantId, TenantFleet fleet, List<UUID> assetIds) {
+        Map<UUID, Asset> assets = new LinkedHashMap<>();
+        for (UUID assetId : assetIds) {
+            Optional<Asset> asset = assetService.getAssetById(assetId);
+            if (asset.isPresent() && isFleetAsset(asset.get()) && tenantId.equals(asset.get().getTenantId().getId())) {
+                assets.put(assetId, asset.get());
+            } else {
+                fleet.remove(assetId);
+                tenantByAsset.remove(assetId);
+            }
+        }
+        if (assets.isEmpty()) {
+            return;
+        }
+        Map<UUID, List<AttributeKvEntry>> attributes = attributeService.getServerAttributes(assets.keySet());
+        for (Map.Entry<UUID, Asset> entry : assets.entrySet()) {
+            put(fleet, entry.getValue(), attributes.get(entry.getKey()));
+        }
+    }
+
+    private static void put(TenantFleet fleet, Asset asset, List<AttributeKvEntry> attributes) {
+        if (CTReelDto.ASSET_TYPE.equals(asset.getType())) {
+            fleet.putReel(CTReelDto.fromAssetAndAttributes(asset, attributes));
+        } else {
+            fleet.putUnit(CTUnitDto.fromAssetAndAttributes(asset, attributes));
+        }
+    }
+
+    private static boolean isFleetAsset(Asset asset) {
+        return CTReelDto.ASSET_TYPE.equals(asset.getType()) || CTUnitDto.ASSET_TYPE.equals(asset.getType());
+    }
+
+    /**
+     * Combinación retenida durante el emparejamiento; se convierte en DTO solo si queda entre las mejores.
+     */
+    private static final class Candidate {
+        final double score;
+        final CTReelDto reel;
+        final CTUnitDto unit;
+        final boolean coupled;
+        final boolean unitAtLocation;
+        final boolean reelAtLocation;
+
+        Candidate(double score, CTReelDto reel, CTUnitDto unit, boolean coupled,
+                  boolean unitAtLocation, boolean reelAtLocation) {
+            this.score = score;
+            this.reel = reel;
+            this.unit = unit;
+            this.coupled = coupled;
+            this.unitAtLocation = unitAtLocation;
+            this.reelAtLocation = reelAtLocation;
+        }
+
+        CTFleetMatchDto toDto() {
+            return CTFleetMatchDto.builder()
+                    .reelId(reel.getAssetId())
+                    .reelCode(reel.getReelCode())
+                    .unitId(unit.getAssetId())
+                    .unitCode(unit.getUnitCode())
+                    .score(score)
+                    .tubingOdInch(reel.getTubingOdInch())
+                    .unitMaxTubingOdInch(unit.getMaxTubingOdInch())
+                    .reelFatiguePercent(reel.getAccumulatedFatiguePercent())
+                    .reelLengthFt(reel.getTotalLengthFt())
+                    .coupled(coupled)
+                    .unitAtLocation(unitAtLocation)
+                    .reelAtLocation(reelAtLocation)
+                    .build();
+        }
+    }
+
+    private static void offer(PriorityQueue<Candidate> best, int limit, double score, CTReelDto reel, CTUnitDto unit,
+                              boolean coupled, boolean unitAtLocation, boolean reelAtLocation) {
+        if (best.size() < limit) {
+            best.add(new Candidate(score, reel, unit, coupled, unitAtLocation, reelAtLocation));
+        } else if (score > best.peek().score) {
+            best.poll();
+            best.add(new Candidate(score, reel, unit, coupled, unitAtLocation, reelAtLocation));
+        }
+    }
+
+    private static double remainingLifeScore(CTReelDto reel) {
+        if (reel.getAccumulatedFatiguePercent() == null) {
+            return 0.0;
+        }
+        double remaining = (100.0 - reel.getAccumulatedFatiguePercent().doubleValue()) / 100.0;
+        return WEIGHT_REMAINING_LIFE * Math.max(0.0, Math.min(1.0, remaining));
+    }
+
+    /**
+     * Penalización por sobredimensionamiento: fracción del OD máximo de la unidad que el reel no aprovecha
+     */
+    private static double odHeadroomPenalty(double unitMaxOd, double reelOd) {
+        if (unitMaxOd <= 0.0) {
+            return 0.0;
+        }
+        return WEIGHT_OD_HEADROOM * Math.max(0.0, (unitMaxOd - reelOd) / unitMaxOd);
+    }
+
+    /**
+     * Primer índice de {@code sorted[0..count)} con valor mayor o igual que {@code value}
+     */
+    private static int firstAtLeast(double[] sorted, int count, double value) {
+        int low = 0;
+        int high = count;
+        while (low < high) {
+            int mid = (low + high) >>> 1;
+            if (sorted[mid] < value) {
+                low = mid + 1;
+            } else {
+                high = mid;
+            }
+        }
+        return low;
+    }
+
+    private static boolean usable(CTUnitDto unit, CTFleetMatchRequest request) {
+        return unit.getOperationalStatus() == UnitStatus.OPERATIONAL
+                && atLeast(unit.getMaxPressurePsi(), request.getRequiredPressurePsi())
+                && atLeast(unit.getMaxTensionLbf(), request.getRequiredTensionLbf())
+                && atLeast(unit.getMaxSpeedFtMin(), request.getRequiredSpeedFtMin());
+    }
+
+    private static boolean withinFatigue(CTReelDto reel, BigDecimal maxFatigue) {
+        return maxFatigue == null || (reel.getAccumulatedFatiguePercent() != null
+                && reel.getAccumulatedFatiguePercent().compareTo(maxFatigue) <= 0);
+    }
+
+    private static boolean atLeast(Integer capacity, Integer required) {
+        return required == null || (capacity != null && capacity >= required);
+    }
+
+    private static boolean atLeast(BigDecimal capacity, BigDecimal required) {
+        return required == null || (capacity != null && capacity.compareTo(required) >= 0);
+    }
+
+    private static String locationKey(String location) {
+        if (location == null || location.isBlank()) {
+            return null;
+        }
+        return location.trim().toLowerCase(Locale.ROOT);
+    }
+}
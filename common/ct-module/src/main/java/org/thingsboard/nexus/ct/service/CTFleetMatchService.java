@@ -0,0 +1,79 @@
+/**
+ * Copyright © 2016-2026 The Thingsboard Authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.thingsboard.nexus.ct.service;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Service;
+import org.thingsboard.nexus.ct.dto.CTFleetMatchDto;
+import org.thingsboard.nexus.ct.dto.CTFleetMatchRequest;
+import org.thingsboard.nexus.ct.dto.CTJobDto;
+
+import java.math.BigDecimal;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Selección de reel + unidad para un trabajo a partir del índice de flota.
+ * Los requisitos se derivan del trabajo: longitud mínima del reel por la profundidad del pozo u objetivo,
+ * presión, tensión y velocidad máximas planificadas, y el campo como ubicación preferida.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class CTFleetMatchService {
+
+    private final CTFleetIndex fleetIndex;
+    private final CTJobService jobService;
+
+    public List<CTFleetMatchDto> match(UUID tenantId, CTFleetMatchRequest request) {
+        long start = System.nanoTime();
+        List<CTFleetMatchDto> matches = fleetIndex.match(tenantId, request);
+        log.debug("Matched {} reel/unit combinations for tenant {} in {} us", matches.size(), tenantId,
+                (System.nanoTime() - start) / 1000);
+        return matches;
+    }
+
+    public List<CTFleetMatchDto> matchForJob(UUID jobId, BigDecimal tubingOdInch, BigDecimal maxFatiguePercent,
+                                             Integer limit) {
+        CTJobDto job = jobService.getById(jobId);
+        CTFleetMatchRequest request = CTFleetMatchRequest.builder()
+                .tubingOdInch(tubingOdInch)
+                .maxFatiguePercent(maxFatiguePercent)
+                .minReelLengthFt(max(job.getWellDepthMdFt(), job.getTargetDepthToFt()))
+                .requiredPressurePsi(max(job.getMaxPlannedPressurePsi(), job.getWellheadPressurePsi()))
+                .requiredTensionLbf(job.getMaxPlannedTensionLbf())
+                .requiredSpeedFtMin(job.getMaxPlannedSpeedFtMin())
+                .location(job.getFieldName())
+                .limit(limit)
+                .build();
+        return match(job.getTenantId(), request);
+    }
+
+    private static BigDecimal max(BigDecimal a, BigDecimal b) {
+        if (a == null) {
+            return b;
+        }
+        return b == null || a.compareTo(b) >= 0 ? a : b;
+    }
+
+    private static Integer max(Integer a, Integer b) {
+        if (a == null) {
+            return b;
+        }
+        return b == null ? a : Integer.valueOf(Math.max(a, b));
+    }
+}
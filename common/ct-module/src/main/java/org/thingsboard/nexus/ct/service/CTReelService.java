@@ -18,6 +18,7 @@ package org.thingsboard.nexus.ct.service;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
 import org.springframework.data.domain.Pageable;
 import org.springframework.stereotype.Service;
 import org.thingsboard.nexus.ct.dto.CTReelDto;
@@ -34,7 +35,6 @@ import java.math.BigDecimal;
 import java.util.List;
 import java.util.Map;
 import java.util.UUID;
-import java.util.stream.Collectors;
 
 /**
  * Service for managing CT Reels as ThingsBoard Assets.
@@ -47,6 +47,7 @@ public class CTReelService {
     private final CTAssetService assetService;
     private final CTAttributeService attributeService;
     private final CTTemplateService templateService;
+    private final CTFleetIndex fleetIndex;
 
     public CTReelDto getById(UUID assetId) {
         log.debug("Getting CT Reel by asset id: {}", assetId);
@@ -58,70 +59,29 @@ public class CTReelService {
 
     public CTReelDto getByCode(UUID tenantId, String reelCode) {
         log.debug("Getting CT Reel by code: {}", reelCode);
-        Page<Asset> assets = assetService.searchAssetsByName(tenantId, CTReelDto.ASSET_TYPE, reelCode, 0, 100);
-
-        for (Asset asset : assets.getContent()) {
-            List<AttributeKvEntry> attributes = attributeService.getServerAttributes(asset.getId().getId());
-            for (AttributeKvEntry attr : attributes) {
-                if (CTReelDto.ATTR_REEL_CODE.equals(attr.getKey()) &&
-                    attr.getStrValue().orElse("").equals(reelCode)) {
-                    return CTReelDto.fromAssetAndAttributes(asset, attributes);
-                }
-            }
-        }
-        throw new CTEntityNotFoundException("CT Reel", reelCode);
+        return fleetIndex.findReelByCode(tenantId, reelCode)
+                .orElseThrow(() -> new CTEntityNotFoundException("CT Reel", reelCode));
     }
 
     public Page<CTReelDto> getByTenant(UUID tenantId, Pageable pageable) {
         log.debug("Getting CT Reels for tenant: {}", tenantId);
-        Page<Asset> assets = assetService.getAssetsByType(tenantId, CTReelDto.ASSET_TYPE,
-                pageable.getPageNumber(), pageable.getPageSize());
-        return assets.map(asset -> {
-            List<AttributeKvEntry> attributes = attributeService.getServerAttributes(asset.getId().getId());
-            return CTReelDto.fromAssetAndAttributes(asset, attributes);
-        });
+        List<CTReelDto> reels = fleetIndex.getReelPage(tenantId, pageable.getPageNumber(), pageable.getPageSize());
+        return new PageImpl<>(reels, pageable, fleetIndex.countReels(tenantId));
     }
 
     public List<CTReelDto> getByStatus(UUID tenantId, ReelStatus status) {
         log.debug("Getting CT Reels by status - tenant: {}, status: {}", tenantId, status);
-        Page<Asset> assets = assetService.getAssetsByType(tenantId, CTReelDto.ASSET_TYPE, 0, 1000);
-
-        return assets.getContent().stream()
-                .map(asset -> {
-                    List<AttributeKvEntry> attributes = attributeService.getServerAttributes(asset.getId().getId());
-                    return CTReelDto.fromAssetAndAttributes(asset, attributes);
-                })
-                .filter(dto -> dto.getStatus() == status)
-                .collect(Collectors.toList());
+        return fleetIndex.getReelsByStatus(tenantId, status);
     }
 
     public List<CTReelDto> getAvailableReelsBySize(UUID tenantId, BigDecimal odInch, BigDecimal maxFatigue) {
         log.debug("Getting available reels - tenant: {}, OD: {}, maxFatigue: {}", tenantId, odInch, maxFatigue);
-        Page<Asset> assets = assetService.getAssetsByType(tenantId, CTReelDto.ASSET_TYPE, 0, 1000);
-
-        return assets.getContent().stream()
-                .map(asset -> {
-                    List<AttributeKvEntry> attributes = attributeService.getServerAttributes(asset.getId().getId());
-                    return CTReelDto.fromAssetAndAttributes(asset, attributes);
-                })
-                .filter(dto -> dto.getStatus() == ReelStatus.AVAILABLE)
-                .filter(dto -> odInch == null || (dto.getTubingOdInch() != null && dto.getTubingOdInch().compareTo(odInch) == 0))
-                .filter(dto -> maxFatigue == null || (dto.getAccumulatedFatiguePercent() != null && dto.getAccumulatedFatiguePercent().compareTo(maxFatigue) <= 0))
-                .collect(Collectors.toList());
+        return fleetIndex.getAvailableReels(tenantId, odInch, maxFatigue);
     }
 
     public List<CTReelDto> getReelsAboveFatigueThreshold(UUID tenantId, BigDecimal threshold) {
         log.debug("Getting reels above fatigue threshold - tenant: {}, threshold: {}", tenantId, threshold);
-        Page<Asset> assets = assetService.getAssetsByType(tenantId, CTReelDto.ASSET_TYPE, 0, 1000);
-
-        return assets.getContent().stream()
-                .map(asset -> {
-                    List<AttributeKvEntry> attributes = attributeService.getServerAttributes(asset.getId().getId());
-                    return CTReelDto.fromAssetAndAttributes(asset, attributes);
-                })
-                .filter(dto -> dto.getAccumulatedFatiguePercent() != null &&
-                        dto.getAccumulatedFatiguePercent().compareTo(threshold) >= 0)
-                .collect(Collectors.toList());
+        return fleetIndex.getReelsAboveFatigue(tenantId, threshold);
     }
 
     public CTReelDto create(UUID tenantId, CTReelDto dto) {
@@ -150,6 +110,7 @@ public class CTReelService {
 
         // Save attributes
         attributeService.saveServerAttributes(assetId, dto.toAttributeMap());
+        fleetIndex.refresh(tenantId, assetId);
 
         log.info("CT Reel created successfully: {}", assetId);
         return getById(assetId);
@@ -226,6 +187,7 @@ public class CTReelService {
 
         // Save attributes
         attributeService.saveServerAttributes(assetId, dto.toAttributeMap());
+        fleetIndex.refresh(tenantId, assetId);
 
         log.info("CT Reel created from template successfully: {} with asset ID: {}", reelCode, assetId);
         return getById(assetId);
@@ -263,6 +225,7 @@ public class CTReelService {
         }
 
         assetService.deleteAsset(tenantId, assetId);
+        fleetIndex.evict(tenantId, assetId);
         log.info("CT Reel deleted successfully: {}", assetId);
     }
 
@@ -341,7 +304,7 @@ public class CTReelService {
     }
 
     public long countByStatus(UUID tenantId, ReelStatus status) {
-        return getByStatus(tenantId, status).size();
+        return fleetIndex.countReelsByStatus(tenantId, status);
     }
 
     public long countByTenant(UUID tenantId) {
@@ -0,0 +1,272 @@
+/**
+ * Copyright © 2016-2026 The Thingsboard Authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.thingsboard.nexus.ct.service;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Service;
+import org.thingsboard.nexus.ct.config.CTModuleConfiguration;
+import org.thingsboard.nexus.ct.dto.CTReportJobDto;
+import org.thingsboard.nexus.ct.dto.CTReportRequest;
+import org.thingsboard.nexus.ct.exception.CTBusinessException;
+import org.thingsboard.nexus.ct.exception.CTEntityNotFoundException;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Ejecuta reportes largos en segundo plano: cada trabajo escribe en un archivo temporal mientras expone
+ * su progreso, y el archivo queda disponible para descarga hasta que vence su retención.
+ *
+ * Los trabajos sólo viven en memoria de este nodo: no se persisten, se pierden al reiniciar y en un
+ * despliegue con varios nodos sólo los ve el nodo que los recibió. Cada trabajo pertenece al tenant del
+ * reporte; las consultas reciben el tenant del usuario y un trabajo de otro tenant se trata como
+ * inexistente. Un tenant nulo sólo lo pasa el controlador para administradores del sistema.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class CTReportJobService {
+
+    private static final String DOWNLOAD_URL = "/api/nexus/ct/reports/jobs/%s/download";
+
+    private final CTReportService reportService;
+    private final CTModuleConfiguration config;
+
+    private final Map<UUID, ReportJob> jobs = new ConcurrentHashMap<>();
+    private ExecutorService executor;
+
+    private static final class ReportJob {
+        final UUID id;
+        final CTReportRequest request;
+        final String fileName;
+        final String contentType;
+        final CTReportService.Progress progress = new CTReportService.Progress();
+        final long createdTime = System.currentTimeMillis();
+        volatile CTReportJobDto.Status status = CTReportJobDto.Status.QUEUED;
+        volatile Path file;
+        volatile Long completedTime;
+        volatile String errorMessage;
+        volatile Future<?> future;
+
+        ReportJob(UUID id, CTReportRequest request, String fileName, String contentType) {
+            this.id = id;
+            this.request = request;
+            this.fileName = fileName;
+            this.contentType = contentType;
+        }
+    }
+
+    @PostConstruct
+    public void init() {
+        AtomicInteger counter = new AtomicInteger();
+        executor = Executors.newFixedThreadPool(Math.max(1, config.getReportWorkerThreads()), r -> {
+            Thread thread = new Thread(r, "ct-report-" + counter.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    @PreDestroy
+    public void destroy() {
+        executor.shutdownNow();
+        jobs.values().forEach(this::deleteFile);
+        jobs.clear();
+    }
+
+    /**
+     * Encola la generación de un reporte y devuelve su estado inicial
+     */
+    public CTReportJobDto submit(CTReportRequest request) {
+        if (request.getReportType() == null || request.getTenantId() == null) {
+            throw new CTBusinessException("Report type and tenant are required");
+        }
+        purgeExpired();
+        long pending = jobs.values().stream()
+                .filter(job -> job.status == CTReportJobDto.Status.QUEUED || job.status == CTReportJobDto.Status.RUNNING)
+                .count();
+        if (pending >= config.getReportMaxPendingJobs()) {
+            throw new CTBusinessException("Too many reports in progress, try again later");
+        }
+
+        ReportJob job = new ReportJob(UUID.randomUUID(), request,
+                reportService.fileName(request), reportService.contentType(request));
+        jobs.put(job.id, job);
+        job.future = executor.submit(() -> run(job));
+        log.info("Queued report job {}: type={}, format={}", job.id, request.getReportType(), request.getFormat());
+        return toDto(job);
+    }
+
+    public CTReportJobDto getJob(UUID tenantId, UUID jobId) {
+        return toDto(find(tenantId, jobId));
+    }
+
+    /**
+     * Trabajos del tenant, los más recientes primero; todos si el tenant es nulo
+     */
+    public List<CTReportJobDto> getJobs(UUID tenantId) {
+        purgeExpired();
+        List<CTReportJobDto> result = new ArrayList<>();
+        jobs.values().stream()
+                .filter(job -> tenantId == null || tenantId.equals(job.request.getTenantId()))
+                .sorted(Comparator.comparingLong((ReportJob job) -> job.createdTime).reversed())
+                .forEach(job -> result.add(toDto(job)));
+        return result;
+    }
+
+    /**
+     * Archivo de un reporte terminado
+     */
+    public Path getReportFile(UUID tenantId, UUID jobId) {
+        ReportJob job = find(tenantId, jobId);
+        if (job.status != CTReportJobDto.Status.COMPLETED || job.file == null || !Files.exists(job.file)) {
+            throw new CTBusinessException("Report " + jobId + " is not ready: " + job.status);
+        }
+        return job.file;
+    }
+
+    /**
+     * Cancela el trabajo si sigue en curso y elimina su archivo
+     */
+    public void cancel(UUID tenantId, UUID jobId) {
+        ReportJob job = find(tenantId, jobId);
+        if (!jobs.remove(jobId, job)) {
+            throw new CTEntityNotFoundException("Report job", jobId.toString());
+        }
+        job.progress.cancel();
+        if (job.future != null) {
+            job.future.cancel(true);
+        }
+        if (job.status == CTReportJobDto.Status.QUEUED || job.status == CTReportJobDto.Status.RUNNING) {
+            job.status = CTReportJobDto.Status.CANCELLED;
+        }
+        deleteFile(job);
+        log.info("Report job {} removed", jobId);
+    }
+
+    private void run(ReportJob job) {
+        if (job.status != CTReportJobDto.Status.QUEUED) {
+            return;
+        }
+        job.status = CTReportJobDto.Status.RUNNING;
+        long start = System.currentTimeMillis();
+        try {
+            job.file = Files.createTempFile(tempDir(), "ct-report-" + job.id + "-", "-" + job.fileName);
+            try (OutputStream out = Files.newOutputStream(job.file)) {
+                reportService.writeReport(job.request, out, job.progress);
+            }
+            job.status = CTReportJobDto.Status.COMPLETED;
+            log.info("Report job {} completed: {} rows in {} ms", job.id, job.progress.getRows(),
+                    System.currentTimeMillis() - start);
+        } catch (CancellationException e) {
+            job.status = CTReportJobDto.Status.CANCELLED;
+            deleteFile(job);
+        } catch (Exception e) {
+            log.error("Report job {} failed: {}", job.id, e.getMessage(), e);
+            job.status = CTReportJobDto.Status.FAILED;
+            job.errorMessage = e.getMessage();
+            deleteFile(job);
+        } finally {
+            job.completedTime = System.currentTimeMillis();
+        }
+    }
+
+    private ReportJob find(UUID tenantId, UUID jobId) {
+        ReportJob job = jobs.get(jobId);
+        if (job == null || (tenantId != null && !tenantId.equals(job.request.getTenantId()))) {
+            throw new CTEntityNotFoundException("Report job", jobId.toString());
+        }
+        return job;
+    }
+
+    private void purgeExpired() {
+        long cutoff = System.currentTimeMillis() - config.getReportRetentionMs();
+        jobs.values().removeIf(job -> {
+            if (job.completedTime != null && job.completedTime < cutoff) {
+                deleteFile(job);
+                return true;
+            }
+            return false;
+        });
+    }
+
+    private Path tempDir() throws IOException {
+        String dir = config.getReportTempDir();
+        if (dir == null || dir.isBlank()) {
+            return Paths.get(System.getProperty("java.io.tmpdir"));
+        }
+        return Files.createDirectories(Paths.get(dir));
+    }
+
+    private void deleteFile(ReportJob job) {
+        Path file = job.file;
+        if (file != null) {
+            try {
+                Files.deleteIfExists(file);
+            } catch (IOException e) {
+                log.warn("Could not delete report file {}: {}", file, e.getMessage());
+            }
+        }
+    }
+
+    private CTReportJobDto toDto(ReportJob job) {
+        long rows = job.progress.getRows();
+        long total = job.progress.getTotal();
+        Double percent = job.status == CTReportJobDto.Status.COMPLETED ? Double.valueOf(100.0)
+                : total > 0 ? Double.valueOf(Math.min(100.0, rows * 100.0 / total)) : null;
+        Long size = null;
+        if (job.status == CTReportJobDto.Status.COMPLETED && job.file != null) {
+            try {
+                size = Files.size(job.file);
+            } catch (IOException e) {
+                log.debug("Could not read size of report file {}: {}", job.file, e.getMessage());
+            }
+        }
+        return CTReportJobDto.builder()
+                .jobId(job.id)
+                .tenantId(job.request.getTenantId())
+                .reportType(job.request.getReportType().name())
+                .format(job.request.getFormat() != null ? job.request.getFormat().name() : null)
+                .status(job.status)
+                .fileName(job.fileName)
+                .contentType(job.contentType)
+                .rowsProcessed(rows)
+                .totalRows(total >= 0 ? total : null)
+                .progressPercent(percent)
+                .sizeBytes(size)
+                .createdTime(job.createdTime)
+                .completedTime(job.completedTime)
+                .errorMessage(job.errorMessage)
+                .downloadUrl(job.status == CTReportJobDto.Status.COMPLETED ? String.format(DOWNLOAD_URL, job.id) : null)
+                .build();
+    }
+}
@@ -19,405 +19,455 @@ import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageRequest;
-import org.springframework.data.domain.Pageable;
 import org.springframework.stereotype.Service;
-import org.springframework.transaction.annotation.Transactional;
 import org.thingsboard.nexus.ct.dto.*;
 import org.thingsboard.nexus.ct.exception.CTBusinessException;
 import org.thingsboard.nexus.ct.model.CTJob;
 import org.thingsboard.nexus.ct.model.JobStatus;
 import org.thingsboard.nexus.ct.repository.CTJobRepository;
 
+import java.io.BufferedWriter;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
 import java.math.BigDecimal;
 import java.nio.charset.StandardCharsets;
-import java.text.SimpleDateFormat;
+import java.time.Instant;
+import java.time.ZoneId;
+import java.time.format.DateTimeFormatter;
 import java.util.*;
-import java.util.stream.Collectors;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.IntFunction;
 
+/**
+ * Genera los reportes de CT escribiéndolos fila a fila en un {@link OutputStream} (respuesta HTTP o
+ * archivo temporal). Los trabajos se recorren con un cursor por clave y reels/unidades por páginas, de
+ * modo que la memoria no crece con el tamaño del reporte.
+ */
 @Service
 @RequiredArgsConstructor
 @Slf4j
 public class CTReportService {
 
+    private static final int PAGE_SIZE = 500;
+    private static final int BUFFER_SIZE = 64 * 1024;
+    private static final UUID FIRST_ID = new UUID(0L, 0L);
+    private static final DateTimeFormatter DATE_FORMAT =
+            DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm").withZone(ZoneId.systemDefault());
+    private static final String SEPARATOR = "=".repeat(80);
+    private static final String LINE = "-".repeat(80);
+    private static final BigDecimal HUNDRED = new BigDecimal("100");
+    private static final BigDecimal CRITICAL_FATIGUE = new BigDecimal("80");
+    private static final BigDecimal RETIRE_FATIGUE = new BigDecimal("95");
+
     private final CTJobRepository jobRepository;
     private final CTReelService reelService;
     private final CTUnitService unitService;
 
-    @Transactional(readOnly = true)
+    /**
+     * Progreso de una generación: filas procesadas sobre el total esperado (-1 si no se conoce).
+     * Permite cancelar la generación desde otro hilo.
+     */
+    public static final class Progress {
+        private final AtomicLong rows = new AtomicLong();
+        private volatile long total = -1;
+        private volatile boolean cancelled;
+
+        public long getRows() {
+            return rows.get();
+        }
+
+        public long getTotal() {
+            return total;
+        }
+
+        public void cancel() {
+            cancelled = true;
+        }
+
+        void setTotal(long total) {
+            this.total = total;
+        }
+
+        void increment() {
+            if (cancelled) {
+                throw new CancellationException("Report generation cancelled");
+            }
+            rows.incrementAndGet();
+        }
+    }
+
+    @FunctionalInterface
+    private interface RowWriter<T> {
+        void write(T item) throws IOException;
+    }
+
+    /**
+     * Genera el reporte completo en memoria. Para reportes de flota usar {@link #writeReport} o un
+     * trabajo asíncrono de {@link CTReportJobService}.
+     */
     public CTReportResponse generateReport(CTReportRequest request) {
         log.info("Generating report: type={}, format={}", request.getReportType(), request.getFormat());
 
         try {
-            byte[] content;
-            String fileName;
-            String contentType;
-
-            switch (request.getReportType()) {
-                case JOB_SUMMARY:
-                    content = generateJobSummaryReport(request);
-                    fileName = "job_summary_" + System.currentTimeMillis();
-                    break;
-                case REEL_LIFECYCLE:
-                    content = generateReelLifecycleReport(request);
-                    fileName = "reel_lifecycle_" + System.currentTimeMillis();
-                    break;
-                case FLEET_UTILIZATION:
-                    content = generateFleetUtilizationReport(request);
-                    fileName = "fleet_utilization_" + System.currentTimeMillis();
-                    break;
-                case FATIGUE_ANALYSIS:
-                    content = generateFatigueAnalysisReport(request);
-                    fileName = "fatigue_analysis_" + System.currentTimeMillis();
-                    break;
-                case MAINTENANCE_SCHEDULE:
-                    content = generateMaintenanceScheduleReport(request);
-                    fileName = "maintenance_schedule_" + System.currentTimeMillis();
-                    break;
-                default:
-                    throw new CTBusinessException("Unsupported report type: " + request.getReportType());
-            }
-
-            if (request.getFormat() == CTReportRequest.ReportFormat.CSV) {
-                fileName += ".csv";
-                contentType = "text/csv";
-            } else {
-                fileName += ".txt";
-                contentType = "text/plain";
-            }
+            ByteArrayOutputStream content = new ByteArrayOutputStream();
+            writeReport(request, content, new Progress());
 
             return CTReportResponse.builder()
                     .reportId(UUID.randomUUID().toString())
-                    .fileName(fileName)
-                    .contentType(contentType)
-                    .content(content)
+                    .fileName(fileName(request))
+                    .contentType(contentType(request))
+                    .content(content.toByteArray())
                     .generatedAt(System.currentTimeMillis())
                     .reportType(request.getReportType().name())
                     .format(request.getFormat().name())
                     .build();
 
+        } catch (CTBusinessException e) {
+            throw e;
         } catch (Exception e) {
             log.error("Error generating report", e);
             throw new CTBusinessException("Failed to generate report: " + e.getMessage());
         }
     }
 
-    private byte[] generateJobSummaryReport(CTReportRequest request) {
-        List<CTJob> jobs;
-        
-        if (request.getEntityId() != null) {
-            jobs = Collections.singletonList(
-                jobRepository.findById(request.getEntityId())
-                    .orElseThrow(() -> new CTBusinessException("Job not found"))
-            );
-        } else {
-            Pageable pageable = PageRequest.of(0, 1000);
-            Page<CTJob> page = jobRepository.findByTenantId(request.getTenantId(), pageable);
-            jobs = page.getContent();
+    /**
+     * Escribe el reporte en {@code out} a medida que se leen los datos. No cierra el stream.
+     */
+    public void writeReport(CTReportRequest request, OutputStream out, Progress progress) throws IOException {
+        if (request.getReportType() == null) {
+            throw new CTBusinessException("Report type is required");
         }
-
-        if (request.getFormat() == CTReportRequest.ReportFormat.CSV) {
-            return generateJobSummaryCSV(jobs);
-        } else {
-            return generateJobSummaryText(jobs);
+        Writer writer = new BufferedWriter(new OutputStreamWriter(out, StandardCharsets.UTF_8), BUFFER_SIZE);
+        boolean csv = request.getFormat() == CTReportRequest.ReportFormat.CSV;
+
+        switch (request.getReportType()) {
+            case JOB_SUMMARY:
+                writeJobSummaryReport(request, csv, writer, progress);
+                break;
+            case REEL_LIFECYCLE:
+                writeReelLifecycleReport(request, csv, writer, progress);
+                break;
+            case FLEET_UTILIZATION:
+                writeFleetUtilizationReport(request, csv, writer, progress);
+                break;
+            case FATIGUE_ANALYSIS:
+                writeFatigueAnalysisReport(request, csv, writer, progress);
+                break;
+            case MAINTENANCE_SCHEDULE:
+                writeMaintenanceScheduleReport(request, csv, writer, progress);
+                break;
+            default:
+                throw new CTBusinessException("Unsupported report type: " + request.getReportType());
         }
+        writer.flush();
     }
 
-    private byte[] generateJobSummaryCSV(List<CTJob> jobs) {
-        StringBuilder csv = new StringBuilder();
-        csv.append("Job Number,Job Type,Well Name,Status,Priority,Planned Start,Planned End,Duration (hrs),Well Depth (ft)\n");
-        
-        SimpleDateFormat sdf = new SimpleDateFormat("yyyy-MM-dd HH:mm");
-        
-        for (CTJob job : jobs) {
-            csv.append(escape(job.getJobNumber())).append(",");
-            csv.append(escape(job.getJobType())).append(",");
-            csv.append(escape(job.getWellName())).append(",");
-            csv.append(job.getStatus().name()).append(",");
-            csv.append(escape(job.getPriority())).append(",");
-            csv.append(job.getPlannedStartDate() != null ? sdf.format(new Date(job.getPlannedStartDate())) : "N/A").append(",");
-            csv.append(job.getPlannedEndDate() != null ? sdf.format(new Date(job.getPlannedEndDate())) : "N/A").append(",");
-            csv.append(job.getEstimatedDurationHours() != null ? job.getEstimatedDurationHours().toString() : "N/A").append(",");
-            csv.append(job.getWellDepthMdFt() != null ? job.getWellDepthMdFt().toString() : "N/A").append("\n");
-        }
-        
-        return csv.toString().getBytes(StandardCharsets.UTF_8);
+    public String fileName(CTReportRequest request) {
+        String baseName = request.getReportType().name().toLowerCase(Locale.ROOT) + "_" + System.currentTimeMillis();
+        return baseName + (request.getFormat() == CTReportRequest.ReportFormat.CSV ? ".csv" : ".txt");
     }
 
-    private byte[] generateJobSummaryText(List<CTJob> jobs) {
-        StringBuilder text = new StringBuilder();
-        text.append("=".repeat(80)).append("\n");
-        text.append("JOB SUMMARY REPORT\n");
-        text.append("=".repeat(80)).append("\n");
-        text.append("Generated: ").append(new Date()).append("\n");
-        text.append("Total Jobs: ").append(jobs.size()).append("\n\n");
-        
-        for (CTJob job : jobs) {
-            text.append("-".repeat(80)).append("\n");
-            text.append("Job Number: ").append(job.getJobNumber()).append("\n");
-            text.append("Type: ").append(job.getJobType()).append("\n");
-            text.append("Well: ").append(job.getWellName()).append("\n");
-            text.append("Status: ").append(job.getStatus()).append("\n");
-            text.append("Priority: ").append(job.getPriority()).append("\n");
-            if (job.getEstimatedDurationHours() != null) {
-                text.append("Duration: ").append(job.getEstimatedDurationHours()).append(" hrs\n");
-            }
-            text.append("\n");
-        }
-        
-        return text.toString().getBytes(StandardCharsets.UTF_8);
+    public String contentType(CTReportRequest request) {
+        return request.getFormat() == CTReportRequest.ReportFormat.CSV ? "text/csv" : "text/plain";
     }
 
-    private byte[] generateReelLifecycleReport(CTReportRequest request) {
-        List<CTReelDto> reels;
+    private void writeJobSummaryReport(CTReportRequest request, boolean csv, Writer w, Progress progress) throws IOException {
+        RowWriter<CTJob> row = csv ? job -> writeJobSummaryCSVRow(job, w) : job -> writeJobSummaryTextRow(job, w);
 
         if (request.getEntityId() != null) {
-            reels = Collections.singletonList(reelService.getById(request.getEntityId()));
-        } else {
-            Pageable pageable = PageRequest.of(0, 1000);
-            Page<CTReelDto> page = reelService.getByTenant(request.getTenantId(), pageable);
-            reels = page.getContent();
+            CTJob job = jobRepository.findById(request.getEntityId())
+                    .orElseThrow(() -> new CTBusinessException("Job not found"));
+            progress.setTotal(1);
+            writeJobSummaryHeader(csv, 1, w);
+            row.write(job);
+            progress.increment();
+            return;
         }
 
-        if (request.getFormat() == CTReportRequest.ReportFormat.CSV) {
-            return generateReelLifecycleCSV(reels);
-        } else {
-            return generateReelLifecycleText(reels);
-        }
+        long total = jobRepository.countForReport(request.getTenantId(), request.getStartDate(), request.getEndDate());
+        progress.setTotal(total);
+        writeJobSummaryHeader(csv, total, w);
+
+        UUID afterId = FIRST_ID;
+        List<CTJob> page;
+        do {
+            page = jobRepository.findReportPage(request.getTenantId(), afterId,
+                    request.getStartDate(), request.getEndDate(), PageRequest.ofSize(PAGE_SIZE));
+            for (CTJob job : page) {
+                row.write(job);
+                progress.increment();
+            }
+            if (!page.isEmpty()) {
+                afterId = page.get(page.size() - 1).getId();
+            }
+        } while (page.size() == PAGE_SIZE);
     }
 
-    private byte[] generateReelLifecycleCSV(List<CTReelDto> reels) {
-        StringBuilder csv = new StringBuilder();
-        csv.append("Reel Code,Status,Material Grade,Length (ft),OD (in),Wall (in),Fatigue (%),Total Cycles,Remaining Life (%)\n");
-
-        for (CTReelDto reel : reels) {
-            csv.append(escape(reel.getReelCode())).append(",");
-            csv.append(reel.getStatus().name()).append(",");
-            csv.append(escape(reel.getMaterialGrade())).append(",");
-            csv.append(reel.getTotalLengthFt() != null ? reel.getTotalLengthFt().toString() : "N/A").append(",");
-            csv.append(reel.getTubingOdInch() != null ? reel.getTubingOdInch().toString() : "N/A").append(",");
-            csv.append(reel.getWallThicknessInch() != null ? reel.getWallThicknessInch().toString() : "N/A").append(",");
-            csv.append(reel.getAccumulatedFatiguePercent() != null ? reel.getAccumulatedFatiguePercent().toString() : "0").append(",");
-            csv.append(reel.getTotalCycles() != null ? reel.getTotalCycles().toString() : "0").append(",");
-
-            BigDecimal fatigue = reel.getAccumulatedFatiguePercent() != null ? reel.getAccumulatedFatiguePercent() : BigDecimal.ZERO;
-            BigDecimal remainingLife = new BigDecimal("100").subtract(fatigue);
-            csv.append(remainingLife.toString()).append("\n");
+    private void writeJobSummaryHeader(boolean csv, long total, Writer w) throws IOException {
+        if (csv) {
+            w.write("Job Number,Job Type,Well Name,Status,Priority,Planned Start,Planned End,Duration (hrs),Well Depth (ft)\n");
+        } else {
+            writeTextHeader("JOB SUMMARY REPORT", "Total Jobs: " + total, w);
         }
+    }
 
-        return csv.toString().getBytes(StandardCharsets.UTF_8);
+    private void writeJobSummaryCSVRow(CTJob job, Writer w) throws IOException {
+        w.write(escape(job.getJobNumber()));
+        w.write(',');
+        w.write(escape(job.getJobType()));
+        w.write(',');
+        w.write(escape(job.getWellName()));
+        w.write(',');
+        w.write(job.getStatus().name());
+        w.write(',');
+        w.write(escape(job.getPriority()));
+        w.write(',');
+        w.write(formatDate(job.getPlannedStartDate()));
+        w.write(',');
+        w.write(formatDate(job.getPlannedEndDate()));
+        w.write(',');
+        w.write(job.getEstimatedDurationHours() != null ? job.getEstimatedDurationHours().toString() : "N/A");
+        w.write(',');
+        w.write(job.getWellDepthMdFt() != null ? job.getWellDepthMdFt().toString() : "N/A");
+        w.write('\n');
     }
 
-    private byte[] generateReelLifecycleText(List<CTReelDto> reels) {
-        StringBuilder text = new StringBuilder();
-        text.append("=".repeat(80)).append("\n");
-        text.append("REEL LIFECYCLE REPORT\n");
-        text.append("=".repeat(80)).append("\n");
-        text.append("Generated: ").append(new Date()).append("\n");
-        text.append("Total Reels: ").append(reels.size()).append("\n\n");
-
-        for (CTReelDto reel : reels) {
-            text.append("-".repeat(80)).append("\n");
-            text.append("Reel Code: ").append(reel.getReelCode()).append("\n");
-            text.append("Status: ").append(reel.getStatus()).append("\n");
-            text.append("Material: ").append(reel.getMaterialGrade()).append("\n");
-            text.append("Fatigue: ").append(reel.getAccumulatedFatiguePercent() != null ? reel.getAccumulatedFatiguePercent() : "0").append("%\n");
-            text.append("Total Cycles: ").append(reel.getTotalCycles() != null ? reel.getTotalCycles() : 0).append("\n");
-
-            BigDecimal fatigue = reel.getAccumulatedFatiguePercent() != null ? reel.getAccumulatedFatiguePercent() : BigDecimal.ZERO;
-            BigDecimal remainingLife = new BigDecimal("100").subtract(fatigue);
-            text.append("Remaining Life: ").append(remainingLife).append("%\n\n");
+    private void writeJobSummaryTextRow(CTJob job, Writer w) throws IOException {
+        w.write(LINE + "\n");
+        w.write("Job Number: " + job.getJobNumber() + "\n");
+        w.write("Type: " + job.getJobType() + "\n");
+        w.write("Well: " + job.getWellName() + "\n");
+        w.write("Status: " + job.getStatus() + "\n");
+        w.write("Priority: " + job.getPriority() + "\n");
+        if (job.getEstimatedDurationHours() != null) {
+            w.write("Duration: " + job.getEstimatedDurationHours() + " hrs\n");
         }
-
-        return text.toString().getBytes(StandardCharsets.UTF_8);
+        w.write('\n');
     }
 
-    private byte[] generateFleetUtilizationReport(CTReportRequest request) {
-        Pageable pageable = PageRequest.of(0, 1000);
-        Page<CTUnitDto> unitsPage = unitService.getByTenant(request.getTenantId(), pageable);
-        List<CTUnitDto> units = unitsPage.getContent();
+    private void writeReelLifecycleReport(CTReportRequest request, boolean csv, Writer w, Progress progress) throws IOException {
+        RowWriter<CTReelDto> row = csv ? reel -> writeReelLifecycleCSVRow(reel, w) : reel -> writeReelLifecycleTextRow(reel, w);
 
-        Page<CTJob> jobsPage = jobRepository.findByTenantId(request.getTenantId(), pageable);
-        List<CTJob> jobs = jobsPage.getContent();
+        long total = request.getEntityId() != null ? 1 : reelService.countByTenant(request.getTenantId());
+        progress.setTotal(total);
+        if (csv) {
+            w.write("Reel Code,Status,Material Grade,Length (ft),OD (in),Wall (in),Fatigue (%),Total Cycles,Remaining Life (%)\n");
+        } else {
+            writeTextHeader("REEL LIFECYCLE REPORT", "Total Reels: " + total, w);
+        }
 
-        if (request.getFormat() == CTReportRequest.ReportFormat.CSV) {
-            return generateFleetUtilizationCSV(units, jobs);
+        if (request.getEntityId() != null) {
+            row.write(reelService.getById(request.getEntityId()));
+            progress.increment();
         } else {
-            return generateFleetUtilizationText(units, jobs);
+            forEachPage(page -> reelService.getByTenant(request.getTenantId(), PageRequest.of(page, PAGE_SIZE)), row, progress);
         }
     }
 
-    private byte[] generateFleetUtilizationCSV(List<CTUnitDto> units, List<CTJob> jobs) {
-        StringBuilder csv = new StringBuilder();
-        csv.append("Unit Code,Unit Name,Status,Total Hours,Jobs Completed,Location,Utilization (%)\n");
-
-        for (CTUnitDto unit : units) {
-            long completedJobs = jobs.stream()
-                .filter(j -> j.getUnitId() != null && j.getUnitId().equals(unit.getAssetId()))
-                .filter(j -> j.getStatus() == JobStatus.COMPLETED)
-                .count();
-
-            BigDecimal hours = unit.getTotalOperationalHours() != null ? unit.getTotalOperationalHours() : BigDecimal.ZERO;
-            double utilization = hours.doubleValue() / 720.0 * 100;
-
-            csv.append(escape(unit.getUnitCode())).append(",");
-            csv.append(escape(unit.getUnitName())).append(",");
-            csv.append(unit.getOperationalStatus().name()).append(",");
-            csv.append(hours.toString()).append(",");
-            csv.append(completedJobs).append(",");
-            csv.append(escape(unit.getCurrentLocation() != null ? unit.getCurrentLocation() : "N/A")).append(",");
-            csv.append(String.format("%.2f", utilization)).append("\n");
-        }
+    private void writeReelLifecycleCSVRow(CTReelDto reel, Writer w) throws IOException {
+        BigDecimal fatigue = fatigueOf(reel);
+        w.write(escape(reel.getReelCode()));
+        w.write(',');
+        w.write(reel.getStatus().name());
+        w.write(',');
+        w.write(escape(reel.getMaterialGrade()));
+        w.write(',');
+        w.write(reel.getTotalLengthFt() != null ? reel.getTotalLengthFt().toString() : "N/A");
+        w.write(',');
+        w.write(reel.getTubingOdInch() != null ? reel.getTubingOdInch().toString() : "N/A");
+        w.write(',');
+        w.write(reel.getWallThicknessInch() != null ? reel.getWallThicknessInch().toString() : "N/A");
+        w.write(',');
+        w.write(reel.getAccumulatedFatiguePercent() != null ? reel.getAccumulatedFatiguePercent().toString() : "0");
+        w.write(',');
+        w.write(reel.getTotalCycles() != null ? reel.getTotalCycles().toString() : "0");
+        w.write(',');
+        w.write(HUNDRED.subtract(fatigue).toString());
+        w.write('\n');
+    }
 
-        return csv.toString().getBytes(StandardCharsets.UTF_8);
+    private void writeReelLifecycleTextRow(CTReelDto reel, Writer w) throws IOException {
+        w.write(LINE + "\n");
+        w.write("Reel Code: " + reel.getReelCode() + "\n");
+        w.write("Status: " + reel.getStatus() + "\n");
+        w.write("Material: " + reel.getMaterialGrade() + "\n");
+        w.write("Fatigue: " + (reel.getAccumulatedFatiguePercent() != null ? reel.getAccumulatedFatiguePercent() : "0") + "%\n");
+        w.write("Total Cycles: " + (reel.getTotalCycles() != null ? reel.getTotalCycles() : 0) + "\n");
+        w.write("Remaining Life: " + HUNDRED.subtract(fatigueOf(reel)) + "%\n\n");
     }
 
-    private byte[] generateFleetUtilizationText(List<CTUnitDto> units, List<CTJob> jobs) {
-        StringBuilder text = new StringBuilder();
-        text.append("=".repeat(80)).append("\n");
-        text.append("FLEET UTILIZATION REPORT\n");
-        text.append("=".repeat(80)).append("\n");
-        text.append("Generated: ").append(new Date()).append("\n");
-        text.append("Total Units: ").append(units.size()).append("\n\n");
-
-        for (CTUnitDto unit : units) {
-            long completedJobs = jobs.stream()
-                .filter(j -> j.getUnitId() != null && j.getUnitId().equals(unit.getAssetId()))
-                .filter(j -> j.getStatus() == JobStatus.COMPLETED)
-                .count();
-
-            text.append("-".repeat(80)).append("\n");
-            text.append("Unit Code: ").append(unit.getUnitCode()).append("\n");
-            text.append("Status: ").append(unit.getOperationalStatus()).append("\n");
-            text.append("Hours: ").append(unit.getTotalOperationalHours() != null ? unit.getTotalOperationalHours() : "0").append("\n");
-            text.append("Jobs Completed: ").append(completedJobs).append("\n");
-            text.append("Location: ").append(unit.getCurrentLocation() != null ? unit.getCurrentLocation() : "N/A").append("\n\n");
+    private void writeFleetUtilizationReport(CTReportRequest request, boolean csv, Writer w, Progress progress) throws IOException {
+        Map<UUID, Long> completedJobs = new HashMap<>();
+        for (Object[] row : jobRepository.countByUnitAndStatus(request.getTenantId(), JobStatus.COMPLETED)) {
+            completedJobs.put((UUID) row[0], ((Number) row[1]).longValue());
         }
 
-        return text.toString().getBytes(StandardCharsets.UTF_8);
-    }
-
-    private byte[] generateFatigueAnalysisReport(CTReportRequest request) {
-        Pageable pageable = PageRequest.of(0, 1000);
-        Page<CTReelDto> page = reelService.getByTenant(request.getTenantId(), pageable);
-        List<CTReelDto> allReels = page.getContent();
-
-        List<CTReelDto> criticalReels = allReels.stream()
-            .filter(r -> r.getAccumulatedFatiguePercent() != null &&
-                        r.getAccumulatedFatiguePercent().compareTo(new BigDecimal("80")) >= 0)
-            .sorted((r1, r2) -> {
-                BigDecimal f1 = r1.getAccumulatedFatiguePercent() != null ? r1.getAccumulatedFatiguePercent() : BigDecimal.ZERO;
-                BigDecimal f2 = r2.getAccumulatedFatiguePercent() != null ? r2.getAccumulatedFatiguePercent() : BigDecimal.ZERO;
-                return f2.compareTo(f1);
-            })
-            .collect(Collectors.toList());
-
-        if (request.getFormat() == CTReportRequest.ReportFormat.CSV) {
-            return generateFatigueAnalysisCSV(criticalReels);
+        long total = unitService.countByTenant(request.getTenantId());
+        progress.setTotal(total);
+        RowWriter<CTUnitDto> row;
+        if (csv) {
+            w.write("Unit Code,Unit Name,Status,Total Hours,Jobs Completed,Location,Utilization (%)\n");
+            row = unit -> writeFleetUtilizationCSVRow(unit, completedJobs.getOrDefault(unit.getAssetId(), 0L), w);
         } else {
-            return generateFatigueAnalysisText(criticalReels);
+            writeTextHeader("FLEET UTILIZATION REPORT", "Total Units: " + total, w);
+            row = unit -> writeFleetUtilizationTextRow(unit, completedJobs.getOrDefault(unit.getAssetId(), 0L), w);
         }
+
+        forEachPage(page -> unitService.getByTenant(request.getTenantId(), PageRequest.of(page, PAGE_SIZE)), row, progress);
     }
 
-    private byte[] generateFatigueAnalysisCSV(List<CTReelDto> reels) {
-        StringBuilder csv = new StringBuilder();
-        csv.append("Reel Code,Fatigue Level (%),Status,Total Cycles,Remaining Life (%),Recommendation\n");
+    private void writeFleetUtilizationCSVRow(CTUnitDto unit, long completedJobs, Writer w) throws IOException {
+        BigDecimal hours = unit.getTotalOperationalHours() != null ? unit.getTotalOperationalHours() : BigDecimal.ZERO;
+        double utilization = hours.doubleValue() / 720.0 * 100;
+
+        w.write(escape(unit.getUnitCode()));
+        w.write(',');
+        w.write(escape(unit.getUnitName()));
+        w.write(',');
+        w.write(unit.getOperationalStatus().name());
+        w.write(',');
+        w.write(hours.toString());
+        w.write(',');
+        w.write(Long.toString(completedJobs));
+        w.write(',');
+        w.write(escape(unit.getCurrentLocation() != null ? unit.getCurrentLocation() : "N/A"));
+        w.write(',');
+        w.write(String.format("%.2f", utilization));
+        w.write('\n');
+    }
 
-        for (CTReelDto reel : reels) {
-            BigDecimal fatigue = reel.getAccumulatedFatiguePercent() != null ? reel.getAccumulatedFatiguePercent() : BigDecimal.ZERO;
-            BigDecimal remainingLife = new BigDecimal("100").subtract(fatigue);
-            String recommendation = fatigue.compareTo(new BigDecimal("95")) >= 0 ? "RETIRE IMMEDIATELY"
-                : fatigue.compareTo(new BigDecimal("80")) >= 0 ? "SCHEDULE RETIREMENT"
-                : "MONITOR";
+    private void writeFleetUtilizationTextRow(CTUnitDto unit, long completedJobs, Writer w) throws IOException {
+        w.write(LINE + "\n");
+        w.write("Unit Code: " + unit.getUnitCode() + "\n");
+        w.write("Status: " + unit.getOperationalStatus() + "\n");
+        w.write("Hours: " + (unit.getTotalOperationalHours() != null ? unit.getTotalOperationalHours() : "0") + "\n");
+        w.write("Jobs Completed: " + completedJobs + "\n");
+        w.write("Location: " + (unit.getCurrentLocation() != null ? unit.getCurrentLocation() : "N/A") + "\n\n");
+    }
 
-            csv.append(escape(reel.getReelCode())).append(",");
-            csv.append(fatigue.toString()).append(",");
-            csv.append(reel.getStatus().name()).append(",");
-            csv.append(reel.getTotalCycles() != null ? reel.getTotalCycles().toString() : "0").append(",");
-            csv.append(remainingLife.toString()).append(",");
-            csv.append(recommendation).append("\n");
-        }
+    private void writeFatigueAnalysisReport(CTReportRequest request, boolean csv, Writer w, Progress progress) throws IOException {
+        // Sólo se retienen los reels críticos, que hay que ordenar antes de escribir
+        List<CTReelDto> criticalReels = new ArrayList<>();
+        progress.setTotal(reelService.countByTenant(request.getTenantId()));
+        forEachPage(page -> reelService.getByTenant(request.getTenantId(), PageRequest.of(page, PAGE_SIZE)), reel -> {
+            if (reel.getAccumulatedFatiguePercent() != null
+                    && reel.getAccumulatedFatiguePercent().compareTo(CRITICAL_FATIGUE) >= 0) {
+                criticalReels.add(reel);
+            }
+        }, progress);
+        criticalReels.sort((r1, r2) -> fatigueOf(r2).compareTo(fatigueOf(r1)));
 
-        return csv.toString().getBytes(StandardCharsets.UTF_8);
-    }
+        if (csv) {
+            w.write("Reel Code,Fatigue Level (%),Status,Total Cycles,Remaining Life (%),Recommendation\n");
+        } else {
+            writeTextHeader("FATIGUE ANALYSIS REPORT", "Critical Reels (>80% fatigue): " + criticalReels.size(), w);
+        }
 
-    private byte[] generateFatigueAnalysisText(List<CTReelDto> reels) {
-        StringBuilder text = new StringBuilder();
-        text.append("=".repeat(80)).append("\n");
-        text.append("FATIGUE ANALYSIS REPORT\n");
-        text.append("=".repeat(80)).append("\n");
-        text.append("Generated: ").append(new Date()).append("\n");
-        text.append("Critical Reels (>80% fatigue): ").append(reels.size()).append("\n\n");
-
-        for (CTReelDto reel : reels) {
-            BigDecimal fatigue = reel.getAccumulatedFatiguePercent() != null ? reel.getAccumulatedFatiguePercent() : BigDecimal.ZERO;
-            String recommendation = fatigue.compareTo(new BigDecimal("95")) >= 0 ? "RETIRE IMMEDIATELY"
-                : fatigue.compareTo(new BigDecimal("80")) >= 0 ? "SCHEDULE RETIREMENT"
+        for (CTReelDto reel : criticalReels) {
+            BigDecimal fatigue = fatigueOf(reel);
+            String recommendation = fatigue.compareTo(RETIRE_FATIGUE) >= 0 ? "RETIRE IMMEDIATELY"
+                : fatigue.compareTo(CRITICAL_FATIGUE) >= 0 ? "SCHEDULE RETIREMENT"
                 : "MONITOR";
 
-            text.append("-".repeat(80)).append("\n");
-            text.append("Reel Code: ").append(reel.getReelCode()).append("\n");
-            text.append("Fatigue: ").append(fatigue).append("%\n");
-            text.append("Status: ").append(reel.getStatus()).append("\n");
-            text.append("Recommendation: ").append(recommendation).append("\n\n");
+            if (csv) {
+                w.write(escape(reel.getReelCode()));
+                w.write(',');
+                w.write(fatigue.toString());
+                w.write(',');
+                w.write(reel.getStatus().name());
+                w.write(',');
+                w.write(reel.getTotalCycles() != null ? reel.getTotalCycles().toString() : "0");
+                w.write(',');
+                w.write(HUNDRED.subtract(fatigue).toString());
+                w.write(',');
+                w.write(recommendation);
+                w.write('\n');
+            } else {
+                w.write(LINE + "\n");
+                w.write("Reel Code: " + reel.getReelCode() + "\n");
+                w.write("Fatigue: " + fatigue + "%\n");
+                w.write("Status: " + reel.getStatus() + "\n");
+                w.write("Recommendation: " + recommendation + "\n\n");
+            }
         }
-
-        return text.toString().getBytes(StandardCharsets.UTF_8);
     }
 
-    private byte[] generateMaintenanceScheduleReport(CTReportRequest request) {
-        Pageable pageable = PageRequest.of(0, 1000);
-        Page<CTUnitDto> page = unitService.getByTenant(request.getTenantId(), pageable);
-        List<CTUnitDto> units = page.getContent();
-
-        if (request.getFormat() == CTReportRequest.ReportFormat.CSV) {
-            return generateMaintenanceScheduleCSV(units);
+    private void writeMaintenanceScheduleReport(CTReportRequest request, boolean csv, Writer w, Progress progress) throws IOException {
+        long total = unitService.countByTenant(request.getTenantId());
+        progress.setTotal(total);
+        RowWriter<CTUnitDto> row;
+        if (csv) {
+            w.write("Unit Code,Status,Total Hours,Hours Since Maintenance,Next Maintenance (hrs),Priority\n");
+            row = unit -> writeMaintenanceScheduleCSVRow(unit, w);
         } else {
-            return generateMaintenanceScheduleText(units);
+            writeTextHeader("MAINTENANCE SCHEDULE REPORT", "Total Units: " + total, w);
+            row = unit -> writeMaintenanceScheduleTextRow(unit, w);
         }
+
+        forEachPage(page -> unitService.getByTenant(request.getTenantId(), PageRequest.of(page, PAGE_SIZE)), row, progress);
     }
 
-    private byte[] generateMaintenanceScheduleCSV(List<CTUnitDto> units) {
-        StringBuilder csv = new StringBuilder();
-        csv.append("Unit Code,Status,Total Hours,Hours Since Maintenance,Next Maintenance (hrs),Priority\n");
-
-        for (CTUnitDto unit : units) {
-            BigDecimal totalHours = unit.getTotalOperationalHours() != null ? unit.getTotalOperationalHours() : BigDecimal.ZERO;
-            double hoursSinceMaintenance = totalHours.doubleValue() % 500;
-            double nextMaintenance = 500 - hoursSinceMaintenance;
-            String priority = nextMaintenance < 50 ? "HIGH" : nextMaintenance < 100 ? "MEDIUM" : "LOW";
-
-            csv.append(escape(unit.getUnitCode())).append(",");
-            csv.append(unit.getOperationalStatus().name()).append(",");
-            csv.append(String.format("%.2f", totalHours.doubleValue())).append(",");
-            csv.append(String.format("%.2f", hoursSinceMaintenance)).append(",");
-            csv.append(String.format("%.2f", nextMaintenance)).append(",");
-            csv.append(priority).append("\n");
-        }
+    private void writeMaintenanceScheduleCSVRow(CTUnitDto unit, Writer w) throws IOException {
+        BigDecimal totalHours = unit.getTotalOperationalHours() != null ? unit.getTotalOperationalHours() : BigDecimal.ZERO;
+        double hoursSinceMaintenance = totalHours.doubleValue() % 500;
+        double nextMaintenance = 500 - hoursSinceMaintenance;
+        String priority = nextMaintenance < 50 ? "HIGH" : nextMaintenance < 100 ? "MEDIUM" : "LOW";
+
+        w.write(escape(unit.getUnitCode()));
+        w.write(',');
+        w.write(unit.getOperationalStatus().name());
+        w.write(',');
+        w.write(String.format("%.2f", totalHours.doubleValue()));
+        w.write(',');
+        w.write(String.format("%.2f", hoursSinceMaintenance));
+        w.write(',');
+        w.write(String.format("%.2f", nextMaintenance));
+        w.write(',');
+        w.write(priority);
+        w.write('\n');
+    }
 
-        return csv.toString().getBytes(StandardCharsets.UTF_8);
+    private void writeMaintenanceScheduleTextRow(CTUnitDto unit, Writer w) throws IOException {
+        BigDecimal totalHours = unit.getTotalOperationalHours() != null ? unit.getTotalOperationalHours() : BigDecimal.ZERO;
+        double nextMaintenance = 500 - totalHours.doubleValue() % 500;
+
+        w.write(LINE + "\n");
+        w.write("Unit Code: " + unit.getUnitCode() + "\n");
+        w.write("Status: " + unit.getOperationalStatus() + "\n");
+        w.write("Total Hours: " + String.format("%.2f", totalHours.doubleValue()) + "\n");
+        w.write("Next Maintenance: " + String.format("%.2f", nextMaintenance) + " hrs\n\n");
     }
 
-    private byte[] generateMaintenanceScheduleText(List<CTUnitDto> units) {
-        StringBuilder text = new StringBuilder();
-        text.append("=".repeat(80)).append("\n");
-        text.append("MAINTENANCE SCHEDULE REPORT\n");
-        text.append("=".repeat(80)).append("\n");
-        text.append("Generated: ").append(new Date()).append("\n");
-        text.append("Total Units: ").append(units.size()).append("\n\n");
-
-        for (CTUnitDto unit : units) {
-            BigDecimal totalHours = unit.getTotalOperationalHours() != null ? unit.getTotalOperationalHours() : BigDecimal.ZERO;
-            double hoursSinceMaintenance = totalHours.doubleValue() % 500;
-            double nextMaintenance = 500 - hoursSinceMaintenance;
-
-            text.append("-".repeat(80)).append("\n");
-            text.append("Unit Code: ").append(unit.getUnitCode()).append("\n");
-            text.append("Status: ").append(unit.getOperationalStatus()).append("\n");
-            text.append("Total Hours: ").append(String.format("%.2f", totalHours.doubleValue())).append("\n");
-            text.append("Next Maintenance: ").append(String.format("%.2f", nextMaintenance)).append(" hrs\n\n");
-        }
+    private <T> void forEachPage(IntFunction<Page<T>> pageLoader, RowWriter<T> row, Progress progress) throws IOException {
+        int pageNumber = 0;
+        Page<T> page;
+        do {
+            page = pageLoader.apply(pageNumber++);
+            for (T item : page.getContent()) {
+                row.write(item);
+                progress.increment();
+            }
+        } while (page.hasNext());
+    }
+
+    private void writeTextHeader(String title, String totalLine, Writer w) throws IOException {
+        w.write(SEPARATOR + "\n");
+        w.write(title + "\n");
+        w.write(SEPARATOR + "\n");
+        w.write("Generated: " + new Date() + "\n");
+        w.write(totalLine + "\n\n");
+    }
+
+    private static BigDecimal fatigueOf(CTReelDto reel) {
+        return reel.getAccumulatedFatiguePercent() != null ? reel.getAccumulatedFatiguePercent() : BigDecimal.ZERO;
+    }
 
-        return text.toString().getBytes(StandardCharsets.UTF_8);
+    private static String formatDate(Long epochMillis) {
+        return epochMillis != null ? DATE_FORMAT.format(Instant.ofEpochMilli(epochMillis)) : "N/A";
     }
 
     private String escape(String value) {
@@ -17,8 +17,10 @@ package org.thingsboard.nexus.ct.service;
 
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.ObjectProvider;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
+import org.thingsboard.nexus.ct.config.CTModuleConfiguration;
 import org.thingsboard.nexus.ct.dto.CTReelDto;
 import org.thingsboard.nexus.ct.dto.CTUnitDto;
 import org.thingsboard.nexus.ct.exception.CTBusinessException;
@@ -27,9 +29,21 @@ import org.thingsboard.nexus.ct.model.CTJob;
 import org.thingsboard.nexus.ct.repository.CTJobRepository;
 import org.thingsboard.nexus.ct.rule.CTJobSimulationNode;
 import org.thingsboard.nexus.ct.rule.CTJobSimulationNode.JobParameters;
+import org.thingsboard.nexus.ct.rule.CTJobSimulationNode.Scenario;
 import org.thingsboard.nexus.ct.rule.CTJobSimulationNode.SimulationResult;
-
+import org.thingsboard.nexus.ct.rule.CTWellboreModel;
+import org.thingsboard.server.common.data.nexus.WellSurveyStations;
+import org.thingsboard.server.dao.nexus.WellSurveyService;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import java.util.ArrayList;
+import java.util.List;
 import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
 
 @Service
 @RequiredArgsConstructor
@@ -39,19 +53,35 @@ public class CTSimulationService {
     private final CTJobRepository jobRepository;
     private final CTUnitService unitService;
     private final CTReelService reelService;
+    private final ObjectProvider<WellSurveyService> wellSurveyService;
+    private final CTModuleConfiguration config;
     private final CTJobSimulationNode simulationNode = new CTJobSimulationNode();
 
+    private ExecutorService scenarioExecutor;
+
+    @PostConstruct
+    public void init() {
+        int threads = config.getSimulationParallelism() > 0
+            ? config.getSimulationParallelism()
+            : Runtime.getRuntime().availableProcessors();
+        AtomicInteger counter = new AtomicInteger();
+        scenarioExecutor = Executors.newFixedThreadPool(threads, r -> {
+            Thread thread = new Thread(r, "ct-simulation-" + counter.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    @PreDestroy
+    public void destroy() {
+        scenarioExecutor.shutdownNow();
+    }
+
     @Transactional(readOnly = true)
     public SimulationResult simulateJob(UUID jobId) {
         log.info("Simulating job: {}", jobId);
 
-        CTJob job = jobRepository.findById(jobId)
-            .orElseThrow(() -> new CTEntityNotFoundException("Job", jobId.toString()));
-
-        CTUnitDto unit = unitService.getById(job.getUnitId());
-        CTReelDto reel = reelService.getById(job.getReelId());
-
-        JobParameters params = buildJobParameters(job, unit, reel);
+        JobParameters params = buildJobParameters(jobId);
         SimulationResult result = simulationNode.simulate(params);
 
         log.info("Simulation completed for job {}: feasible={}, duration={} hrs",
@@ -66,7 +96,68 @@ public class CTSimulationService {
     public SimulationResult simulateCustomJob(JobParameters params) {
         log.info("Simulating custom job for well: {}", params.getWellName());
 
-        if (params.getWellName() == null || params.getWellName().isEmpty()) {
+        validateCustomJob(params);
+
+        SimulationResult result = simulationNode.simulate(params);
+
+        log.info("Custom simulation completed: feasible={}, duration={} hrs",
+                 result.getFeasibility() != null && result.getFeasibility().isFeasible(),
+                 result.getTimes() != null ? result.getTimes().getTotalDurationHours() : 0);
+
+        return result;
+    }
+
+    /**
+     * Simula varios escenarios de un trabajo en paralelo sobre un único modelo del pozo.
+     * Los resultados mantienen el orden de los escenarios.
+     */
+    @Transactional(readOnly = true)
+    public List<SimulationResult> simulateJobScenarios(UUID jobId, List<Scenario> scenarios) {
+        log.info("Simulating {} scenarios for job: {}", scenarios != null ? scenarios.size() : 0, jobId);
+        return simulateScenarios(buildJobParameters(jobId), scenarios);
+    }
+
+    public List<SimulationResult> simulateCustomScenarios(JobParameters params, List<Scenario> scenarios) {
+        log.info("Simulating {} custom scenarios for well: {}",
+                 scenarios != null ? scenarios.size() : 0, params != null ? params.getWellName() : null);
+        validateCustomJob(params);
+        return simulateScenarios(params, scenarios);
+    }
+
+    private List<SimulationResult> simulateScenarios(JobParameters base, List<Scenario> scenarios) {
+        if (scenarios == null || scenarios.isEmpty()) {
+            throw new CTBusinessException("At least one scenario is required");
+        }
+        if (scenarios.size() > config.getSimulationMaxScenarios()) {
+            throw new CTBusinessException("Too many scenarios: " + scenarios.size() +
+                                          " (max " + config.getSimulationMaxScenarios() + ")");
+        }
+        if (base.getStepFt() == null) {
+            base.setStepFt(config.getSimulationStepFt());
+        }
+
+        long start = System.nanoTime();
+        CTWellboreModel well = simulationNode.wellboreModel(base);
+        List<CompletableFuture<SimulationResult>> futures = new ArrayList<>(scenarios.size());
+        for (Scenario scenario : scenarios) {
+            futures.add(CompletableFuture.supplyAsync(() -> {
+                SimulationResult result = simulationNode.simulate(base.withScenario(scenario), well);
+                result.setScenarioName(scenario.getName());
+                return result;
+            }, scenarioExecutor));
+        }
+        List<SimulationResult> results = new ArrayList<>(futures.size());
+        for (CompletableFuture<SimulationResult> future : futures) {
+            results.add(future.join());
+        }
+
+        log.info("Simulated {} scenarios over {} points in {} ms",
+                 results.size(), well.getPoints(), (System.nanoTime() - start) / 1_000_000);
+        return results;
+    }
+
+    private void validateCustomJob(JobParameters params) {
+        if (params == null || params.getWellName() == null || params.getWellName().isEmpty()) {
             throw new CTBusinessException("Well name is required");
         }
 
@@ -74,13 +165,19 @@ public class CTSimulationService {
             throw new CTBusinessException("Target depth must be positive");
         }
 
-        SimulationResult result = simulationNode.simulate(params);
+        if (params.getStepFt() == null) {
+            params.setStepFt(config.getSimulationStepFt());
+        }
+    }
 
-        log.info("Custom simulation completed: feasible={}, duration={} hrs",
-                 result.getFeasibility() != null && result.getFeasibility().isFeasible(),
-                 result.getTimes() != null ? result.getTimes().getTotalDurationHours() : 0);
+    private JobParameters buildJobParameters(UUID jobId) {
+        CTJob job = jobRepository.findById(jobId)
+            .orElseThrow(() -> new CTEntityNotFoundException("Job", jobId.toString()));
 
-        return result;
+        CTUnitDto unit = unitService.getById(job.getUnitId());
+        CTReelDto reel = reelService.getById(job.getReelId());
+
+        return buildJobParameters(job, unit, reel);
     }
 
     private JobParameters buildJobParameters(CTJob job, CTUnitDto unit, CTReelDto reel) {
@@ -91,7 +188,20 @@ public class CTSimulationService {
         params.setTargetDepthFt(job.getTargetDepthToFt() != null ?
                                 job.getTargetDepthToFt().doubleValue() : 10000.0);
         params.setWellboreDiameterInch(7.0); // Default, debería venir del job
-        params.setMaxInclinationDeg(30.0); // Default, debería venir del well profile
+        params.setMaxInclinationDeg(30.0); // Default si el pozo no tiene survey
+        params.setWellheadPressurePsi(job.getWellheadPressurePsi() != null ? job.getWellheadPressurePsi() : 0.0);
+        params.setStepFt(config.getSimulationStepFt());
+
+        // El survey lo aporta el módulo de perforación si está desplegado
+        WellSurveyService surveys = wellSurveyService.getIfAvailable();
+        WellSurveyStations survey = surveys != null && job.getWellId() != null
+                ? surveys.findStationsByWellId(job.getWellId())
+                : WellSurveyStations.EMPTY;
+        if (survey.size() > 0) {
+            params.setSurveyMdFt(survey.mdFt());
+            params.setSurveyInclinationDeg(survey.inclinationDeg());
+            params.setSurveyAzimuthDeg(survey.azimuthDeg());
+        }
 
         params.setTubingOdInch(reel.getTubingOdInch() != null ?
                                reel.getTubingOdInch().doubleValue() : 2.375);
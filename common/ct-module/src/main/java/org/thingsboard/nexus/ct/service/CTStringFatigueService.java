@@ -0,0 +1,354 @@
+/**
+ * Copyright © 2016-2026 The Thingsboard Authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.thingsboard.nexus.ct.service;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Service;
+import org.thingsboard.nexus.ct.config.CTModuleConfiguration;
+import org.thingsboard.nexus.ct.dto.CTReelDto;
+import org.thingsboard.nexus.ct.dto.CTSegmentFatigueDto;
+import org.thingsboard.nexus.ct.rule.CTFatigueCalculationNode;
+import org.thingsboard.nexus.ct.rule.CTFatigueCalculationNode.FatigueCalculationResult;
+import org.thingsboard.nexus.ct.rule.CTFatigueCalculationNode.ReelAttributes;
+import org.thingsboard.nexus.ct.rule.CTFatigueCalculationNode.TelemetryData;
+import org.thingsboard.nexus.ct.rule.CTRainflowCounter;
+import org.thingsboard.nexus.ct.rule.CTStringFatigueMap;
+import org.thingsboard.server.common.data.id.EntityId;
+import org.thingsboard.server.common.data.id.TenantId;
+import org.thingsboard.server.common.data.kv.AttributeKvEntry;
+import org.thingsboard.server.common.data.nexus.ReelTelemetrySample;
+import org.thingsboard.server.dao.nexus.ReelFatigueService;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Mantiene en memoria el mapa de fatiga por segmento de cada reel, lo actualiza con la telemetría de
+ * profundidad y dirección, y lo persiste como instantánea comprimida en un atributo del reel.
+ *
+ * La telemetría llega desde el nodo de fatiga del reel de la rule chain ({@link ReelFatigueService}) y se
+ * procesa en un único hilo, en el orden de llegada; la geometría, el material y la fatiga acumulada del
+ * reel se leen una vez y la fatiga acumulada se mantiene en memoria con cada cálculo.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class CTStringFatigueService implements ReelFatigueService {
+
+    private static final double DEFAULT_TUBING_LENGTH_FT = 15000.0;
+    private static final long SHUTDOWN_TIMEOUT_MS = 5000L;
+
+    private final CTAttributeService attributeService;
+    private final CTReelService reelService;
+    private final CTFatigueLogSink fatigueLogSink;
+    private final CTModuleConfiguration config;
+
+    private final CTFatigueCalculationNode calculator = new CTFatigueCalculationNode();
+    private final Map<UUID, ReelState> reels = new ConcurrentHashMap<>();
+    private final Map<UUID, ReelAttributes> reelAttributes = new ConcurrentHashMap<>();
+
+    private ExecutorService executor;
+
+    private static final class ReelState {
+        final CTStringFatigueMap map;
+        final CTRainflowCounter rainflow;
+        long snapshotTime;
+        boolean dirty;
+
+        ReelState(CTStringFatigueMap map, CTRainflowCounter rainflow, long snapshotTime) {
+            this.map = map;
+            this.rainflow = rainflow;
+            this.snapshotTime = snapshotTime;
+        }
+    }
+
+    @PostConstruct
+    public void init() {
+        executor = Executors.newSingleThreadExecutor(r -> {
+            Thread thread = new Thread(r, "ct-string-fatigue");
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    @PreDestroy
+    public void destroy() {
+        if (executor != null) {
+            executor.shutdown();
+            try {
+                if (!executor.awaitTermination(SHUTDOWN_TIMEOUT_MS, TimeUnit.MILLISECONDS)) {
+                    executor.shutdownNow();
+                }
+            } catch (InterruptedException e) {
+                executor.shutdownNow();
+                Thread.currentThread().interrupt();
+            }
+        }
+        flushAll();
+    }
+
+    /**
+     * Encola una muestra del nodo de fatiga del reel; se procesa en el hilo de fatiga sin bloquear la rule chain.
+     */
+    @Override
+    public void onReelTelemetry(TenantId tenantId, EntityId reelId, ReelTelemetrySample sample) {
+        try {
+            executor.execute(() -> {
+                try {
+                    ingest(tenantId.getId(), reelId.getId(), sample);
+                } catch (Exception e) {
+                    log.warn("Failed to process telemetry of reel {}: {}", reelId, e.getMessage());
+                }
+            });
+        } catch (RejectedExecutionException e) {
+            log.warn("Dropping telemetry of reel {}: fatigue service is shutting down", reelId);
+        }
+    }
+
+    /**
+     * Procesa una muestra de telemetría con los atributos actuales del reel y guarda en memoria la fatiga
+     * acumulada resultante para la siguiente muestra.
+     */
+    public FatigueCalculationResult ingest(UUID tenantId, UUID reelId, ReelTelemetrySample sample) {
+        ReelAttributes attributes = reelAttributes.computeIfAbsent(reelId, id -> loadAttributes(tenantId, id));
+        TelemetryData telemetry = new TelemetryData();
+        telemetry.setPressure(sample.pressurePsi());
+        telemetry.setTension(sample.tensionLbf());
+        if (sample.temperatureF() != null) {
+            telemetry.setTemperature(sample.temperatureF());
+        }
+        if (sample.direction() != null) {
+            telemetry.setDirection(sample.direction().toUpperCase(Locale.ROOT));
+        }
+        if (sample.depthFt() != null) {
+            telemetry.setDepthFt(sample.depthFt());
+        }
+        FatigueCalculationResult result = calculate(telemetry, attributes);
+        if (result.isSuccess()) {
+            attributes.setAccumulatedFatiguePercent(result.getNewFatiguePercent());
+            attributes.setTotalCycles(result.getNewTotalCycles());
+        }
+        return result;
+    }
+
+    /**
+     * Calcula la fatiga de una muestra de telemetría con el conteo rainflow del reel, actualiza el mapa por
+     * segmento y encola el registro de fatiga cuando la muestra cierra ciclos.
+     */
+    public FatigueCalculationResult calculate(TelemetryData telemetry, ReelAttributes attributes) {
+        UUID reelId = attributes.getReelId();
+        ReelState state = state(reelId, attributes.getTubingLengthFt());
+        FatigueCalculationResult result;
+        byte[] snapshot = null;
+        double worstPercent = 0;
+        double worstPositionFt = 0;
+        synchronized (state) {
+            long passedBefore = state.map.getPassedFt();
+            result = calculator.calculate(telemetry, attributes, state.map, state.rainflow);
+            state.dirty |= state.map.getPassedFt() != passedBefore;
+            long now = System.currentTimeMillis();
+            if (state.dirty && now - state.snapshotTime >= config.getFatigueSnapshotIntervalMs()) {
+                snapshot = state.map.toSnapshot();
+                worstPercent = state.map.getWorstFatiguePercent();
+                worstPositionFt = state.map.getWorstPositionFt();
+                state.snapshotTime = now;
+                state.dirty = false;
+            }
+        }
+        if (snapshot != null) {
+            persist(reelId, snapshot, worstPercent, worstPositionFt);
+        }
+        if (result.isSuccess() && result.getNewTotalCycles() != attributes.getTotalCycles()) {
+            fatigueLogSink.submit(calculator.toFatigueLog(result));
+        }
+        return result;
+    }
+
+    /**
+     * Perfil de fatiga de la sarta, agregado a como máximo {@code maxBins} tramos.
+     */
+    public CTSegmentFatigueDto getSegmentFatigue(UUID reelId, int maxBins) {
+        ReelState state = state(reelId, null);
+        synchronized (state) {
+            CTStringFatigueMap map = state.map;
+            int count = map.getSegmentCount();
+            int perBin = Math.max(1, (int) Math.ceil(count / (double) Math.max(1, maxBins)));
+            List<CTSegmentFatigueDto.Bin> bins = new ArrayList<>(count / perBin + 1);
+            for (int first = 0; first < count; first += perBin) {
+                int last = Math.min(first + perBin, count);
+                double max = 0;
+                for (int i = first; i < last; i++) {
+                    max = Math.max(max, map.getDamage(i));
+                }
+                bins.add(CTSegmentFatigueDto.Bin.builder()
+                        .fromFt(first * map.getSegmentLengthFt())
+                        .toFt(last * map.getSegmentLengthFt())
+                        .maxFatiguePercent(Math.min(max * 100.0, 100.0))
+                        .build());
+            }
+            return CTSegmentFatigueDto.builder()
+                    .reelId(reelId)
+                    .segmentLengthFt(map.getSegmentLengthFt())
+                    .segmentCount(count)
+                    .worstSegmentFatiguePercent(map.getWorstFatiguePercent())
+                    .worstSegmentPositionFt(map.getWorstPositionFt())
+                    .remainingPasses(map.getRemainingPasses())
+                    .passedFt(map.getPassedFt())
+                    .lastDepthFt(Double.isNaN(map.getLastDepthFt()) ? null : map.getLastDepthFt())
+                    .bins(bins)
+                    .build();
+        }
+    }
+
+    /**
+     * Persiste de inmediato el mapa del reel (p.ej. al cerrar un trabajo).
+     */
+    public void flush(UUID reelId) {
+        ReelState state = reels.get(reelId);
+        if (state == null) {
+            return;
+        }
+        byte[] snapshot;
+        double worstPercent;
+        double worstPositionFt;
+        synchronized (state) {
+            snapshot = state.map.toSnapshot();
+            worstPercent = state.map.getWorstFatiguePercent();
+            worstPositionFt = state.map.getWorstPositionFt();
+            state.snapshotTime = System.currentTimeMillis();
+            state.dirty = false;
+        }
+        persist(reelId, snapshot, worstPercent, worstPositionFt);
+    }
+
+    /**
+     * Olvida la última profundidad del reel, p.ej. al montarlo en otra unidad.
+     */
+    public void resetDepth(UUID reelId) {
+        reelAttributes.remove(reelId);
+        ReelState state = reels.get(reelId);
+        if (state != null) {
+            synchronized (state) {
+                state.map.resetDepth();
+            }
+        }
+    }
+
+    public void flushAll() {
+        reels.forEach((reelId, state) -> {
+            if (state.dirty) {
+                try {
+                    flush(reelId);
+                } catch (Exception e) {
+                    log.warn("Failed to persist fatigue segment map of reel {}: {}", reelId, e.getMessage());
+                }
+            }
+        });
+    }
+
+    private ReelState state(UUID reelId, Double tubingLengthFt) {
+        return reels.computeIfAbsent(reelId, id -> new ReelState(load(id, tubingLengthFt),
+                new CTRainflowCounter(config.getFatigueRainflowHysteresisPsi(), config.getFatigueRainflowResidueCapacity()),
+                System.currentTimeMillis()));
+    }
+
+    private CTStringFatigueMap load(UUID reelId, Double tubingLengthFt) {
+        List<AttributeKvEntry> attributes = attributeService.getServerAttributes(reelId,
+                List.of(CTReelDto.ATTR_FATIGUE_SEGMENT_SNAPSHOT));
+        for (AttributeKvEntry attribute : attributes) {
+            String encoded = attribute.getStrValue().orElse(null);
+            if (encoded != null && !encoded.isEmpty()) {
+                try {
+                    return CTStringFatigueMap.fromSnapshot(Base64.getDecoder().decode(encoded));
+                } catch (IllegalArgumentException e) {
+                    log.warn("Discarding unreadable fatigue segment snapshot of reel {}: {}", reelId, e.getMessage());
+                }
+            }
+        }
+        double lengthFt = tubingLengthFt != null && tubingLengthFt > 0 ? tubingLengthFt : reelLengthFt(reelId);
+        log.debug("Creating fatigue segment map for reel {} ({} ft)", reelId, lengthFt);
+        return new CTStringFatigueMap(lengthFt, config.getFatigueSegmentLengthFt());
+    }
+
+    private ReelAttributes loadAttributes(UUID tenantId, UUID reelId) {
+        CTReelDto reel = reelService.getById(reelId);
+        ReelAttributes attributes = new ReelAttributes();
+        attributes.setReelId(reelId);
+        attributes.setTenantId(reel.getTenantId() != null ? reel.getTenantId() : tenantId);
+        if (reel.getTubingOdInch() != null) {
+            attributes.setTubingOdInch(reel.getTubingOdInch().doubleValue());
+        }
+        if (reel.getTubingIdInch() != null) {
+            attributes.setTubingIdInch(reel.getTubingIdInch().doubleValue());
+        }
+        if (reel.getMaterialGrade() != null) {
+            attributes.setMaterialGrade(reel.getMaterialGrade());
+        }
+        if (reel.getTypicalGooseneckRadiusInch() != null) {
+            attributes.setTypicalGooseneckRadiusInch(reel.getTypicalGooseneckRadiusInch().doubleValue());
+        }
+        if (reel.getReelCoreDiameterInch() != null) {
+            attributes.setReelCoreDiameterInch(reel.getReelCoreDiameterInch().doubleValue());
+        }
+        if (reel.getTotalLengthFt() != null && reel.getTotalLengthFt().signum() > 0) {
+            attributes.setTubingLengthFt(reel.getTotalLengthFt().doubleValue());
+        }
+        if (reel.getAccumulatedFatiguePercent() != null) {
+            attributes.setAccumulatedFatiguePercent(reel.getAccumulatedFatiguePercent().doubleValue());
+        }
+        if (reel.getTotalCycles() != null) {
+            attributes.setTotalCycles(reel.getTotalCycles());
+        }
+        if (reel.getCorrosionEnvironment() != null) {
+            attributes.setCorrosionEnvironment(reel.getCorrosionEnvironment());
+        }
+        BigDecimal weldFactor = reel.getWeldStressConcentrationFactor();
+        if (weldFactor != null && weldFactor.signum() > 0) {
+            attributes.setWeldStressConcentrationFactor(weldFactor.doubleValue());
+        }
+        return attributes;
+    }
+
+    private double reelLengthFt(UUID reelId) {
+        CTReelDto reel = reelService.getById(reelId);
+        return reel.getTotalLengthFt() != null && reel.getTotalLengthFt().signum() > 0
+                ? reel.getTotalLengthFt().doubleValue()
+                : DEFAULT_TUBING_LENGTH_FT;
+    }
+
+    private void persist(UUID reelId, byte[] snapshot, double worstPercent, double worstPositionFt) {
+        Map<String, Object> attributes = new HashMap<>();
+        attributes.put(CTReelDto.ATTR_FATIGUE_SEGMENT_SNAPSHOT, Base64.getEncoder().encodeToString(snapshot));
+        attributes.put(CTReelDto.ATTR_WORST_SEGMENT_FATIGUE_PERCENT, worstPercent);
+        attributes.put(CTReelDto.ATTR_WORST_SEGMENT_POSITION_FT, worstPositionFt);
+        attributeService.saveServerAttributes(reelId, attributes);
+        log.debug("Persisted fatigue segment map of reel {} ({} bytes, worst {}%)", reelId, snapshot.length, worstPercent);
+    }
+}
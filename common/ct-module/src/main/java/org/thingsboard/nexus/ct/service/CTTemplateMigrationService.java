@@ -29,6 +29,8 @@ import org.thingsboard.server.dao.template.TemplateDefinitionDaoService;
 
 import java.io.IOException;
 import java.util.*;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
 
 @Service
 @RequiredArgsConstructor
@@ -40,6 +42,7 @@ public class CTTemplateMigrationService {
 
     private static final String MODULE_CODE = "CT";
     private static final UUID SYSTEM_USER_ID = UUID.fromString("13814000-1dd2-11b2-8080-808080808080");
+    private static final Pattern VARIABLE_PATTERN = Pattern.compile("\\{\\{([^}]+)\\}\\}");
 
     @Transactional
     public int migrateJsonTemplatesToDb(UUID tenantId) {
@@ -109,6 +112,9 @@ public class CTTemplateMigrationService {
                 .createdTime(System.currentTimeMillis())
                 .build();
 
+        // Compile before saving so a template that could never be instantiated is not migrated
+        CompiledTemplate.compile(dto, structure);
+
         daoService.saveTemplateDefinition(dto);
         return templateCode;
     }
@@ -219,7 +225,7 @@ public class CTTemplateMigrationService {
     private void extractVariableNamesFromNode(JsonNode node, Set<String> variableNames) {
         if (node.isTextual()) {
             String text = node.asText();
-            java.util.regex.Matcher matcher = java.util.regex.Pattern.compile("\\{\\{([^}]+)\\}\\}").matcher(text);
+            Matcher matcher = VARIABLE_PATTERN.matcher(text);
             while (matcher.find()) {
                 variableNames.add(matcher.group(1));
             }
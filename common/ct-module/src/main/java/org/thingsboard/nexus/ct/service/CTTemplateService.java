@@ -20,7 +20,10 @@ import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
 import org.thingsboard.nexus.ct.exception.CTBusinessException;
+import org.thingsboard.server.common.data.AttributeScope;
 import org.thingsboard.server.common.data.asset.Asset;
 import org.thingsboard.server.common.data.id.AssetId;
 import org.thingsboard.server.common.data.id.TenantId;
@@ -31,9 +34,6 @@ import org.thingsboard.server.dao.asset.AssetService;
 import org.thingsboard.server.dao.relation.RelationService;
 
 import java.util.*;
-import java.util.regex.Matcher;
-import java.util.regex.Pattern;
-import java.util.stream.Collectors;
 
 @Service
 @RequiredArgsConstructor
@@ -47,7 +47,6 @@ public class CTTemplateService {
     private final ObjectMapper objectMapper;
 
     private static final String MODULE_CODE = "CT";
-    private static final Pattern VARIABLE_PATTERN = Pattern.compile("\\{\\{([^}]+)\\}\\}");
 
     @Transactional(readOnly = true)
     public List<TemplateDefinitionDto> getAvailableTemplates(String moduleCode, UUID tenantId) {
@@ -83,130 +82,93 @@ public class CTTemplateService {
         log.info("Instantiating template {} for tenant {} with variables: {}",
                 templateId, tenantId, variables);
 
-        TemplateDefinitionDto template = templateDefinitionService.getById(templateId);
-
-        TemplateStructure structure = template.getTemplateStructure();
-        if (structure == null || structure.getNodes() == null || structure.getNodes().isEmpty()) {
-            throw new CTBusinessException("Template has no structure defined: " + template.getTemplateName());
-        }
+        CompiledTemplate plan = templateDefinitionService.getCompiledTemplate(templateId);
+        List<CompiledTemplate.Node> nodes = plan.getNodes();
 
         Map<String, UUID> nodeKeyToAssetIdMap = new LinkedHashMap<>();
-        List<UUID> createdAssetIds = new ArrayList<>();
-
-        TemplateNode rootNode = structure.getNodes().stream()
-                .filter(n -> Boolean.TRUE.equals(n.getIsRoot()))
-                .findFirst()
-                .orElseThrow(() -> new CTBusinessException("Template has no root node: " + template.getTemplateName()));
-
-        Asset rootAsset = createAssetFromTemplateNode(tenantId, rootNode, variables);
-        nodeKeyToAssetIdMap.put(rootNode.getNodeKey(), rootAsset.getId().getId());
-        createdAssetIds.add(rootAsset.getId().getId());
-
-        List<TemplateNode> childNodes = structure.getNodes().stream()
-                .filter(n -> !Boolean.TRUE.equals(n.getIsRoot()))
-                .collect(Collectors.toList());
-
-        for (TemplateNode childNode : childNodes) {
-            Asset childAsset = createAssetFromTemplateNode(tenantId, childNode, variables);
-            nodeKeyToAssetIdMap.put(childNode.getNodeKey(), childAsset.getId().getId());
-            createdAssetIds.add(childAsset.getId().getId());
+        List<UUID> createdAssetIds = new ArrayList<>(nodes.size());
+        Map<UUID, Map<String, Object>> attributesByAsset = new LinkedHashMap<>();
+
+        for (CompiledTemplate.Node node : nodes) {
+            String assetName = node.renderName(variables);
+
+            Asset asset = new Asset();
+            asset.setTenantId(tenantId);
+            asset.setName(assetName);
+            asset.setType(node.getAssetType());
+            asset.setLabel(assetName);
+
+            UUID assetId = assetService.saveAsset(asset).getId().getId();
+            nodeKeyToAssetIdMap.put(node.getNodeKey(), assetId);
+            createdAssetIds.add(assetId);
+            if (!node.getAttributes().isEmpty()) {
+                attributesByAsset.put(assetId, node.renderAttributes(variables));
+            }
         }
 
-        if (structure.getRelations() != null) {
-            for (TemplateRelation rel : structure.getRelations()) {
-                UUID fromAssetId = nodeKeyToAssetIdMap.get(rel.getFromNodeKey());
-                UUID toAssetId = nodeKeyToAssetIdMap.get(rel.getToNodeKey());
+        removeAttributesOnRollback(attributesByAsset);
+        attributeService.saveServerAttributes(attributesByAsset);
 
-                if (fromAssetId != null && toAssetId != null) {
-                    createRelation(new AssetId(fromAssetId), new AssetId(toAssetId), rel.getRelationType());
-                } else {
-                    log.warn("Could not create relation {} -> {}: asset IDs not found",
-                            rel.getFromNodeKey(), rel.getToNodeKey());
-                }
-            }
+        List<EntityRelation> relations = new ArrayList<>(plan.getRelations().size());
+        for (CompiledTemplate.Relation rel : plan.getRelations()) {
+            relations.add(new EntityRelation(
+                    new AssetId(createdAssetIds.get(rel.getFromIndex())),
+                    new AssetId(createdAssetIds.get(rel.getToIndex())),
+                    rel.getRelationType(), RelationTypeGroup.COMMON));
+        }
+        if (!relations.isEmpty()) {
+            relationService.saveRelations(tenantId, relations);
+        }
+        for (String unresolved : plan.getUnresolvedRelations()) {
+            log.warn("Could not create relation {}: asset IDs not found", unresolved);
         }
 
+        UUID rootAssetId = createdAssetIds.get(0);
         UUID instanceId = null;
         try {
             String variablesJson = objectMapper.writeValueAsString(variables);
             var instance = templateDefinitionService.recordInstance(
-                    templateId, template.getVersion(), rootAsset.getId().getId(),
+                    templateId, plan.getVersion(), rootAssetId,
                     variablesJson, createdBy, tenantId.getId());
             instanceId = instance.getId();
         } catch (Exception e) {
             log.error("Failed to record template instance: {}", e.getMessage(), e);
         }
 
-        log.info("Template instantiated successfully: {} with {} assets created",
-                template.getTemplateName(), createdAssetIds.size());
+        log.info("Template instantiated successfully: {} with {} assets and {} relations created",
+                plan.getTemplateName(), createdAssetIds.size(), relations.size());
 
         return TemplateInstanceResult.builder()
                 .instanceId(instanceId)
-                .rootAssetId(rootAsset.getId().getId())
+                .rootAssetId(rootAssetId)
                 .createdAssetIds(createdAssetIds)
                 .nodeKeyToAssetIdMap(nodeKeyToAssetIdMap)
                 .build();
     }
 
-    private Asset createAssetFromTemplateNode(
-            TenantId tenantId,
-            TemplateNode node,
-            Map<String, Object> variables) {
-
-        String assetName = replaceVariables(node.getNodeName(), variables);
-        String assetType = node.getAssetType() != null ? node.getAssetType() : node.getNodeType();
-
-        Asset asset = new Asset();
-        asset.setTenantId(tenantId);
-        asset.setName(assetName);
-        asset.setType(assetType);
-        asset.setLabel(assetName);
-
-        asset = assetService.saveAsset(asset);
-        log.debug("Created asset: {} ({}) of type {}", asset.getName(), asset.getId(), assetType);
-
-        if (node.getAttributes() != null && !node.getAttributes().isEmpty()) {
-            Map<String, Object> processedAttributes = new HashMap<>();
-            for (TemplateAttribute attr : node.getAttributes()) {
-                Object value = attr.getValue();
-                if (value instanceof String) {
-                    value = replaceVariables((String) value, variables);
+    /**
+     * Assets and relations roll back with the instantiation transaction, but attribute writes run outside
+     * of it: if the transaction rolls back, the attributes written for the new assets are removed.
+     */
+    private void removeAttributesOnRollback(Map<UUID, Map<String, Object>> attributesByAsset) {
+        if (attributesByAsset.isEmpty() || !TransactionSynchronizationManager.isSynchronizationActive()) {
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCompletion(int status) {
+                if (status != STATUS_ROLLED_BACK) {
+                    return;
+                }
+                for (Map.Entry<UUID, Map<String, Object>> asset : attributesByAsset.entrySet()) {
+                    try {
+                        attributeService.deleteAttributes(asset.getKey(), AttributeScope.SERVER_SCOPE,
+                                new ArrayList<>(asset.getValue().keySet()));
+                    } catch (RuntimeException e) {
+                        log.warn("Failed to remove attributes of rolled back asset {}: {}", asset.getKey(), e.getMessage());
+                    }
                 }
-                processedAttributes.put(attr.getKey(), value);
             }
-            attributeService.saveServerAttributes(asset.getId().getId(), processedAttributes);
-        }
-
-        return asset;
-    }
-
-    private void createRelation(AssetId fromAssetId, AssetId toAssetId, String relationType) {
-        EntityRelation relation = new EntityRelation();
-        relation.setFrom(fromAssetId);
-        relation.setTo(toAssetId);
-        relation.setType(relationType);
-        relation.setTypeGroup(RelationTypeGroup.COMMON);
-
-        relationService.saveRelation(null, relation);
-        log.debug("Created relation: {} -[{}]-> {}", fromAssetId, relationType, toAssetId);
-    }
-
-    private String replaceVariables(String template, Map<String, Object> variables) {
-        if (template == null) {
-            return null;
-        }
-
-        Matcher matcher = VARIABLE_PATTERN.matcher(template);
-        StringBuffer result = new StringBuffer();
-
-        while (matcher.find()) {
-            String varName = matcher.group(1);
-            Object value = variables.get(varName);
-            String replacement = value != null ? value.toString() : "";
-            matcher.appendReplacement(result, Matcher.quoteReplacement(replacement));
-        }
-        matcher.appendTail(result);
-
-        return result.toString();
+        });
     }
 }
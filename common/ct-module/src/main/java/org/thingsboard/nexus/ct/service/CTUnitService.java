@@ -18,6 +18,7 @@ package org.thingsboard.nexus.ct.service;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
 import org.springframework.data.domain.Pageable;
 import org.springframework.stereotype.Service;
 import org.thingsboard.nexus.ct.dto.CTReelDto;
@@ -49,6 +50,7 @@ public class CTUnitService {
     private final CTAssetService assetService;
     private final CTAttributeService attributeService;
     private final CTTemplateService templateService;
+    private final CTFleetIndex fleetIndex;
 
     public CTUnitDto getById(UUID assetId) {
         log.debug("Getting CT Unit by asset id: {}", assetId);
@@ -60,41 +62,19 @@ public class CTUnitService {
 
     public CTUnitDto getByCode(UUID tenantId, String unitCode) {
         log.debug("Getting CT Unit by code: {}", unitCode);
-        Page<Asset> assets = assetService.searchAssetsByName(tenantId, CTUnitDto.ASSET_TYPE, unitCode, 0, 100);
-
-        for (Asset asset : assets.getContent()) {
-            List<AttributeKvEntry> attributes = attributeService.getServerAttributes(asset.getId().getId());
-            for (AttributeKvEntry attr : attributes) {
-                if (CTUnitDto.ATTR_UNIT_CODE.equals(attr.getKey()) &&
-                    attr.getStrValue().orElse("").equals(unitCode)) {
-                    return CTUnitDto.fromAssetAndAttributes(asset, attributes);
-                }
-            }
-        }
-        throw new CTEntityNotFoundException("CT Unit", unitCode);
+        return fleetIndex.findUnitByCode(tenantId, unitCode)
+                .orElseThrow(() -> new CTEntityNotFoundException("CT Unit", unitCode));
     }
 
     public Page<CTUnitDto> getByTenant(UUID tenantId, Pageable pageable) {
         log.debug("Getting CT Units for tenant: {}", tenantId);
-        Page<Asset> assets = assetService.getAssetsByType(tenantId, CTUnitDto.ASSET_TYPE,
-                pageable.getPageNumber(), pageable.getPageSize());
-        return assets.map(asset -> {
-            List<AttributeKvEntry> attributes = attributeService.getServerAttributes(asset.getId().getId());
-            return CTUnitDto.fromAssetAndAttributes(asset, attributes);
-        });
+        List<CTUnitDto> units = fleetIndex.getUnitPage(tenantId, pageable.getPageNumber(), pageable.getPageSize());
+        return new PageImpl<>(units, pageable, fleetIndex.countUnits(tenantId));
     }
 
     public List<CTUnitDto> getByStatus(UUID tenantId, UnitStatus status) {
         log.debug("Getting CT Units by status - tenant: {}, status: {}", tenantId, status);
-        Page<Asset> assets = assetService.getAssetsByType(tenantId, CTUnitDto.ASSET_TYPE, 0, 1000);
-
-        return assets.getContent().stream()
-                .map(asset -> {
-                    List<AttributeKvEntry> attributes = attributeService.getServerAttributes(asset.getId().getId());
-                    return CTUnitDto.fromAssetAndAttributes(asset, attributes);
-                })
-                .filter(dto -> dto.getOperationalStatus() == status)
-                .collect(Collectors.toList());
+        return fleetIndex.getUnitsByStatus(tenantId, status);
     }
 
     public CTUnitDto create(UUID tenantId, CTUnitDto dto) {
@@ -120,6 +100,7 @@ public class CTUnitService {
 
         // Save attributes
         attributeService.saveServerAttributes(assetId, dto.toAttributeMap());
+        fleetIndex.refresh(tenantId, assetId);
 
         log.info("CT Unit created successfully: {}", assetId);
         return getById(assetId);
@@ -197,6 +178,7 @@ public class CTUnitService {
 
         // Save attributes
         attributeService.saveServerAttributes(assetId, dto.toAttributeMap());
+        fleetIndex.refresh(tenantId, assetId);
 
         log.info("CT Unit created from template successfully: {} with asset ID: {}", unitCode, assetId);
         return getById(assetId);
@@ -234,6 +216,7 @@ public class CTUnitService {
         }
 
         assetService.deleteAsset(tenantId, assetId);
+        fleetIndex.evict(tenantId, assetId);
         log.info("CT Unit deleted successfully: {}", assetId);
     }
 
@@ -361,20 +344,14 @@ public class CTUnitService {
         Long now = System.currentTimeMillis();
         Long thirtyDaysAgo = now - (30L * 24L * 60L * 60L * 1000L);
 
-        Page<Asset> assets = assetService.getAssetsByType(tenantId, CTUnitDto.ASSET_TYPE, 0, 1000);
-
-        return assets.getContent().stream()
-                .map(asset -> {
-                    List<AttributeKvEntry> attributes = attributeService.getServerAttributes(asset.getId().getId());
-                    return CTUnitDto.fromAssetAndAttributes(asset, attributes);
-                })
+        return fleetIndex.getAllUnits(tenantId).stream()
                 .filter(unit -> unit.getLastMaintenanceDate() == null ||
                         unit.getLastMaintenanceDate() < thirtyDaysAgo)
                 .collect(Collectors.toList());
     }
 
     public long countByStatus(UUID tenantId, UnitStatus status) {
-        return getByStatus(tenantId, status).size();
+        return fleetIndex.countUnitsByStatus(tenantId, status);
     }
 
     public long countByTenant(UUID tenantId) {
@@ -38,6 +38,7 @@ public class TemplateDefinitionService {
 
     private final TemplateDefinitionDaoService daoService;
     private final ObjectMapper objectMapper;
+    private final CompiledTemplateCache compiledTemplates = new CompiledTemplateCache();
 
     // --- CRUD Operations ---
 
@@ -102,6 +103,7 @@ public class TemplateDefinitionService {
         existing.setUpdatedTime(System.currentTimeMillis());
 
         TemplateDefinitionDto saved = daoService.saveTemplateDefinition(existing);
+        compiledTemplates.invalidate(templateId);
 
         saveVersionHistory(saved.getId(), previousVersion, existing.getTemplateStructureJson(),
                 request.getChangeDescription(), updatedBy);
@@ -120,6 +122,21 @@ public class TemplateDefinitionService {
         return enrichDto(dto);
     }
 
+    /**
+     * Returns the executable plan of the template's current version. The structure JSON is
+     * only deserialized and compiled the first time each version is instantiated.
+     */
+    @Transactional(readOnly = true)
+    public CompiledTemplate getCompiledTemplate(UUID templateId) {
+        TemplateDefinitionDto dto = daoService.findById(templateId)
+                .orElseThrow(() -> new CTEntityNotFoundException("Template", templateId.toString()));
+        try {
+            return compiledTemplates.get(dto, this::deserializeTemplateStructure);
+        } catch (IllegalArgumentException e) {
+            throw new CTBusinessException(e.getMessage());
+        }
+    }
+
     @Transactional(readOnly = true)
     public TemplateDefinitionDto getByCode(String templateCode) {
         log.debug("Getting template definition by code: {}", templateCode);
@@ -203,6 +220,7 @@ public class TemplateDefinitionService {
 
         daoService.deleteVersionsByTemplateId(templateId);
         daoService.deleteById(templateId);
+        compiledTemplates.invalidate(templateId);
         log.info("Template definition deleted: {}", dto.getTemplateName());
     }
 
@@ -0,0 +1,70 @@
+/**
+ * Copyright © 2016-2026 The Thingsboard Authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.thingsboard.nexus.ct.controller;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.security.access.AccessDeniedException;
+import org.thingsboard.server.common.data.User;
+import org.thingsboard.server.common.data.id.TenantId;
+import org.thingsboard.server.common.data.security.Authority;
+
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for CTReportController.
+ * Tests the tenant a report request is restricted to for each authority.
+ */
+@DisplayName("CTReportController Unit Tests")
+class CTReportControllerTest {
+
+    private final UUID ownTenantId = UUID.randomUUID();
+    private final UUID otherTenantId = UUID.randomUUID();
+
+    private static User user(Authority authority, UUID tenantId) {
+        User user = new User();
+        user.setAuthority(authority);
+        user.setTenantId(TenantId.fromUUID(tenantId));
+        return user;
+    }
+
+    @Test
+    @DisplayName("Administrador de tenant: se limita a su tenant y no puede pedir otro")
+    void testTenantAdminScope() {
+        User admin = user(Authority.TENANT_ADMIN, ownTenantId);
+
+        assertEquals(ownTenantId, CTReportController.tenantScope(admin, null));
+        assertEquals(ownTenantId, CTReportController.tenantScope(admin, ownTenantId));
+        assertThrows(AccessDeniedException.class, () -> CTReportController.tenantScope(admin, otherTenantId));
+    }
+
+    @Test
+    @DisplayName("Administrador del sistema: el tenant pedido, o todos si no pide ninguno")
+    void testSysAdminScope() {
+        User admin = user(Authority.SYS_ADMIN, TenantId.SYS_TENANT_ID.getId());
+
+        assertNull(CTReportController.tenantScope(admin, null));
+        assertEquals(otherTenantId, CTReportController.tenantScope(admin, otherTenantId));
+    }
+
+    @Test
+    @DisplayName("Sin usuario autenticado: acceso denegado")
+    void testAnonymousDenied() {
+        assertThrows(AccessDeniedException.class, () -> CTReportController.tenantScope(null, null));
+    }
+}
@@ -0,0 +1,130 @@
+/**
+ * Copyright © 2016-2026 The Thingsboard Authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.thingsboard.nexus.ct.rule;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.thingsboard.nexus.ct.rule.CTFatigueCalculationNode.FatigueCalculationResult;
+import org.thingsboard.nexus.ct.rule.CTFatigueCalculationNode.ReelAttributes;
+import org.thingsboard.nexus.ct.rule.CTFatigueCalculationNode.TelemetryData;
+
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for the rainflow reel fatigue of CTFatigueCalculationNode.
+ * Tests sampling rate independence, direction changes and tension to compression cycles.
+ */
+@DisplayName("CTFatigueCalculationNode Unit Tests")
+class CTFatigueCalculationNodeTest {
+
+    private static final double HYSTERESIS_PSI = 500.0;
+    private static final int RESIDUE_CAPACITY = 64;
+    private static final int CYCLES = 5;
+
+    private final CTFatigueCalculationNode calculator = new CTFatigueCalculationNode();
+
+    private static ReelAttributes attributes() {
+        ReelAttributes attributes = new ReelAttributes();
+        attributes.setReelId(UUID.randomUUID());
+        attributes.setTenantId(UUID.randomUUID());
+        return attributes;
+    }
+
+    private static TelemetryData telemetry(double pressure, double tension, String direction) {
+        TelemetryData telemetry = new TelemetryData();
+        telemetry.setPressure(pressure);
+        telemetry.setTension(tension);
+        telemetry.setDirection(direction);
+        return telemetry;
+    }
+
+    /**
+     * Suma el incremento de fatiga de {@link #CYCLES} ciclos de presión 0-5000 psi muestreados con
+     * {@code samplesPerCycle} puntos por ciclo.
+     */
+    private double pressureCyclesDamage(int samplesPerCycle, CTRainflowCounter rainflow) {
+        ReelAttributes attributes = attributes();
+        double damage = 0;
+        for (int i = 0; i <= CYCLES * samplesPerCycle; i++) {
+            double pressure = 2500.0 * (1.0 - Math.cos(2.0 * Math.PI * i / samplesPerCycle));
+            FatigueCalculationResult result = calculator.calculate(telemetry(pressure, 10000.0, "STOPPED"), attributes, rainflow);
+            assertTrue(result.isSuccess());
+            damage += result.getFatigueIncrement();
+        }
+        return damage;
+    }
+
+    @Test
+    @DisplayName("Rainflow: el daño no depende de la frecuencia de muestreo")
+    void testSamplingRateIndependence() {
+        CTRainflowCounter coarse = new CTRainflowCounter(HYSTERESIS_PSI, RESIDUE_CAPACITY);
+        CTRainflowCounter fine = new CTRainflowCounter(HYSTERESIS_PSI, RESIDUE_CAPACITY);
+
+        double coarseDamage = pressureCyclesDamage(4, coarse);
+        double fineDamage = pressureCyclesDamage(40, fine);
+
+        assertTrue(coarseDamage > 0);
+        assertEquals(coarseDamage, fineDamage, coarseDamage * 1e-6);
+        assertEquals(coarse.getCycles(), fine.getCycles(), 1e-12);
+    }
+
+    @Test
+    @DisplayName("Rainflow: cambiar de dirección con carga constante no cuenta ciclos")
+    void testDirectionChangesAtConstantLoad() {
+        CTRainflowCounter rainflow = new CTRainflowCounter(HYSTERESIS_PSI, RESIDUE_CAPACITY);
+        ReelAttributes attributes = attributes();
+        String[] directions = {"IN", "STOPPED", "OUT", "STOPPED"};
+        double damage = 0;
+        for (int i = 0; i < 100; i++) {
+            damage += calculator.calculate(telemetry(3000.0, 10000.0, directions[i % directions.length]), attributes, rainflow)
+                    .getFatigueIncrement();
+        }
+
+        assertEquals(0.0, rainflow.getCycles(), 1e-12);
+        assertEquals(0.0, damage, 1e-12);
+    }
+
+    @Test
+    @DisplayName("Rainflow: de tensión a compresión cuenta el rango completo")
+    void testTensionToCompressionCountsFullRange() {
+        CTRainflowCounter tensionOnly = new CTRainflowCounter(HYSTERESIS_PSI, RESIDUE_CAPACITY);
+        CTRainflowCounter reversed = new CTRainflowCounter(HYSTERESIS_PSI, RESIDUE_CAPACITY);
+        ReelAttributes attributes = attributes();
+        double tensionOnlyDamage = 0;
+        double reversedDamage = 0;
+        for (int i = 0; i <= 2 * CYCLES; i++) {
+            double tension = i % 2 == 0 ? 20000.0 : 0.0;
+            tensionOnlyDamage += calculator.calculate(telemetry(0.0, tension, "STOPPED"), attributes, tensionOnly)
+                    .getFatigueIncrement();
+            reversedDamage += calculator.calculate(telemetry(0.0, tension * 2.0 - 20000.0, "STOPPED"), attributes, reversed)
+                    .getFatigueIncrement();
+        }
+
+        assertEquals(tensionOnly.getCycles(), reversed.getCycles(), 1e-12);
+        assertTrue(reversedDamage > tensionOnlyDamage);
+    }
+
+    @Test
+    @DisplayName("Esfuerzo con signo: principal de mayor magnitud, negativo en compresión")
+    void testSignedLoadStress() {
+        assertEquals(1000.0, CTFatigueCalculationNode.signedLoadStress(0.0, 1000.0), 1e-9);
+        assertEquals(-1000.0, CTFatigueCalculationNode.signedLoadStress(0.0, -1000.0), 1e-9);
+        assertEquals(2000.0, CTFatigueCalculationNode.signedLoadStress(2000.0, -1000.0), 1e-9);
+        assertEquals(-3000.0, CTFatigueCalculationNode.signedLoadStress(2000.0, -3000.0), 1e-9);
+    }
+}
@@ -0,0 +1,83 @@
+/**
+ * Copyright © 2016-2026 The Thingsboard Authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.thingsboard.nexus.ct.rule;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import org.thingsboard.nexus.ct.rule.CTJobSimulationNode.JobParameters;
+import org.thingsboard.nexus.ct.rule.CTJobSimulationNode.SimulationResult;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * JMH benchmark of CTJobSimulationNode on the build-to-horizontal well used by CTJobSimulationNodeTest.
+ * Not run by surefire; run {@link #main} from the IDE or
+ * {@code java -cp <test classpath> org.openjdk.jmh.Main CTJobSimulationBenchmark}.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class CTJobSimulationBenchmark {
+
+    @Param({"50", "10"})
+    public double stepFt;
+
+    private final CTJobSimulationNode simulator = new CTJobSimulationNode();
+    private JobParameters params;
+    private CTWellboreModel well;
+
+    @Setup
+    public void setUp() {
+        params = CTJobSimulationNodeTest.buildToHorizontal(15000.0);
+        params.setStepFt(stepFt);
+        params.setPumpRateBpm(1.5);
+        well = simulator.wellboreModel(params);
+    }
+
+    /**
+     * Additional scenario on an already built wellbore model.
+     */
+    @Benchmark
+    public SimulationResult simulateSharedWell() {
+        return simulator.simulate(params, well);
+    }
+
+    @Benchmark
+    public SimulationResult simulate() {
+        return simulator.simulate(params);
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder()
+                .include(CTJobSimulationBenchmark.class.getSimpleName())
+                .build()).run();
+    }
+}
@@ -0,0 +1,178 @@
+/**
+ * Copyright © 2016-2026 The Thingsboard Authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.thingsboard.nexus.ct.rule;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.thingsboard.nexus.ct.rule.CTJobSimulationNode.ForceAnalysis;
+import org.thingsboard.nexus.ct.rule.CTJobSimulationNode.HydraulicAnalysis;
+import org.thingsboard.nexus.ct.rule.CTJobSimulationNode.JobParameters;
+import org.thingsboard.nexus.ct.rule.CTJobSimulationNode.SimulationResult;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for CTJobSimulationNode.
+ * Tests soft-string hookloads, step size independence, feasibility and hydraulics.
+ */
+@DisplayName("CTJobSimulationNode Unit Tests")
+class CTJobSimulationNodeTest {
+
+    private static final double OD = 2.0;
+    private static final double ID = 1.688;
+
+    private final CTJobSimulationNode simulator = new CTJobSimulationNode();
+
+    static JobParameters parameters(double targetDepthFt) {
+        JobParameters params = new JobParameters();
+        params.setWellName("TEST-1");
+        params.setTargetDepthFt(targetDepthFt);
+        params.setWellboreDiameterInch(4.892);
+        params.setTubingOdInch(OD);
+        params.setTubingIdInch(ID);
+        params.setTubingLengthFt(targetDepthFt + 2000.0);
+        params.setMaxPressurePsi(5000.0);
+        params.setUnitMaxPressurePsi(10000.0);
+        params.setUnitMaxTensionLbf(80000.0);
+        return params;
+    }
+
+    /**
+     * Pozo vertical hasta 1000 ft, construcción de 9°/100 ft hasta horizontal a 2000 ft y lateral
+     * horizontal hasta {@code targetDepthFt}.
+     */
+    static JobParameters buildToHorizontal(double targetDepthFt) {
+        JobParameters params = parameters(targetDepthFt);
+        params.setSurveyMdFt(new double[]{0.0, 1000.0, 2000.0, targetDepthFt});
+        params.setSurveyInclinationDeg(new double[]{0.0, 0.0, 90.0, 90.0});
+        params.setSurveyAzimuthDeg(new double[]{0.0, 0.0, 0.0, 0.0});
+        return params;
+    }
+
+    private static double buoyedWeight(JobParameters params) {
+        double area = Math.PI / 4.0 * (OD * OD - ID * ID);
+        return area * 490.0 / 144.0 * (1.0 - params.getFluidDensityPpg() / 65.5);
+    }
+
+    private static double last(double[] values) {
+        return values[values.length - 1];
+    }
+
+    @Test
+    @DisplayName("Pozo vertical: hookload igual al peso flotado y sin fricción")
+    void testVerticalHookloadIsBuoyedWeight() {
+        JobParameters params = parameters(10000.0);
+
+        SimulationResult result = simulator.simulate(params);
+
+        assertTrue(result.isSuccess());
+        assertTrue(result.getFeasibility().isFeasible());
+        assertEquals("CONSTANT_INCLINATION", result.getTrajectorySource());
+        ForceAnalysis forces = result.getForces();
+        double expected = buoyedWeight(params) * 10000.0;
+        assertEquals(expected, forces.getMaxHookload(), expected * 1e-9);
+        assertEquals(expected, last(forces.getSlackOffHookloads()), expected * 1e-9);
+        assertEquals(0.0, last(forces.getFrictions()), 1e-6);
+    }
+
+    @Test
+    @DisplayName("Lateral horizontal: la fricción separa pickup y slack-off y crece con el coeficiente")
+    void testFrictionInHorizontalWell() {
+        JobParameters low = buildToHorizontal(6000.0);
+        low.setFrictionCoefficient(0.2);
+        JobParameters high = buildToHorizontal(6000.0);
+        high.setFrictionCoefficient(0.4);
+
+        ForceAnalysis lowForces = simulator.simulate(low).getForces();
+        ForceAnalysis highForces = simulator.simulate(high).getForces();
+
+        double tvdWeight = buoyedWeight(low) * last(lowForces.getTvds());
+        assertEquals("SURVEY", simulator.simulate(low).getTrajectorySource());
+        assertTrue(last(lowForces.getHookloads()) > tvdWeight);
+        assertTrue(last(lowForces.getSlackOffHookloads()) < tvdWeight);
+        assertTrue(last(highForces.getHookloads()) > last(lowForces.getHookloads()));
+        assertTrue(last(highForces.getSlackOffHookloads()) < last(lowForces.getSlackOffHookloads()));
+    }
+
+    @Test
+    @DisplayName("El hookload en la profundidad objetivo no depende del paso de discretización")
+    void testStepSizeIndependence() {
+        JobParameters coarse = buildToHorizontal(6000.0);
+        coarse.setStepFt(50.0);
+        JobParameters fine = buildToHorizontal(6000.0);
+        fine.setStepFt(5.0);
+
+        double coarseHookload = last(simulator.simulate(coarse).getForces().getHookloads());
+        double fineHookload = last(simulator.simulate(fine).getForces().getHookloads());
+
+        assertEquals(fineHookload, coarseHookload, fineHookload * 0.01);
+    }
+
+    @Test
+    @DisplayName("Modelo de pozo reutilizado: mismo resultado que construyéndolo en cada simulación")
+    void testReusedWellboreModel() {
+        JobParameters params = buildToHorizontal(6000.0);
+        CTWellboreModel well = simulator.wellboreModel(params);
+
+        ForceAnalysis shared = simulator.simulate(params, well).getForces();
+        ForceAnalysis rebuilt = simulator.simulate(params).getForces();
+
+        assertArrayEquals(rebuilt.getHookloads(), shared.getHookloads(), 1e-9);
+        assertArrayEquals(rebuilt.getSlackOffHookloads(), shared.getSlackOffHookloads(), 1e-9);
+    }
+
+    @Test
+    @DisplayName("Profundidad objetivo mayor que la tubería: trabajo no factible y sin análisis de fuerzas")
+    void testInfeasibleWhenTargetExceedsTubing() {
+        JobParameters params = parameters(10000.0);
+        params.setTubingLengthFt(8000.0);
+
+        SimulationResult result = simulator.simulate(params);
+
+        assertTrue(result.isSuccess());
+        assertFalse(result.getFeasibility().isFeasible());
+        assertFalse(result.getFeasibility().getLimitingFactors().isEmpty());
+        assertNull(result.getForces());
+    }
+
+    @Test
+    @DisplayName("Hidráulica: sin bombeo no hay presión máxima; con bombeo la de fondo supera la hidrostática")
+    void testHydraulics() {
+        JobParameters params = buildToHorizontal(6000.0);
+
+        assertNull(simulator.simulate(params).getHydraulics().getMaxPressure());
+
+        params.setPumpRateBpm(1.5);
+        HydraulicAnalysis hydraulics = simulator.simulate(params).getHydraulics();
+        ForceAnalysis forces = simulator.simulate(params).getForces();
+
+        assertTrue(hydraulics.getMaxPressure() > 0);
+        double hydrostatic = params.getFluidDensityPpg() * 0.052 * last(forces.getTvds());
+        assertTrue(last(hydraulics.getBottomholePressures()) >= hydrostatic);
+    }
+
+    @Test
+    @DisplayName("Survey inválido: la simulación devuelve error en lugar de lanzar")
+    void testInvalidSurveyReturnsError() {
+        JobParameters params = buildToHorizontal(6000.0);
+        params.setSurveyInclinationDeg(new double[]{0.0, 90.0});
+
+        SimulationResult result = simulator.simulate(params);
+
+        assertFalse(result.isSuccess());
+        assertNotNull(result.getErrorMessage());
+    }
+}
@@ -0,0 +1,118 @@
+/**
+ * Copyright © 2016-2026 The Thingsboard Authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.thingsboard.nexus.ct.rule;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for CTWellboreModel.
+ * Tests resampling of survey stations, TVD integration and input validation.
+ */
+@DisplayName("CTWellboreModel Unit Tests")
+class CTWellboreModelTest {
+
+    @Test
+    @DisplayName("Pozo vertical: TVD igual a MD en todos los nodos")
+    void testVerticalWellTvdEqualsMd() {
+        CTWellboreModel well = CTWellboreModel.constantInclination(5000.0, 0.0, 50.0);
+
+        assertEquals(101, well.getPoints());
+        assertEquals(5000.0, well.getTargetDepthFt(), 1e-9);
+        assertFalse(well.isFromSurvey());
+        for (int i = 0; i < well.getPoints(); i++) {
+            assertEquals(well.md[i], well.getTvdFt(i), 1e-9);
+        }
+    }
+
+    @Test
+    @DisplayName("Profundidad objetivo no múltiplo del paso: el último nodo queda en la profundidad objetivo")
+    void testLastNodeAtTargetDepth() {
+        CTWellboreModel well = CTWellboreModel.constantInclination(1025.0, 0.0, 50.0);
+
+        assertEquals(22, well.getPoints());
+        assertEquals(1025.0, well.getTargetDepthFt(), 1e-9);
+        assertEquals(25.0, well.md[21] - well.md[20], 1e-9);
+    }
+
+    @Test
+    @DisplayName("Sección de construcción a 90°: TVD al final igual al radio de curvatura")
+    void testBuildSectionTvd() {
+        CTWellboreModel well = CTWellboreModel.fromSurvey(
+                new double[]{0.0, 1000.0, 2000.0},
+                new double[]{0.0, 0.0, 90.0},
+                new double[]{0.0, 0.0, 0.0},
+                3000.0, 10.0);
+
+        double radius = 1000.0 / (Math.PI / 2.0);
+        assertTrue(well.isFromSurvey());
+        assertEquals(90.0, well.getMaxInclinationDeg(), 1e-9);
+        assertEquals(1000.0, well.getTvdFt(100), 1e-9);
+        assertEquals(1000.0 + radius, well.getTvdFt(200), 0.5);
+        // Horizontal después de la última estación
+        assertEquals(well.getTvdFt(200), well.getTvdFt(300), 1e-6);
+    }
+
+    @Test
+    @DisplayName("Por encima de la primera estación el pozo se asume vertical")
+    void testVerticalAboveFirstStation() {
+        CTWellboreModel well = CTWellboreModel.fromSurvey(
+                new double[]{2000.0, 3000.0},
+                new double[]{0.0, 30.0},
+                new double[]{45.0, 45.0},
+                3000.0, 50.0);
+
+        assertEquals(2000.0, well.getTvdFt(40), 1e-9);
+        assertEquals(0.0, well.inclination[20], 1e-12);
+        assertTrue(well.getTvdFt(60) < 3000.0);
+    }
+
+    @Test
+    @DisplayName("Azimut que cruza el norte: la variación se toma por el camino corto")
+    void testAzimuthWrapAround() {
+        CTWellboreModel well = CTWellboreModel.fromSurvey(
+                new double[]{0.0, 1000.0},
+                new double[]{45.0, 45.0},
+                new double[]{350.0, 10.0},
+                1000.0, 100.0);
+
+        double total = 0;
+        for (int i = 1; i < well.getPoints(); i++) {
+            total += well.deltaAzimuth[i];
+        }
+        assertEquals(Math.toRadians(20.0), total, 1e-9);
+    }
+
+    @Test
+    @DisplayName("Estaciones desordenadas o arreglos inconsistentes lanzan IllegalArgumentException")
+    void testInvalidSurvey() {
+        assertThrows(IllegalArgumentException.class, () -> CTWellboreModel.fromSurvey(
+                new double[]{0.0, 2000.0, 1000.0},
+                new double[]{0.0, 10.0, 20.0},
+                new double[]{0.0, 0.0, 0.0},
+                2000.0, 50.0));
+        assertThrows(IllegalArgumentException.class, () -> CTWellboreModel.fromSurvey(
+                new double[]{0.0, 1000.0},
+                new double[]{0.0},
+                null,
+                1000.0, 50.0));
+        assertThrows(IllegalArgumentException.class, () -> CTWellboreModel.fromSurvey(
+                new double[0], new double[0], null, 1000.0, 50.0));
+        assertThrows(IllegalArgumentException.class, () -> CTWellboreModel.constantInclination(1000.0, 0.0, 0.0));
+    }
+}
@@ -0,0 +1,134 @@
+/**
+ * Copyright © 2016-2026 The Thingsboard Authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.thingsboard.nexus.ct.service;
+
+import com.google.common.util.concurrent.Futures;
+import com.google.common.util.concurrent.SettableFuture;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.mockito.InOrder;
+import org.springframework.context.ApplicationEventPublisher;
+import org.thingsboard.server.common.data.AttributeScope;
+import org.thingsboard.server.common.data.kv.AttributeKvEntry;
+import org.thingsboard.server.common.data.kv.AttributesSaveResult;
+import org.thingsboard.server.dao.attributes.AttributesService;
+import org.thingsboard.server.dao.nexus.NexusAttributes;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.Mockito.inOrder;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+/**
+ * Unit tests for CTAttributeService.
+ * Tests that change events follow completed writes and that bulk reads keep a bounded number of calls in flight.
+ */
+@DisplayName("CTAttributeService Unit Tests")
+class CTAttributeServiceTest {
+
+    private AttributesService attributesService;
+    private ApplicationEventPublisher eventPublisher;
+    private CTAttributeService service;
+
+    @BeforeEach
+    void setUp() {
+        attributesService = mock(AttributesService.class);
+        eventPublisher = mock(ApplicationEventPublisher.class);
+        service = new CTAttributeService(attributesService, eventPublisher);
+    }
+
+    @Test
+    @DisplayName("Guardado: el evento se publica cuando la escritura ha terminado")
+    void testEventPublishedAfterSave() throws Exception {
+        UUID entityId = UUID.randomUUID();
+        SettableFuture<AttributesSaveResult> saved = SettableFuture.create();
+        when(attributesService.save(any(), any(), any(AttributeScope.class), anyList()))
+                .thenReturn(saved);
+
+        CompletableFuture<Void> save = CompletableFuture.runAsync(
+                () -> service.saveServerAttributes(entityId, Map.of("status", "AVAILABLE")));
+        Thread.sleep(100);
+        assertFalse(save.isDone());
+        verify(eventPublisher, never()).publishEvent(any());
+
+        saved.set(null);
+        save.get(5, TimeUnit.SECONDS);
+        InOrder order = inOrder(attributesService, eventPublisher);
+        order.verify(attributesService).save(any(), any(), any(AttributeScope.class), anyList());
+        order.verify(eventPublisher).publishEvent(any(CTAttributesUpdatedEvent.class));
+    }
+
+    @Test
+    @DisplayName("Escritura fallida: se propaga la causa, sin evento y sin marcar el hilo como interrumpido")
+    void testFailedSaveDoesNotInterrupt() {
+        when(attributesService.save(any(), any(), any(AttributeScope.class), anyList()))
+                .thenReturn(Futures.immediateFailedFuture(new IllegalStateException("db down")));
+
+        RuntimeException e = assertThrows(RuntimeException.class,
+                () -> service.saveServerAttributes(UUID.randomUUID(), Map.of("status", "AVAILABLE")));
+
+        assertInstanceOf(IllegalStateException.class, e.getCause());
+        assertFalse(Thread.currentThread().isInterrupted());
+        verify(eventPublisher, never()).publishEvent(any());
+    }
+
+    @Test
+    @DisplayName("Lectura masiva: como máximo MAX_CONCURRENT_REQUESTS consultas en curso")
+    void testBulkReadBoundsRequestsInFlight() throws Exception {
+        List<SettableFuture<List<AttributeKvEntry>>> issued = Collections.synchronizedList(new ArrayList<>());
+        when(attributesService.findAll(any(), any(), any(AttributeScope.class)))
+                .thenAnswer(invocation -> {
+                    SettableFuture<List<AttributeKvEntry>> future = SettableFuture.create();
+                    issued.add(future);
+                    return future;
+                });
+        List<UUID> ids = new ArrayList<>();
+        for (int i = 0; i < NexusAttributes.MAX_CONCURRENT_REQUESTS + 10; i++) {
+            ids.add(UUID.randomUUID());
+        }
+
+        CompletableFuture<Map<UUID, List<AttributeKvEntry>>> read =
+                CompletableFuture.supplyAsync(() -> service.getServerAttributes(ids));
+        Thread.sleep(100);
+        assertEquals(NexusAttributes.MAX_CONCURRENT_REQUESTS, issued.size());
+
+        for (int i = 0; i < NexusAttributes.MAX_CONCURRENT_REQUESTS; i++) {
+            issued.get(i).set(List.of());
+        }
+        long deadline = System.currentTimeMillis() + 5000;
+        while (issued.size() < ids.size() && System.currentTimeMillis() < deadline) {
+            Thread.sleep(10);
+        }
+        for (int i = NexusAttributes.MAX_CONCURRENT_REQUESTS; i < issued.size(); i++) {
+            issued.get(i).set(List.of());
+        }
+
+        assertEquals(ids.size(), read.get(5, TimeUnit.SECONDS).size());
+    }
+}
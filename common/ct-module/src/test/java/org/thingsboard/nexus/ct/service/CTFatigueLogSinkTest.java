@@ -0,0 +1,148 @@
+/**
+ * Copyright © 2016-2026 The Thingsboard Authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.thingsboard.nexus.ct.service;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.thingsboard.nexus.ct.config.CTModuleConfiguration;
+import org.thingsboard.nexus.ct.dto.CTFatigueLogDto;
+import org.thingsboard.nexus.ct.repository.CTFatigueLogBatchRepository;
+
+import java.math.BigDecimal;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.timeout;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+/**
+ * Unit tests for CTFatigueLogSink.
+ * Verifies the batch-size flush trigger, the queue-full path and that each flush updates every reel once.
+ */
+@DisplayName("CTFatigueLogSink Unit Tests")
+class CTFatigueLogSinkTest {
+
+    private static final long WAIT_MS = 5_000L;
+
+    private final UUID tenantId = UUID.randomUUID();
+    private final CTModuleConfiguration config = new CTModuleConfiguration();
+    private final List<Integer> insertedBatches = new CopyOnWriteArrayList<>();
+
+    private CTFatigueLogBatchRepository batchRepository;
+    private CTReelService reelService;
+    private CTFatigueLogSink sink;
+
+    @BeforeEach
+    void setUp() {
+        batchRepository = mock(CTFatigueLogBatchRepository.class);
+        reelService = mock(CTReelService.class);
+        when(batchRepository.insertAll(anyList(), anyLong())).thenAnswer(invocation -> {
+            int size = invocation.<List<?>>getArgument(0).size();
+            insertedBatches.add(size);
+            return size;
+        });
+        // El vaciado periódico no interviene: solo se vacía por tamaño de lote, por cola llena o explícitamente
+        config.setFatigueLogFlushIntervalMs(3_600_000L);
+        sink = new CTFatigueLogSink(batchRepository, reelService, config);
+    }
+
+    @AfterEach
+    void tearDown() {
+        sink.destroy();
+    }
+
+    @Test
+    @DisplayName("Al alcanzar el tamaño de lote se vacía la cola en el hilo de vaciado")
+    void testBatchSizeTriggersFlush() {
+        config.setFatigueLogBatchSize(3);
+        sink.init();
+        UUID reelId = UUID.randomUUID();
+
+        assertTrue(sink.submit(fatigueLog(reelId, 1L, "1.0")));
+        assertTrue(sink.submit(fatigueLog(reelId, 2L, "2.0")));
+        verify(batchRepository, never()).insertAll(anyList(), anyLong());
+
+        assertTrue(sink.submit(fatigueLog(reelId, 3L, "3.0")));
+
+        verify(reelService, timeout(WAIT_MS)).updateFatigue(eq(reelId), any(), any());
+        assertEquals(List.of(3), insertedBatches);
+        assertEquals(0, sink.getPendingCount());
+    }
+
+    @Test
+    @DisplayName("Con la cola llena se descarta el registro, se contabiliza y se despierta al hilo de vaciado")
+    void testQueueFullDropsAndWakesFlusher() {
+        config.setFatigueLogQueueCapacity(2);
+        config.setFatigueLogBatchSize(100);
+        sink.init();
+        UUID reelId = UUID.randomUUID();
+
+        assertTrue(sink.submit(fatigueLog(reelId, 1L, "1.0")));
+        assertTrue(sink.submit(fatigueLog(reelId, 2L, "2.0")));
+        assertFalse(sink.submit(fatigueLog(reelId, 3L, "3.0")));
+
+        assertEquals(1, sink.getDroppedCount());
+        // El productor no escribe: lo hace el hilo de vaciado con los dos registros encolados
+        verify(reelService, timeout(WAIT_MS)).updateFatigue(reelId, new BigDecimal("2.0"), 2);
+        assertEquals(List.of(2), insertedBatches);
+    }
+
+    @Test
+    @DisplayName("Un vaciado con varios lotes actualiza cada reel una sola vez con su último registro")
+    void testFlushUpdatesEachReelOnce() {
+        config.setFatigueLogBatchSize(100);
+        sink.init();
+        UUID reelA = UUID.randomUUID();
+        UUID reelB = UUID.randomUUID();
+
+        sink.submit(fatigueLog(reelA, 10L, "1.0"));
+        sink.submit(fatigueLog(reelB, 15L, "4.0"));
+        sink.submit(fatigueLog(reelA, 30L, "3.0"));
+        sink.submit(fatigueLog(reelA, 20L, "2.0"));
+        sink.submit(fatigueLog(reelB, 5L, "0.5"));
+
+        config.setFatigueLogBatchSize(2);
+        assertEquals(5, sink.flush());
+
+        assertEquals(List.of(2, 2, 1), insertedBatches);
+        verify(reelService, times(1)).updateFatigue(eq(reelA), any(), any());
+        verify(reelService).updateFatigue(reelA, new BigDecimal("3.0"), 30);
+        verify(reelService, times(1)).updateFatigue(eq(reelB), any(), any());
+        verify(reelService).updateFatigue(reelB, new BigDecimal("4.0"), 15);
+    }
+
+    private CTFatigueLogDto fatigueLog(UUID reelId, long timestamp, String accumulatedFatiguePercent) {
+        return CTFatigueLogDto.builder()
+                .tenantId(tenantId)
+                .reelId(reelId)
+                .timestamp(timestamp)
+                .cycleNumber((int) timestamp)
+                .accumulatedFatiguePercent(new BigDecimal(accumulatedFatiguePercent))
+                .build();
+    }
+}
@@ -0,0 +1,101 @@
+/**
+ * Copyright © 2016-2026 The Thingsboard Authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.thingsboard.nexus.ct.service;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.thingsboard.nexus.ct.config.CTModuleConfiguration;
+import org.thingsboard.nexus.ct.dto.CTFatigueHistoryDto;
+import org.thingsboard.nexus.ct.exception.CTBusinessException;
+import org.thingsboard.nexus.ct.repository.CTFatigueLogRepository;
+import org.thingsboard.nexus.ct.repository.CTFatigueRollupRepository;
+
+import java.util.List;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+/**
+ * Unit tests for CTFatigueService.
+ * Tests resolution selection and the range limit of the raw fatigue history.
+ */
+@DisplayName("CTFatigueService Unit Tests")
+class CTFatigueServiceTest {
+
+    private static final long HOUR_MS = 3_600_000L;
+    private static final long DAY_MS = 24 * HOUR_MS;
+
+    private final UUID reelId = UUID.randomUUID();
+    private final CTModuleConfiguration config = new CTModuleConfiguration();
+
+    private CTFatigueLogRepository fatigueLogRepository;
+    private CTFatigueRollupRepository rollupRepository;
+    private CTFatigueService service;
+
+    @BeforeEach
+    void setUp() {
+        fatigueLogRepository = mock(CTFatigueLogRepository.class);
+        rollupRepository = mock(CTFatigueRollupRepository.class);
+        when(fatigueLogRepository.findByReelIdAndTimeRange(eq(reelId), anyLong(), anyLong())).thenReturn(List.of());
+        service = new CTFatigueService(fatigueLogRepository, mock(CTReelService.class), mock(CTFatigueLogSink.class),
+                rollupRepository, config);
+    }
+
+    @Test
+    @DisplayName("Sin resolución: RAW, HOURLY o DAILY según la amplitud del rango")
+    void testResolutionSelectedByRange() {
+        long to = 1_000 * DAY_MS;
+
+        assertEquals(CTFatigueHistoryDto.Resolution.RAW,
+                service.getFatigueHistorySeries(reelId, to - HOUR_MS, to, null).getResolution());
+        assertEquals(CTFatigueHistoryDto.Resolution.HOURLY,
+                service.getFatigueHistorySeries(reelId, to - 30 * DAY_MS, to, null).getResolution());
+        assertEquals(CTFatigueHistoryDto.Resolution.DAILY,
+                service.getFatigueHistorySeries(reelId, null, to, null).getResolution());
+    }
+
+    @Test
+    @DisplayName("RAW sin fromTime: se limita al rango máximo antes de toTime")
+    void testRawWithoutFromTimeIsCapped() {
+        long to = 1_000 * DAY_MS;
+
+        CTFatigueHistoryDto history = service.getFatigueHistorySeries(reelId, null, to,
+                CTFatigueHistoryDto.Resolution.RAW);
+
+        long from = to - config.getFatigueHistoryRawMaxRangeMs();
+        assertEquals(from, history.getFromTime().longValue());
+        verify(fatigueLogRepository).findByReelIdAndTimeRange(reelId, from, to);
+    }
+
+    @Test
+    @DisplayName("RAW explícito sobre un rango mayor al máximo o rango invertido: CTBusinessException")
+    void testInvalidRawRangeRejected() {
+        long to = 1_000 * DAY_MS;
+        long from = to - config.getFatigueHistoryRawMaxRangeMs() - 1;
+
+        assertThrows(CTBusinessException.class, () -> service.getFatigueHistorySeries(reelId, from, to,
+                CTFatigueHistoryDto.Resolution.RAW));
+        assertThrows(CTBusinessException.class, () -> service.getFatigueHistorySeries(reelId, to, from, null));
+        verify(fatigueLogRepository, never()).findByReelIdAndTimeRange(eq(reelId), anyLong(), anyLong());
+    }
+}
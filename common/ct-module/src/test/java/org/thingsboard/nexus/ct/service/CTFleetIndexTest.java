@@ -0,0 +1,149 @@
+/**
+ * Copyright © 2016-2026 The Thingsboard Authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.thingsboard.nexus.ct.service;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.thingsboard.nexus.ct.dto.CTFleetMatchDto;
+import org.thingsboard.nexus.ct.dto.CTFleetMatchRequest;
+import org.thingsboard.nexus.ct.dto.CTReelDto;
+import org.thingsboard.nexus.ct.dto.CTUnitDto;
+import org.thingsboard.nexus.ct.model.ReelStatus;
+import org.thingsboard.nexus.ct.model.UnitStatus;
+
+import java.math.BigDecimal;
+import java.util.List;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for CTFleetIndex.
+ * Tests the BigDecimal keys of the sorted indexes, the fatigue bounds and the ranking of reel + unit matches.
+ */
+@DisplayName("CTFleetIndex Unit Tests")
+class CTFleetIndexTest {
+
+    private final CTFleetIndex.TenantFleet fleet = new CTFleetIndex.TenantFleet(0L);
+
+    @Test
+    @DisplayName("Claves BigDecimal: 1.5 y 1.50 caen en la misma entrada del índice")
+    void testBigDecimalKeysIgnoreScale() {
+        CTReelDto a = putReel("R-A", "1.5", "10.0", ReelStatus.AVAILABLE, null);
+        CTReelDto b = putReel("R-B", "1.50", "20.00", ReelStatus.AVAILABLE, null);
+        CTReelDto c = putReel("R-C", "1.750", "20", ReelStatus.AVAILABLE, null);
+
+        assertEquals(List.of(a, b), fleet.availableReels(new BigDecimal("1.500"), null));
+        assertEquals(List.of(b, c), fleet.reelsAboveFatigue(new BigDecimal("20.0")));
+
+        // Reindexar con otra escala retira el reel de su entrada anterior
+        CTReelDto movedA = putReel(a.getAssetId(), "R-A", "1.75", "10.0", ReelStatus.AVAILABLE, null);
+        assertEquals(List.of(b), fleet.availableReels(new BigDecimal("1.5"), null));
+        assertEquals(List.of(movedA, c), fleet.availableReels(new BigDecimal("1.75"), null));
+
+        // Una unidad con OD máximo 1.50 admite un reel de 1.5
+        CTUnitDto unit = putUnit("U-1", "1.50", UnitStatus.OPERATIONAL, null, null);
+        List<CTFleetMatchDto> matches = fleet.match(CTFleetMatchRequest.builder()
+                .tubingOdInch(new BigDecimal("1.5")).build(), 10);
+        assertEquals(1, matches.size());
+        assertEquals(b.getAssetId(), matches.get(0).getReelId());
+        assertEquals(unit.getAssetId(), matches.get(0).getUnitId());
+    }
+
+    @Test
+    @DisplayName("Umbrales de fatiga: los límites de availableReels y reelsAboveFatigue son inclusivos")
+    void testFatigueBoundsAreInclusive() {
+        CTReelDto low = putReel("R-30", "1.5", "30", ReelStatus.AVAILABLE, null);
+        CTReelDto mid = putReel("R-50", "1.5", "50.0", ReelStatus.AVAILABLE, null);
+        CTReelDto high = putReel("R-70", "1.5", "70", ReelStatus.AVAILABLE, null);
+        putReel("R-40", "1.5", "40", ReelStatus.INSPECTION, null);
+
+        assertEquals(List.of(low, mid), fleet.availableReels(null, new BigDecimal("50")));
+        assertEquals(List.of(low, mid), fleet.availableReels(new BigDecimal("1.5"), new BigDecimal("50.00")));
+        assertEquals(List.of(low), fleet.availableReels(null, new BigDecimal("49.99")));
+        assertEquals(List.of(high, mid), fleet.reelsAboveFatigue(new BigDecimal("50")));
+        assertEquals(List.of(high), fleet.reelsAboveFatigue(new BigDecimal("50.01")));
+    }
+
+    @Test
+    @DisplayName("Emparejamiento: orden por puntuación descendente y como máximo limit combinaciones")
+    void testMatchRankingAndLimit() {
+        CTUnitDto wide = putUnit("U-WIDE", "2.0", UnitStatus.OPERATIONAL, "Field-A", null);
+        CTUnitDto exact = putUnit("U-EXACT", "1.5", UnitStatus.OPERATIONAL, null, null);
+        putUnit("U-MAINT", "2.0", UnitStatus.MAINTENANCE, "Field-A", null);
+        CTReelDto fresh = putReel("R-FRESH", "1.5", "10", ReelStatus.AVAILABLE, null);
+        CTReelDto local = putReel("R-LOCAL", "1.5", "40", ReelStatus.AVAILABLE, "FIELD-A");
+        CTReelDto coupledReel = putReel("R-COUPLED", "1.75", "20", ReelStatus.IN_USE, null);
+        CTUnitDto coupledUnit = putUnit("U-COUPLED", "1.75", UnitStatus.OPERATIONAL, null, coupledReel.getAssetId());
+        coupledReel.setCurrentUnitId(coupledUnit.getAssetId());
+        fleet.putReel(coupledReel);
+        CTFleetMatchRequest request = CTFleetMatchRequest.builder().location(" field-a ").build();
+
+        List<CTFleetMatchDto> all = fleet.match(request, 10);
+
+        // vida remanente 0.6 * (1 - fatiga), acoplado +0.15, unidad en la ubicación +0.15, reel en la ubicación +0.1,
+        // y 0.05 * holgura relativa de OD de la unidad
+        assertMatch(all.get(0), fresh, wide, 0.54 + 0.15 - 0.0125, false);
+        assertMatch(all.get(1), coupledReel, coupledUnit, 0.48 + 0.15, true);
+        assertMatch(all.get(2), local, wide, 0.36 + 0.1 + 0.15 - 0.0125, false);
+        assertMatch(all.get(3), fresh, exact, 0.54, false);
+        assertMatch(all.get(4), local, exact, 0.36 + 0.1, false);
+        assertEquals(5, all.size());
+
+        List<CTFleetMatchDto> top = fleet.match(request, 3);
+        assertEquals(all.subList(0, 3).stream().map(CTFleetMatchDto::getScore).toList(),
+                top.stream().map(CTFleetMatchDto::getScore).toList());
+        assertEquals(List.of(fresh.getAssetId()), fleet.match(request, 1).stream().map(CTFleetMatchDto::getReelId).toList());
+    }
+
+    private void assertMatch(CTFleetMatchDto match, CTReelDto reel, CTUnitDto unit, double score, boolean coupled) {
+        assertEquals(reel.getAssetId(), match.getReelId());
+        assertEquals(unit.getAssetId(), match.getUnitId());
+        assertEquals(score, match.getScore(), 1e-9);
+        assertEquals(coupled, match.getCoupled().booleanValue());
+    }
+
+    private CTReelDto putReel(String code, String odInch, String fatiguePercent, ReelStatus status, String location) {
+        return putReel(UUID.randomUUID(), code, odInch, fatiguePercent, status, location);
+    }
+
+    private CTReelDto putReel(UUID assetId, String code, String odInch, String fatiguePercent, ReelStatus status,
+                              String location) {
+        CTReelDto reel = CTReelDto.builder()
+                .assetId(assetId)
+                .reelCode(code)
+                .tubingOdInch(new BigDecimal(odInch))
+                .accumulatedFatiguePercent(new BigDecimal(fatiguePercent))
+                .status(status)
+                .currentLocation(location)
+                .build();
+        fleet.putReel(reel);
+        return reel;
+    }
+
+    private CTUnitDto putUnit(String code, String maxOdInch, UnitStatus status, String location, UUID currentReelId) {
+        CTUnitDto unit = CTUnitDto.builder()
+                .assetId(UUID.randomUUID())
+                .unitCode(code)
+                .maxTubingOdInch(new BigDecimal(maxOdInch))
+                .operationalStatus(status)
+                .currentLocation(location)
+                .currentReelId(currentReelId)
+                .build();
+        fleet.putUnit(unit);
+        return unit;
+    }
+}
@@ -0,0 +1,88 @@
+/**
+ * Copyright © 2016-2026 The Thingsboard Authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.thingsboard.nexus.ct.service;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.thingsboard.nexus.ct.dto.CTFleetMatchDto;
+import org.thingsboard.nexus.ct.dto.CTFleetMatchRequest;
+import org.thingsboard.nexus.ct.dto.CTJobDto;
+
+import java.math.BigDecimal;
+import java.util.List;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+/**
+ * Unit tests for CTFleetMatchService.
+ * Verifies that the match requirements are derived from the job and passed to the fleet index.
+ */
+@DisplayName("CTFleetMatchService Unit Tests")
+class CTFleetMatchServiceTest {
+
+    private final UUID tenantId = UUID.randomUUID();
+    private final UUID jobId = UUID.randomUUID();
+
+    private CTFleetIndex fleetIndex;
+    private CTJobService jobService;
+    private CTFleetMatchService service;
+
+    @BeforeEach
+    void setUp() {
+        fleetIndex = mock(CTFleetIndex.class);
+        jobService = mock(CTJobService.class);
+        service = new CTFleetMatchService(fleetIndex, jobService);
+    }
+
+    @Test
+    @DisplayName("Emparejamiento para un trabajo: requisitos máximos del trabajo y su campo como ubicación")
+    void testMatchForJobDerivesRequirements() {
+        when(jobService.getById(jobId)).thenReturn(CTJobDto.builder()
+                .id(jobId)
+                .tenantId(tenantId)
+                .fieldName("Field-A")
+                .wellDepthMdFt(new BigDecimal("12000"))
+                .targetDepthToFt(new BigDecimal("12500"))
+                .wellheadPressurePsi(4_000)
+                .maxPlannedPressurePsi(3_500)
+                .maxPlannedTensionLbf(40_000)
+                .build());
+        List<CTFleetMatchDto> matches = List.of(CTFleetMatchDto.builder().reelId(UUID.randomUUID()).build());
+        when(fleetIndex.match(eq(tenantId), any())).thenReturn(matches);
+
+        assertSame(matches, service.matchForJob(jobId, new BigDecimal("1.75"), new BigDecimal("80"), 3));
+
+        ArgumentCaptor<CTFleetMatchRequest> captor = ArgumentCaptor.forClass(CTFleetMatchRequest.class);
+        verify(fleetIndex).match(eq(tenantId), captor.capture());
+        CTFleetMatchRequest request = captor.getValue();
+        assertEquals(new BigDecimal("1.75"), request.getTubingOdInch());
+        assertEquals(new BigDecimal("80"), request.getMaxFatiguePercent());
+        assertEquals(new BigDecimal("12500"), request.getMinReelLengthFt());
+        assertEquals(4_000, request.getRequiredPressurePsi());
+        assertEquals(40_000, request.getRequiredTensionLbf());
+        assertNull(request.getRequiredSpeedFtMin());
+        assertEquals("Field-A", request.getLocation());
+        assertEquals(3, request.getLimit());
+    }
+}
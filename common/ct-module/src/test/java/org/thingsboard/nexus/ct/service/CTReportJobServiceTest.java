@@ -0,0 +1,130 @@
+/**
+ * Copyright © 2016-2026 The Thingsboard Authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.thingsboard.nexus.ct.service;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.thingsboard.nexus.ct.config.CTModuleConfiguration;
+import org.thingsboard.nexus.ct.dto.CTReportJobDto;
+import org.thingsboard.nexus.ct.dto.CTReportRequest;
+import org.thingsboard.nexus.ct.exception.CTEntityNotFoundException;
+
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+/**
+ * Unit tests for CTReportJobService.
+ * Tests that report jobs are only visible, downloadable and cancellable by their own tenant.
+ */
+@DisplayName("CTReportJobService Unit Tests")
+class CTReportJobServiceTest {
+
+    private final UUID tenantA = UUID.randomUUID();
+    private final UUID tenantB = UUID.randomUUID();
+
+    private CTReportJobService service;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        CTReportService reportService = mock(CTReportService.class);
+        when(reportService.fileName(any())).thenReturn("job_summary.csv");
+        when(reportService.contentType(any())).thenReturn("text/csv");
+        doAnswer(invocation -> {
+            OutputStream out = invocation.getArgument(1);
+            out.write("id,name\n".getBytes(StandardCharsets.UTF_8));
+            return null;
+        }).when(reportService).writeReport(any(), any(), any());
+        service = new CTReportJobService(reportService, new CTModuleConfiguration());
+        service.init();
+    }
+
+    @AfterEach
+    void tearDown() {
+        service.destroy();
+    }
+
+    private CTReportJobDto submit(UUID tenantId) {
+        return service.submit(CTReportRequest.builder()
+                .reportType(CTReportRequest.ReportType.JOB_SUMMARY)
+                .format(CTReportRequest.ReportFormat.CSV)
+                .tenantId(tenantId)
+                .build());
+    }
+
+    private CTReportJobDto awaitCompletion(UUID tenantId, UUID jobId) throws InterruptedException {
+        long deadline = System.currentTimeMillis() + 5000;
+        CTReportJobDto job = service.getJob(tenantId, jobId);
+        while (job.getStatus() != CTReportJobDto.Status.COMPLETED && System.currentTimeMillis() < deadline) {
+            Thread.sleep(10);
+            job = service.getJob(tenantId, jobId);
+        }
+        return job;
+    }
+
+    @Test
+    @DisplayName("Listado: cada tenant ve sólo sus trabajos; sin tenant se ven todos")
+    void testJobsListedPerTenant() {
+        UUID jobA = submit(tenantA).getJobId();
+        UUID jobB = submit(tenantB).getJobId();
+
+        List<CTReportJobDto> jobsA = service.getJobs(tenantA);
+        assertEquals(1, jobsA.size());
+        assertEquals(jobA, jobsA.get(0).getJobId());
+        assertEquals(jobB, service.getJobs(tenantB).get(0).getJobId());
+        assertEquals(2, service.getJobs(null).size());
+    }
+
+    @Test
+    @DisplayName("Trabajo de otro tenant: consulta, descarga y cancelación responden como inexistente")
+    void testOtherTenantCannotAccessJob() throws Exception {
+        UUID jobId = submit(tenantA).getJobId();
+        assertEquals(CTReportJobDto.Status.COMPLETED, awaitCompletion(tenantA, jobId).getStatus());
+
+        assertThrows(CTEntityNotFoundException.class, () -> service.getJob(tenantB, jobId));
+        assertThrows(CTEntityNotFoundException.class, () -> service.getReportFile(tenantB, jobId));
+        assertThrows(CTEntityNotFoundException.class, () -> service.cancel(tenantB, jobId));
+
+        // El trabajo sigue disponible para su tenant
+        Path file = service.getReportFile(tenantA, jobId);
+        assertEquals("id,name\n", Files.readString(file));
+    }
+
+    @Test
+    @DisplayName("Cancelación por el propio tenant: elimina el trabajo y su archivo")
+    void testCancelByOwner() throws Exception {
+        UUID jobId = submit(tenantA).getJobId();
+        awaitCompletion(tenantA, jobId);
+        Path file = service.getReportFile(tenantA, jobId);
+
+        service.cancel(tenantA, jobId);
+
+        assertFalse(Files.exists(file));
+        assertThrows(CTEntityNotFoundException.class, () -> service.getJob(tenantA, jobId));
+        assertTrue(service.getJobs(tenantA).isEmpty());
+    }
+}
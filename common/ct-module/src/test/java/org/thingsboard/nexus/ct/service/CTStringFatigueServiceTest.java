@@ -0,0 +1,119 @@
+/**
+ * Copyright © 2016-2026 The Thingsboard Authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.thingsboard.nexus.ct.service;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.thingsboard.nexus.ct.config.CTModuleConfiguration;
+import org.thingsboard.nexus.ct.dto.CTReelDto;
+import org.thingsboard.nexus.ct.dto.CTSegmentFatigueDto;
+import org.thingsboard.server.common.data.id.AssetId;
+import org.thingsboard.server.common.data.id.TenantId;
+import org.thingsboard.server.common.data.nexus.ReelTelemetrySample;
+
+import java.math.BigDecimal;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.anyMap;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+/**
+ * Unit tests for CTStringFatigueService.
+ * Tests that reel telemetry fed through the rule engine entry point ends up in the segment fatigue profile.
+ */
+@DisplayName("CTStringFatigueService Unit Tests")
+class CTStringFatigueServiceTest {
+
+    private static final double TUBING_LENGTH_FT = 10000.0;
+
+    private final UUID tenantId = UUID.randomUUID();
+    private final UUID reelId = UUID.randomUUID();
+
+    private CTAttributeService attributeService;
+    private CTReelService reelService;
+    private CTStringFatigueService service;
+
+    @BeforeEach
+    void setUp() {
+        attributeService = mock(CTAttributeService.class);
+        reelService = mock(CTReelService.class);
+        when(reelService.getById(reelId)).thenReturn(CTReelDto.builder()
+                .assetId(reelId)
+                .tenantId(tenantId)
+                .totalLengthFt(BigDecimal.valueOf(TUBING_LENGTH_FT))
+                .build());
+        service = new CTStringFatigueService(attributeService, reelService, mock(CTFatigueLogSink.class), new CTModuleConfiguration());
+        service.init();
+    }
+
+    @AfterEach
+    void tearDown() {
+        service.destroy();
+    }
+
+    private static ReelTelemetrySample sample(long ts, String direction, double depthFt) {
+        return new ReelTelemetrySample(ts, 3000.0, 20000.0, 90.0, direction, depthFt);
+    }
+
+    @Test
+    @DisplayName("Telemetría: bajada y subida dañan sólo los segmentos recorridos")
+    void testTripDamagesTraversedSegments() {
+        long ts = 0;
+        service.onReelTelemetry(TenantId.fromUUID(tenantId), new AssetId(reelId), sample(ts, "STOPPED", 0.0));
+        for (int depth = 100; depth <= 3000; depth += 100) {
+            service.onReelTelemetry(TenantId.fromUUID(tenantId), new AssetId(reelId), sample(ts += 1000, "IN", depth));
+        }
+        for (int depth = 2900; depth >= 0; depth -= 100) {
+            service.onReelTelemetry(TenantId.fromUUID(tenantId), new AssetId(reelId), sample(ts += 1000, "out", depth));
+        }
+        // Processes the queued samples and persists the map
+        service.destroy();
+
+        CTSegmentFatigueDto profile = service.getSegmentFatigue(reelId, 10);
+        assertEquals(6000L, profile.getPassedFt().longValue());
+        assertEquals(0.0, profile.getLastDepthFt().doubleValue(), 1e-9);
+        assertEquals(10, profile.getBins().size());
+        for (int i = 0; i < 3; i++) {
+            assertTrue(profile.getBins().get(i).getMaxFatiguePercent().doubleValue() > 0, "bin " + i);
+        }
+        for (int i = 3; i < 10; i++) {
+            assertEquals(0.0, profile.getBins().get(i).getMaxFatiguePercent().doubleValue(), 1e-12, "bin " + i);
+        }
+        assertTrue(profile.getWorstSegmentPositionFt() < 3000.0);
+        verify(attributeService).saveServerAttributes(eq(reelId), anyMap());
+    }
+
+    @Test
+    @DisplayName("Telemetría: reel detenido no acumula daño y lee el reel una sola vez")
+    void testStoppedReelAccumulatesNothing() {
+        for (int i = 0; i < 5; i++) {
+            assertTrue(service.ingest(tenantId, reelId, sample(i * 1000L, "STOPPED", 1500.0)).isSuccess());
+        }
+
+        CTSegmentFatigueDto profile = service.getSegmentFatigue(reelId, 10);
+        assertEquals(0L, profile.getPassedFt().longValue());
+        assertEquals(0.0, profile.getWorstSegmentFatiguePercent().doubleValue(), 1e-12);
+        assertEquals(1500.0, profile.getLastDepthFt().doubleValue(), 1e-9);
+        verify(reelService, times(1)).getById(reelId);
+    }
+}
@@ -0,0 +1,149 @@
+/**
+ * Copyright © 2016-2026 The Thingsboard Authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.thingsboard.nexus.ct.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.thingsboard.server.common.data.AttributeScope;
+import org.thingsboard.server.common.data.asset.Asset;
+import org.thingsboard.server.common.data.id.AssetId;
+import org.thingsboard.server.common.data.id.TenantId;
+import org.thingsboard.server.common.data.template.CompiledTemplate;
+import org.thingsboard.server.common.data.template.TemplateAttribute;
+import org.thingsboard.server.common.data.template.TemplateDefinitionDto;
+import org.thingsboard.server.common.data.template.TemplateInstanceResult;
+import org.thingsboard.server.common.data.template.TemplateNode;
+import org.thingsboard.server.common.data.template.TemplateRelation;
+import org.thingsboard.server.common.data.template.TemplateStructure;
+import org.thingsboard.server.dao.asset.AssetService;
+import org.thingsboard.server.dao.relation.RelationService;
+
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.anyMap;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+/**
+ * Unit tests for CTTemplateService.
+ * Tests that attributes written during an instantiation are removed when its transaction rolls back.
+ */
+@DisplayName("CTTemplateService Unit Tests")
+class CTTemplateServiceTest {
+
+    private final TenantId tenantId = TenantId.fromUUID(UUID.randomUUID());
+    private final UUID templateId = UUID.randomUUID();
+
+    private RelationService relationService;
+    private CTAttributeService attributeService;
+    private CTTemplateService service;
+
+    @BeforeEach
+    void setUp() {
+        AssetService assetService = mock(AssetService.class);
+        when(assetService.saveAsset(any(Asset.class))).thenAnswer(invocation -> {
+            Asset asset = invocation.getArgument(0);
+            asset.setId(new AssetId(UUID.randomUUID()));
+            return asset;
+        });
+        relationService = mock(RelationService.class);
+        attributeService = mock(CTAttributeService.class);
+        TemplateDefinitionService templateDefinitionService = mock(TemplateDefinitionService.class);
+        when(templateDefinitionService.getCompiledTemplate(templateId)).thenReturn(compiledTemplate());
+        service = new CTTemplateService(assetService, relationService, attributeService, templateDefinitionService,
+                new ObjectMapper());
+        TransactionSynchronizationManager.initSynchronization();
+    }
+
+    @AfterEach
+    void tearDown() {
+        TransactionSynchronizationManager.clearSynchronization();
+    }
+
+    private CompiledTemplate compiledTemplate() {
+        TemplateNode unit = new TemplateNode();
+        unit.setNodeKey("unit");
+        unit.setNodeName("Unit {{code}}");
+        unit.setAssetType("CT_UNIT");
+        unit.setIsRoot(true);
+        unit.setAttributes(List.of(attribute("unitCode", "{{code}}")));
+        TemplateNode reel = new TemplateNode();
+        reel.setNodeKey("reel");
+        reel.setNodeName("Reel {{code}}");
+        reel.setAssetType("CT_REEL");
+        reel.setAttributes(List.of(attribute("totalLengthFt", 15000)));
+        TemplateRelation contains = new TemplateRelation();
+        contains.setFromNodeKey("unit");
+        contains.setToNodeKey("reel");
+        contains.setRelationType("Contains");
+        TemplateDefinitionDto definition = TemplateDefinitionDto.builder()
+                .id(templateId).templateName("CT unit").version("1.0").build();
+        return CompiledTemplate.compile(definition, new TemplateStructure(List.of(unit, reel), List.of(contains)));
+    }
+
+    private static TemplateAttribute attribute(String key, Object value) {
+        TemplateAttribute attribute = new TemplateAttribute();
+        attribute.setKey(key);
+        attribute.setValue(value);
+        return attribute;
+    }
+
+    private static void complete(int status) {
+        for (TransactionSynchronization synchronization : TransactionSynchronizationManager.getSynchronizations()) {
+            synchronization.afterCompletion(status);
+        }
+    }
+
+    @Test
+    @DisplayName("Rollback: se eliminan los atributos escritos de los Assets creados")
+    void testAttributesRemovedOnRollback() {
+        doThrow(new IllegalStateException("relation failed")).when(relationService).saveRelations(eq(tenantId), anyList());
+
+        assertThrows(IllegalStateException.class,
+                () -> service.instantiateTemplate(tenantId, templateId, Map.of("code", "U-1"), null));
+        verify(attributeService).saveServerAttributes(anyMap());
+        complete(TransactionSynchronization.STATUS_ROLLED_BACK);
+
+        verify(attributeService).deleteAttributes(any(UUID.class), eq(AttributeScope.SERVER_SCOPE), eq(List.of("unitCode")));
+        verify(attributeService).deleteAttributes(any(UUID.class), eq(AttributeScope.SERVER_SCOPE), eq(List.of("totalLengthFt")));
+    }
+
+    @Test
+    @DisplayName("Commit: los atributos se conservan")
+    void testAttributesKeptOnCommit() {
+        TemplateInstanceResult result = service.instantiateTemplate(tenantId, templateId, Map.of("code", "U-1"), null);
+        complete(TransactionSynchronization.STATUS_COMMITTED);
+
+        assertEquals(2, result.getCreatedAssetIds().size());
+        verify(relationService, times(1)).saveRelations(eq(tenantId), anyList());
+        verify(attributeService, never()).deleteAttributes(any(), any(), any());
+    }
+}
@@ -0,0 +1,212 @@
+/**
+ * Copyright © 2016-2026 The Thingsboard Authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.thingsboard.server.dao.nexus;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.google.common.util.concurrent.Futures;
+import com.google.common.util.concurrent.ListenableFuture;
+import lombok.extern.slf4j.Slf4j;
+import org.thingsboard.server.common.data.AttributeScope;
+import org.thingsboard.server.common.data.id.AssetId;
+import org.thingsboard.server.common.data.kv.AttributeKvEntry;
+import org.thingsboard.server.common.data.kv.AttributesSaveResult;
+import org.thingsboard.server.common.data.kv.BaseAttributeKvEntry;
+import org.thingsboard.server.common.data.kv.BooleanDataEntry;
+import org.thingsboard.server.common.data.kv.DoubleDataEntry;
+import org.thingsboard.server.common.data.kv.JsonDataEntry;
+import org.thingsboard.server.common.data.kv.LongDataEntry;
+import org.thingsboard.server.common.data.kv.StringDataEntry;
+import org.thingsboard.server.dao.attributes.AttributesService;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ExecutionException;
+
+/**
+ * Asset attribute calls shared by the Nexus module attribute services: conversion of plain values
+ * to attribute entries, bulk reads and writes with a bounded number of calls in flight, and waits
+ * that only restore the interrupt flag on interruption.
+ * <p>
+ * {@link AttributesService} writes run on the DAO executors, outside any database transaction of
+ * the caller: a transaction that rolls back does not undo attributes already written.
+ */
+@Slf4j
+public final class NexusAttributes {
+
+    /**
+     * Upper bound of attribute reads or writes in flight for one bulk call
+     */
+    public static final int MAX_CONCURRENT_REQUESTS = 64;
+
+    private static final ObjectMapper OBJECT_MAPPER = new ObjectMapper();
+
+    private NexusAttributes() {
+    }
+
+    /**
+     * Save attributes of an asset and wait for the write. Null values are skipped.
+     *
+     * @return whether any attribute was written
+     */
+    public static boolean save(AttributesService attributesService, UUID assetId, AttributeScope scope,
+                               Map<String, Object> attributes) {
+        List<AttributeKvEntry> kvEntries = toKvEntries(attributes);
+        if (kvEntries.isEmpty()) {
+            return false;
+        }
+        await(attributesService.save(null, new AssetId(assetId), scope, kvEntries),
+                "save " + scope + " attributes of asset " + assetId);
+        return true;
+    }
+
+    /**
+     * Save SERVER_SCOPE attributes of several assets, issuing up to {@link #MAX_CONCURRENT_REQUESTS}
+     * writes in parallel and waiting for all of them.
+     *
+     * @return the assets with attributes written, in iteration order
+     */
+    public static List<UUID> saveServerAttributes(AttributesService attributesService,
+                                                  Map<UUID, Map<String, Object>> attributesByAsset) {
+        List<UUID> assetIds = new ArrayList<>(attributesByAsset.size());
+        List<ListenableFuture<AttributesSaveResult>> futures = new ArrayList<>(MAX_CONCURRENT_REQUESTS);
+        for (Map.Entry<UUID, Map<String, Object>> asset : attributesByAsset.entrySet()) {
+            List<AttributeKvEntry> kvEntries = toKvEntries(asset.getValue());
+            if (kvEntries.isEmpty()) {
+                continue;
+            }
+            assetIds.add(asset.getKey());
+            futures.add(attributesService.save(null, new AssetId(asset.getKey()), AttributeScope.SERVER_SCOPE, kvEntries));
+            if (futures.size() == MAX_CONCURRENT_REQUESTS) {
+                await(Futures.allAsList(futures), "save attributes");
+                futures.clear();
+            }
+        }
+        if (!futures.isEmpty()) {
+            await(Futures.allAsList(futures), "save attributes");
+        }
+        return assetIds;
+    }
+
+    /**
+     * SERVER_SCOPE attributes of several assets, with up to {@link #MAX_CONCURRENT_REQUESTS} reads in parallel
+     */
+    public static Map<UUID, List<AttributeKvEntry>> findServerAttributes(AttributesService attributesService,
+                                                                         Collection<UUID> assetIds) {
+        List<UUID> ids = new ArrayList<>(assetIds);
+        Map<UUID, List<AttributeKvEntry>> byAsset = new HashMap<>(ids.size() * 2);
+        for (int from = 0; from < ids.size(); from += MAX_CONCURRENT_REQUESTS) {
+            List<UUID> batch = ids.subList(from, Math.min(from + MAX_CONCURRENT_REQUESTS, ids.size()));
+            List<ListenableFuture<List<AttributeKvEntry>>> futures = new ArrayList<>(batch.size());
+            for (UUID assetId : batch) {
+                futures.add(attributesService.findAll(null, new AssetId(assetId), AttributeScope.SERVER_SCOPE));
+            }
+            List<List<AttributeKvEntry>> results = await(Futures.allAsList(futures),
+                    "get server attributes of " + ids.size() + " assets");
+            for (int i = 0; i < batch.size(); i++) {
+                byAsset.put(batch.get(i), results.get(i));
+            }
+        }
+        return byAsset;
+    }
+
+    /**
+     * The given SERVER_SCOPE attributes of several assets, with up to {@link #MAX_CONCURRENT_REQUESTS} reads
+     * in parallel. Assets without any of the keys are left out of the result.
+     */
+    public static Map<UUID, List<AttributeKvEntry>> findServerAttributes(AttributesService attributesService,
+                                                                         Collection<UUID> assetIds, List<String> keys) {
+        List<UUID> ids = new ArrayList<>(assetIds);
+        Map<UUID, List<AttributeKvEntry>> byAsset = new HashMap<>(ids.size() * 2);
+        for (int from = 0; from < ids.size(); from += MAX_CONCURRENT_REQUESTS) {
+            List<UUID> batch = ids.subList(from, Math.min(from + MAX_CONCURRENT_REQUESTS, ids.size()));
+            List<ListenableFuture<List<AttributeKvEntry>>> futures = new ArrayList<>(batch.size());
+            for (UUID assetId : batch) {
+                futures.add(attributesService.find(null, new AssetId(assetId), AttributeScope.SERVER_SCOPE, keys));
+            }
+            List<List<AttributeKvEntry>> results = await(Futures.allAsList(futures),
+                    "get attributes " + keys + " of " + ids.size() + " assets");
+            for (int i = 0; i < batch.size(); i++) {
+                List<AttributeKvEntry> entries = results.get(i);
+                if (entries != null && !entries.isEmpty()) {
+                    byAsset.put(batch.get(i), entries);
+                }
+            }
+        }
+        return byAsset;
+    }
+
+    /**
+     * Wait for an attribute call. Only an interrupted wait restores the interrupt flag.
+     */
+    public static <T> T await(ListenableFuture<T> future, String action) {
+        try {
+            return future.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new RuntimeException("Interrupted while trying to " + action, e);
+        } catch (ExecutionException e) {
+            log.error("Failed to {}: {}", action, e.getCause().getMessage());
+            throw new RuntimeException("Failed to " + action, e.getCause());
+        }
+    }
+
+    public static List<AttributeKvEntry> toKvEntries(Map<String, Object> attributes) {
+        long ts = System.currentTimeMillis();
+        List<AttributeKvEntry> kvEntries = new ArrayList<>(attributes.size());
+        for (Map.Entry<String, Object> entry : attributes.entrySet()) {
+            AttributeKvEntry kvEntry = toKvEntry(entry.getKey(), entry.getValue(), ts);
+            if (kvEntry != null) {
+                kvEntries.add(kvEntry);
+            }
+        }
+        return kvEntries;
+    }
+
+    private static AttributeKvEntry toKvEntry(String key, Object value, long ts) {
+        if (value == null) {
+            return null;
+        }
+        if (value instanceof String) {
+            return new BaseAttributeKvEntry(new StringDataEntry(key, (String) value), ts);
+        } else if (value instanceof Integer) {
+            return new BaseAttributeKvEntry(new LongDataEntry(key, ((Integer) value).longValue()), ts);
+        } else if (value instanceof Long) {
+            return new BaseAttributeKvEntry(new LongDataEntry(key, (Long) value), ts);
+        } else if (value instanceof Double) {
+            return new BaseAttributeKvEntry(new DoubleDataEntry(key, (Double) value), ts);
+        } else if (value instanceof Float) {
+            return new BaseAttributeKvEntry(new DoubleDataEntry(key, ((Float) value).doubleValue()), ts);
+        } else if (value instanceof BigDecimal) {
+            return new BaseAttributeKvEntry(new DoubleDataEntry(key, ((BigDecimal) value).doubleValue()), ts);
+        } else if (value instanceof Boolean) {
+            return new BaseAttributeKvEntry(new BooleanDataEntry(key, (Boolean) value), ts);
+        } else if (value instanceof JsonNode) {
+            return new BaseAttributeKvEntry(new JsonDataEntry(key, value.toString()), ts);
+        }
+        // For complex objects, serialize to JSON
+        try {
+            return new BaseAttributeKvEntry(new JsonDataEntry(key, OBJECT_MAPPER.valueToTree(value).toString()), ts);
+        } catch (Exception e) {
+            return new BaseAttributeKvEntry(new StringDataEntry(key, value.toString()), ts);
+        }
+    }
+}
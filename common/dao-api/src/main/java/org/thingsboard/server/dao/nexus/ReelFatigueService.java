@@ -0,0 +1,34 @@
+/**
+ * Copyright © 2016-2026 The Thingsboard Authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.thingsboard.server.dao.nexus;
+
+import org.thingsboard.server.common.data.id.EntityId;
+import org.thingsboard.server.common.data.id.TenantId;
+import org.thingsboard.server.common.data.nexus.ReelTelemetrySample;
+
+/**
+ * Receives coiled tubing reel telemetry from the rule engine for the NEXUS reel and per-segment
+ * string fatigue.
+ */
+public interface ReelFatigueService {
+
+    /**
+     * Consume one sample of a reel. Samples of a reel must be delivered in time order.
+     * Implementations must not block the calling rule engine thread on I/O.
+     */
+    void onReelTelemetry(TenantId tenantId, EntityId reelId, ReelTelemetrySample sample);
+
+}
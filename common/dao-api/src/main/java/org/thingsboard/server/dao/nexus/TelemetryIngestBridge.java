@@ -0,0 +1,40 @@
+/**
+ * Copyright © 2016-2026 The Thingsboard Authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.thingsboard.server.dao.nexus;
+
+import com.google.common.util.concurrent.ListenableFuture;
+import org.thingsboard.server.common.data.id.EntityId;
+import org.thingsboard.server.common.data.id.TenantId;
+import org.thingsboard.server.common.data.kv.TsKvEntry;
+
+import java.util.List;
+
+/**
+ * Hands telemetry decoded by the NEXUS ingest services to the rule engine as telemetry of the
+ * originator, so it is saved by the originator's rule chain and reaches rule nodes, calculated
+ * fields and subscriptions like telemetry posted by a device.
+ */
+public interface TelemetryIngestBridge {
+
+    /**
+     * Push the entries of one originator to the rule engine.
+     *
+     * @param ttlSeconds TTL for the save time series node, 0 for the node or tenant default
+     * @return completes once every message was accepted by the rule engine queue
+     */
+    ListenableFuture<Void> pushTelemetry(TenantId tenantId, EntityId originator, List<TsKvEntry> entries, long ttlSeconds);
+
+}
@@ -0,0 +1,34 @@
+/**
+ * Copyright © 2016-2026 The Thingsboard Authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.thingsboard.server.dao.nexus;
+
+import org.thingsboard.server.common.data.nexus.WellSurveyStations;
+
+import java.util.UUID;
+
+/**
+ * Directional survey of a well owned by the NEXUS drilling module, read by other modules (coiled
+ * tubing job simulation) without depending on its tables.
+ */
+public interface WellSurveyService {
+
+    /**
+     * Survey stations of a well ordered by measured depth. When several runs repeat a depth the most
+     * recent definitive station is used. Empty if the well has no survey.
+     */
+    WellSurveyStations findStationsByWellId(UUID wellId);
+
+}
@@ -80,6 +80,7 @@ public enum TbMsgType {
     DEDUPLICATION_TIMEOUT_SELF_MSG(null, true),
     DELAY_TIMEOUT_SELF_MSG(null, true),
     MSG_COUNT_SELF_MSG(null, true),
+    NEXUS_AGGREGATION_INDEX_SELF_MSG(null, true),
 
     // Custom or N/A type:
     NA;
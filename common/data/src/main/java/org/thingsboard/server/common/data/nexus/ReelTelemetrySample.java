@@ -0,0 +1,30 @@
+/**
+ * Copyright © 2016-2026 The Thingsboard Authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.thingsboard.server.common.data.nexus;
+
+/**
+ * Coiled tubing reel telemetry sample forwarded by the reel fatigue rule node.
+ *
+ * @param ts           sample time (epoch ms)
+ * @param pressurePsi  internal pressure (psi)
+ * @param tensionLbf   axial tension (lbf)
+ * @param temperatureF tubing temperature (°F), null if not reported
+ * @param direction    IN, OUT or STOPPED
+ * @param depthFt      tubing depth (ft), null if not reported
+ */
+public record ReelTelemetrySample(long ts, double pressurePsi, double tensionLbf, Double temperatureF,
+                                  String direction, Double depthFt) {
+}
@@ -0,0 +1,29 @@
+/**
+ * Copyright © 2016-2026 The Thingsboard Authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.thingsboard.server.common.data.nexus;
+
+/**
+ * Rig state transition detected by the rig state detection rule node.
+ *
+ * @param rigState                new state name
+ * @param stateChangeTime         start of the new state (epoch ms)
+ * @param previousRigState        state that just ended, null for the first state of a rig
+ * @param previousStateDurationMs duration of the state that just ended (ms), null if unknown
+ * @param bitDepth                bit depth at the transition (ft), null if not reported
+ */
+public record RigStateTransition(String rigState, long stateChangeTime, String previousRigState,
+                                 Long previousStateDurationMs, Double bitDepth) {
+}
@@ -0,0 +1,32 @@
+/**
+ * Copyright © 2016-2026 The Thingsboard Authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.thingsboard.server.common.data.nexus;
+
+/**
+ * Directional survey stations of a well in parallel arrays ordered by measured depth.
+ *
+ * @param mdFt           measured depth (ft)
+ * @param inclinationDeg inclination (deg)
+ * @param azimuthDeg     azimuth (deg)
+ */
+public record WellSurveyStations(double[] mdFt, double[] inclinationDeg, double[] azimuthDeg) {
+
+    public static final WellSurveyStations EMPTY = new WellSurveyStations(new double[0], new double[0], new double[0]);
+
+    public int size() {
+        return mdFt.length;
+    }
+}
@@ -0,0 +1,237 @@
+/**
+ * Copyright © 2016-2026 The Thingsboard Authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.thingsboard.server.common.data.template;
+
+import lombok.Getter;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.UUID;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Executable form of a {@link TemplateStructure}, compiled once per template version.
+ * Nodes are ordered root first, {{variable}} placeholders are pre-split into literal and
+ * variable segments, and relations are resolved to node indexes, so an instantiation only
+ * has to fill in variables.
+ */
+@Getter
+public final class CompiledTemplate {
+
+    private static final Pattern VARIABLE_PATTERN = Pattern.compile("\\{\\{([^}]+)\\}\\}");
+
+    private final UUID templateId;
+    private final String version;
+    private final String templateName;
+    private final List<Node> nodes;
+    private final List<Relation> relations;
+    private final List<String> unresolvedRelations;
+    private final Set<String> variableNames;
+
+    private CompiledTemplate(UUID templateId, String version, String templateName, List<Node> nodes,
+                             List<Relation> relations, List<String> unresolvedRelations, Set<String> variableNames) {
+        this.templateId = templateId;
+        this.version = version;
+        this.templateName = templateName;
+        this.nodes = Collections.unmodifiableList(nodes);
+        this.relations = Collections.unmodifiableList(relations);
+        this.unresolvedRelations = Collections.unmodifiableList(unresolvedRelations);
+        this.variableNames = Collections.unmodifiableSet(variableNames);
+    }
+
+    /**
+     * Compiles the given structure of a template definition.
+     *
+     * @throws IllegalArgumentException if the structure has no nodes or no root node
+     */
+    public static CompiledTemplate compile(TemplateDefinitionDto template, TemplateStructure structure) {
+        if (structure == null || structure.getNodes() == null || structure.getNodes().isEmpty()) {
+            throw new IllegalArgumentException("Template has no structure defined: " + template.getTemplateName());
+        }
+        TemplateNode rootNode = structure.getNodes().stream()
+                .filter(n -> Boolean.TRUE.equals(n.getIsRoot()))
+                .findFirst()
+                .orElseThrow(() -> new IllegalArgumentException("Template has no root node: " + template.getTemplateName()));
+
+        Set<String> variableNames = new LinkedHashSet<>();
+        List<Node> nodes = new ArrayList<>(structure.getNodes().size());
+        nodes.add(compileNode(rootNode, variableNames));
+        for (TemplateNode node : structure.getNodes()) {
+            if (!Boolean.TRUE.equals(node.getIsRoot())) {
+                nodes.add(compileNode(node, variableNames));
+            }
+        }
+
+        Map<String, Integer> indexByKey = new HashMap<>(nodes.size() * 2);
+        for (int i = 0; i < nodes.size(); i++) {
+            indexByKey.put(nodes.get(i).getNodeKey(), i);
+        }
+
+        List<Relation> relations = new ArrayList<>();
+        List<String> unresolved = new ArrayList<>();
+        if (structure.getRelations() != null) {
+            for (TemplateRelation rel : structure.getRelations()) {
+                Integer from = indexByKey.get(rel.getFromNodeKey());
+                Integer to = indexByKey.get(rel.getToNodeKey());
+                if (from != null && to != null) {
+                    relations.add(new Relation(from, to, rel.getRelationType()));
+                } else {
+                    unresolved.add(rel.getFromNodeKey() + " -> " + rel.getToNodeKey());
+                }
+            }
+        }
+
+        return new CompiledTemplate(template.getId(), template.getVersion(), template.getTemplateName(),
+                nodes, relations, unresolved, variableNames);
+    }
+
+    /**
+     * True when this plan was compiled from the given template version.
+     */
+    public boolean isCompiledFrom(TemplateDefinitionDto template) {
+        return Objects.equals(templateId, template.getId()) && Objects.equals(version, template.getVersion());
+    }
+
+    private static Node compileNode(TemplateNode node, Set<String> variableNames) {
+        String assetType = node.getAssetType() != null ? node.getAssetType() : node.getNodeType();
+        List<Attribute> attributes = new ArrayList<>();
+        if (node.getAttributes() != null) {
+            for (TemplateAttribute attr : node.getAttributes()) {
+                Object value = attr.getValue();
+                Text text = value instanceof String ? Text.parse((String) value, variableNames) : null;
+                attributes.add(new Attribute(attr.getKey(), text, text == null ? value : null));
+            }
+        }
+        return new Node(node.getNodeKey(), Text.parse(node.getNodeName(), variableNames), assetType,
+                Collections.unmodifiableList(attributes));
+    }
+
+    @Getter
+    public static final class Node {
+        private final String nodeKey;
+        private final Text name;
+        private final String assetType;
+        private final List<Attribute> attributes;
+
+        private Node(String nodeKey, Text name, String assetType, List<Attribute> attributes) {
+            this.nodeKey = nodeKey;
+            this.name = name;
+            this.assetType = assetType;
+            this.attributes = attributes;
+        }
+
+        public String renderName(Map<String, Object> variables) {
+            return name != null ? name.render(variables) : null;
+        }
+
+        public Map<String, Object> renderAttributes(Map<String, Object> variables) {
+            Map<String, Object> values = new LinkedHashMap<>(attributes.size() * 2);
+            for (Attribute attr : attributes) {
+                values.put(attr.getKey(), attr.render(variables));
+            }
+            return values;
+        }
+    }
+
+    @Getter
+    public static final class Attribute {
+        private final String key;
+        private final Text text;
+        private final Object constant;
+
+        private Attribute(String key, Text text, Object constant) {
+            this.key = key;
+            this.text = text;
+            this.constant = constant;
+        }
+
+        public Object render(Map<String, Object> variables) {
+            return text != null ? text.render(variables) : constant;
+        }
+    }
+
+    @Getter
+    public static final class Relation {
+        private final int fromIndex;
+        private final int toIndex;
+        private final String relationType;
+
+        private Relation(int fromIndex, int toIndex, String relationType) {
+            this.fromIndex = fromIndex;
+            this.toIndex = toIndex;
+            this.relationType = relationType;
+        }
+    }
+
+    /**
+     * A string split at its {{variable}} placeholders: {@code literals} has one more element
+     * than {@code variables}, and rendering interleaves them. Missing variables render as "".
+     */
+    public static final class Text {
+        private final String[] literals;
+        private final String[] variables;
+
+        private Text(String[] literals, String[] variables) {
+            this.literals = literals;
+            this.variables = variables;
+        }
+
+        static Text parse(String source, Set<String> variableNames) {
+            if (source == null) {
+                return null;
+            }
+            List<String> literals = new ArrayList<>();
+            List<String> variables = new ArrayList<>();
+            Matcher matcher = VARIABLE_PATTERN.matcher(source);
+            int last = 0;
+            while (matcher.find()) {
+                literals.add(source.substring(last, matcher.start()));
+                variables.add(matcher.group(1));
+                variableNames.add(matcher.group(1));
+                last = matcher.end();
+            }
+            literals.add(source.substring(last));
+            return new Text(literals.toArray(new String[0]), variables.toArray(new String[0]));
+        }
+
+        public boolean isConstant() {
+            return variables.length == 0;
+        }
+
+        public String render(Map<String, Object> values) {
+            if (variables.length == 0) {
+                return literals[0];
+            }
+            StringBuilder sb = new StringBuilder();
+            for (int i = 0; i < variables.length; i++) {
+                sb.append(literals[i]);
+                Object value = values != null ? values.get(variables[i]) : null;
+                if (value != null) {
+                    sb.append(value);
+                }
+            }
+            return sb.append(literals[variables.length]).toString();
+        }
+    }
+}
@@ -0,0 +1,65 @@
+/**
+ * Copyright © 2016-2026 The Thingsboard Authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.thingsboard.server.common.data.template;
+
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.function.Function;
+
+/**
+ * Keeps the {@link CompiledTemplate} of the current version of each template. A template
+ * whose version changed is recompiled on its next lookup, replacing the stale plan.
+ */
+public final class CompiledTemplateCache {
+
+    private final ConcurrentMap<UUID, CompiledTemplate> plans = new ConcurrentHashMap<>();
+
+    /**
+     * Returns the plan for the given template version, compiling it on first use.
+     * The structure parser is only invoked on a miss when the DTO carries just the JSON form.
+     *
+     * @throws IllegalArgumentException if the template structure cannot be compiled
+     */
+    public CompiledTemplate get(TemplateDefinitionDto template, Function<String, TemplateStructure> structureParser) {
+        CompiledTemplate plan = plans.get(template.getId());
+        if (plan != null && plan.isCompiledFrom(template)) {
+            return plan;
+        }
+        return plans.compute(template.getId(), (id, current) -> {
+            if (current != null && current.isCompiledFrom(template)) {
+                return current;
+            }
+            TemplateStructure structure = template.getTemplateStructure();
+            if (structure == null && template.getTemplateStructureJson() != null) {
+                structure = structureParser.apply(template.getTemplateStructureJson());
+            }
+            return CompiledTemplate.compile(template, structure);
+        });
+    }
+
+    public void invalidate(UUID templateId) {
+        plans.remove(templateId);
+    }
+
+    public void clear() {
+        plans.clear();
+    }
+
+    public int size() {
+        return plans.size();
+    }
+}
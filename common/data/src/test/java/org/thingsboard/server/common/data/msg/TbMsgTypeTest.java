@@ -31,6 +31,7 @@ import static org.thingsboard.server.common.data.msg.TbMsgType.ENTITY_UNASSIGNED
 import static org.thingsboard.server.common.data.msg.TbMsgType.GENERATOR_NODE_SELF_MSG;
 import static org.thingsboard.server.common.data.msg.TbMsgType.MSG_COUNT_SELF_MSG;
 import static org.thingsboard.server.common.data.msg.TbMsgType.NA;
+import static org.thingsboard.server.common.data.msg.TbMsgType.NEXUS_AGGREGATION_INDEX_SELF_MSG;
 import static org.thingsboard.server.common.data.msg.TbMsgType.PROVISION_FAILURE;
 import static org.thingsboard.server.common.data.msg.TbMsgType.PROVISION_SUCCESS;
 import static org.thingsboard.server.common.data.msg.TbMsgType.SEND_EMAIL;
@@ -51,6 +52,7 @@ class TbMsgTypeTest {
             DEDUPLICATION_TIMEOUT_SELF_MSG,
             DELAY_TIMEOUT_SELF_MSG,
             MSG_COUNT_SELF_MSG,
+            NEXUS_AGGREGATION_INDEX_SELF_MSG,
             NA
     );
 
@@ -22,6 +22,9 @@ import org.springframework.context.annotation.Configuration;
 import org.springframework.scheduling.annotation.EnableAsync;
 import org.springframework.web.client.RestTemplate;
 
+import java.util.HashMap;
+import java.util.Map;
+
 /**
  * Configuration for the Drilling Module
  */
@@ -101,6 +104,91 @@ public class DrModuleConfiguration {
      */
     private boolean rigStateDetectionEnabled = true;
 
+    /**
+     * Longest weight-to-weight interval still counted as a connection (minutes)
+     */
+    private double kpiMaxConnectionMinutes = 60.0;
+
+    /**
+     * Minimum static interval counted as NPT (minutes)
+     */
+    private double kpiNptMinStaticMinutes = 30.0;
+
+    /**
+     * How long the current run of a rig is cached by the activity KPI engine (ms)
+     */
+    private long kpiRunLookupTtlMs = 60_000L;
+
+    /**
+     * How often changed activity KPI aggregates are written to dr_activity_kpis (ms)
+     */
+    private long kpiFlushIntervalMs = 30_000L;
+
+    /**
+     * Activity KPI aggregates not touched for this long are dropped from memory; they are reloaded on demand (ms)
+     */
+    private long kpiAggregateIdleMs = 3_600_000L;
+
+    /**
+     * Cell size of the anti-collision grid (ft)
+     */
+    private double antiCollisionCellSizeFt = 200.0;
+
+    /**
+     * Default radius around the reference well searched for offset wells (ft)
+     */
+    private double antiCollisionScanRadiusFt = 1000.0;
+
+    /**
+     * Position uncertainty growth when a station carries no uncertainty (ft per 1000 ft MD)
+     */
+    private double antiCollisionUncertaintyFtPer1000Ft = 5.0;
+
+    /**
+     * Separation factor below which an offset raises a warning
+     */
+    private double antiCollisionWarningSeparationFactor = 1.5;
+
+    /**
+     * Separation factor below which drilling should stop
+     */
+    private double antiCollisionStopSeparationFactor = 1.0;
+
+    /**
+     * How long a compiled run mechanics context (bit, string, mud, survey) is reused (ms)
+     */
+    private long mechanicsContextTtlMs = 300_000L;
+
+    /**
+     * Base bin size of the depth-binned mud log projection (ft)
+     */
+    private double mudLogBinSizeFt = 10.0;
+
+    /**
+     * Maximum bins returned by a mud log depth track before bins are rolled up
+     */
+    private int mudLogTrackMaxBins = 500;
+
+    /**
+     * How long a tenant's rig registry snapshot is served before a full reload (ms)
+     */
+    private long rigRegistryTtlMs = 300_000L;
+
+    /**
+     * WITS0 item code (RRII) to telemetry key overrides, merged over the record 01 defaults
+     */
+    private Map<String, String> witsChannelMap = new HashMap<>();
+
+    /**
+     * WITSML curve mnemonic to telemetry key overrides, merged over the default rig site mnemonics
+     */
+    private Map<String, String> witsmlMnemonicMap = new HashMap<>();
+
+    /**
+     * TTL of ingested drilling telemetry in seconds (0 = tenant/system default)
+     */
+    private long ingestTtlSeconds = 0L;
+
     /**
      * Timeout for REST calls in milliseconds
      */
@@ -0,0 +1,93 @@
+/**
+ * Copyright © 2016-2026 The Thingsboard Authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.thingsboard.nexus.dr.controller;
+
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.Parameter;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.web.bind.annotation.*;
+import org.thingsboard.nexus.dr.dto.anticollision.AntiCollisionResultDto;
+import org.thingsboard.nexus.dr.dto.anticollision.AntiCollisionStationDto;
+import org.thingsboard.nexus.dr.dto.anticollision.AntiCollisionWellDto;
+import org.thingsboard.nexus.dr.service.DrAntiCollisionService;
+
+import java.util.UUID;
+
+/**
+ * REST Controller for anti-collision proximity between offset wells.
+ */
+@RestController
+@RequestMapping("/api/nexus/dr/anti-collision")
+@RequiredArgsConstructor
+@Slf4j
+@Tag(name = "DR Anti-Collision", description = "Wellbore proximity and separation factor API")
+public class DrAntiCollisionController {
+
+    private final DrAntiCollisionService antiCollisionService;
+
+    @PutMapping("/fields/{fieldId}/wells/{wellId}")
+    @PreAuthorize("hasAnyAuthority('TENANT_ADMIN')")
+    @Operation(summary = "Register Well",
+            description = "Adds a well to the anti-collision index of a pad / field and loads its definitive surveys.")
+    public ResponseEntity<AntiCollisionWellDto> registerWell(
+            @Parameter(description = "Pad / field ID") @PathVariable UUID fieldId,
+            @Parameter(description = "Well ID") @PathVariable UUID wellId,
+            @RequestBody AntiCollisionWellDto well) {
+        log.debug("Registering well {} in anti-collision field {}", wellId, fieldId);
+        return ResponseEntity.ok(antiCollisionService.registerWell(fieldId, wellId,
+                well.getSurfaceNorthFt(), well.getSurfaceEastFt()));
+    }
+
+    @DeleteMapping("/wells/{wellId}")
+    @PreAuthorize("hasAnyAuthority('TENANT_ADMIN')")
+    @Operation(summary = "Unregister Well",
+            description = "Removes a well from its anti-collision index.")
+    public ResponseEntity<Void> unregisterWell(
+            @Parameter(description = "Well ID") @PathVariable UUID wellId) {
+        log.debug("Unregistering well {} from anti-collision", wellId);
+        antiCollisionService.unregisterWell(wellId);
+        return ResponseEntity.noContent().build();
+    }
+
+    @PostMapping("/wells/{wellId}/stations")
+    @PreAuthorize("hasAnyAuthority('TENANT_ADMIN')")
+    @Operation(summary = "Record Survey Station",
+            description = "Feeds a definitive station from the survey processing node into the index of the well's field.")
+    public ResponseEntity<Void> recordStation(
+            @Parameter(description = "Well ID") @PathVariable UUID wellId,
+            @RequestBody AntiCollisionStationDto station) {
+        log.debug("Recording anti-collision station for well {} at MD {} ft", wellId, station.getMdFt());
+        antiCollisionService.recordStation(wellId, station);
+        return ResponseEntity.ok().build();
+    }
+
+    @GetMapping("/wells/{wellId}/closest-approach")
+    @PreAuthorize("hasAnyAuthority('TENANT_ADMIN', 'CUSTOMER_USER')")
+    @Operation(summary = "Get Closest Approach",
+            description = "Closest approach and separation factor to every offset well within the scan radius. " +
+                    "Without fromMdFt only the deepest station is checked.")
+    public ResponseEntity<AntiCollisionResultDto> getClosestApproach(
+            @Parameter(description = "Well ID") @PathVariable UUID wellId,
+            @Parameter(description = "Check reference stations from this MD down (ft)") @RequestParam(required = false) Double fromMdFt,
+            @Parameter(description = "Scan radius (ft)") @RequestParam(required = false) Double scanRadiusFt) {
+        log.debug("Getting closest approach for well {}", wellId);
+        return ResponseEntity.ok(antiCollisionService.getClosestApproach(wellId, fromMdFt, scanRadiusFt));
+    }
+}
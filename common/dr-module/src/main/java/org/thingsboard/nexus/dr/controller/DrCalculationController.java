@@ -16,6 +16,7 @@
 package org.thingsboard.nexus.dr.controller;
 
 import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.Parameter;
 import io.swagger.v3.oas.annotations.tags.Tag;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
@@ -24,8 +25,10 @@ import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.web.bind.annotation.*;
 import org.thingsboard.nexus.dr.dto.calculation.*;
 import org.thingsboard.nexus.dr.service.DrCalculationService;
+import org.thingsboard.nexus.dr.service.DrMechanicsContextService;
 
 import jakarta.validation.Valid;
+import java.util.UUID;
 
 /**
  * REST Controller for drilling engineering calculations.
@@ -38,6 +41,7 @@ import jakarta.validation.Valid;
 public class DrCalculationController {
 
     private final DrCalculationService calculationService;
+    private final DrMechanicsContextService mechanicsContextService;
 
     // --- MSE Calculation ---
 
@@ -158,6 +162,41 @@ public class DrCalculationController {
         return ResponseEntity.ok(results);
     }
 
+    // --- Real-time Run Mechanics ---
+
+    @GetMapping("/runs/{runId}/context")
+    @PreAuthorize("hasAnyAuthority('TENANT_ADMIN', 'CUSTOMER_USER')")
+    @Operation(summary = "Get run mechanics context",
+            description = "Returns the cached bit, string, mud and survey context used for real-time calculations of a run.")
+    public ResponseEntity<DrMechanicsContextDto> getRunContext(
+            @Parameter(description = "Run ID") @PathVariable UUID runId) {
+        return ResponseEntity.ok(mechanicsContextService.getContext(runId));
+    }
+
+    @PutMapping("/runs/{runId}/context")
+    @PreAuthorize("hasAnyAuthority('TENANT_ADMIN', 'CUSTOMER_USER')")
+    @Operation(summary = "Set run mechanics context",
+            description = "Overrides string, mud rheology and friction of a run. Null fields fall back to the run, BHA or defaults.")
+    public ResponseEntity<DrMechanicsContextDto> updateRunContext(
+            @Parameter(description = "Run ID") @PathVariable UUID runId,
+            @RequestBody DrMechanicsContextDto context) {
+        return ResponseEntity.ok(mechanicsContextService.updateContext(runId, context));
+    }
+
+    @PostMapping("/runs/{runId}/realtime")
+    @PreAuthorize("hasAnyAuthority('TENANT_ADMIN', 'CUSTOMER_USER')")
+    @Operation(summary = "Real-time run mechanics",
+            description = "Evaluates MSE, ECD, bit hydraulics and survey-integrated torque & drag for sensor samples of a run.")
+    public ResponseEntity<java.util.List<DrRealtimeMechanicsResultDto>> evaluateRealtime(
+            @Parameter(description = "Run ID") @PathVariable UUID runId,
+            @RequestBody java.util.List<DrRealtimeSampleDto> samples) {
+        log.debug("Evaluating {} real-time samples for run {}", samples.size(), runId);
+        java.util.List<DrRealtimeMechanicsResultDto> results = samples.stream()
+                .map(sample -> mechanicsContextService.evaluate(runId, sample))
+                .toList();
+        return ResponseEntity.ok(results);
+    }
+
     // --- Utility Endpoints ---
 
     @GetMapping("/formulas")
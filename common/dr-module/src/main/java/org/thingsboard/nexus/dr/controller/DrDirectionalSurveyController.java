@@ -25,6 +25,7 @@ import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 import org.thingsboard.nexus.dr.dto.DrDirectionalSurveyDto;
+import org.thingsboard.nexus.dr.dto.DrTrajectoryRecalculationResultDto;
 import org.thingsboard.nexus.dr.model.DrDirectionalSurvey;
 import org.thingsboard.nexus.dr.model.enums.SurveyType;
 import org.thingsboard.nexus.dr.service.DrDirectionalSurveyService;
@@ -159,20 +160,18 @@ public class DrDirectionalSurveyController {
     // --- Trajectory Calculation Endpoints ---
 
     @PostMapping("/run/{runId}/recalculate")
-    public ResponseEntity<Void> recalculateTrajectory(@PathVariable UUID runId) {
+    public ResponseEntity<DrTrajectoryRecalculationResultDto> recalculateTrajectory(@PathVariable UUID runId) {
         log.info("REST request to recalculate trajectory for run: {}", runId);
-        surveyService.recalculateEntireTrajectory(runId);
-        return ResponseEntity.ok().build();
+        return ResponseEntity.ok(surveyService.recalculateEntireTrajectory(runId));
     }
 
     @PostMapping("/run/{runId}/recalculate-from")
-    public ResponseEntity<Void> recalculateTrajectoryFromDepth(
+    public ResponseEntity<DrTrajectoryRecalculationResultDto> recalculateTrajectoryFromDepth(
             @PathVariable UUID runId,
             @RequestParam BigDecimal fromDepth) {
 
         log.info("REST request to recalculate trajectory for run {} from depth {} ft", runId, fromDepth);
-        surveyService.recalculateTrajectoryFromDepth(runId, fromDepth);
-        return ResponseEntity.ok().build();
+        return ResponseEntity.ok(surveyService.recalculateTrajectoryFromDepth(runId, fromDepth));
     }
 
     // --- Analysis Endpoints ---
@@ -0,0 +1,86 @@
+/**
+ * Copyright © 2016-2026 The Thingsboard Authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.thingsboard.nexus.dr.controller;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+import org.thingsboard.nexus.dr.dto.ingest.DrIngestResultDto;
+import org.thingsboard.nexus.dr.ingest.DrDrillingIngestService;
+import org.thingsboard.server.common.data.EntityType;
+import org.thingsboard.server.common.data.id.EntityId;
+import org.thingsboard.server.common.data.id.EntityIdFactory;
+
+import java.util.UUID;
+
+/**
+ * REST Controller for high-rate drilling data ingest (WITS0 streams and WITSML log chunks)
+ */
+@RestController
+@RequestMapping("/api/nexus/dr/ingest")
+@RequiredArgsConstructor
+@Slf4j
+public class DrIngestController {
+
+    private final DrDrillingIngestService ingestService;
+
+    @PostMapping(value = "/tenant/{tenantId}/entity/{entityId}/wits0", consumes = MediaType.TEXT_PLAIN_VALUE)
+    public ResponseEntity<DrIngestResultDto> ingestWits(
+            @PathVariable UUID tenantId,
+            @PathVariable UUID entityId,
+            @RequestParam(defaultValue = "ASSET") EntityType entityType,
+            @RequestBody String chunk) {
+        log.trace("REST request to ingest WITS0 chunk for entity: {}", entityId);
+        return ResponseEntity.ok(ingestService.ingestWits(tenantId, toEntityId(entityType, entityId), chunk));
+    }
+
+    @PostMapping(value = "/tenant/{tenantId}/entity/{entityId}/witsml",
+            consumes = {MediaType.APPLICATION_XML_VALUE, MediaType.TEXT_XML_VALUE})
+    public ResponseEntity<DrIngestResultDto> ingestWitsml(
+            @PathVariable UUID tenantId,
+            @PathVariable UUID entityId,
+            @RequestParam(defaultValue = "ASSET") EntityType entityType,
+            @RequestBody String xml) {
+        log.trace("REST request to ingest WITSML log chunk for entity: {}", entityId);
+        return ResponseEntity.ok(ingestService.ingestWitsml(tenantId, toEntityId(entityType, entityId), xml));
+    }
+
+    @DeleteMapping("/entity/{entityId}/wits0")
+    public ResponseEntity<Void> resetWitsStream(@PathVariable UUID entityId) {
+        log.debug("REST request to reset WITS0 stream of entity: {}", entityId);
+        ingestService.resetWitsStream(entityId);
+        return ResponseEntity.noContent().build();
+    }
+
+    @PostMapping("/tenant/{tenantId}/entity/{entityId}/simulate")
+    public ResponseEntity<DrIngestResultDto> simulate(
+            @PathVariable UUID tenantId,
+            @PathVariable UUID entityId,
+            @RequestParam(defaultValue = "ASSET") EntityType entityType,
+            @RequestParam(defaultValue = "300") int frames,
+            @RequestParam(defaultValue = "1000") long periodMs,
+            @RequestParam(defaultValue = "8000") double startDepthFt) {
+        log.debug("REST request to simulate {} WITS0 frames for entity: {}", frames, entityId);
+        return ResponseEntity.ok(ingestService.simulateWits(tenantId, toEntityId(entityType, entityId),
+                frames, periodMs, startDepthFt));
+    }
+
+    private static EntityId toEntityId(EntityType entityType, UUID entityId) {
+        return EntityIdFactory.getByTypeAndUuid(entityType, entityId);
+    }
+}
@@ -94,6 +94,41 @@ public class DrKpiController {
         return ResponseEntity.ok(kpis);
     }
 
+    @GetMapping("/rigs/{rigId}/connection-time")
+    @PreAuthorize("hasAnyAuthority('TENANT_ADMIN', 'CUSTOMER_USER')")
+    @Operation(summary = "Get Rig Connection Time KPIs",
+            description = "Retrieves the measured connection time distribution of a rig.")
+    public ResponseEntity<ConnectionTimeKpiDto> getRigConnectionTimeKpis(
+            @Parameter(description = "Rig ID") @PathVariable UUID rigId) {
+        log.debug("Getting connection time KPIs for rig: {}", rigId);
+        return ResponseEntity.ok(kpiService.getRigConnectionTimeKpis(rigId));
+    }
+
+    @GetMapping("/wells/{wellId}/connection-time")
+    @PreAuthorize("hasAnyAuthority('TENANT_ADMIN', 'CUSTOMER_USER')")
+    @Operation(summary = "Get Well Connection Time KPIs",
+            description = "Retrieves the measured connection time distribution of a well.")
+    public ResponseEntity<ConnectionTimeKpiDto> getWellConnectionTimeKpis(
+            @Parameter(description = "Well ID") @PathVariable UUID wellId) {
+        log.debug("Getting connection time KPIs for well: {}", wellId);
+        return ResponseEntity.ok(kpiService.getWellConnectionTimeKpis(wellId));
+    }
+
+    // --- Rig State Transitions ---
+
+    @PostMapping("/rigs/{rigId}/state-transitions")
+    @PreAuthorize("hasAnyAuthority('TENANT_ADMIN')")
+    @Operation(summary = "Record Rig State Transition",
+            description = "Feeds a transition from the rig state detection node into the connection, trip and NPT aggregates.")
+    public ResponseEntity<Void> recordStateTransition(
+            @Parameter(description = "Rig ID") @PathVariable UUID rigId,
+            @RequestBody RigStateTransitionDto transition) {
+        log.debug("Recording rig state transition for rig {}: {} -> {}", rigId,
+                transition.getPreviousRigState(), transition.getRigState());
+        kpiService.recordStateTransition(rigId, transition);
+        return ResponseEntity.ok().build();
+    }
+
     // --- Drilling Efficiency KPIs ---
 
     @GetMapping("/runs/{runId}/efficiency")
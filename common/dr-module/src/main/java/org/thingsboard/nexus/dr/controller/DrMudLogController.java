@@ -24,6 +24,7 @@ import org.springframework.data.domain.Sort;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.thingsboard.nexus.dr.dto.DrMudLogDepthTrackDto;
 import org.thingsboard.nexus.dr.dto.DrMudLogDto;
 import org.thingsboard.nexus.dr.model.DrMudLog;
 import org.thingsboard.nexus.dr.model.enums.LithologyType;
@@ -307,6 +308,18 @@ public class DrMudLogController {
         return ResponseEntity.ok(mudLogs);
     }
 
+    @GetMapping("/run/{runId}/depth-track")
+    public ResponseEntity<DrMudLogDepthTrackDto> getDepthTrack(
+            @PathVariable UUID runId,
+            @RequestParam(required = false) Double fromDepth,
+            @RequestParam(required = false) Double toDepth,
+            @RequestParam(required = false) Double binSizeFt) {
+
+        log.debug("REST request to get mud log depth track {} - {} ft for run: {}", fromDepth, toDepth, runId);
+        DrMudLogDepthTrackDto track = mudLogService.getDepthTrack(runId, fromDepth, toDepth, binSizeFt);
+        return ResponseEntity.ok(track);
+    }
+
     @GetMapping("/run/{runId}/deepest")
     public ResponseEntity<DrMudLogDto> getDeepestMudLog(@PathVariable UUID runId) {
         log.debug("REST request to get deepest Mud Log for run: {}", runId);
@@ -0,0 +1,74 @@
+/**
+ * Copyright © 2016-2026 The Thingsboard Authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.thingsboard.nexus.dr.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.thingsboard.nexus.dr.model.enums.LithologyType;
+
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+/**
+ * Composite mud log depth track of a run: ROP, gas, lithology and show aggregates per depth bin
+ * plus the totals of the requested window, served from the depth-binned projection.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class DrMudLogDepthTrackDto {
+
+    private UUID runId;
+    private Double fromDepthFt;
+    private Double toDepthFt;
+    private Double binSizeFt;
+
+    // --- Window totals ---
+    private Long sampleCount;
+    private Double avgRopFtHr;
+    private Double maxRopFtHr;
+    private Double maxTotalGasUnits;
+    private Double avgBackgroundGasUnits;
+    private Long oilShowCount;
+    private Map<LithologyType, Long> lithologyDistribution;
+
+    private List<DepthBin> bins;
+
+    private long elapsedMs;
+
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    @Builder
+    public static class DepthBin {
+        private Double topFt;
+        private Double bottomFt;
+        private Long samples;
+        private Double avgRopFtHr;
+        private Double minRopFtHr;
+        private Double maxRopFtHr;
+        private Double avgTotalGasUnits;
+        private Double maxTotalGasUnits;
+        private Double avgBackgroundGasUnits;
+        private LithologyType dominantLithology;
+        private Map<LithologyType, Long> lithology;
+        private Long oilShows;
+    }
+}
@@ -0,0 +1,46 @@
+/**
+ * Copyright © 2016-2026 The Thingsboard Authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.thingsboard.nexus.dr.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+import java.util.UUID;
+
+/**
+ * Outcome and timings of a trajectory recalculation.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class DrTrajectoryRecalculationResultDto {
+
+    private UUID runId;
+    private BigDecimal fromDepthFt;
+
+    private int stationsLoaded;         // Including the preceding (anchor) station
+    private int stationsRecalculated;
+    private int stationsUpdated;        // Stations whose calculated values changed
+
+    private long loadMs;
+    private long computeMs;
+    private long writeMs;
+    private long elapsedMs;
+}
@@ -0,0 +1,62 @@
+/**
+ * Copyright © 2016-2026 The Thingsboard Authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.thingsboard.nexus.dr.dto.anticollision;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Closest approach of a well to every offset well of its field within the scan radius.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class AntiCollisionResultDto {
+
+    private UUID fieldId;
+    private UUID wellId;
+    private double fromMdFt;
+    private double scanRadiusFt;
+
+    private List<OffsetWell> offsets;     // Ordered by separation factor, lowest first
+    private String level;                 // Worst level across offsets
+
+    private long elapsedMs;
+
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    @Builder
+    public static class OffsetWell {
+        private UUID wellId;
+        private double closestDistanceFt;
+        private double referenceMdFt;     // Reference MD at the closest approach
+        private double offsetMdFt;        // Offset MD at the closest approach
+        private Double separationFactor;  // Null when no uncertainty applies
+        private String level;             // OK, WARNING, STOP
+    }
+
+    // Alarm levels
+    public static final String LEVEL_OK = "OK";
+    public static final String LEVEL_WARNING = "WARNING";
+    public static final String LEVEL_STOP = "STOP";
+}
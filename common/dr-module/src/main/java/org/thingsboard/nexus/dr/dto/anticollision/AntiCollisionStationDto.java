@@ -0,0 +1,41 @@
+/**
+ * Copyright © 2016-2026 The Thingsboard Authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.thingsboard.nexus.dr.dto.anticollision;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Definitive survey station as produced by the survey processing rule node (well-local coordinates).
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class AntiCollisionStationDto {
+
+    private Double mdFt;
+    private Double tvdFt;
+    private Double northingFt;
+    private Double eastingFt;
+
+    /**
+     * Position uncertainty radius (ft), optional; derived from MD when absent
+     */
+    private Double uncertaintyFt;
+}
@@ -0,0 +1,91 @@
+/**
+ * Copyright © 2016-2026 The Thingsboard Authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.thingsboard.nexus.dr.dto.calculation;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.UUID;
+
+/**
+ * Static mechanics context of a run: string, bit and mud properties that do not change between
+ * sensor samples. Sent as overrides; returned with the effective values used by the engine.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class DrMechanicsContextDto {
+
+    private UUID runId;
+
+    /**
+     * Bit diameter (inches), defaults to the BHA bit size
+     */
+    private Double bitDiameterIn;
+
+    /**
+     * Bit total flow area (sq.in), defaults to the BHA TFA
+     */
+    private Double bitTfaSqIn;
+
+    /**
+     * Open hole diameter (inches), defaults to the run hole size
+     */
+    private Double holeIdIn;
+
+    /**
+     * Drill pipe outside diameter (inches)
+     */
+    private Double pipeOdIn;
+
+    /**
+     * Drill string weight in air (lbs/ft)
+     */
+    private Double stringWeightLbsPerFt;
+
+    /**
+     * Mud weight (ppg), defaults to the run mud weight
+     */
+    private Double mudWeightPpg;
+
+    /**
+     * Plastic viscosity (cP)
+     */
+    private Double plasticViscosityCp;
+
+    /**
+     * Yield point (lbf/100sqft)
+     */
+    private Double yieldPointLbf100sqft;
+
+    /**
+     * Friction coefficient for torque & drag
+     */
+    private Double frictionCoefficient;
+
+    /**
+     * Definitive survey stations the torque & drag model integrates over (read only)
+     */
+    private Integer surveyStations;
+
+    /**
+     * When the context was compiled (read only)
+     */
+    private Long compiledTime;
+}
@@ -0,0 +1,65 @@
+/**
+ * Copyright © 2016-2026 The Thingsboard Authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.thingsboard.nexus.dr.dto.calculation;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.UUID;
+
+/**
+ * MSE, ECD, bit hydraulics and survey-integrated torque & drag for one real-time sample.
+ * Components whose inputs were missing from the sample are null.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class DrRealtimeMechanicsResultDto {
+
+    private UUID runId;
+
+    private Long timestamp;
+
+    private Double tvdFt;
+
+    // MSE
+    private Double msePsi;
+    private Double mseRotationalPsi;
+    private Double mseAxialPsi;
+
+    // ECD
+    private Double annularPressureLossPsi;
+    private Double ecdPpg;
+    private Double bottomHolePressurePsi;
+
+    // Bit hydraulics
+    private Double jetVelocityFtSec;
+    private Double bitPressureDropPsi;
+    private Double hsiHpPerSqIn;
+    private Double impactForceLbs;
+    private Double percentPressureAtBit;
+
+    // Torque & drag (soft-string along the survey)
+    private Double rotatingHookLoadLbs;
+    private Double trippingInHookLoadLbs;
+    private Double trippingOutHookLoadLbs;
+    private Double slidingHookLoadLbs;
+    private Double modelSurfaceTorqueFtLbs;
+    private Double maxSideForceLbs;
+}
@@ -0,0 +1,56 @@
+/**
+ * Copyright © 2016-2026 The Thingsboard Authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.thingsboard.nexus.dr.dto.calculation;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * One surface sensor sample evaluated against the cached mechanics context of a run.
+ * Values that are not measured may be left null.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class DrRealtimeSampleDto {
+
+    private Long timestamp;
+
+    /**
+     * Bit depth (ft MD)
+     */
+    private Double bitDepthFt;
+
+    /**
+     * TVD at the bit (ft), interpolated from the survey when null
+     */
+    private Double tvdFt;
+
+    private Double wobKlbs;
+
+    private Double rpm;
+
+    private Double torqueFtLbs;
+
+    private Double ropFtHr;
+
+    private Double flowRateGpm;
+
+    private Double standpipePressurePsi;
+}
@@ -21,6 +21,7 @@ import lombok.Data;
 import lombok.NoArgsConstructor;
 
 import java.math.BigDecimal;
+import java.util.UUID;
 
 /**
  * Request DTO for Torque and Drag calculation.
@@ -57,7 +58,7 @@ public class TorqueDragCalculationRequest {
     private BigDecimal totalDepthFt;
 
     /**
-     * Average inclination along hole (degrees)
+     * Average inclination along hole (degrees), used when no run survey is available
      */
     private BigDecimal avgInclinationDeg;
 
@@ -65,4 +66,9 @@ public class TorqueDragCalculationRequest {
      * Pipe outside diameter (inches)
      */
     private BigDecimal pipeOdIn;
+
+    /**
+     * Optional run whose definitive survey the soft-string model is integrated over
+     */
+    private UUID runId;
 }
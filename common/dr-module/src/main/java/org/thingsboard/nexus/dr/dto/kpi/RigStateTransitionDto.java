@@ -0,0 +1,68 @@
+/**
+ * Copyright © 2016-2026 The Thingsboard Authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.thingsboard.nexus.dr.dto.kpi;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.UUID;
+
+/**
+ * Rig state transition as emitted by the rig state detection rule node.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class RigStateTransitionDto {
+
+    /**
+     * Run the transition belongs to (optional, defaults to the rig's current run)
+     */
+    private UUID runId;
+
+    /**
+     * Well the transition belongs to (optional, defaults to the run's well)
+     */
+    private UUID wellId;
+
+    /**
+     * State that just ended
+     */
+    private String previousRigState;
+
+    /**
+     * Duration of the state that just ended (ms)
+     */
+    private Long previousStateDurationMs;
+
+    /**
+     * State that just started
+     */
+    private String rigState;
+
+    /**
+     * Start of the new state (epoch ms)
+     */
+    private Long stateChangeTime;
+
+    /**
+     * Bit depth at the transition (ft)
+     */
+    private Double bitDepth;
+}
@@ -0,0 +1,98 @@
+/**
+ * Copyright © 2016-2026 The Thingsboard Authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.thingsboard.nexus.dr.ingest;
+
+import java.util.Arrays;
+
+/**
+ * Decoded drilling samples in primitive columns: one timestamp per row and one double per
+ * row and channel, {@code NaN} where a channel had no value in that row.
+ */
+public final class DrChannelBatch {
+
+    private final String[] channels;
+    private final int width;
+    private long[] ts;
+    private double[] values;
+    private int rows;
+    private int skippedRows;
+
+    public DrChannelBatch(String[] channels, int initialRows) {
+        this.channels = channels;
+        this.width = channels.length;
+        int capacity = Math.max(1, initialRows);
+        this.ts = new long[capacity];
+        this.values = new double[capacity * Math.max(1, width)];
+    }
+
+    /**
+     * Append an empty row and return its index.
+     */
+    public int addRow(long timestamp) {
+        if (rows == ts.length) {
+            ts = Arrays.copyOf(ts, rows * 2);
+            values = Arrays.copyOf(values, rows * 2 * Math.max(1, width));
+        }
+        ts[rows] = timestamp;
+        Arrays.fill(values, rows * width, (rows + 1) * width, Double.NaN);
+        return rows++;
+    }
+
+    public void set(int row, int channel, double value) {
+        values[row * width + channel] = value;
+    }
+
+    public double getValue(int row, int channel) {
+        return values[row * width + channel];
+    }
+
+    public long getTs(int row) {
+        return ts[row];
+    }
+
+    public int getRowCount() {
+        return rows;
+    }
+
+    public int getChannelCount() {
+        return width;
+    }
+
+    public String getChannel(int channel) {
+        return channels[channel];
+    }
+
+    /**
+     * Count a source row that was dropped because it had no usable timestamp.
+     */
+    public void skipRow() {
+        skippedRows++;
+    }
+
+    public int getSkippedRows() {
+        return skippedRows;
+    }
+
+    public int getPointCount() {
+        int points = 0;
+        for (int i = 0, n = rows * width; i < n; i++) {
+            if (!Double.isNaN(values[i])) {
+                points++;
+            }
+        }
+        return points;
+    }
+}
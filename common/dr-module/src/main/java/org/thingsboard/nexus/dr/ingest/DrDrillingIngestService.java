@@ -0,0 +1,185 @@
+/**
+ * Copyright © 2016-2026 The Thingsboard Authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.thingsboard.nexus.dr.ingest;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Service;
+import org.thingsboard.nexus.dr.config.DrModuleConfiguration;
+import org.thingsboard.nexus.dr.dto.ingest.DrIngestResultDto;
+import org.thingsboard.nexus.dr.exception.DrBusinessException;
+import org.thingsboard.server.common.data.id.EntityId;
+import org.thingsboard.server.common.data.id.TenantId;
+import org.thingsboard.server.common.data.kv.BasicTsKvEntry;
+import org.thingsboard.server.common.data.kv.DoubleDataEntry;
+import org.thingsboard.server.common.data.kv.TsKvEntry;
+import org.thingsboard.server.dao.nexus.TelemetryIngestBridge;
+
+import java.util.ArrayList;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+
+/**
+ * Drilling data ingest: decodes WITS0 streams and WITSML log chunks into column batches and
+ * hands each chunk to the rule engine as telemetry of the entity, so it is saved and processed by
+ * the entity's rule chain (drilling rule nodes, calculated fields, subscriptions) like device data.
+ * A chunk is acknowledged once all its samples were accepted by the rule engine queue.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class DrDrillingIngestService {
+
+    public static final String FORMAT_WITS0 = "WITS0";
+    public static final String FORMAT_WITSML = "WITSML";
+
+    private final TelemetryIngestBridge telemetryIngestBridge;
+    private final DrModuleConfiguration config;
+
+    // WITS0 decoders keep partial frames between chunks of the same stream
+    private final Map<UUID, DrWitsDecoder> witsStreams = new ConcurrentHashMap<>();
+
+    private volatile DrWitsmlLogDecoder witsmlDecoder;
+
+    /**
+     * Ingest a chunk of a WITS0 stream sent by an entity (rig or rig gateway).
+     */
+    public DrIngestResultDto ingestWits(UUID tenantId, EntityId entityId, String chunk) {
+        long start = System.currentTimeMillis();
+        DrWitsDecoder decoder = witsStreams.computeIfAbsent(entityId.getId(),
+                id -> DrWitsDecoder.withDefaults(config.getWitsChannelMap()));
+        DrChannelBatch batch;
+        long ignored;
+        synchronized (decoder) {
+            long ignoredBefore = decoder.getIgnoredItems();
+            batch = decoder.decode(chunk, start);
+            ignored = decoder.getIgnoredItems() - ignoredBefore;
+        }
+        save(TenantId.fromUUID(tenantId), entityId, List.of(batch));
+        return result(FORMAT_WITS0, List.of(batch), ignored, start);
+    }
+
+    /**
+     * Ingest a WITSML {@code <logs>} chunk for an entity.
+     */
+    public DrIngestResultDto ingestWitsml(UUID tenantId, EntityId entityId, String xml) {
+        long start = System.currentTimeMillis();
+        List<DrChannelBatch> batches;
+        try {
+            batches = witsmlDecoder().decode(xml);
+        } catch (IllegalArgumentException e) {
+            throw new DrBusinessException(e.getMessage(), e);
+        }
+        save(TenantId.fromUUID(tenantId), entityId, batches);
+        long skipped = 0;
+        for (DrChannelBatch batch : batches) {
+            skipped += batch.getSkippedRows();
+        }
+        return result(FORMAT_WITSML, batches, skipped, start);
+    }
+
+    /**
+     * Drop the partial frame state of a WITS0 stream (e.g. after the rig link reconnects).
+     */
+    public void resetWitsStream(UUID entityId) {
+        witsStreams.remove(entityId);
+    }
+
+    /**
+     * Generate and ingest {@code frames} simulated WITS0 frames ending now.
+     */
+    public DrIngestResultDto simulateWits(UUID tenantId, EntityId entityId, int frames, long periodMs, double startDepthFt) {
+        long startTs = System.currentTimeMillis() - (long) frames * periodMs;
+        String stream = new DrWitsSimulator(startDepthFt, entityId.getId().getLeastSignificantBits())
+                .frames(startTs, frames, periodMs);
+        return ingestWits(tenantId, entityId, stream);
+    }
+
+    private DrWitsmlLogDecoder witsmlDecoder() {
+        DrWitsmlLogDecoder decoder = witsmlDecoder;
+        if (decoder == null) {
+            decoder = DrWitsmlLogDecoder.withDefaults(config.getWitsmlMnemonicMap());
+            witsmlDecoder = decoder;
+        }
+        return decoder;
+    }
+
+    private void save(TenantId tenantId, EntityId entityId, List<DrChannelBatch> batches) {
+        List<TsKvEntry> entries = new ArrayList<>();
+        for (DrChannelBatch batch : batches) {
+            int rows = batch.getRowCount();
+            int channels = batch.getChannelCount();
+            for (int r = 0; r < rows; r++) {
+                long ts = batch.getTs(r);
+                for (int c = 0; c < channels; c++) {
+                    double value = batch.getValue(r, c);
+                    if (!Double.isNaN(value)) {
+                        entries.add(new BasicTsKvEntry(ts, new DoubleDataEntry(batch.getChannel(c), value)));
+                    }
+                }
+            }
+        }
+        if (entries.isEmpty()) {
+            return;
+        }
+        try {
+            telemetryIngestBridge.pushTelemetry(tenantId, entityId, entries, config.getIngestTtlSeconds()).get();
+            log.trace("Ingested {} drilling points for entity {}", entries.size(), entityId);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new RuntimeException("Interrupted while ingesting drilling telemetry", e);
+        } catch (ExecutionException e) {
+            log.error("Error ingesting drilling telemetry for entity {}: {}", entityId, e.getCause().getMessage());
+            throw new RuntimeException("Failed to ingest drilling telemetry", e.getCause());
+        }
+    }
+
+    private static DrIngestResultDto result(String format, List<DrChannelBatch> batches, long ignored, long start) {
+        int rows = 0;
+        int points = 0;
+        Long firstTs = null;
+        Long lastTs = null;
+        Set<String> channels = new LinkedHashSet<>();
+        for (DrChannelBatch batch : batches) {
+            rows += batch.getRowCount();
+            points += batch.getPointCount();
+            for (int c = 0; c < batch.getChannelCount(); c++) {
+                channels.add(batch.getChannel(c));
+            }
+            if (batch.getRowCount() > 0) {
+                long first = batch.getTs(0);
+                long last = batch.getTs(batch.getRowCount() - 1);
+                firstTs = firstTs == null ? first : Math.min(firstTs, first);
+                lastTs = lastTs == null ? last : Math.max(lastTs, last);
+            }
+        }
+        return DrIngestResultDto.builder()
+                .format(format)
+                .rows(rows)
+                .points(points)
+                .channels(new ArrayList<>(channels))
+                .ignoredItems(ignored)
+                .firstTs(firstTs)
+                .lastTs(lastTs)
+                .elapsedMs(System.currentTimeMillis() - start)
+                .build();
+    }
+}
@@ -0,0 +1,231 @@
+/**
+ * Copyright © 2016-2026 The Thingsboard Authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.thingsboard.nexus.dr.ingest;
+
+import java.time.DateTimeException;
+import java.time.LocalDate;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Stateful decoder of a WITS level 0 stream.
+ * <p>
+ * A frame starts with {@code &&}, ends with {@code !!} and carries one {@code RRIIvalue} line per
+ * item (two digit record, two digit item). Chunks may split frames and lines anywhere; incomplete
+ * input is kept until the next chunk. Each complete frame becomes one row of a
+ * {@link DrChannelBatch}, timestamped from the record date/time items (0105 YYMMDD, 0106 HHMMSS,
+ * UTC) when present and otherwise from the receive time. Items without a channel mapping are
+ * skipped and counted.
+ */
+public final class DrWitsDecoder {
+
+    /**
+     * WITS record 01 (general time based) items mapped to the telemetry keys read by the drilling rule nodes.
+     */
+    public static final Map<String, String> DEFAULT_CHANNELS;
+
+    static {
+        Map<String, String> channels = new LinkedHashMap<>();
+        channels.put("0108", "bitDepth");
+        channels.put("0110", "holeDepth");
+        channels.put("0112", "blockPosition");
+        channels.put("0113", "rop");
+        channels.put("0114", "hookLoad");
+        channels.put("0116", "wob");
+        channels.put("0118", "torque");
+        channels.put("0120", "rpm");
+        channels.put("0121", "spp");
+        channels.put("0126", "pitVolume");
+        channels.put("0129", "flowOut");
+        channels.put("0130", "flowIn");
+        channels.put("0131", "mudWeightOut");
+        channels.put("0132", "mudWeightIn");
+        channels.put("0137", "pumpStrokes");
+        channels.put("0140", "totalGas");
+        DEFAULT_CHANNELS = channels;
+    }
+
+    private static final int ITEM_DATE = 105;
+    private static final int ITEM_TIME = 106;
+
+    private final String[] channels;
+    private final int[] channelByItem = new int[10000];
+    private final StringBuilder line = new StringBuilder(64);
+
+    private final double[] frame;
+    private boolean inFrame;
+    private boolean frameHasValues;
+    private int frameDate = -1;
+    private int frameTime = -1;
+    private long lastTs = Long.MIN_VALUE;
+    private long ignoredItems;
+
+    public DrWitsDecoder(Map<String, String> itemToChannel) {
+        Map<String, Integer> channelIndex = new LinkedHashMap<>();
+        Arrays.fill(channelByItem, -1);
+        for (Map.Entry<String, String> entry : itemToChannel.entrySet()) {
+            int item = Integer.parseInt(entry.getKey().trim());
+            Integer index = channelIndex.get(entry.getValue());
+            if (index == null) {
+                index = channelIndex.size();
+                channelIndex.put(entry.getValue(), index);
+            }
+            channelByItem[item] = index;
+        }
+        this.channels = channelIndex.keySet().toArray(new String[0]);
+        this.frame = new double[channels.length];
+    }
+
+    public static DrWitsDecoder withDefaults(Map<String, String> overrides) {
+        Map<String, String> channels = new HashMap<>(DEFAULT_CHANNELS);
+        if (overrides != null) {
+            channels.putAll(overrides);
+        }
+        return new DrWitsDecoder(channels);
+    }
+
+    /**
+     * Decode the complete frames of a chunk; a trailing partial frame is completed by later chunks.
+     */
+    public DrChannelBatch decode(CharSequence chunk, long receivedTs) {
+        DrChannelBatch batch = new DrChannelBatch(channels, 8);
+        for (int i = 0, n = chunk.length(); i < n; i++) {
+            char c = chunk.charAt(i);
+            if (c == '\n' || c == '\r') {
+                if (line.length() > 0) {
+                    onLine(batch, receivedTs);
+                    line.setLength(0);
+                }
+            } else {
+                line.append(c);
+            }
+        }
+        return batch;
+    }
+
+    public long getIgnoredItems() {
+        return ignoredItems;
+    }
+
+    private void onLine(DrChannelBatch batch, long receivedTs) {
+        int start = 0;
+        int end = line.length();
+        while (start < end && line.charAt(start) <= ' ') {
+            start++;
+        }
+        while (end > start && line.charAt(end - 1) <= ' ') {
+            end--;
+        }
+        if (end - start == 2 && line.charAt(start) == '&' && line.charAt(start + 1) == '&') {
+            startFrame();
+            return;
+        }
+        if (end - start == 2 && line.charAt(start) == '!' && line.charAt(start + 1) == '!') {
+            if (inFrame && frameHasValues) {
+                emit(batch, receivedTs);
+            }
+            inFrame = false;
+            return;
+        }
+        if (!inFrame || end - start < 5) {
+            return;
+        }
+        int item = 0;
+        for (int i = start; i < start + 4; i++) {
+            char c = line.charAt(i);
+            if (c < '0' || c > '9') {
+                ignoredItems++;
+                return;
+            }
+            item = item * 10 + (c - '0');
+        }
+        if (item == ITEM_DATE || item == ITEM_TIME) {
+            int value = parseInt(start + 4, end);
+            if (item == ITEM_DATE) {
+                frameDate = value;
+            } else {
+                frameTime = value;
+            }
+            return;
+        }
+        int channel = channelByItem[item];
+        if (channel < 0) {
+            ignoredItems++;
+            return;
+        }
+        try {
+            frame[channel] = Double.parseDouble(line.substring(start + 4, end));
+            frameHasValues = true;
+        } catch (NumberFormatException e) {
+            ignoredItems++;
+        }
+    }
+
+    private void startFrame() {
+        inFrame = true;
+        frameHasValues = false;
+        frameDate = -1;
+        frameTime = -1;
+        Arrays.fill(frame, Double.NaN);
+    }
+
+    private void emit(DrChannelBatch batch, long receivedTs) {
+        long ts = receivedTs;
+        if (frameDate >= 0 && frameTime >= 0) {
+            try {
+                ts = toEpochMillis(frameDate, frameTime);
+            } catch (DateTimeException e) {
+                ignoredItems++;
+            }
+        }
+        // Several frames within the same second must not overwrite each other in ts_kv
+        if (ts <= lastTs) {
+            ts = lastTs + 1;
+        }
+        lastTs = ts;
+        int row = batch.addRow(ts);
+        for (int c = 0; c < frame.length; c++) {
+            if (!Double.isNaN(frame[c])) {
+                batch.set(row, c, frame[c]);
+            }
+        }
+    }
+
+    private int parseInt(int from, int to) {
+        int value = 0;
+        for (int i = from; i < to; i++) {
+            char c = line.charAt(i);
+            if (c == '.') {
+                break;
+            }
+            if (c >= '0' && c <= '9') {
+                value = value * 10 + (c - '0');
+            }
+        }
+        return value;
+    }
+
+    static long toEpochMillis(int yymmdd, int hhmmss) {
+        int year = 2000 + yymmdd / 10000;
+        int month = yymmdd / 100 % 100;
+        int day = yymmdd % 100;
+        long seconds = LocalDate.of(year, month, day).toEpochDay() * 86_400L
+                + (hhmmss / 10000) * 3600L + (hhmmss / 100 % 100) * 60L + hhmmss % 100;
+        return seconds * 1000L;
+    }
+}
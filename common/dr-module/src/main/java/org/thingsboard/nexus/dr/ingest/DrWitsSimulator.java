@@ -0,0 +1,90 @@
+/**
+ * Copyright © 2016-2026 The Thingsboard Authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.thingsboard.nexus.dr.ingest;
+
+import java.time.Instant;
+import java.time.ZoneOffset;
+import java.time.ZonedDateTime;
+import java.util.Locale;
+import java.util.Random;
+
+/**
+ * Generates a synthetic WITS level 0 stream of a rotating drilling run, one record 01 frame per
+ * sample, for exercising the ingest pipeline without a rig connection.
+ */
+public final class DrWitsSimulator {
+
+    private final Random random;
+    private double bitDepthFt;
+    private double pitVolumeBbl = 480.0;
+    private double pumpStrokes;
+
+    public DrWitsSimulator(double startDepthFt, long seed) {
+        this.bitDepthFt = startDepthFt;
+        this.random = new Random(seed);
+    }
+
+    /**
+     * Frames for {@code count} samples starting at {@code startTs}, {@code periodMs} apart.
+     */
+    public String frames(long startTs, int count, long periodMs) {
+        StringBuilder out = new StringBuilder(count * 200);
+        for (int i = 0; i < count; i++) {
+            frame(out, startTs + i * periodMs, periodMs);
+        }
+        return out.toString();
+    }
+
+    private void frame(StringBuilder out, long ts, long periodMs) {
+        double rop = 80.0 + random.nextGaussian() * 8.0;
+        bitDepthFt += rop * periodMs / 3_600_000.0;
+        double flowIn = 650.0 + random.nextGaussian() * 5.0;
+        pitVolumeBbl += random.nextGaussian() * 0.05;
+        pumpStrokes += 120.0 * periodMs / 60_000.0;
+        ZonedDateTime time = Instant.ofEpochMilli(ts).atZone(ZoneOffset.UTC);
+
+        out.append("&&\r\n");
+        item(out, "0105", String.format(Locale.ROOT, "%02d%02d%02d",
+                time.getYear() % 100, time.getMonthValue(), time.getDayOfMonth()));
+        item(out, "0106", String.format(Locale.ROOT, "%02d%02d%02d",
+                time.getHour(), time.getMinute(), time.getSecond()));
+        item(out, "0108", bitDepthFt);
+        item(out, "0110", bitDepthFt);
+        item(out, "0112", 45.0 - (bitDepthFt % 90.0) / 2.0);
+        item(out, "0113", rop);
+        item(out, "0114", 210.0 + random.nextGaussian() * 3.0);
+        item(out, "0116", 25.0 + random.nextGaussian() * 2.0);
+        item(out, "0118", 12_000.0 + random.nextGaussian() * 500.0);
+        item(out, "0120", 120.0 + random.nextGaussian() * 3.0);
+        item(out, "0121", 3_100.0 + random.nextGaussian() * 30.0);
+        item(out, "0126", pitVolumeBbl);
+        item(out, "0129", flowIn + random.nextGaussian() * 5.0);
+        item(out, "0130", flowIn);
+        item(out, "0131", 10.4 + random.nextGaussian() * 0.02);
+        item(out, "0132", 10.4);
+        item(out, "0137", Math.floor(pumpStrokes));
+        item(out, "0140", 15.0 + Math.abs(random.nextGaussian()) * 4.0);
+        out.append("!!\r\n");
+    }
+
+    private static void item(StringBuilder out, String code, double value) {
+        item(out, code, String.format(Locale.ROOT, "%.2f", value));
+    }
+
+    private static void item(StringBuilder out, String code, String value) {
+        out.append(code).append(value).append("\r\n");
+    }
+}
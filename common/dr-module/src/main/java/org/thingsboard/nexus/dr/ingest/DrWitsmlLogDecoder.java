@@ -0,0 +1,273 @@
+/**
+ * Copyright © 2016-2026 The Thingsboard Authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.thingsboard.nexus.dr.ingest;
+
+import javax.xml.stream.XMLInputFactory;
+import javax.xml.stream.XMLStreamConstants;
+import javax.xml.stream.XMLStreamException;
+import javax.xml.stream.XMLStreamReader;
+import java.io.StringReader;
+import java.time.OffsetDateTime;
+import java.time.format.DateTimeParseException;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * Streaming decoder of WITSML 1.3.1 / 1.4.1 {@code <logs>} chunks.
+ * <p>
+ * Each {@code <log>} becomes one {@link DrChannelBatch}. Columns come from {@code <mnemonicList>}
+ * (or the {@code <logCurveInfo>} order when absent); the first column is the index. Time indexed
+ * rows take their timestamp from the index; depth indexed rows keep the index as a channel and take
+ * their timestamp from the log's time curve (the first column holding date-times). A depth indexed
+ * log without a time curve is rejected, and rows whose time cannot be read are skipped (counted in
+ * {@link DrChannelBatch#getSkippedRows()}). Mnemonics are mapped to telemetry keys, unmapped ones
+ * pass through unchanged. Null values and empty cells become {@code NaN}.
+ */
+public final class DrWitsmlLogDecoder {
+
+    /**
+     * Common rig site mnemonics mapped to the telemetry keys read by the drilling rule nodes.
+     */
+    public static final Map<String, String> DEFAULT_MNEMONICS;
+
+    static {
+        Map<String, String> mnemonics = new LinkedHashMap<>();
+        mnemonics.put("DBTM", "bitDepth");
+        mnemonics.put("DMEA", "holeDepth");
+        mnemonics.put("BPOS", "blockPosition");
+        mnemonics.put("ROPA", "rop");
+        mnemonics.put("HKLA", "hookLoad");
+        mnemonics.put("SWOB", "wob");
+        mnemonics.put("TQA", "torque");
+        mnemonics.put("RPMA", "rpm");
+        mnemonics.put("SPPA", "spp");
+        mnemonics.put("TVA", "pitVolume");
+        mnemonics.put("MFOA", "flowOut");
+        mnemonics.put("MFIA", "flowIn");
+        mnemonics.put("MDOA", "mudWeightOut");
+        mnemonics.put("MDIA", "mudWeightIn");
+        mnemonics.put("STKC", "pumpStrokes");
+        mnemonics.put("GASA", "totalGas");
+        DEFAULT_MNEMONICS = mnemonics;
+    }
+
+    private static final XMLInputFactory XML_INPUT_FACTORY = XMLInputFactory.newFactory();
+
+    static {
+        XML_INPUT_FACTORY.setProperty(XMLInputFactory.SUPPORT_DTD, false);
+        XML_INPUT_FACTORY.setProperty(XMLInputFactory.IS_SUPPORTING_EXTERNAL_ENTITIES, false);
+    }
+
+    private final Map<String, String> mnemonicToChannel;
+
+    public DrWitsmlLogDecoder(Map<String, String> mnemonicToChannel) {
+        this.mnemonicToChannel = new HashMap<>();
+        mnemonicToChannel.forEach((mnemonic, channel) -> this.mnemonicToChannel.put(mnemonic.toUpperCase(Locale.ROOT), channel));
+    }
+
+    public static DrWitsmlLogDecoder withDefaults(Map<String, String> overrides) {
+        Map<String, String> mnemonics = new HashMap<>(DEFAULT_MNEMONICS);
+        if (overrides != null) {
+            mnemonics.putAll(overrides);
+        }
+        return new DrWitsmlLogDecoder(mnemonics);
+    }
+
+    public List<DrChannelBatch> decode(String xml) {
+        List<DrChannelBatch> batches = new ArrayList<>();
+        try {
+            XMLStreamReader reader = XML_INPUT_FACTORY.createXMLStreamReader(new StringReader(xml));
+            try {
+                LogState log = null;
+                while (reader.hasNext()) {
+                    int event = reader.next();
+                    if (event == XMLStreamConstants.START_ELEMENT) {
+                        String name = reader.getLocalName();
+                        if ("log".equals(name)) {
+                            log = new LogState();
+                        } else if (log != null) {
+                            log.onElement(name, reader);
+                        }
+                    } else if (event == XMLStreamConstants.END_ELEMENT && log != null) {
+                        String name = reader.getLocalName();
+                        if ("logCurveInfo".equals(name)) {
+                            log.inCurve = false;
+                        } else if ("log".equals(name)) {
+                            if (log.batch != null) {
+                                batches.add(log.batch);
+                            }
+                            log = null;
+                        }
+                    }
+                }
+            } finally {
+                reader.close();
+            }
+        } catch (XMLStreamException e) {
+            throw new IllegalArgumentException("Invalid WITSML log: " + e.getMessage(), e);
+        }
+        return batches;
+    }
+
+    private final class LogState {
+        private final List<String> curves = new ArrayList<>();
+        private final Map<String, String> curveNullValues = new HashMap<>();
+        private String logNullValue;
+        private String currentCurve;
+        private boolean inCurve;
+        private List<String> mnemonics;
+
+        private DrChannelBatch batch;
+        private int[] channelByColumn;
+        private double[] nullByColumn;
+        private Boolean timeIndexed;
+        private int timeColumn;
+
+        void onElement(String name, XMLStreamReader reader) throws XMLStreamException {
+            switch (name) {
+                case "logCurveInfo":
+                    inCurve = true;
+                    currentCurve = null;
+                    break;
+                case "mnemonic":
+                    if (inCurve) {
+                        currentCurve = reader.getElementText().trim();
+                        curves.add(currentCurve);
+                    }
+                    break;
+                case "nullValue":
+                    String value = reader.getElementText().trim();
+                    if (inCurve && currentCurve != null) {
+                        curveNullValues.put(currentCurve, value);
+                    } else if (!inCurve) {
+                        logNullValue = value;
+                    }
+                    break;
+                case "mnemonicList":
+                    mnemonics = split(reader.getElementText());
+                    break;
+                case "data":
+                    onRow(reader.getElementText());
+                    break;
+                default:
+                    break;
+            }
+        }
+
+        private void onRow(String row) {
+            if (batch == null) {
+                start();
+            }
+            List<String> cells = split(row);
+            if (timeIndexed == null) {
+                String index = cells.get(0);
+                timeIndexed = index.indexOf('T') > 0 || index.indexOf('-') > 0;
+                timeColumn = timeIndexed ? 0 : findTimeColumn(cells);
+            }
+            long ts;
+            try {
+                ts = timeColumn < cells.size() ? parseTime(cells.get(timeColumn)) : -1;
+            } catch (DateTimeParseException e) {
+                ts = -1;
+            }
+            if (ts < 0) {
+                batch.skipRow();
+                return;
+            }
+            int rowIndex = batch.addRow(ts);
+            int columns = Math.min(cells.size(), channelByColumn.length);
+            for (int column = 0; column < columns; column++) {
+                if (column != timeColumn) {
+                    set(rowIndex, column, cells.get(column));
+                }
+            }
+        }
+
+        /**
+         * A depth indexed row is stamped with its own time; a synthetic one would interleave chunks
+         * and overwrite real samples.
+         */
+        private int findTimeColumn(List<String> cells) {
+            for (int column = 1; column < cells.size(); column++) {
+                try {
+                    parseTime(cells.get(column));
+                    return column;
+                } catch (DateTimeParseException e) {
+                    // Not a time curve
+                }
+            }
+            throw new IllegalArgumentException("Depth indexed log without a time curve: rows cannot be stored as time series, "
+                    + "send the log time indexed or include a date-time curve");
+        }
+
+        private void set(int row, int column, String cell) {
+            int channel = channelByColumn[column];
+            if (channel < 0 || cell.isEmpty()) {
+                return;
+            }
+            try {
+                double value = Double.parseDouble(cell);
+                if (value != nullByColumn[column]) {
+                    batch.set(row, channel, value);
+                }
+            } catch (NumberFormatException e) {
+                // Non numeric cells (text curves) are not ingested
+            }
+        }
+
+        private void start() {
+            List<String> columns = mnemonics != null ? mnemonics : curves;
+            channelByColumn = new int[columns.size()];
+            nullByColumn = new double[columns.size()];
+            List<String> channels = new ArrayList<>(columns.size());
+            for (int c = 0; c < columns.size(); c++) {
+                String mnemonic = columns.get(c);
+                channelByColumn[c] = channels.size();
+                channels.add(mnemonicToChannel.getOrDefault(mnemonic.toUpperCase(Locale.ROOT), mnemonic));
+                String nullValue = curveNullValues.getOrDefault(mnemonic, logNullValue);
+                nullByColumn[c] = parseOrNaN(nullValue);
+            }
+            batch = new DrChannelBatch(channels.toArray(new String[0]), 64);
+        }
+    }
+
+    private static List<String> split(String list) {
+        List<String> values = new ArrayList<>();
+        for (String value : list.split(",")) {
+            values.add(value.trim());
+        }
+        return values;
+    }
+
+    private static long parseTime(String cell) {
+        return OffsetDateTime.parse(cell).toInstant().toEpochMilli();
+    }
+
+    private static double parseOrNaN(String value) {
+        if (value == null || value.isEmpty()) {
+            return Double.NaN;
+        }
+        try {
+            return Double.parseDouble(value);
+        } catch (NumberFormatException e) {
+            return Double.NaN;
+        }
+    }
+}
@@ -0,0 +1,60 @@
+/**
+ * Copyright © 2016-2026 The Thingsboard Authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.thingsboard.nexus.dr.model;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import io.hypersistence.utils.hibernate.type.json.JsonBinaryType;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.hibernate.annotations.Type;
+
+import jakarta.persistence.*;
+import java.util.UUID;
+
+/**
+ * Persisted snapshot of an activity KPI aggregate (run, rig or well).
+ */
+@Entity
+@Table(name = "dr_activity_kpis")
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class DrActivityKpi {
+
+    public static final String SCOPE_RUN = "RUN";
+    public static final String SCOPE_RIG = "RIG";
+    public static final String SCOPE_WELL = "WELL";
+
+    /**
+     * Run, rig or well id
+     */
+    @Id
+    @Column(name = "scope_id")
+    private UUID scopeId;
+
+    @Column(name = "scope_type", nullable = false, length = 16)
+    private String scopeType;
+
+    @Type(JsonBinaryType.class)
+    @Column(name = "snapshot", columnDefinition = "jsonb", nullable = false)
+    private JsonNode snapshot;
+
+    @Column(name = "updated_time", nullable = false)
+    private Long updatedTime;
+}
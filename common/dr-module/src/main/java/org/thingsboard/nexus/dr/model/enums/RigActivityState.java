@@ -0,0 +1,60 @@
+/**
+ * Copyright © 2016-2026 The Thingsboard Authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.thingsboard.nexus.dr.model.enums;
+
+/**
+ * Rig activity state as emitted by the rig state detection rule node
+ */
+public enum RigActivityState {
+    DRILLING_ROTATING,
+    DRILLING_SLIDING,
+    CIRCULATING,
+    REAMING,
+    BACK_REAMING,
+    TRIPPING_IN,
+    TRIPPING_OUT,
+    CONNECTION,
+    IN_SLIPS,
+    STATIC;
+
+    /**
+     * Bit on bottom making hole
+     */
+    public boolean isDrilling() {
+        return this == DRILLING_ROTATING || this == DRILLING_SLIDING;
+    }
+
+    /**
+     * Pipe hanging in the slips
+     */
+    public boolean isInSlips() {
+        return this == IN_SLIPS || this == CONNECTION;
+    }
+
+    /**
+     * Parse a state name, returning null for unknown values
+     */
+    public static RigActivityState fromName(String name) {
+        if (name == null) {
+            return null;
+        }
+        try {
+            return valueOf(name.trim().toUpperCase());
+        } catch (IllegalArgumentException e) {
+            return null;
+        }
+    }
+}
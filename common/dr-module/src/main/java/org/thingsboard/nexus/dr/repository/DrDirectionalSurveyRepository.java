@@ -59,6 +59,14 @@ public interface DrDirectionalSurveyRepository extends JpaRepository<DrDirection
      */
     List<DrDirectionalSurvey> findByWellIdOrderByMdFtAsc(UUID wellId);
 
+    /**
+     * Find the surveys of a well with inclination ordered by measured depth, the most recent
+     * definitive station first within the same depth.
+     */
+    @Query("SELECT s FROM DrDirectionalSurvey s WHERE s.wellId = :wellId AND s.inclinationDeg IS NOT NULL " +
+            "ORDER BY s.mdFt ASC, s.isDefinitive DESC NULLS LAST, s.createdTime DESC")
+    List<DrDirectionalSurvey> findStationsByWellId(@Param("wellId") UUID wellId);
+
     // --- Survey Type Queries ---
 
     List<DrDirectionalSurvey> findByRunIdAndSurveyType(UUID runId, SurveyType surveyType);
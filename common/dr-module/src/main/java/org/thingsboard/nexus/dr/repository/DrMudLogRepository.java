@@ -76,6 +76,25 @@ public interface DrMudLogRepository extends JpaRepository<DrMudLog, UUID> {
             @Param("minDepth") BigDecimal minDepth,
             @Param("maxDepth") BigDecimal maxDepth);
 
+    /**
+     * Columns aggregated by the depth bins (md, ROP, total gas, background gas, lithology, oil show
+     * intensity) for a run, without loading the entities.
+     */
+    @Query("SELECT m.mdFt, m.ropFtHr, m.totalGasUnits, m.backgroundGasUnits, m.primaryLithology, " +
+            "m.oilShowIntensity FROM DrMudLog m WHERE m.runId = :runId")
+    List<Object[]> findBinInputsByRunId(@Param("runId") UUID runId);
+
+    /**
+     * Depth bin columns for a half-open depth interval [fromDepth, toDepth).
+     */
+    @Query("SELECT m.mdFt, m.ropFtHr, m.totalGasUnits, m.backgroundGasUnits, m.primaryLithology, " +
+            "m.oilShowIntensity FROM DrMudLog m WHERE m.runId = :runId " +
+            "AND m.mdFt >= :fromDepth AND m.mdFt < :toDepth")
+    List<Object[]> findBinInputsByRunIdAndDepthInterval(
+            @Param("runId") UUID runId,
+            @Param("fromDepth") BigDecimal fromDepth,
+            @Param("toDepth") BigDecimal toDepth);
+
     /**
      * Find the deepest mud log for a run.
      */
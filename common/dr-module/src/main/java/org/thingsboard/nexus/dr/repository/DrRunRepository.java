@@ -214,4 +214,24 @@ public interface DrRunRepository extends JpaRepository<DrRun, UUID> {
         @Param("tenantId") UUID tenantId,
         @Param("nptThreshold") java.math.BigDecimal nptThreshold
     );
+
+    /**
+     * Summarize the runs of a rig in one row:
+     * run count, completed runs, footage, rotating hours, NPT hours, connection hours
+     */
+    @Query("SELECT COUNT(r), COALESCE(SUM(CASE WHEN r.status = 'COMPLETED' THEN 1 ELSE 0 END), 0), " +
+           "COALESCE(SUM(r.totalFootageFt), 0), COALESCE(SUM(r.totalRotatingHours), 0), " +
+           "COALESCE(SUM(r.totalNptHours), 0), COALESCE(SUM(r.totalConnectionTimeHours), 0) " +
+           "FROM DrRun r WHERE r.rigId = :rigId")
+    List<Object[]> summarizeByRig(@Param("rigId") UUID rigId);
+
+    /**
+     * Summarize the runs of a well in one row:
+     * run count, footage, rotating hours, NPT hours, max MD, max TVD, first spud date, last end date
+     */
+    @Query("SELECT COUNT(r), COALESCE(SUM(r.totalFootageFt), 0), COALESCE(SUM(r.totalRotatingHours), 0), " +
+           "COALESCE(SUM(r.totalNptHours), 0), COALESCE(MAX(r.endDepthMdFt), 0), COALESCE(MAX(r.endDepthTvdFt), 0), " +
+           "MIN(r.spudDate), MAX(r.endDate) " +
+           "FROM DrRun r WHERE r.wellId = :wellId")
+    List<Object[]> summarizeByWell(@Param("wellId") UUID wellId);
 }
@@ -0,0 +1,107 @@
+/**
+ * Copyright © 2016-2026 The Thingsboard Authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.thingsboard.nexus.dr.repository;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+import org.thingsboard.nexus.dr.service.DrTrajectoryEngine;
+
+import java.math.BigDecimal;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * JDBC access to the calculated trajectory columns of {@code dr_directional_surveys}.
+ * Reads stations into columnar arrays and writes recomputed stations as one batch update.
+ */
+@Repository
+@RequiredArgsConstructor
+public class DrSurveyTrajectoryRepository {
+
+    private static final int BATCH_SIZE = 1000;
+
+    // Stations from the last one above the given depth (the chaining anchor) down to TD
+    private static final String SELECT_FROM_PRECEDING_STATION =
+            "SELECT id, md_ft, inclination_deg, azimuth_deg, tvd_ft, north_ft, east_ft, vertical_section_ft, " +
+            "dls_deg_per_100ft, closure_distance_ft, closure_azimuth_deg FROM dr_directional_surveys " +
+            "WHERE run_id = ? AND md_ft >= COALESCE(" +
+            "(SELECT MAX(md_ft) FROM dr_directional_surveys WHERE run_id = ? AND md_ft < ?), ?) " +
+            "ORDER BY md_ft ASC";
+
+    private static final String UPDATE_TRAJECTORY =
+            "UPDATE dr_directional_surveys SET tvd_ft = ?, north_ft = ?, east_ft = ?, vertical_section_ft = ?, " +
+            "dls_deg_per_100ft = ?, closure_distance_ft = ?, closure_azimuth_deg = ? WHERE id = ?";
+
+    private final JdbcTemplate jdbcTemplate;
+
+    /**
+     * Loads the stations of a run at or below {@code fromDepth}, preceded by the last station above it if any.
+     */
+    public DrTrajectoryEngine.Stations findFromPrecedingStation(UUID runId, BigDecimal fromDepth) {
+        DrTrajectoryEngine.Stations stations = new DrTrajectoryEngine.Stations(256);
+        jdbcTemplate.query(SELECT_FROM_PRECEDING_STATION, rs -> {
+            stations.add(rs.getObject("id", UUID.class),
+                    rs.getDouble("md_ft"),
+                    getDouble(rs, "inclination_deg"),
+                    getDouble(rs, "azimuth_deg"),
+                    getDouble(rs, "tvd_ft"),
+                    getDouble(rs, "north_ft"),
+                    getDouble(rs, "east_ft"),
+                    getDouble(rs, "vertical_section_ft"),
+                    getDouble(rs, "dls_deg_per_100ft"),
+                    getDouble(rs, "closure_distance_ft"),
+                    getDouble(rs, "closure_azimuth_deg"));
+        }, runId, runId, fromDepth, fromDepth);
+        return stations;
+    }
+
+    /**
+     * Writes the calculated values of every station flagged as changed.
+     *
+     * @return number of updated stations
+     */
+    public int updateChanged(DrTrajectoryEngine.Stations stations) {
+        List<Integer> changed = new ArrayList<>();
+        for (int i = 0; i < stations.size; i++) {
+            if (stations.changed[i]) {
+                changed.add(i);
+            }
+        }
+        if (changed.isEmpty()) {
+            return 0;
+        }
+        jdbcTemplate.batchUpdate(UPDATE_TRAJECTORY, changed, BATCH_SIZE, (ps, i) -> {
+            ps.setDouble(1, stations.tvd[i]);
+            ps.setDouble(2, stations.north[i]);
+            ps.setDouble(3, stations.east[i]);
+            ps.setDouble(4, stations.verticalSection[i]);
+            ps.setDouble(5, stations.dls[i]);
+            ps.setDouble(6, stations.closureDistance[i]);
+            ps.setDouble(7, stations.closureAzimuth[i]);
+            ps.setObject(8, stations.ids[i]);
+        });
+        return changed.size();
+    }
+
+    private static double getDouble(ResultSet rs, String column) throws SQLException {
+        double value = rs.getDouble(column);
+        return rs.wasNull() ? Double.NaN : value;
+    }
+}
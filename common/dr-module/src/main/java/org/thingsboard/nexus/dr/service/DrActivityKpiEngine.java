@@ -0,0 +1,516 @@
+/**
+ * Copyright © 2016-2026 The Thingsboard Authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.thingsboard.nexus.dr.service;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.node.JsonNodeFactory;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Service;
+import org.thingsboard.nexus.dr.config.DrModuleConfiguration;
+import org.thingsboard.nexus.dr.dto.kpi.RigStateTransitionDto;
+import org.thingsboard.nexus.dr.model.DrActivityKpi;
+import org.thingsboard.nexus.dr.model.DrRun;
+import org.thingsboard.nexus.dr.model.enums.RigActivityState;
+import org.thingsboard.nexus.dr.repository.DrActivityKpiRepository;
+import org.thingsboard.nexus.dr.repository.DrRunRepository;
+import org.thingsboard.server.common.data.id.EntityId;
+import org.thingsboard.server.common.data.id.TenantId;
+import org.thingsboard.server.common.data.nexus.RigStateTransition;
+import org.thingsboard.server.dao.nexus.RigActivityService;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.function.BiFunction;
+import java.util.function.Consumer;
+
+/**
+ * Streaming KPI engine fed by rig state transitions.
+ *
+ * Each transition closes the interval of the previous state. From those intervals the engine
+ * measures every connection (slips-to-slips and weight-to-weight), trip speed per tripping
+ * interval and NPT (static intervals longer than a threshold), and folds them into per-run,
+ * per-rig and per-well aggregates. Reads are constant time regardless of history length.
+ *
+ * Transitions arrive from the rig state detection rule node through {@link RigActivityService}
+ * (handled on the engine thread, off the rule engine) or from the REST endpoint. Changed
+ * aggregates are flushed to {@code dr_activity_kpis} every {@code kpiFlushIntervalMs} and on
+ * shutdown, and aggregates idle for {@code kpiAggregateIdleMs} are dropped from memory; both
+ * are reloaded from the snapshot on demand. The rule engine routes all messages of a rig to one
+ * server, which owns that rig's aggregates; other servers serve reads from the snapshot, re-read
+ * once per flush interval. A well drilled by rigs owned by different servers keeps the last
+ * flushed snapshot.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class DrActivityKpiEngine implements RigActivityService {
+
+    private static final double MS_PER_MIN = 60_000.0;
+    private static final double MS_PER_HOUR = 3_600_000.0;
+    private static final double MIN_TRIP_DISTANCE_FT = 1.0;
+
+    private final DrRunRepository runRepository;
+    private final DrActivityKpiRepository kpiRepository;
+    private final DrModuleConfiguration config;
+
+    private final Map<UUID, RigTracker> trackers = new ConcurrentHashMap<>();
+    // Run, rig and well ids are distinct UUIDs: one map keyed by scope id
+    private final Map<UUID, ActivityAggregate> aggregates = new ConcurrentHashMap<>();
+
+    private ScheduledExecutorService executor;
+
+    @PostConstruct
+    public void init() {
+        executor = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread thread = new Thread(r, "dr-activity-kpi");
+            thread.setDaemon(true);
+            return thread;
+        });
+        long interval = Math.max(1, config.getKpiFlushIntervalMs());
+        executor.scheduleWithFixedDelay(this::flushAndEvict, interval, interval, TimeUnit.MILLISECONDS);
+    }
+
+    @PreDestroy
+    public void destroy() {
+        executor.shutdownNow();
+        flush();
+    }
+
+    /**
+     * Entry point of the rig state detection rule node. Scope lookups and snapshot loads may hit
+     * the database, so the transition is applied on the engine thread, in arrival order.
+     */
+    @Override
+    public void onRigStateTransition(TenantId tenantId, EntityId rigId, RigStateTransition transition) {
+        RigStateTransitionDto dto = RigStateTransitionDto.builder()
+                .rigState(transition.rigState())
+                .stateChangeTime(transition.stateChangeTime())
+                .previousRigState(transition.previousRigState())
+                .previousStateDurationMs(transition.previousStateDurationMs())
+                .bitDepth(transition.bitDepth())
+                .build();
+        executor.execute(() -> {
+            try {
+                onStateTransition(rigId.getId(), dto);
+            } catch (Exception e) {
+                log.warn("Failed to apply rig state transition for rig {}: {}", rigId, e.getMessage());
+            }
+        });
+    }
+
+    /**
+     * Consume one rig state transition.
+     */
+    public void onStateTransition(UUID rigId, RigStateTransitionDto transition) {
+        RigActivityState state = RigActivityState.fromName(transition.getRigState());
+        if (state == null) {
+            log.debug("Ignoring transition with unknown rig state {} for rig {}", transition.getRigState(), rigId);
+            return;
+        }
+        long ts = transition.getStateChangeTime() != null ? transition.getStateChangeTime() : System.currentTimeMillis();
+        RigTracker tracker = trackers.computeIfAbsent(rigId, id -> new RigTracker());
+        tracker.touchedTs = System.currentTimeMillis();
+
+        synchronized (tracker) {
+            resolveScope(rigId, tracker, transition, ts);
+
+            RigActivityState previous = RigActivityState.fromName(transition.getPreviousRigState());
+            if (previous == null) {
+                previous = tracker.state;
+            }
+            if (previous != null && tracker.stateStartTs > 0 && ts >= tracker.stateStartTs) {
+                long durationMs = transition.getPreviousStateDurationMs() != null
+                        ? transition.getPreviousStateDurationMs() : ts - tracker.stateStartTs;
+                closeInterval(rigId, tracker, previous, durationMs, ts, transition.getBitDepth());
+            } else if (previous != null && tracker.stateStartTs == 0 && transition.getPreviousStateDurationMs() != null) {
+                // First transition seen for this rig: the interval is still usable for time breakdown
+                closeInterval(rigId, tracker, previous, transition.getPreviousStateDurationMs(), ts, transition.getBitDepth());
+            }
+
+            if (state.isDrilling() && tracker.offBottomTs > 0 && tracker.slipsCount > 0) {
+                double weightToWeightMin = (ts - tracker.offBottomTs) / MS_PER_MIN;
+                if (weightToWeightMin <= config.getKpiMaxConnectionMinutes()) {
+                    double slipsToSlipsMin = tracker.slipsMs / MS_PER_MIN;
+                    forEachScope(rigId, tracker, a -> a.addConnection(slipsToSlipsMin, weightToWeightMin));
+                }
+            }
+            if (state.isDrilling()) {
+                tracker.offBottomTs = 0;
+                tracker.slipsMs = 0;
+                tracker.slipsCount = 0;
+            }
+
+            tracker.state = state;
+            tracker.stateStartTs = ts;
+            tracker.stateStartDepth = transition.getBitDepth() != null ? transition.getBitDepth() : Double.NaN;
+        }
+    }
+
+    public ActivityAggregate getRunAggregate(UUID runId) {
+        return read(runId);
+    }
+
+    public ActivityAggregate getRigAggregate(UUID rigId) {
+        return read(rigId);
+    }
+
+    public ActivityAggregate getWellAggregate(UUID wellId) {
+        return read(wellId);
+    }
+
+    /**
+     * Drop all state of a rig (e.g. rig deleted). Run and well aggregates are kept.
+     */
+    public void evictRig(UUID rigId) {
+        trackers.remove(rigId);
+        aggregates.remove(rigId);
+        kpiRepository.deleteById(rigId);
+    }
+
+    /**
+     * Write every changed aggregate to its snapshot.
+     *
+     * @return number of snapshots written
+     */
+    public int flush() {
+        long now = System.currentTimeMillis();
+        List<DrActivityKpi> snapshots = new ArrayList<>();
+        List<ActivityAggregate> flushed = new ArrayList<>();
+        aggregates.forEach((id, aggregate) -> {
+            JsonNode snapshot = aggregate.takeSnapshotIfDirty();
+            if (snapshot != null) {
+                snapshots.add(DrActivityKpi.builder()
+                        .scopeId(id)
+                        .scopeType(aggregate.scopeType)
+                        .snapshot(snapshot)
+                        .updatedTime(now)
+                        .build());
+                flushed.add(aggregate);
+            }
+        });
+        if (snapshots.isEmpty()) {
+            return 0;
+        }
+        try {
+            kpiRepository.saveAll(snapshots);
+        } catch (Exception e) {
+            flushed.forEach(ActivityAggregate::markDirty);
+            log.error("Error writing {} activity KPI snapshots: {}", snapshots.size(), e.getMessage(), e);
+            return 0;
+        }
+        return snapshots.size();
+    }
+
+    private void flushAndEvict() {
+        try {
+            flush();
+            long idleBefore = System.currentTimeMillis() - config.getKpiAggregateIdleMs();
+            aggregates.values().removeIf(a -> a.isEvictable(idleBefore));
+            trackers.values().removeIf(t -> t.touchedTs < idleBefore);
+        } catch (Exception e) {
+            log.error("Error flushing activity KPI aggregates: {}", e.getMessage(), e);
+        }
+    }
+
+    /**
+     * Aggregate for a read. Aggregates written on this server are authoritative; others are
+     * (re)loaded from the snapshot at most once per flush interval.
+     */
+    private ActivityAggregate read(UUID scopeId) {
+        long now = System.currentTimeMillis();
+        ActivityAggregate current = aggregates.get(scopeId);
+        if (current != null && current.isFresh(now, config.getKpiFlushIntervalMs())) {
+            current.touch(now);
+            return current;
+        }
+        ActivityAggregate loaded = load(scopeId, null, now);
+        return aggregates.compute(scopeId, (id, existing) ->
+                existing != null && existing.isFresh(now, config.getKpiFlushIntervalMs()) ? existing : loaded);
+    }
+
+    /**
+     * Aggregate for an update: loaded from its snapshot (or created) and owned by this server from now on.
+     */
+    private ActivityAggregate write(UUID scopeId, String scopeType) {
+        long now = System.currentTimeMillis();
+        return aggregates.compute(scopeId, (id, existing) -> {
+            ActivityAggregate aggregate = existing != null && existing.isFresh(now, config.getKpiFlushIntervalMs())
+                    ? existing : load(scopeId, scopeType, now);
+            if (aggregate == null) {
+                aggregate = new ActivityAggregate(scopeType, now);
+            }
+            aggregate.local = true;
+            aggregate.touch(now);
+            return aggregate;
+        });
+    }
+
+    private ActivityAggregate load(UUID scopeId, String scopeType, long now) {
+        DrActivityKpi snapshot = kpiRepository.findById(scopeId).orElse(null);
+        if (snapshot == null) {
+            return null;
+        }
+        ActivityAggregate aggregate = new ActivityAggregate(scopeType != null ? scopeType : snapshot.getScopeType(), now);
+        aggregate.readJson(snapshot.getSnapshot());
+        return aggregate;
+    }
+
+    private void closeInterval(UUID rigId, RigTracker tracker, RigActivityState previous, long durationMs, long ts, Double bitDepth) {
+        if (durationMs <= 0) {
+            return;
+        }
+        boolean npt = previous == RigActivityState.STATIC
+                && durationMs >= config.getKpiNptMinStaticMinutes() * MS_PER_MIN;
+        forEachScope(rigId, tracker, a -> a.addStateTime(previous, durationMs, npt));
+
+        if (previous.isDrilling()) {
+            tracker.offBottomTs = ts;
+            tracker.slipsMs = 0;
+            tracker.slipsCount = 0;
+        } else if (previous.isInSlips() && tracker.offBottomTs > 0) {
+            tracker.slipsMs += durationMs;
+            tracker.slipsCount++;
+        }
+
+        if ((previous == RigActivityState.TRIPPING_IN || previous == RigActivityState.TRIPPING_OUT)
+                && bitDepth != null && !Double.isNaN(tracker.stateStartDepth)) {
+            double distanceFt = Math.abs(bitDepth - tracker.stateStartDepth);
+            if (distanceFt >= MIN_TRIP_DISTANCE_FT) {
+                double speedFtHr = distanceFt / (durationMs / MS_PER_HOUR);
+                boolean tripIn = previous == RigActivityState.TRIPPING_IN;
+                forEachScope(rigId, tracker, a -> a.addTrip(tripIn, speedFtHr));
+            }
+        }
+    }
+
+    /**
+     * The run/well of a rig only changes at run boundaries: cache the lookup for a short TTL
+     * and let explicit ids in the transition override it.
+     */
+    private void resolveScope(UUID rigId, RigTracker tracker, RigStateTransitionDto transition, long ts) {
+        if (transition.getRunId() != null) {
+            if (!transition.getRunId().equals(tracker.runId) || tracker.wellId == null) {
+                tracker.runId = transition.getRunId();
+                tracker.wellId = transition.getWellId() != null ? transition.getWellId()
+                        : runRepository.findById(transition.getRunId()).map(DrRun::getWellId).orElse(null);
+            } else if (transition.getWellId() != null) {
+                tracker.wellId = transition.getWellId();
+            }
+            tracker.scopeResolvedAt = ts;
+            return;
+        }
+        long now = System.currentTimeMillis();
+        if (tracker.scopeResolvedAt == 0 || now - tracker.scopeResolvedAt > config.getKpiRunLookupTtlMs()) {
+            DrRun run = runRepository.findCurrentRunByRig(rigId).orElse(null);
+            tracker.runId = run != null ? run.getId() : null;
+            tracker.wellId = run != null ? run.getWellId() : transition.getWellId();
+            tracker.scopeResolvedAt = now;
+        }
+    }
+
+    private void forEachScope(UUID rigId, RigTracker tracker, Consumer<ActivityAggregate> action) {
+        action.accept(write(rigId, DrActivityKpi.SCOPE_RIG));
+        if (tracker.runId != null) {
+            action.accept(write(tracker.runId, DrActivityKpi.SCOPE_RUN));
+        }
+        if (tracker.wellId != null) {
+            action.accept(write(tracker.wellId, DrActivityKpi.SCOPE_WELL));
+        }
+    }
+
+    private static final class RigTracker {
+        RigActivityState state;
+        long stateStartTs;
+        double stateStartDepth = Double.NaN;
+
+        // Connection in progress: end of last drilling interval and slips time since then
+        long offBottomTs;
+        long slipsMs;
+        int slipsCount;
+
+        UUID runId;
+        UUID wellId;
+        long scopeResolvedAt;
+        volatile long touchedTs;
+    }
+
+    /**
+     * Incremental KPI aggregate of a run, rig or well.
+     */
+    public static final class ActivityAggregate {
+
+        private final String scopeType;
+        private final long[] stateMs = new long[RigActivityState.values().length];
+        private long nptMs;
+        private int nptEvents;
+        private final DrKpiSketch weightToWeightMin = new DrKpiSketch(120.0, 480);
+        private final DrKpiSketch slipsToSlipsMin = new DrKpiSketch(120.0, 480);
+        private final DrKpiSketch tripInFtHr = new DrKpiSketch(10_000.0, 400);
+        private final DrKpiSketch tripOutFtHr = new DrKpiSketch(10_000.0, 400);
+        private long updatedTs;
+
+        // Bookkeeping of the in-memory copy
+        private final long loadedTs;
+        private volatile long accessedTs;
+        private volatile boolean local;
+        private boolean dirty;
+
+        ActivityAggregate(String scopeType, long loadedTs) {
+            this.scopeType = scopeType;
+            this.loadedTs = loadedTs;
+            this.accessedTs = loadedTs;
+        }
+
+        synchronized void addStateTime(RigActivityState state, long durationMs, boolean npt) {
+            stateMs[state.ordinal()] += durationMs;
+            if (npt) {
+                nptMs += durationMs;
+                nptEvents++;
+            }
+            changed();
+        }
+
+        synchronized void addConnection(double slipsToSlips, double weightToWeight) {
+            slipsToSlipsMin.add(slipsToSlips);
+            weightToWeightMin.add(weightToWeight);
+            changed();
+        }
+
+        synchronized void addTrip(boolean tripIn, double speedFtHr) {
+            (tripIn ? tripInFtHr : tripOutFtHr).add(speedFtHr);
+            changed();
+        }
+
+        private void changed() {
+            updatedTs = System.currentTimeMillis();
+            dirty = true;
+        }
+
+        void touch(long now) {
+            accessedTs = now;
+        }
+
+        boolean isFresh(long now, long maxAgeMs) {
+            return local || now - loadedTs < maxAgeMs;
+        }
+
+        synchronized boolean isEvictable(long idleBefore) {
+            return !dirty && accessedTs < idleBefore;
+        }
+
+        synchronized void markDirty() {
+            dirty = true;
+        }
+
+        synchronized JsonNode takeSnapshotIfDirty() {
+            if (!dirty) {
+                return null;
+            }
+            dirty = false;
+            return toJson();
+        }
+
+        synchronized ObjectNode toJson() {
+            ObjectNode json = JsonNodeFactory.instance.objectNode();
+            ObjectNode states = json.putObject("stateMs");
+            for (RigActivityState state : RigActivityState.values()) {
+                if (stateMs[state.ordinal()] > 0) {
+                    states.put(state.name(), stateMs[state.ordinal()]);
+                }
+            }
+            json.put("nptMs", nptMs);
+            json.put("nptEvents", nptEvents);
+            json.set("weightToWeightMin", weightToWeightMin.toJson());
+            json.set("slipsToSlipsMin", slipsToSlipsMin.toJson());
+            json.set("tripInFtHr", tripInFtHr.toJson());
+            json.set("tripOutFtHr", tripOutFtHr.toJson());
+            json.put("updatedTs", updatedTs);
+            return json;
+        }
+
+        synchronized void readJson(JsonNode json) {
+            // States are stored by name so the snapshot survives changes to the enum order
+            JsonNode states = json.path("stateMs");
+            for (RigActivityState state : RigActivityState.values()) {
+                stateMs[state.ordinal()] = states.path(state.name()).asLong();
+            }
+            nptMs = json.path("nptMs").asLong();
+            nptEvents = json.path("nptEvents").asInt();
+            weightToWeightMin.readJson(json.get("weightToWeightMin"));
+            slipsToSlipsMin.readJson(json.get("slipsToSlipsMin"));
+            tripInFtHr.readJson(json.get("tripInFtHr"));
+            tripOutFtHr.readJson(json.get("tripOutFtHr"));
+            updatedTs = json.path("updatedTs").asLong();
+        }
+
+        public synchronized double getStateHours(RigActivityState state) {
+            return stateMs[state.ordinal()] / MS_PER_HOUR;
+        }
+
+        public synchronized double getTotalHours() {
+            long total = 0;
+            for (long ms : stateMs) {
+                total += ms;
+            }
+            return total / MS_PER_HOUR;
+        }
+
+        public synchronized double getNptHours() {
+            return nptMs / MS_PER_HOUR;
+        }
+
+        public synchronized int getNptEvents() {
+            return nptEvents;
+        }
+
+        public synchronized long getUpdatedTs() {
+            return updatedTs;
+        }
+
+        /**
+         * Run an action on the connection sketches (weight-to-weight, slips-to-slips) under the aggregate lock.
+         */
+        public synchronized <T> T readConnections(BiFunction<DrKpiSketch, DrKpiSketch, T> reader) {
+            return reader.apply(weightToWeightMin, slipsToSlipsMin);
+        }
+
+        /**
+         * Mean trip speed over both directions (ft/hr), NaN when no trip was measured.
+         */
+        public synchronized double getAvgTripSpeedFtHr() {
+            long n = tripInFtHr.getCount() + tripOutFtHr.getCount();
+            return n > 0 ? (tripInFtHr.getSum() + tripOutFtHr.getSum()) / n : Double.NaN;
+        }
+
+        public synchronized double getAvgTripInSpeedFtHr() {
+            return tripInFtHr.getMean();
+        }
+
+        public synchronized double getAvgTripOutSpeedFtHr() {
+            return tripOutFtHr.getMean();
+        }
+    }
+}
@@ -0,0 +1,402 @@
+/**
+ * Copyright © 2016-2026 The Thingsboard Authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.thingsboard.nexus.dr.service;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * Uniform 3D grid over the trajectory segments of the wells of one pad / field.
+ *
+ * Stations are kept per well in primitive arrays in field coordinates (well-local northing and
+ * easting shifted by the wellhead offset, TVD). Every segment between consecutive stations is
+ * registered in the grid cells overlapped by its bounding box, so a proximity query only visits
+ * the cells around the reference stations. Appending a station indexes one segment; an
+ * out-of-order or corrected station re-indexes the segments below it.
+ *
+ * Separation factor = centre-to-centre distance / (reference radius + offset radius), with the
+ * uncertainty radius interpolated linearly along each segment.
+ */
+public final class DrAntiCollisionIndex {
+
+    private static final double MD_TOLERANCE_FT = 0.01;
+    private static final int CELL_BITS = 21;
+    private static final long CELL_MASK = (1L << CELL_BITS) - 1;
+    private static final long CELL_BIAS = 1L << (CELL_BITS - 1);
+
+    private final double cellSizeFt;
+    private final Map<UUID, Well> wells = new HashMap<>();
+    private final List<Well> slots = new ArrayList<>();
+    private final Map<Long, Cell> cells = new HashMap<>();
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+
+    // Occupied cell bounds, queries are clamped to them
+    private long minX = Long.MAX_VALUE, minY = Long.MAX_VALUE, minZ = Long.MAX_VALUE;
+    private long maxX = Long.MIN_VALUE, maxY = Long.MIN_VALUE, maxZ = Long.MIN_VALUE;
+
+    public DrAntiCollisionIndex(double cellSizeFt) {
+        this.cellSizeFt = cellSizeFt;
+    }
+
+    /**
+     * Closest approach of one offset well to the reference well.
+     */
+    public static final class Offset {
+        public final UUID wellId;
+        public double distanceFt = Double.POSITIVE_INFINITY;
+        public double referenceMdFt;
+        public double offsetMdFt;
+        public double separationFactor = Double.POSITIVE_INFINITY;
+
+        Offset(UUID wellId) {
+            this.wellId = wellId;
+        }
+    }
+
+    private static final class Well {
+        final UUID id;
+        final int slot;
+        final double surfaceNorthFt;
+        final double surfaceEastFt;
+        double[] md;
+        double[] tvd;
+        double[] north;
+        double[] east;
+        double[] radius;
+        int size;
+
+        Well(UUID id, int slot, double surfaceNorthFt, double surfaceEastFt, int capacity) {
+            this.id = id;
+            this.slot = slot;
+            this.surfaceNorthFt = surfaceNorthFt;
+            this.surfaceEastFt = surfaceEastFt;
+            int c = Math.max(capacity, 16);
+            md = new double[c];
+            tvd = new double[c];
+            north = new double[c];
+            east = new double[c];
+            radius = new double[c];
+        }
+
+        void ensureCapacity(int capacity) {
+            if (capacity > md.length) {
+                int c = Math.max(capacity, md.length * 2);
+                md = Arrays.copyOf(md, c);
+                tvd = Arrays.copyOf(tvd, c);
+                north = Arrays.copyOf(north, c);
+                east = Arrays.copyOf(east, c);
+                radius = Arrays.copyOf(radius, c);
+            }
+        }
+    }
+
+    /**
+     * Segment references of one grid cell, encoded as {@code slot << 32 | segment}.
+     */
+    private static final class Cell {
+        long[] entries = new long[4];
+        int size;
+
+        void add(long entry) {
+            if (size == entries.length) {
+                entries = Arrays.copyOf(entries, size * 2);
+            }
+            entries[size++] = entry;
+        }
+
+        void remove(long entry) {
+            for (int i = 0; i < size; i++) {
+                if (entries[i] == entry) {
+                    entries[i] = entries[--size];
+                    return;
+                }
+            }
+        }
+    }
+
+    public boolean containsWell(UUID wellId) {
+        lock.readLock().lock();
+        try {
+            return wells.containsKey(wellId);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Registers or replaces a well. Station coordinates are well-local and ordered by MD.
+     */
+    public void putWell(UUID wellId, double surfaceNorthFt, double surfaceEastFt,
+                        double[] md, double[] tvd, double[] north, double[] east, double[] radius, int size) {
+        lock.writeLock().lock();
+        try {
+            Well previous = wells.get(wellId);
+            int slot;
+            if (previous != null) {
+                unindex(previous, 0);
+                slot = previous.slot;
+            } else {
+                slot = slots.size();
+                slots.add(null);
+            }
+            Well well = new Well(wellId, slot, surfaceNorthFt, surfaceEastFt, size);
+            for (int i = 0; i < size; i++) {
+                well.md[i] = md[i];
+                well.tvd[i] = tvd[i];
+                well.north[i] = north[i] + surfaceNorthFt;
+                well.east[i] = east[i] + surfaceEastFt;
+                well.radius[i] = radius[i];
+            }
+            well.size = size;
+            wells.put(wellId, well);
+            slots.set(slot, well);
+            index(well, 0);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public void removeWell(UUID wellId) {
+        lock.writeLock().lock();
+        try {
+            Well well = wells.remove(wellId);
+            if (well != null) {
+                unindex(well, 0);
+                slots.set(well.slot, null);
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Adds or corrects a station of a registered well (well-local coordinates).
+     *
+     * @return {@code false} when the well is not part of this index
+     */
+    public boolean putStation(UUID wellId, double mdFt, double tvdFt, double northFt, double eastFt, double radiusFt) {
+        lock.writeLock().lock();
+        try {
+            Well well = wells.get(wellId);
+            if (well == null) {
+                return false;
+            }
+            int i = lowerBound(well, mdFt - MD_TOLERANCE_FT);
+            boolean correction = i < well.size && Math.abs(well.md[i] - mdFt) <= MD_TOLERANCE_FT;
+
+            // Segments touching the station change: the one ending at it and all below it
+            int firstSegment = Math.max(i - 1, 0);
+            unindex(well, firstSegment);
+            if (!correction) {
+                well.ensureCapacity(well.size + 1);
+                int tail = well.size - i;
+                if (tail > 0) {
+                    System.arraycopy(well.md, i, well.md, i + 1, tail);
+                    System.arraycopy(well.tvd, i, well.tvd, i + 1, tail);
+                    System.arraycopy(well.north, i, well.north, i + 1, tail);
+                    System.arraycopy(well.east, i, well.east, i + 1, tail);
+                    System.arraycopy(well.radius, i, well.radius, i + 1, tail);
+                }
+                well.size++;
+            }
+            well.md[i] = mdFt;
+            well.tvd[i] = tvdFt;
+            well.north[i] = northFt + well.surfaceNorthFt;
+            well.east[i] = eastFt + well.surfaceEastFt;
+            well.radius[i] = radiusFt;
+            index(well, firstSegment);
+            return true;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Closest approach of every offset well within {@code scanRadiusFt} of the reference stations
+     * from {@code fromMdFt} down to TD. Offsets out of range are not returned.
+     */
+    public List<Offset> closestApproach(UUID referenceWellId, double fromMdFt, double scanRadiusFt) {
+        lock.readLock().lock();
+        try {
+            Well ref = wells.get(referenceWellId);
+            if (ref == null || ref.size == 0) {
+                return new ArrayList<>();
+            }
+            Offset[] best = new Offset[slots.size()];
+            int start = Math.max(lowerBound(ref, fromMdFt - MD_TOLERANCE_FT), 0);
+            if (start >= ref.size) {
+                start = ref.size - 1;
+            }
+            for (int r = start; r < ref.size; r++) {
+                scanPoint(ref, r, scanRadiusFt, best);
+            }
+            List<Offset> result = new ArrayList<>();
+            for (Offset offset : best) {
+                if (offset != null && offset.distanceFt <= scanRadiusFt) {
+                    result.add(offset);
+                }
+            }
+            result.sort((a, b) -> Double.compare(a.separationFactor, b.separationFactor));
+            return result;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    private void scanPoint(Well ref, int r, double scanRadiusFt, Offset[] best) {
+        double pn = ref.north[r];
+        double pe = ref.east[r];
+        double pz = ref.tvd[r];
+        double pr = ref.radius[r];
+
+        long x0 = Math.max(cell(pn - scanRadiusFt), minX);
+        long x1 = Math.min(cell(pn + scanRadiusFt), maxX);
+        long y0 = Math.max(cell(pe - scanRadiusFt), minY);
+        long y1 = Math.min(cell(pe + scanRadiusFt), maxY);
+        long z0 = Math.max(cell(pz - scanRadiusFt), minZ);
+        long z1 = Math.min(cell(pz + scanRadiusFt), maxZ);
+
+        for (long x = x0; x <= x1; x++) {
+            for (long y = y0; y <= y1; y++) {
+                for (long z = z0; z <= z1; z++) {
+                    Cell c = cells.get(key(x, y, z));
+                    if (c == null) {
+                        continue;
+                    }
+                    for (int k = 0; k < c.size; k++) {
+                        long entry = c.entries[k];
+                        int slot = (int) (entry >>> 32);
+                        if (slot == ref.slot) {
+                            continue;
+                        }
+                        Well w = slots.get(slot);
+                        int s = (int) entry;
+
+                        // Closest point on segment s..s+1 to the reference station
+                        double dn = w.north[s + 1] - w.north[s];
+                        double de = w.east[s + 1] - w.east[s];
+                        double dz = w.tvd[s + 1] - w.tvd[s];
+                        double len2 = dn * dn + de * de + dz * dz;
+                        double t = len2 > 0
+                                ? ((pn - w.north[s]) * dn + (pe - w.east[s]) * de + (pz - w.tvd[s]) * dz) / len2
+                                : 0;
+                        t = Math.max(0, Math.min(1, t));
+                        double qn = w.north[s] + t * dn - pn;
+                        double qe = w.east[s] + t * de - pe;
+                        double qz = w.tvd[s] + t * dz - pz;
+                        double distance = Math.sqrt(qn * qn + qe * qe + qz * qz);
+
+                        Offset o = best[slot];
+                        if (o == null) {
+                            o = best[slot] = new Offset(w.id);
+                        }
+                        double offsetMd = w.md[s] + t * (w.md[s + 1] - w.md[s]);
+                        if (distance < o.distanceFt) {
+                            o.distanceFt = distance;
+                            o.referenceMdFt = ref.md[r];
+                            o.offsetMdFt = offsetMd;
+                        }
+                        double radii = pr + w.radius[s] + t * (w.radius[s + 1] - w.radius[s]);
+                        double sf = radii > 0 ? distance / radii : Double.POSITIVE_INFINITY;
+                        if (sf < o.separationFactor) {
+                            o.separationFactor = sf;
+                        }
+                    }
+                }
+            }
+        }
+    }
+
+    private void index(Well well, int fromSegment) {
+        for (int s = fromSegment; s < well.size - 1; s++) {
+            long entry = ((long) well.slot << 32) | s;
+            long x0 = cell(Math.min(well.north[s], well.north[s + 1]));
+            long x1 = cell(Math.max(well.north[s], well.north[s + 1]));
+            long y0 = cell(Math.min(well.east[s], well.east[s + 1]));
+            long y1 = cell(Math.max(well.east[s], well.east[s + 1]));
+            long z0 = cell(Math.min(well.tvd[s], well.tvd[s + 1]));
+            long z1 = cell(Math.max(well.tvd[s], well.tvd[s + 1]));
+            minX = Math.min(minX, x0);
+            minY = Math.min(minY, y0);
+            minZ = Math.min(minZ, z0);
+            maxX = Math.max(maxX, x1);
+            maxY = Math.max(maxY, y1);
+            maxZ = Math.max(maxZ, z1);
+            for (long x = x0; x <= x1; x++) {
+                for (long y = y0; y <= y1; y++) {
+                    for (long z = z0; z <= z1; z++) {
+                        cells.computeIfAbsent(key(x, y, z), k -> new Cell()).add(entry);
+                    }
+                }
+            }
+        }
+    }
+
+    private void unindex(Well well, int fromSegment) {
+        for (int s = fromSegment; s < well.size - 1; s++) {
+            long entry = ((long) well.slot << 32) | s;
+            long x0 = cell(Math.min(well.north[s], well.north[s + 1]));
+            long x1 = cell(Math.max(well.north[s], well.north[s + 1]));
+            long y0 = cell(Math.min(well.east[s], well.east[s + 1]));
+            long y1 = cell(Math.max(well.east[s], well.east[s + 1]));
+            long z0 = cell(Math.min(well.tvd[s], well.tvd[s + 1]));
+            long z1 = cell(Math.max(well.tvd[s], well.tvd[s + 1]));
+            for (long x = x0; x <= x1; x++) {
+                for (long y = y0; y <= y1; y++) {
+                    for (long z = z0; z <= z1; z++) {
+                        long key = key(x, y, z);
+                        Cell c = cells.get(key);
+                        if (c != null) {
+                            c.remove(entry);
+                            if (c.size == 0) {
+                                cells.remove(key);
+                            }
+                        }
+                    }
+                }
+            }
+        }
+    }
+
+    private static int lowerBound(Well well, double mdFt) {
+        int lo = 0;
+        int hi = well.size;
+        while (lo < hi) {
+            int mid = (lo + hi) >>> 1;
+            if (well.md[mid] < mdFt) {
+                lo = mid + 1;
+            } else {
+                hi = mid;
+            }
+        }
+        return lo;
+    }
+
+    private long cell(double coordinateFt) {
+        return (long) Math.floor(coordinateFt / cellSizeFt);
+    }
+
+    private static long key(long x, long y, long z) {
+        return (((x + CELL_BIAS) & CELL_MASK) << (2 * CELL_BITS))
+                | (((y + CELL_BIAS) & CELL_MASK) << CELL_BITS)
+                | ((z + CELL_BIAS) & CELL_MASK);
+    }
+}
@@ -0,0 +1,244 @@
+/**
+ * Copyright © 2016-2026 The Thingsboard Authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.thingsboard.nexus.dr.service;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.thingsboard.nexus.dr.config.DrModuleConfiguration;
+import org.thingsboard.nexus.dr.dto.anticollision.AntiCollisionResultDto;
+import org.thingsboard.nexus.dr.dto.anticollision.AntiCollisionStationDto;
+import org.thingsboard.nexus.dr.dto.anticollision.AntiCollisionWellDto;
+import org.thingsboard.nexus.dr.model.DrDirectionalSurvey;
+import org.thingsboard.nexus.dr.repository.DrDirectionalSurveyRepository;
+
+import jakarta.persistence.EntityNotFoundException;
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Anti-collision proximity between the wells of a pad / field.
+ *
+ * Each field owns an in-memory {@link DrAntiCollisionIndex} built from the definitive surveys of
+ * its registered wells and kept current as definitive stations are saved or reported by the
+ * survey processing rule node.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class DrAntiCollisionService {
+
+    private final DrDirectionalSurveyRepository surveyRepository;
+    private final DrModuleConfiguration config;
+
+    private final Map<UUID, DrAntiCollisionIndex> fields = new ConcurrentHashMap<>();
+    private final Map<UUID, AntiCollisionWellDto> wells = new ConcurrentHashMap<>();
+
+    /**
+     * Register a well in the index of a field (or move it there) and load its definitive surveys.
+     */
+    @Transactional(readOnly = true)
+    public AntiCollisionWellDto registerWell(UUID fieldId, UUID wellId, double surfaceNorthFt, double surfaceEastFt) {
+        log.info("Registering well {} in anti-collision field {}", wellId, fieldId);
+
+        AntiCollisionWellDto previous = wells.get(wellId);
+        if (previous != null && !previous.getFieldId().equals(fieldId)) {
+            index(previous.getFieldId()).removeWell(wellId);
+        }
+
+        List<DrDirectionalSurvey> surveys = surveyRepository.findByWellIdAndIsDefinitiveTrueOrderByMdFtAsc(wellId);
+        int n = surveys.size();
+        double[] md = new double[n];
+        double[] tvd = new double[n];
+        double[] north = new double[n];
+        double[] east = new double[n];
+        double[] radius = new double[n];
+        int size = 0;
+        for (DrDirectionalSurvey survey : surveys) {
+            if (survey.getTvdFt() == null || survey.getNorthFt() == null || survey.getEastFt() == null) {
+                continue;
+            }
+            md[size] = survey.getMdFt().doubleValue();
+            tvd[size] = survey.getTvdFt().doubleValue();
+            north[size] = survey.getNorthFt().doubleValue();
+            east[size] = survey.getEastFt().doubleValue();
+            radius[size] = uncertaintyRadius(survey, md[size]);
+            size++;
+        }
+        index(fieldId).putWell(wellId, surfaceNorthFt, surfaceEastFt, md, tvd, north, east, radius, size);
+
+        AntiCollisionWellDto well = AntiCollisionWellDto.builder()
+                .fieldId(fieldId)
+                .wellId(wellId)
+                .surfaceNorthFt(surfaceNorthFt)
+                .surfaceEastFt(surfaceEastFt)
+                .stationCount(size)
+                .build();
+        wells.put(wellId, well);
+        return well;
+    }
+
+    public void unregisterWell(UUID wellId) {
+        AntiCollisionWellDto well = wells.remove(wellId);
+        if (well == null) {
+            throw new EntityNotFoundException("Well not registered for anti-collision: " + wellId);
+        }
+        index(well.getFieldId()).removeWell(wellId);
+    }
+
+    /**
+     * Add or correct a definitive station reported for a registered well.
+     */
+    public void recordStation(UUID wellId, AntiCollisionStationDto station) {
+        AntiCollisionWellDto well = wells.get(wellId);
+        if (well == null) {
+            throw new EntityNotFoundException("Well not registered for anti-collision: " + wellId);
+        }
+        if (station.getMdFt() == null || station.getTvdFt() == null
+                || station.getNorthingFt() == null || station.getEastingFt() == null) {
+            throw new IllegalArgumentException("Station requires mdFt, tvdFt, northingFt and eastingFt");
+        }
+        double md = station.getMdFt();
+        double radius = station.getUncertaintyFt() != null ? station.getUncertaintyFt() : defaultRadius(md);
+        index(well.getFieldId()).putStation(wellId, md, station.getTvdFt(), station.getNorthingFt(), station.getEastingFt(), radius);
+    }
+
+    /**
+     * Keep the index current when a survey is saved through the survey service.
+     */
+    public void onSurveySaved(DrDirectionalSurvey survey) {
+        AntiCollisionWellDto well = wells.get(survey.getWellId());
+        if (well == null || !Boolean.TRUE.equals(survey.getIsDefinitive()) || survey.getTvdFt() == null
+                || survey.getNorthFt() == null || survey.getEastFt() == null) {
+            return;
+        }
+        double md = survey.getMdFt().doubleValue();
+        index(well.getFieldId()).putStation(well.getWellId(), md, survey.getTvdFt().doubleValue(),
+                survey.getNorthFt().doubleValue(), survey.getEastFt().doubleValue(), uncertaintyRadius(survey, md));
+    }
+
+    /**
+     * Reload a registered well after its stored trajectory changed in bulk (recalculation, deletion).
+     */
+    @Transactional(readOnly = true)
+    public void refreshWell(UUID wellId) {
+        AntiCollisionWellDto well = wells.get(wellId);
+        if (well != null) {
+            registerWell(well.getFieldId(), wellId, well.getSurfaceNorthFt(), well.getSurfaceEastFt());
+        }
+    }
+
+    @Transactional(readOnly = true)
+    public void refreshRun(UUID runId) {
+        if (wells.isEmpty()) {
+            return;
+        }
+        List<DrDirectionalSurvey> surveys = surveyRepository.findByRunId(runId, PageRequest.of(0, 1)).getContent();
+        if (!surveys.isEmpty()) {
+            refreshWell(surveys.get(0).getWellId());
+        }
+    }
+
+    /**
+     * Closest approach and separation factor of a well to all offsets of its field.
+     * Without {@code fromMdFt} only the deepest station (the bit position) is checked.
+     */
+    public AntiCollisionResultDto getClosestApproach(UUID wellId, Double fromMdFt, Double scanRadiusFt) {
+        long start = System.nanoTime();
+        AntiCollisionWellDto well = wells.get(wellId);
+        if (well == null) {
+            throw new EntityNotFoundException("Well not registered for anti-collision: " + wellId);
+        }
+        double from = fromMdFt != null ? fromMdFt : Double.MAX_VALUE;
+        double radius = scanRadiusFt != null ? scanRadiusFt : config.getAntiCollisionScanRadiusFt();
+
+        List<DrAntiCollisionIndex.Offset> offsets = index(well.getFieldId()).closestApproach(wellId, from, radius);
+
+        List<AntiCollisionResultDto.OffsetWell> result = new ArrayList<>(offsets.size());
+        String worst = AntiCollisionResultDto.LEVEL_OK;
+        for (DrAntiCollisionIndex.Offset offset : offsets) {
+            String level = level(offset.separationFactor);
+            if (severity(level) > severity(worst)) {
+                worst = level;
+            }
+            result.add(AntiCollisionResultDto.OffsetWell.builder()
+                    .wellId(offset.wellId)
+                    .closestDistanceFt(offset.distanceFt)
+                    .referenceMdFt(offset.referenceMdFt)
+                    .offsetMdFt(offset.offsetMdFt)
+                    .separationFactor(Double.isInfinite(offset.separationFactor) ? null : offset.separationFactor)
+                    .level(level)
+                    .build());
+        }
+
+        return AntiCollisionResultDto.builder()
+                .fieldId(well.getFieldId())
+                .wellId(wellId)
+                .fromMdFt(fromMdFt != null ? fromMdFt : 0.0)
+                .scanRadiusFt(radius)
+                .offsets(result)
+                .level(worst)
+                .elapsedMs((System.nanoTime() - start) / 1_000_000)
+                .build();
+    }
+
+    private DrAntiCollisionIndex index(UUID fieldId) {
+        return fields.computeIfAbsent(fieldId, id -> new DrAntiCollisionIndex(config.getAntiCollisionCellSizeFt()));
+    }
+
+    private double uncertaintyRadius(DrDirectionalSurvey survey, double md) {
+        double n = value(survey.getNorthUncertaintyFt());
+        double e = value(survey.getEastUncertaintyFt());
+        double t = value(survey.getTvdUncertaintyFt());
+        double r = Math.sqrt(n * n + e * e + t * t);
+        return r > 0 ? r : defaultRadius(md);
+    }
+
+    private double defaultRadius(double md) {
+        return md * config.getAntiCollisionUncertaintyFtPer1000Ft() / 1000.0;
+    }
+
+    private String level(double separationFactor) {
+        if (separationFactor < config.getAntiCollisionStopSeparationFactor()) {
+            return AntiCollisionResultDto.LEVEL_STOP;
+        }
+        if (separationFactor < config.getAntiCollisionWarningSeparationFactor()) {
+            return AntiCollisionResultDto.LEVEL_WARNING;
+        }
+        return AntiCollisionResultDto.LEVEL_OK;
+    }
+
+    private static int severity(String level) {
+        switch (level) {
+            case AntiCollisionResultDto.LEVEL_STOP:
+                return 2;
+            case AntiCollisionResultDto.LEVEL_WARNING:
+                return 1;
+            default:
+                return 0;
+        }
+    }
+
+    private static double value(BigDecimal v) {
+        return v != null ? v.doubleValue() : 0.0;
+    }
+}
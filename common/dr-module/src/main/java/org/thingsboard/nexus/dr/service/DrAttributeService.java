@@ -15,28 +15,21 @@
  */
 package org.thingsboard.nexus.dr.service;
 
-import com.fasterxml.jackson.databind.JsonNode;
-import com.fasterxml.jackson.databind.ObjectMapper;
+import com.google.common.util.concurrent.ListenableFuture;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.stereotype.Service;
 import org.thingsboard.server.common.data.AttributeScope;
 import org.thingsboard.server.common.data.id.AssetId;
 import org.thingsboard.server.common.data.kv.AttributeKvEntry;
-import org.thingsboard.server.common.data.kv.BaseAttributeKvEntry;
-import org.thingsboard.server.common.data.kv.StringDataEntry;
-import org.thingsboard.server.common.data.kv.LongDataEntry;
-import org.thingsboard.server.common.data.kv.DoubleDataEntry;
-import org.thingsboard.server.common.data.kv.BooleanDataEntry;
-import org.thingsboard.server.common.data.kv.JsonDataEntry;
 import org.thingsboard.server.dao.attributes.AttributesService;
+import org.thingsboard.server.dao.nexus.NexusAttributes;
 
-import java.math.BigDecimal;
-import java.util.ArrayList;
+import java.util.Collection;
 import java.util.List;
 import java.util.Map;
 import java.util.UUID;
-import java.util.concurrent.ExecutionException;
 
 /**
  * Service for managing attributes on Drilling Assets
@@ -47,31 +40,28 @@ import java.util.concurrent.ExecutionException;
 public class DrAttributeService {
 
     private final AttributesService attributesService;
-    private final ObjectMapper objectMapper = new ObjectMapper();
+    private final ApplicationEventPublisher eventPublisher;
 
     /**
      * Save server-scope attributes for an entity
      */
     public void saveServerAttributes(UUID entityId, Map<String, Object> attributes) {
         log.debug("Saving server attributes for entity {}: {}", entityId, attributes);
+        if (NexusAttributes.save(attributesService, entityId, AttributeScope.SERVER_SCOPE, attributes)) {
+            eventPublisher.publishEvent(new DrAttributesUpdatedEvent(entityId));
+        }
+    }
 
-        try {
-            List<AttributeKvEntry> kvEntries = new ArrayList<>();
-
-            for (Map.Entry<String, Object> entry : attributes.entrySet()) {
-                AttributeKvEntry kvEntry = createKvEntry(entry.getKey(), entry.getValue());
-                if (kvEntry != null) {
-                    kvEntries.add(kvEntry);
-                }
-            }
-
-            if (!kvEntries.isEmpty()) {
-                attributesService.save(null, new AssetId(entityId), AttributeScope.SERVER_SCOPE, kvEntries);
-                log.debug("Saved {} attributes for entity {}", kvEntries.size(), entityId);
-            }
-        } catch (Exception e) {
-            log.error("Error saving attributes for entity {}: {}", entityId, e.getMessage(), e);
-            throw new RuntimeException("Failed to save attributes", e);
+    /**
+     * Save SERVER_SCOPE attributes for several entities through {@link NexusAttributes#saveServerAttributes}.
+     * The writes do not take part in the caller's database transaction: a caller that rolls back has to
+     * remove what was written itself.
+     */
+    public void saveServerAttributes(Map<UUID, Map<String, Object>> attributesByEntity) {
+        List<UUID> entityIds = NexusAttributes.saveServerAttributes(attributesService, attributesByEntity);
+        log.debug("Saved server attributes for {} entities", entityIds.size());
+        for (UUID entityId : entityIds) {
+            eventPublisher.publishEvent(new DrAttributesUpdatedEvent(entityId));
         }
     }
 
@@ -80,24 +70,8 @@ public class DrAttributeService {
      */
     public void saveSharedAttributes(UUID entityId, Map<String, Object> attributes) {
         log.debug("Saving shared attributes for entity {}: {}", entityId, attributes);
-
-        try {
-            List<AttributeKvEntry> kvEntries = new ArrayList<>();
-
-            for (Map.Entry<String, Object> entry : attributes.entrySet()) {
-                AttributeKvEntry kvEntry = createKvEntry(entry.getKey(), entry.getValue());
-                if (kvEntry != null) {
-                    kvEntries.add(kvEntry);
-                }
-            }
-
-            if (!kvEntries.isEmpty()) {
-                attributesService.save(null, new AssetId(entityId), AttributeScope.SHARED_SCOPE, kvEntries);
-                log.debug("Saved {} shared attributes for entity {}", kvEntries.size(), entityId);
-            }
-        } catch (Exception e) {
-            log.error("Error saving shared attributes for entity {}: {}", entityId, e.getMessage(), e);
-            throw new RuntimeException("Failed to save shared attributes", e);
+        if (NexusAttributes.save(attributesService, entityId, AttributeScope.SHARED_SCOPE, attributes)) {
+            eventPublisher.publishEvent(new DrAttributesUpdatedEvent(entityId));
         }
     }
 
@@ -113,75 +87,32 @@ public class DrAttributeService {
      * Obtiene todos los atributos SERVER_SCOPE de un Asset.
      */
     public List<AttributeKvEntry> getServerAttributes(UUID assetId) {
-        try {
-            return attributesService.findAll(null, new AssetId(assetId), AttributeScope.SERVER_SCOPE).get();
-        } catch (InterruptedException | ExecutionException e) {
-            log.error("Error getting SERVER_SCOPE attributes for asset {}: {}", assetId, e.getMessage());
-            Thread.currentThread().interrupt();
-            throw new RuntimeException("Failed to get server attributes", e);
-        }
+        return NexusAttributes.await(attributesService.findAll(null, new AssetId(assetId), AttributeScope.SERVER_SCOPE),
+                "get server attributes of asset " + assetId);
     }
 
     /**
-     * Obtiene atributos específicos por sus claves.
+     * Obtiene los atributos SERVER_SCOPE de varios Assets, en lotes de consultas en paralelo.
      */
-    public List<AttributeKvEntry> getServerAttributes(UUID assetId, List<String> keys) {
-        try {
-            return attributesService.find(null, new AssetId(assetId), AttributeScope.SERVER_SCOPE, keys).get();
-        } catch (InterruptedException | ExecutionException e) {
-            log.error("Error getting attributes {} for asset {}: {}", keys, assetId, e.getMessage());
-            Thread.currentThread().interrupt();
-            throw new RuntimeException("Failed to get attributes", e);
-        }
+    public Map<UUID, List<AttributeKvEntry>> getServerAttributes(Collection<UUID> assetIds) {
+        return NexusAttributes.findServerAttributes(attributesService, assetIds);
     }
 
     /**
-     * Elimina atributos por sus claves.
+     * Obtiene atributos específicos por sus claves.
      */
-    public void deleteAttributes(UUID assetId, AttributeScope scope, List<String> keys) {
-        try {
-            attributesService.removeAll(null, new AssetId(assetId), scope, keys);
-            log.debug("Deleted attributes {} from asset {} in scope {}", keys, assetId, scope);
-        } catch (Exception e) {
-            log.error("Error deleting attributes for asset {}: {}", assetId, e.getMessage());
-            throw new RuntimeException("Failed to delete attributes", e);
-        }
+    public List<AttributeKvEntry> getServerAttributes(UUID assetId, List<String> keys) {
+        return NexusAttributes.await(attributesService.find(null, new AssetId(assetId), AttributeScope.SERVER_SCOPE, keys),
+                "get attributes " + keys + " of asset " + assetId);
     }
 
     /**
-     * Create an AttributeKvEntry from a key-value pair
+     * Elimina atributos por sus claves.
      */
-    private AttributeKvEntry createKvEntry(String key, Object value) {
-        if (value == null) {
-            return null;
-        }
-
-        long ts = System.currentTimeMillis();
-
-        if (value instanceof String) {
-            return new BaseAttributeKvEntry(new StringDataEntry(key, (String) value), ts);
-        } else if (value instanceof Integer) {
-            return new BaseAttributeKvEntry(new LongDataEntry(key, ((Integer) value).longValue()), ts);
-        } else if (value instanceof Long) {
-            return new BaseAttributeKvEntry(new LongDataEntry(key, (Long) value), ts);
-        } else if (value instanceof Double) {
-            return new BaseAttributeKvEntry(new DoubleDataEntry(key, (Double) value), ts);
-        } else if (value instanceof Float) {
-            return new BaseAttributeKvEntry(new DoubleDataEntry(key, ((Float) value).doubleValue()), ts);
-        } else if (value instanceof BigDecimal) {
-            return new BaseAttributeKvEntry(new DoubleDataEntry(key, ((BigDecimal) value).doubleValue()), ts);
-        } else if (value instanceof Boolean) {
-            return new BaseAttributeKvEntry(new BooleanDataEntry(key, (Boolean) value), ts);
-        } else if (value instanceof JsonNode) {
-            return new BaseAttributeKvEntry(new JsonDataEntry(key, ((JsonNode) value).toString()), ts);
-        } else {
-            // Para objetos complejos, serializar a JSON
-            try {
-                JsonNode jsonNode = objectMapper.valueToTree(value);
-                return new BaseAttributeKvEntry(new JsonDataEntry(key, jsonNode.toString()), ts);
-            } catch (Exception e) {
-                return new BaseAttributeKvEntry(new StringDataEntry(key, value.toString()), ts);
-            }
-        }
+    public void deleteAttributes(UUID assetId, AttributeScope scope, List<String> keys) {
+        ListenableFuture<List<String>> removed = attributesService.removeAll(null, new AssetId(assetId), scope, keys);
+        NexusAttributes.await(removed, "delete attributes of asset " + assetId);
+        log.debug("Deleted attributes {} from asset {} in scope {}", keys, assetId, scope);
+        eventPublisher.publishEvent(new DrAttributesUpdatedEvent(assetId));
     }
 }
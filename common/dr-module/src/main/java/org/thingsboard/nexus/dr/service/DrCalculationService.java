@@ -27,6 +27,7 @@ import java.math.RoundingMode;
 /**
  * Service for drilling engineering calculations.
  * Implements industry-standard formulas for MSE, ECD, Swab/Surge, Kick Tolerance, T&D.
+ * The arithmetic runs in double through {@link DrMechanicsEngine}; BigDecimal is only used at the DTO boundary.
  */
 @Service
 @RequiredArgsConstructor
@@ -34,7 +35,8 @@ import java.math.RoundingMode;
 public class DrCalculationService {
 
     private static final MathContext MC = new MathContext(10, RoundingMode.HALF_UP);
-    private static final BigDecimal PI = BigDecimal.valueOf(Math.PI);
+
+    private final DrMechanicsContextService mechanicsContextService;
 
     // ==================== MSE (Mechanical Specific Energy) ====================
 
@@ -54,55 +56,41 @@ public class DrCalculationService {
     public MseCalculationResult calculateMse(MseCalculationRequest request) {
         log.debug("Calculating MSE for bit diameter {} in", request.getBitDiameterIn());
 
-        BigDecimal torque = request.getTorqueFtLbs();
-        BigDecimal rpm = request.getRpm();
-        BigDecimal bitDiameter = request.getBitDiameterIn();
-        BigDecimal rop = request.getRopFtHr();
-        BigDecimal wob = request.getWobLbs();
+        double torque = request.getTorqueFtLbs().doubleValue();
+        double rpm = request.getRpm().doubleValue();
+        double bitDiameter = request.getBitDiameterIn().doubleValue();
+        double rop = request.getRopFtHr().doubleValue();
+        double wob = request.getWobLbs().doubleValue();
 
         // Validate inputs
-        if (rop.compareTo(BigDecimal.ZERO) <= 0) {
+        if (rop <= 0) {
             throw new IllegalArgumentException("ROP must be greater than zero");
         }
-        if (bitDiameter.compareTo(BigDecimal.ZERO) <= 0) {
+        if (bitDiameter <= 0) {
             throw new IllegalArgumentException("Bit diameter must be greater than zero");
         }
 
-        // D²
-        BigDecimal diameterSquared = bitDiameter.multiply(bitDiameter, MC);
-
-        // Rotational component: (480 × T × N) / (D² × ROP)
-        BigDecimal rotationalComponent = BigDecimal.valueOf(480)
-                .multiply(torque, MC)
-                .multiply(rpm, MC)
-                .divide(diameterSquared.multiply(rop, MC), MC);
-
-        // Axial component: (4 × WOB) / (π × D²)
-        BigDecimal axialComponent = BigDecimal.valueOf(4)
-                .multiply(wob, MC)
-                .divide(PI.multiply(diameterSquared, MC), MC);
-
-        BigDecimal mse = rotationalComponent.add(axialComponent, MC);
+        double[] out = new double[3];
+        DrMechanicsEngine.mse(torque, rpm, bitDiameter, rop, wob, out);
+        double mse = out[0];
 
         // Calculate drilling efficiency if rock strength is provided
         BigDecimal drillingEfficiency = null;
         Boolean isFoundering = null;
         if (request.getEstimatedRockStrengthPsi() != null &&
                 request.getEstimatedRockStrengthPsi().compareTo(BigDecimal.ZERO) > 0) {
-            drillingEfficiency = request.getEstimatedRockStrengthPsi()
-                    .divide(mse, MC)
-                    .multiply(BigDecimal.valueOf(100), MC);
+            double rockStrength = request.getEstimatedRockStrengthPsi().doubleValue();
+            drillingEfficiency = scaled(rockStrength / mse * 100.0, 2);
 
             // Foundering detection: MSE > 3× rock strength
-            isFoundering = mse.compareTo(request.getEstimatedRockStrengthPsi().multiply(BigDecimal.valueOf(3))) > 0;
+            isFoundering = mse > rockStrength * 3;
         }
 
         return MseCalculationResult.builder()
-                .msePsi(mse.setScale(2, RoundingMode.HALF_UP))
-                .rotationalComponentPsi(rotationalComponent.setScale(2, RoundingMode.HALF_UP))
-                .axialComponentPsi(axialComponent.setScale(2, RoundingMode.HALF_UP))
-                .drillingEfficiencyPercent(drillingEfficiency != null ?
-                        drillingEfficiency.setScale(2, RoundingMode.HALF_UP) : null)
+                .msePsi(scaled(mse, 2))
+                .rotationalComponentPsi(scaled(out[1], 2))
+                .axialComponentPsi(scaled(out[2], 2))
+                .drillingEfficiencyPercent(drillingEfficiency)
                 .isFoundering(isFoundering)
                 .build();
     }
@@ -123,36 +111,30 @@ public class DrCalculationService {
     public EcdCalculationResult calculateEcd(EcdCalculationRequest request) {
         log.debug("Calculating ECD at TVD {} ft", request.getTvdFt());
 
-        BigDecimal mudWeight = request.getMudWeightPpg();
-        BigDecimal tvd = request.getTvdFt();
+        double mudWeight = request.getMudWeightPpg().doubleValue();
+        double tvd = request.getTvdFt().doubleValue();
 
-        if (tvd.compareTo(BigDecimal.ZERO) <= 0) {
+        if (tvd <= 0) {
             throw new IllegalArgumentException("TVD must be greater than zero");
         }
 
         // Calculate annular pressure loss if flow parameters provided
-        BigDecimal annularPressureLoss = request.getAnnularPressureLossPsi();
-        if (annularPressureLoss == null && request.getFlowRateGpm() != null) {
+        double annularPressureLoss = 0;
+        if (request.getAnnularPressureLossPsi() != null) {
+            annularPressureLoss = request.getAnnularPressureLossPsi().doubleValue();
+        } else if (request.getFlowRateGpm() != null) {
             annularPressureLoss = calculateAnnularPressureLoss(request);
         }
 
-        if (annularPressureLoss == null) {
-            annularPressureLoss = BigDecimal.ZERO;
-        }
-
         // ECD = MW + APL / (0.052 × TVD)
-        BigDecimal ecdIncrement = annularPressureLoss
-                .divide(BigDecimal.valueOf(0.052).multiply(tvd, MC), MC);
-
-        BigDecimal ecd = mudWeight.add(ecdIncrement, MC);
+        double ecd = DrMechanicsEngine.ecd(mudWeight, annularPressureLoss, tvd);
+        double ecdIncrement = ecd - mudWeight;
 
         // Calculate hydrostatic pressure
-        BigDecimal hydrostaticPressure = mudWeight
-                .multiply(BigDecimal.valueOf(0.052), MC)
-                .multiply(tvd, MC);
+        double hydrostaticPressure = mudWeight * DrMechanicsEngine.PRESSURE_GRADIENT * tvd;
 
         // Calculate bottom hole pressure
-        BigDecimal bottomHolePressure = hydrostaticPressure.add(annularPressureLoss, MC);
+        double bottomHolePressure = hydrostaticPressure + annularPressureLoss;
 
         // Check against formation pressures if provided
         Boolean isAboveFracGradient = null;
@@ -161,66 +143,45 @@ public class DrCalculationService {
         BigDecimal marginToPore = null;
 
         if (request.getFracGradientPpg() != null) {
-            marginToFrac = request.getFracGradientPpg().subtract(ecd, MC);
-            isAboveFracGradient = ecd.compareTo(request.getFracGradientPpg()) > 0;
+            double fracGradient = request.getFracGradientPpg().doubleValue();
+            marginToFrac = scaled(fracGradient - ecd, 3);
+            isAboveFracGradient = ecd > fracGradient;
         }
 
         if (request.getPorePressurePpg() != null) {
-            marginToPore = ecd.subtract(request.getPorePressurePpg(), MC);
-            isBelowPorePressure = ecd.compareTo(request.getPorePressurePpg()) < 0;
+            double porePressure = request.getPorePressurePpg().doubleValue();
+            marginToPore = scaled(ecd - porePressure, 3);
+            isBelowPorePressure = ecd < porePressure;
         }
 
         return EcdCalculationResult.builder()
-                .ecdPpg(ecd.setScale(3, RoundingMode.HALF_UP))
-                .ecdIncrementPpg(ecdIncrement.setScale(3, RoundingMode.HALF_UP))
-                .annularPressureLossPsi(annularPressureLoss.setScale(2, RoundingMode.HALF_UP))
-                .hydrostaticPressurePsi(hydrostaticPressure.setScale(2, RoundingMode.HALF_UP))
-                .bottomHolePressurePsi(bottomHolePressure.setScale(2, RoundingMode.HALF_UP))
+                .ecdPpg(scaled(ecd, 3))
+                .ecdIncrementPpg(scaled(ecdIncrement, 3))
+                .annularPressureLossPsi(scaled(annularPressureLoss, 2))
+                .hydrostaticPressurePsi(scaled(hydrostaticPressure, 2))
+                .bottomHolePressurePsi(scaled(bottomHolePressure, 2))
                 .isAboveFracGradient(isAboveFracGradient)
                 .isBelowPorePressure(isBelowPorePressure)
-                .marginToFracPpg(marginToFrac != null ? marginToFrac.setScale(3, RoundingMode.HALF_UP) : null)
-                .marginToPorePpg(marginToPore != null ? marginToPore.setScale(3, RoundingMode.HALF_UP) : null)
+                .marginToFracPpg(marginToFrac)
+                .marginToPorePpg(marginToPore)
                 .build();
     }
 
     /**
      * Simplified annular pressure loss calculation using Bingham plastic model.
      */
-    private BigDecimal calculateAnnularPressureLoss(EcdCalculationRequest request) {
-        // Simplified APL calculation
-        // APL = (PV × V × L) / (1000 × (Dh - Dp)²) + (YP × L) / (200 × (Dh - Dp))
-        // This is a simplified version; actual calculations require more parameters
-
+    private double calculateAnnularPressureLoss(EcdCalculationRequest request) {
         if (request.getPlasticViscosityCp() == null || request.getYieldPointLbf100sqft() == null) {
-            return BigDecimal.ZERO;
+            return 0;
         }
 
-        BigDecimal pv = request.getPlasticViscosityCp();
-        BigDecimal yp = request.getYieldPointLbf100sqft();
-        BigDecimal annularLength = request.getTvdFt(); // Simplified: use TVD as length
-        BigDecimal holeId = request.getHoleIdIn() != null ? request.getHoleIdIn() : BigDecimal.valueOf(8.5);
-        BigDecimal pipeOd = request.getPipeOdIn() != null ? request.getPipeOdIn() : BigDecimal.valueOf(5.0);
+        double holeId = request.getHoleIdIn() != null ? request.getHoleIdIn().doubleValue() : 8.5;
+        double pipeOd = request.getPipeOdIn() != null ? request.getPipeOdIn().doubleValue() : 5.0;
 
-        BigDecimal annularGap = holeId.subtract(pipeOd, MC);
-        if (annularGap.compareTo(BigDecimal.ZERO) <= 0) {
-            return BigDecimal.ZERO;
-        }
-
-        // Annular velocity (simplified)
-        BigDecimal flowRate = request.getFlowRateGpm();
-        BigDecimal annularArea = PI.multiply(holeId.pow(2).subtract(pipeOd.pow(2)), MC)
-                .divide(BigDecimal.valueOf(4), MC);
-        BigDecimal annularVelocity = flowRate.multiply(BigDecimal.valueOf(0.408), MC)
-                .divide(annularArea, MC);
-
-        // Simplified pressure loss
-        BigDecimal viscousLoss = pv.multiply(annularVelocity, MC).multiply(annularLength, MC)
-                .divide(BigDecimal.valueOf(1000).multiply(annularGap.pow(2), MC), MC);
-
-        BigDecimal yieldLoss = yp.multiply(annularLength, MC)
-                .divide(BigDecimal.valueOf(200).multiply(annularGap, MC), MC);
-
-        return viscousLoss.add(yieldLoss, MC);
+        // Simplified: use TVD as annular length
+        return DrMechanicsEngine.annularPressureLoss(request.getFlowRateGpm().doubleValue(),
+                request.getPlasticViscosityCp().doubleValue(), request.getYieldPointLbf100sqft().doubleValue(),
+                holeId, pipeOd, request.getTvdFt().doubleValue());
     }
 
     // ==================== Swab and Surge ====================
@@ -234,52 +195,36 @@ public class DrCalculationService {
     public SwabSurgeCalculationResult calculateSwabSurge(SwabSurgeCalculationRequest request) {
         log.debug("Calculating Swab/Surge for trip speed {} ft/min", request.getTripSpeedFtMin());
 
-        BigDecimal mudWeight = request.getMudWeightPpg();
-        BigDecimal tvd = request.getTvdFt();
-        BigDecimal tripSpeed = request.getTripSpeedFtMin();
+        double mudWeight = request.getMudWeightPpg().doubleValue();
+        double tvd = request.getTvdFt().doubleValue();
+        double tripSpeed = request.getTripSpeedFtMin().doubleValue();
+        double holeId = request.getHoleIdIn().doubleValue();
+        double pipeOd = request.getPipeOdIn().doubleValue();
 
-        // Calculate clinging constant based on annular geometry
-        BigDecimal holeId = request.getHoleIdIn();
-        BigDecimal pipeOd = request.getPipeOdIn();
-        BigDecimal closedPipeOd = request.getClosedEndOdIn() != null ?
-                request.getClosedEndOdIn() : pipeOd;
+        if (holeId <= pipeOd) {
+            throw new IllegalArgumentException("Hole ID must be greater than pipe OD");
+        }
+        if (tvd <= 0) {
+            throw new IllegalArgumentException("TVD must be greater than zero");
+        }
 
         // K factor for open-ended pipe vs closed
-        BigDecimal kFactor = request.getIsOpenEnded() != null && request.getIsOpenEnded() ?
-                BigDecimal.valueOf(0.45) : BigDecimal.valueOf(1.0);
-
-        // Annular velocity due to pipe movement
-        BigDecimal pipeArea = PI.multiply(pipeOd.pow(2), MC).divide(BigDecimal.valueOf(4), MC);
-        BigDecimal holeArea = PI.multiply(holeId.pow(2), MC).divide(BigDecimal.valueOf(4), MC);
-        BigDecimal annularArea = holeArea.subtract(pipeArea, MC);
-
-        BigDecimal clingingVelocity = tripSpeed.multiply(pipeArea, MC)
-                .divide(annularArea, MC)
-                .multiply(kFactor, MC);
+        boolean openEnded = request.getIsOpenEnded() != null && request.getIsOpenEnded();
+        double pv = request.getPlasticViscosityCp() != null ? request.getPlasticViscosityCp().doubleValue() : 20;
+        double yp = request.getYieldPointLbf100sqft() != null ? request.getYieldPointLbf100sqft().doubleValue() : 10;
 
         // Pressure change due to clinging effect (simplified)
-        BigDecimal pv = request.getPlasticViscosityCp() != null ?
-                request.getPlasticViscosityCp() : BigDecimal.valueOf(20);
-        BigDecimal yp = request.getYieldPointLbf100sqft() != null ?
-                request.getYieldPointLbf100sqft() : BigDecimal.valueOf(10);
-
-        BigDecimal annularGap = holeId.subtract(pipeOd, MC).divide(BigDecimal.valueOf(2), MC);
-
-        // Simplified pressure change calculation
-        BigDecimal pressureChange = pv.multiply(clingingVelocity, MC).multiply(tvd, MC)
-                .divide(BigDecimal.valueOf(1500).multiply(annularGap.pow(2), MC), MC)
-                .add(yp.multiply(tvd, MC).divide(BigDecimal.valueOf(225).multiply(annularGap, MC), MC));
+        double pressureChange = DrMechanicsEngine.swabSurgePressure(tripSpeed, holeId, pipeOd, openEnded, pv, yp, tvd);
 
         // Convert to ECD equivalent
-        BigDecimal ecdChange = pressureChange
-                .divide(BigDecimal.valueOf(0.052).multiply(tvd, MC), MC);
+        double ecdChange = pressureChange / (DrMechanicsEngine.PRESSURE_GRADIENT * tvd);
 
         // Swab reduces pressure, Surge increases
-        BigDecimal swabEcd = mudWeight.subtract(ecdChange, MC);
-        BigDecimal surgeEcd = mudWeight.add(ecdChange, MC);
+        double swabEcd = mudWeight - ecdChange;
+        double surgeEcd = mudWeight + ecdChange;
 
-        BigDecimal swabPressure = swabEcd.multiply(BigDecimal.valueOf(0.052), MC).multiply(tvd, MC);
-        BigDecimal surgePressure = surgeEcd.multiply(BigDecimal.valueOf(0.052), MC).multiply(tvd, MC);
+        double swabPressure = swabEcd * DrMechanicsEngine.PRESSURE_GRADIENT * tvd;
+        double surgePressure = surgeEcd * DrMechanicsEngine.PRESSURE_GRADIENT * tvd;
 
         // Check against formation pressures
         Boolean swabBelowPore = null;
@@ -287,30 +232,30 @@ public class DrCalculationService {
         BigDecimal maxSafeTripSpeed = null;
 
         if (request.getPorePressurePpg() != null) {
-            swabBelowPore = swabEcd.compareTo(request.getPorePressurePpg()) < 0;
+            swabBelowPore = swabEcd < request.getPorePressurePpg().doubleValue();
         }
 
         if (request.getFracGradientPpg() != null) {
-            surgeAboveFrac = surgeEcd.compareTo(request.getFracGradientPpg()) > 0;
+            double fracGradient = request.getFracGradientPpg().doubleValue();
+            surgeAboveFrac = surgeEcd > fracGradient;
 
             // Calculate max safe trip speed
-            BigDecimal maxEcdIncrease = request.getFracGradientPpg().subtract(mudWeight, MC);
-            if (maxEcdIncrease.compareTo(BigDecimal.ZERO) > 0 && ecdChange.compareTo(BigDecimal.ZERO) > 0) {
-                maxSafeTripSpeed = tripSpeed.multiply(maxEcdIncrease, MC).divide(ecdChange, MC);
+            double maxEcdIncrease = fracGradient - mudWeight;
+            if (maxEcdIncrease > 0 && ecdChange > 0) {
+                maxSafeTripSpeed = scaled(tripSpeed * maxEcdIncrease / ecdChange, 1);
             }
         }
 
         return SwabSurgeCalculationResult.builder()
-                .swabEcdPpg(swabEcd.setScale(3, RoundingMode.HALF_UP))
-                .surgeEcdPpg(surgeEcd.setScale(3, RoundingMode.HALF_UP))
-                .swabPressurePsi(swabPressure.setScale(2, RoundingMode.HALF_UP))
-                .surgePressurePsi(surgePressure.setScale(2, RoundingMode.HALF_UP))
-                .pressureChangePsi(pressureChange.setScale(2, RoundingMode.HALF_UP))
-                .ecdChangePpg(ecdChange.setScale(3, RoundingMode.HALF_UP))
+                .swabEcdPpg(scaled(swabEcd, 3))
+                .surgeEcdPpg(scaled(surgeEcd, 3))
+                .swabPressurePsi(scaled(swabPressure, 2))
+                .surgePressurePsi(scaled(surgePressure, 2))
+                .pressureChangePsi(scaled(pressureChange, 2))
+                .ecdChangePpg(scaled(ecdChange, 3))
                 .swabBelowPorePressure(swabBelowPore)
                 .surgeAboveFracGradient(surgeAboveFrac)
-                .maxSafeTripSpeedFtMin(maxSafeTripSpeed != null ?
-                        maxSafeTripSpeed.setScale(1, RoundingMode.HALF_UP) : null)
+                .maxSafeTripSpeedFtMin(maxSafeTripSpeed)
                 .build();
     }
 
@@ -378,53 +323,74 @@ public class DrCalculationService {
 
     /**
      * Calculate Torque and Drag for drilling/tripping operations.
-     * Uses simplified soft-string model.
+     *
+     * When the request names a run with a definitive survey, the soft-string model is integrated
+     * station by station from the bit to surface, so build sections and doglegs contribute their own
+     * side force. Otherwise a single average inclination is applied over the whole string.
      */
     public TorqueDragCalculationResult calculateTorqueDrag(TorqueDragCalculationRequest request) {
         log.debug("Calculating Torque & Drag for operation: {}", request.getOperation());
 
-        BigDecimal frictionCoefficient = request.getFrictionCoefficient() != null ?
-                request.getFrictionCoefficient() : BigDecimal.valueOf(0.25);
-        BigDecimal mudWeight = request.getMudWeightPpg();
-        BigDecimal stringWeightLbsPerFt = request.getStringWeightLbsPerFt();
-        BigDecimal totalDepthFt = request.getTotalDepthFt();
-        BigDecimal avgInclinationDeg = request.getAvgInclinationDeg();
+        double frictionCoefficient = request.getFrictionCoefficient() != null ?
+                request.getFrictionCoefficient().doubleValue() : 0.25;
+        double mudWeight = request.getMudWeightPpg().doubleValue();
+        double stringWeightLbsPerFt = request.getStringWeightLbsPerFt().doubleValue();
+        double totalDepthFt = request.getTotalDepthFt().doubleValue();
+        double pipeOd = request.getPipeOdIn() != null ? request.getPipeOdIn().doubleValue() : 5.0;
+        double radius = pipeOd / 24.0; // Convert to feet
 
         // Buoyancy factor
-        BigDecimal steelDensity = BigDecimal.valueOf(65.5); // ppg
-        BigDecimal buoyancyFactor = BigDecimal.ONE.subtract(
-                mudWeight.divide(steelDensity, MC), MC);
+        double buoyancyFactor = DrMechanicsEngine.buoyancyFactor(mudWeight);
 
         // Buoyed string weight
-        BigDecimal buoyedWeightPerFt = stringWeightLbsPerFt.multiply(buoyancyFactor, MC);
-        BigDecimal totalBuoyedWeight = buoyedWeightPerFt.multiply(totalDepthFt, MC);
-
-        // Convert inclination to radians
-        double incRad = Math.toRadians(avgInclinationDeg.doubleValue());
-
-        // Axial (drag) force components
-        BigDecimal normalForce = totalBuoyedWeight.multiply(
-                BigDecimal.valueOf(Math.sin(incRad)), MC);
-        BigDecimal axialForce = totalBuoyedWeight.multiply(
-                BigDecimal.valueOf(Math.cos(incRad)), MC);
+        double buoyedWeightPerFt = stringWeightLbsPerFt * buoyancyFactor;
+        double totalBuoyedWeight = buoyedWeightPerFt * totalDepthFt;
+
+        DrMechanicsEngine.Survey survey = request.getRunId() != null ? mechanicsContextService.survey(request.getRunId()) : null;
+
+        double rotatingHookLoad;
+        double trippingInHookLoad;
+        double trippingOutHookLoad;
+        double slidingHookLoad;
+        double torque;
+        if (survey != null) {
+            double[] out = new double[3];
+            DrMechanicsEngine.softStringTorqueDrag(survey, totalDepthFt, buoyedWeightPerFt, frictionCoefficient, radius,
+                    0, DrMechanicsEngine.ROTATING, out);
+            rotatingHookLoad = out[0];
+            torque = out[1];
+            DrMechanicsEngine.softStringTorqueDrag(survey, totalDepthFt, buoyedWeightPerFt, frictionCoefficient, radius,
+                    0, DrMechanicsEngine.TRIPPING_IN, out);
+            trippingInHookLoad = out[0];
+            DrMechanicsEngine.softStringTorqueDrag(survey, totalDepthFt, buoyedWeightPerFt, frictionCoefficient, radius,
+                    0, DrMechanicsEngine.TRIPPING_OUT, out);
+            trippingOutHookLoad = out[0];
+            DrMechanicsEngine.softStringTorqueDrag(survey, totalDepthFt, buoyedWeightPerFt, frictionCoefficient, radius,
+                    0, DrMechanicsEngine.SLIDING, out);
+            slidingHookLoad = out[0];
+        } else {
+            if (request.getAvgInclinationDeg() == null) {
+                throw new IllegalArgumentException("Average inclination is required when no run survey is available");
+            }
+            double incRad = Math.toRadians(request.getAvgInclinationDeg().doubleValue());
+            double normalForce = totalBuoyedWeight * Math.sin(incRad);
+            double axialForce = totalBuoyedWeight * Math.cos(incRad);
+            double drag = normalForce * frictionCoefficient;
+
+            rotatingHookLoad = axialForce;
+            trippingInHookLoad = axialForce - drag;
+            trippingOutHookLoad = axialForce + drag;
+            slidingHookLoad = axialForce - drag; // The string slides down: same as trip in
+
+            // Torque = μ × N × r, where N = normal force, r = tool joint radius
+            torque = frictionCoefficient * normalForce * radius;
+        }
 
         // Drag force
-        BigDecimal dragForce = normalForce.multiply(frictionCoefficient, MC);
-
-        // Hook load calculations
-        BigDecimal rotatingHookLoad = axialForce;
-        BigDecimal trippingInHookLoad = axialForce.subtract(dragForce, MC);
-        BigDecimal trippingOutHookLoad = axialForce.add(dragForce, MC);
-        BigDecimal slidingHookLoad = axialForce.add(dragForce, MC); // Same as trip out for sliding
-
-        // Torque calculation
-        // Torque = μ × N × r, where N = normal force, r = tool joint radius
-        BigDecimal pipeOd = request.getPipeOdIn() != null ? request.getPipeOdIn() : BigDecimal.valueOf(5.0);
-        BigDecimal radius = pipeOd.divide(BigDecimal.valueOf(24), MC); // Convert to feet
-        BigDecimal torque = frictionCoefficient.multiply(normalForce, MC).multiply(radius, MC);
+        double dragForce = trippingOutHookLoad - rotatingHookLoad;
 
         // Determine which values to highlight based on operation
-        BigDecimal operationHookLoad;
+        double operationHookLoad;
         String operation = request.getOperation() != null ? request.getOperation().toUpperCase() : "ROTATING";
         switch (operation) {
             case "TRIPPING_IN":
@@ -441,15 +407,15 @@ public class DrCalculationService {
         }
 
         return TorqueDragCalculationResult.builder()
-                .rotatingHookLoadLbs(rotatingHookLoad.setScale(0, RoundingMode.HALF_UP))
-                .trippingInHookLoadLbs(trippingInHookLoad.setScale(0, RoundingMode.HALF_UP))
-                .trippingOutHookLoadLbs(trippingOutHookLoad.setScale(0, RoundingMode.HALF_UP))
-                .slidingHookLoadLbs(slidingHookLoad.setScale(0, RoundingMode.HALF_UP))
-                .surfaceTorqueFtLbs(torque.setScale(0, RoundingMode.HALF_UP))
-                .dragForceLbs(dragForce.setScale(0, RoundingMode.HALF_UP))
-                .buoyancyFactor(buoyancyFactor.setScale(4, RoundingMode.HALF_UP))
-                .totalBuoyedStringWeightLbs(totalBuoyedWeight.setScale(0, RoundingMode.HALF_UP))
-                .operationHookLoadLbs(operationHookLoad.setScale(0, RoundingMode.HALF_UP))
+                .rotatingHookLoadLbs(scaled(rotatingHookLoad, 0))
+                .trippingInHookLoadLbs(scaled(trippingInHookLoad, 0))
+                .trippingOutHookLoadLbs(scaled(trippingOutHookLoad, 0))
+                .slidingHookLoadLbs(scaled(slidingHookLoad, 0))
+                .surfaceTorqueFtLbs(scaled(torque, 0))
+                .dragForceLbs(scaled(dragForce, 0))
+                .buoyancyFactor(scaled(buoyancyFactor, 4))
+                .totalBuoyedStringWeightLbs(scaled(totalBuoyedWeight, 0))
+                .operationHookLoadLbs(scaled(operationHookLoad, 0))
                 .operation(operation)
                 .build();
     }
@@ -530,52 +496,40 @@ public class DrCalculationService {
     public BitHydraulicsCalculationResult calculateBitHydraulics(BitHydraulicsCalculationRequest request) {
         log.debug("Calculating bit hydraulics for TFA {} sq.in", request.getTotalFlowAreaSqIn());
 
-        BigDecimal flowRate = request.getFlowRateGpm();
-        BigDecimal mudWeight = request.getMudWeightPpg();
-        BigDecimal tfa = request.getTotalFlowAreaSqIn();
-        BigDecimal bitDiameter = request.getBitDiameterIn();
-
-        // Jet velocity (ft/s)
-        // Vn = 0.3208 × Q / TFA
-        BigDecimal jetVelocity = BigDecimal.valueOf(0.3208)
-                .multiply(flowRate, MC)
-                .divide(tfa, MC);
-
-        // Bit pressure drop (psi)
-        // ΔPbit = (MW × Q²) / (12042 × TFA²)
-        BigDecimal bitPressureDrop = mudWeight.multiply(flowRate.pow(2), MC)
-                .divide(BigDecimal.valueOf(12042).multiply(tfa.pow(2), MC), MC);
-
-        // Bit hydraulic horsepower (HHP)
-        // HHP = Q × ΔP / 1714
-        BigDecimal bitHhp = flowRate.multiply(bitPressureDrop, MC)
-                .divide(BigDecimal.valueOf(1714), MC);
-
-        // Hydraulic Horsepower per Square Inch (HSI)
-        // HSI = HHP / Bit Area
-        BigDecimal bitArea = PI.multiply(bitDiameter.pow(2), MC).divide(BigDecimal.valueOf(4), MC);
-        BigDecimal hsi = bitHhp.divide(bitArea, MC);
-
-        // Impact Force (lbs)
-        // IF = 0.01823 × MW × Q × Vn
-        BigDecimal impactForce = BigDecimal.valueOf(0.01823)
-                .multiply(mudWeight, MC)
-                .multiply(flowRate, MC)
-                .multiply(jetVelocity, MC);
+        double flowRate = request.getFlowRateGpm().doubleValue();
+        double mudWeight = request.getMudWeightPpg().doubleValue();
+        double tfa = request.getTotalFlowAreaSqIn().doubleValue();
+        double bitDiameter = request.getBitDiameterIn().doubleValue();
+
+        if (tfa <= 0) {
+            throw new IllegalArgumentException("TFA must be greater than zero");
+        }
+        if (bitDiameter <= 0) {
+            throw new IllegalArgumentException("Bit diameter must be greater than zero");
+        }
+
+        // Vn = 0.3208 × Q / TFA, ΔPbit = (MW × Q²) / (12042 × TFA²), HHP = Q × ΔP / 1714,
+        // HSI = HHP / Bit Area, IF = 0.01823 × MW × Q × Vn
+        double bitArea = Math.PI * bitDiameter * bitDiameter / 4.0;
+        double[] out = new double[5];
+        DrMechanicsEngine.bitHydraulics(flowRate, mudWeight, tfa, bitArea, out);
 
         // Percent pressure drop at bit (simplified - assume 50-65% is optimal)
         BigDecimal sppPsi = request.getStandpipePressurePsi();
         BigDecimal percentAtBit = sppPsi != null && sppPsi.compareTo(BigDecimal.ZERO) > 0 ?
-                bitPressureDrop.divide(sppPsi, MC).multiply(BigDecimal.valueOf(100), MC) : null;
+                scaled(out[1] / sppPsi.doubleValue() * 100.0, 1) : null;
 
         return BitHydraulicsCalculationResult.builder()
-                .jetVelocityFtSec(jetVelocity.setScale(2, RoundingMode.HALF_UP))
-                .bitPressureDropPsi(bitPressureDrop.setScale(2, RoundingMode.HALF_UP))
-                .bitHydraulicHorsePower(bitHhp.setScale(2, RoundingMode.HALF_UP))
-                .hsiHpPerSqIn(hsi.setScale(3, RoundingMode.HALF_UP))
-                .impactForceLbs(impactForce.setScale(0, RoundingMode.HALF_UP))
-                .percentPressureAtBit(percentAtBit != null ?
-                        percentAtBit.setScale(1, RoundingMode.HALF_UP) : null)
+                .jetVelocityFtSec(scaled(out[0], 2))
+                .bitPressureDropPsi(scaled(out[1], 2))
+                .bitHydraulicHorsePower(scaled(out[2], 2))
+                .hsiHpPerSqIn(scaled(out[3], 3))
+                .impactForceLbs(scaled(out[4], 0))
+                .percentPressureAtBit(percentAtBit)
                 .build();
     }
+
+    private static BigDecimal scaled(double value, int scale) {
+        return BigDecimal.valueOf(value).setScale(scale, RoundingMode.HALF_UP);
+    }
 }
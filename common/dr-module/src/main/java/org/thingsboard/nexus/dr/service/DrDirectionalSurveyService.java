@@ -22,15 +22,22 @@ import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
 import org.thingsboard.nexus.dr.dto.DrDirectionalSurveyDto;
+import org.thingsboard.nexus.dr.dto.DrTrajectoryRecalculationResultDto;
 import org.thingsboard.nexus.dr.model.DrDirectionalSurvey;
 import org.thingsboard.nexus.dr.model.enums.SurveyType;
 import org.thingsboard.nexus.dr.repository.DrDirectionalSurveyRepository;
+import org.thingsboard.nexus.dr.repository.DrSurveyTrajectoryRepository;
+import org.thingsboard.server.common.data.nexus.WellSurveyStations;
+import org.thingsboard.server.dao.nexus.WellSurveyService;
 
 import jakarta.persistence.EntityNotFoundException;
 import java.math.BigDecimal;
 import java.math.MathContext;
 import java.math.RoundingMode;
+import java.util.Arrays;
 import java.util.List;
 import java.util.UUID;
 import java.util.stream.Collectors;
@@ -41,9 +48,11 @@ import java.util.stream.Collectors;
 @Service
 @RequiredArgsConstructor
 @Slf4j
-public class DrDirectionalSurveyService {
+public class DrDirectionalSurveyService implements WellSurveyService {
 
     private final DrDirectionalSurveyRepository surveyRepository;
+    private final DrSurveyTrajectoryRepository trajectoryRepository;
+    private final DrAntiCollisionService antiCollisionService;
 
     private static final MathContext MC = new MathContext(10, RoundingMode.HALF_UP);
     private static final BigDecimal DEG_TO_RAD = BigDecimal.valueOf(Math.PI / 180.0);
@@ -84,6 +93,31 @@ public class DrDirectionalSurveyService {
                 .collect(Collectors.toList());
     }
 
+    @Override
+    @Transactional(readOnly = true)
+    public WellSurveyStations findStationsByWellId(UUID wellId) {
+        if (wellId == null) {
+            return WellSurveyStations.EMPTY;
+        }
+        List<DrDirectionalSurvey> surveys = surveyRepository.findStationsByWellId(wellId);
+        double[] md = new double[surveys.size()];
+        double[] inc = new double[surveys.size()];
+        double[] azi = new double[surveys.size()];
+        int size = 0;
+        for (DrDirectionalSurvey survey : surveys) {
+            double depth = survey.getMdFt().doubleValue();
+            // Ordered so that the station to keep comes first within a depth
+            if (size > 0 && md[size - 1] == depth) {
+                continue;
+            }
+            md[size] = depth;
+            inc[size] = survey.getInclinationDeg().doubleValue();
+            azi[size] = survey.getAzimuthDeg() != null ? survey.getAzimuthDeg().doubleValue() : 0.0;
+            size++;
+        }
+        return new WellSurveyStations(Arrays.copyOf(md, size), Arrays.copyOf(inc, size), Arrays.copyOf(azi, size));
+    }
+
     @Transactional(readOnly = true)
     public Page<DrDirectionalSurveyDto> getByFilters(UUID tenantId, UUID runId, UUID wellId,
                                                       SurveyType surveyType, Boolean isDefinitive, Pageable pageable) {
@@ -107,6 +141,7 @@ public class DrDirectionalSurveyService {
         calculateTrajectoryValues(survey);
 
         DrDirectionalSurvey saved = surveyRepository.save(survey);
+        afterCommit(() -> antiCollisionService.onSurveySaved(saved));
         return DrDirectionalSurveyDto.fromEntity(saved);
     }
 
@@ -145,16 +180,18 @@ public class DrDirectionalSurveyService {
         calculateTrajectoryValues(existing);
 
         DrDirectionalSurvey saved = surveyRepository.save(existing);
+        // MD or definitive flag may have changed: reload the well rather than patch one station
+        afterCommit(() -> antiCollisionService.refreshWell(saved.getWellId()));
         return DrDirectionalSurveyDto.fromEntity(saved);
     }
 
     @Transactional
     public void delete(UUID id) {
         log.info("Deleting directional survey: {}", id);
-        if (!surveyRepository.existsById(id)) {
-            throw new EntityNotFoundException("Survey not found: " + id);
-        }
-        surveyRepository.deleteById(id);
+        DrDirectionalSurvey survey = surveyRepository.findById(id)
+                .orElseThrow(() -> new EntityNotFoundException("Survey not found: " + id));
+        surveyRepository.delete(survey);
+        afterCommit(() -> antiCollisionService.refreshWell(survey.getWellId()));
     }
 
     /**
@@ -169,9 +206,31 @@ public class DrDirectionalSurveyService {
 
         survey.setIsDefinitive(true);
         DrDirectionalSurvey saved = surveyRepository.save(survey);
+        afterCommit(() -> antiCollisionService.onSurveySaved(saved));
         return DrDirectionalSurveyDto.fromEntity(saved);
     }
 
+    /**
+     * The anti-collision index is shared by all requests: update it only once the survey change is
+     * committed, so a rollback never leaves it ahead of the database and a reload reads committed rows.
+     */
+    private static void afterCommit(Runnable action) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            action.run();
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                try {
+                    action.run();
+                } catch (Exception e) {
+                    log.warn("Failed to update the anti-collision index after commit: {}", e.getMessage(), e);
+                }
+            }
+        });
+    }
+
     // --- Trajectory Calculations ---
 
     /**
@@ -319,41 +378,51 @@ public class DrDirectionalSurveyService {
 
     /**
      * Recalculate all surveys for a run from a given depth.
+     * Only the stations at or below the depth and the station preceding them are loaded; stations
+     * whose values changed are written back in one JDBC batch.
      */
     @Transactional
-    public void recalculateTrajectoryFromDepth(UUID runId, BigDecimal fromDepth) {
+    public DrTrajectoryRecalculationResultDto recalculateTrajectoryFromDepth(UUID runId, BigDecimal fromDepth) {
         log.info("Recalculating trajectory for run {} from depth {} ft", runId, fromDepth);
+        long start = System.nanoTime();
 
-        List<DrDirectionalSurvey> surveys = surveyRepository.findByRunIdOrderByMdFtAsc(runId);
-
-        boolean recalculate = false;
-        DrDirectionalSurvey previous = null;
+        DrTrajectoryEngine.Stations stations = trajectoryRepository.findFromPrecedingStation(runId, fromDepth);
+        long loaded = System.nanoTime();
 
-        for (DrDirectionalSurvey survey : surveys) {
-            if (survey.getMdFt().compareTo(fromDepth) >= 0) {
-                recalculate = true;
-            }
-
-            if (recalculate) {
-                if (previous == null) {
-                    calculateSurfaceSurvey(survey);
-                } else {
-                    calculateMinimumCurvature(previous, survey);
-                }
-                calculateClosure(survey);
-                surveyRepository.save(survey);
-            }
+        // The first station is the anchor when it lies above the requested depth
+        int from = stations.size > 0 && stations.md[0] < fromDepth.doubleValue() ? 1 : 0;
+        DrTrajectoryEngine.recompute(stations, from);
+        long computed = System.nanoTime();
 
-            previous = survey;
+        int updated = trajectoryRepository.updateChanged(stations);
+        long written = System.nanoTime();
+        if (updated > 0) {
+            afterCommit(() -> antiCollisionService.refreshRun(runId));
         }
+
+        DrTrajectoryRecalculationResultDto result = DrTrajectoryRecalculationResultDto.builder()
+                .runId(runId)
+                .fromDepthFt(fromDepth)
+                .stationsLoaded(stations.size)
+                .stationsRecalculated(stations.size - from)
+                .stationsUpdated(updated)
+                .loadMs((loaded - start) / 1_000_000)
+                .computeMs((computed - loaded) / 1_000_000)
+                .writeMs((written - computed) / 1_000_000)
+                .elapsedMs((written - start) / 1_000_000)
+                .build();
+        log.debug("Trajectory recalculated for run {}: {} stations, {} updated in {} ms (load {}, compute {}, write {})",
+                runId, result.getStationsRecalculated(), updated, result.getElapsedMs(),
+                result.getLoadMs(), result.getComputeMs(), result.getWriteMs());
+        return result;
     }
 
     /**
      * Recalculate entire trajectory for a run.
      */
     @Transactional
-    public void recalculateEntireTrajectory(UUID runId) {
-        recalculateTrajectoryFromDepth(runId, BigDecimal.ZERO);
+    public DrTrajectoryRecalculationResultDto recalculateEntireTrajectory(UUID runId) {
+        return recalculateTrajectoryFromDepth(runId, BigDecimal.ZERO);
     }
 
     // --- Analysis Methods ---
@@ -21,6 +21,7 @@ import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 import org.thingsboard.nexus.dr.dto.kpi.*;
 import org.thingsboard.nexus.dr.model.DrRun;
+import org.thingsboard.nexus.dr.model.enums.RigActivityState;
 import org.thingsboard.nexus.dr.repository.DrRunRepository;
 
 import jakarta.persistence.EntityNotFoundException;
@@ -38,7 +39,10 @@ import java.util.stream.Collectors;
 @Slf4j
 public class DrKpiService {
 
+    private static final double CONNECTION_BENCHMARK_MIN = 6.0;
+
     private final DrRunRepository runRepository;
+    private final DrActivityKpiEngine activityKpiEngine;
 
     /**
      * Get comprehensive KPIs for a drilling run.
@@ -72,64 +76,50 @@ public class DrKpiService {
     public RigKpiDto getRigKpis(UUID rigId) {
         log.debug("Calculating aggregated KPIs for rig: {}", rigId);
 
-        List<DrRun> runs = runRepository.findByRigId(rigId);
+        Object[] summary = firstRow(runRepository.summarizeByRig(rigId));
+        int runCount = summary != null ? ((Number) summary[0]).intValue() : 0;
 
-        if (runs.isEmpty()) {
+        if (runCount == 0) {
             return RigKpiDto.builder()
                     .rigId(rigId)
                     .runsInPeriod(0)
                     .build();
         }
 
-        BigDecimal totalFootage = BigDecimal.ZERO;
-        BigDecimal totalRotatingHours = BigDecimal.ZERO;
-        BigDecimal totalNptHours = BigDecimal.ZERO;
-        BigDecimal totalConnectionHours = BigDecimal.ZERO;
-        int completedRuns = 0;
-
-        for (DrRun run : runs) {
-            if (run.getTotalFootageFt() != null) {
-                totalFootage = totalFootage.add(run.getTotalFootageFt());
-            }
-            if (run.getTotalRotatingHours() != null) {
-                totalRotatingHours = totalRotatingHours.add(run.getTotalRotatingHours());
-            }
-            if (run.getTotalNptHours() != null) {
-                totalNptHours = totalNptHours.add(run.getTotalNptHours());
-            }
-            if (run.getTotalConnectionTimeHours() != null) {
-                totalConnectionHours = totalConnectionHours.add(run.getTotalConnectionTimeHours());
-            }
-            if ("COMPLETED".equals(run.getStatus())) {
-                completedRuns++;
-            }
-        }
+        int completedRuns = ((Number) summary[1]).intValue();
+        double totalFootage = toDouble(summary[2]);
+        double totalRotatingHours = toDouble(summary[3]);
+        double totalNptHours = toDouble(summary[4]);
+        double totalConnectionHours = toDouble(summary[5]);
 
         // Calculate average ROP
-        BigDecimal avgRop = null;
-        if (totalRotatingHours.compareTo(BigDecimal.ZERO) > 0) {
-            avgRop = totalFootage.divide(totalRotatingHours, 2, RoundingMode.HALF_UP);
-        }
+        Double avgRop = totalRotatingHours > 0 ? totalFootage / totalRotatingHours : null;
 
         // Calculate NPT percentage
-        BigDecimal totalOperationalHours = totalRotatingHours.add(totalNptHours).add(totalConnectionHours);
-        BigDecimal nptPercent = null;
-        if (totalOperationalHours.compareTo(BigDecimal.ZERO) > 0) {
-            nptPercent = totalNptHours
-                    .divide(totalOperationalHours, 4, RoundingMode.HALF_UP)
-                    .multiply(BigDecimal.valueOf(100));
-        }
+        double totalOperationalHours = totalRotatingHours + totalNptHours + totalConnectionHours;
+        Double nptPercent = totalOperationalHours > 0 ? totalNptHours / totalOperationalHours * 100.0 : null;
 
-        return RigKpiDto.builder()
+        RigKpiDto.RigKpiDtoBuilder builder = RigKpiDto.builder()
                 .rigId(rigId)
-                .runsInPeriod(runs.size())
+                .runsInPeriod(runCount)
                 .totalWellsDrilled(completedRuns)
-                .totalFootageDrilledFt(totalFootage.setScale(2, RoundingMode.HALF_UP))
-                .totalDrillingHours(totalRotatingHours.setScale(2, RoundingMode.HALF_UP))
-                .totalNptHours(totalNptHours.setScale(2, RoundingMode.HALF_UP))
-                .avgRopFtHr(avgRop)
-                .avgNptPercent(nptPercent != null ? nptPercent.setScale(2, RoundingMode.HALF_UP) : null)
-                .build();
+                .totalFootageDrilledFt(scale(totalFootage))
+                .totalDrillingHours(scale(totalRotatingHours))
+                .totalNptHours(scale(totalNptHours))
+                .avgRopFtHr(scale(avgRop))
+                .avgNptPercent(scale(nptPercent));
+
+        // Measured connection and trip figures from rig state transitions
+        DrActivityKpiEngine.ActivityAggregate activity = activityKpiEngine.getRigAggregate(rigId);
+        if (activity != null) {
+            activity.readConnections((w2w, s2s) -> builder
+                    .avgConnectionTimeMin(scale(w2w.getMean()))
+                    .bestConnectionTimeMin(scale(w2w.getMin())));
+            builder.avgTripSpeedFtHr(scale(activity.getAvgTripSpeedFtHr()))
+                    .totalOperatingHours(scale(activity.getTotalHours()));
+        }
+
+        return builder.build();
     }
 
     /**
@@ -139,75 +129,56 @@ public class DrKpiService {
     public WellKpiDto getWellKpis(UUID wellId) {
         log.debug("Calculating KPIs for well: {}", wellId);
 
-        List<DrRun> runs = runRepository.findByWellId(wellId);
+        Object[] summary = firstRow(runRepository.summarizeByWell(wellId));
+        int runCount = summary != null ? ((Number) summary[0]).intValue() : 0;
 
-        if (runs.isEmpty()) {
+        if (runCount == 0) {
             return WellKpiDto.builder()
                     .wellId(wellId)
                     .totalRuns(0)
                     .build();
         }
 
-        BigDecimal totalFootage = BigDecimal.ZERO;
-        BigDecimal totalRotatingHours = BigDecimal.ZERO;
-        BigDecimal totalNptHours = BigDecimal.ZERO;
-        BigDecimal maxDepthMd = BigDecimal.ZERO;
-        BigDecimal maxDepthTvd = BigDecimal.ZERO;
-        Long spudDate = null;
-        Long completionDate = null;
-
-        for (DrRun run : runs) {
-            if (run.getTotalFootageFt() != null) {
-                totalFootage = totalFootage.add(run.getTotalFootageFt());
-            }
-            if (run.getTotalRotatingHours() != null) {
-                totalRotatingHours = totalRotatingHours.add(run.getTotalRotatingHours());
-            }
-            if (run.getTotalNptHours() != null) {
-                totalNptHours = totalNptHours.add(run.getTotalNptHours());
-            }
-            if (run.getEndDepthMdFt() != null && run.getEndDepthMdFt().compareTo(maxDepthMd) > 0) {
-                maxDepthMd = run.getEndDepthMdFt();
-            }
-            if (run.getEndDepthTvdFt() != null && run.getEndDepthTvdFt().compareTo(maxDepthTvd) > 0) {
-                maxDepthTvd = run.getEndDepthTvdFt();
-            }
-            if (spudDate == null || (run.getSpudDate() != null && run.getSpudDate() < spudDate)) {
-                spudDate = run.getSpudDate();
-            }
-            if (run.getEndDate() != null && (completionDate == null || run.getEndDate() > completionDate)) {
-                completionDate = run.getEndDate();
-            }
-        }
+        double totalFootage = toDouble(summary[1]);
+        double totalRotatingHours = toDouble(summary[2]);
+        double totalNptHours = toDouble(summary[3]);
+        double maxDepthMd = toDouble(summary[4]);
+        double maxDepthTvd = toDouble(summary[5]);
+        Long spudDate = summary[6] != null ? ((Number) summary[6]).longValue() : null;
+        Long completionDate = summary[7] != null ? ((Number) summary[7]).longValue() : null;
 
         // Calculate total drilling days
-        BigDecimal totalDays = null;
+        Double totalDays = null;
         if (spudDate != null && completionDate != null) {
-            long durationMs = completionDate - spudDate;
-            totalDays = BigDecimal.valueOf(durationMs).divide(BigDecimal.valueOf(86400000), 2, RoundingMode.HALF_UP);
-        }
-
-        // Calculate feet per day
-        BigDecimal feetPerDay = null;
-        if (totalDays != null && totalDays.compareTo(BigDecimal.ZERO) > 0) {
-            feetPerDay = totalFootage.divide(totalDays, 2, RoundingMode.HALF_UP);
+            totalDays = (completionDate - spudDate) / 86_400_000.0;
         }
 
-        return WellKpiDto.builder()
+        WellKpiDto.WellKpiDtoBuilder builder = WellKpiDto.builder()
                 .wellId(wellId)
-                .totalRuns(runs.size())
-                .totalFootageDrilledFt(totalFootage.setScale(2, RoundingMode.HALF_UP))
-                .totalDepthFt(maxDepthMd.setScale(2, RoundingMode.HALF_UP))
-                .totalTvdFt(maxDepthTvd.setScale(2, RoundingMode.HALF_UP))
-                .totalDrillingHours(totalRotatingHours.setScale(2, RoundingMode.HALF_UP))
-                .totalNptHours(totalNptHours.setScale(2, RoundingMode.HALF_UP))
-                .totalDrillingDays(totalDays)
-                .overallAvgRopFtHr(feetPerDay != null ?
-                        totalFootage.divide(totalRotatingHours.compareTo(BigDecimal.ZERO) > 0 ?
-                                totalRotatingHours : BigDecimal.ONE, 2, RoundingMode.HALF_UP) : null)
+                .totalRuns(runCount)
+                .totalFootageDrilledFt(scale(totalFootage))
+                .totalDepthFt(scale(maxDepthMd))
+                .totalTvdFt(scale(maxDepthTvd))
+                .totalDrillingHours(scale(totalRotatingHours))
+                .totalNptHours(scale(totalNptHours))
+                .totalDrillingDays(scale(totalDays))
+                .overallAvgRopFtHr(totalDays != null && totalDays > 0 ?
+                        scale(totalFootage / (totalRotatingHours > 0 ? totalRotatingHours : 1.0)) : null)
                 .spudDate(spudDate)
-                .completionDate(completionDate)
-                .build();
+                .completionDate(completionDate);
+
+        // Measured connection and time breakdown from rig state transitions
+        DrActivityKpiEngine.ActivityAggregate activity = activityKpiEngine.getWellAggregate(wellId);
+        if (activity != null) {
+            activity.readConnections((w2w, s2s) -> builder
+                    .totalConnections((int) w2w.getCount())
+                    .avgConnectionTimeMin(scale(w2w.getMean())));
+            builder.totalTrippingHours(scale(activity.getStateHours(RigActivityState.TRIPPING_IN)
+                            + activity.getStateHours(RigActivityState.TRIPPING_OUT)))
+                    .totalCirculatingHours(scale(activity.getStateHours(RigActivityState.CIRCULATING)));
+        }
+
+        return builder.build();
     }
 
     /**
@@ -217,9 +188,15 @@ public class DrKpiService {
     public ConnectionTimeKpiDto getConnectionTimeKpis(UUID runId) {
         log.debug("Calculating connection time KPIs for run: {}", runId);
 
+        DrActivityKpiEngine.ActivityAggregate activity = activityKpiEngine.getRunAggregate(runId);
+        if (activity != null && activity.readConnections((w2w, s2s) -> w2w.getCount() > 0)) {
+            return buildConnectionTimeKpis(runId, "RUN", activity);
+        }
+
         DrRun run = runRepository.findById(runId)
                 .orElseThrow(() -> new EntityNotFoundException("Run not found: " + runId));
 
+        // No measured connections yet: estimate from the run totals
         BigDecimal connectionHours = run.getTotalConnectionTimeHours() != null ?
                 run.getTotalConnectionTimeHours() : BigDecimal.ZERO;
         BigDecimal footage = run.getTotalFootageFt() != null ?
@@ -248,30 +225,96 @@ public class DrKpiService {
                     .multiply(BigDecimal.valueOf(100));
         }
 
-        // Benchmark comparison (industry avg is typically 4-8 minutes per connection)
-        String performanceRating = "UNKNOWN";
-        if (avgConnectionMinutes != null) {
-            if (avgConnectionMinutes.compareTo(BigDecimal.valueOf(4)) <= 0) {
-                performanceRating = "EXCELLENT";
-            } else if (avgConnectionMinutes.compareTo(BigDecimal.valueOf(6)) <= 0) {
-                performanceRating = "GOOD";
-            } else if (avgConnectionMinutes.compareTo(BigDecimal.valueOf(8)) <= 0) {
-                performanceRating = "AVERAGE";
-            } else {
-                performanceRating = "BELOW_AVERAGE";
-            }
-        }
-
         return ConnectionTimeKpiDto.builder()
                 .entityId(runId)
                 .entityType("RUN")
                 .totalConnectionTimeMin(connectionHours.multiply(BigDecimal.valueOf(60)).setScale(2, RoundingMode.HALF_UP))
                 .totalConnections(estimatedConnections)
                 .avgConnectionTimeMin(avgConnectionMinutes)
-                .trend(performanceRating)
+                .trend(rateConnectionTime(avgConnectionMinutes != null ? avgConnectionMinutes.doubleValue() : Double.NaN))
                 .build();
     }
 
+    /**
+     * Get measured connection time analysis for a rig.
+     */
+    public ConnectionTimeKpiDto getRigConnectionTimeKpis(UUID rigId) {
+        return buildConnectionTimeKpis(rigId, "RIG", activityKpiEngine.getRigAggregate(rigId));
+    }
+
+    /**
+     * Get measured connection time analysis for a well.
+     */
+    public ConnectionTimeKpiDto getWellConnectionTimeKpis(UUID wellId) {
+        return buildConnectionTimeKpis(wellId, "WELL", activityKpiEngine.getWellAggregate(wellId));
+    }
+
+    /**
+     * Feed a rig state transition into the activity KPI aggregates.
+     */
+    public void recordStateTransition(UUID rigId, RigStateTransitionDto transition) {
+        activityKpiEngine.onStateTransition(rigId, transition);
+    }
+
+    private ConnectionTimeKpiDto buildConnectionTimeKpis(UUID entityId, String entityType,
+                                                         DrActivityKpiEngine.ActivityAggregate activity) {
+        ConnectionTimeKpiDto.ConnectionTimeKpiDtoBuilder builder = ConnectionTimeKpiDto.builder()
+                .entityId(entityId)
+                .entityType(entityType)
+                .totalConnections(0)
+                .benchmarkConnectionTimeMin(BigDecimal.valueOf(CONNECTION_BENCHMARK_MIN))
+                .trend(rateConnectionTime(Double.NaN));
+        if (activity == null) {
+            return builder.build();
+        }
+        return activity.readConnections((w2w, s2s) -> {
+            if (w2w.getCount() == 0) {
+                return builder.build();
+            }
+            double avg = w2w.getMean();
+            double p25 = w2w.getPercentile(25);
+            long meetingTarget = w2w.countAtOrBelow(CONNECTION_BENCHMARK_MIN);
+            return builder
+                    .totalConnections((int) w2w.getCount())
+                    .totalConnectionTimeMin(scale(w2w.getSum()))
+                    .avgConnectionTimeMin(scale(avg))
+                    .medianConnectionTimeMin(scale(w2w.getPercentile(50)))
+                    .stdDevMin(scale(w2w.getStdDev()))
+                    .bestConnectionTimeMin(scale(w2w.getMin()))
+                    .worstConnectionTimeMin(scale(w2w.getMax()))
+                    .p10Min(scale(w2w.getPercentile(10)))
+                    .p25Min(scale(p25))
+                    .p50Min(scale(w2w.getPercentile(50)))
+                    .p75Min(scale(w2w.getPercentile(75)))
+                    .p90Min(scale(w2w.getPercentile(90)))
+                    .avgSlipsToSlipsMin(scale(s2s.getMean()))
+                    .connectionsMeetingTarget((int) meetingTarget)
+                    .targetConnectionTimeMin(BigDecimal.valueOf(CONNECTION_BENCHMARK_MIN))
+                    .targetAchievementPercent(scale(100.0 * meetingTarget / w2w.getCount()))
+                    .vsBenchmarkPercent(scale((avg - CONNECTION_BENCHMARK_MIN) / CONNECTION_BENCHMARK_MIN * 100.0))
+                    .potentialSavingsAtP25Hours(scale(Math.max(0.0, w2w.getSum() - p25 * w2w.getCount()) / 60.0))
+                    .trend(rateConnectionTime(avg))
+                    .build();
+        });
+    }
+
+    /**
+     * Benchmark comparison (industry avg is typically 4-8 minutes per connection)
+     */
+    private static String rateConnectionTime(double avgConnectionMinutes) {
+        if (Double.isNaN(avgConnectionMinutes)) {
+            return "UNKNOWN";
+        }
+        if (avgConnectionMinutes <= 4) {
+            return "EXCELLENT";
+        } else if (avgConnectionMinutes <= 6) {
+            return "GOOD";
+        } else if (avgConnectionMinutes <= 8) {
+            return "AVERAGE";
+        }
+        return "BELOW_AVERAGE";
+    }
+
     /**
      * Get drilling efficiency metrics.
      */
@@ -365,7 +408,7 @@ public class DrKpiService {
             }
         }
 
-        return RunKpiDto.builder()
+        RunKpiDto.RunKpiDtoBuilder builder = RunKpiDto.builder()
                 .runId(run.getId())
                 .runNumber(runNumberInt)
                 .wellId(run.getWellId())
@@ -379,7 +422,39 @@ public class DrKpiService {
                 .drillingEfficiencyPercent(run.getDrillingEfficiencyPercent())
                 .totalHours(durationHours)
                 .startTime(run.getStartDate())
-                .endTime(run.getEndDate())
-                .build();
+                .endTime(run.getEndDate());
+
+        // Time breakdown measured from rig state transitions
+        DrActivityKpiEngine.ActivityAggregate activity = activityKpiEngine.getRunAggregate(run.getId());
+        if (activity != null) {
+            builder.slidingHours(scale(activity.getStateHours(RigActivityState.DRILLING_SLIDING)))
+                    .circulatingHours(scale(activity.getStateHours(RigActivityState.CIRCULATING)))
+                    .tripInHours(scale(activity.getStateHours(RigActivityState.TRIPPING_IN)))
+                    .tripOutHours(scale(activity.getStateHours(RigActivityState.TRIPPING_OUT)))
+                    .connectionHours(scale(activity.getStateHours(RigActivityState.CONNECTION)
+                            + activity.getStateHours(RigActivityState.IN_SLIPS)));
+        }
+
+        return builder.build();
+    }
+
+    private static Object[] firstRow(List<Object[]> rows) {
+        if (rows == null || rows.isEmpty()) {
+            return null;
+        }
+        Object[] row = rows.get(0);
+        // Single-row aggregate queries may come back unwrapped depending on the provider
+        return row.length == 1 && row[0] instanceof Object[] nested ? nested : row;
+    }
+
+    private static double toDouble(Object value) {
+        return value instanceof Number n ? n.doubleValue() : 0.0;
+    }
+
+    private static BigDecimal scale(Double value) {
+        if (value == null || value.isNaN() || value.isInfinite()) {
+            return null;
+        }
+        return BigDecimal.valueOf(value).setScale(2, RoundingMode.HALF_UP);
     }
 }
@@ -0,0 +1,179 @@
+/**
+ * Copyright © 2016-2026 The Thingsboard Authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.thingsboard.nexus.dr.service;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.node.ArrayNode;
+import com.fasterxml.jackson.databind.node.JsonNodeFactory;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+
+import java.util.Arrays;
+
+/**
+ * Fixed-bin streaming histogram for KPI distributions (connection times, trip speeds).
+ * Memory and percentile reads are constant in the number of samples; exact count, sum,
+ * min and max are kept alongside. Values above the range fall in the last bin.
+ * Not thread-safe: callers synchronize on the owning aggregate.
+ * The state can be saved with {@link #toJson()} and restored with {@link #readJson(JsonNode)}.
+ */
+public class DrKpiSketch {
+
+    private final double binWidth;
+    private final long[] bins;
+    private long count;
+    private double sum;
+    private double sumSq;
+    private double min = Double.POSITIVE_INFINITY;
+    private double max = Double.NEGATIVE_INFINITY;
+
+    public DrKpiSketch(double maxValue, int binCount) {
+        this.binWidth = maxValue / binCount;
+        this.bins = new long[binCount];
+    }
+
+    public void add(double value) {
+        if (Double.isNaN(value) || value < 0) {
+            return;
+        }
+        int bin = Math.min((int) (value / binWidth), bins.length - 1);
+        bins[bin]++;
+        count++;
+        sum += value;
+        sumSq += value * value;
+        min = Math.min(min, value);
+        max = Math.max(max, value);
+    }
+
+    public long getCount() {
+        return count;
+    }
+
+    public double getSum() {
+        return sum;
+    }
+
+    public double getMean() {
+        return count > 0 ? sum / count : Double.NaN;
+    }
+
+    public double getStdDev() {
+        if (count < 2) {
+            return count == 1 ? 0.0 : Double.NaN;
+        }
+        double mean = sum / count;
+        return Math.sqrt(Math.max(0.0, (sumSq - count * mean * mean) / (count - 1)));
+    }
+
+    public double getMin() {
+        return count > 0 ? min : Double.NaN;
+    }
+
+    public double getMax() {
+        return count > 0 ? max : Double.NaN;
+    }
+
+    /**
+     * Number of samples at or below the given value. Bins below the value's bin are counted in
+     * full and the value's own bin is interpolated linearly, as in {@link #getPercentile}.
+     */
+    public long countAtOrBelow(double value) {
+        if (count == 0 || value < min) {
+            return 0;
+        }
+        if (value >= max) {
+            return count;
+        }
+        int last = Math.min((int) (value / binWidth), bins.length - 1);
+        long n = 0;
+        for (int i = 0; i < last; i++) {
+            n += bins[i];
+        }
+        // The overflow bin extends up to the observed max
+        double lower = Math.max(last * binWidth, min);
+        double upper = last == bins.length - 1 ? max : Math.min((last + 1) * binWidth, max);
+        double fraction = upper > lower ? (value - lower) / (upper - lower) : 1.0;
+        return n + Math.round(bins[last] * Math.max(0.0, Math.min(1.0, fraction)));
+    }
+
+    /**
+     * Percentile estimate (p in 0..100) with linear interpolation inside the bin,
+     * clamped to the observed min/max.
+     */
+    public double getPercentile(double p) {
+        if (count == 0) {
+            return Double.NaN;
+        }
+        double rank = p / 100.0 * count;
+        long cumulative = 0;
+        for (int i = 0; i < bins.length; i++) {
+            long c = bins[i];
+            if (c > 0 && cumulative + c >= rank) {
+                double fraction = (rank - cumulative) / c;
+                double value = (i + fraction) * binWidth;
+                return Math.max(min, Math.min(max, value));
+            }
+            cumulative += c;
+        }
+        return max;
+    }
+
+    public ObjectNode toJson() {
+        ObjectNode json = JsonNodeFactory.instance.objectNode();
+        json.put("count", count);
+        json.put("sum", sum);
+        json.put("sumSq", sumSq);
+        if (count > 0) {
+            json.put("min", min);
+            json.put("max", max);
+        }
+        // Sparse [bin, count] pairs: most bins of a KPI distribution are empty
+        ArrayNode nonEmpty = json.putArray("bins");
+        for (int i = 0; i < bins.length; i++) {
+            if (bins[i] > 0) {
+                nonEmpty.addArray().add(i).add(bins[i]);
+            }
+        }
+        return json;
+    }
+
+    /**
+     * Replace the state with one saved by {@link #toJson()}. Bins outside this sketch's range are ignored.
+     */
+    public void readJson(JsonNode json) {
+        Arrays.fill(bins, 0L);
+        count = 0;
+        sum = 0;
+        sumSq = 0;
+        min = Double.POSITIVE_INFINITY;
+        max = Double.NEGATIVE_INFINITY;
+        if (json == null || !json.isObject()) {
+            return;
+        }
+        for (JsonNode pair : json.path("bins")) {
+            int bin = pair.path(0).asInt(-1);
+            if (bin >= 0 && bin < bins.length) {
+                bins[bin] = pair.path(1).asLong();
+            }
+        }
+        count = json.path("count").asLong();
+        sum = json.path("sum").asDouble();
+        sumSq = json.path("sumSq").asDouble();
+        if (count > 0) {
+            min = json.path("min").asDouble();
+            max = json.path("max").asDouble();
+        }
+    }
+}
@@ -0,0 +1,308 @@
+/**
+ * Copyright © 2016-2026 The Thingsboard Authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.thingsboard.nexus.dr.service;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Service;
+import org.thingsboard.nexus.dr.config.DrModuleConfiguration;
+import org.thingsboard.nexus.dr.dto.DrBhaDto;
+import org.thingsboard.nexus.dr.dto.calculation.DrMechanicsContextDto;
+import org.thingsboard.nexus.dr.dto.calculation.DrRealtimeMechanicsResultDto;
+import org.thingsboard.nexus.dr.dto.calculation.DrRealtimeSampleDto;
+import org.thingsboard.nexus.dr.exception.DrEntityNotFoundException;
+import org.thingsboard.nexus.dr.model.DrDirectionalSurvey;
+import org.thingsboard.nexus.dr.model.DrRun;
+import org.thingsboard.nexus.dr.repository.DrDirectionalSurveyRepository;
+import org.thingsboard.nexus.dr.repository.DrRunRepository;
+
+import java.math.BigDecimal;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Real-time MSE / ECD / hydraulics / torque & drag evaluation per run.
+ *
+ * The static inputs of a run (bit, string, mud and the definitive survey of its well) are compiled
+ * once into primitive fields and arrays and cached, so a sensor sample is evaluated with plain double
+ * math and no database access. A context is rebuilt after {@code mechanicsContextTtlMs} to pick up
+ * new survey stations, or immediately when its overrides change.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class DrMechanicsContextService {
+
+    private static final double DEFAULT_HOLE_ID_IN = 8.5;
+    private static final double DEFAULT_MUD_WEIGHT_PPG = 8.33;
+    private static final double DEFAULT_PIPE_OD_IN = 5.0;
+    private static final double DEFAULT_STRING_WEIGHT_LBS_FT = 19.5;
+    private static final double DEFAULT_PV_CP = 20.0;
+    private static final double DEFAULT_YP_LBF_100SQFT = 10.0;
+    private static final double DEFAULT_FRICTION = 0.25;
+
+    private final DrRunRepository runRepository;
+    private final DrDirectionalSurveyRepository surveyRepository;
+    private final DrBhaService bhaService;
+    private final DrModuleConfiguration config;
+
+    private final Map<UUID, Context> contexts = new ConcurrentHashMap<>();
+    private final Map<UUID, DrMechanicsContextDto> overrides = new ConcurrentHashMap<>();
+
+    /**
+     * Compiled static context of a run. Immutable once published.
+     */
+    static final class Context {
+        final UUID runId;
+        final double bitDiameterIn;
+        final double bitAreaSqIn;
+        final double bitTfaSqIn;
+        final double holeIdIn;
+        final double pipeOdIn;
+        final double stringWeightLbsFt;
+        final double buoyedWeightLbsFt;
+        final double mudWeightPpg;
+        final double pvCp;
+        final double ypLbf100sqft;
+        final double friction;
+        final double pipeRadiusFt;
+        final DrMechanicsEngine.Survey survey;
+        final double[] md;
+        final double[] tvd;
+        final int size;
+        final long compiledTime;
+
+        Context(UUID runId, double bitDiameterIn, double bitTfaSqIn, double holeIdIn, double pipeOdIn,
+                double stringWeightLbsFt, double mudWeightPpg, double pvCp, double ypLbf100sqft, double friction,
+                double[] md, double[] inc, double[] az, double[] tvd, int size, long compiledTime) {
+            this.runId = runId;
+            this.bitDiameterIn = bitDiameterIn;
+            this.bitAreaSqIn = Math.PI * bitDiameterIn * bitDiameterIn / 4.0;
+            this.bitTfaSqIn = bitTfaSqIn;
+            this.holeIdIn = holeIdIn;
+            this.pipeOdIn = pipeOdIn;
+            this.stringWeightLbsFt = stringWeightLbsFt;
+            this.buoyedWeightLbsFt = stringWeightLbsFt * DrMechanicsEngine.buoyancyFactor(mudWeightPpg);
+            this.mudWeightPpg = mudWeightPpg;
+            this.pvCp = pvCp;
+            this.ypLbf100sqft = ypLbf100sqft;
+            this.friction = friction;
+            this.pipeRadiusFt = pipeOdIn / 24.0;
+            this.survey = DrMechanicsEngine.Survey.compile(md, inc, az, size);
+            this.md = md;
+            this.tvd = tvd;
+            this.size = size;
+            this.compiledTime = compiledTime;
+        }
+    }
+
+    public DrMechanicsContextDto getContext(UUID runId) {
+        return toDto(context(runId));
+    }
+
+    /**
+     * Replace the overrides of a run; null fields fall back to the run / BHA / defaults.
+     */
+    public DrMechanicsContextDto updateContext(UUID runId, DrMechanicsContextDto contextOverrides) {
+        log.info("Updating mechanics context overrides of run {}", runId);
+        contextOverrides.setRunId(runId);
+        overrides.put(runId, contextOverrides);
+        contexts.remove(runId);
+        return toDto(context(runId));
+    }
+
+    public void invalidate(UUID runId) {
+        contexts.remove(runId);
+    }
+
+    public void clearOverrides(UUID runId) {
+        overrides.remove(runId);
+        contexts.remove(runId);
+    }
+
+    /**
+     * Evaluate one sensor sample against the cached context of the run.
+     */
+    public DrRealtimeMechanicsResultDto evaluate(UUID runId, DrRealtimeSampleDto sample) {
+        Context ctx = context(runId);
+        double[] out = new double[5];
+
+        DrRealtimeMechanicsResultDto.DrRealtimeMechanicsResultDtoBuilder result = DrRealtimeMechanicsResultDto.builder()
+                .runId(runId)
+                .timestamp(sample.getTimestamp() != null ? sample.getTimestamp() : System.currentTimeMillis());
+
+        Double bitDepth = sample.getBitDepthFt();
+        Double tvd = sample.getTvdFt();
+        if (tvd == null && bitDepth != null) {
+            tvd = DrMechanicsEngine.valueAtDepth(ctx.md, ctx.tvd, ctx.size, bitDepth);
+        }
+        result.tvdFt(tvd);
+
+        double wobLbs = sample.getWobKlbs() != null ? sample.getWobKlbs() * 1000.0 : 0;
+        if (sample.getTorqueFtLbs() != null && sample.getRpm() != null && sample.getRopFtHr() != null
+                && sample.getRopFtHr() > 0 && ctx.bitDiameterIn > 0) {
+            DrMechanicsEngine.mse(sample.getTorqueFtLbs(), sample.getRpm(), ctx.bitDiameterIn,
+                    sample.getRopFtHr(), wobLbs, out);
+            result.msePsi(out[0]).mseRotationalPsi(out[1]).mseAxialPsi(out[2]);
+        }
+
+        Double flowRate = sample.getFlowRateGpm();
+        if (flowRate != null && flowRate > 0) {
+            if (tvd != null && tvd > 0) {
+                double annularLength = bitDepth != null ? bitDepth : tvd;
+                double apl = DrMechanicsEngine.annularPressureLoss(flowRate, ctx.pvCp, ctx.ypLbf100sqft,
+                        ctx.holeIdIn, ctx.pipeOdIn, annularLength);
+                result.annularPressureLossPsi(apl)
+                        .ecdPpg(DrMechanicsEngine.ecd(ctx.mudWeightPpg, apl, tvd))
+                        .bottomHolePressurePsi(ctx.mudWeightPpg * DrMechanicsEngine.PRESSURE_GRADIENT * tvd + apl);
+            }
+            if (ctx.bitTfaSqIn > 0 && ctx.bitAreaSqIn > 0) {
+                DrMechanicsEngine.bitHydraulics(flowRate, ctx.mudWeightPpg, ctx.bitTfaSqIn, ctx.bitAreaSqIn, out);
+                Double spp = sample.getStandpipePressurePsi();
+                result.jetVelocityFtSec(out[0])
+                        .bitPressureDropPsi(out[1])
+                        .hsiHpPerSqIn(out[3])
+                        .impactForceLbs(out[4])
+                        .percentPressureAtBit(spp != null && spp > 0 ? out[1] / spp * 100.0 : null);
+            }
+        }
+
+        if (bitDepth != null && bitDepth > 0) {
+            DrMechanicsEngine.softStringTorqueDrag(ctx.survey, bitDepth,
+                    ctx.buoyedWeightLbsFt, ctx.friction, ctx.pipeRadiusFt, -wobLbs, DrMechanicsEngine.ROTATING, out);
+            result.rotatingHookLoadLbs(out[0]).modelSurfaceTorqueFtLbs(out[1]).maxSideForceLbs(out[2]);
+            DrMechanicsEngine.softStringTorqueDrag(ctx.survey, bitDepth,
+                    ctx.buoyedWeightLbsFt, ctx.friction, ctx.pipeRadiusFt, 0, DrMechanicsEngine.TRIPPING_IN, out);
+            result.trippingInHookLoadLbs(out[0]);
+            DrMechanicsEngine.softStringTorqueDrag(ctx.survey, bitDepth,
+                    ctx.buoyedWeightLbsFt, ctx.friction, ctx.pipeRadiusFt, 0, DrMechanicsEngine.TRIPPING_OUT, out);
+            result.trippingOutHookLoadLbs(out[0]);
+            DrMechanicsEngine.softStringTorqueDrag(ctx.survey, bitDepth,
+                    ctx.buoyedWeightLbsFt, ctx.friction, ctx.pipeRadiusFt, -wobLbs, DrMechanicsEngine.SLIDING, out);
+            result.slidingHookLoadLbs(out[0]);
+        }
+
+        return result.build();
+    }
+
+    /**
+     * Compiled definitive survey of the run's well, or null when it has no stations.
+     * Used by the request/response torque & drag calculation.
+     */
+    DrMechanicsEngine.Survey survey(UUID runId) {
+        Context ctx = context(runId);
+        return ctx.size > 0 ? ctx.survey : null;
+    }
+
+    Context context(UUID runId) {
+        Context ctx = contexts.get(runId);
+        long now = System.currentTimeMillis();
+        if (ctx == null || now - ctx.compiledTime > config.getMechanicsContextTtlMs()) {
+            ctx = compile(runId, now);
+            contexts.put(runId, ctx);
+        }
+        return ctx;
+    }
+
+    private Context compile(UUID runId, long now) {
+        DrRun run = runRepository.findById(runId)
+                .orElseThrow(() -> new DrEntityNotFoundException("Drilling Run", runId.toString()));
+        DrMechanicsContextDto o = overrides.get(runId);
+
+        Double bitSize = null;
+        Double tfa = null;
+        if (run.getBhaId() != null) {
+            try {
+                DrBhaDto bha = bhaService.getById(run.getBhaId());
+                bitSize = toDouble(bha.getBitSizeIn());
+                tfa = toDouble(bha.getBitTfaSqIn());
+            } catch (DrEntityNotFoundException e) {
+                log.warn("BHA {} of run {} not found, using context defaults", run.getBhaId(), runId);
+            }
+        }
+        double holeId = first(o != null ? o.getHoleIdIn() : null, toDouble(run.getHoleSizeIn()), bitSize, DEFAULT_HOLE_ID_IN);
+        double bitDiameter = first(o != null ? o.getBitDiameterIn() : null, bitSize, holeId, holeId);
+        double bitTfa = first(o != null ? o.getBitTfaSqIn() : null, tfa, 0.0, 0.0);
+        double pipeOd = first(o != null ? o.getPipeOdIn() : null, null, null, DEFAULT_PIPE_OD_IN);
+        double stringWeight = first(o != null ? o.getStringWeightLbsPerFt() : null, null, null, DEFAULT_STRING_WEIGHT_LBS_FT);
+        double mudWeight = first(o != null ? o.getMudWeightPpg() : null, toDouble(run.getMudWeightPpg()), null, DEFAULT_MUD_WEIGHT_PPG);
+        double pv = first(o != null ? o.getPlasticViscosityCp() : null, null, null, DEFAULT_PV_CP);
+        double yp = first(o != null ? o.getYieldPointLbf100sqft() : null, null, null, DEFAULT_YP_LBF_100SQFT);
+        double friction = first(o != null ? o.getFrictionCoefficient() : null, null, null, DEFAULT_FRICTION);
+
+        List<DrDirectionalSurvey> surveys = run.getWellId() != null
+                ? surveyRepository.findByWellIdAndIsDefinitiveTrueOrderByMdFtAsc(run.getWellId())
+                : surveyRepository.findByRunIdAndIsDefinitiveTrueOrderByMdFtAsc(runId);
+        int n = surveys.size();
+        double[] md = new double[n];
+        double[] inc = new double[n];
+        double[] az = new double[n];
+        double[] tvd = new double[n];
+        int size = 0;
+        for (DrDirectionalSurvey survey : surveys) {
+            if (survey.getMdFt() == null || survey.getInclinationDeg() == null || survey.getAzimuthDeg() == null) {
+                continue;
+            }
+            double stationMd = survey.getMdFt().doubleValue();
+            if (size > 0 && stationMd <= md[size - 1]) {
+                continue;
+            }
+            md[size] = stationMd;
+            inc[size] = survey.getInclinationDeg().doubleValue();
+            az[size] = survey.getAzimuthDeg().doubleValue();
+            tvd[size] = survey.getTvdFt() != null ? survey.getTvdFt().doubleValue()
+                    : (size > 0 ? tvd[size - 1] + (stationMd - md[size - 1]) : stationMd);
+            size++;
+        }
+
+        log.debug("Compiled mechanics context of run {} with {} survey stations", runId, size);
+        return new Context(runId, bitDiameter, bitTfa, holeId, pipeOd, stringWeight, mudWeight, pv, yp, friction,
+                md, inc, az, tvd, size, now);
+    }
+
+    private DrMechanicsContextDto toDto(Context ctx) {
+        return DrMechanicsContextDto.builder()
+                .runId(ctx.runId)
+                .bitDiameterIn(ctx.bitDiameterIn)
+                .bitTfaSqIn(ctx.bitTfaSqIn)
+                .holeIdIn(ctx.holeIdIn)
+                .pipeOdIn(ctx.pipeOdIn)
+                .stringWeightLbsPerFt(ctx.stringWeightLbsFt)
+                .mudWeightPpg(ctx.mudWeightPpg)
+                .plasticViscosityCp(ctx.pvCp)
+                .yieldPointLbf100sqft(ctx.ypLbf100sqft)
+                .frictionCoefficient(ctx.friction)
+                .surveyStations(ctx.size)
+                .compiledTime(ctx.compiledTime)
+                .build();
+    }
+
+    private static double first(Double override, Double primary, Double secondary, double fallback) {
+        if (override != null) {
+            return override;
+        }
+        if (primary != null) {
+            return primary;
+        }
+        return secondary != null ? secondary : fallback;
+    }
+
+    private static Double toDouble(BigDecimal value) {
+        return value != null ? value.doubleValue() : null;
+    }
+}
@@ -0,0 +1,299 @@
+/**
+ * Copyright © 2016-2026 The Thingsboard Authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.thingsboard.nexus.dr.service;
+
+/**
+ * Primitive-double drilling mechanics: MSE, ECD, annular losses, bit hydraulics, swab/surge and
+ * soft-string torque & drag.
+ *
+ * Every formula takes plain doubles and writes multi-value results into a caller-owned array, so a
+ * run's static context can be compiled once and evaluated at the sensor rate without allocation.
+ */
+public final class DrMechanicsEngine {
+
+    public static final double PRESSURE_GRADIENT = 0.052;     // psi/ft/ppg
+    public static final double STEEL_DENSITY_PPG = 65.5;
+
+    // Torque & drag operations
+    public static final int ROTATING = 0;
+    public static final int TRIPPING_IN = 1;
+    public static final int TRIPPING_OUT = 2;
+    public static final int SLIDING = 3;
+
+    private DrMechanicsEngine() {
+    }
+
+    /**
+     * Teale's MSE. Writes {total, rotational, axial} in psi.
+     */
+    public static void mse(double torqueFtLbs, double rpm, double bitDiameterIn, double ropFtHr, double wobLbs, double[] out) {
+        double d2 = bitDiameterIn * bitDiameterIn;
+        double rotational = 480.0 * torqueFtLbs * rpm / (d2 * ropFtHr);
+        double axial = 4.0 * wobLbs / (Math.PI * d2);
+        out[0] = rotational + axial;
+        out[1] = rotational;
+        out[2] = axial;
+    }
+
+    /**
+     * ECD = MW + APL / (0.052 × TVD)
+     */
+    public static double ecd(double mudWeightPpg, double annularPressureLossPsi, double tvdFt) {
+        return mudWeightPpg + annularPressureLossPsi / (PRESSURE_GRADIENT * tvdFt);
+    }
+
+    /**
+     * Simplified Bingham plastic annular pressure loss (psi).
+     * APL = (PV × V × L) / (1000 × (Dh - Dp)²) + (YP × L) / (200 × (Dh - Dp))
+     */
+    public static double annularPressureLoss(double flowRateGpm, double pvCp, double ypLbf100sqft,
+                                             double holeIdIn, double pipeOdIn, double lengthFt) {
+        double gap = holeIdIn - pipeOdIn;
+        if (gap <= 0) {
+            return 0;
+        }
+        double annularArea = Math.PI * (holeIdIn * holeIdIn - pipeOdIn * pipeOdIn) / 4.0;
+        double velocity = flowRateGpm * 0.408 / annularArea;
+        return pvCp * velocity * lengthFt / (1000.0 * gap * gap) + ypLbf100sqft * lengthFt / (200.0 * gap);
+    }
+
+    /**
+     * Bit hydraulics. Writes {jet velocity ft/s, bit pressure drop psi, bit HHP, HSI hp/in², impact force lbs}.
+     */
+    public static void bitHydraulics(double flowRateGpm, double mudWeightPpg, double tfaSqIn, double bitAreaSqIn, double[] out) {
+        double jetVelocity = 0.3208 * flowRateGpm / tfaSqIn;
+        double bitPressureDrop = mudWeightPpg * flowRateGpm * flowRateGpm / (12042.0 * tfaSqIn * tfaSqIn);
+        double hhp = flowRateGpm * bitPressureDrop / 1714.0;
+        out[0] = jetVelocity;
+        out[1] = bitPressureDrop;
+        out[2] = hhp;
+        out[3] = hhp / bitAreaSqIn;
+        out[4] = 0.01823 * mudWeightPpg * flowRateGpm * jetVelocity;
+    }
+
+    /**
+     * Clinging-velocity swab / surge pressure change (psi) at the given TVD.
+     */
+    public static double swabSurgePressure(double tripSpeedFtMin, double holeIdIn, double pipeOdIn, boolean openEnded,
+                                           double pvCp, double ypLbf100sqft, double tvdFt) {
+        double pipeArea = Math.PI * pipeOdIn * pipeOdIn / 4.0;
+        double holeArea = Math.PI * holeIdIn * holeIdIn / 4.0;
+        double kFactor = openEnded ? 0.45 : 1.0;
+        double clingingVelocity = tripSpeedFtMin * pipeArea / (holeArea - pipeArea) * kFactor;
+        double halfGap = (holeIdIn - pipeOdIn) / 2.0;
+        return pvCp * clingingVelocity * tvdFt / (1500.0 * halfGap * halfGap)
+                + ypLbf100sqft * tvdFt / (225.0 * halfGap);
+    }
+
+    public static double buoyancyFactor(double mudWeightPpg) {
+        return 1.0 - mudWeightPpg / STEEL_DENSITY_PPG;
+    }
+
+    /**
+     * Survey compiled for torque & drag: station angles in radians and the per-element trigonometry,
+     * which only depends on the survey, computed once. Element {@code i} spans station {@code i - 1}
+     * (surface for {@code i == 0}, taken as vertical) to station {@code i}.
+     */
+    public static final class Survey {
+        final double[] md;
+        final double[] incRad;
+        final double[] azRad;
+        final double[] length;
+        final double[] sinAvg;
+        final double[] cosAvg;
+        final double[] dInc;
+        final double[] dAzSin;
+        final int size;
+
+        private Survey(int size) {
+            this.size = size;
+            this.md = new double[size];
+            this.incRad = new double[size];
+            this.azRad = new double[size];
+            this.length = new double[size];
+            this.sinAvg = new double[size];
+            this.cosAvg = new double[size];
+            this.dInc = new double[size];
+            this.dAzSin = new double[size];
+        }
+
+        public int size() {
+            return size;
+        }
+
+        /**
+         * @param md    measured depths (ft), strictly increasing
+         * @param inc   inclinations (degrees)
+         * @param az    azimuths (degrees)
+         */
+        public static Survey compile(double[] md, double[] inc, double[] az, int size) {
+            Survey s = new Survey(size);
+            for (int i = 0; i < size; i++) {
+                s.md[i] = md[i];
+                s.incRad[i] = Math.toRadians(inc[i]);
+                s.azRad[i] = Math.toRadians(az[i]);
+                double upperMd = i > 0 ? s.md[i - 1] : 0;
+                double upperInc = i > 0 ? s.incRad[i - 1] : 0;
+                double upperAz = i > 0 ? s.azRad[i - 1] : s.azRad[i];
+                double avgInc = (upperInc + s.incRad[i]) / 2.0;
+                s.length[i] = md[i] - upperMd;
+                s.sinAvg[i] = Math.sin(avgInc);
+                s.cosAvg[i] = Math.cos(avgInc);
+                if (s.length[i] > 0) {
+                    s.dInc[i] = s.incRad[i] - upperInc;
+                    s.dAzSin[i] = wrap(s.azRad[i] - upperAz) * s.sinAvg[i];
+                }
+            }
+            return s;
+        }
+    }
+
+    /**
+     * Soft-string (Johancsik) torque & drag integrated from the bit to surface along the survey.
+     *
+     * The string is split at every station above the bit; each element carries its buoyed weight and
+     * the side force from the tension acting through the element's dogleg. Axial friction applies
+     * when the pipe moves (sign by direction), torque when it rotates. Only the element between the
+     * bit and the deepest station above it is evaluated on the fly.
+     *
+     * @param bitLoadLbs axial load at the bit, compressive WOB is negative
+     * @param out        {hook load lbs, surface torque ft-lbs, max side force lbs/element}
+     */
+    public static void softStringTorqueDrag(Survey survey, double bitDepthFt, double buoyedWeightLbsFt,
+                                            double friction, double radiusFt, double bitLoadLbs, int operation,
+                                            double[] out) {
+        double direction;
+        switch (operation) {
+            case TRIPPING_OUT:
+                direction = 1.0;
+                break;
+            case TRIPPING_IN:
+            case SLIDING:
+                direction = -1.0;
+                break;
+            default:
+                direction = 0.0;
+        }
+        double torqueFactor = operation == ROTATING ? friction * radiusFt : 0.0;
+        double axialFriction = direction * friction;
+
+        double[] md = survey.md;
+        int size = survey.size;
+        // Deepest station above the bit
+        int top = upperBound(md, size, bitDepthFt) - 1;
+
+        double tension = bitLoadLbs;
+        double torque = 0;
+        double maxSideForce = 0;
+
+        // Element from the bit up to the deepest station above it (or surface)
+        double upperMd = top >= 0 ? md[top] : 0;
+        double upperInc = top >= 0 ? survey.incRad[top] : 0;
+        double bitInc;
+        double bitAzDelta;
+        if (top >= 0 && top + 1 < size) {
+            double t = (bitDepthFt - md[top]) / (md[top + 1] - md[top]);
+            bitInc = upperInc + t * (survey.incRad[top + 1] - upperInc);
+            bitAzDelta = t * wrap(survey.azRad[top + 1] - survey.azRad[top]);
+        } else {
+            bitInc = upperInc;
+            bitAzDelta = 0;
+        }
+        double length = bitDepthFt - upperMd;
+        if (length > 0) {
+            double avgInc = (upperInc + bitInc) / 2.0;
+            double sin = Math.sin(avgInc);
+            double weight = buoyedWeightLbsFt * length;
+            double lateral = tension * bitAzDelta * sin;
+            double vertical = tension * (bitInc - upperInc) + weight * sin;
+            double sideForce = Math.sqrt(lateral * lateral + vertical * vertical);
+            maxSideForce = sideForce;
+            tension += weight * Math.cos(avgInc) + axialFriction * sideForce;
+            torque += torqueFactor * sideForce;
+        }
+
+        // Station to station, then the top element to surface
+        double[] lengths = survey.length;
+        double[] sinAvg = survey.sinAvg;
+        double[] cosAvg = survey.cosAvg;
+        double[] dInc = survey.dInc;
+        double[] dAzSin = survey.dAzSin;
+        for (int i = top; i >= 0; i--) {
+            double weight = buoyedWeightLbsFt * lengths[i];
+            double lateral = tension * dAzSin[i];
+            double vertical = tension * dInc[i] + weight * sinAvg[i];
+            double sideForce = Math.sqrt(lateral * lateral + vertical * vertical);
+            if (sideForce > maxSideForce) {
+                maxSideForce = sideForce;
+            }
+            tension += weight * cosAvg[i] + axialFriction * sideForce;
+            torque += torqueFactor * sideForce;
+        }
+        out[0] = tension;
+        out[1] = torque;
+        out[2] = maxSideForce;
+    }
+
+    private static double wrap(double angleRad) {
+        if (angleRad > Math.PI) {
+            return angleRad - 2 * Math.PI;
+        }
+        if (angleRad < -Math.PI) {
+            return angleRad + 2 * Math.PI;
+        }
+        return angleRad;
+    }
+
+    /**
+     * Linear interpolation of TVD (or any monotonic column) at {@code mdFt}; vertical above the first
+     * station and tangent below the last.
+     */
+    public static double valueAtDepth(double[] md, double[] values, int size, double mdFt) {
+        if (size == 0) {
+            return mdFt;
+        }
+        int i = upperBound(md, size, mdFt) - 1;
+        if (i < 0) {
+            return values[0] * (md[0] > 0 ? mdFt / md[0] : 1.0);
+        }
+        if (i + 1 >= size) {
+            if (size < 2 || md[size - 1] <= md[size - 2]) {
+                return values[size - 1] + (mdFt - md[size - 1]);
+            }
+            double slope = (values[size - 1] - values[size - 2]) / (md[size - 1] - md[size - 2]);
+            return values[size - 1] + slope * (mdFt - md[size - 1]);
+        }
+        double t = (mdFt - md[i]) / (md[i + 1] - md[i]);
+        return values[i] + t * (values[i + 1] - values[i]);
+    }
+
+    /**
+     * First index with {@code md[index] > mdFt}.
+     */
+    static int upperBound(double[] md, int size, double mdFt) {
+        int lo = 0;
+        int hi = size;
+        while (lo < hi) {
+            int mid = (lo + hi) >>> 1;
+            if (md[mid] <= mdFt) {
+                lo = mid + 1;
+            } else {
+                hi = mid;
+            }
+        }
+        return lo;
+    }
+}
@@ -0,0 +1,248 @@
+/**
+ * Copyright © 2016-2026 The Thingsboard Authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.thingsboard.nexus.dr.service;
+
+import org.thingsboard.nexus.dr.model.enums.LithologyType;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * Depth-binned aggregate of the mud log of one run: ROP statistics, total / background gas,
+ * lithology histogram and oil show count per fixed-size MD bin.
+ *
+ * Samples are added incrementally; a bin whose samples changed is re-aggregated from the database
+ * and swapped in, because min / max cannot be decremented. Coarser views are produced by merging
+ * consecutive bins, so any multiple of the base bin size is served without touching the rows.
+ * Thread-safe.
+ */
+public class DrMudLogDepthBins {
+
+    private static final LithologyType[] LITHOLOGIES = LithologyType.values();
+
+    private final double binSizeFt;
+    private final TreeMap<Long, Bin> bins = new TreeMap<>();
+
+    public DrMudLogDepthBins(double binSizeFt) {
+        this.binSizeFt = binSizeFt;
+    }
+
+    /**
+     * Aggregates of one MD interval. Absent values are excluded from their statistic.
+     */
+    public static final class Bin {
+        private final double topFt;
+        private final double bottomFt;
+        private long samples;
+        private long ropCount;
+        private double ropSum;
+        private double ropMin = Double.POSITIVE_INFINITY;
+        private double ropMax = Double.NEGATIVE_INFINITY;
+        private long gasCount;
+        private double gasSum;
+        private double gasMax = Double.NEGATIVE_INFINITY;
+        private long backgroundGasCount;
+        private double backgroundGasSum;
+        private long oilShows;
+        private final long[] lithology = new long[LITHOLOGIES.length];
+
+        Bin(double topFt, double bottomFt) {
+            this.topFt = topFt;
+            this.bottomFt = bottomFt;
+        }
+
+        void add(double ropFtHr, double totalGas, double backgroundGas, LithologyType primaryLithology, boolean oilShow) {
+            samples++;
+            if (!Double.isNaN(ropFtHr)) {
+                ropCount++;
+                ropSum += ropFtHr;
+                ropMin = Math.min(ropMin, ropFtHr);
+                ropMax = Math.max(ropMax, ropFtHr);
+            }
+            if (!Double.isNaN(totalGas)) {
+                gasCount++;
+                gasSum += totalGas;
+                gasMax = Math.max(gasMax, totalGas);
+            }
+            if (!Double.isNaN(backgroundGas)) {
+                backgroundGasCount++;
+                backgroundGasSum += backgroundGas;
+            }
+            if (primaryLithology != null) {
+                lithology[primaryLithology.ordinal()]++;
+            }
+            if (oilShow) {
+                oilShows++;
+            }
+        }
+
+        void merge(Bin other) {
+            samples += other.samples;
+            ropCount += other.ropCount;
+            ropSum += other.ropSum;
+            ropMin = Math.min(ropMin, other.ropMin);
+            ropMax = Math.max(ropMax, other.ropMax);
+            gasCount += other.gasCount;
+            gasSum += other.gasSum;
+            gasMax = Math.max(gasMax, other.gasMax);
+            backgroundGasCount += other.backgroundGasCount;
+            backgroundGasSum += other.backgroundGasSum;
+            oilShows += other.oilShows;
+            for (int i = 0; i < lithology.length; i++) {
+                lithology[i] += other.lithology[i];
+            }
+        }
+
+        public double getTopFt() {
+            return topFt;
+        }
+
+        public double getBottomFt() {
+            return bottomFt;
+        }
+
+        public long getSamples() {
+            return samples;
+        }
+
+        public long getOilShows() {
+            return oilShows;
+        }
+
+        public Double getAvgRopFtHr() {
+            return ropCount > 0 ? ropSum / ropCount : null;
+        }
+
+        public Double getMinRopFtHr() {
+            return ropCount > 0 ? ropMin : null;
+        }
+
+        public Double getMaxRopFtHr() {
+            return ropCount > 0 ? ropMax : null;
+        }
+
+        public Double getAvgTotalGasUnits() {
+            return gasCount > 0 ? gasSum / gasCount : null;
+        }
+
+        public Double getMaxTotalGasUnits() {
+            return gasCount > 0 ? gasMax : null;
+        }
+
+        public Double getAvgBackgroundGasUnits() {
+            return backgroundGasCount > 0 ? backgroundGasSum / backgroundGasCount : null;
+        }
+
+        public LithologyType getDominantLithology() {
+            int best = -1;
+            for (int i = 0; i < lithology.length; i++) {
+                if (lithology[i] > 0 && (best < 0 || lithology[i] > lithology[best])) {
+                    best = i;
+                }
+            }
+            return best >= 0 ? LITHOLOGIES[best] : null;
+        }
+
+        /**
+         * Sample count per primary lithology, only lithologies that occur.
+         */
+        public Map<LithologyType, Long> getLithologyCounts() {
+            Map<LithologyType, Long> counts = new TreeMap<>();
+            for (int i = 0; i < lithology.length; i++) {
+                if (lithology[i] > 0) {
+                    counts.put(LITHOLOGIES[i], lithology[i]);
+                }
+            }
+            return counts;
+        }
+    }
+
+    public double getBinSizeFt() {
+        return binSizeFt;
+    }
+
+    public synchronized void add(double mdFt, double ropFtHr, double totalGas, double backgroundGas,
+                                 LithologyType primaryLithology, boolean oilShow) {
+        long index = index(mdFt);
+        bins.computeIfAbsent(index, i -> new Bin(i * binSizeFt, (i + 1) * binSizeFt))
+                .add(ropFtHr, totalGas, backgroundGas, primaryLithology, oilShow);
+    }
+
+    /**
+     * MD interval {top, bottom} of the bin containing {@code mdFt}.
+     */
+    public double[] interval(double mdFt) {
+        long index = index(mdFt);
+        return new double[]{index * binSizeFt, (index + 1) * binSizeFt};
+    }
+
+    /**
+     * Swap in a bin re-aggregated from the database; min / max cannot be decremented in place.
+     */
+    public synchronized void replaceBin(double mdFt, Bin bin) {
+        if (bin.samples == 0) {
+            bins.remove(index(mdFt));
+        } else {
+            bins.put(index(mdFt), bin);
+        }
+    }
+
+    /**
+     * Bins intersecting [fromFt, toFt) merged into {@code rollupFactor} base bins each, shallowest first.
+     * Empty intervals are omitted; an empty range yields an empty list.
+     */
+    public synchronized List<Bin> rollup(double fromFt, double toFt, int rollupFactor) {
+        List<Bin> result = new ArrayList<>();
+        if (!(toFt > fromFt)) {
+            return result;
+        }
+        long groupSize = Math.max(1, rollupFactor);
+        Bin current = null;
+        long currentGroup = Long.MIN_VALUE;
+        for (Map.Entry<Long, Bin> e : bins.subMap(index(fromFt), true, index(Math.nextDown(toFt)), true).entrySet()) {
+            long group = Math.floorDiv(e.getKey(), groupSize);
+            if (current == null || group != currentGroup) {
+                current = new Bin(group * groupSize * binSizeFt, (group + 1) * groupSize * binSizeFt);
+                currentGroup = group;
+                result.add(current);
+            }
+            current.merge(e.getValue());
+        }
+        return result;
+    }
+
+    /**
+     * All bins of the run merged into one.
+     */
+    public synchronized Bin total() {
+        Bin total = new Bin(bins.isEmpty() ? 0 : bins.firstKey() * binSizeFt,
+                bins.isEmpty() ? 0 : (bins.lastKey() + 1) * binSizeFt);
+        for (Bin bin : bins.values()) {
+            total.merge(bin);
+        }
+        return total;
+    }
+
+    public synchronized double getDeepestFt() {
+        return bins.isEmpty() ? 0 : (bins.lastKey() + 1) * binSizeFt;
+    }
+
+    private long index(double mdFt) {
+        return (long) Math.floor(mdFt / binSizeFt);
+    }
+}
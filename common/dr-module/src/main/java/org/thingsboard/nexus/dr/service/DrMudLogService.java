@@ -22,6 +22,8 @@ import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
+import org.thingsboard.nexus.dr.config.DrModuleConfiguration;
+import org.thingsboard.nexus.dr.dto.DrMudLogDepthTrackDto;
 import org.thingsboard.nexus.dr.dto.DrMudLogDto;
 import org.thingsboard.nexus.dr.model.DrMudLog;
 import org.thingsboard.nexus.dr.model.enums.LithologyType;
@@ -32,10 +34,15 @@ import java.math.BigDecimal;
 import java.util.List;
 import java.util.Map;
 import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.stream.Collectors;
 
 /**
  * Service for Mud Log operations.
+ *
+ * Run-level and depth-window aggregates (ROP, gas, lithology) are served from a depth-binned
+ * projection per run ({@link DrMudLogDepthBins}), built with one query on first use and kept
+ * current as mud logs are written.
  */
 @Service
 @RequiredArgsConstructor
@@ -43,6 +50,9 @@ import java.util.stream.Collectors;
 public class DrMudLogService {
 
     private final DrMudLogRepository mudLogRepository;
+    private final DrModuleConfiguration config;
+
+    private final Map<UUID, DrMudLogDepthBins> depthBins = new ConcurrentHashMap<>();
 
     // --- CRUD Operations ---
 
@@ -84,6 +94,11 @@ public class DrMudLogService {
         log.info("Creating new mud log for run {} at MD {} ft", mudLog.getRunId(), mudLog.getMdFt());
 
         DrMudLog saved = mudLogRepository.save(mudLog);
+        DrMudLogDepthBins bins = depthBins.get(saved.getRunId());
+        if (bins != null) {
+            addToBins(bins, saved.getMdFt(), saved.getRopFtHr(), saved.getTotalGasUnits(),
+                    saved.getBackgroundGasUnits(), saved.getPrimaryLithology(), saved.getOilShowIntensity());
+        }
         return DrMudLogDto.fromEntity(saved);
     }
 
@@ -93,6 +108,7 @@ public class DrMudLogService {
 
         DrMudLog existing = mudLogRepository.findById(id)
                 .orElseThrow(() -> new EntityNotFoundException("Mud log not found: " + id));
+        BigDecimal previousMdFt = existing.getMdFt();
 
         // Update depth info
         existing.setMdFt(mudLogUpdate.getMdFt());
@@ -168,16 +184,17 @@ public class DrMudLogService {
         existing.setRawData(mudLogUpdate.getRawData());
 
         DrMudLog saved = mudLogRepository.save(existing);
+        rebuildBins(saved.getRunId(), previousMdFt, saved.getMdFt());
         return DrMudLogDto.fromEntity(saved);
     }
 
     @Transactional
     public void delete(UUID id) {
         log.info("Deleting mud log: {}", id);
-        if (!mudLogRepository.existsById(id)) {
-            throw new EntityNotFoundException("Mud log not found: " + id);
-        }
-        mudLogRepository.deleteById(id);
+        DrMudLog mudLog = mudLogRepository.findById(id)
+                .orElseThrow(() -> new EntityNotFoundException("Mud log not found: " + id));
+        mudLogRepository.delete(mudLog);
+        rebuildBins(mudLog.getRunId(), mudLog.getMdFt(), null);
     }
 
     // --- Lithology Methods ---
@@ -196,12 +213,7 @@ public class DrMudLogService {
 
     @Transactional(readOnly = true)
     public Map<LithologyType, Long> getLithologyDistribution(UUID runId) {
-        List<Object[]> results = mudLogRepository.countByLithologyForRunId(runId);
-        return results.stream()
-                .collect(Collectors.toMap(
-                        r -> (LithologyType) r[0],
-                        r -> (Long) r[1]
-                ));
+        return bins(runId).total().getLithologyCounts();
     }
 
     // --- Formation Methods ---
@@ -253,12 +265,14 @@ public class DrMudLogService {
 
     @Transactional(readOnly = true)
     public BigDecimal getMaxTotalGas(UUID runId) {
-        return mudLogRepository.getMaxTotalGasByRunId(runId);
+        Double max = bins(runId).total().getMaxTotalGasUnits();
+        return max != null ? BigDecimal.valueOf(max) : null;
     }
 
     @Transactional(readOnly = true)
     public BigDecimal getAverageBackgroundGas(UUID runId) {
-        return mudLogRepository.getAverageBackgroundGasByRunId(runId);
+        Double avg = bins(runId).total().getAvgBackgroundGasUnits();
+        return avg != null ? BigDecimal.valueOf(avg) : null;
     }
 
     @Transactional(readOnly = true)
@@ -291,6 +305,7 @@ public class DrMudLogService {
         mudLog.setNc5Percent(nc5);
 
         DrMudLog saved = mudLogRepository.save(mudLog);
+        rebuildBins(saved.getRunId(), saved.getMdFt(), null);
         return DrMudLogDto.fromEntity(saved);
     }
 
@@ -330,6 +345,7 @@ public class DrMudLogService {
         mudLog.setStainDescription(stainDescription);
 
         DrMudLog saved = mudLogRepository.save(mudLog);
+        rebuildBins(saved.getRunId(), saved.getMdFt(), null);
         return DrMudLogDto.fromEntity(saved);
     }
 
@@ -383,6 +399,135 @@ public class DrMudLogService {
                 .collect(Collectors.toList());
     }
 
+    // --- Depth Track ---
+
+    /**
+     * Composite depth track for [fromDepth, toDepth): per-bin ROP, gas, lithology and shows plus the
+     * window totals, in one call and without reading mud log rows. The bin size is rounded up to a
+     * multiple of the projection bin size; when omitted it is chosen so the window fits in
+     * {@code mudLogTrackMaxBins} bins.
+     */
+    @Transactional(readOnly = true)
+    public DrMudLogDepthTrackDto getDepthTrack(UUID runId, Double fromDepth, Double toDepth, Double binSizeFt) {
+        long start = System.currentTimeMillis();
+        DrMudLogDepthBins bins = bins(runId);
+
+        double from = fromDepth != null ? fromDepth : 0;
+        double to = toDepth != null ? toDepth : bins.getDeepestFt();
+        if (to < from) {
+            throw new IllegalArgumentException("toDepth must not be shallower than fromDepth");
+        }
+
+        double baseSize = bins.getBinSizeFt();
+        int rollupFactor;
+        if (binSizeFt != null && binSizeFt > 0) {
+            rollupFactor = (int) Math.ceil(binSizeFt / baseSize - 1e-9);
+        } else {
+            double baseBins = (to - from) / baseSize;
+            rollupFactor = (int) Math.ceil(baseBins / Math.max(1, config.getMudLogTrackMaxBins()));
+        }
+        rollupFactor = Math.max(1, rollupFactor);
+
+        List<DrMudLogDepthBins.Bin> rolled = bins.rollup(from, to, rollupFactor);
+        DrMudLogDepthBins.Bin window = new DrMudLogDepthBins.Bin(from, to);
+        rolled.forEach(window::merge);
+
+        List<DrMudLogDepthTrackDto.DepthBin> trackBins = rolled.stream()
+                .map(b -> DrMudLogDepthTrackDto.DepthBin.builder()
+                        .topFt(b.getTopFt())
+                        .bottomFt(b.getBottomFt())
+                        .samples(b.getSamples())
+                        .avgRopFtHr(b.getAvgRopFtHr())
+                        .minRopFtHr(b.getMinRopFtHr())
+                        .maxRopFtHr(b.getMaxRopFtHr())
+                        .avgTotalGasUnits(b.getAvgTotalGasUnits())
+                        .maxTotalGasUnits(b.getMaxTotalGasUnits())
+                        .avgBackgroundGasUnits(b.getAvgBackgroundGasUnits())
+                        .dominantLithology(b.getDominantLithology())
+                        .lithology(b.getLithologyCounts())
+                        .oilShows(b.getOilShows())
+                        .build())
+                .collect(Collectors.toList());
+
+        return DrMudLogDepthTrackDto.builder()
+                .runId(runId)
+                .fromDepthFt(from)
+                .toDepthFt(to)
+                .binSizeFt(rollupFactor * baseSize)
+                .sampleCount(window.getSamples())
+                .avgRopFtHr(window.getAvgRopFtHr())
+                .maxRopFtHr(window.getMaxRopFtHr())
+                .maxTotalGasUnits(window.getMaxTotalGasUnits())
+                .avgBackgroundGasUnits(window.getAvgBackgroundGasUnits())
+                .oilShowCount(window.getOilShows())
+                .lithologyDistribution(window.getLithologyCounts())
+                .bins(trackBins)
+                .elapsedMs(System.currentTimeMillis() - start)
+                .build();
+    }
+
+    /**
+     * Drop the cached projection of a run; it is rebuilt on next use.
+     */
+    public void invalidateDepthBins(UUID runId) {
+        depthBins.remove(runId);
+    }
+
+    private DrMudLogDepthBins bins(UUID runId) {
+        return depthBins.computeIfAbsent(runId, id -> {
+            DrMudLogDepthBins bins = new DrMudLogDepthBins(config.getMudLogBinSizeFt());
+            List<Object[]> rows = mudLogRepository.findBinInputsByRunId(id);
+            rows.forEach(row -> addToBins(bins, (BigDecimal) row[0], (BigDecimal) row[1], (BigDecimal) row[2],
+                    (BigDecimal) row[3], (LithologyType) row[4], (String) row[5]));
+            log.debug("Built mud log depth bins for run {} from {} samples", id, rows.size());
+            return bins;
+        });
+    }
+
+    /**
+     * Re-aggregate the bins containing the given depths from the database after a change.
+     */
+    private void rebuildBins(UUID runId, BigDecimal mdFt, BigDecimal otherMdFt) {
+        DrMudLogDepthBins bins = depthBins.get(runId);
+        if (bins == null) {
+            return;
+        }
+        rebuildBin(bins, runId, mdFt);
+        if (otherMdFt != null && (mdFt == null || otherMdFt.compareTo(mdFt) != 0)) {
+            rebuildBin(bins, runId, otherMdFt);
+        }
+    }
+
+    private void rebuildBin(DrMudLogDepthBins bins, UUID runId, BigDecimal mdFt) {
+        if (mdFt == null) {
+            return;
+        }
+        double[] interval = bins.interval(mdFt.doubleValue());
+        DrMudLogDepthBins.Bin bin = new DrMudLogDepthBins.Bin(interval[0], interval[1]);
+        mudLogRepository.findBinInputsByRunIdAndDepthInterval(runId,
+                        BigDecimal.valueOf(interval[0]), BigDecimal.valueOf(interval[1]))
+                .forEach(row -> bin.add(toDouble((BigDecimal) row[1]), toDouble((BigDecimal) row[2]),
+                        toDouble((BigDecimal) row[3]), (LithologyType) row[4], isOilShow((String) row[5])));
+        bins.replaceBin(mdFt.doubleValue(), bin);
+    }
+
+    private static void addToBins(DrMudLogDepthBins bins, BigDecimal mdFt, BigDecimal rop, BigDecimal totalGas,
+                                  BigDecimal backgroundGas, LithologyType lithology, String oilShowIntensity) {
+        if (mdFt == null) {
+            return;
+        }
+        bins.add(mdFt.doubleValue(), toDouble(rop), toDouble(totalGas), toDouble(backgroundGas), lithology,
+                isOilShow(oilShowIntensity));
+    }
+
+    private static boolean isOilShow(String oilShowIntensity) {
+        return oilShowIntensity != null && !"None".equals(oilShowIntensity);
+    }
+
+    private static double toDouble(BigDecimal value) {
+        return value != null ? value.doubleValue() : Double.NaN;
+    }
+
     // --- Statistics ---
 
     @Transactional(readOnly = true)
@@ -0,0 +1,410 @@
+/**
+ * Copyright © 2016-2026 The Thingsboard Authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.thingsboard.nexus.dr.service;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.Page;
+import org.springframework.stereotype.Service;
+import org.thingsboard.nexus.dr.config.DrModuleConfiguration;
+import org.thingsboard.nexus.dr.dto.DrRigDto;
+import org.thingsboard.server.common.data.asset.Asset;
+import org.thingsboard.server.common.data.kv.AttributeKvEntry;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+ * In-memory registry of the drilling rigs of each tenant (asset + SERVER_SCOPE attributes),
+ * indexed by status, type and code.
+ * <p>
+ * A tenant is hydrated once with one asset query per page and batched attribute reads
+ * (concurrent first requests wait for the same load), then kept current by
+ * {@link DrAttributesUpdatedEvent}s: a changed rig is marked dirty and re-read on the next access.
+ * After {@code rigRegistryTtlMs} the snapshot is reloaded in the background, to pick up writes made
+ * outside this module, while requests keep being served from the current one.
+ * <p>
+ * Returned DTOs are shared snapshots and must not be mutated by callers.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class DrRigRegistry {
+
+    private static final int LOAD_PAGE_SIZE = 1000;
+
+    private final DrAssetService assetService;
+    private final DrAttributeService attributeService;
+    private final DrModuleConfiguration config;
+
+    private final Map<UUID, TenantRigs> tenants = new ConcurrentHashMap<>();
+    private final Map<UUID, UUID> tenantByRig = new ConcurrentHashMap<>();
+    private final Map<UUID, CompletableFuture<TenantRigs>> loading = new ConcurrentHashMap<>();
+
+    private ExecutorService refreshExecutor;
+
+    @PostConstruct
+    public void init() {
+        refreshExecutor = Executors.newSingleThreadExecutor(r -> {
+            Thread thread = new Thread(r, "dr-rig-registry");
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    @PreDestroy
+    public void destroy() {
+        refreshExecutor.shutdownNow();
+    }
+
+    /**
+     * Rigs of one tenant and their secondary indexes. All access is synchronized on the instance.
+     */
+    static final class TenantRigs {
+        final long loadedTime;
+        private final Map<UUID, DrRigDto> byId = new LinkedHashMap<>();
+        private final Map<String, Set<UUID>> byStatus = new HashMap<>();
+        private final Map<String, Set<UUID>> byType = new HashMap<>();
+        private final Map<String, UUID> byCode = new HashMap<>();
+        private final Set<UUID> dirty = ConcurrentHashMap.newKeySet();
+
+        TenantRigs(long loadedTime) {
+            this.loadedTime = loadedTime;
+        }
+
+        synchronized void put(DrRigDto rig) {
+            DrRigDto previous = byId.put(rig.getAssetId(), rig);
+            if (previous != null) {
+                unindex(previous);
+            }
+            index(byStatus, rig.getOperationalStatus(), rig.getAssetId());
+            index(byType, rig.getRigType(), rig.getAssetId());
+            if (rig.getRigCode() != null) {
+                byCode.put(rig.getRigCode(), rig.getAssetId());
+            }
+        }
+
+        synchronized void remove(UUID assetId) {
+            DrRigDto previous = byId.remove(assetId);
+            if (previous != null) {
+                unindex(previous);
+            }
+        }
+
+        synchronized DrRigDto get(UUID assetId) {
+            return byId.get(assetId);
+        }
+
+        synchronized DrRigDto withCode(String rigCode) {
+            UUID assetId = byCode.get(rigCode);
+            return assetId != null ? byId.get(assetId) : null;
+        }
+
+        synchronized List<DrRigDto> all() {
+            return new ArrayList<>(byId.values());
+        }
+
+        synchronized List<DrRigDto> page(int offset, int limit) {
+            List<DrRigDto> page = new ArrayList<>(Math.max(0, Math.min(limit, byId.size() - offset)));
+            int i = 0;
+            for (DrRigDto rig : byId.values()) {
+                if (i >= offset + limit) {
+                    break;
+                }
+                if (i++ >= offset) {
+                    page.add(rig);
+                }
+            }
+            return page;
+        }
+
+        synchronized List<DrRigDto> withStatus(String status) {
+            return resolve(byStatus.get(status));
+        }
+
+        synchronized List<DrRigDto> withType(String rigType) {
+            return resolve(byType.get(rigType));
+        }
+
+        synchronized int countWithStatus(String status) {
+            Set<UUID> ids = byStatus.get(status);
+            return ids != null ? ids.size() : 0;
+        }
+
+        synchronized int countWithType(String rigType) {
+            Set<UUID> ids = byType.get(rigType);
+            return ids != null ? ids.size() : 0;
+        }
+
+        synchronized int size() {
+            return byId.size();
+        }
+
+        void markDirty(UUID assetId) {
+            dirty.add(assetId);
+        }
+
+        boolean hasDirty() {
+            return !dirty.isEmpty();
+        }
+
+        List<UUID> drainDirty() {
+            List<UUID> drained = new ArrayList<>(dirty);
+            dirty.removeAll(drained);
+            return drained;
+        }
+
+        void inheritDirty(TenantRigs previous) {
+            dirty.addAll(previous.dirty);
+        }
+
+        private List<DrRigDto> resolve(Set<UUID> ids) {
+            if (ids == null) {
+                return Collections.emptyList();
+            }
+            List<DrRigDto> rigs = new ArrayList<>(ids.size());
+            for (UUID id : ids) {
+                rigs.add(byId.get(id));
+            }
+            return rigs;
+        }
+
+        private void unindex(DrRigDto rig) {
+            unindex(byStatus, rig.getOperationalStatus(), rig.getAssetId());
+            unindex(byType, rig.getRigType(), rig.getAssetId());
+            if (rig.getRigCode() != null) {
+                byCode.remove(rig.getRigCode(), rig.getAssetId());
+            }
+        }
+
+        private static void index(Map<String, Set<UUID>> index, String key, UUID assetId) {
+            if (key != null) {
+                index.computeIfAbsent(key, k -> new LinkedHashSet<>()).add(assetId);
+            }
+        }
+
+        private static void unindex(Map<String, Set<UUID>> index, String key, UUID assetId) {
+            if (key == null) {
+                return;
+            }
+            Set<UUID> ids = index.get(key);
+            if (ids != null) {
+                ids.remove(assetId);
+                if (ids.isEmpty()) {
+                    index.remove(key);
+                }
+            }
+        }
+    }
+
+    // --- Queries ---
+
+    public List<DrRigDto> getAll(UUID tenantId) {
+        return rigs(tenantId).all();
+    }
+
+    public List<DrRigDto> getPage(UUID tenantId, int page, int pageSize) {
+        return rigs(tenantId).page(page * pageSize, pageSize);
+    }
+
+    public List<DrRigDto> getByStatus(UUID tenantId, String status) {
+        return rigs(tenantId).withStatus(status);
+    }
+
+    public List<DrRigDto> getByType(UUID tenantId, String rigType) {
+        return rigs(tenantId).withType(rigType);
+    }
+
+    public Optional<DrRigDto> findById(UUID tenantId, UUID assetId) {
+        return Optional.ofNullable(rigs(tenantId).get(assetId));
+    }
+
+    public Optional<DrRigDto> findByCode(UUID tenantId, String rigCode) {
+        return Optional.ofNullable(rigs(tenantId).withCode(rigCode));
+    }
+
+    public long countByStatus(UUID tenantId, String status) {
+        return rigs(tenantId).countWithStatus(status);
+    }
+
+    public long countByType(UUID tenantId, String rigType) {
+        return rigs(tenantId).countWithType(rigType);
+    }
+
+    public long count(UUID tenantId) {
+        return rigs(tenantId).size();
+    }
+
+    // --- Invalidation ---
+
+    /**
+     * Re-read a rig of the tenant on the next access (used after creating a rig,
+     * which is not yet known to the registry when its attributes are saved).
+     */
+    public void refresh(UUID tenantId, UUID assetId) {
+        TenantRigs rigs = tenants.get(tenantId);
+        if (rigs != null) {
+            tenantByRig.put(assetId, tenantId);
+            rigs.markDirty(assetId);
+        }
+    }
+
+    public void evict(UUID tenantId, UUID assetId) {
+        tenantByRig.remove(assetId);
+        TenantRigs rigs = tenants.get(tenantId);
+        if (rigs != null) {
+            rigs.remove(assetId);
+        }
+    }
+
+    public void invalidateTenant(UUID tenantId) {
+        tenants.remove(tenantId);
+    }
+
+    @EventListener
+    public void onAttributesUpdated(DrAttributesUpdatedEvent event) {
+        UUID tenantId = tenantByRig.get(event.getEntityId());
+        if (tenantId != null) {
+            TenantRigs rigs = tenants.get(tenantId);
+            if (rigs != null) {
+                rigs.markDirty(event.getEntityId());
+            }
+        }
+    }
+
+    // --- Internal ---
+
+    private TenantRigs rigs(UUID tenantId) {
+        TenantRigs rigs = tenants.get(tenantId);
+        if (rigs == null) {
+            rigs = loadOnce(tenantId);
+        } else if (System.currentTimeMillis() - rigs.loadedTime > config.getRigRegistryTtlMs()) {
+            refreshInBackground(tenantId);
+        }
+        if (rigs.hasDirty()) {
+            reload(tenantId, rigs, rigs.drainDirty());
+        }
+        return rigs;
+    }
+
+    /**
+     * Load a cold tenant; concurrent callers wait for the load already in progress.
+     */
+    private TenantRigs loadOnce(UUID tenantId) {
+        CompletableFuture<TenantRigs> created = new CompletableFuture<>();
+        CompletableFuture<TenantRigs> inProgress = loading.putIfAbsent(tenantId, created);
+        if (inProgress != null) {
+            return inProgress.join();
+        }
+        try {
+            TenantRigs rigs = swapIn(tenantId, load(tenantId));
+            created.complete(rigs);
+            return rigs;
+        } catch (RuntimeException e) {
+            created.completeExceptionally(e);
+            throw e;
+        } finally {
+            loading.remove(tenantId, created);
+        }
+    }
+
+    private void refreshInBackground(UUID tenantId) {
+        CompletableFuture<TenantRigs> created = new CompletableFuture<>();
+        if (loading.putIfAbsent(tenantId, created) != null) {
+            return;
+        }
+        refreshExecutor.execute(() -> {
+            try {
+                created.complete(swapIn(tenantId, load(tenantId)));
+            } catch (Exception e) {
+                log.warn("Failed to reload drilling rigs of tenant {}: {}", tenantId, e.getMessage());
+                created.completeExceptionally(e);
+            } finally {
+                loading.remove(tenantId, created);
+            }
+        });
+    }
+
+    /**
+     * Rigs marked dirty while the snapshot was loading may have been read before their update.
+     */
+    private TenantRigs swapIn(UUID tenantId, TenantRigs rigs) {
+        TenantRigs previous = tenants.put(tenantId, rigs);
+        if (previous != null) {
+            rigs.inheritDirty(previous);
+        }
+        return rigs;
+    }
+
+    private TenantRigs load(UUID tenantId) {
+        long start = System.currentTimeMillis();
+        TenantRigs rigs = new TenantRigs(start);
+        int page = 0;
+        Page<Asset> assets;
+        do {
+            assets = assetService.getAssetsByType(tenantId, DrRigDto.ASSET_TYPE, page++, LOAD_PAGE_SIZE);
+            List<UUID> ids = new ArrayList<>(assets.getNumberOfElements());
+            for (Asset asset : assets.getContent()) {
+                ids.add(asset.getId().getId());
+            }
+            Map<UUID, List<AttributeKvEntry>> attributes = attributeService.getServerAttributes(ids);
+            for (Asset asset : assets.getContent()) {
+                UUID assetId = asset.getId().getId();
+                rigs.put(DrRigDto.fromAssetAndAttributes(asset, attributes.get(assetId)));
+                tenantByRig.put(assetId, tenantId);
+            }
+        } while (assets.hasNext());
+        log.debug("Loaded {} drilling rigs of tenant {} in {} ms", rigs.size(), tenantId,
+                System.currentTimeMillis() - start);
+        return rigs;
+    }
+
+    private void reload(UUID tenantId, TenantRigs rigs, List<UUID> assetIds) {
+        Map<UUID, Asset> assets = new LinkedHashMap<>();
+        for (UUID assetId : assetIds) {
+            Optional<Asset> asset = assetService.getAssetById(assetId);
+            if (asset.isPresent() && DrRigDto.ASSET_TYPE.equals(asset.get().getType())
+                    && tenantId.equals(asset.get().getTenantId().getId())) {
+                assets.put(assetId, asset.get());
+            } else {
+                rigs.remove(assetId);
+                tenantByRig.remove(assetId);
+            }
+        }
+        if (assets.isEmpty()) {
+            return;
+        }
+        Map<UUID, List<AttributeKvEntry>> attributes = attributeService.getServerAttributes(assets.keySet());
+        for (Map.Entry<UUID, Asset> entry : assets.entrySet()) {
+            rigs.put(DrRigDto.fromAssetAndAttributes(entry.getValue(), attributes.get(entry.getKey())));
+        }
+    }
+}
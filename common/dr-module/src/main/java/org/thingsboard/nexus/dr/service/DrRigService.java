@@ -32,6 +32,7 @@ import org.thingsboard.server.common.data.template.CreateFromTemplateRequest;
 import org.thingsboard.server.common.data.template.TemplateInstanceResult;
 
 import java.math.BigDecimal;
+import java.util.ArrayList;
 import java.util.List;
 import java.util.Map;
 import java.util.UUID;
@@ -49,6 +50,7 @@ public class DrRigService {
     private final DrAssetService assetService;
     private final DrAttributeService attributeService;
     private final DrTemplateService templateService;
+    private final DrRigRegistry rigRegistry;
 
     // --- Query Operations ---
 
@@ -69,24 +71,12 @@ public class DrRigService {
     }
 
     /**
-     * Get a rig by its code (searches in attributes)
+     * Get a rig by its code (served from the rig registry)
      */
     public DrRigDto getByCode(UUID tenantId, String rigCode) {
         log.debug("Getting drilling rig by code: {}", rigCode);
-        // Search through all rigs to find by code
-        Page<Asset> assets = assetService.getAssetsByType(tenantId, DrRigDto.ASSET_TYPE, 0, 1000);
-
-        for (Asset asset : assets.getContent()) {
-            List<AttributeKvEntry> attributes = attributeService.getServerAttributes(asset.getId().getId());
-            for (AttributeKvEntry attr : attributes) {
-                if (DrRigDto.ATTR_RIG_CODE.equals(attr.getKey()) &&
-                    rigCode.equals(attr.getStrValue().orElse(null))) {
-                    return DrRigDto.fromAssetAndAttributes(asset, attributes);
-                }
-            }
-        }
-
-        throw new DrEntityNotFoundException("Drilling Rig", rigCode);
+        return rigRegistry.findByCode(tenantId, rigCode)
+                .orElseThrow(() -> new DrEntityNotFoundException("Drilling Rig", rigCode));
     }
 
     /**
@@ -94,17 +84,8 @@ public class DrRigService {
      */
     public Page<DrRigDto> getByTenant(UUID tenantId, Pageable pageable) {
         log.debug("Getting drilling rigs for tenant: {}", tenantId);
-        Page<Asset> assets = assetService.getAssetsByType(tenantId, DrRigDto.ASSET_TYPE,
-                pageable.getPageNumber(), pageable.getPageSize());
-
-        List<DrRigDto> dtos = assets.getContent().stream()
-                .map(asset -> {
-                    List<AttributeKvEntry> attributes = attributeService.getServerAttributes(asset.getId().getId());
-                    return DrRigDto.fromAssetAndAttributes(asset, attributes);
-                })
-                .collect(Collectors.toList());
-
-        return new PageImpl<>(dtos, pageable, assets.getTotalElements());
+        List<DrRigDto> dtos = rigRegistry.getPage(tenantId, pageable.getPageNumber(), pageable.getPageSize());
+        return new PageImpl<>(dtos, pageable, rigRegistry.count(tenantId));
     }
 
     /**
@@ -112,14 +93,7 @@ public class DrRigService {
      */
     public List<DrRigDto> getAllByTenant(UUID tenantId) {
         log.debug("Getting all drilling rigs for tenant: {}", tenantId);
-        Page<Asset> assets = assetService.getAssetsByType(tenantId, DrRigDto.ASSET_TYPE, 0, 10000);
-
-        return assets.getContent().stream()
-                .map(asset -> {
-                    List<AttributeKvEntry> attributes = attributeService.getServerAttributes(asset.getId().getId());
-                    return DrRigDto.fromAssetAndAttributes(asset, attributes);
-                })
-                .collect(Collectors.toList());
+        return rigRegistry.getAll(tenantId);
     }
 
     /**
@@ -127,9 +101,7 @@ public class DrRigService {
      */
     public List<DrRigDto> getByStatus(UUID tenantId, String status) {
         log.debug("Getting drilling rigs by status - tenant: {}, status: {}", tenantId, status);
-        return getAllByTenant(tenantId).stream()
-                .filter(rig -> status.equals(rig.getOperationalStatus()))
-                .collect(Collectors.toList());
+        return rigRegistry.getByStatus(tenantId, status);
     }
 
     /**
@@ -137,9 +109,7 @@ public class DrRigService {
      */
     public List<DrRigDto> getByType(UUID tenantId, String rigType) {
         log.debug("Getting drilling rigs by type - tenant: {}, type: {}", tenantId, rigType);
-        return getAllByTenant(tenantId).stream()
-                .filter(rig -> rigType.equals(rig.getRigType()))
-                .collect(Collectors.toList());
+        return rigRegistry.getByType(tenantId, rigType);
     }
 
     /**
@@ -147,10 +117,9 @@ public class DrRigService {
      */
     public List<DrRigDto> getAvailableRigs(UUID tenantId) {
         log.debug("Getting available drilling rigs for tenant: {}", tenantId);
-        return getAllByTenant(tenantId).stream()
-                .filter(rig -> "STANDBY".equals(rig.getOperationalStatus()) ||
-                               "RIG_DOWN".equals(rig.getOperationalStatus()))
-                .collect(Collectors.toList());
+        List<DrRigDto> available = new ArrayList<>(rigRegistry.getByStatus(tenantId, "STANDBY"));
+        available.addAll(rigRegistry.getByStatus(tenantId, "RIG_DOWN"));
+        return available;
     }
 
     /**
@@ -162,10 +131,9 @@ public class DrRigService {
                 pageable.getPageNumber(), pageable.getPageSize());
 
         List<DrRigDto> dtos = assets.getContent().stream()
-                .map(asset -> {
-                    List<AttributeKvEntry> attributes = attributeService.getServerAttributes(asset.getId().getId());
-                    return DrRigDto.fromAssetAndAttributes(asset, attributes);
-                })
+                .map(asset -> rigRegistry.findById(tenantId, asset.getId().getId())
+                        .orElseGet(() -> DrRigDto.fromAssetAndAttributes(asset,
+                                attributeService.getServerAttributes(asset.getId().getId()))))
                 .collect(Collectors.toList());
 
         return new PageImpl<>(dtos, pageable, assets.getTotalElements());
@@ -255,6 +223,7 @@ public class DrRigService {
 
         // Save attributes
         attributeService.saveServerAttributes(assetId, dto.toAttributeMap());
+        rigRegistry.refresh(tenantId, assetId);
 
         log.info("Drilling rig created from template: {} with asset ID: {}", rigCode, assetId);
 
@@ -306,6 +275,7 @@ public class DrRigService {
 
         // Save attributes
         attributeService.saveServerAttributes(assetId, dto.toAttributeMap());
+        rigRegistry.refresh(tenantId, assetId);
 
         log.info("Drilling rig created: {}", assetId);
 
@@ -478,6 +448,7 @@ public class DrRigService {
         }
 
         assetService.deleteAsset(tenantId, assetId);
+        rigRegistry.evict(tenantId, assetId);
         log.info("Drilling rig deleted: {}", assetId);
     }
 
@@ -487,14 +458,14 @@ public class DrRigService {
      * Count rigs by status
      */
     public long countByStatus(UUID tenantId, String status) {
-        return getByStatus(tenantId, status).size();
+        return rigRegistry.countByStatus(tenantId, status);
     }
 
     /**
      * Count rigs by type
      */
     public long countByType(UUID tenantId, String rigType) {
-        return getByType(tenantId, rigType).size();
+        return rigRegistry.countByType(tenantId, rigType);
     }
 
     /**
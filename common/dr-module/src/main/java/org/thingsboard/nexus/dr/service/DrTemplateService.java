@@ -20,7 +20,10 @@ import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
 import org.thingsboard.nexus.dr.exception.DrBusinessException;
+import org.thingsboard.server.common.data.AttributeScope;
 import org.thingsboard.server.common.data.asset.Asset;
 import org.thingsboard.server.common.data.id.AssetId;
 import org.thingsboard.server.common.data.id.TenantId;
@@ -49,6 +52,7 @@ public class DrTemplateService {
     private final DrAttributeService attributeService;
     private final TemplateDefinitionDaoService templateDaoService;
     private final ObjectMapper objectMapper;
+    private final CompiledTemplateCache compiledTemplates = new CompiledTemplateCache();
 
     private static final String MODULE_CODE = "DR";
     private static final Pattern VARIABLE_PATTERN = Pattern.compile("\\{\\{([^}]+)\\}\\}");
@@ -203,7 +207,10 @@ public class DrTemplateService {
     }
 
     /**
-     * Instantiate a template to create digital twin assets
+     * Instantiate a template to create digital twin assets.
+     * Uses the cached compiled plan of the template version and writes the attributes
+     * and relations of the whole hierarchy in bulk. Attribute writes are not part of the
+     * transaction and are removed explicitly if it rolls back.
      */
     @Transactional
     public TemplateInstanceResult instantiateTemplate(
@@ -215,61 +222,63 @@ public class DrTemplateService {
         log.info("Instantiating drilling template {} for tenant {} with variables: {}",
                 templateId, tenantId, variables);
 
-        TemplateDefinitionDto template = getTemplateById(templateId);
-
-        TemplateStructure structure = template.getTemplateStructure();
-        if (structure == null || structure.getNodes() == null || structure.getNodes().isEmpty()) {
-            throw new DrBusinessException("Template has no structure defined: " + template.getTemplateName());
-        }
+        CompiledTemplate plan = getCompiledTemplate(templateId);
+        List<CompiledTemplate.Node> nodes = plan.getNodes();
 
         Map<String, UUID> nodeKeyToAssetIdMap = new LinkedHashMap<>();
-        List<UUID> createdAssetIds = new ArrayList<>();
-
-        // Find and create the root node first
-        TemplateNode rootNode = structure.getNodes().stream()
-                .filter(n -> Boolean.TRUE.equals(n.getIsRoot()))
-                .findFirst()
-                .orElseThrow(() -> new DrBusinessException("Template has no root node: " + template.getTemplateName()));
-
-        Asset rootAsset = createAssetFromTemplateNode(tenantId, rootNode, variables);
-        nodeKeyToAssetIdMap.put(rootNode.getNodeKey(), rootAsset.getId().getId());
-        createdAssetIds.add(rootAsset.getId().getId());
-
-        // Create all child nodes
-        List<TemplateNode> childNodes = structure.getNodes().stream()
-                .filter(n -> !Boolean.TRUE.equals(n.getIsRoot()))
-                .collect(Collectors.toList());
-
-        for (TemplateNode childNode : childNodes) {
-            Asset childAsset = createAssetFromTemplateNode(tenantId, childNode, variables);
-            nodeKeyToAssetIdMap.put(childNode.getNodeKey(), childAsset.getId().getId());
-            createdAssetIds.add(childAsset.getId().getId());
+        List<UUID> createdAssetIds = new ArrayList<>(nodes.size());
+        Map<UUID, Map<String, Object>> attributesByAsset = new LinkedHashMap<>();
+
+        // Create the root node first, then the child nodes
+        for (CompiledTemplate.Node node : nodes) {
+            String assetName = node.renderName(variables);
+
+            Asset asset = new Asset();
+            asset.setTenantId(tenantId);
+            asset.setName(assetName);
+            asset.setType(node.getAssetType());
+            asset.setLabel(assetName);
+
+            asset = assetService.saveAsset(asset);
+            log.debug("Created drilling asset: {} ({}) of type {}", asset.getName(), asset.getId(), node.getAssetType());
+
+            UUID assetId = asset.getId().getId();
+            nodeKeyToAssetIdMap.put(node.getNodeKey(), assetId);
+            createdAssetIds.add(assetId);
+            if (!node.getAttributes().isEmpty()) {
+                attributesByAsset.put(assetId, node.renderAttributes(variables));
+            }
         }
 
+        // Save attributes of all assets in one batch
+        removeAttributesOnRollback(attributesByAsset);
+        attributeService.saveServerAttributes(attributesByAsset);
+
         // Create relations between assets
-        if (structure.getRelations() != null) {
-            for (TemplateRelation rel : structure.getRelations()) {
-                UUID fromAssetId = nodeKeyToAssetIdMap.get(rel.getFromNodeKey());
-                UUID toAssetId = nodeKeyToAssetIdMap.get(rel.getToNodeKey());
-
-                if (fromAssetId != null && toAssetId != null) {
-                    createRelation(new AssetId(fromAssetId), new AssetId(toAssetId), rel.getRelationType());
-                } else {
-                    log.warn("Could not create relation {} -> {}: asset IDs not found",
-                            rel.getFromNodeKey(), rel.getToNodeKey());
-                }
-            }
+        List<EntityRelation> relations = new ArrayList<>(plan.getRelations().size());
+        for (CompiledTemplate.Relation rel : plan.getRelations()) {
+            relations.add(new EntityRelation(
+                    new AssetId(createdAssetIds.get(rel.getFromIndex())),
+                    new AssetId(createdAssetIds.get(rel.getToIndex())),
+                    rel.getRelationType(), RelationTypeGroup.COMMON));
+        }
+        if (!relations.isEmpty()) {
+            relationService.saveRelations(tenantId, relations);
+        }
+        for (String unresolved : plan.getUnresolvedRelations()) {
+            log.warn("Could not create relation {}: asset IDs not found", unresolved);
         }
 
         // Record the instance
+        UUID rootAssetId = createdAssetIds.get(0);
         UUID instanceId = null;
         try {
             String variablesJson = objectMapper.writeValueAsString(variables);
             TemplateInstanceDto instance = TemplateInstanceDto.builder()
                     .id(UUID.randomUUID())
                     .templateId(templateId)
-                    .templateVersion(template.getVersion())
-                    .rootAssetId(rootAsset.getId().getId())
+                    .templateVersion(plan.getVersion())
+                    .rootAssetId(rootAssetId)
                     .instanceVariables(variablesJson)
                     .createdBy(createdBy)
                     .tenantId(tenantId.getId())
@@ -282,87 +291,28 @@ public class DrTemplateService {
             log.error("Failed to record template instance: {}", e.getMessage(), e);
         }
 
-        log.info("Drilling template instantiated successfully: {} with {} assets created",
-                template.getTemplateName(), createdAssetIds.size());
+        log.info("Drilling template instantiated successfully: {} with {} assets and {} relations created",
+                plan.getTemplateName(), createdAssetIds.size(), relations.size());
 
         return TemplateInstanceResult.builder()
                 .instanceId(instanceId)
-                .rootAssetId(rootAsset.getId().getId())
+                .rootAssetId(rootAssetId)
                 .createdAssetIds(createdAssetIds)
                 .nodeKeyToAssetIdMap(nodeKeyToAssetIdMap)
                 .build();
     }
 
     /**
-     * Create an asset from a template node
-     */
-    private Asset createAssetFromTemplateNode(
-            TenantId tenantId,
-            TemplateNode node,
-            Map<String, Object> variables) {
-
-        String assetName = replaceVariables(node.getNodeName(), variables);
-        String assetType = node.getAssetType() != null ? node.getAssetType() : node.getNodeType();
-
-        Asset asset = new Asset();
-        asset.setTenantId(tenantId);
-        asset.setName(assetName);
-        asset.setType(assetType);
-        asset.setLabel(assetName);
-
-        asset = assetService.saveAsset(asset);
-        log.debug("Created drilling asset: {} ({}) of type {}", asset.getName(), asset.getId(), assetType);
-
-        // Save attributes from template
-        if (node.getAttributes() != null && !node.getAttributes().isEmpty()) {
-            Map<String, Object> processedAttributes = new HashMap<>();
-            for (TemplateAttribute attr : node.getAttributes()) {
-                Object value = attr.getValue();
-                if (value instanceof String) {
-                    value = replaceVariables((String) value, variables);
-                }
-                processedAttributes.put(attr.getKey(), value);
-            }
-            attributeService.saveServerAttributes(asset.getId().getId(), processedAttributes);
-        }
-
-        return asset;
-    }
-
-    /**
-     * Create a relation between two assets
-     */
-    private void createRelation(AssetId fromAssetId, AssetId toAssetId, String relationType) {
-        EntityRelation relation = new EntityRelation();
-        relation.setFrom(fromAssetId);
-        relation.setTo(toAssetId);
-        relation.setType(relationType);
-        relation.setTypeGroup(RelationTypeGroup.COMMON);
-
-        relationService.saveRelation(null, relation);
-        log.debug("Created relation: {} -[{}]-> {}", fromAssetId, relationType, toAssetId);
-    }
-
-    /**
-     * Replace template variables in a string
+     * Get the compiled plan of the template's current version, compiling it on first use
      */
-    private String replaceVariables(String template, Map<String, Object> variables) {
-        if (template == null) {
-            return null;
-        }
-
-        Matcher matcher = VARIABLE_PATTERN.matcher(template);
-        StringBuffer result = new StringBuffer();
-
-        while (matcher.find()) {
-            String varName = matcher.group(1);
-            Object value = variables.get(varName);
-            String replacement = value != null ? value.toString() : "";
-            matcher.appendReplacement(result, Matcher.quoteReplacement(replacement));
+    private CompiledTemplate getCompiledTemplate(UUID templateId) {
+        TemplateDefinitionDto template = templateDaoService.findById(templateId)
+                .orElseThrow(() -> new DrBusinessException("Template not found: " + templateId));
+        try {
+            return compiledTemplates.get(template, this::parseStructure);
+        } catch (IllegalArgumentException e) {
+            throw new DrBusinessException(e.getMessage());
         }
-        matcher.appendTail(result);
-
-        return result.toString();
     }
 
     /**
@@ -379,4 +329,39 @@ public class DrTemplateService {
         }
         return dto;
     }
+
+    private TemplateStructure parseStructure(String json) {
+        try {
+            return objectMapper.readValue(json, TemplateStructure.class);
+        } catch (Exception e) {
+            log.warn("Failed to deserialize template structure: {}", e.getMessage());
+            return null;
+        }
+    }
+
+    /**
+     * Assets and relations roll back with the instantiation transaction, but attribute writes run outside
+     * of it: if the transaction rolls back, the attributes written for the new assets are removed.
+     */
+    private void removeAttributesOnRollback(Map<UUID, Map<String, Object>> attributesByAsset) {
+        if (attributesByAsset.isEmpty() || !TransactionSynchronizationManager.isSynchronizationActive()) {
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCompletion(int status) {
+                if (status != STATUS_ROLLED_BACK) {
+                    return;
+                }
+                for (Map.Entry<UUID, Map<String, Object>> asset : attributesByAsset.entrySet()) {
+                    try {
+                        attributeService.deleteAttributes(asset.getKey(), AttributeScope.SERVER_SCOPE,
+                                new ArrayList<>(asset.getValue().keySet()));
+                    } catch (RuntimeException e) {
+                        log.warn("Failed to remove attributes of rolled back asset {}: {}", asset.getKey(), e.getMessage());
+                    }
+                }
+            }
+        });
+    }
 }
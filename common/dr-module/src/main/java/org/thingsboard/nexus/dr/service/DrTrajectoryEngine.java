@@ -0,0 +1,207 @@
+/**
+ * Copyright © 2016-2026 The Thingsboard Authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.thingsboard.nexus.dr.service;
+
+import java.util.Arrays;
+import java.util.UUID;
+
+/**
+ * Primitive-double Minimum Curvature recomputation over a columnar run trajectory.
+ *
+ * Stations are held in parallel arrays ordered by MD. Recomputing from a station only touches
+ * that station and the ones below it; each result is rounded to the persisted scale before the
+ * next station is chained to it, so a partial recomputation reproduces a full one exactly and
+ * unchanged stations can be skipped on write.
+ */
+public final class DrTrajectoryEngine {
+
+    private DrTrajectoryEngine() {
+    }
+
+    /**
+     * Columnar trajectory. Null stored values are represented as {@code NaN}.
+     */
+    public static final class Stations {
+        public UUID[] ids;
+        public double[] md;
+        public double[] inc;
+        public double[] az;
+        public double[] tvd;
+        public double[] north;
+        public double[] east;
+        public double[] verticalSection;
+        public double[] dls;
+        public double[] closureDistance;
+        public double[] closureAzimuth;
+        public boolean[] changed;
+        public int size;
+
+        public Stations(int capacity) {
+            int c = Math.max(capacity, 16);
+            ids = new UUID[c];
+            md = new double[c];
+            inc = new double[c];
+            az = new double[c];
+            tvd = new double[c];
+            north = new double[c];
+            east = new double[c];
+            verticalSection = new double[c];
+            dls = new double[c];
+            closureDistance = new double[c];
+            closureAzimuth = new double[c];
+            changed = new boolean[c];
+        }
+
+        /**
+         * Appends a station with its stored values and returns its index.
+         */
+        public int add(UUID id, double mdFt, double incDeg, double azDeg, double tvdFt, double northFt, double eastFt,
+                       double verticalSectionFt, double dlsDegPer100ft, double closureDistanceFt, double closureAzimuthDeg) {
+            if (size == md.length) {
+                grow(size * 2);
+            }
+            int i = size++;
+            ids[i] = id;
+            md[i] = mdFt;
+            inc[i] = incDeg;
+            az[i] = azDeg;
+            tvd[i] = tvdFt;
+            north[i] = northFt;
+            east[i] = eastFt;
+            verticalSection[i] = verticalSectionFt;
+            dls[i] = dlsDegPer100ft;
+            closureDistance[i] = closureDistanceFt;
+            closureAzimuth[i] = closureAzimuthDeg;
+            return i;
+        }
+
+        private void grow(int capacity) {
+            ids = Arrays.copyOf(ids, capacity);
+            md = Arrays.copyOf(md, capacity);
+            inc = Arrays.copyOf(inc, capacity);
+            az = Arrays.copyOf(az, capacity);
+            tvd = Arrays.copyOf(tvd, capacity);
+            north = Arrays.copyOf(north, capacity);
+            east = Arrays.copyOf(east, capacity);
+            verticalSection = Arrays.copyOf(verticalSection, capacity);
+            dls = Arrays.copyOf(dls, capacity);
+            closureDistance = Arrays.copyOf(closureDistance, capacity);
+            closureAzimuth = Arrays.copyOf(closureAzimuth, capacity);
+            changed = Arrays.copyOf(changed, capacity);
+        }
+    }
+
+    /**
+     * Recomputes stations {@code from..size-1}, chaining to station {@code from - 1}
+     * (station 0 is treated as the first survey of the run when {@code from == 0}).
+     *
+     * @return number of stations whose calculated values changed
+     */
+    public static int recompute(Stations s, int from) {
+        int changedCount = 0;
+        for (int j = Math.max(from, 0); j < s.size; j++) {
+            double inc2 = Double.isNaN(s.inc[j]) ? 0 : s.inc[j];
+            double azi2 = Double.isNaN(s.az[j]) ? 0 : s.az[j];
+            double tvd;
+            double north;
+            double east;
+            double dls;
+
+            if (j == 0) {
+                // First survey (kickoff point or surface)
+                if (inc2 == 0) {
+                    tvd = s.md[0];
+                    north = 0;
+                    east = 0;
+                } else {
+                    double incRad = Math.toRadians(inc2);
+                    double azRad = Math.toRadians(azi2);
+                    double hd = s.md[0] * Math.sin(incRad);
+                    tvd = round2(s.md[0] * Math.cos(incRad));
+                    north = round2(hd * Math.cos(azRad));
+                    east = round2(hd * Math.sin(azRad));
+                }
+                dls = 0;
+            } else {
+                int p = j - 1;
+                double md1 = s.md[p];
+                double inc1Rad = Math.toRadians(Double.isNaN(s.inc[p]) ? 0 : s.inc[p]);
+                double azi1Rad = Math.toRadians(Double.isNaN(s.az[p]) ? 0 : s.az[p]);
+                double tvd1 = Double.isNaN(s.tvd[p]) ? md1 : s.tvd[p];
+                double north1 = Double.isNaN(s.north[p]) ? 0 : s.north[p];
+                double east1 = Double.isNaN(s.east[p]) ? 0 : s.east[p];
+                double inc2Rad = Math.toRadians(inc2);
+                double azi2Rad = Math.toRadians(azi2);
+
+                double courseLength = s.md[j] - md1;
+                double sinInc1 = Math.sin(inc1Rad);
+                double sinInc2 = Math.sin(inc2Rad);
+
+                double cosD = Math.cos(inc2Rad - inc1Rad) - sinInc1 * sinInc2 * (1 - Math.cos(azi2Rad - azi1Rad));
+                double dogleg = Math.acos(Math.max(-1, Math.min(1, cosD)));
+                double rf = dogleg < 0.0001 ? 1.0 : 2.0 / dogleg * Math.tan(dogleg / 2.0);
+                double half = courseLength / 2.0 * rf;
+
+                tvd = round2(tvd1 + half * (Math.cos(inc1Rad) + Math.cos(inc2Rad)));
+                north = round2(north1 + half * (sinInc1 * Math.cos(azi1Rad) + sinInc2 * Math.cos(azi2Rad)));
+                east = round2(east1 + half * (sinInc1 * Math.sin(azi1Rad) + sinInc2 * Math.sin(azi2Rad)));
+                dls = courseLength > 0 ? round3(Math.toDegrees(dogleg) * 100.0 / courseLength) : 0;
+            }
+
+            // Closure; vertical section uses the closure azimuth
+            double closureRaw = Math.sqrt(north * north + east * east);
+            double closure = round2(closureRaw);
+            double closureAz = 0;
+            if (closureRaw > 0.001) {
+                closureAz = Math.toDegrees(Math.atan2(east, north));
+                if (closureAz < 0) {
+                    closureAz += 360;
+                }
+                closureAz = round3(closureAz);
+            }
+
+            boolean changed = !(s.tvd[j] == tvd && s.north[j] == north && s.east[j] == east && s.dls[j] == dls
+                    && s.closureDistance[j] == closure && s.closureAzimuth[j] == closureAz
+                    && s.verticalSection[j] == closure);
+            s.changed[j] = changed;
+            if (changed) {
+                changedCount++;
+                s.tvd[j] = tvd;
+                s.north[j] = north;
+                s.east[j] = east;
+                s.dls[j] = dls;
+                s.closureDistance[j] = closure;
+                s.closureAzimuth[j] = closureAz;
+                s.verticalSection[j] = closure;
+            }
+        }
+        return changedCount;
+    }
+
+    /**
+     * HALF_UP rounding to 2 decimals (ft columns).
+     */
+    static double round2(double v) {
+        return Math.signum(v) * Math.floor(Math.abs(v) * 100.0 + 0.5) / 100.0;
+    }
+
+    /**
+     * HALF_UP rounding to 3 decimals (degree columns).
+     */
+    static double round3(double v) {
+        return Math.signum(v) * Math.floor(Math.abs(v) * 1000.0 + 0.5) / 1000.0;
+    }
+}
@@ -0,0 +1,149 @@
+/**
+ * Copyright © 2016-2026 The Thingsboard Authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.thingsboard.nexus.dr.ingest;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for the WITS0 and WITSML decoders.
+ * Tests frame reassembly across chunks, timestamps, channel mapping and null handling.
+ */
+@DisplayName("DrWitsDecoder Unit Tests")
+class DrWitsDecoderTest {
+
+    private static final String FRAME =
+            "&&\r\n0105261019\r\n0106103000\r\n01088000.5\r\n0114210.3\r\n0199123\r\n!!\r\n";
+
+    private static int channel(DrChannelBatch batch, String name) {
+        for (int c = 0; c < batch.getChannelCount(); c++) {
+            if (name.equals(batch.getChannel(c))) {
+                return c;
+            }
+        }
+        return -1;
+    }
+
+    @Test
+    @DisplayName("WITS0: Frame completo con fecha/hora del registro")
+    void testCompleteFrame() {
+        DrWitsDecoder decoder = DrWitsDecoder.withDefaults(null);
+        DrChannelBatch batch = decoder.decode(FRAME, 0L);
+
+        assertEquals(1, batch.getRowCount());
+        assertEquals(DrWitsDecoder.toEpochMillis(261019, 103000), batch.getTs(0));
+        assertEquals(8000.5, batch.getValue(0, channel(batch, "bitDepth")), 1e-9);
+        assertEquals(210.3, batch.getValue(0, channel(batch, "hookLoad")), 1e-9);
+        assertTrue(Double.isNaN(batch.getValue(0, channel(batch, "rpm"))));
+        assertEquals(2, batch.getPointCount());
+        assertEquals(1, decoder.getIgnoredItems());
+    }
+
+    @Test
+    @DisplayName("WITS0: Frame partido entre chunks")
+    void testFrameSplitAcrossChunks() {
+        DrWitsDecoder decoder = DrWitsDecoder.withDefaults(Map.of("0199", "custom"));
+        int cut = FRAME.indexOf("8000") + 2;
+
+        DrChannelBatch first = decoder.decode(FRAME.substring(0, cut), 0L);
+        DrChannelBatch second = decoder.decode(FRAME.substring(cut) + FRAME, 0L);
+
+        assertEquals(0, first.getRowCount());
+        assertEquals(2, second.getRowCount());
+        assertEquals(8000.5, second.getValue(0, channel(second, "bitDepth")), 1e-9);
+        assertEquals(123.0, second.getValue(0, channel(second, "custom")), 1e-9);
+        // Same record second: the second frame is shifted so ts_kv keeps both
+        assertEquals(second.getTs(0) + 1, second.getTs(1));
+        assertEquals(0, decoder.getIgnoredItems());
+    }
+
+    @Test
+    @DisplayName("WITS0: Simulador decodificado sin pérdidas")
+    void testSimulatorRoundTrip() {
+        String stream = new DrWitsSimulator(8000.0, 42L).frames(1_760_000_000_000L, 300, 1000L);
+        DrChannelBatch batch = DrWitsDecoder.withDefaults(null).decode(stream, 0L);
+
+        assertEquals(300, batch.getRowCount());
+        assertEquals(300 * DrWitsDecoder.DEFAULT_CHANNELS.size(), batch.getPointCount());
+        assertEquals(1_760_000_000_000L, batch.getTs(0));
+        assertEquals(1_760_000_299_000L, batch.getTs(299));
+        int depth = channel(batch, "bitDepth");
+        assertTrue(batch.getValue(299, depth) > batch.getValue(0, depth));
+    }
+
+    @Test
+    @DisplayName("WITSML: Log indexado por tiempo con mnemónicos y valores nulos")
+    void testWitsmlTimeLog() {
+        String xml = "<logs xmlns=\"http://www.witsml.org/schemas/1series\" version=\"1.4.1.1\"><log>"
+                + "<nullValue>-999.25</nullValue>"
+                + "<logCurveInfo><mnemonic>TIME</mnemonic></logCurveInfo>"
+                + "<logCurveInfo><mnemonic>DBTM</mnemonic></logCurveInfo>"
+                + "<logCurveInfo><mnemonic>SPPA</mnemonic></logCurveInfo>"
+                + "<logCurveInfo><mnemonic>XYZ</mnemonic></logCurveInfo>"
+                + "<logData><mnemonicList>TIME,DBTM,SPPA,XYZ</mnemonicList>"
+                + "<data>2026-10-19T10:00:00.000Z,8000.0,3100,1</data>"
+                + "<data>2026-10-19T10:00:01.000Z,8000.1,-999.25,</data>"
+                + "</logData></log></logs>";
+
+        List<DrChannelBatch> batches = DrWitsmlLogDecoder.withDefaults(null).decode(xml);
+
+        assertEquals(1, batches.size());
+        DrChannelBatch batch = batches.get(0);
+        assertEquals(2, batch.getRowCount());
+        assertEquals(batch.getTs(0) + 1000L, batch.getTs(1));
+        assertEquals(8000.1, batch.getValue(1, channel(batch, "bitDepth")), 1e-9);
+        assertEquals(3100.0, batch.getValue(0, channel(batch, "spp")), 1e-9);
+        assertTrue(Double.isNaN(batch.getValue(1, channel(batch, "spp"))));
+        assertEquals(1.0, batch.getValue(0, channel(batch, "XYZ")), 1e-9);
+        assertEquals(4, batch.getPointCount());
+    }
+
+    @Test
+    @DisplayName("WITSML: Log indexado por profundidad toma la hora de su curva de tiempo")
+    void testWitsmlDepthLogUsesTimeCurve() {
+        String xml = "<logs><log>"
+                + "<logData><mnemonicList>DMEA,ROPA,TIME</mnemonicList>"
+                + "<data>8000.0,55.5,2026-10-19T10:00:00.000Z</data>"
+                + "<data>8000.5,60.0,</data>"
+                + "<data>8001.0,58.0,2026-10-19T10:00:40.000Z</data>"
+                + "</logData></log></logs>";
+
+        DrChannelBatch batch = DrWitsmlLogDecoder.withDefaults(null).decode(xml).get(0);
+
+        assertEquals(2, batch.getRowCount());
+        assertEquals(1, batch.getSkippedRows());
+        assertEquals(batch.getTs(0) + 40_000L, batch.getTs(1));
+        assertEquals(8001.0, batch.getValue(1, channel(batch, "holeDepth")), 1e-9);
+        assertEquals(58.0, batch.getValue(1, channel(batch, "rop")), 1e-9);
+        assertEquals(4, batch.getPointCount());
+    }
+
+    @Test
+    @DisplayName("WITSML: Log indexado por profundidad sin curva de tiempo es rechazado")
+    void testWitsmlDepthLogWithoutTimeCurve() {
+        String xml = "<logs><log>"
+                + "<logData><mnemonicList>DMEA,ROPA</mnemonicList>"
+                + "<data>8000.0,55.5</data>"
+                + "</logData></log></logs>";
+
+        assertThrows(IllegalArgumentException.class, () -> DrWitsmlLogDecoder.withDefaults(null).decode(xml));
+    }
+}
@@ -0,0 +1,159 @@
+/**
+ * Copyright © 2016-2026 The Thingsboard Authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.thingsboard.nexus.dr.service;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.thingsboard.nexus.dr.config.DrModuleConfiguration;
+import org.thingsboard.nexus.dr.dto.kpi.RigStateTransitionDto;
+import org.thingsboard.nexus.dr.model.DrActivityKpi;
+import org.thingsboard.nexus.dr.model.enums.RigActivityState;
+import org.thingsboard.nexus.dr.repository.DrActivityKpiRepository;
+import org.thingsboard.nexus.dr.repository.DrRunRepository;
+
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyIterable;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verifyNoInteractions;
+import static org.mockito.Mockito.when;
+
+/**
+ * Unit tests for DrActivityKpiEngine.
+ * Feeds a shift of rig state transitions and checks connections, NPT and trip speed of the
+ * rig, run and well aggregates, and the snapshot round-trip through the repository.
+ */
+@DisplayName("DrActivityKpiEngine Unit Tests")
+class DrActivityKpiEngineTest {
+
+    private static final long MINUTE_MS = 60_000L;
+    private static final long T0 = 1_700_000_000_000L;
+
+    private final UUID rigId = UUID.randomUUID();
+    private final UUID runId = UUID.randomUUID();
+    private final UUID wellId = UUID.randomUUID();
+    private final Map<UUID, DrActivityKpi> snapshots = new ConcurrentHashMap<>();
+    private final DrModuleConfiguration config = new DrModuleConfiguration();
+
+    private DrRunRepository runRepository;
+    private DrActivityKpiRepository kpiRepository;
+
+    @BeforeEach
+    void setUp() {
+        runRepository = mock(DrRunRepository.class);
+        kpiRepository = mock(DrActivityKpiRepository.class);
+        when(kpiRepository.saveAll(anyIterable())).thenAnswer(invocation -> {
+            for (DrActivityKpi kpi : invocation.<Iterable<DrActivityKpi>>getArgument(0)) {
+                snapshots.put(kpi.getScopeId(), kpi);
+            }
+            return null;
+        });
+        when(kpiRepository.findById(any())).thenAnswer(invocation ->
+                Optional.ofNullable(snapshots.get(invocation.<UUID>getArgument(0))));
+    }
+
+    /**
+     * Four drilling stands with two counted connections, one connection over the
+     * {@code kpiMaxConnectionMinutes} limit, a static interval above and one below the NPT
+     * threshold, and a trip out followed by a trip in.
+     */
+    private void feedShift(DrActivityKpiEngine engine) {
+        transition(engine, 0, RigActivityState.DRILLING_ROTATING, 7_640.0);
+        // Connection 1: off bottom at 30, slips 32..37, back drilling at 37
+        transition(engine, 30, RigActivityState.CIRCULATING, 7_730.0);
+        transition(engine, 32, RigActivityState.IN_SLIPS, 7_730.0);
+        transition(engine, 37, RigActivityState.DRILLING_ROTATING, 7_730.0);
+        // Connection 2: slips 67..70
+        transition(engine, 67, RigActivityState.IN_SLIPS, 7_820.0);
+        transition(engine, 70, RigActivityState.DRILLING_ROTATING, 7_820.0);
+        // 90 min in the slips: not a connection
+        transition(engine, 100, RigActivityState.IN_SLIPS, 7_910.0);
+        transition(engine, 190, RigActivityState.DRILLING_ROTATING, 7_910.0);
+        // 45 min static is NPT, 10 min is not
+        transition(engine, 220, RigActivityState.STATIC, 8_000.0);
+        transition(engine, 265, RigActivityState.CIRCULATING, 8_000.0);
+        transition(engine, 270, RigActivityState.STATIC, 8_000.0);
+        // Trip out 8000 -> 2000 ft in one hour (6000 ft/hr), trip in 2000 -> 5000 ft in one hour (3000 ft/hr)
+        transition(engine, 280, RigActivityState.TRIPPING_OUT, 8_000.0);
+        transition(engine, 340, RigActivityState.STATIC, 2_000.0);
+        transition(engine, 346, RigActivityState.TRIPPING_IN, 2_000.0);
+        transition(engine, 406, RigActivityState.STATIC, 5_000.0);
+    }
+
+    @Test
+    @DisplayName("Turno completo: conexiones, NPT y velocidad de viaje en los agregados de rig, run y pozo")
+    void testStateTransitionsFoldIntoAggregates() {
+        DrActivityKpiEngine engine = new DrActivityKpiEngine(runRepository, kpiRepository, config);
+
+        feedShift(engine);
+
+        for (DrActivityKpiEngine.ActivityAggregate aggregate : List.of(engine.getRigAggregate(rigId),
+                engine.getRunAggregate(runId), engine.getWellAggregate(wellId))) {
+            aggregate.readConnections((weightToWeight, slipsToSlips) -> {
+                assertEquals(2, weightToWeight.getCount());
+                assertEquals(3.0, weightToWeight.getMin(), 1e-9);
+                assertEquals(5.0, weightToWeight.getMean(), 1e-9);
+                assertEquals(2, slipsToSlips.getCount());
+                assertEquals(3.0, slipsToSlips.getMin(), 1e-9);
+                assertEquals(4.0, slipsToSlips.getMean(), 1e-9);
+                return null;
+            });
+            assertEquals(1, aggregate.getNptEvents());
+            assertEquals(0.75, aggregate.getNptHours(), 1e-9);
+            assertEquals(2.0, aggregate.getStateHours(RigActivityState.DRILLING_ROTATING), 1e-9);
+            assertEquals(61.0 / 60.0, aggregate.getStateHours(RigActivityState.STATIC), 1e-9);
+            assertEquals(6_000.0, aggregate.getAvgTripOutSpeedFtHr(), 1e-9);
+            assertEquals(3_000.0, aggregate.getAvgTripInSpeedFtHr(), 1e-9);
+            assertEquals(4_500.0, aggregate.getAvgTripSpeedFtHr(), 1e-9);
+        }
+        verifyNoInteractions(runRepository);
+    }
+
+    @Test
+    @DisplayName("Snapshot: tras flush, una lectura en frío devuelve el mismo agregado")
+    void testFlushThenFreshReadRoundTrips() {
+        DrActivityKpiEngine engine = new DrActivityKpiEngine(runRepository, kpiRepository, config);
+        feedShift(engine);
+
+        assertEquals(3, engine.flush());
+        assertEquals(0, engine.flush());
+        assertEquals(DrActivityKpi.SCOPE_RUN, snapshots.get(runId).getScopeType());
+
+        // Another server (or this one after eviction) reads the aggregates from the snapshot only
+        DrActivityKpiEngine reader = new DrActivityKpiEngine(runRepository, kpiRepository, config);
+        assertEquals(engine.getRigAggregate(rigId).toJson(), reader.getRigAggregate(rigId).toJson());
+        assertEquals(engine.getRunAggregate(runId).toJson(), reader.getRunAggregate(runId).toJson());
+        assertEquals(engine.getWellAggregate(wellId).toJson(), reader.getWellAggregate(wellId).toJson());
+        assertEquals(4_500.0, reader.getWellAggregate(wellId).getAvgTripSpeedFtHr(), 1e-9);
+    }
+
+    private void transition(DrActivityKpiEngine engine, long minute, RigActivityState state, double bitDepth) {
+        engine.onStateTransition(rigId, RigStateTransitionDto.builder()
+                .runId(runId)
+                .wellId(wellId)
+                .rigState(state.name())
+                .stateChangeTime(T0 + minute * MINUTE_MS)
+                .bitDepth(bitDepth)
+                .build());
+    }
+}
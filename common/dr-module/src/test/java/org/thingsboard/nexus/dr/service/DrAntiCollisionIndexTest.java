@@ -0,0 +1,126 @@
+/**
+ * Copyright © 2016-2026 The Thingsboard Authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.thingsboard.nexus.dr.service;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for DrAntiCollisionIndex.
+ * Tests closest approach, separation factor and incremental station updates.
+ */
+@DisplayName("DrAntiCollisionIndex Unit Tests")
+class DrAntiCollisionIndexTest {
+
+    private static final UUID WELL_A = UUID.randomUUID();
+    private static final UUID WELL_B = UUID.randomUUID();
+    private static final UUID WELL_C = UUID.randomUUID();
+
+    /**
+     * Vertical well to {@code td} with one station every 100 ft and a fixed uncertainty radius.
+     */
+    private static void putVertical(DrAntiCollisionIndex index, UUID wellId, double surfaceNorth, double surfaceEast,
+                                    double td, double radius) {
+        int n = (int) (td / 100) + 1;
+        double[] md = new double[n];
+        double[] zero = new double[n];
+        double[] r = new double[n];
+        for (int i = 0; i < n; i++) {
+            md[i] = i * 100.0;
+            r[i] = radius;
+        }
+        index.putWell(wellId, surfaceNorth, surfaceEast, md, md, zero, zero, r, n);
+    }
+
+    @Test
+    @DisplayName("Proximidad: Pozos verticales paralelos a 50 ft")
+    void testClosestApproach_ParallelVerticalWells() {
+        DrAntiCollisionIndex index = new DrAntiCollisionIndex(200);
+        putVertical(index, WELL_A, 0, 0, 5000, 10);
+        putVertical(index, WELL_B, 30, 40, 5000, 10);
+
+        List<DrAntiCollisionIndex.Offset> offsets = index.closestApproach(WELL_A, 0, 1000);
+
+        assertEquals(1, offsets.size());
+        assertEquals(WELL_B, offsets.get(0).wellId);
+        assertEquals(50.0, offsets.get(0).distanceFt, 1e-9);
+        assertEquals(2.5, offsets.get(0).separationFactor, 1e-9);
+    }
+
+    @Test
+    @DisplayName("Proximidad: Pozos fuera del radio de búsqueda no se reportan")
+    void testClosestApproach_OutOfRange() {
+        DrAntiCollisionIndex index = new DrAntiCollisionIndex(200);
+        putVertical(index, WELL_A, 0, 0, 5000, 10);
+        putVertical(index, WELL_B, 30, 40, 5000, 10);
+        putVertical(index, WELL_C, 3000, 0, 5000, 10);
+
+        List<DrAntiCollisionIndex.Offset> offsets = index.closestApproach(WELL_A, 0, 1000);
+
+        assertEquals(1, offsets.size());
+        assertEquals(WELL_B, offsets.get(0).wellId);
+    }
+
+    @Test
+    @DisplayName("Incremental: Nueva estación desviada hacia el pozo vecino reduce la separación")
+    void testPutStation_AppendTowardsOffset() {
+        DrAntiCollisionIndex index = new DrAntiCollisionIndex(200);
+        putVertical(index, WELL_A, 0, 0, 2000, 10);
+        putVertical(index, WELL_B, 100, 0, 5000, 10);
+
+        assertTrue(index.putStation(WELL_A, 2100, 2099, 80, 0, 10));
+        List<DrAntiCollisionIndex.Offset> offsets = index.closestApproach(WELL_A, Double.MAX_VALUE, 1000);
+
+        assertEquals(1, offsets.size());
+        assertEquals(20.0, offsets.get(0).distanceFt, 1e-6);
+        assertEquals(2100.0, offsets.get(0).referenceMdFt, 1e-9);
+        assertEquals(1.0, offsets.get(0).separationFactor, 1e-6);
+        assertFalse(index.putStation(UUID.randomUUID(), 100, 100, 0, 0, 1));
+    }
+
+    @Test
+    @DisplayName("Incremental: Corrección de una estación reemplaza sus segmentos")
+    void testPutStation_CorrectionReindexes() {
+        DrAntiCollisionIndex index = new DrAntiCollisionIndex(200);
+        putVertical(index, WELL_A, 0, 0, 5000, 10);
+        putVertical(index, WELL_B, 500, 0, 5000, 10);
+
+        // Bad station pointing at the offset, then corrected back onto the vertical
+        index.putStation(WELL_A, 2500, 2500, 490, 0, 10);
+        assertEquals(10.0, index.closestApproach(WELL_B, 0, 1000).get(0).distanceFt, 1e-6);
+
+        index.putStation(WELL_A, 2500, 2500, 0, 0, 10);
+        assertEquals(500.0, index.closestApproach(WELL_B, 0, 1000).get(0).distanceFt, 1e-6);
+    }
+
+    @Test
+    @DisplayName("Índice: Pozo eliminado deja de aparecer como vecino")
+    void testRemoveWell() {
+        DrAntiCollisionIndex index = new DrAntiCollisionIndex(200);
+        putVertical(index, WELL_A, 0, 0, 5000, 10);
+        putVertical(index, WELL_B, 30, 40, 5000, 10);
+
+        index.removeWell(WELL_B);
+
+        assertTrue(index.closestApproach(WELL_A, 0, 1000).isEmpty());
+        assertFalse(index.containsWell(WELL_B));
+    }
+}
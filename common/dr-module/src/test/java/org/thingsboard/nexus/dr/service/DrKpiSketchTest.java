@@ -0,0 +1,141 @@
+/**
+ * Copyright © 2016-2026 The Thingsboard Authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.thingsboard.nexus.dr.service;
+
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for DrKpiSketch.
+ * Tests counts, percentiles and the JSON snapshot used to persist activity aggregates.
+ */
+@DisplayName("DrKpiSketch Unit Tests")
+class DrKpiSketchTest {
+
+    @Test
+    @DisplayName("Conteo: Incluye el bin del valor consultado")
+    void testCountAtOrBelow_IncludesValueBin() {
+        // Given - all values share bin [0, 5)
+        DrKpiSketch sketch = new DrKpiSketch(10.0, 2);
+        sketch.add(1.0);
+        sketch.add(2.0);
+        sketch.add(3.0);
+        sketch.add(4.0);
+
+        // When / Then
+        assertEquals(2, sketch.countAtOrBelow(2.5));
+        assertEquals(4, sketch.countAtOrBelow(4.5));
+    }
+
+    @Test
+    @DisplayName("Conteo: Fuera del rango observado")
+    void testCountAtOrBelow_OutsideObservedRange() {
+        // Given
+        DrKpiSketch sketch = new DrKpiSketch(120.0, 480);
+        for (int i = 1; i <= 10; i++) {
+            sketch.add(i * 3.0);
+        }
+
+        // When / Then
+        assertEquals(0, sketch.countAtOrBelow(2.9));
+        assertEquals(10, sketch.countAtOrBelow(30.0));
+        assertEquals(10, sketch.countAtOrBelow(500.0));
+        assertEquals(0, new DrKpiSketch(120.0, 480).countAtOrBelow(10.0));
+    }
+
+    @Test
+    @DisplayName("Conteo: Bin de desborde llega hasta el máximo observado")
+    void testCountAtOrBelow_OverflowBin() {
+        // Given - 200 and 300 both land in the overflow bin
+        DrKpiSketch sketch = new DrKpiSketch(120.0, 480);
+        sketch.add(10.0);
+        sketch.add(200.0);
+        sketch.add(300.0);
+
+        // When / Then
+        assertEquals(2, sketch.countAtOrBelow(250.0));
+    }
+
+    @Test
+    @DisplayName("Percentiles: Distribución uniforme")
+    void testPercentile_Uniform() {
+        // Given
+        DrKpiSketch sketch = new DrKpiSketch(200.0, 200);
+        for (int i = 1; i <= 100; i++) {
+            sketch.add(i);
+        }
+
+        // When / Then
+        assertEquals(50.0, sketch.getPercentile(50), 1.5);
+        assertEquals(90.0, sketch.getPercentile(90), 1.5);
+        assertEquals(1.0, sketch.getPercentile(0), 1e-9);
+        assertEquals(100.0, sketch.getPercentile(100), 1e-9);
+        assertTrue(Double.isNaN(new DrKpiSketch(200.0, 200).getPercentile(50)));
+    }
+
+    @Test
+    @DisplayName("Snapshot: Ida y vuelta por JSON conserva el estado")
+    void testJson_RoundTrip() {
+        // Given
+        DrKpiSketch sketch = new DrKpiSketch(120.0, 480);
+        for (int i = 0; i < 50; i++) {
+            sketch.add(2.0 + (i % 7) * 1.5);
+        }
+        sketch.add(150.0);
+
+        // When
+        ObjectNode json = sketch.toJson();
+        DrKpiSketch restored = new DrKpiSketch(120.0, 480);
+        restored.add(99.0);
+        restored.readJson(json);
+
+        // Then
+        assertEquals(sketch.getCount(), restored.getCount());
+        assertEquals(sketch.getSum(), restored.getSum(), 1e-9);
+        assertEquals(sketch.getStdDev(), restored.getStdDev(), 1e-9);
+        assertEquals(sketch.getMin(), restored.getMin(), 1e-9);
+        assertEquals(sketch.getMax(), restored.getMax(), 1e-9);
+        assertEquals(sketch.getPercentile(75), restored.getPercentile(75), 1e-9);
+        assertEquals(sketch.countAtOrBelow(8.0), restored.countAtOrBelow(8.0));
+    }
+
+    @Test
+    @DisplayName("Snapshot: Sketch vacío y snapshot ausente")
+    void testJson_EmptyAndMissing() {
+        // Given
+        DrKpiSketch restored = new DrKpiSketch(120.0, 480);
+        restored.add(5.0);
+
+        // When
+        restored.readJson(new DrKpiSketch(120.0, 480).toJson());
+
+        // Then
+        assertEquals(0, restored.getCount());
+        assertTrue(Double.isNaN(restored.getMin()));
+
+        // When - an older snapshot without this sketch
+        restored.add(5.0);
+        restored.readJson(null);
+
+        // Then
+        assertEquals(0, restored.getCount());
+        restored.add(7.0);
+        assertEquals(7.0, restored.getMin(), 1e-9);
+    }
+}
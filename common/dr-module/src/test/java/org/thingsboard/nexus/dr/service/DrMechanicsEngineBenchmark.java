@@ -0,0 +1,81 @@
+/**
+ * Copyright © 2016-2026 The Thingsboard Authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.thingsboard.nexus.dr.service;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * JMH benchmark of one soft-string torque and drag evaluation at sensor rate, on the well used by
+ * DrMechanicsEngineTest. Not run by surefire; run {@link #main} from the IDE or
+ * {@code java -cp <test classpath> org.openjdk.jmh.Main DrMechanicsEngineBenchmark}.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class DrMechanicsEngineBenchmark {
+
+    private static final double WEIGHT = 19.5 * DrMechanicsEngine.buoyancyFactor(10.0);
+    private static final double MU = 0.25;
+    private static final double RADIUS = 5.0 / 24.0;
+
+    @Param({"100", "1000"})
+    public int stations;
+
+    private DrMechanicsEngine.Survey well;
+    private final double[] out = new double[5];
+    private double bitDepth;
+    private int sample;
+
+    @Setup
+    public void setUp() {
+        well = DrMechanicsEngineTest.buildWell(stations);
+        bitDepth = 100.0 * stations - 500;
+    }
+
+    /**
+     * Rotating hook load and torque at a bit depth that moves within the last 500 ft, as successive samples do.
+     */
+    @Benchmark
+    public double rotatingTorqueDrag() {
+        DrMechanicsEngine.softStringTorqueDrag(well, bitDepth + (sample++ % 500), WEIGHT, MU, RADIUS, -20_000,
+                DrMechanicsEngine.ROTATING, out);
+        return out[0];
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder()
+                .include(DrMechanicsEngineBenchmark.class.getSimpleName())
+                .build()).run();
+    }
+}
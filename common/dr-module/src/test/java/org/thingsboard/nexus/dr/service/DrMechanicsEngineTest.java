@@ -0,0 +1,131 @@
+/**
+ * Copyright © 2016-2026 The Thingsboard Authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.thingsboard.nexus.dr.service;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for DrMechanicsEngine.
+ * Checks the soft-string model against closed-form cases; throughput is measured by DrMechanicsEngineBenchmark.
+ */
+@DisplayName("DrMechanicsEngine Unit Tests")
+class DrMechanicsEngineTest {
+
+    private static final double WEIGHT = 19.5 * DrMechanicsEngine.buoyancyFactor(10.0);
+    private static final double MU = 0.25;
+    private static final double RADIUS = 5.0 / 24.0;
+
+    private final double[] out = new double[5];
+
+    /**
+     * Vertical to 2,000 ft, build at 3°/100 ft to 90° and a lateral, one station every 100 ft.
+     */
+    static DrMechanicsEngine.Survey buildWell(int count) {
+        double[] md = new double[count];
+        double[] inc = new double[count];
+        double[] az = new double[count];
+        for (int i = 0; i < count; i++) {
+            md[i] = 100.0 * (i + 1);
+            inc[i] = md[i] <= 2000 ? 0 : Math.min(90.0, (md[i] - 2000) * 0.03);
+            az[i] = 45.0;
+        }
+        return DrMechanicsEngine.Survey.compile(md, inc, az, count);
+    }
+
+    @Test
+    @DisplayName("MSE: Componentes rotacional y axial")
+    void testMse_Components() {
+        DrMechanicsEngine.mse(10_000, 120, 8.5, 60, 25_000, out);
+
+        assertEquals(480.0 * 10_000 * 120 / (8.5 * 8.5 * 60), out[1], 1e-6);
+        assertEquals(4.0 * 25_000 / (Math.PI * 8.5 * 8.5), out[2], 1e-6);
+        assertEquals(out[1] + out[2], out[0], 1e-9);
+    }
+
+    @Test
+    @DisplayName("T&D: Pozo vertical sin arrastre ni torque")
+    void testTorqueDrag_VerticalWell() {
+        DrMechanicsEngine.Survey survey = DrMechanicsEngine.Survey.compile(
+                new double[]{1000, 2000, 3000}, new double[3], new double[3], 3);
+
+        DrMechanicsEngine.softStringTorqueDrag(survey, 3000, WEIGHT, MU, RADIUS, 0,
+                DrMechanicsEngine.TRIPPING_OUT, out);
+
+        assertEquals(WEIGHT * 3000, out[0], 1e-6);
+        assertEquals(0.0, out[1], 1e-9);
+    }
+
+    @Test
+    @DisplayName("T&D: Tangente recta igual al modelo de inclinación promedio")
+    void testTorqueDrag_StraightTangentMatchesAverageInclination() {
+        DrMechanicsEngine.Survey survey = DrMechanicsEngine.Survey.compile(
+                new double[]{0, 5000}, new double[]{30, 30}, new double[]{90, 90}, 2);
+        double sin = Math.sin(Math.toRadians(30));
+        double cos = Math.cos(Math.toRadians(30));
+
+        DrMechanicsEngine.softStringTorqueDrag(survey, 5000, WEIGHT, MU, RADIUS, 0,
+                DrMechanicsEngine.ROTATING, out);
+        assertEquals(WEIGHT * 5000 * cos, out[0], 1e-6);
+        assertEquals(MU * WEIGHT * 5000 * sin * RADIUS, out[1], 1e-6);
+
+        DrMechanicsEngine.softStringTorqueDrag(survey, 5000, WEIGHT, MU, RADIUS, 0,
+                DrMechanicsEngine.TRIPPING_OUT, out);
+        assertEquals(WEIGHT * 5000 * (cos + MU * sin), out[0], 1e-6);
+
+        // Sliding moves the string down like tripping in, as in the average inclination fallback
+        DrMechanicsEngine.softStringTorqueDrag(survey, 5000, WEIGHT, MU, RADIUS, 0,
+                DrMechanicsEngine.SLIDING, out);
+        assertEquals(WEIGHT * 5000 * (cos - MU * sin), out[0], 1e-6);
+        assertEquals(0.0, out[1], 1e-9);
+    }
+
+    @Test
+    @DisplayName("T&D: Sección de construcción ordena sacada > rotando > metida")
+    void testTorqueDrag_BuildSectionOrdering() {
+        DrMechanicsEngine.Survey well = buildWell(100);
+        double bitDepth = 9_950;
+
+        DrMechanicsEngine.softStringTorqueDrag(well, bitDepth, WEIGHT, MU, RADIUS, 0,
+                DrMechanicsEngine.ROTATING, out);
+        double rotating = out[0];
+        assertTrue(out[1] > 0);
+        DrMechanicsEngine.softStringTorqueDrag(well, bitDepth, WEIGHT, MU, RADIUS, 0,
+                DrMechanicsEngine.TRIPPING_OUT, out);
+        double pickUp = out[0];
+        DrMechanicsEngine.softStringTorqueDrag(well, bitDepth, WEIGHT, MU, RADIUS, 0,
+                DrMechanicsEngine.TRIPPING_IN, out);
+        double slackOff = out[0];
+
+        assertTrue(pickUp > rotating);
+        assertTrue(rotating > slackOff);
+        // The lateral adds no axial weight, so rotating hook load is at most the vertical + build weight
+        assertTrue(rotating < WEIGHT * 5000);
+    }
+
+    @Test
+    @DisplayName("TVD: Interpolación lineal entre estaciones y vertical sobre la primera")
+    void testValueAtDepth() {
+        double[] md = {1000, 2000};
+        double[] tvd = {1000, 1900};
+
+        assertEquals(500, DrMechanicsEngine.valueAtDepth(md, tvd, 2, 500), 1e-9);
+        assertEquals(1450, DrMechanicsEngine.valueAtDepth(md, tvd, 2, 1500), 1e-9);
+        assertEquals(2350, DrMechanicsEngine.valueAtDepth(md, tvd, 2, 2500), 1e-9);
+    }
+}
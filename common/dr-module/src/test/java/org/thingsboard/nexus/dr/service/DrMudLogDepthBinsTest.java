@@ -0,0 +1,130 @@
+/**
+ * Copyright © 2016-2026 The Thingsboard Authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.thingsboard.nexus.dr.service;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.thingsboard.nexus.dr.model.enums.LithologyType;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for DrMudLogDepthBins.
+ * Tests incremental aggregation, roll-up to coarser bins and bin replacement.
+ */
+@DisplayName("DrMudLogDepthBins Unit Tests")
+class DrMudLogDepthBinsTest {
+
+    /**
+     * One sample per foot from 1,000 to 2,999 ft: ROP = 50 + (md mod 10), gas = md / 10,
+     * shale above 2,000 ft and sandstone below, an oil show every 100 ft.
+     */
+    private static DrMudLogDepthBins buildLog() {
+        DrMudLogDepthBins bins = new DrMudLogDepthBins(10.0);
+        for (int md = 1000; md < 3000; md++) {
+            bins.add(md, 50 + (md % 10), md / 10.0, 20.0,
+                    md < 2000 ? LithologyType.SHALE : LithologyType.SANDSTONE, md % 100 == 0);
+        }
+        return bins;
+    }
+
+    @Test
+    @DisplayName("Bins: Estadísticas de un bin base")
+    void testBaseBinStatistics() {
+        DrMudLogDepthBins bins = buildLog();
+
+        List<DrMudLogDepthBins.Bin> result = bins.rollup(1500, 1510, 1);
+
+        assertEquals(1, result.size());
+        DrMudLogDepthBins.Bin bin = result.get(0);
+        assertEquals(1500.0, bin.getTopFt(), 1e-9);
+        assertEquals(1510.0, bin.getBottomFt(), 1e-9);
+        assertEquals(10, bin.getSamples());
+        assertEquals(54.5, bin.getAvgRopFtHr(), 1e-9);
+        assertEquals(50.0, bin.getMinRopFtHr(), 1e-9);
+        assertEquals(59.0, bin.getMaxRopFtHr(), 1e-9);
+        assertEquals(150.9, bin.getMaxTotalGasUnits(), 1e-9);
+        assertEquals(LithologyType.SHALE, bin.getDominantLithology());
+        assertEquals(1, bin.getOilShows());
+    }
+
+    @Test
+    @DisplayName("Bins: Agregado a 100 ft igual al detalle")
+    void testRollupMatchesBaseBins() {
+        DrMudLogDepthBins bins = buildLog();
+
+        List<DrMudLogDepthBins.Bin> coarse = bins.rollup(1000, 3000, 10);
+
+        assertEquals(20, coarse.size());
+        for (DrMudLogDepthBins.Bin bin : coarse) {
+            assertEquals(100, bin.getSamples());
+            assertEquals(1, bin.getOilShows());
+            assertEquals(54.5, bin.getAvgRopFtHr(), 1e-9);
+            assertEquals((bin.getBottomFt() - 1) / 10.0, bin.getMaxTotalGasUnits(), 1e-9);
+        }
+        DrMudLogDepthBins.Bin total = bins.total();
+        assertEquals(2000, total.getSamples());
+        assertEquals(299.9, total.getMaxTotalGasUnits(), 1e-9);
+        assertEquals(1000L, total.getLithologyCounts().get(LithologyType.SHALE));
+        assertEquals(1000L, total.getLithologyCounts().get(LithologyType.SANDSTONE));
+    }
+
+    @Test
+    @DisplayName("Bins: Reemplazo recalcula máximo y elimina bins vacíos")
+    void testReplaceBin() {
+        DrMudLogDepthBins bins = buildLog();
+
+        double[] interval = bins.interval(2995);
+        DrMudLogDepthBins.Bin rebuilt = new DrMudLogDepthBins.Bin(interval[0], interval[1]);
+        rebuilt.add(60, 10.0, 20.0, LithologyType.SANDSTONE, false);
+        bins.replaceBin(2995, rebuilt);
+
+        assertEquals(298.9, bins.total().getMaxTotalGasUnits(), 1e-9);
+        assertEquals(1991, bins.total().getSamples());
+
+        bins.replaceBin(2995, new DrMudLogDepthBins.Bin(interval[0], interval[1]));
+        assertEquals(2990.0, bins.getDeepestFt(), 1e-9);
+        assertTrue(bins.rollup(2990, 3000, 1).isEmpty());
+    }
+
+    @Test
+    @DisplayName("Bins: Rango vacío o invertido devuelve lista vacía")
+    void testRollup_EmptyRange() {
+        DrMudLogDepthBins bins = buildLog();
+
+        assertTrue(bins.rollup(1500, 1500, 1).isEmpty());
+        assertTrue(bins.rollup(1505, 1505, 10).isEmpty());
+        assertTrue(bins.rollup(2000, 1000, 1).isEmpty());
+        assertEquals(1, bins.rollup(1500, 1500.5, 1).size());
+    }
+
+    @Test
+    @DisplayName("Bins: Valores ausentes no cuentan en promedios")
+    void testMissingValuesExcluded() {
+        DrMudLogDepthBins bins = new DrMudLogDepthBins(10.0);
+        bins.add(5, Double.NaN, Double.NaN, Double.NaN, null, false);
+        bins.add(6, 40, Double.NaN, Double.NaN, null, false);
+
+        DrMudLogDepthBins.Bin total = bins.total();
+        assertEquals(2, total.getSamples());
+        assertEquals(40.0, total.getAvgRopFtHr(), 1e-9);
+        assertNull(total.getMaxTotalGasUnits());
+        assertNull(total.getDominantLithology());
+        assertTrue(total.getLithologyCounts().isEmpty());
+    }
+}
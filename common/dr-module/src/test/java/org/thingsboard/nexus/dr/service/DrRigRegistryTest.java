@@ -0,0 +1,237 @@
+/**
+ * Copyright © 2016-2026 The Thingsboard Authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.thingsboard.nexus.dr.service;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.PageRequest;
+import org.thingsboard.nexus.dr.config.DrModuleConfiguration;
+import org.thingsboard.nexus.dr.dto.DrRigDto;
+import org.thingsboard.server.common.data.asset.Asset;
+import org.thingsboard.server.common.data.id.AssetId;
+import org.thingsboard.server.common.data.id.TenantId;
+import org.thingsboard.server.common.data.kv.AttributeKvEntry;
+import org.thingsboard.server.common.data.kv.BaseAttributeKvEntry;
+import org.thingsboard.server.common.data.kv.StringDataEntry;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+/**
+ * Unit tests for DrRigRegistry.
+ * Verifies index maintenance, event-driven re-reads, eviction, paging and single-flight tenant loads.
+ */
+@DisplayName("DrRigRegistry Unit Tests")
+class DrRigRegistryTest {
+
+    private static final long WAIT_MS = 5_000L;
+
+    private final UUID tenantId = UUID.randomUUID();
+    private final Map<UUID, Asset> assets = new LinkedHashMap<>();
+    private final Map<UUID, List<AttributeKvEntry>> attributes = new LinkedHashMap<>();
+
+    private DrAssetService assetService;
+    private DrAttributeService attributeService;
+    private DrRigRegistry registry;
+
+    @BeforeEach
+    void setUp() {
+        assetService = mock(DrAssetService.class);
+        attributeService = mock(DrAttributeService.class);
+        when(assetService.getAssetsByType(eq(tenantId), eq(DrRigDto.ASSET_TYPE), anyInt(), anyInt()))
+                .thenAnswer(invocation -> assetPage(invocation.getArgument(2), invocation.getArgument(3)));
+        when(assetService.getAssetById(any(UUID.class)))
+                .thenAnswer(invocation -> Optional.ofNullable(assets.get(invocation.<UUID>getArgument(0))));
+        when(attributeService.getServerAttributes(anyCollection())).thenAnswer(invocation -> {
+            Map<UUID, List<AttributeKvEntry>> found = new LinkedHashMap<>();
+            for (UUID assetId : invocation.<Collection<UUID>>getArgument(0)) {
+                found.put(assetId, new ArrayList<>(attributes.get(assetId)));
+            }
+            return found;
+        });
+        registry = new DrRigRegistry(assetService, attributeService, new DrModuleConfiguration());
+        registry.init();
+    }
+
+    @AfterEach
+    void tearDown() {
+        registry.destroy();
+    }
+
+    @Test
+    @DisplayName("Cambio de estado: los índices por estado y tipo reflejan el rig actualizado")
+    void testStatusChangeUpdatesIndexes() {
+        UUID rigA = putRig("RIG-A", "LAND", "ACTIVE");
+        UUID rigB = putRig("RIG-B", "LAND", "ACTIVE");
+        assertEquals(2, registry.countByStatus(tenantId, "ACTIVE"));
+
+        putRig(rigA, "RIG-A", "JACKUP", "STANDBY");
+        registry.onAttributesUpdated(new DrAttributesUpdatedEvent(rigA));
+
+        assertEquals(List.of(rigB), ids(registry.getByStatus(tenantId, "ACTIVE")));
+        assertEquals(List.of(rigA), ids(registry.getByStatus(tenantId, "STANDBY")));
+        assertEquals(List.of(rigB), ids(registry.getByType(tenantId, "LAND")));
+        assertEquals(List.of(rigA), ids(registry.getByType(tenantId, "JACKUP")));
+        assertEquals(1, registry.countByStatus(tenantId, "ACTIVE"));
+        assertEquals(1, registry.countByType(tenantId, "JACKUP"));
+    }
+
+    @Test
+    @DisplayName("Evento de atributos: el rig se vuelve a leer en el siguiente acceso y solo entonces")
+    void testAttributesUpdatedEventRereadsOnNextAccess() {
+        UUID rigA = putRig("RIG-A", "LAND", "ACTIVE");
+        putRig("RIG-B", "LAND", "ACTIVE");
+        assertEquals("ACTIVE", registry.findById(tenantId, rigA).orElseThrow().getOperationalStatus());
+
+        putRig(rigA, "RIG-A", "LAND", "MAINTENANCE");
+        assertEquals("ACTIVE", registry.findById(tenantId, rigA).orElseThrow().getOperationalStatus());
+
+        registry.onAttributesUpdated(new DrAttributesUpdatedEvent(rigA));
+        verify(assetService, never()).getAssetById(rigA);
+
+        assertEquals("MAINTENANCE", registry.findById(tenantId, rigA).orElseThrow().getOperationalStatus());
+        assertEquals("MAINTENANCE", registry.findByCode(tenantId, "RIG-A").orElseThrow().getOperationalStatus());
+        verify(assetService, times(1)).getAssetById(rigA);
+        verify(attributeService, times(2)).getServerAttributes(anyCollection());
+        verify(assetService, times(1)).getAssetsByType(eq(tenantId), eq(DrRigDto.ASSET_TYPE), anyInt(), anyInt());
+    }
+
+    @Test
+    @DisplayName("Evict: el rig desaparece de todos los índices")
+    void testEvictRemovesFromEveryIndex() {
+        UUID rigA = putRig("RIG-A", "LAND", "ACTIVE");
+        UUID rigB = putRig("RIG-B", "LAND", "ACTIVE");
+        assertEquals(2, registry.count(tenantId));
+
+        registry.evict(tenantId, rigA);
+
+        assertTrue(registry.findById(tenantId, rigA).isEmpty());
+        assertTrue(registry.findByCode(tenantId, "RIG-A").isEmpty());
+        assertEquals(List.of(rigB), ids(registry.getByStatus(tenantId, "ACTIVE")));
+        assertEquals(List.of(rigB), ids(registry.getByType(tenantId, "LAND")));
+        assertEquals(List.of(rigB), ids(registry.getAll(tenantId)));
+        assertEquals(1, registry.countByStatus(tenantId, "ACTIVE"));
+        assertEquals(1, registry.count(tenantId));
+
+        // Un evento posterior del rig eliminado no lo vuelve a añadir
+        registry.onAttributesUpdated(new DrAttributesUpdatedEvent(rigA));
+        assertEquals(1, registry.count(tenantId));
+    }
+
+    @Test
+    @DisplayName("Paginación: cada página empieza en page * pageSize, la última puede ir incompleta")
+    void testGetPageOffsets() {
+        List<UUID> rigs = new ArrayList<>();
+        for (int i = 0; i < 5; i++) {
+            rigs.add(putRig("RIG-" + i, "LAND", "ACTIVE"));
+        }
+
+        assertEquals(rigs.subList(0, 2), ids(registry.getPage(tenantId, 0, 2)));
+        assertEquals(rigs.subList(2, 4), ids(registry.getPage(tenantId, 1, 2)));
+        assertEquals(rigs.subList(4, 5), ids(registry.getPage(tenantId, 2, 2)));
+        assertEquals(List.of(), ids(registry.getPage(tenantId, 3, 2)));
+        assertEquals(rigs.subList(3, 5), ids(registry.getPage(tenantId, 1, 3)));
+    }
+
+    @Test
+    @DisplayName("Carga en frío concurrente: el DAO se consulta una sola vez")
+    void testConcurrentColdLoadsHitDaoOnce() throws InterruptedException {
+        putRig("RIG-A", "LAND", "ACTIVE");
+        putRig("RIG-B", "LAND", "ACTIVE");
+        putRig("RIG-C", "LAND", "STANDBY");
+        CountDownLatch loadStarted = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        doAnswer(invocation -> {
+            loadStarted.countDown();
+            assertTrue(release.await(WAIT_MS, TimeUnit.MILLISECONDS));
+            return assetPage(invocation.getArgument(2), invocation.getArgument(3));
+        }).when(assetService).getAssetsByType(eq(tenantId), eq(DrRigDto.ASSET_TYPE), anyInt(), anyInt());
+
+        AtomicLong total = new AtomicLong();
+        List<Thread> threads = new ArrayList<>();
+        for (int i = 0; i < 8; i++) {
+            Thread thread = new Thread(() -> total.addAndGet(registry.count(tenantId)));
+            threads.add(thread);
+            thread.start();
+        }
+        assertTrue(loadStarted.await(WAIT_MS, TimeUnit.MILLISECONDS));
+        // Se libera la carga cuando todos los hilos esperan: el que carga y los que esperan su resultado
+        long deadline = System.currentTimeMillis() + WAIT_MS;
+        while (threads.stream().anyMatch(t -> t.getState() != Thread.State.WAITING && t.getState() != Thread.State.TIMED_WAITING)
+                && System.currentTimeMillis() < deadline) {
+            Thread.onSpinWait();
+        }
+        release.countDown();
+        for (Thread thread : threads) {
+            thread.join(WAIT_MS);
+        }
+
+        assertEquals(8 * 3, total.get());
+        verify(assetService, times(1)).getAssetsByType(eq(tenantId), eq(DrRigDto.ASSET_TYPE), anyInt(), anyInt());
+        verify(attributeService, times(1)).getServerAttributes(anyCollection());
+    }
+
+    private UUID putRig(String code, String type, String status) {
+        return putRig(UUID.randomUUID(), code, type, status);
+    }
+
+    private UUID putRig(UUID assetId, String code, String type, String status) {
+        Asset asset = new Asset(new AssetId(assetId));
+        asset.setTenantId(TenantId.fromUUID(tenantId));
+        asset.setType(DrRigDto.ASSET_TYPE);
+        asset.setName(code);
+        assets.put(assetId, asset);
+        attributes.put(assetId, List.of(
+                new BaseAttributeKvEntry(new StringDataEntry(DrRigDto.ATTR_RIG_CODE, code), 1L),
+                new BaseAttributeKvEntry(new StringDataEntry(DrRigDto.ATTR_RIG_TYPE, type), 1L),
+                new BaseAttributeKvEntry(new StringDataEntry(DrRigDto.ATTR_OPERATIONAL_STATUS, status), 1L)));
+        return assetId;
+    }
+
+    private PageImpl<Asset> assetPage(int page, int size) {
+        List<Asset> all = new ArrayList<>(assets.values());
+        int from = Math.min(page * size, all.size());
+        int to = Math.min(from + size, all.size());
+        return new PageImpl<>(all.subList(from, to), PageRequest.of(page, size), all.size());
+    }
+
+    private static List<UUID> ids(List<DrRigDto> rigs) {
+        return rigs.stream().map(DrRigDto::getAssetId).toList();
+    }
+}
@@ -0,0 +1,79 @@
+/**
+ * Copyright © 2016-2026 The Thingsboard Authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.thingsboard.nexus.dr.service;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * JMH benchmark of DrTrajectoryEngine recomputation on the well used by DrTrajectoryEngineTest.
+ * Not run by surefire; run {@link #main} from the IDE or
+ * {@code java -cp <test classpath> org.openjdk.jmh.Main DrTrajectoryEngineBenchmark}.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class DrTrajectoryEngineBenchmark {
+
+    @Param({"1000", "10000"})
+    public int stations;
+
+    private DrTrajectoryEngine.Stations well;
+    private int tail;
+
+    @Setup
+    public void setUp() {
+        well = DrTrajectoryEngineTest.buildWell(stations);
+        DrTrajectoryEngine.recompute(well, 0);
+        tail = stations - 100;
+    }
+
+    @Benchmark
+    public int fullRecompute() {
+        return DrTrajectoryEngine.recompute(well, 0);
+    }
+
+    /**
+     * Correction of a survey 100 stations above TD.
+     */
+    @Benchmark
+    public int tailRecompute() {
+        return DrTrajectoryEngine.recompute(well, tail);
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder()
+                .include(DrTrajectoryEngineBenchmark.class.getSimpleName())
+                .build()).run();
+    }
+}
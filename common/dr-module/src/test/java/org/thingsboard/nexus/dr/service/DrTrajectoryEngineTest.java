@@ -0,0 +1,117 @@
+/**
+ * Copyright © 2016-2026 The Thingsboard Authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.thingsboard.nexus.dr.service;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for DrTrajectoryEngine.
+ * Tests tail recomputation against full recomputation and covers a 10,000-station well.
+ */
+@DisplayName("DrTrajectoryEngine Unit Tests")
+class DrTrajectoryEngineTest {
+
+    static final int STATIONS = 10_000;
+
+    /**
+     * Vertical to 2,000 ft, build at 3°/100 ft to 90° and a lateral out to TD, one station every 30 ft.
+     */
+    static DrTrajectoryEngine.Stations buildWell(int count) {
+        DrTrajectoryEngine.Stations s = new DrTrajectoryEngine.Stations(count);
+        for (int i = 0; i < count; i++) {
+            double md = 30.0 * (i + 1);
+            double inc = md <= 2000 ? 0 : Math.min(90.0, (md - 2000) * 0.03);
+            double az = 45.0 + 5.0 * Math.sin(i / 200.0);
+            s.add(UUID.randomUUID(), md, round3(inc), round3(az),
+                    Double.NaN, Double.NaN, Double.NaN, Double.NaN, Double.NaN, Double.NaN, Double.NaN);
+        }
+        return s;
+    }
+
+    private static double round3(double v) {
+        return DrTrajectoryEngine.round3(v);
+    }
+
+    @Test
+    @DisplayName("Recalculo: Primera estación vertical con TVD = MD")
+    void testRecompute_VerticalTieIn() {
+        DrTrajectoryEngine.Stations s = buildWell(10);
+
+        assertEquals(10, DrTrajectoryEngine.recompute(s, 0));
+
+        for (int i = 0; i < s.size; i++) {
+            assertEquals(s.md[i], s.tvd[i], 1e-9);
+            assertEquals(0.0, s.north[i], 1e-9);
+            assertEquals(0.0, s.dls[i], 1e-9);
+        }
+    }
+
+    @Test
+    @DisplayName("Recalculo: Segunda pasada sin cambios no marca estaciones")
+    void testRecompute_IdempotentOnStoredValues() {
+        DrTrajectoryEngine.Stations s = buildWell(500);
+        DrTrajectoryEngine.recompute(s, 0);
+
+        assertEquals(0, DrTrajectoryEngine.recompute(s, 0));
+    }
+
+    @Test
+    @DisplayName("Recalculo: Cola desde la estación corregida igual al recálculo completo (10,000 estaciones)")
+    void testRecompute_TailMatchesFullRecompute() {
+        DrTrajectoryEngine.Stations full = buildWell(STATIONS);
+        DrTrajectoryEngine.Stations tail = buildWell(STATIONS);
+        DrTrajectoryEngine.recompute(full, 0);
+        DrTrajectoryEngine.recompute(tail, 0);
+
+        // Correction near the top of the lateral
+        int corrected = 100;
+        full.inc[corrected] = tail.inc[corrected] = 1.25;
+        full.az[corrected] = tail.az[corrected] = 50.0;
+
+        DrTrajectoryEngine.recompute(full, 0);
+        int changed = DrTrajectoryEngine.recompute(tail, corrected);
+
+        assertTrue(changed > 0 && changed <= STATIONS - corrected);
+        for (int i = 0; i < STATIONS; i++) {
+            assertEquals(full.tvd[i], tail.tvd[i], 0.0);
+            assertEquals(full.north[i], tail.north[i], 0.0);
+            assertEquals(full.east[i], tail.east[i], 0.0);
+            assertEquals(full.dls[i], tail.dls[i], 0.0);
+            assertEquals(full.closureAzimuth[i], tail.closureAzimuth[i], 0.0);
+        }
+        for (int i = 0; i < corrected; i++) {
+            assertFalse(tail.changed[i]);
+        }
+    }
+
+    @Test
+    @DisplayName("Recalculo: Pozo de 10,000 estaciones hasta horizontal")
+    void testRecompute_10kStations() {
+        // Timing lives in DrTrajectoryEngineBenchmark
+        DrTrajectoryEngine.Stations s = buildWell(STATIONS);
+
+        assertEquals(STATIONS, DrTrajectoryEngine.recompute(s, 0));
+
+        // Horizontal at TD with a lateral of several thousand ft
+        assertEquals(90.0, s.inc[STATIONS - 1], 1e-9);
+        assertTrue(s.closureDistance[STATIONS - 1] > 200_000);
+    }
+}
@@ -97,6 +97,11 @@ public class RvModuleConfiguration {
      */
     private boolean diluentCalculationEnabled = true;
 
+    /**
+     * Hilos para el recálculo masivo del roll-up de reservas (un campo por tarea)
+     */
+    private int rollupThreads = 4;
+
     @Bean
     public RestTemplate rvRestTemplate() {
         return new RestTemplate();
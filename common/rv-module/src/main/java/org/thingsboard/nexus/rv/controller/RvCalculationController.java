@@ -15,10 +15,13 @@
  */
 package org.thingsboard.nexus.rv.controller;
 
+import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.thingsboard.nexus.rv.dto.RvOoipMonteCarloRequest;
+import org.thingsboard.nexus.rv.dto.RvOoipMonteCarloResultDto;
 import org.thingsboard.nexus.rv.exception.RvBusinessException;
 import org.thingsboard.nexus.rv.service.RvCalculationService;
 
@@ -58,6 +61,15 @@ public class RvCalculationController {
         ));
     }
 
+    /**
+     * Probabilistic OOIP (P90/P50/P10 and tornado) by Monte Carlo sampling of the volumetric inputs.
+     */
+    @PostMapping("/ooip/monte-carlo")
+    public ResponseEntity<RvOoipMonteCarloResultDto> calculateOOIPMonteCarlo(@Valid @RequestBody RvOoipMonteCarloRequest request) {
+        log.info("POST /api/nexus/rv/calculations/ooip/monte-carlo - realizations={}", request.getRealizations());
+        return ResponseEntity.ok(calculationService.calculateOOIPMonteCarlo(request));
+    }
+
     /**
      * Calculate Water Saturation using Archie equation.
      */
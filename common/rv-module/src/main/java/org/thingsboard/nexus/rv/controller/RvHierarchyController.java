@@ -0,0 +1,63 @@
+/**
+ * Copyright © 2016-2026 The Thingsboard Authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.thingsboard.nexus.rv.controller;
+
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+import org.thingsboard.nexus.rv.service.RvHierarchyService;
+import org.thingsboard.nexus.rv.service.RvRelationGraphCache;
+
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * REST Controller for RV asset hierarchy traversal.
+ * Base path: /api/nexus/rv/hierarchy
+ */
+@RestController
+@RequestMapping("/api/nexus/rv/hierarchy")
+@RequiredArgsConstructor
+@Slf4j
+@Tag(name = "RV Hierarchy", description = "Basin -> Field -> Reservoir -> Zone -> Well traversal")
+public class RvHierarchyController {
+
+    private final RvHierarchyService hierarchyService;
+
+    @GetMapping("/{assetId}/subtree")
+    @Operation(summary = "Get the full Contains subtree of an asset",
+               description = "Returns every descendant with its parent and depth, in breadth-first order")
+    public ResponseEntity<List<RvRelationGraphCache.Node>> getSubtree(
+            @RequestHeader("X-Tenant-Id") UUID tenantId,
+            @PathVariable UUID assetId,
+            @RequestParam(defaultValue = "0") int maxDepth) {
+        log.debug("GET /api/nexus/rv/hierarchy/{}/subtree - maxDepth={}", assetId, maxDepth);
+        return ResponseEntity.ok(hierarchyService.getSubtree(tenantId, assetId, maxDepth));
+    }
+
+    @GetMapping("/{assetId}/ancestors")
+    @Operation(summary = "Get the BelongsTo ancestor chain of an asset",
+               description = "Returns the parent, grandparent, ... up to the root")
+    public ResponseEntity<List<UUID>> getAncestors(
+            @RequestHeader("X-Tenant-Id") UUID tenantId,
+            @PathVariable UUID assetId) {
+        log.debug("GET /api/nexus/rv/hierarchy/{}/ancestors", assetId);
+        return ResponseEntity.ok(hierarchyService.getAncestors(tenantId, assetId));
+    }
+}
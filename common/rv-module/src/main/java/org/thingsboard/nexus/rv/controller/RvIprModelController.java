@@ -22,6 +22,8 @@ import org.springframework.data.domain.Page;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.thingsboard.nexus.rv.dto.RvIprBatchRequest;
+import org.thingsboard.nexus.rv.dto.RvIprBatchResultDto;
 import org.thingsboard.nexus.rv.dto.RvIprModelDto;
 import org.thingsboard.server.common.data.page.PageData;
 import org.thingsboard.nexus.rv.exception.RvEntityNotFoundException;
@@ -127,6 +129,15 @@ public class RvIprModelController {
         return ResponseEntity.ok(curve);
     }
 
+    /**
+     * Generate IPR curves (columnar) and IPR/VLP operating points for many models in one call.
+     */
+    @PostMapping("/curves/batch")
+    public ResponseEntity<RvIprBatchResultDto> generateIprCurves(@Valid @RequestBody RvIprBatchRequest request) {
+        log.info("POST /api/nexus/rv/ipr-models/curves/batch - {} models", request.getModelIds().size());
+        return ResponseEntity.ok(iprService.generateIprCurves(request));
+    }
+
     /**
      * Calculate operating point efficiency.
      */
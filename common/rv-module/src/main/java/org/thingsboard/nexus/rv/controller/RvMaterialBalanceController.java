@@ -18,12 +18,15 @@ package org.thingsboard.nexus.rv.controller;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.Parameter;
 import io.swagger.v3.oas.annotations.tags.Tag;
+import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.data.domain.Page;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.thingsboard.nexus.rv.dto.RvAquiferFitRequest;
+import org.thingsboard.nexus.rv.dto.RvAquiferFitResultDto;
 import org.thingsboard.nexus.rv.dto.RvMaterialBalanceDto;
 import org.thingsboard.server.common.data.page.PageData;
 import org.thingsboard.nexus.rv.service.RvMaterialBalanceService;
@@ -123,6 +126,21 @@ public class RvMaterialBalanceController {
         return ResponseEntity.ok(result);
     }
 
+    @PostMapping("/{id}/aquifer-fit")
+    @Operation(summary = "Fit aquifer model and gas cap ratio",
+               description = "Sweeps Fetkovich and Carter-Tracy aquifer parameters and the gas cap ratio (m) in parallel " +
+                             "and returns the best fit of F = N*(Eo + m*Eg + Efw) + We with its regression diagnostics " +
+                             "and a ranking of the best candidates.")
+    public ResponseEntity<RvAquiferFitResultDto> fitAquiferModel(
+            @PathVariable UUID id,
+            @Valid @RequestBody RvAquiferFitRequest request) {
+        log.info("POST /material-balance/{}/aquifer-fit - models={}", id, request.getAquiferModels());
+        if (request.getStudy() != null) {
+            request.getStudy().setId(id);
+        }
+        return ResponseEntity.ok(materialBalanceService.fitAquiferModel(request));
+    }
+
     @GetMapping("/{id}/drive-mechanisms")
     @Operation(summary = "Get drive mechanism analysis",
                description = "Returns the drive mechanism indices: DDI (Depletion), SDI (Gas Cap), WDI (Water), CDI (Compaction)")
@@ -0,0 +1,84 @@
+/**
+ * Copyright © 2016-2026 The Thingsboard Authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.thingsboard.nexus.rv.controller;
+
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+import org.thingsboard.nexus.rv.dto.RvReservesRollupDto;
+import org.thingsboard.nexus.rv.service.RvReservesRollupService;
+
+import java.util.Map;
+import java.util.UUID;
+
+/**
+ * REST Controller for reserves / OOIP / EUR roll-up along the RV hierarchy.
+ * Base path: /api/nexus/rv/reserves
+ */
+@RestController
+@RequestMapping("/api/nexus/rv/reserves")
+@RequiredArgsConstructor
+@Slf4j
+@Tag(name = "RV Reserves Roll-up", description = "P90/P50/P10 reserves aggregated up the Contains hierarchy")
+public class RvReservesRollupController {
+
+    private final RvReservesRollupService rollupService;
+
+    @GetMapping("/{assetId}")
+    @Operation(summary = "Get the reserves roll-up of an asset")
+    public ResponseEntity<RvReservesRollupDto> getRollup(
+            @RequestHeader("X-Tenant-Id") UUID tenantId,
+            @PathVariable UUID assetId) {
+        log.debug("GET /api/nexus/rv/reserves/{}", assetId);
+        return ResponseEntity.ok(rollupService.getRollup(tenantId, assetId));
+    }
+
+    @PostMapping("/{assetId}/values")
+    @Operation(summary = "Set the own P90/P50/P10 value of an asset",
+               description = "Stores the value and propagates the change incrementally to every ancestor")
+    public ResponseEntity<RvReservesRollupDto> setValues(
+            @RequestHeader("X-Tenant-Id") UUID tenantId,
+            @PathVariable UUID assetId,
+            @RequestParam String metric,
+            @RequestParam(required = false) Double p90,
+            @RequestParam Double p50,
+            @RequestParam(required = false) Double p10) {
+        log.info("POST /api/nexus/rv/reserves/{}/values - metric={}, p90={}, p50={}, p10={}", assetId, metric, p90, p50, p10);
+        rollupService.updateOwnValues(tenantId, assetId, metric, p90, p50, p10);
+        return ResponseEntity.ok(rollupService.getRollup(tenantId, assetId));
+    }
+
+    @PostMapping("/{assetId}/recompute")
+    @Operation(summary = "Recompute the roll-up of an asset subtree from stored values")
+    public ResponseEntity<RvReservesRollupDto> recomputeSubtree(
+            @RequestHeader("X-Tenant-Id") UUID tenantId,
+            @PathVariable UUID assetId) {
+        log.info("POST /api/nexus/rv/reserves/{}/recompute", assetId);
+        return ResponseEntity.ok(rollupService.recomputeSubtree(tenantId, assetId));
+    }
+
+    @PostMapping("/recompute-all")
+    @Operation(summary = "Bulk recompute of every field and basin of the tenant",
+               description = "Fields are recomputed in parallel, then basins are summed from their fields")
+    public ResponseEntity<Map<UUID, RvReservesRollupDto>> recomputeAll(
+            @RequestHeader("X-Tenant-Id") UUID tenantId) {
+        log.info("POST /api/nexus/rv/reserves/recompute-all - tenant={}", tenantId);
+        return ResponseEntity.ok(rollupService.recomputeAll(tenantId));
+    }
+}
@@ -0,0 +1,100 @@
+/**
+ * Copyright © 2016-2026 The Thingsboard Authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.thingsboard.nexus.rv.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import jakarta.validation.constraints.Max;
+import jakarta.validation.constraints.Min;
+import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.Positive;
+import jakarta.validation.constraints.PositiveOrZero;
+import java.util.List;
+
+/**
+ * Search space for the automatic aquifer / gas cap fit of a Material Balance study.
+ *
+ * Every combination of gas cap ratio (m) and aquifer parameters is evaluated in parallel and
+ * ranked by the residual of F = N*(Eo + m*Eg + Efw) + We. Ranges are inclusive; productivity
+ * index, encroachable water, aquifer constant and dimensionless time factor are sampled on a
+ * logarithmic grid, the gas cap ratio on a linear grid.
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class RvAquiferFitRequest {
+
+    @NotNull(message = "El estudio de balance de materiales es requerido")
+    private RvMaterialBalanceDto study;
+
+    // FETKOVICH, CARTER_TRACY and/or NONE (volumetric); all of them when empty
+    private List<String> aquiferModels;
+
+    // Gas cap ratio sweep
+    @PositiveOrZero(message = "La relación mínima del casquete de gas debe ser >= 0")
+    private Double gasCapRatioMin;
+    @PositiveOrZero(message = "La relación máxima del casquete de gas debe ser >= 0")
+    private Double gasCapRatioMax;
+    @Min(value = 1, message = "Los pasos de m deben ser >= 1")
+    @Max(value = 200, message = "Los pasos de m deben ser <= 200")
+    private Integer gasCapRatioSteps;
+
+    // Fetkovich: J (MMbbl/day/psi) and Wei (MMbbl)
+    @Positive(message = "El índice de productividad mínimo debe ser > 0")
+    private Double fetkovichProductivityIndexMin;
+    @Positive(message = "El índice de productividad máximo debe ser > 0")
+    private Double fetkovichProductivityIndexMax;
+    @Min(value = 1, message = "Los pasos de J deben ser >= 1")
+    @Max(value = 200, message = "Los pasos de J deben ser <= 200")
+    private Integer fetkovichProductivityIndexSteps;
+
+    @Positive(message = "El agua invasora máxima mínima debe ser > 0")
+    private Double fetkovichEncroachableWaterMin;
+    @Positive(message = "El agua invasora máxima máxima debe ser > 0")
+    private Double fetkovichEncroachableWaterMax;
+    @Min(value = 1, message = "Los pasos de Wei deben ser >= 1")
+    @Max(value = 200, message = "Los pasos de Wei deben ser <= 200")
+    private Integer fetkovichEncroachableWaterSteps;
+
+    // Carter-Tracy: B (MMbbl/psi) and tD per day
+    @Positive(message = "La constante del acuífero mínima debe ser > 0")
+    private Double carterTracyAquiferConstantMin;
+    @Positive(message = "La constante del acuífero máxima debe ser > 0")
+    private Double carterTracyAquiferConstantMax;
+    @Min(value = 1, message = "Los pasos de B deben ser >= 1")
+    @Max(value = 200, message = "Los pasos de B deben ser <= 200")
+    private Integer carterTracyAquiferConstantSteps;
+
+    @Positive(message = "El factor de tiempo adimensional mínimo debe ser > 0")
+    private Double carterTracyTdPerDayMin;
+    @Positive(message = "El factor de tiempo adimensional máximo debe ser > 0")
+    private Double carterTracyTdPerDayMax;
+    @Min(value = 1, message = "Los pasos de tD deben ser >= 1")
+    @Max(value = 200, message = "Los pasos de tD deben ser <= 200")
+    private Integer carterTracyTdPerDaySteps;
+
+    // Used when data point dates are missing or not ISO (yyyy-MM-dd)
+    @Positive(message = "El paso de tiempo por defecto debe ser > 0")
+    private Double defaultTimeStepDays;
+
+    @Min(value = 1, message = "El número de candidatos debe ser >= 1")
+    @Max(value = 100, message = "El número de candidatos debe ser <= 100")
+    private Integer topCandidates;
+}
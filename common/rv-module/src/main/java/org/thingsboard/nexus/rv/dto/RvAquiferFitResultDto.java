@@ -0,0 +1,83 @@
+/**
+ * Copyright © 2016-2026 The Thingsboard Authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.thingsboard.nexus.rv.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Result of the automatic aquifer / gas cap fit of a Material Balance study.
+ * Contains the best candidate, its regression diagnostics and a ranking of the runner-ups.
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class RvAquiferFitResultDto {
+
+    // Best candidate
+    private String aquiferModel;             // FETKOVICH, CARTER_TRACY, NONE
+    private double gasCapRatio;              // m
+    private Map<String, Double> aquiferParameters;
+    private double calculatedOOIP;           // N (MMSTB)
+
+    // Diagnostics of F - We = N * Et
+    private double r2;
+    private double rmse;
+
+    // Havlena-Odeh straight line F/Et vs We/Et (slope ≈ 1, intercept = N for a consistent model)
+    private Double havlenaOdehSlope;
+    private Double havlenaOdehIntercept;
+    private Double havlenaOdehR2;
+    private Double havlenaOdehSlopeStdError;
+    private Double havlenaOdehInterceptStdError;
+
+    // Per data point series for plotting
+    private double[] waterInflux;            // We (MMbbl)
+    private double[] totalExpansion;         // Et = Eo + m*Eg + Efw
+    private double[] undergroundWithdrawal;  // F (MMbbl)
+
+    private String analysisQuality;          // EXCELLENT, GOOD, FAIR, POOR
+
+    private List<Candidate> ranking;
+    private int candidatesEvaluated;
+    private long elapsedMs;
+
+    @Data
+    @Builder
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class Candidate {
+        private String aquiferModel;
+        private double gasCapRatio;
+        private Map<String, Double> aquiferParameters;
+        private double calculatedOOIP;
+        private double r2;
+        private double rmse;
+    }
+
+    public static final String AQUIFER_NONE = "NONE";
+
+    public static final String PARAM_PRODUCTIVITY_INDEX = "productivityIndex";
+    public static final String PARAM_ENCROACHABLE_WATER = "maxEncroachableWater";
+    public static final String PARAM_AQUIFER_CONSTANT = "aquiferConstant";
+    public static final String PARAM_TD_PER_DAY = "tdPerDay";
+}
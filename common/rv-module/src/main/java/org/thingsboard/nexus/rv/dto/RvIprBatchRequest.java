@@ -0,0 +1,65 @@
+/**
+ * Copyright © 2016-2026 The Thingsboard Authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.thingsboard.nexus.rv.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import jakarta.validation.constraints.Max;
+import jakarta.validation.constraints.Min;
+import jakarta.validation.constraints.NotEmpty;
+import jakarta.validation.constraints.Size;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+/**
+ * Batch IPR request: curves for many IPR models and, optionally, the operating point of each
+ * against its VLP (tubing intake) curve.
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class RvIprBatchRequest {
+
+    @NotEmpty(message = "Se requiere al menos un modelo IPR")
+    @Size(max = 10_000, message = "Máximo 10,000 modelos por lote")
+    private List<UUID> modelIds;
+
+    // Default 20
+    @Min(value = 2, message = "La curva requiere al menos 2 puntos")
+    @Max(value = 1000, message = "La curva admite como máximo 1000 puntos")
+    private Integer numPoints;
+
+    // VLP per IPR model id; defaultVlp is used for models without their own curve
+    private Map<UUID, VlpCurve> vlpCurves;
+    private VlpCurve defaultVlp;
+
+    /**
+     * Required flowing bottomhole pressure versus rate, rates ascending.
+     */
+    @Data
+    @Builder
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class VlpCurve {
+        private double[] rateBopd;
+        private double[] pwfPsi;
+    }
+}
@@ -0,0 +1,64 @@
+/**
+ * Copyright © 2016-2026 The Thingsboard Authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.thingsboard.nexus.rv.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Batch IPR result. Curves are returned as columnar arrays (one Pwf and one rate array per
+ * model) instead of a map per point.
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class RvIprBatchResultDto {
+
+    private List<WellCurve> curves;
+
+    private int cacheHits;
+    private long elapsedMs;
+
+    @Data
+    @Builder
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class WellCurve {
+        private UUID modelId;
+        private String status;              // OK, NO_PARAMETERS, NO_FLOW, NO_VLP
+        private Long version;               // Last update of the IPR parameters
+        private Double qmaxBopd;
+
+        private double[] pwfPsi;
+        private double[] rateBopd;
+
+        // Intersection with the VLP curve
+        private Double operatingRateBopd;
+        private Double operatingPwfPsi;
+    }
+
+    // Status values
+    public static final String STATUS_OK = "OK";
+    public static final String STATUS_NO_PARAMETERS = "NO_PARAMETERS";
+    public static final String STATUS_NO_FLOW = "NO_FLOW";
+    public static final String STATUS_NO_VLP = "NO_VLP";
+}
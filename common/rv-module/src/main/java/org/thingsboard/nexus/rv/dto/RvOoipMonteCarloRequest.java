@@ -0,0 +1,70 @@
+/**
+ * Copyright © 2016-2026 The Thingsboard Authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.thingsboard.nexus.rv.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import jakarta.validation.Valid;
+import jakarta.validation.constraints.Max;
+import jakarta.validation.constraints.Min;
+import jakarta.validation.constraints.NotNull;
+
+/**
+ * Probabilistic volumetric OOIP request: OOIP = 7758 * A * h * φ * (1 - Sw) / Bo,
+ * with every input described by a distribution. Units match the deterministic calculation
+ * (area in acres, net pay in meters).
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class RvOoipMonteCarloRequest {
+
+    @NotNull(message = "La distribución del área es requerida")
+    @Valid
+    private RvVolumetricDistribution areaAcres;
+
+    @NotNull(message = "La distribución del espesor neto es requerida")
+    @Valid
+    private RvVolumetricDistribution thicknessM;
+
+    @NotNull(message = "La distribución de porosidad es requerida")
+    @Valid
+    private RvVolumetricDistribution porosity;
+
+    @NotNull(message = "La distribución de saturación de agua es requerida")
+    @Valid
+    private RvVolumetricDistribution waterSaturation;
+
+    @NotNull(message = "La distribución de Bo es requerida")
+    @Valid
+    private RvVolumetricDistribution bo;
+
+    // Default 100,000
+    @Min(value = 1000, message = "Se requieren al menos 1000 realizaciones")
+    @Max(value = 1_000_000, message = "Máximo 1,000,000 realizaciones")
+    private Integer realizations;
+
+    // Fixed seed makes the run reproducible regardless of thread count
+    private Long seed;
+
+    @Min(value = 10, message = "El histograma requiere al menos 10 intervalos")
+    @Max(value = 500, message = "El histograma admite como máximo 500 intervalos")
+    private Integer histogramBins;
+}
@@ -0,0 +1,83 @@
+/**
+ * Copyright © 2016-2026 The Thingsboard Authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.thingsboard.nexus.rv.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+/**
+ * Result of a Monte Carlo volumetric OOIP run.
+ *
+ * P90/P50/P10 follow the industry (exceedance) convention: P90 is the value exceeded by
+ * 90% of the realizations, i.e. the low estimate.
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class RvOoipMonteCarloResultDto {
+
+    private int realizations;
+    private long seed;
+
+    // OOIP statistics (STB)
+    private double p90Stb;
+    private double p50Stb;
+    private double p10Stb;
+    private double meanStb;
+    private double stdDevStb;
+    private double minStb;
+    private double maxStb;
+
+    // Deterministic OOIP with every input at its median
+    private double baseCaseStb;
+
+    // Histogram: counts[i] realizations in [binEdges[i], binEdges[i + 1])
+    private double[] binEdges;
+    private long[] counts;
+
+    // Sorted by swing, largest first
+    private List<TornadoBar> tornado;
+
+    private long elapsedMs;
+
+    /**
+     * One-at-a-time sensitivity: the input is moved to its own P90/P10 while the others stay at their median.
+     */
+    @Data
+    @Builder
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class TornadoBar {
+        private String input;
+        private double inputLow;    // Input P90 (10th percentile)
+        private double inputHigh;   // Input P10 (90th percentile)
+        private double ooipAtLowStb;
+        private double ooipAtHighStb;
+        private double swingStb;    // |ooipAtHigh - ooipAtLow|
+    }
+
+    // Input names
+    public static final String INPUT_AREA = "AREA";
+    public static final String INPUT_THICKNESS = "THICKNESS";
+    public static final String INPUT_POROSITY = "POROSITY";
+    public static final String INPUT_WATER_SATURATION = "WATER_SATURATION";
+    public static final String INPUT_BO = "BO";
+}
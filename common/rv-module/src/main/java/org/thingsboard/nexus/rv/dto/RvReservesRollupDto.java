@@ -0,0 +1,83 @@
+/**
+ * Copyright © 2016-2026 The Thingsboard Authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.thingsboard.nexus.rv.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+import java.util.UUID;
+
+/**
+ * DTO for the reserves roll-up of an RV asset (basin, field, reservoir, zone or well).
+ *
+ * Totals include the asset's own value plus every descendant along the Contains hierarchy.
+ * P90/P50/P10 are aggregated arithmetically, as PRMS requires for aggregation beyond the
+ * field/project level; the sum of P90s is therefore a conservative low estimate.
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class RvReservesRollupDto {
+
+    private UUID assetId;
+
+    private Estimate ooipStb;                 // Original Oil In Place
+    private Estimate recoverableReservesStb;  // OOIP * RF
+    private Estimate eurBbl;                  // Estimated Ultimate Recovery (decline)
+
+    private Integer descendantCount;
+    private Long updatedTime;
+
+    @Data
+    @Builder
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class Estimate {
+        private BigDecimal p90;   // Low (proved)
+        private BigDecimal p50;   // Best (proved + probable)
+        private BigDecimal p10;   // High (proved + probable + possible)
+    }
+
+    // Own-value attribute keys (P50 uses the existing deterministic key)
+    public static final String ATTR_OOIP_P90_STB = "ooip_p90_stb";
+    public static final String ATTR_OOIP_P10_STB = "ooip_p10_stb";
+    public static final String ATTR_RESERVES_STB = "recoverable_reserves_stb";
+    public static final String ATTR_RESERVES_P90_STB = "recoverable_reserves_p90_stb";
+    public static final String ATTR_RESERVES_P10_STB = "recoverable_reserves_p10_stb";
+    public static final String ATTR_EUR_P90_BBL = "eur_p90_bbl";
+    public static final String ATTR_EUR_P10_BBL = "eur_p10_bbl";
+
+    // Roll-up attribute keys stored on parent assets
+    public static final String ATTR_ROLLUP_OOIP_P90_STB = "rollup_ooip_p90_stb";
+    public static final String ATTR_ROLLUP_OOIP_P50_STB = "rollup_ooip_p50_stb";
+    public static final String ATTR_ROLLUP_OOIP_P10_STB = "rollup_ooip_p10_stb";
+    public static final String ATTR_ROLLUP_RESERVES_P90_STB = "rollup_reserves_p90_stb";
+    public static final String ATTR_ROLLUP_RESERVES_P50_STB = "rollup_reserves_p50_stb";
+    public static final String ATTR_ROLLUP_RESERVES_P10_STB = "rollup_reserves_p10_stb";
+    public static final String ATTR_ROLLUP_EUR_P90_BBL = "rollup_eur_p90_bbl";
+    public static final String ATTR_ROLLUP_EUR_P50_BBL = "rollup_eur_p50_bbl";
+    public static final String ATTR_ROLLUP_EUR_P10_BBL = "rollup_eur_p10_bbl";
+    public static final String ATTR_ROLLUP_UPDATED_TIME = "rollup_updated_time";
+
+    // Metric names
+    public static final String METRIC_OOIP = "OOIP";
+    public static final String METRIC_RESERVES = "RESERVES";
+    public static final String METRIC_EUR = "EUR";
+}
@@ -0,0 +1,64 @@
+/**
+ * Copyright © 2016-2026 The Thingsboard Authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.thingsboard.nexus.rv.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import jakarta.validation.constraints.NotNull;
+
+/**
+ * Probability distribution of one volumetric input for Monte Carlo OOIP.
+ *
+ * Parameters used by type:
+ * - CONSTANT: mode
+ * - UNIFORM: min, max
+ * - TRIANGULAR: min, mode, max
+ * - NORMAL: mean, stdDev (optionally truncated to [min, max])
+ * - LOGNORMAL: mean, stdDev of the variable itself, not of its logarithm (optionally truncated)
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class RvVolumetricDistribution {
+
+    @NotNull(message = "El tipo de distribución es requerido")
+    private String type;
+
+    private Double min;
+    private Double mode;
+    private Double max;
+    private Double mean;
+    private Double stdDev;
+
+    public static RvVolumetricDistribution constant(double value) {
+        return RvVolumetricDistribution.builder().type(TYPE_CONSTANT).mode(value).build();
+    }
+
+    public static RvVolumetricDistribution triangular(double min, double mode, double max) {
+        return RvVolumetricDistribution.builder().type(TYPE_TRIANGULAR).min(min).mode(mode).max(max).build();
+    }
+
+    // Distribution types
+    public static final String TYPE_CONSTANT = "CONSTANT";
+    public static final String TYPE_UNIFORM = "UNIFORM";
+    public static final String TYPE_TRIANGULAR = "TRIANGULAR";
+    public static final String TYPE_NORMAL = "NORMAL";
+    public static final String TYPE_LOGNORMAL = "LOGNORMAL";
+}
@@ -15,28 +15,20 @@
  */
 package org.thingsboard.nexus.rv.service;
 
-import com.fasterxml.jackson.databind.JsonNode;
-import com.fasterxml.jackson.databind.ObjectMapper;
+import com.google.common.util.concurrent.ListenableFuture;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.stereotype.Service;
 import org.thingsboard.server.common.data.AttributeScope;
 import org.thingsboard.server.common.data.id.AssetId;
 import org.thingsboard.server.common.data.kv.AttributeKvEntry;
-import org.thingsboard.server.common.data.kv.BaseAttributeKvEntry;
-import org.thingsboard.server.common.data.kv.StringDataEntry;
-import org.thingsboard.server.common.data.kv.LongDataEntry;
-import org.thingsboard.server.common.data.kv.DoubleDataEntry;
-import org.thingsboard.server.common.data.kv.BooleanDataEntry;
-import org.thingsboard.server.common.data.kv.JsonDataEntry;
 import org.thingsboard.server.dao.attributes.AttributesService;
+import org.thingsboard.server.dao.nexus.NexusAttributes;
 
-import java.math.BigDecimal;
-import java.util.ArrayList;
+import java.util.Collection;
 import java.util.List;
 import java.util.Map;
 import java.util.UUID;
-import java.util.concurrent.ExecutionException;
 
 /**
  * Servicio para gestionar atributos de Assets del módulo de Yacimientos.
@@ -48,14 +40,13 @@ import java.util.concurrent.ExecutionException;
 public class RvAttributeService {
 
     private final AttributesService attributesService;
-    private final ObjectMapper objectMapper = new ObjectMapper();
 
     /**
      * Guarda atributos SERVER_SCOPE para un Asset de yacimiento.
      */
     public void saveServerAttributes(UUID assetId, Map<String, Object> attributes) {
         log.debug("Saving SERVER_SCOPE attributes for asset {}: {}", assetId, attributes.keySet());
-        saveAttributes(assetId, attributes, AttributeScope.SERVER_SCOPE);
+        NexusAttributes.save(attributesService, assetId, AttributeScope.SERVER_SCOPE, attributes);
     }
 
     /**
@@ -63,100 +54,40 @@ public class RvAttributeService {
      */
     public void saveSharedAttributes(UUID assetId, Map<String, Object> attributes) {
         log.debug("Saving SHARED_SCOPE attributes for asset {}: {}", assetId, attributes.keySet());
-        saveAttributes(assetId, attributes, AttributeScope.SHARED_SCOPE);
+        NexusAttributes.save(attributesService, assetId, AttributeScope.SHARED_SCOPE, attributes);
     }
 
     /**
      * Obtiene todos los atributos SERVER_SCOPE de un Asset.
      */
     public List<AttributeKvEntry> getServerAttributes(UUID assetId) {
-        try {
-            return attributesService.findAll(null, new AssetId(assetId), AttributeScope.SERVER_SCOPE).get();
-        } catch (InterruptedException | ExecutionException e) {
-            log.error("Error getting SERVER_SCOPE attributes for asset {}: {}", assetId, e.getMessage());
-            Thread.currentThread().interrupt();
-            throw new RuntimeException("Failed to get server attributes", e);
-        }
+        return NexusAttributes.await(attributesService.findAll(null, new AssetId(assetId), AttributeScope.SERVER_SCOPE),
+                "get server attributes of asset " + assetId);
     }
 
     /**
      * Obtiene atributos específicos por sus claves.
      */
     public List<AttributeKvEntry> getServerAttributes(UUID assetId, List<String> keys) {
-        try {
-            return attributesService.find(null, new AssetId(assetId), AttributeScope.SERVER_SCOPE, keys).get();
-        } catch (InterruptedException | ExecutionException e) {
-            log.error("Error getting attributes {} for asset {}: {}", keys, assetId, e.getMessage());
-            Thread.currentThread().interrupt();
-            throw new RuntimeException("Failed to get attributes", e);
-        }
+        return NexusAttributes.await(attributesService.find(null, new AssetId(assetId), AttributeScope.SERVER_SCOPE, keys),
+                "get attributes " + keys + " of asset " + assetId);
     }
 
     /**
-     * Elimina atributos por sus claves.
+     * Obtiene atributos específicos de varios Assets, en lotes de
+     * {@link NexusAttributes#MAX_CONCURRENT_REQUESTS} consultas en paralelo.
+     * Los Assets sin ninguno de los atributos no aparecen en el resultado.
      */
-    public void deleteAttributes(UUID assetId, AttributeScope scope, List<String> keys) {
-        try {
-            attributesService.removeAll(null, new AssetId(assetId), scope, keys);
-            log.debug("Deleted attributes {} from asset {} in scope {}", keys, assetId, scope);
-        } catch (Exception e) {
-            log.error("Error deleting attributes for asset {}: {}", assetId, e.getMessage());
-            throw new RuntimeException("Failed to delete attributes", e);
-        }
-    }
-
-    private void saveAttributes(UUID assetId, Map<String, Object> attributes, AttributeScope scope) {
-        try {
-            List<AttributeKvEntry> kvEntries = new ArrayList<>();
-
-            for (Map.Entry<String, Object> entry : attributes.entrySet()) {
-                AttributeKvEntry kvEntry = createKvEntry(entry.getKey(), entry.getValue());
-                if (kvEntry != null) {
-                    kvEntries.add(kvEntry);
-                }
-            }
-
-            if (!kvEntries.isEmpty()) {
-                attributesService.save(null, new AssetId(assetId), scope, kvEntries);
-                log.debug("Saved {} attributes for asset {} in scope {}", kvEntries.size(), assetId, scope);
-            }
-        } catch (Exception e) {
-            log.error("Error saving attributes for asset {}: {}", assetId, e.getMessage(), e);
-            throw new RuntimeException("Failed to save attributes", e);
-        }
+    public Map<UUID, List<AttributeKvEntry>> getServerAttributesBulk(Collection<UUID> assetIds, List<String> keys) {
+        return NexusAttributes.findServerAttributes(attributesService, assetIds, keys);
     }
 
-    private AttributeKvEntry createKvEntry(String key, Object value) {
-        if (value == null) {
-            return null;
-        }
-
-        long ts = System.currentTimeMillis();
-
-        if (value instanceof String) {
-            return new BaseAttributeKvEntry(new StringDataEntry(key, (String) value), ts);
-        } else if (value instanceof Integer) {
-            return new BaseAttributeKvEntry(new LongDataEntry(key, ((Integer) value).longValue()), ts);
-        } else if (value instanceof Long) {
-            return new BaseAttributeKvEntry(new LongDataEntry(key, (Long) value), ts);
-        } else if (value instanceof Double) {
-            return new BaseAttributeKvEntry(new DoubleDataEntry(key, (Double) value), ts);
-        } else if (value instanceof Float) {
-            return new BaseAttributeKvEntry(new DoubleDataEntry(key, ((Float) value).doubleValue()), ts);
-        } else if (value instanceof BigDecimal) {
-            return new BaseAttributeKvEntry(new DoubleDataEntry(key, ((BigDecimal) value).doubleValue()), ts);
-        } else if (value instanceof Boolean) {
-            return new BaseAttributeKvEntry(new BooleanDataEntry(key, (Boolean) value), ts);
-        } else if (value instanceof JsonNode) {
-            return new BaseAttributeKvEntry(new JsonDataEntry(key, ((JsonNode) value).toString()), ts);
-        } else {
-            // Para objetos complejos, serializar a JSON
-            try {
-                JsonNode jsonNode = objectMapper.valueToTree(value);
-                return new BaseAttributeKvEntry(new JsonDataEntry(key, jsonNode.toString()), ts);
-            } catch (Exception e) {
-                return new BaseAttributeKvEntry(new StringDataEntry(key, value.toString()), ts);
-            }
-        }
+    /**
+     * Elimina atributos por sus claves.
+     */
+    public void deleteAttributes(UUID assetId, AttributeScope scope, List<String> keys) {
+        ListenableFuture<List<String>> removed = attributesService.removeAll(null, new AssetId(assetId), scope, keys);
+        NexusAttributes.await(removed, "delete attributes of asset " + assetId);
+        log.debug("Deleted attributes {} from asset {} in scope {}", keys, assetId, scope);
     }
 }
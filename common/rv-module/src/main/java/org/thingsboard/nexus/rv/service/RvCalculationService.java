@@ -19,11 +19,16 @@ import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.stereotype.Service;
 import org.thingsboard.nexus.rv.config.RvModuleConfiguration;
+import org.thingsboard.nexus.rv.dto.RvOoipMonteCarloRequest;
+import org.thingsboard.nexus.rv.dto.RvOoipMonteCarloResultDto;
 import org.thingsboard.nexus.rv.exception.RvBusinessException;
 
 import java.math.BigDecimal;
 import java.math.MathContext;
 import java.math.RoundingMode;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
 
 /**
  * Service for petroleum engineering calculations.
@@ -37,6 +42,17 @@ public class RvCalculationService {
     private final RvModuleConfiguration config;
     private static final MathContext MC = new MathContext(10, RoundingMode.HALF_UP);
 
+    private static final int DEFAULT_REALIZATIONS = 100_000;
+    private static final int MAX_REALIZATIONS = 1_000_000;
+    private static final int DEFAULT_HISTOGRAM_BINS = 50;
+    private static final String[] TORNADO_INPUTS = {
+            RvOoipMonteCarloResultDto.INPUT_AREA,
+            RvOoipMonteCarloResultDto.INPUT_THICKNESS,
+            RvOoipMonteCarloResultDto.INPUT_POROSITY,
+            RvOoipMonteCarloResultDto.INPUT_WATER_SATURATION,
+            RvOoipMonteCarloResultDto.INPUT_BO
+    };
+
     // ===========================================
     // VOLUMETRICS - OOIP Calculation
     // ===========================================
@@ -79,6 +95,105 @@ public class RvCalculationService {
         return ooip;
     }
 
+    /**
+     * Probabilistic OOIP by Monte Carlo sampling of the volumetric inputs.
+     * Returns P90/P50/P10 (exceedance convention), moments, histogram and a tornado
+     * of one-at-a-time sensitivities around the median case.
+     */
+    public RvOoipMonteCarloResultDto calculateOOIPMonteCarlo(RvOoipMonteCarloRequest request) {
+        long start = System.nanoTime();
+        int n = request.getRealizations() != null ? request.getRealizations() : DEFAULT_REALIZATIONS;
+        if (n < 1 || n > MAX_REALIZATIONS) {
+            throw new RvBusinessException(RvBusinessException.CALCULATION_ERROR,
+                    String.format("Realizations must be between 1 and %d, got %d", MAX_REALIZATIONS, n));
+        }
+        long seed = request.getSeed() != null ? request.getSeed() : System.nanoTime();
+        int bins = request.getHistogramBins() != null ? request.getHistogramBins() : DEFAULT_HISTOGRAM_BINS;
+
+        RvVolumetricMonteCarlo.Sampler[] samplers = {
+                RvVolumetricMonteCarlo.compile("Area", request.getAreaAcres(), 0.0, Double.POSITIVE_INFINITY),
+                RvVolumetricMonteCarlo.compile("Thickness", request.getThicknessM(), 0.0, Double.POSITIVE_INFINITY),
+                RvVolumetricMonteCarlo.compile("Porosity", request.getPorosity(), 0.0, 1.0),
+                RvVolumetricMonteCarlo.compile("Water Saturation", request.getWaterSaturation(), 0.0, 1.0),
+                RvVolumetricMonteCarlo.compile("Bo", request.getBo(), Double.MIN_NORMAL, Double.POSITIVE_INFINITY)
+        };
+
+        double[] sorted = RvVolumetricMonteCarlo.simulate(
+                samplers[0], samplers[1], samplers[2], samplers[3], samplers[4], n, seed);
+
+        double sum = 0.0;
+        for (double v : sorted) {
+            sum += v;
+        }
+        double mean = sum / n;
+        double ss = 0.0;
+        for (double v : sorted) {
+            double d = v - mean;
+            ss += d * d;
+        }
+        double min = sorted[0];
+        double max = sorted[n - 1];
+
+        double[] edges = new double[bins + 1];
+        long[] counts = new long[bins];
+        double width = (max - min) / bins;
+        for (int i = 0; i <= bins; i++) {
+            edges[i] = min + i * width;
+        }
+        for (double v : sorted) {
+            int bin = width > 0 ? (int) ((v - min) / width) : 0;
+            counts[Math.min(bin, bins - 1)]++;
+        }
+
+        // Tornado: each input at its own 10th/90th percentile, the rest at their median
+        double[] median = new double[samplers.length];
+        for (int i = 0; i < samplers.length; i++) {
+            median[i] = samplers[i].quantile(0.5);
+        }
+        double baseCase = RvVolumetricMonteCarlo.ooip(median[0], median[1], median[2], median[3], median[4]);
+        List<RvOoipMonteCarloResultDto.TornadoBar> tornado = new ArrayList<>(samplers.length);
+        for (int i = 0; i < samplers.length; i++) {
+            double low = samplers[i].quantile(0.10);
+            double high = samplers[i].quantile(0.90);
+            double[] args = median.clone();
+            args[i] = low;
+            double ooipLow = RvVolumetricMonteCarlo.ooip(args[0], args[1], args[2], args[3], args[4]);
+            args[i] = high;
+            double ooipHigh = RvVolumetricMonteCarlo.ooip(args[0], args[1], args[2], args[3], args[4]);
+            tornado.add(RvOoipMonteCarloResultDto.TornadoBar.builder()
+                    .input(TORNADO_INPUTS[i])
+                    .inputLow(low)
+                    .inputHigh(high)
+                    .ooipAtLowStb(ooipLow)
+                    .ooipAtHighStb(ooipHigh)
+                    .swingStb(Math.abs(ooipHigh - ooipLow))
+                    .build());
+        }
+        tornado.sort(Comparator.comparingDouble(RvOoipMonteCarloResultDto.TornadoBar::getSwingStb).reversed());
+
+        long elapsedMs = (System.nanoTime() - start) / 1_000_000;
+        RvOoipMonteCarloResultDto result = RvOoipMonteCarloResultDto.builder()
+                .realizations(n)
+                .seed(seed)
+                .p90Stb(RvVolumetricMonteCarlo.percentile(sorted, 0.10))
+                .p50Stb(RvVolumetricMonteCarlo.percentile(sorted, 0.50))
+                .p10Stb(RvVolumetricMonteCarlo.percentile(sorted, 0.90))
+                .meanStb(mean)
+                .stdDevStb(n > 1 ? Math.sqrt(ss / (n - 1)) : 0.0)
+                .minStb(min)
+                .maxStb(max)
+                .baseCaseStb(baseCase)
+                .binEdges(edges)
+                .counts(counts)
+                .tornado(tornado)
+                .elapsedMs(elapsedMs)
+                .build();
+
+        log.info("Monte Carlo OOIP: {} realizations in {} ms, P90={} P50={} P10={} STB",
+                n, elapsedMs, result.getP90Stb(), result.getP50Stb(), result.getP10Stb());
+        return result;
+    }
+
     // ===========================================
     // PETROPHYSICS - Archie Equation
     // ===========================================
@@ -20,6 +20,7 @@ import lombok.extern.slf4j.Slf4j;
 import org.springframework.data.domain.Page;
 import org.springframework.stereotype.Service;
 import org.thingsboard.nexus.rv.dto.RvDeclineAnalysisDto;
+import org.thingsboard.nexus.rv.dto.RvReservesRollupDto;
 import org.thingsboard.nexus.rv.exception.RvEntityNotFoundException;
 import org.thingsboard.server.common.data.asset.Asset;
 import org.thingsboard.server.common.data.kv.AttributeKvEntry;
@@ -41,6 +42,7 @@ public class RvDeclineAnalysisService {
     private final RvAttributeService rvAttributeService;
     private final RvHierarchyService rvHierarchyService;
     private final RvCalculationService calculationService;
+    private final RvReservesRollupService reservesRollupService;
 
     /**
      * Creates a new Decline Analysis.
@@ -179,6 +181,7 @@ public class RvDeclineAnalysisService {
         dto.setUpdatedTime(System.currentTimeMillis());
 
         saveDeclineAttributes(dto);
+        propagateEurToWell(dto);
 
         log.info("Decline analysis completed: EUR={} bbl, type={}", eur, dto.getDeclineType());
         return dto;
@@ -333,6 +336,22 @@ public class RvDeclineAnalysisService {
         }
     }
 
+    /**
+     * Copies the EUR to the analyzed well so the reserves roll-up picks it up through the Contains hierarchy.
+     */
+    private void propagateEurToWell(RvDeclineAnalysisDto dto) {
+        if (dto.getEurBbl() == null || dto.getTenantId() == null) {
+            return;
+        }
+        for (UUID wellAssetId : rvHierarchyService.getSourceAssets(dto.getTenantId(), dto.getAssetId(), "AnalyzedBy")) {
+            Map<String, Object> attrs = new HashMap<>();
+            attrs.put(RvDeclineAnalysisDto.ATTR_EUR_BBL, dto.getEurBbl());
+            rvAttributeService.saveServerAttributes(wellAssetId, attrs);
+            reservesRollupService.onValueChanged(dto.getTenantId(), wellAssetId,
+                RvReservesRollupDto.METRIC_EUR, null, dto.getEurBbl().doubleValue(), null);
+        }
+    }
+
     private void loadDeclineAttributes(RvDeclineAnalysisDto dto) {
         List<AttributeKvEntry> entries = rvAttributeService.getServerAttributes(dto.getAssetId());
 
@@ -36,6 +36,8 @@ import java.util.stream.Collectors;
  *
  * Jerarquía típica:
  * Basin -> Field -> Reservoir -> Zone -> Well -> Completion
+ *
+ * Las lecturas de relaciones RV se sirven desde {@link RvRelationGraphCache}.
  */
 @Service
 @RequiredArgsConstructor
@@ -43,6 +45,7 @@ import java.util.stream.Collectors;
 public class RvHierarchyService {
 
     private final RelationService relationService;
+    private final RvRelationGraphCache graphCache;
 
     // Tipos de relación estándar
     public static final String RELATION_CONTAINS = "Contains";
@@ -128,30 +131,43 @@ public class RvHierarchyService {
      * Obtiene todos los hijos directos de un Asset (relación Contains).
      */
     public List<UUID> getChildren(UUID tenantId, UUID parentAssetId) {
-        List<EntityRelation> relations = relationService.findByFromAndType(
-            TenantId.fromUUID(tenantId),
-            new AssetId(parentAssetId),
-            RELATION_CONTAINS,
-            RelationTypeGroup.COMMON
-        );
-
-        return relations.stream()
-            .map(r -> r.getTo().getId())
-            .collect(Collectors.toList());
+        return graphCache.getOutgoing(tenantId, parentAssetId, RELATION_CONTAINS);
     }
 
     /**
      * Obtiene el padre de un Asset (relación BelongsTo).
      */
     public UUID getParent(UUID tenantId, UUID childAssetId) {
-        List<EntityRelation> relations = relationService.findByFromAndType(
-            TenantId.fromUUID(tenantId),
-            new AssetId(childAssetId),
-            RELATION_BELONGS_TO,
-            RelationTypeGroup.COMMON
-        );
+        List<UUID> parents = graphCache.getOutgoing(tenantId, childAssetId, RELATION_BELONGS_TO);
+        return parents.isEmpty() ? null : parents.get(0);
+    }
+
+    /**
+     * Obtiene el subárbol completo bajo un Asset (relación Contains) en una sola llamada.
+     * Ej: Field -> Reservoirs -> Zones -> Wells -> Completions
+     * @param maxDepth Profundidad máxima (<= 0 para ilimitada)
+     * @return Nodos en orden BFS, empezando por la raíz
+     */
+    public List<RvRelationGraphCache.Node> getSubtree(UUID tenantId, UUID rootAssetId, int maxDepth) {
+        return graphCache.getSubtree(tenantId, rootAssetId, RELATION_CONTAINS, maxDepth);
+    }
+
+    /**
+     * Obtiene todos los descendientes de un Asset (sin incluir la raíz).
+     */
+    public List<UUID> getDescendants(UUID tenantId, UUID rootAssetId) {
+        List<RvRelationGraphCache.Node> nodes = getSubtree(tenantId, rootAssetId, 0);
+        return nodes.subList(1, nodes.size()).stream()
+            .map(RvRelationGraphCache.Node::id)
+            .collect(Collectors.toList());
+    }
 
-        return relations.isEmpty() ? null : relations.get(0).getTo().getId();
+    /**
+     * Obtiene la cadena de ancestros de un Asset (relación BelongsTo), del padre hacia la raíz.
+     * Ej: Well -> Zone -> Reservoir -> Field -> Basin
+     */
+    public List<UUID> getAncestors(UUID tenantId, UUID assetId) {
+        return graphCache.getAncestors(tenantId, assetId, RELATION_BELONGS_TO);
     }
 
     /**
@@ -162,6 +178,10 @@ public class RvHierarchyService {
      * @return Lista de IDs de entidades relacionadas
      */
     public List<UUID> getRelatedAssets(UUID tenantId, UUID assetId, String relationType) {
+        if (RvRelationGraphCache.isCached(relationType)) {
+            return graphCache.getOutgoing(tenantId, assetId, relationType);
+        }
+
         List<EntityRelation> relations = relationService.findByFromAndType(
             TenantId.fromUUID(tenantId),
             new AssetId(assetId),
@@ -174,6 +194,27 @@ public class RvHierarchyService {
             .collect(Collectors.toList());
     }
 
+    /**
+     * Obtiene los Assets origen de las relaciones de un tipo que llegan a un Asset.
+     * Ej: el pozo que apunta a un análisis de declinación vía "AnalyzedBy"
+     */
+    public List<UUID> getSourceAssets(UUID tenantId, UUID assetId, String relationType) {
+        if (RvRelationGraphCache.isCached(relationType)) {
+            return graphCache.getIncoming(tenantId, assetId, relationType);
+        }
+
+        List<EntityRelation> relations = relationService.findByToAndType(
+            TenantId.fromUUID(tenantId),
+            new AssetId(assetId),
+            relationType,
+            RelationTypeGroup.COMMON
+        );
+
+        return relations.stream()
+            .map(r -> r.getFrom().getId())
+            .collect(Collectors.toList());
+    }
+
     /**
      * Alias para getRelatedAssets - obtiene entidades relacionadas por tipo de relación.
      * @param tenantId ID del tenant
@@ -191,13 +232,16 @@ public class RvHierarchyService {
     public void deleteRelation(UUID tenantId, UUID fromAssetId, UUID toAssetId, String relationType) {
         log.debug("Deleting relation: {} -[{}]-> {}", fromAssetId, relationType, toAssetId);
 
-        relationService.deleteRelation(
+        EntityRelation deleted = relationService.deleteRelation(
             TenantId.fromUUID(tenantId),
             new AssetId(fromAssetId),
             new AssetId(toAssetId),
             relationType,
             RelationTypeGroup.COMMON
         );
+        if (deleted != null) {
+            graphCache.onRelationDeleted(TenantId.fromUUID(tenantId), deleted);
+        }
     }
 
     /**
@@ -206,6 +250,7 @@ public class RvHierarchyService {
     public void deleteAllRelations(UUID tenantId, UUID assetId) {
         log.warn("Deleting all relations for asset: {}", assetId);
         relationService.deleteEntityRelations(TenantId.fromUUID(tenantId), new AssetId(assetId));
+        graphCache.onEntityDeleted(TenantId.fromUUID(tenantId), new AssetId(assetId));
     }
 
     /**
@@ -236,6 +281,7 @@ public class RvHierarchyService {
         relation.setType(relationType);
         relation.setTypeGroup(RelationTypeGroup.COMMON);
 
-        relationService.saveRelation(TenantId.fromUUID(tenantId), relation);
+        EntityRelation saved = relationService.saveRelation(TenantId.fromUUID(tenantId), relation);
+        graphCache.onRelationSaved(TenantId.fromUUID(tenantId), saved != null ? saved : relation);
     }
 }
@@ -0,0 +1,156 @@
+/**
+ * Copyright © 2016-2026 The Thingsboard Authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.thingsboard.nexus.rv.service;
+
+/**
+ * Primitive-double IPR evaluation and IPR/VLP operating point solver.
+ *
+ * An IPR model is reduced once to a few doubles (Pr, Pb, J, qmax) and evaluated without any
+ * allocation, so whole curves and intersections for many wells can be produced in a tight loop.
+ * Composite IPR: straight line J * (Pr - Pwf) above Pb, Vogel below Pb.
+ */
+public final class RvIprCurveEngine {
+
+    private static final int MAX_BISECTIONS = 60;
+    private static final double PRESSURE_TOLERANCE_PSI = 1e-3;
+
+    private RvIprCurveEngine() {
+    }
+
+    /**
+     * Compiled IPR parameters. {@code version} identifies the stored model state the parameters were read from.
+     */
+    public static final class Model {
+        public final double pr;
+        public final double pb;
+        public final double j;
+        public final double qmax;
+        public final boolean saturated;
+        public final long version;
+
+        // Composite: rate at Pb and Vogel span below Pb
+        final double qb;
+        final double vogelSpan;
+
+        public Model(double pr, double pb, double j, double qmax, boolean saturated, long version) {
+            this.pr = pr;
+            this.pb = pb;
+            this.j = j;
+            this.saturated = saturated;
+            this.version = version;
+            this.qb = saturated ? 0.0 : j * (pr - pb);
+            this.vogelSpan = saturated ? qmax : j * pb / 1.8;
+            this.qmax = saturated ? qmax : qb + vogelSpan;
+        }
+    }
+
+    /**
+     * Oil rate (bopd) at the given flowing bottomhole pressure.
+     */
+    public static double rate(Model m, double pwf) {
+        if (pwf >= m.pr) {
+            return 0.0;
+        }
+        if (pwf < 0.0) {
+            pwf = 0.0;
+        }
+        if (m.saturated) {
+            double r = pwf / m.pr;
+            return m.qmax * (1.0 - 0.2 * r - 0.8 * r * r);
+        }
+        if (pwf >= m.pb) {
+            return m.j * (m.pr - pwf);
+        }
+        double x = pwf / m.pb;
+        return m.qb + m.vogelSpan * (1.0 - 0.2 * x - 0.8 * x * x);
+    }
+
+    /**
+     * Fills {@code numPoints + 1} equally spaced points from Pr down to 0 psi.
+     */
+    public static void curve(Model m, int numPoints, double[] pwf, double[] rate) {
+        double step = m.pr / numPoints;
+        for (int i = 0; i <= numPoints; i++) {
+            double p = Math.max(m.pr - step * i, 0.0);
+            pwf[i] = p;
+            rate[i] = rate(m, p);
+        }
+    }
+
+    /**
+     * Intersection of the IPR with a VLP (tubing intake) curve given as required Pwf versus rate.
+     * Solves g(Pwf) = VLP(IPR(Pwf)) - Pwf = 0 by bisection on [0, Pr]; the IPR rate is monotonic
+     * in Pwf so there is a single stable root when the well can flow.
+     *
+     * @param out receives {rate, pwf}
+     * @return false when the VLP at zero rate is above Pr (the well cannot flow naturally)
+     */
+    public static boolean operatingPoint(Model m, double[] vlpRate, double[] vlpPwf, double[] out) {
+        double lo = 0.0;
+        double hi = m.pr;
+        if (interpolate(vlpRate, vlpPwf, 0.0) >= m.pr) {
+            return false;
+        }
+        if (interpolate(vlpRate, vlpPwf, m.qmax) <= 0.0) {
+            // VLP never reaches the IPR: the well flows at AOF
+            out[0] = m.qmax;
+            out[1] = 0.0;
+            return true;
+        }
+        for (int iter = 0; iter < MAX_BISECTIONS && hi - lo > PRESSURE_TOLERANCE_PSI; iter++) {
+            double mid = 0.5 * (lo + hi);
+            double g = interpolate(vlpRate, vlpPwf, rate(m, mid)) - mid;
+            if (g > 0.0) {
+                lo = mid;
+            } else {
+                hi = mid;
+            }
+        }
+        double pwf = 0.5 * (lo + hi);
+        out[0] = rate(m, pwf);
+        out[1] = pwf;
+        return true;
+    }
+
+    /**
+     * Linear interpolation on ascending {@code x}, extrapolating linearly past both ends.
+     */
+    static double interpolate(double[] x, double[] y, double xq) {
+        int n = x.length;
+        if (n == 1) {
+            return y[0];
+        }
+        int hi = 1;
+        if (xq > x[0]) {
+            int lo = 0;
+            hi = n - 1;
+            if (xq < x[hi]) {
+                while (hi - lo > 1) {
+                    int mid = (lo + hi) >>> 1;
+                    if (x[mid] <= xq) {
+                        lo = mid;
+                    } else {
+                        hi = mid;
+                    }
+                }
+            }
+        }
+        double x0 = x[hi - 1];
+        double x1 = x[hi];
+        double y0 = y[hi - 1];
+        return x1 == x0 ? y0 : y0 + (y[hi] - y0) * (xq - x0) / (x1 - x0);
+    }
+}
@@ -19,6 +19,8 @@ import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.data.domain.Page;
 import org.springframework.stereotype.Service;
+import org.thingsboard.nexus.rv.dto.RvIprBatchRequest;
+import org.thingsboard.nexus.rv.dto.RvIprBatchResultDto;
 import org.thingsboard.nexus.rv.dto.RvIprModelDto;
 import org.thingsboard.nexus.rv.exception.RvEntityNotFoundException;
 import org.thingsboard.server.common.data.asset.Asset;
@@ -27,6 +29,8 @@ import org.thingsboard.server.common.data.kv.AttributeKvEntry;
 import java.math.BigDecimal;
 import java.math.RoundingMode;
 import java.util.*;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.IntStream;
 
 /**
  * Service for managing IPR (Inflow Performance Relationship) Models.
@@ -40,7 +44,32 @@ public class RvIprModelService {
     private final RvAssetService rvAssetService;
     private final RvAttributeService rvAttributeService;
     private final RvHierarchyService rvHierarchyService;
-    private final RvCalculationService calculationService;
+
+    private static final int DEFAULT_CURVE_POINTS = 20;
+    private static final int MAX_CACHED_CURVES = 10_000;
+    private static final int PARALLEL_BATCH_THRESHOLD = 64;
+    private static final List<String> IPR_PARAMETER_KEYS = List.of(
+        RvIprModelDto.ATTR_RESERVOIR_PRESSURE_PSI,
+        "bubble_point_pressure_psi",
+        RvIprModelDto.ATTR_PRODUCTIVITY_INDEX,
+        RvIprModelDto.ATTR_QMAX_BOPD,
+        "is_below_bubble_point"
+    );
+
+    /**
+     * Curve computed for one model version; replaced when the stored parameters change.
+     */
+    private record CachedCurve(RvIprCurveEngine.Model model, int numPoints, double[] pwf, double[] rate) {
+    }
+
+    // Access-ordered LRU of curves per IPR model
+    private final Map<UUID, CachedCurve> curveCache = Collections.synchronizedMap(
+        new LinkedHashMap<>(256, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<UUID, CachedCurve> eldest) {
+                return size() > MAX_CACHED_CURVES;
+            }
+        });
 
     /**
      * Creates a new IPR Model.
@@ -221,59 +250,62 @@ public class RvIprModelService {
      * Generates IPR curve data points for visualization.
      */
     public List<Map<String, Object>> generateIprCurve(UUID assetId, int numPoints) {
-        RvIprModelDto dto = getIprModelById(assetId)
-            .orElseThrow(() -> new RvEntityNotFoundException("IPR Model", assetId));
-
-        if (dto.getQmaxBopd() == null || dto.getReservoirPressurePsi() == null) {
+        if (!rvAssetService.existsById(assetId)) {
+            throw new RvEntityNotFoundException("IPR Model", assetId);
+        }
+        CachedCurve cached = getCurve(assetId,
+            rvAttributeService.getServerAttributes(assetId, IPR_PARAMETER_KEYS), numPoints);
+        if (cached == null) {
             throw new IllegalStateException("IPR parameters not set. Run calculateVogelIpr first.");
         }
 
-        List<Map<String, Object>> curve = new ArrayList<>();
-        BigDecimal qmax = dto.getQmaxBopd();
-        BigDecimal pr = dto.getReservoirPressurePsi();
-        BigDecimal pb = dto.getBubblePointPressurePsi();
-        BigDecimal productivityIndex = dto.getProductivityIndexBpdPsi();
-        boolean isSaturated = Boolean.TRUE.equals(dto.getIsBelowBubblePoint());
-
-        BigDecimal pressureStep = pr.divide(BigDecimal.valueOf(numPoints), 2, RoundingMode.HALF_UP);
-
+        List<Map<String, Object>> curve = new ArrayList<>(numPoints + 1);
         for (int i = 0; i <= numPoints; i++) {
-            BigDecimal pwf = pr.subtract(pressureStep.multiply(BigDecimal.valueOf(i)));
-            if (pwf.compareTo(BigDecimal.ZERO) < 0) {
-                pwf = BigDecimal.ZERO;
-            }
-
-            BigDecimal rate;
-
-            if (isSaturated) {
-                // Pure Vogel
-                rate = calculationService.calculateIprVogel(qmax, pr, pwf);
-            } else {
-                // Composite
-                if (pwf.compareTo(pb) >= 0) {
-                    // Above bubble point - straight line
-                    rate = productivityIndex.multiply(pr.subtract(pwf));
-                } else {
-                    // Below bubble point - Vogel
-                    BigDecimal qb = productivityIndex.multiply(pr.subtract(pb));
-                    BigDecimal qmaxBelow = qb.add(productivityIndex.multiply(pb).divide(BigDecimal.valueOf(1.8), 2, RoundingMode.HALF_UP));
-                    rate = qb.add(qmaxBelow.subtract(qb).multiply(
-                        BigDecimal.ONE
-                            .subtract(BigDecimal.valueOf(0.2).multiply(pwf.divide(pb, 6, RoundingMode.HALF_UP)))
-                            .subtract(BigDecimal.valueOf(0.8).multiply(pwf.divide(pb, 6, RoundingMode.HALF_UP).pow(2)))
-                    ));
-                }
-            }
-
             Map<String, Object> point = new HashMap<>();
-            point.put("pwfPsi", pwf);
-            point.put("rateBopd", rate.max(BigDecimal.ZERO));
+            point.put("pwfPsi", BigDecimal.valueOf(cached.pwf()[i]).setScale(2, RoundingMode.HALF_UP));
+            point.put("rateBopd", BigDecimal.valueOf(cached.rate()[i]).setScale(2, RoundingMode.HALF_UP));
             curve.add(point);
         }
-
         return curve;
     }
 
+    /**
+     * Generates IPR curves for many models in one call and, when VLP curves are given,
+     * the IPR/VLP operating point of each well. Parameters are read in one bulk attribute
+     * fan-out and curves are served from the per-version cache when unchanged.
+     */
+    public RvIprBatchResultDto generateIprCurves(RvIprBatchRequest request) {
+        long start = System.nanoTime();
+        List<UUID> modelIds = request.getModelIds();
+        int numPoints = request.getNumPoints() != null ? request.getNumPoints() : DEFAULT_CURVE_POINTS;
+        Map<UUID, RvIprBatchRequest.VlpCurve> vlpCurves = request.getVlpCurves() != null ? request.getVlpCurves() : Map.of();
+
+        Map<UUID, List<AttributeKvEntry>> parameters = rvAttributeService.getServerAttributesBulk(modelIds, IPR_PARAMETER_KEYS);
+
+        RvIprBatchResultDto.WellCurve[] curves = new RvIprBatchResultDto.WellCurve[modelIds.size()];
+        AtomicInteger cacheHits = new AtomicInteger();
+        IntStream indexes = IntStream.range(0, curves.length);
+        if (curves.length >= PARALLEL_BATCH_THRESHOLD) {
+            indexes = indexes.parallel();
+        }
+        indexes.forEach(i -> {
+            UUID modelId = modelIds.get(i);
+            CachedCurve before = curveCache.get(modelId);
+            CachedCurve cached = getCurve(modelId, parameters.get(modelId), numPoints);
+            if (cached != null && cached == before) {
+                cacheHits.incrementAndGet();
+            }
+            RvIprBatchRequest.VlpCurve vlp = vlpCurves.getOrDefault(modelId, request.getDefaultVlp());
+            curves[i] = toWellCurve(modelId, cached, vlp);
+        });
+
+        return RvIprBatchResultDto.builder()
+            .curves(Arrays.asList(curves))
+            .cacheHits(cacheHits.get())
+            .elapsedMs((System.nanoTime() - start) / 1_000_000)
+            .build();
+    }
+
     /**
      * Calculates operating point efficiency.
      */
@@ -285,8 +317,10 @@ public class RvIprModelService {
             throw new IllegalStateException("IPR parameters not set.");
         }
 
-        BigDecimal currentRate = calculationService.calculateIprVogel(
-            dto.getQmaxBopd(), dto.getReservoirPressurePsi(), currentPwf);
+        RvIprCurveEngine.Model model = compileModel(dto.getReservoirPressurePsi(), dto.getBubblePointPressurePsi(),
+            dto.getProductivityIndexBpdPsi(), dto.getQmaxBopd(), dto.getIsBelowBubblePoint(), 0L);
+        BigDecimal currentRate = BigDecimal.valueOf(RvIprCurveEngine.rate(model, currentPwf.doubleValue()))
+            .setScale(2, RoundingMode.HALF_UP);
 
         BigDecimal efficiency = currentRate.divide(dto.getQmaxBopd(), 4, RoundingMode.HALF_UP)
             .multiply(BigDecimal.valueOf(100));
@@ -341,36 +375,98 @@ public class RvIprModelService {
         log.warn("Deleting IPR model: {}", assetId);
         rvHierarchyService.deleteAllRelations(tenantId, assetId);
         rvAssetService.deleteAsset(tenantId, assetId);
+        curveCache.remove(assetId);
     }
 
     private BigDecimal estimateProductivityIndex(BigDecimal pr, BigDecimal pb, BigDecimal testRate, BigDecimal testPwf) {
-        // Iterative solution for composite IPR
-        // Start with linear assumption
-        BigDecimal j = testRate.divide(pr.subtract(testPwf), 4, RoundingMode.HALF_UP);
-
-        // Iterate to refine
-        for (int iter = 0; iter < 10; iter++) {
-            BigDecimal qb = j.multiply(pr.subtract(pb));
-            BigDecimal qmax = qb.add(j.multiply(pb).divide(BigDecimal.valueOf(1.8), 4, RoundingMode.HALF_UP));
-
-            BigDecimal pwfRatio = testPwf.divide(pb, 6, RoundingMode.HALF_UP);
-            BigDecimal vogelPart = qmax.subtract(qb).multiply(
-                BigDecimal.ONE
-                    .subtract(BigDecimal.valueOf(0.2).multiply(pwfRatio))
-                    .subtract(BigDecimal.valueOf(0.8).multiply(pwfRatio.pow(2)))
-            );
-            BigDecimal calculatedRate = qb.add(vogelPart);
-
-            BigDecimal error = testRate.subtract(calculatedRate);
-            if (error.abs().compareTo(BigDecimal.valueOf(0.1)) < 0) {
-                break;
+        // Composite IPR below Pb: q = J*(Pr - Pb) + J*Pb/1.8 * (1 - 0.2*x - 0.8*x²), x = Pwf/Pb
+        // q is linear in J, so J follows directly from the test point
+        double x = testPwf.doubleValue() / pb.doubleValue();
+        double unitRate = (pr.doubleValue() - pb.doubleValue())
+            + pb.doubleValue() / 1.8 * (1.0 - 0.2 * x - 0.8 * x * x);
+        return BigDecimal.valueOf(testRate.doubleValue() / unitRate).setScale(4, RoundingMode.HALF_UP);
+    }
+
+    /**
+     * Returns the cached curve for the current parameter version, recomputing it when the
+     * stored parameters or the requested resolution changed. Null when parameters are missing.
+     */
+    private CachedCurve getCurve(UUID modelId, List<AttributeKvEntry> entries, int numPoints) {
+        RvIprCurveEngine.Model model = compileModel(entries);
+        if (model == null) {
+            curveCache.remove(modelId);
+            return null;
+        }
+        CachedCurve cached = curveCache.get(modelId);
+        if (cached != null && cached.numPoints() == numPoints && cached.model().version == model.version) {
+            return cached;
+        }
+        double[] pwf = new double[numPoints + 1];
+        double[] rate = new double[numPoints + 1];
+        RvIprCurveEngine.curve(model, numPoints, pwf, rate);
+        cached = new CachedCurve(model, numPoints, pwf, rate);
+        curveCache.put(modelId, cached);
+        return cached;
+    }
+
+    private RvIprCurveEngine.Model compileModel(List<AttributeKvEntry> entries) {
+        if (entries == null) {
+            return null;
+        }
+        BigDecimal pr = null;
+        BigDecimal pb = null;
+        BigDecimal j = null;
+        BigDecimal qmax = null;
+        Boolean belowPb = null;
+        long version = 0L;
+        for (AttributeKvEntry entry : entries) {
+            version = Math.max(version, entry.getLastUpdateTs());
+            switch (entry.getKey()) {
+                case RvIprModelDto.ATTR_RESERVOIR_PRESSURE_PSI -> pr = entry.getDoubleValue().map(BigDecimal::valueOf).orElse(null);
+                case "bubble_point_pressure_psi" -> pb = entry.getDoubleValue().map(BigDecimal::valueOf).orElse(null);
+                case RvIprModelDto.ATTR_PRODUCTIVITY_INDEX -> j = entry.getDoubleValue().map(BigDecimal::valueOf).orElse(null);
+                case RvIprModelDto.ATTR_QMAX_BOPD -> qmax = entry.getDoubleValue().map(BigDecimal::valueOf).orElse(null);
+                case "is_below_bubble_point" -> belowPb = entry.getBooleanValue().orElse(null);
             }
+        }
+        return compileModel(pr, pb, j, qmax, belowPb, version);
+    }
 
-            // Adjust J
-            j = j.multiply(testRate.divide(calculatedRate, 4, RoundingMode.HALF_UP));
+    private RvIprCurveEngine.Model compileModel(BigDecimal pr, BigDecimal pb, BigDecimal j, BigDecimal qmax,
+                                                Boolean belowPb, long version) {
+        if (pr == null || pr.signum() <= 0) {
+            return null;
         }
+        boolean saturated = Boolean.TRUE.equals(belowPb) || pb == null || j == null;
+        if (saturated && qmax == null) {
+            return null;
+        }
+        return new RvIprCurveEngine.Model(pr.doubleValue(), pb != null ? pb.doubleValue() : 0.0,
+            j != null ? j.doubleValue() : 0.0, qmax != null ? qmax.doubleValue() : 0.0, saturated, version);
+    }
 
-        return j;
+    private RvIprBatchResultDto.WellCurve toWellCurve(UUID modelId, CachedCurve cached, RvIprBatchRequest.VlpCurve vlp) {
+        RvIprBatchResultDto.WellCurve.WellCurveBuilder builder = RvIprBatchResultDto.WellCurve.builder().modelId(modelId);
+        if (cached == null) {
+            return builder.status(RvIprBatchResultDto.STATUS_NO_PARAMETERS).build();
+        }
+        RvIprCurveEngine.Model model = cached.model();
+        builder.version(model.version)
+            .qmaxBopd(model.qmax)
+            .pwfPsi(cached.pwf())
+            .rateBopd(cached.rate());
+        if (vlp == null || vlp.getRateBopd() == null || vlp.getPwfPsi() == null
+            || vlp.getRateBopd().length == 0 || vlp.getRateBopd().length != vlp.getPwfPsi().length) {
+            return builder.status(RvIprBatchResultDto.STATUS_NO_VLP).build();
+        }
+        double[] point = new double[2];
+        if (!RvIprCurveEngine.operatingPoint(model, vlp.getRateBopd(), vlp.getPwfPsi(), point)) {
+            return builder.status(RvIprBatchResultDto.STATUS_NO_FLOW).build();
+        }
+        return builder.status(RvIprBatchResultDto.STATUS_OK)
+            .operatingRateBopd(point[0])
+            .operatingPwfPsi(point[1])
+            .build();
     }
 
     private BigDecimal calculateFlowEfficiency(BigDecimal skin, BigDecimal pr, BigDecimal pwf) {
@@ -411,6 +507,7 @@ public class RvIprModelService {
 
         if (!attrs.isEmpty()) {
             rvAttributeService.saveServerAttributes(dto.getAssetId(), attrs);
+            curveCache.remove(dto.getAssetId());
         }
     }
 
@@ -24,6 +24,8 @@ import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageImpl;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.stereotype.Service;
+import org.thingsboard.nexus.rv.dto.RvAquiferFitRequest;
+import org.thingsboard.nexus.rv.dto.RvAquiferFitResultDto;
 import org.thingsboard.nexus.rv.dto.RvMaterialBalanceDto;
 import org.thingsboard.nexus.rv.dto.RvMaterialBalanceDto.MaterialBalanceDataPoint;
 import org.thingsboard.nexus.rv.exception.RvCalculationException;
@@ -32,6 +34,7 @@ import java.math.BigDecimal;
 import java.math.MathContext;
 import java.math.RoundingMode;
 import java.util.*;
+import java.util.stream.IntStream;
 
 /**
  * Service for Material Balance calculations using the Havlena-Odeh method.
@@ -58,6 +61,14 @@ public class RvMaterialBalanceService {
 
     private static final MathContext MC = new MathContext(10, RoundingMode.HALF_UP);
     private static final int SCALE = 8;
+    private static final double DEFAULT_TIME_STEP_DAYS = 30.0;
+    private static final int DEFAULT_TOP_CANDIDATES = 10;
+    private static final int MAX_FIT_CANDIDATES = 2_000_000;
+    private static final int MAX_GRID_STEPS = 200;
+
+    private static final byte MODEL_NONE = 0;
+    private static final byte MODEL_FETKOVICH = 1;
+    private static final byte MODEL_CARTER_TRACY = 2;
 
     /**
      * Calculate Material Balance terms for each data point.
@@ -66,80 +77,25 @@ public class RvMaterialBalanceService {
     public RvMaterialBalanceDto calculateMBETerms(RvMaterialBalanceDto study) {
         log.info("Calculating MBE terms for study: {}", study.getName());
 
-        if (study.getDataPoints() == null || study.getDataPoints().isEmpty()) {
-            throw new RvCalculationException("No data points provided for material balance calculation");
-        }
-
-        validateInitialConditions(study);
+        RvMaterialBalanceSolver.Series series = RvMaterialBalanceSolver.prepare(study, DEFAULT_TIME_STEP_DAYS);
+        applyMBETerms(study, series);
 
-        BigDecimal Boi = study.getInitialBo();
-        BigDecimal Bgi = study.getInitialBg();
-        BigDecimal Rsi = study.getInitialRs();
-        BigDecimal Pi = study.getInitialPressure();
-        BigDecimal Swi = study.getInitialWaterSaturation();
-        BigDecimal cw = study.getWaterCompressibility();
-        BigDecimal cf = study.getRockCompressibility();
-        BigDecimal m = study.getGasCapRatio() != null ? study.getGasCapRatio() : BigDecimal.ZERO;
+        return study;
+    }
 
-        for (MaterialBalanceDataPoint dp : study.getDataPoints()) {
-            // Get PVT properties at this pressure
-            BigDecimal Bo = dp.getBo();
-            BigDecimal Bg = dp.getBg();
-            BigDecimal Rs = dp.getRs();
-            BigDecimal Bw = dp.getBw() != null ? dp.getBw() : BigDecimal.ONE;
-
-            BigDecimal Np = dp.getCumulativeOilProduction() != null ? dp.getCumulativeOilProduction() : BigDecimal.ZERO;
-            BigDecimal Gp = dp.getCumulativeGasProduction() != null ? dp.getCumulativeGasProduction() : BigDecimal.ZERO;
-            BigDecimal Wp = dp.getCumulativeWaterProduction() != null ? dp.getCumulativeWaterProduction() : BigDecimal.ZERO;
-            BigDecimal Wi = dp.getCumulativeWaterInjection() != null ? dp.getCumulativeWaterInjection() : BigDecimal.ZERO;
-            BigDecimal Gi = dp.getCumulativeGasInjection() != null ? dp.getCumulativeGasInjection() : BigDecimal.ZERO;
-
-            // Calculate F - Underground withdrawal
-            // F = Np*Bo + (Gp - Np*Rs)*Bg + Wp*Bw - Wi*Bw - Gi*Bg
-            // Note: Gp is in Bcf, convert to MMscf for consistency with Bo units
-            BigDecimal GpMmscf = Gp.multiply(new BigDecimal("1000")); // Bcf to MMscf
-            BigDecimal F = Np.multiply(Bo)
-                    .add(GpMmscf.subtract(Np.multiply(Rs)).multiply(Bg))
-                    .add(Wp.multiply(Bw))
-                    .subtract(Wi.multiply(Bw))
-                    .subtract(Gi.multiply(new BigDecimal("1000")).multiply(Bg));
-            dp.setF(F.setScale(SCALE, RoundingMode.HALF_UP));
-
-            // Calculate Eo - Oil expansion
-            // Eo = (Bo - Boi) + (Rsi - Rs)*Bg
-            BigDecimal Eo = Bo.subtract(Boi)
-                    .add(Rsi.subtract(Rs).multiply(Bg));
-            dp.setEo(Eo.setScale(SCALE, RoundingMode.HALF_UP));
-
-            // Calculate Eg - Gas cap expansion
-            // Eg = Boi * (Bg/Bgi - 1)
-            BigDecimal Eg = BigDecimal.ZERO;
-            if (Bgi != null && Bgi.compareTo(BigDecimal.ZERO) > 0) {
-                Eg = Boi.multiply(Bg.divide(Bgi, MC).subtract(BigDecimal.ONE));
-            }
-            dp.setEg(Eg.setScale(SCALE, RoundingMode.HALF_UP));
-
-            // Calculate Efw - Formation and water expansion
-            // Efw = (1 + m)*Boi*[(cw*Swi + cf)/(1-Swi)]*ΔP
-            BigDecimal deltaP = Pi.subtract(dp.getPressure());
-            BigDecimal Efw = BigDecimal.ZERO;
-            if (cw != null && cf != null && Swi != null) {
-                BigDecimal numerator = cw.multiply(Swi).add(cf);
-                BigDecimal denominator = BigDecimal.ONE.subtract(Swi);
-                if (denominator.compareTo(BigDecimal.ZERO) > 0) {
-                    Efw = BigDecimal.ONE.add(m)
-                            .multiply(Boi)
-                            .multiply(numerator.divide(denominator, MC))
-                            .multiply(deltaP);
-                }
-            }
-            dp.setEfw(Efw.setScale(SCALE, RoundingMode.HALF_UP));
+    private void applyMBETerms(RvMaterialBalanceDto study, RvMaterialBalanceSolver.Series series) {
+        double m = gasCapRatio(study);
+        List<MaterialBalanceDataPoint> dataPoints = study.getDataPoints();
+        for (int i = 0; i < series.n; i++) {
+            MaterialBalanceDataPoint dp = dataPoints.get(i);
+            dp.setF(toBigDecimal(series.f[i], SCALE));
+            dp.setEo(toBigDecimal(series.eo[i], SCALE));
+            dp.setEg(toBigDecimal(series.eg[i], SCALE));
+            dp.setEfw(toBigDecimal(series.efw(i, m), SCALE));
 
             log.debug("Data point at P={}: F={}, Eo={}, Eg={}, Efw={}",
                     dp.getPressure(), dp.getF(), dp.getEo(), dp.getEg(), dp.getEfw());
         }
-
-        return study;
     }
 
     /**
@@ -161,61 +117,55 @@ public class RvMaterialBalanceService {
         log.info("Performing Havlena-Odeh analysis for study: {}", study.getName());
 
         // First calculate MBE terms
-        calculateMBETerms(study);
+        RvMaterialBalanceSolver.Series series = RvMaterialBalanceSolver.prepare(study, DEFAULT_TIME_STEP_DAYS);
+        applyMBETerms(study, series);
 
         List<MaterialBalanceDataPoint> dataPoints = study.getDataPoints();
         if (dataPoints.size() < 3) {
             throw new RvCalculationException("At least 3 data points required for Havlena-Odeh analysis");
         }
 
-        BigDecimal m = study.getGasCapRatio() != null ? study.getGasCapRatio() : BigDecimal.ZERO;
+        double m = gasCapRatio(study);
         boolean hasGasCap = study.getHasGasCap() != null && study.getHasGasCap();
         boolean hasAquifer = study.getHasAquiferSupport() != null && study.getHasAquiferSupport();
 
         // Determine plot type based on reservoir characteristics
         String plotType;
-        List<BigDecimal> xValues = new ArrayList<>();
-        List<BigDecimal> yValues = new ArrayList<>();
-
-        if (!hasGasCap && !hasAquifer) {
-            // Simple depletion: F vs Eo (+ Efw)
-            plotType = RvMaterialBalanceDto.PLOT_F_VS_EO;
-            for (MaterialBalanceDataPoint dp : dataPoints) {
-                BigDecimal x = dp.getEo().add(dp.getEfw());
-                BigDecimal y = dp.getF();
-                dp.setXAxis(x);
-                dp.setYAxis(y);
-                if (x.compareTo(BigDecimal.ZERO) > 0) {
-                    xValues.add(x);
-                    yValues.add(y);
-                }
-            }
-        } else if (hasGasCap && !hasAquifer) {
-            // Gas cap drive: F vs (Eo + m*Eg + Efw)
-            plotType = RvMaterialBalanceDto.PLOT_F_VS_EO_EG;
-            for (MaterialBalanceDataPoint dp : dataPoints) {
-                BigDecimal x = dp.getEo().add(m.multiply(dp.getEg())).add(dp.getEfw());
-                BigDecimal y = dp.getF();
-                dp.setXAxis(x);
-                dp.setYAxis(y);
-                if (x.compareTo(BigDecimal.ZERO) > 0) {
-                    xValues.add(x);
-                    yValues.add(y);
+        double[] xValues = new double[series.n];
+        double[] yValues = new double[series.n];
+        int count = 0;
+
+        if (!hasAquifer) {
+            // Simple depletion: F vs Eo (+ Efw); gas cap drive: F vs (Eo + m*Eg + Efw)
+            plotType = hasGasCap ? RvMaterialBalanceDto.PLOT_F_VS_EO_EG : RvMaterialBalanceDto.PLOT_F_VS_EO;
+            double mPlot = hasGasCap ? m : 0.0;
+            for (int i = 0; i < series.n; i++) {
+                double x = series.eo[i] + mPlot * series.eg[i] + series.efw(i, m);
+                double y = series.f[i];
+                MaterialBalanceDataPoint dp = dataPoints.get(i);
+                dp.setXAxis(toBigDecimal(x, SCALE));
+                dp.setYAxis(toBigDecimal(y, SCALE));
+                if (x > 0) {
+                    xValues[count] = x;
+                    yValues[count] = y;
+                    count++;
                 }
             }
         } else {
             // Water drive: F/Eo vs We/Eo (requires We calculation)
             plotType = RvMaterialBalanceDto.PLOT_F_EO_VS_EW_EF;
-            // For now, use simplified approach without aquifer model
-            for (MaterialBalanceDataPoint dp : dataPoints) {
-                // Check for Eo > 0 BEFORE division to avoid ArithmeticException
-                if (dp.getEo() != null && dp.getEo().compareTo(BigDecimal.ZERO) > 0) {
-                    BigDecimal x = dp.getEfw().divide(dp.getEo(), MC);
-                    BigDecimal y = dp.getF().divide(dp.getEo(), MC);
-                    dp.setXAxis(x);
-                    dp.setYAxis(y);
-                    xValues.add(x);
-                    yValues.add(y);
+            // For now, use simplified approach without aquifer model; see fitAquiferModel for the full sweep
+            for (int i = 0; i < series.n; i++) {
+                double eo = series.eo[i];
+                if (eo > 0) {
+                    double x = series.efw(i, m) / eo;
+                    double y = series.f[i] / eo;
+                    MaterialBalanceDataPoint dp = dataPoints.get(i);
+                    dp.setXAxis(toBigDecimal(x, SCALE));
+                    dp.setYAxis(toBigDecimal(y, SCALE));
+                    xValues[count] = x;
+                    yValues[count] = y;
+                    count++;
                 }
             }
         }
@@ -223,42 +173,326 @@ public class RvMaterialBalanceService {
         study.setPlotType(plotType);
 
         // Perform linear regression
-        LinearRegressionResult regression = performLinearRegression(xValues, yValues);
+        RvMaterialBalanceSolver.Regression regression = RvMaterialBalanceSolver.linearRegression(xValues, yValues, count);
+        double r2 = Math.min(Math.max(regression.r2, 0.0), 1.0);
 
-        study.setRegressionSlope(regression.slope);
-        study.setRegressionIntercept(regression.intercept);
-        study.setRegressionR2(regression.r2);
+        study.setRegressionSlope(toBigDecimal(regression.slope, SCALE));
+        study.setRegressionIntercept(toBigDecimal(regression.intercept, SCALE));
+        study.setRegressionR2(toBigDecimal(r2, 4));
 
         // Interpret results
         if (plotType.equals(RvMaterialBalanceDto.PLOT_F_VS_EO) ||
             plotType.equals(RvMaterialBalanceDto.PLOT_F_VS_EO_EG)) {
             // Slope = N (OOIP in same units as F, typically MMbbl)
-            study.setCalculatedOOIP(regression.slope.setScale(4, RoundingMode.HALF_UP));
+            study.setCalculatedOOIP(toBigDecimal(regression.slope, 4));
         } else {
             // Intercept = N for water drive plot
-            study.setCalculatedOOIP(regression.intercept.setScale(4, RoundingMode.HALF_UP));
+            study.setCalculatedOOIP(toBigDecimal(regression.intercept, 4));
         }
 
         // Calculate drive indices
         calculateDriveIndices(study);
 
         // Assess analysis quality based on R²
-        if (regression.r2.compareTo(new BigDecimal("0.95")) >= 0) {
-            study.setAnalysisQuality("EXCELLENT");
-        } else if (regression.r2.compareTo(new BigDecimal("0.85")) >= 0) {
-            study.setAnalysisQuality("GOOD");
-        } else if (regression.r2.compareTo(new BigDecimal("0.70")) >= 0) {
-            study.setAnalysisQuality("FAIR");
-        } else {
-            study.setAnalysisQuality("POOR");
-        }
+        study.setAnalysisQuality(assessQuality(r2));
 
         log.info("Havlena-Odeh analysis complete: OOIP={} MMSTB, R²={}, Quality={}",
-                study.getCalculatedOOIP(), regression.r2, study.getAnalysisQuality());
+                study.getCalculatedOOIP(), study.getRegressionR2(), study.getAnalysisQuality());
 
         return study;
     }
 
+    /**
+     * Automatic aquifer and gas cap fit.
+     *
+     * Sweeps every combination of gas cap ratio m and Fetkovich (J, Wei) / Carter-Tracy (B, tD factor)
+     * parameters in parallel, fits F - We = N*Et for each one and returns the candidate with the
+     * smallest residual together with its Havlena-Odeh diagnostics and the top-ranked alternatives.
+     * The MBE terms are computed once; each candidate only recomputes its influx series.
+     */
+    public RvAquiferFitResultDto fitAquiferModel(RvAquiferFitRequest request) {
+        long start = System.nanoTime();
+        RvMaterialBalanceDto study = request.getStudy();
+        if (study == null) {
+            throw new RvCalculationException(RvCalculationException.CALC_MATERIAL_BALANCE, "Study is required for aquifer fitting");
+        }
+        log.info("Fitting aquifer model for study: {}", study.getName());
+
+        double timeStep = request.getDefaultTimeStepDays() != null ? request.getDefaultTimeStepDays() : DEFAULT_TIME_STEP_DAYS;
+        RvMaterialBalanceSolver.Series series = RvMaterialBalanceSolver.prepare(study, timeStep);
+        if (series.n < 3) {
+            throw new RvCalculationException("At least 3 data points required for Havlena-Odeh analysis");
+        }
+
+        double studyM = gasCapRatio(study);
+        double[] mGrid = linearGrid(
+                request.getGasCapRatioMin() != null ? request.getGasCapRatioMin() : studyM,
+                request.getGasCapRatioMax() != null ? request.getGasCapRatioMax() : studyM,
+                request.getGasCapRatioSteps(), "Gas cap ratio");
+
+        List<String> models = request.getAquiferModels() == null || request.getAquiferModels().isEmpty()
+                ? List.of(RvAquiferFitResultDto.AQUIFER_NONE, RvMaterialBalanceDto.AQUIFER_FETKOVICH, RvMaterialBalanceDto.AQUIFER_CARTER_TRACY)
+                : request.getAquiferModels();
+
+        // Flatten the search space into primitive columns: model, m, first and second aquifer parameter
+        double[] fetJ = logGrid(request.getFetkovichProductivityIndexMin(), request.getFetkovichProductivityIndexMax(),
+                request.getFetkovichProductivityIndexSteps(), 1e-4, 1e-1, 20, "Fetkovich productivity index");
+        double[] fetWei = logGrid(request.getFetkovichEncroachableWaterMin(), request.getFetkovichEncroachableWaterMax(),
+                request.getFetkovichEncroachableWaterSteps(), 10.0, 10000.0, 20, "Fetkovich encroachable water");
+        double[] ctB = logGrid(request.getCarterTracyAquiferConstantMin(), request.getCarterTracyAquiferConstantMax(),
+                request.getCarterTracyAquiferConstantSteps(), 1e-3, 10.0, 20, "Carter-Tracy aquifer constant");
+        double[] ctTd = logGrid(request.getCarterTracyTdPerDayMin(), request.getCarterTracyTdPerDayMax(),
+                request.getCarterTracyTdPerDaySteps(), 1e-2, 100.0, 20, "Carter-Tracy tD per day");
+
+        long perM = 0;
+        for (String model : models) {
+            perM += switch (model) {
+                case RvAquiferFitResultDto.AQUIFER_NONE -> 1;
+                case RvMaterialBalanceDto.AQUIFER_FETKOVICH -> fetJ.length * fetWei.length;
+                case RvMaterialBalanceDto.AQUIFER_CARTER_TRACY -> ctB.length * ctTd.length;
+                default -> throw new RvCalculationException(RvCalculationException.CALC_MATERIAL_BALANCE,
+                        "Unsupported aquifer model for fitting: " + model);
+            };
+        }
+        long candidates = perM * mGrid.length;
+        if (candidates > MAX_FIT_CANDIDATES) {
+            throw new RvCalculationException(RvCalculationException.CALC_MATERIAL_BALANCE,
+                    "Aquifer fit search space too large: " + candidates + " candidates (max " + MAX_FIT_CANDIDATES + ")");
+        }
+        int total = (int) candidates;
+
+        byte[] candidateModel = new byte[total];
+        double[] candidateM = new double[total];
+        double[] candidateA = new double[total];
+        double[] candidateB = new double[total];
+        int c = 0;
+        for (double m : mGrid) {
+            for (String model : models) {
+                if (RvMaterialBalanceDto.AQUIFER_FETKOVICH.equals(model)) {
+                    for (double j : fetJ) {
+                        for (double wei : fetWei) {
+                            candidateModel[c] = MODEL_FETKOVICH;
+                            candidateM[c] = m;
+                            candidateA[c] = j;
+                            candidateB[c++] = wei;
+                        }
+                    }
+                } else if (RvMaterialBalanceDto.AQUIFER_CARTER_TRACY.equals(model)) {
+                    for (double b : ctB) {
+                        for (double td : ctTd) {
+                            candidateModel[c] = MODEL_CARTER_TRACY;
+                            candidateM[c] = m;
+                            candidateA[c] = b;
+                            candidateB[c++] = td;
+                        }
+                    }
+                } else {
+                    candidateModel[c] = MODEL_NONE;
+                    candidateM[c++] = m;
+                }
+            }
+        }
+
+        double[] ooip = new double[total];
+        double[] sse = new double[total];
+        double[] r2 = new double[total];
+        ThreadLocal<double[]> influxScratch = ThreadLocal.withInitial(() -> new double[series.n]);
+        ThreadLocal<double[]> fitScratch = ThreadLocal.withInitial(() -> new double[3]);
+
+        IntStream.range(0, total).parallel().forEach(i -> {
+            double[] we = influxScratch.get();
+            double[] fit = fitScratch.get();
+            computeInflux(series, candidateModel[i], candidateA[i], candidateB[i], we);
+            RvMaterialBalanceSolver.fitOoip(series, candidateM[i], we, fit);
+            ooip[i] = fit[0];
+            sse[i] = fit[0] > 0 ? fit[1] : Double.POSITIVE_INFINITY;
+            r2[i] = fit[2];
+        });
+
+        int topN = request.getTopCandidates() != null ? request.getTopCandidates() : DEFAULT_TOP_CANDIDATES;
+        Integer[] order = new Integer[total];
+        for (int i = 0; i < total; i++) {
+            order[i] = i;
+        }
+        Arrays.sort(order, Comparator.comparingDouble(i -> sse[i]));
+        int best = order[0];
+        if (!Double.isFinite(sse[best])) {
+            throw new RvCalculationException(RvCalculationException.CALC_MATERIAL_BALANCE,
+                    "No aquifer candidate produced a positive OOIP");
+        }
+
+        List<RvAquiferFitResultDto.Candidate> ranking = new ArrayList<>(Math.min(topN, total));
+        for (int k = 0; k < Math.min(topN, total) && Double.isFinite(sse[order[k]]); k++) {
+            int i = order[k];
+            ranking.add(RvAquiferFitResultDto.Candidate.builder()
+                    .aquiferModel(modelName(candidateModel[i]))
+                    .gasCapRatio(candidateM[i])
+                    .aquiferParameters(aquiferParameters(candidateModel[i], candidateA[i], candidateB[i]))
+                    .calculatedOOIP(ooip[i])
+                    .r2(r2[i])
+                    .rmse(Math.sqrt(sse[i] / series.n))
+                    .build());
+        }
+
+        // Diagnostics for the winner
+        double bestM = candidateM[best];
+        double[] we = new double[series.n];
+        double[] et = new double[series.n];
+        computeInflux(series, candidateModel[best], candidateA[best], candidateB[best], we);
+        double[] x = new double[series.n];
+        double[] y = new double[series.n];
+        int count = 0;
+        for (int i = 0; i < series.n; i++) {
+            et[i] = series.et(i, bestM);
+            if (et[i] > 0) {
+                x[count] = we[i] / et[i];
+                y[count] = series.f[i] / et[i];
+                count++;
+            }
+        }
+
+        RvAquiferFitResultDto result = RvAquiferFitResultDto.builder()
+                .aquiferModel(modelName(candidateModel[best]))
+                .gasCapRatio(bestM)
+                .aquiferParameters(aquiferParameters(candidateModel[best], candidateA[best], candidateB[best]))
+                .calculatedOOIP(ooip[best])
+                .r2(r2[best])
+                .rmse(Math.sqrt(sse[best] / series.n))
+                .waterInflux(we)
+                .totalExpansion(et)
+                .undergroundWithdrawal(series.f.clone())
+                .analysisQuality(assessQuality(r2[best]))
+                .ranking(ranking)
+                .candidatesEvaluated(total)
+                .build();
+
+        if (candidateModel[best] != MODEL_NONE && count >= 3) {
+            try {
+                RvMaterialBalanceSolver.Regression regression = RvMaterialBalanceSolver.linearRegression(x, y, count);
+                result.setHavlenaOdehSlope(regression.slope);
+                result.setHavlenaOdehIntercept(regression.intercept);
+                result.setHavlenaOdehR2(regression.r2);
+                result.setHavlenaOdehSlopeStdError(regression.slopeStdError);
+                result.setHavlenaOdehInterceptStdError(regression.interceptStdError);
+            } catch (RvCalculationException e) {
+                log.debug("Havlena-Odeh diagnostics not available for best candidate: {}", e.getMessage());
+            }
+        }
+
+        result.setElapsedMs((System.nanoTime() - start) / 1_000_000);
+        log.info("Aquifer fit complete: model={}, m={}, OOIP={} MMSTB, R²={}, candidates={}, {} ms",
+                result.getAquiferModel(), bestM, ooip[best], r2[best], total, result.getElapsedMs());
+        return result;
+    }
+
+    private static void computeInflux(RvMaterialBalanceSolver.Series series, byte model, double a, double b, double[] out) {
+        switch (model) {
+            case MODEL_FETKOVICH -> RvMaterialBalanceSolver.fetkovichInflux(series, a, b, out);
+            case MODEL_CARTER_TRACY -> RvMaterialBalanceSolver.carterTracyInflux(series, a, b, out);
+            default -> Arrays.fill(out, 0, series.n, 0.0);
+        }
+    }
+
+    private static String modelName(byte model) {
+        return switch (model) {
+            case MODEL_FETKOVICH -> RvMaterialBalanceDto.AQUIFER_FETKOVICH;
+            case MODEL_CARTER_TRACY -> RvMaterialBalanceDto.AQUIFER_CARTER_TRACY;
+            default -> RvAquiferFitResultDto.AQUIFER_NONE;
+        };
+    }
+
+    private static Map<String, Double> aquiferParameters(byte model, double a, double b) {
+        return switch (model) {
+            case MODEL_FETKOVICH -> Map.of(RvAquiferFitResultDto.PARAM_PRODUCTIVITY_INDEX, a,
+                    RvAquiferFitResultDto.PARAM_ENCROACHABLE_WATER, b);
+            case MODEL_CARTER_TRACY -> Map.of(RvAquiferFitResultDto.PARAM_AQUIFER_CONSTANT, a,
+                    RvAquiferFitResultDto.PARAM_TD_PER_DAY, b);
+            default -> Map.of();
+        };
+    }
+
+    /**
+     * Linear grid for the gas cap ratio; the range must be finite and non-negative.
+     */
+    private static double[] linearGrid(double min, double max, Integer steps, String name) {
+        if (!(min >= 0) || !(max >= 0) || Double.isInfinite(min) || Double.isInfinite(max)) {
+            throw new RvCalculationException(RvCalculationException.CALC_MATERIAL_BALANCE,
+                    name + " range must be finite and >= 0: [" + min + ", " + max + "]");
+        }
+        int n = gridSteps(steps, 1, name);
+        return linearGrid(min, max, n);
+    }
+
+    private static double[] linearGrid(double min, double max, int steps) {
+        if (steps <= 1 || max <= min) {
+            return new double[]{min};
+        }
+        double[] grid = new double[steps];
+        double step = (max - min) / (steps - 1);
+        for (int i = 0; i < steps; i++) {
+            grid[i] = min + i * step;
+        }
+        return grid;
+    }
+
+    /**
+     * Logarithmic grid for an aquifer parameter; the range must be finite and positive.
+     */
+    private static double[] logGrid(Double min, Double max, Integer steps,
+                                    double defaultMin, double defaultMax, int defaultSteps, String name) {
+        double lo = min != null ? min : defaultMin;
+        double hi = max != null ? max : defaultMax;
+        if (!(lo > 0) || !(hi > 0) || Double.isInfinite(lo) || Double.isInfinite(hi)) {
+            throw new RvCalculationException(RvCalculationException.CALC_MATERIAL_BALANCE,
+                    name + " range must be finite and > 0: [" + lo + ", " + hi + "]");
+        }
+        int n = gridSteps(steps, defaultSteps, name);
+        if (n <= 1 || hi <= lo) {
+            return new double[]{lo};
+        }
+        double[] grid = new double[n];
+        double logLo = Math.log(lo);
+        double step = (Math.log(hi) - logLo) / (n - 1);
+        for (int i = 0; i < n; i++) {
+            grid[i] = Math.exp(logLo + i * step);
+        }
+        return grid;
+    }
+
+    /**
+     * Checks the requested number of grid steps before any grid or candidate array is allocated.
+     */
+    private static int gridSteps(Integer steps, int defaultSteps, String name) {
+        int n = steps != null ? steps : defaultSteps;
+        if (n < 1 || n > MAX_GRID_STEPS) {
+            throw new RvCalculationException(RvCalculationException.CALC_MATERIAL_BALANCE,
+                    name + " steps must be between 1 and " + MAX_GRID_STEPS + ": " + n);
+        }
+        return n;
+    }
+
+    private static double gasCapRatio(RvMaterialBalanceDto study) {
+        return study.getGasCapRatio() != null ? study.getGasCapRatio().doubleValue() : 0.0;
+    }
+
+    private static String assessQuality(double r2) {
+        if (r2 >= 0.95) {
+            return "EXCELLENT";
+        } else if (r2 >= 0.85) {
+            return "GOOD";
+        } else if (r2 >= 0.70) {
+            return "FAIR";
+        }
+        return "POOR";
+    }
+
+    private static BigDecimal toBigDecimal(double value, int scale) {
+        if (!Double.isFinite(value)) {
+            throw new RvCalculationException(RvCalculationException.CALC_MATERIAL_BALANCE, "Non-finite result: " + value);
+        }
+        return BigDecimal.valueOf(value).setScale(scale, RoundingMode.HALF_UP);
+    }
+
     /**
      * Calculate Drive Mechanism Indices.
      * These indices indicate the relative contribution of each drive mechanism.
@@ -359,90 +593,6 @@ public class RvMaterialBalanceService {
         return B.multiply(deltaPressure).multiply(pD);
     }
 
-    /**
-     * Simple linear regression for Havlena-Odeh plot.
-     */
-    private LinearRegressionResult performLinearRegression(List<BigDecimal> xValues, List<BigDecimal> yValues) {
-        if (xValues.size() != yValues.size() || xValues.isEmpty()) {
-            throw new RvCalculationException("Invalid data for regression");
-        }
-
-        int n = xValues.size();
-        BigDecimal sumX = BigDecimal.ZERO;
-        BigDecimal sumY = BigDecimal.ZERO;
-        BigDecimal sumXY = BigDecimal.ZERO;
-        BigDecimal sumX2 = BigDecimal.ZERO;
-        BigDecimal sumY2 = BigDecimal.ZERO;
-
-        for (int i = 0; i < n; i++) {
-            BigDecimal x = xValues.get(i);
-            BigDecimal y = yValues.get(i);
-            sumX = sumX.add(x);
-            sumY = sumY.add(y);
-            sumXY = sumXY.add(x.multiply(y));
-            sumX2 = sumX2.add(x.multiply(x));
-            sumY2 = sumY2.add(y.multiply(y));
-        }
-
-        BigDecimal nBD = new BigDecimal(n);
-
-        // slope = (n*sumXY - sumX*sumY) / (n*sumX2 - sumX²)
-        BigDecimal numerator = nBD.multiply(sumXY).subtract(sumX.multiply(sumY));
-        BigDecimal denominator = nBD.multiply(sumX2).subtract(sumX.multiply(sumX));
-
-        if (denominator.compareTo(BigDecimal.ZERO) == 0) {
-            throw new RvCalculationException("Cannot perform regression: denominator is zero");
-        }
-
-        BigDecimal slope = numerator.divide(denominator, MC);
-
-        // intercept = (sumY - slope*sumX) / n
-        BigDecimal intercept = sumY.subtract(slope.multiply(sumX)).divide(nBD, MC);
-
-        // R² = [n*sumXY - sumX*sumY]² / [(n*sumX2 - sumX²) * (n*sumY2 - sumY²)]
-        BigDecimal ssxy = numerator;
-        BigDecimal ssx = denominator;
-        BigDecimal ssy = nBD.multiply(sumY2).subtract(sumY.multiply(sumY));
-
-        BigDecimal r2 = BigDecimal.ZERO;
-        if (ssx.compareTo(BigDecimal.ZERO) > 0 && ssy.compareTo(BigDecimal.ZERO) > 0) {
-            r2 = ssxy.multiply(ssxy).divide(ssx.multiply(ssy), MC);
-        }
-
-        return new LinearRegressionResult(
-                slope.setScale(SCALE, RoundingMode.HALF_UP),
-                intercept.setScale(SCALE, RoundingMode.HALF_UP),
-                r2.setScale(4, RoundingMode.HALF_UP)
-        );
-    }
-
-    private void validateInitialConditions(RvMaterialBalanceDto study) {
-        if (study.getInitialPressure() == null) {
-            throw new RvCalculationException("Initial pressure (Pi) is required");
-        }
-        if (study.getInitialBo() == null) {
-            throw new RvCalculationException("Initial oil FVF (Boi) is required");
-        }
-        if (study.getInitialRs() == null) {
-            throw new RvCalculationException("Initial solution GOR (Rsi) is required");
-        }
-    }
-
-    /**
-     * Helper class for regression results
-     */
-    private static class LinearRegressionResult {
-        final BigDecimal slope;
-        final BigDecimal intercept;
-        final BigDecimal r2;
-
-        LinearRegressionResult(BigDecimal slope, BigDecimal intercept, BigDecimal r2) {
-            this.slope = slope;
-            this.intercept = intercept;
-            this.r2 = r2;
-        }
-    }
-
     // ========== CRUD Operations ==========
 
     public Page<RvMaterialBalanceDto> getAllMaterialBalanceStudies(UUID tenantId, int page, int size) {
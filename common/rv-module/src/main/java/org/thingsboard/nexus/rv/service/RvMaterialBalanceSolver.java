@@ -0,0 +1,386 @@
+/**
+ * Copyright © 2016-2026 The Thingsboard Authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.thingsboard.nexus.rv.service;
+
+import org.thingsboard.nexus.rv.dto.RvMaterialBalanceDto;
+import org.thingsboard.nexus.rv.dto.RvMaterialBalanceDto.MaterialBalanceDataPoint;
+import org.thingsboard.nexus.rv.exception.RvCalculationException;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.format.DateTimeParseException;
+import java.time.temporal.ChronoUnit;
+import java.util.List;
+
+/**
+ * Primitive-double Material Balance engine.
+ *
+ * Converts a {@link RvMaterialBalanceDto} once into column arrays (pressure, time, F, Eo, Eg, Efw)
+ * and evaluates MBE terms, aquifer influx models and least-squares fits without any
+ * {@link BigDecimal} arithmetic. The service layer only converts back to {@link BigDecimal}
+ * at the DTO boundary.
+ *
+ * Influx volumes are expressed in the same reservoir units as F (MMbbl), so aquifer
+ * constants must be supplied in MMbbl/psi (Carter-Tracy B) or MMbbl/day/psi (Fetkovich J).
+ */
+public final class RvMaterialBalanceSolver {
+
+    private static final double BCF_TO_MMSCF = 1000.0;
+
+    private RvMaterialBalanceSolver() {
+    }
+
+    /**
+     * Column view of a study's data points with pre-computed MBE terms.
+     * Efw is stored per unit (1 + m) so gas cap ratio sweeps do not need to recompute it.
+     */
+    public static final class Series {
+        public final int n;
+        public final double pi;
+        public final double[] pressure;
+        public final double[] timeDays;
+        public final double[] f;
+        public final double[] eo;
+        public final double[] eg;
+        public final double[] efwUnit;
+
+        Series(int n, double pi) {
+            this.n = n;
+            this.pi = pi;
+            this.pressure = new double[n];
+            this.timeDays = new double[n];
+            this.f = new double[n];
+            this.eo = new double[n];
+            this.eg = new double[n];
+            this.efwUnit = new double[n];
+        }
+
+        public double efw(int i, double m) {
+            return (1.0 + m) * efwUnit[i];
+        }
+
+        /**
+         * Total expansion Et = Eo + m*Eg + Efw.
+         */
+        public double et(int i, double m) {
+            return eo[i] + m * eg[i] + (1.0 + m) * efwUnit[i];
+        }
+    }
+
+    /**
+     * Least-squares diagnostics.
+     */
+    public static final class Regression {
+        public final int n;
+        public final double slope;
+        public final double intercept;
+        public final double r2;
+        public final double rmse;
+        public final double slopeStdError;
+        public final double interceptStdError;
+
+        Regression(int n, double slope, double intercept, double r2, double rmse,
+                   double slopeStdError, double interceptStdError) {
+            this.n = n;
+            this.slope = slope;
+            this.intercept = intercept;
+            this.r2 = r2;
+            this.rmse = rmse;
+            this.slopeStdError = slopeStdError;
+            this.interceptStdError = interceptStdError;
+        }
+    }
+
+    /**
+     * Builds the column series and MBE terms for a study.
+     *
+     * @param study               study with initial conditions and data points
+     * @param defaultTimeStepDays spacing used when data point dates are missing or unparsable
+     */
+    public static Series prepare(RvMaterialBalanceDto study, double defaultTimeStepDays) {
+        List<MaterialBalanceDataPoint> points = study.getDataPoints();
+        if (points == null || points.isEmpty()) {
+            throw new RvCalculationException("No data points provided for material balance calculation");
+        }
+        if (study.getInitialPressure() == null) {
+            throw new RvCalculationException("Initial pressure (Pi) is required");
+        }
+        if (study.getInitialBo() == null) {
+            throw new RvCalculationException("Initial oil FVF (Boi) is required");
+        }
+        if (study.getInitialRs() == null) {
+            throw new RvCalculationException("Initial solution GOR (Rsi) is required");
+        }
+
+        double pi = study.getInitialPressure().doubleValue();
+        double boi = study.getInitialBo().doubleValue();
+        double rsi = study.getInitialRs().doubleValue();
+        double bgi = value(study.getInitialBg(), 0.0);
+
+        // (cw*Swi + cf)/(1 - Swi); only defined when all three are supplied
+        double compressibilityTerm = 0.0;
+        if (study.getWaterCompressibility() != null && study.getRockCompressibility() != null
+                && study.getInitialWaterSaturation() != null) {
+            double swi = study.getInitialWaterSaturation().doubleValue();
+            double denominator = 1.0 - swi;
+            if (denominator > 0) {
+                compressibilityTerm = (study.getWaterCompressibility().doubleValue() * swi
+                        + study.getRockCompressibility().doubleValue()) / denominator;
+            }
+        }
+
+        int n = points.size();
+        Series s = new Series(n, pi);
+        fillElapsedDays(points, s.timeDays, defaultTimeStepDays);
+
+        for (int i = 0; i < n; i++) {
+            MaterialBalanceDataPoint dp = points.get(i);
+            if (dp.getPressure() == null || dp.getBo() == null || dp.getBg() == null || dp.getRs() == null) {
+                throw new RvCalculationException(RvCalculationException.CALC_MATERIAL_BALANCE,
+                        "Data point " + i + " requires pressure, Bo, Bg and Rs");
+            }
+            double p = dp.getPressure().doubleValue();
+            double bo = dp.getBo().doubleValue();
+            double bg = dp.getBg().doubleValue();
+            double rs = dp.getRs().doubleValue();
+            double bw = value(dp.getBw(), 1.0);
+
+            double np = value(dp.getCumulativeOilProduction(), 0.0);
+            double gp = value(dp.getCumulativeGasProduction(), 0.0) * BCF_TO_MMSCF;
+            double wp = value(dp.getCumulativeWaterProduction(), 0.0);
+            double wi = value(dp.getCumulativeWaterInjection(), 0.0);
+            double gi = value(dp.getCumulativeGasInjection(), 0.0) * BCF_TO_MMSCF;
+
+            s.pressure[i] = p;
+            // F = Np*Bo + (Gp - Np*Rs)*Bg + Wp*Bw - Wi*Bw - Gi*Bg
+            s.f[i] = np * bo + (gp - np * rs) * bg + wp * bw - wi * bw - gi * bg;
+            // Eo = (Bo - Boi) + (Rsi - Rs)*Bg
+            s.eo[i] = (bo - boi) + (rsi - rs) * bg;
+            // Eg = Boi * (Bg/Bgi - 1)
+            s.eg[i] = bgi > 0 ? boi * (bg / bgi - 1.0) : 0.0;
+            // Efw / (1 + m) = Boi * [(cw*Swi + cf)/(1-Swi)] * ΔP
+            s.efwUnit[i] = boi * compressibilityTerm * (pi - p);
+        }
+        return s;
+    }
+
+    /**
+     * Ordinary least squares y = slope*x + intercept over the first n entries.
+     * Uses centered sums, which stay accurate when x spans several orders of magnitude.
+     */
+    public static Regression linearRegression(double[] x, double[] y, int n) {
+        if (n <= 0 || x.length < n || y.length < n) {
+            throw new RvCalculationException(RvCalculationException.CALC_REGRESSION, "Invalid data for regression");
+        }
+        double meanX = 0.0;
+        double meanY = 0.0;
+        for (int i = 0; i < n; i++) {
+            meanX += x[i];
+            meanY += y[i];
+        }
+        meanX /= n;
+        meanY /= n;
+
+        double sxx = 0.0;
+        double syy = 0.0;
+        double sxy = 0.0;
+        double sumX2 = 0.0;
+        for (int i = 0; i < n; i++) {
+            double dx = x[i] - meanX;
+            double dy = y[i] - meanY;
+            sxx += dx * dx;
+            syy += dy * dy;
+            sxy += dx * dy;
+            sumX2 += x[i] * x[i];
+        }
+        if (!(sxx > 1e-24 * Math.max(sumX2, Double.MIN_NORMAL))) {
+            throw new RvCalculationException(RvCalculationException.CALC_REGRESSION,
+                    "Cannot perform regression: denominator is zero");
+        }
+
+        double slope = sxy / sxx;
+        double intercept = meanY - slope * meanX;
+        double r2 = syy > 0 ? (sxy * sxy) / (sxx * syy) : 0.0;
+
+        double sse = Math.max(syy - slope * sxy, 0.0);
+        double rmse = Math.sqrt(sse / n);
+        double slopeStdError = Double.NaN;
+        double interceptStdError = Double.NaN;
+        if (n > 2) {
+            double s2 = sse / (n - 2);
+            slopeStdError = Math.sqrt(s2 / sxx);
+            interceptStdError = Math.sqrt(s2 * (1.0 / n + meanX * meanX / sxx));
+        }
+        return new Regression(n, slope, intercept, r2, rmse, slopeStdError, interceptStdError);
+    }
+
+    /**
+     * Cumulative Fetkovich influx for every pressure step.
+     *
+     * ΔWe(n) = (Wei/pi) * (p̄a(n-1) - p̄(n)) * (1 - exp(-J*pi*Δt/Wei)),
+     * p̄a(n) = pi * (1 - We(n)/Wei), p̄(n) = (p(n-1) + p(n)) / 2.
+     *
+     * @param j   aquifer productivity index (MMbbl/day/psi)
+     * @param wei maximum encroachable water, ct*Wi*pi (MMbbl)
+     * @param out receives the cumulative influx, length >= s.n
+     */
+    public static void fetkovichInflux(Series s, double j, double wei, double[] out) {
+        double pi = s.pi;
+        double we = 0.0;
+        double aquiferPressure = pi;
+        double prevP = pi;
+        double prevT = s.n > 0 ? s.timeDays[0] : 0.0;
+        double decay = wei > 0 ? j * pi / wei : 0.0;
+        for (int i = 0; i < s.n; i++) {
+            double p = s.pressure[i];
+            double dt = s.timeDays[i] - prevT;
+            if (wei > 0 && dt > 0) {
+                double avgP = 0.5 * (prevP + p);
+                we += (wei / pi) * (aquiferPressure - avgP) * (1.0 - Math.exp(-decay * dt));
+                aquiferPressure = pi * (1.0 - we / wei);
+            }
+            out[i] = we;
+            prevP = p;
+            prevT = s.timeDays[i];
+        }
+    }
+
+    /**
+     * Cumulative Carter-Tracy influx for an infinite-acting radial aquifer.
+     *
+     * We(n) = We(n-1) + (tD(n) - tD(n-1)) * [B*Δp(n) - We(n-1)*pD'(tD(n))] / [pD(tD(n)) - tD(n-1)*pD'(tD(n))]
+     *
+     * @param b           aquifer constant (MMbbl/psi)
+     * @param tdPerDay    dimensionless time per day, 0.0063283*k/(φ*μw*ct*ro²)
+     * @param out         receives the cumulative influx, length >= s.n
+     */
+    public static void carterTracyInflux(Series s, double b, double tdPerDay, double[] out) {
+        double we = 0.0;
+        double t0 = s.n > 0 ? s.timeDays[0] : 0.0;
+        double prevTd = 0.0;
+        for (int i = 0; i < s.n; i++) {
+            double td = (s.timeDays[i] - t0) * tdPerDay;
+            if (td > prevTd) {
+                double pd = dimensionlessPressure(td);
+                double pdPrime = dimensionlessPressureDerivative(td);
+                double denominator = pd - prevTd * pdPrime;
+                if (denominator > 0) {
+                    double deltaP = s.pi - s.pressure[i];
+                    we += (td - prevTd) * (b * deltaP - we * pdPrime) / denominator;
+                }
+                prevTd = td;
+            }
+            out[i] = we;
+        }
+    }
+
+    /**
+     * Infinite-acting radial pD(tD), Edwardson et al. polynomial approximation.
+     */
+    public static double dimensionlessPressure(double td) {
+        if (td <= 0) {
+            return 0.0;
+        }
+        if (td > 100) {
+            return 0.5 * (Math.log(td) + 0.80907);
+        }
+        double sqrt = Math.sqrt(td);
+        double td15 = td * sqrt;
+        return (370.529 * sqrt + 137.582 * td + 5.69549 * td15)
+                / (328.834 + 265.488 * sqrt + 45.2157 * td + td15);
+    }
+
+    /**
+     * Derivative dpD/dtD matching {@link #dimensionlessPressure(double)}.
+     */
+    public static double dimensionlessPressureDerivative(double td) {
+        if (td <= 0) {
+            return 0.0;
+        }
+        if (td > 100) {
+            return 0.5 / td;
+        }
+        double sqrt = Math.sqrt(td);
+        double td15 = td * sqrt;
+        double td2 = td * td;
+        return (716.441 + 46.7984 * sqrt + 270.038 * td + 71.0098 * td15)
+                / (1296.86 * sqrt + 1204.73 * td + 618.618 * td15 + 538.072 * td2 + 142.41 * td2 * sqrt);
+    }
+
+    /**
+     * Fits F - We = N * Et through the origin for a given gas cap ratio and influx series.
+     * Returns {N, sse, r2} in the supplied array to keep the sweep loop allocation-free.
+     */
+    static void fitOoip(Series s, double m, double[] we, double[] result) {
+        double sumEt2 = 0.0;
+        double sumEtY = 0.0;
+        double sumF = 0.0;
+        for (int i = 0; i < s.n; i++) {
+            double et = s.et(i, m);
+            double y = s.f[i] - (we != null ? we[i] : 0.0);
+            sumEt2 += et * et;
+            sumEtY += et * y;
+            sumF += s.f[i];
+        }
+        double ooip = sumEt2 > 0 ? sumEtY / sumEt2 : 0.0;
+        double meanF = sumF / s.n;
+        double sse = 0.0;
+        double sst = 0.0;
+        for (int i = 0; i < s.n; i++) {
+            double predicted = ooip * s.et(i, m) + (we != null ? we[i] : 0.0);
+            double r = s.f[i] - predicted;
+            double d = s.f[i] - meanF;
+            sse += r * r;
+            sst += d * d;
+        }
+        result[0] = ooip;
+        result[1] = sse;
+        result[2] = sst > 0 ? Math.max(0.0, 1.0 - sse / sst) : 0.0;
+    }
+
+    private static void fillElapsedDays(List<MaterialBalanceDataPoint> points, double[] out, double defaultStep) {
+        LocalDate first = null;
+        for (int i = 0; i < points.size(); i++) {
+            LocalDate date = parseDate(points.get(i).getDate());
+            if (date == null || (first != null && date.isBefore(first))) {
+                // Fall back to uniform spacing as soon as any date is missing or out of order
+                for (int k = 0; k < out.length; k++) {
+                    out[k] = k * defaultStep;
+                }
+                return;
+            }
+            if (first == null) {
+                first = date;
+            }
+            out[i] = ChronoUnit.DAYS.between(first, date);
+        }
+    }
+
+    private static LocalDate parseDate(String date) {
+        if (date == null || date.length() < 10) {
+            return null;
+        }
+        try {
+            return LocalDate.parse(date.substring(0, 10));
+        } catch (DateTimeParseException e) {
+            return null;
+        }
+    }
+
+    private static double value(BigDecimal value, double defaultValue) {
+        return value != null ? value.doubleValue() : defaultValue;
+    }
+}
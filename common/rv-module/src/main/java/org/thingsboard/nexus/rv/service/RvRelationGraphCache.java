@@ -0,0 +1,388 @@
+/**
+ * Copyright © 2016-2026 The Thingsboard Authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.thingsboard.nexus.rv.service;
+
+import com.google.common.util.concurrent.Futures;
+import com.google.common.util.concurrent.ListenableFuture;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+import org.thingsboard.nexus.rv.exception.RvException;
+import org.thingsboard.server.common.data.id.AssetId;
+import org.thingsboard.server.common.data.id.EntityId;
+import org.thingsboard.server.common.data.id.TenantId;
+import org.thingsboard.server.common.data.relation.EntityRelation;
+import org.thingsboard.server.common.data.relation.RelationTypeGroup;
+import org.thingsboard.server.dao.relation.RelationService;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Caché en memoria, por tenant, del grafo de relaciones del módulo de Yacimientos.
+ *
+ * Guarda listas de adyacencia (salientes y entrantes) para los tipos de relación RV del grupo COMMON.
+ * Las listas se cargan de forma perezosa desde {@link RelationService} y se mantienen al día
+ * mediante {@link #onRelationSaved}, {@link #onRelationDeleted} y {@link #onEntityDeleted},
+ * que se invocan desde los eventos de relación de la plataforma y desde las escrituras de
+ * {@link RvHierarchyService}. Un subárbol se carga por niveles con consultas en paralelo, así que
+ * el coste en frío es proporcional a la profundidad y no al número de nodos.
+ *
+ * Una lista leída de base de datos solo se guarda si no llegó ningún evento del tenant mientras
+ * la consulta estaba en vuelo, para que una lectura anterior a un commit no pise el evento.
+ * El grafo de cada tenant caduca tras {@link #GRAPH_TTL_MS} o al superar {@link #MAX_CACHED_LISTS}
+ * listas, lo que acota la memoria y repara eventos perdidos (p.ej. escritos desde otro nodo).
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class RvRelationGraphCache {
+
+    static final Set<String> RV_RELATION_TYPES = Set.of(
+            RvHierarchyService.RELATION_CONTAINS,
+            RvHierarchyService.RELATION_BELONGS_TO,
+            RvHierarchyService.RELATION_PRODUCES_FROM,
+            RvHierarchyService.RELATION_INJECTS_TO,
+            RvHierarchyService.RELATION_CHARACTERIZED_BY,
+            RvHierarchyService.RELATION_MONITORED_BY,
+            RvHierarchyService.RELATION_ADJACENT_TO,
+            RvHierarchyService.RELATION_CROSSES
+    );
+
+    private static final int MAX_ANCESTOR_DEPTH = 64;
+    static final long GRAPH_TTL_MS = TimeUnit.MINUTES.toMillis(15);
+    static final int MAX_CACHED_LISTS = 100_000;
+
+    private final RelationService relationService;
+
+    private final Map<UUID, TenantGraph> graphs = new ConcurrentHashMap<>();
+
+    /**
+     * Nodo de un subárbol: id del asset, id del padre (null para la raíz) y profundidad desde la raíz.
+     */
+    public record Node(UUID id, UUID parentId, int depth) {
+    }
+
+    private record EdgeKey(UUID id, String type) {
+    }
+
+    private static final class TenantGraph {
+        // Absent key = not loaded yet; empty list = loaded, no relations
+        final Map<EdgeKey, List<UUID>> outgoing = new ConcurrentHashMap<>();
+        final Map<EdgeKey, List<UUID>> incoming = new ConcurrentHashMap<>();
+        // Bumped by every event before it patches the lists
+        final AtomicLong version = new AtomicLong();
+        final long createdAt;
+
+        TenantGraph(long createdAt) {
+            this.createdAt = createdAt;
+        }
+
+        boolean isStale(long now) {
+            return now - createdAt > GRAPH_TTL_MS || outgoing.size() + incoming.size() > MAX_CACHED_LISTS;
+        }
+    }
+
+    public static boolean isCached(String relationType) {
+        return RV_RELATION_TYPES.contains(relationType);
+    }
+
+    /**
+     * Entidades destino de las relaciones {@code relationType} que salen de {@code fromId}.
+     */
+    public List<UUID> getOutgoing(UUID tenantId, UUID fromId, String relationType) {
+        TenantGraph graph = graph(tenantId);
+        EdgeKey key = new EdgeKey(fromId, relationType);
+        List<UUID> cached = graph.outgoing.get(key);
+        if (cached != null) {
+            return cached;
+        }
+        long version = graph.version.get();
+        List<EntityRelation> relations = relationService.findByFromAndType(
+                TenantId.fromUUID(tenantId), new AssetId(fromId), relationType, RelationTypeGroup.COMMON);
+        return putOutgoing(graph, key, relations, version);
+    }
+
+    /**
+     * Entidades origen de las relaciones {@code relationType} que llegan a {@code toId}.
+     */
+    public List<UUID> getIncoming(UUID tenantId, UUID toId, String relationType) {
+        TenantGraph graph = graph(tenantId);
+        EdgeKey key = new EdgeKey(toId, relationType);
+        List<UUID> cached = graph.incoming.get(key);
+        if (cached != null) {
+            return cached;
+        }
+        long version = graph.version.get();
+        List<EntityRelation> relations = relationService.findByToAndType(
+                TenantId.fromUUID(tenantId), new AssetId(toId), relationType, RelationTypeGroup.COMMON);
+        List<UUID> ids = new ArrayList<>(relations.size());
+        for (EntityRelation relation : relations) {
+            ids.add(relation.getFrom().getId());
+        }
+        return putIfUnchanged(graph, graph.incoming, key, Collections.unmodifiableList(ids), version);
+    }
+
+    /**
+     * Subárbol completo bajo {@code rootId} siguiendo {@code relationType}, en orden BFS.
+     * Los nodos aún no cacheados de cada nivel se cargan con una consulta asíncrona por nodo
+     * lanzadas en paralelo; los niveles ya cacheados se resuelven sin acceso a base de datos.
+     *
+     * @param maxDepth profundidad máxima (<= 0 para ilimitada)
+     */
+    public List<Node> getSubtree(UUID tenantId, UUID rootId, String relationType, int maxDepth) {
+        TenantGraph graph = graph(tenantId);
+        int depthLimit = maxDepth > 0 ? maxDepth : Integer.MAX_VALUE;
+
+        List<Node> result = new ArrayList<>();
+        Set<UUID> visited = new HashSet<>();
+        result.add(new Node(rootId, null, 0));
+        visited.add(rootId);
+
+        List<UUID> level = List.of(rootId);
+        int depth = 0;
+        while (!level.isEmpty() && depth < depthLimit) {
+            Map<UUID, List<UUID>> children = loadLevel(tenantId, graph, level, relationType);
+            List<UUID> next = new ArrayList<>();
+            for (UUID parent : level) {
+                for (UUID child : children.getOrDefault(parent, List.of())) {
+                    // Guard against cycles and multi-parent diamonds
+                    if (visited.add(child)) {
+                        result.add(new Node(child, parent, depth + 1));
+                        next.add(child);
+                    }
+                }
+            }
+            level = next;
+            depth++;
+        }
+        return result;
+    }
+
+    /**
+     * Cadena de ancestros de {@code assetId} siguiendo {@code relationType} (p.ej. BelongsTo),
+     * del padre directo hacia la raíz.
+     */
+    public List<UUID> getAncestors(UUID tenantId, UUID assetId, String relationType) {
+        List<UUID> ancestors = new ArrayList<>();
+        Set<UUID> visited = new HashSet<>();
+        visited.add(assetId);
+        UUID current = assetId;
+        for (int i = 0; i < MAX_ANCESTOR_DEPTH; i++) {
+            List<UUID> parents = getOutgoing(tenantId, current, relationType);
+            if (parents.isEmpty() || !visited.add(parents.get(0))) {
+                break;
+            }
+            current = parents.get(0);
+            ancestors.add(current);
+        }
+        return ancestors;
+    }
+
+    // ========== Invalidation ==========
+
+    public void onRelationSaved(TenantId tenantId, EntityRelation relation) {
+        if (!isTracked(tenantId, relation)) {
+            return;
+        }
+        TenantGraph graph = graphs.get(tenantId.getId());
+        if (graph == null) {
+            return;
+        }
+        UUID from = relation.getFrom().getId();
+        UUID to = relation.getTo().getId();
+        graph.version.incrementAndGet();
+        // Only patch lists that are already loaded; unloaded ones will be read fresh on demand
+        graph.outgoing.computeIfPresent(new EdgeKey(from, relation.getType()), (k, ids) -> withAdded(ids, to));
+        graph.incoming.computeIfPresent(new EdgeKey(to, relation.getType()), (k, ids) -> withAdded(ids, from));
+    }
+
+    public void onRelationDeleted(TenantId tenantId, EntityRelation relation) {
+        if (!isTracked(tenantId, relation)) {
+            return;
+        }
+        TenantGraph graph = graphs.get(tenantId.getId());
+        if (graph == null) {
+            return;
+        }
+        UUID from = relation.getFrom().getId();
+        UUID to = relation.getTo().getId();
+        graph.version.incrementAndGet();
+        graph.outgoing.computeIfPresent(new EdgeKey(from, relation.getType()), (k, ids) -> withRemoved(ids, to));
+        graph.incoming.computeIfPresent(new EdgeKey(to, relation.getType()), (k, ids) -> withRemoved(ids, from));
+    }
+
+    public void onEntityDeleted(TenantId tenantId, EntityId entityId) {
+        if (tenantId == null || entityId == null) {
+            return;
+        }
+        TenantGraph graph = graphs.get(tenantId.getId());
+        if (graph == null) {
+            return;
+        }
+        UUID id = entityId.getId();
+        graph.version.incrementAndGet();
+        for (String type : RV_RELATION_TYPES) {
+            EdgeKey key = new EdgeKey(id, type);
+            graph.outgoing.remove(key);
+            graph.incoming.remove(key);
+        }
+        // The entity's own lists do not tell who points at it (incoming is only loaded on demand),
+        // so sweep every loaded list; deletes are rare compared to reads
+        graph.outgoing.replaceAll((k, ids) -> withRemoved(ids, id));
+        graph.incoming.replaceAll((k, ids) -> withRemoved(ids, id));
+    }
+
+    /**
+     * Olvida un nodo sin tocar a sus vecinos; se usa cuando no se conocen las relaciones afectadas.
+     */
+    public void invalidate(UUID tenantId, UUID assetId) {
+        TenantGraph graph = graphs.get(tenantId);
+        if (graph == null) {
+            return;
+        }
+        graph.version.incrementAndGet();
+        for (String type : RV_RELATION_TYPES) {
+            EdgeKey key = new EdgeKey(assetId, type);
+            graph.outgoing.remove(key);
+            graph.incoming.remove(key);
+        }
+    }
+
+    public void evictTenant(UUID tenantId) {
+        graphs.remove(tenantId);
+    }
+
+    public int size(UUID tenantId) {
+        TenantGraph graph = graphs.get(tenantId);
+        return graph == null ? 0 : graph.outgoing.size() + graph.incoming.size();
+    }
+
+    // ========== Internals ==========
+
+    private TenantGraph graph(UUID tenantId) {
+        long now = System.currentTimeMillis();
+        TenantGraph graph = graphs.get(tenantId);
+        if (graph != null && !graph.isStale(now)) {
+            return graph;
+        }
+        return graphs.compute(tenantId, (id, current) ->
+                current == null || current.isStale(now) ? new TenantGraph(now) : current);
+    }
+
+    private Map<UUID, List<UUID>> loadLevel(UUID tenantId, TenantGraph graph, List<UUID> level, String relationType) {
+        Map<UUID, List<UUID>> children = new HashMap<>(level.size() * 2);
+        List<UUID> missing = new ArrayList<>();
+        for (UUID id : level) {
+            List<UUID> cached = graph.outgoing.get(new EdgeKey(id, relationType));
+            if (cached != null) {
+                children.put(id, cached);
+            } else {
+                missing.add(id);
+            }
+        }
+        if (missing.isEmpty()) {
+            return children;
+        }
+        if (missing.size() == 1) {
+            children.put(missing.get(0), getOutgoing(tenantId, missing.get(0), relationType));
+            return children;
+        }
+        long version = graph.version.get();
+        TenantId tbTenantId = TenantId.fromUUID(tenantId);
+        List<ListenableFuture<List<EntityRelation>>> futures = new ArrayList<>(missing.size());
+        for (UUID id : missing) {
+            futures.add(relationService.findByFromAndTypeAsync(tbTenantId, new AssetId(id), relationType, RelationTypeGroup.COMMON));
+        }
+        List<List<EntityRelation>> results;
+        try {
+            results = Futures.allAsList(futures).get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new RvException("Interrupted while loading relation graph", e);
+        } catch (ExecutionException e) {
+            throw new RvException("Failed to load relation graph", e.getCause());
+        }
+        for (int i = 0; i < missing.size(); i++) {
+            UUID id = missing.get(i);
+            children.put(id, putOutgoing(graph, new EdgeKey(id, relationType), results.get(i), version));
+        }
+        log.trace("[{}] Loaded {} relation lists of type {}", tenantId, missing.size(), relationType);
+        return children;
+    }
+
+    private static List<UUID> putOutgoing(TenantGraph graph, EdgeKey key, List<EntityRelation> relations, long version) {
+        List<UUID> ids = new ArrayList<>(relations.size());
+        for (EntityRelation relation : relations) {
+            ids.add(relation.getTo().getId());
+        }
+        return putIfUnchanged(graph, graph.outgoing, key, Collections.unmodifiableList(ids), version);
+    }
+
+    /**
+     * Guarda una lista recién leída solo si ningún evento tocó el grafo desde {@code version}.
+     * Los eventos incrementan la versión antes de parchear, y el parche y esta comprobación se
+     * serializan sobre la misma clave, así que un evento o bien ve la entrada y la parchea, o bien
+     * invalida la lectura. Si se descarta, se devuelve el valor leído sin cachearlo.
+     */
+    private static List<UUID> putIfUnchanged(TenantGraph graph, Map<EdgeKey, List<UUID>> lists,
+                                             EdgeKey key, List<UUID> value, long version) {
+        List<UUID> stored = lists.compute(key, (k, current) -> {
+            if (current != null) {
+                // A concurrent read or event already populated the entry
+                return current;
+            }
+            return graph.version.get() == version ? value : null;
+        });
+        return stored != null ? stored : value;
+    }
+
+    private static boolean isTracked(TenantId tenantId, EntityRelation relation) {
+        return tenantId != null && relation != null
+                && relation.getFrom() != null && relation.getTo() != null
+                && (relation.getTypeGroup() == null || relation.getTypeGroup() == RelationTypeGroup.COMMON)
+                && RV_RELATION_TYPES.contains(relation.getType());
+    }
+
+    private static List<UUID> withAdded(List<UUID> ids, UUID id) {
+        if (ids.contains(id)) {
+            return ids;
+        }
+        List<UUID> copy = new ArrayList<>(ids.size() + 1);
+        copy.addAll(ids);
+        copy.add(id);
+        return Collections.unmodifiableList(copy);
+    }
+
+    private static List<UUID> withRemoved(List<UUID> ids, UUID id) {
+        if (!ids.contains(id)) {
+            return ids;
+        }
+        List<UUID> copy = new ArrayList<>(ids);
+        copy.remove(id);
+        return Collections.unmodifiableList(copy);
+    }
+}
@@ -0,0 +1,547 @@
+/**
+ * Copyright © 2016-2026 The Thingsboard Authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.thingsboard.nexus.rv.service;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.data.domain.Page;
+import org.springframework.stereotype.Service;
+import org.thingsboard.nexus.rv.config.RvModuleConfiguration;
+import org.thingsboard.nexus.rv.dto.RvDeclineAnalysisDto;
+import org.thingsboard.nexus.rv.dto.RvReservesRollupDto;
+import org.thingsboard.nexus.rv.dto.RvReservoirDto;
+import org.thingsboard.nexus.rv.exception.RvBusinessException;
+import org.thingsboard.server.common.data.asset.Asset;
+import org.thingsboard.server.common.data.kv.AttributeKvEntry;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+ * Motor de agregación (roll-up) de reservas, OOIP y EUR a lo largo de la jerarquía Contains.
+ *
+ * Cada Asset tiene un valor propio (P90/P50/P10 de OOIP, reservas recuperables y EUR, leído de
+ * sus atributos) y un total = propio + totales de sus hijos. Los totales se mantienen en memoria
+ * por tenant y se actualizan de forma incremental: un cambio en un hijo aplica el delta a toda su
+ * cadena de ancestros y persiste solo esos Assets. El modo bulk recalcula todos los campos en
+ * paralelo y después las cuencas a partir de los totales de sus campos.
+ *
+ * Los totales se calculan bajo el lock del tenant, pero se persisten fuera de él a partir de una
+ * copia; las escrituras de un tenant se ordenan con un lock aparte y se descartan si el nodo ya
+ * tiene un cambio posterior, que persistirá su propia copia.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class RvReservesRollupService {
+
+    private static final int METRICS = 3;
+    private static final int VALUES = METRICS * 3;
+    private static final int PAGE_SIZE = 500;
+
+    static final int OOIP = 0;
+    static final int RESERVES = 1;
+    static final int EUR = 2;
+
+    // Index = metric * 3 + {0: P90, 1: P50, 2: P10}
+    private static final List<String> OWN_KEYS = List.of(
+            RvReservesRollupDto.ATTR_OOIP_P90_STB, RvReservoirDto.ATTR_OOIP_STB, RvReservesRollupDto.ATTR_OOIP_P10_STB,
+            RvReservesRollupDto.ATTR_RESERVES_P90_STB, RvReservesRollupDto.ATTR_RESERVES_STB, RvReservesRollupDto.ATTR_RESERVES_P10_STB,
+            RvReservesRollupDto.ATTR_EUR_P90_BBL, RvDeclineAnalysisDto.ATTR_EUR_BBL, RvReservesRollupDto.ATTR_EUR_P10_BBL
+    );
+
+    private static final List<String> ROLLUP_KEYS = List.of(
+            RvReservesRollupDto.ATTR_ROLLUP_OOIP_P90_STB, RvReservesRollupDto.ATTR_ROLLUP_OOIP_P50_STB, RvReservesRollupDto.ATTR_ROLLUP_OOIP_P10_STB,
+            RvReservesRollupDto.ATTR_ROLLUP_RESERVES_P90_STB, RvReservesRollupDto.ATTR_ROLLUP_RESERVES_P50_STB, RvReservesRollupDto.ATTR_ROLLUP_RESERVES_P10_STB,
+            RvReservesRollupDto.ATTR_ROLLUP_EUR_P90_BBL, RvReservesRollupDto.ATTR_ROLLUP_EUR_P50_BBL, RvReservesRollupDto.ATTR_ROLLUP_EUR_P10_BBL
+    );
+
+    private final RvHierarchyService hierarchyService;
+    private final RvAttributeService attributeService;
+    private final RvAssetService assetService;
+    private final RvModuleConfiguration config;
+
+    private final Map<UUID, TenantState> tenants = new ConcurrentHashMap<>();
+    private ExecutorService executor;
+
+    private static final class NodeState {
+        final double[] own = new double[VALUES];
+        final double[] total = new double[VALUES];
+        UUID parentId;
+        int descendants;
+        long updatedTime;
+        // Bumped on every change to total; read without the tenant lock when persisting
+        volatile long revision;
+    }
+
+    private static final class TenantState {
+        final Map<UUID, NodeState> nodes = new ConcurrentHashMap<>();
+        final Object persistLock = new Object();
+    }
+
+    private record Snapshot(UUID assetId, NodeState node, long revision, double[] total, long updatedTime) {
+    }
+
+    @PostConstruct
+    public void init() {
+        executor = Executors.newFixedThreadPool(Math.max(1, config.getRollupThreads()));
+    }
+
+    @PreDestroy
+    public void destroy() {
+        if (executor != null) {
+            executor.shutdownNow();
+        }
+    }
+
+    /**
+     * Devuelve el roll-up de un Asset, cargando su árbol raíz si aún no está en memoria.
+     */
+    public RvReservesRollupDto getRollup(UUID tenantId, UUID assetId) {
+        TenantState state = tenants.computeIfAbsent(tenantId, id -> new TenantState());
+        NodeState node = state.nodes.get(assetId);
+        if (node == null) {
+            recomputeSubtree(tenantId, topAncestor(tenantId, assetId));
+            node = state.nodes.get(assetId);
+        }
+        return node == null ? toDto(assetId, new NodeState()) : toDto(assetId, node);
+    }
+
+    /**
+     * Guarda los atributos P90/P50/P10 propios de un Asset y propaga el cambio a sus ancestros.
+     */
+    public void updateOwnValues(UUID tenantId, UUID assetId, String metric, Double p90, Double p50, Double p10) {
+        int m = metricIndex(metric);
+        if (p50 == null) {
+            throw new RvBusinessException(RvBusinessException.INSUFFICIENT_DATA, "P50 value is required");
+        }
+        Map<String, Object> attrs = new HashMap<>();
+        attrs.put(OWN_KEYS.get(m * 3), p90 != null ? p90 : p50);
+        attrs.put(OWN_KEYS.get(m * 3 + 1), p50);
+        attrs.put(OWN_KEYS.get(m * 3 + 2), p10 != null ? p10 : p50);
+        attributeService.saveServerAttributes(assetId, attrs);
+        onValueChanged(tenantId, assetId, metric, p90, p50, p10);
+    }
+
+    /**
+     * Registra un nuevo valor propio (P90/P50/P10) para un Asset y propaga el delta a sus ancestros.
+     * Si p90/p10 son null se usa p50 (valor determinístico).
+     */
+    public void onValueChanged(UUID tenantId, UUID assetId, String metric, Double p90, Double p50, Double p10) {
+        int m = metricIndex(metric);
+        if (p50 == null) {
+            return;
+        }
+        double[] values = {p90 != null ? p90 : p50, p50, p10 != null ? p10 : p50};
+
+        TenantState state = tenants.computeIfAbsent(tenantId, id -> new TenantState());
+        List<UUID> ancestors = hierarchyService.getAncestors(tenantId, assetId);
+        UUID root = ancestors.isEmpty() ? assetId : ancestors.get(ancestors.size() - 1);
+
+        List<Snapshot> snapshots;
+        synchronized (state) {
+            if (!state.nodes.containsKey(root)) {
+                // Cold tree: a full recompute already reads the value just persisted by the caller
+                snapshots = recomputeSubtreeLocked(tenantId, state, root);
+            } else {
+                snapshots = applyOwnValues(state, assetId, ancestors, m, values);
+            }
+        }
+        persist(state, snapshots);
+    }
+
+    private List<Snapshot> applyOwnValues(TenantState state, UUID assetId, List<UUID> ancestors, int m, double[] values) {
+        NodeState node = state.nodes.get(assetId);
+        if (node == null) {
+            node = new NodeState();
+            node.parentId = ancestors.isEmpty() ? null : ancestors.get(0);
+            state.nodes.put(assetId, node);
+        }
+        double[] delta = new double[VALUES];
+        boolean changed = false;
+        for (int k = 0; k < 3; k++) {
+            int i = m * 3 + k;
+            delta[i] = values[k] - node.own[i];
+            node.own[i] = values[k];
+            changed |= delta[i] != 0.0;
+        }
+        if (!changed) {
+            return List.of();
+        }
+        long now = System.currentTimeMillis();
+        List<UUID> touched = new ArrayList<>(ancestors.size() + 1);
+        applyDelta(node, delta, now);
+        touched.add(assetId);
+        for (UUID ancestorId : ancestors) {
+            applyDelta(state.nodes.computeIfAbsent(ancestorId, id -> new NodeState()), delta, now);
+            touched.add(ancestorId);
+        }
+        return snapshot(state.nodes, touched);
+    }
+
+    /**
+     * Mueve los totales de un hijo al cambiar una relación Contains (alta o baja).
+     */
+    public void onContainsRelationChanged(UUID tenantId, UUID parentId, UUID childId, boolean added) {
+        TenantState state = tenants.get(tenantId);
+        if (state == null) {
+            return;
+        }
+        List<Snapshot> snapshots = new ArrayList<>();
+        synchronized (state) {
+            if (!state.nodes.containsKey(parentId)) {
+                // Parent tree not loaded; it will be computed fresh on the next read
+                return;
+            }
+            NodeState child = state.nodes.get(childId);
+            if (child == null && !added) {
+                // Unknown whether the parent chain counted this child: load the child as a root of
+                // its own and recompute only the parent's tree, which no longer contains it
+                snapshots.addAll(recomputeSubtreeLocked(tenantId, state, childId));
+                snapshots.addAll(recomputeSubtreeLocked(tenantId, state, topAncestor(tenantId, parentId)));
+            } else {
+                if (child == null) {
+                    Map<UUID, NodeState> subtree = computeSubtree(tenantId, childId);
+                    state.nodes.putAll(subtree);
+                    child = subtree.get(childId);
+                }
+                // Relation events are also fired on update; only move totals on an actual change
+                boolean unchanged = added ? parentId.equals(child.parentId) : !parentId.equals(child.parentId);
+                if (!unchanged) {
+                    if (added && child.parentId != null) {
+                        snapshots.addAll(moveTotals(tenantId, state, child, child.parentId, -1.0));
+                    }
+                    snapshots.addAll(moveTotals(tenantId, state, child, parentId, added ? 1.0 : -1.0));
+                    child.parentId = added ? parentId : null;
+                }
+            }
+        }
+        persist(state, snapshots);
+    }
+
+    public void onAssetDeleted(UUID tenantId, UUID assetId) {
+        TenantState state = tenants.get(tenantId);
+        if (state == null) {
+            return;
+        }
+        List<Snapshot> snapshots = List.of();
+        synchronized (state) {
+            NodeState node = state.nodes.remove(assetId);
+            if (node != null && node.parentId != null && state.nodes.containsKey(node.parentId)) {
+                snapshots = moveTotals(tenantId, state, node, node.parentId, -1.0);
+            }
+        }
+        persist(state, snapshots);
+    }
+
+    public void evictTenant(UUID tenantId) {
+        tenants.remove(tenantId);
+    }
+
+    /**
+     * Recalcula desde cero el subárbol bajo {@code rootId} y persiste los totales de los nodos con hijos.
+     */
+    public RvReservesRollupDto recomputeSubtree(UUID tenantId, UUID rootId) {
+        TenantState state = tenants.computeIfAbsent(tenantId, id -> new TenantState());
+        List<Snapshot> snapshots;
+        RvReservesRollupDto result;
+        synchronized (state) {
+            snapshots = recomputeSubtreeLocked(tenantId, state, rootId);
+            result = toDto(rootId, state.nodes.get(rootId));
+        }
+        persist(state, snapshots);
+        return result;
+    }
+
+    /**
+     * Recalcula en paralelo todos los campos del tenant y luego las cuencas.
+     *
+     * @return roll-up de cada cuenca (o de cada campo huérfano) indexado por asset id
+     */
+    public Map<UUID, RvReservesRollupDto> recomputeAll(UUID tenantId) {
+        long start = System.currentTimeMillis();
+        List<UUID> fieldIds = listAssetIds(tenantId, RvAssetService.TYPE_FIELD);
+
+        // Each field subtree is independent: read, sum and persist it on the pool without the tenant lock
+        List<CompletableFuture<Map<UUID, NodeState>>> futures = new ArrayList<>(fieldIds.size());
+        for (UUID fieldId : fieldIds) {
+            futures.add(CompletableFuture.supplyAsync(() -> {
+                Map<UUID, NodeState> subtree = computeSubtree(tenantId, fieldId);
+                snapshot(subtree, parentsOf(subtree)).forEach(this::write);
+                return subtree;
+            }, executor));
+        }
+        TenantState fresh = new TenantState();
+        for (CompletableFuture<Map<UUID, NodeState>> future : futures) {
+            fresh.nodes.putAll(future.join());
+        }
+
+        Map<UUID, RvReservesRollupDto> result = new LinkedHashMap<>();
+        List<Snapshot> snapshots = new ArrayList<>();
+        synchronized (fresh) {
+            tenants.put(tenantId, fresh);
+            // Basins are summed from the field totals already in memory
+            List<UUID> basinIds = listAssetIds(tenantId, RvAssetService.TYPE_BASIN);
+            Map<UUID, List<AttributeKvEntry>> basinAttributes = attributeService.getServerAttributesBulk(basinIds, OWN_KEYS);
+            long now = System.currentTimeMillis();
+            for (UUID basinId : basinIds) {
+                NodeState basin = new NodeState();
+                readOwnValues(basinAttributes.get(basinId), basin.own);
+                System.arraycopy(basin.own, 0, basin.total, 0, VALUES);
+                for (UUID childId : hierarchyService.getChildren(tenantId, basinId)) {
+                    NodeState child = fresh.nodes.get(childId);
+                    if (child == null) {
+                        Map<UUID, NodeState> subtree = computeSubtree(tenantId, childId);
+                        snapshots.addAll(snapshot(subtree, parentsOf(subtree)));
+                        fresh.nodes.putAll(subtree);
+                        child = subtree.get(childId);
+                    }
+                    child.parentId = basinId;
+                    for (int i = 0; i < VALUES; i++) {
+                        basin.total[i] += child.total[i];
+                    }
+                    basin.descendants += child.descendants + 1;
+                }
+                basin.updatedTime = now;
+                fresh.nodes.put(basinId, basin);
+                snapshots.addAll(snapshot(fresh.nodes, List.of(basinId)));
+                result.put(basinId, toDto(basinId, basin));
+            }
+            for (UUID fieldId : fieldIds) {
+                if (fresh.nodes.get(fieldId).parentId == null) {
+                    result.put(fieldId, toDto(fieldId, fresh.nodes.get(fieldId)));
+                }
+            }
+        }
+        persist(fresh, snapshots);
+        log.info("[{}] Reserves roll-up recomputed for {} fields in {} ms", tenantId, fieldIds.size(),
+                System.currentTimeMillis() - start);
+        return result;
+    }
+
+    // ========== Internals ==========
+
+    private List<Snapshot> recomputeSubtreeLocked(UUID tenantId, TenantState state, UUID rootId) {
+        Map<UUID, NodeState> computed = computeSubtree(tenantId, rootId);
+        state.nodes.putAll(computed);
+        return snapshot(state.nodes, parentsOf(computed));
+    }
+
+    /**
+     * Lee los valores propios del subárbol en paralelo y suma de abajo hacia arriba.
+     */
+    private Map<UUID, NodeState> computeSubtree(UUID tenantId, UUID rootId) {
+        List<RvRelationGraphCache.Node> nodes = hierarchyService.getSubtree(tenantId, rootId, 0);
+        List<UUID> ids = new ArrayList<>(nodes.size());
+        for (RvRelationGraphCache.Node n : nodes) {
+            ids.add(n.id());
+        }
+        Map<UUID, List<AttributeKvEntry>> attributes = attributeService.getServerAttributesBulk(ids, OWN_KEYS);
+
+        long now = System.currentTimeMillis();
+        Map<UUID, NodeState> states = new HashMap<>(nodes.size() * 2);
+        for (RvRelationGraphCache.Node n : nodes) {
+            NodeState state = new NodeState();
+            readOwnValues(attributes.get(n.id()), state.own);
+            System.arraycopy(state.own, 0, state.total, 0, VALUES);
+            state.parentId = n.parentId();
+            state.updatedTime = now;
+            states.put(n.id(), state);
+        }
+        // BFS order guarantees children come after their parent; walk it backwards
+        for (int i = nodes.size() - 1; i > 0; i--) {
+            RvRelationGraphCache.Node n = nodes.get(i);
+            NodeState child = states.get(n.id());
+            NodeState parent = states.get(n.parentId());
+            for (int k = 0; k < VALUES; k++) {
+                parent.total[k] += child.total[k];
+            }
+            parent.descendants += child.descendants + 1;
+        }
+        return states;
+    }
+
+    private static void readOwnValues(List<AttributeKvEntry> entries, double[] own) {
+        if (entries == null) {
+            return;
+        }
+        boolean[] present = new boolean[VALUES];
+        for (AttributeKvEntry entry : entries) {
+            int i = OWN_KEYS.indexOf(entry.getKey());
+            Optional<Double> value = entry.getDoubleValue();
+            if (value.isEmpty() && entry.getLongValue().isPresent()) {
+                value = Optional.of(entry.getLongValue().get().doubleValue());
+            }
+            if (i >= 0 && value.isPresent()) {
+                own[i] = value.get();
+                present[i] = true;
+            }
+        }
+        // Deterministic values only: P90 = P10 = P50
+        for (int m = 0; m < METRICS; m++) {
+            int p50 = m * 3 + 1;
+            if (present[p50]) {
+                if (!present[p50 - 1]) {
+                    own[p50 - 1] = own[p50];
+                }
+                if (!present[p50 + 1]) {
+                    own[p50 + 1] = own[p50];
+                }
+            }
+        }
+    }
+
+    /**
+     * Suma (sign = 1) o resta (sign = -1) los totales de {@code child} en {@code parentId} y sus ancestros.
+     */
+    private List<Snapshot> moveTotals(UUID tenantId, TenantState state, NodeState child, UUID parentId, double sign) {
+        double[] delta = new double[VALUES];
+        for (int i = 0; i < VALUES; i++) {
+            delta[i] = sign * child.total[i];
+        }
+        int descendantsDelta = (int) sign * (child.descendants + 1);
+        long now = System.currentTimeMillis();
+        List<UUID> chain = new ArrayList<>();
+        chain.add(parentId);
+        chain.addAll(hierarchyService.getAncestors(tenantId, parentId));
+        for (UUID id : chain) {
+            NodeState node = state.nodes.computeIfAbsent(id, k -> new NodeState());
+            applyDelta(node, delta, now);
+            node.descendants += descendantsDelta;
+        }
+        return snapshot(state.nodes, chain);
+    }
+
+    private static void applyDelta(NodeState node, double[] delta, long now) {
+        for (int i = 0; i < VALUES; i++) {
+            node.total[i] += delta[i];
+        }
+        node.updatedTime = now;
+        node.revision++;
+    }
+
+    /**
+     * Copia los totales de {@code assetIds}; se llama con el lock del tenant tomado.
+     */
+    private static List<Snapshot> snapshot(Map<UUID, NodeState> nodes, List<UUID> assetIds) {
+        List<Snapshot> snapshots = new ArrayList<>(assetIds.size());
+        for (UUID assetId : assetIds) {
+            NodeState node = nodes.get(assetId);
+            if (node != null) {
+                snapshots.add(new Snapshot(assetId, node, node.revision, node.total.clone(), node.updatedTime));
+            }
+        }
+        return snapshots;
+    }
+
+    /**
+     * Persiste copias tomadas bajo el lock del tenant, fuera de él.
+     */
+    private void persist(TenantState state, List<Snapshot> snapshots) {
+        if (snapshots.isEmpty()) {
+            return;
+        }
+        synchronized (state.persistLock) {
+            for (Snapshot snapshot : snapshots) {
+                // Superseded by a later change (or a recompute), which persists its own copy
+                if (state.nodes.get(snapshot.assetId()) == snapshot.node() && snapshot.node().revision == snapshot.revision()) {
+                    write(snapshot);
+                }
+            }
+        }
+    }
+
+    private void write(Snapshot snapshot) {
+        Map<String, Object> attrs = new HashMap<>();
+        for (int i = 0; i < VALUES; i++) {
+            attrs.put(ROLLUP_KEYS.get(i), snapshot.total()[i]);
+        }
+        attrs.put(RvReservesRollupDto.ATTR_ROLLUP_UPDATED_TIME, snapshot.updatedTime());
+        attributeService.saveServerAttributes(snapshot.assetId(), attrs);
+    }
+
+    private static List<UUID> parentsOf(Map<UUID, NodeState> states) {
+        List<UUID> parents = new ArrayList<>();
+        states.forEach((id, state) -> {
+            if (state.descendants > 0) {
+                parents.add(id);
+            }
+        });
+        return parents;
+    }
+
+    private UUID topAncestor(UUID tenantId, UUID assetId) {
+        List<UUID> ancestors = hierarchyService.getAncestors(tenantId, assetId);
+        return ancestors.isEmpty() ? assetId : ancestors.get(ancestors.size() - 1);
+    }
+
+    private List<UUID> listAssetIds(UUID tenantId, String assetType) {
+        List<UUID> ids = new ArrayList<>();
+        int page = 0;
+        Page<Asset> assets;
+        do {
+            assets = assetService.getAssetsByType(tenantId, assetType, page++, PAGE_SIZE);
+            for (Asset asset : assets.getContent()) {
+                ids.add(asset.getId().getId());
+            }
+        } while (assets.hasNext());
+        return ids;
+    }
+
+    private static int metricIndex(String metric) {
+        if (metric == null) {
+            throw new RvBusinessException("Reserves metric is required");
+        }
+        return switch (metric) {
+            case RvReservesRollupDto.METRIC_OOIP -> OOIP;
+            case RvReservesRollupDto.METRIC_RESERVES -> RESERVES;
+            case RvReservesRollupDto.METRIC_EUR -> EUR;
+            default -> throw new RvBusinessException("Unknown reserves metric: " + metric);
+        };
+    }
+
+    private static RvReservesRollupDto toDto(UUID assetId, NodeState node) {
+        return RvReservesRollupDto.builder()
+                .assetId(assetId)
+                .ooipStb(estimate(node.total, OOIP))
+                .recoverableReservesStb(estimate(node.total, RESERVES))
+                .eurBbl(estimate(node.total, EUR))
+                .descendantCount(node.descendants)
+                .updatedTime(node.updatedTime)
+                .build();
+    }
+
+    private static RvReservesRollupDto.Estimate estimate(double[] values, int metric) {
+        return RvReservesRollupDto.Estimate.builder()
+                .p90(BigDecimal.valueOf(values[metric * 3]).setScale(2, RoundingMode.HALF_UP))
+                .p50(BigDecimal.valueOf(values[metric * 3 + 1]).setScale(2, RoundingMode.HALF_UP))
+                .p10(BigDecimal.valueOf(values[metric * 3 + 2]).setScale(2, RoundingMode.HALF_UP))
+                .build();
+    }
+}
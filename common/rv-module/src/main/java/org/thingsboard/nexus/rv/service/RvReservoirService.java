@@ -19,6 +19,7 @@ import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.data.domain.Page;
 import org.springframework.stereotype.Service;
+import org.thingsboard.nexus.rv.dto.RvReservesRollupDto;
 import org.thingsboard.nexus.rv.dto.RvReservoirDto;
 import org.thingsboard.nexus.rv.exception.RvBusinessException;
 import org.thingsboard.nexus.rv.exception.RvEntityNotFoundException;
@@ -41,6 +42,7 @@ public class RvReservoirService {
     private final RvAttributeService rvAttributeService;
     private final RvHierarchyService rvHierarchyService;
     private final RvCalculationService calculationService;
+    private final RvReservesRollupService reservesRollupService;
 
     /**
      * Creates a new Reservoir under a Field.
@@ -199,6 +201,8 @@ public class RvReservoirService {
         Map<String, Object> attrs = new HashMap<>();
         attrs.put(RvReservoirDto.ATTR_OOIP_STB, ooip);
         rvAttributeService.saveServerAttributes(assetId, attrs);
+        reservesRollupService.onValueChanged(reservoir.getTenantId(), assetId,
+            RvReservesRollupDto.METRIC_OOIP, null, ooip.doubleValue(), null);
 
         log.info("OOIP calculated for reservoir {}: {} STB", assetId, ooip);
         return ooip;
@@ -221,8 +225,10 @@ public class RvReservoirService {
         // Update reservoir
         Map<String, Object> attrs = new HashMap<>();
         attrs.put(RvReservoirDto.ATTR_RECOVERY_FACTOR, recoveryFactor);
-        attrs.put("recoverable_reserves_stb", reserves);
+        attrs.put(RvReservesRollupDto.ATTR_RESERVES_STB, reserves);
         rvAttributeService.saveServerAttributes(assetId, attrs);
+        reservesRollupService.onValueChanged(reservoir.getTenantId(), assetId,
+            RvReservesRollupDto.METRIC_RESERVES, null, reserves.doubleValue(), null);
 
         log.info("Recoverable reserves for reservoir {}: {} STB (RF={})", assetId, reserves, recoveryFactor);
         return reserves;
@@ -0,0 +1,264 @@
+/**
+ * Copyright © 2016-2026 The Thingsboard Authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.thingsboard.nexus.rv.service;
+
+import org.thingsboard.nexus.rv.dto.RvVolumetricDistribution;
+import org.thingsboard.nexus.rv.exception.RvBusinessException;
+
+import java.util.Arrays;
+import java.util.SplittableRandom;
+import java.util.stream.IntStream;
+
+/**
+ * Primitive-double Monte Carlo sampler for volumetric OOIP.
+ *
+ * Distributions are compiled once into {@link Sampler}s and sampled by inverse transform, so the
+ * inner loop only does arithmetic on doubles. Realizations are split into fixed chunks, each with
+ * its own {@link SplittableRandom} stream split sequentially from the seed, which keeps a run
+ * reproducible for a given seed no matter how the chunks are scheduled across threads.
+ */
+public final class RvVolumetricMonteCarlo {
+
+    static final double OOIP_CONSTANT = 7758.0;
+    static final double M_TO_FT = 3.28084;
+
+    private static final int MIN_CHUNK = 4096;
+    private static final int MAX_CHUNKS = 256;
+    private static final int MAX_RESAMPLES = 64;
+
+    private static final int CONSTANT = 0;
+    private static final int UNIFORM = 1;
+    private static final int TRIANGULAR = 2;
+    private static final int NORMAL = 3;
+    private static final int LOGNORMAL = 4;
+
+    private RvVolumetricMonteCarlo() {
+    }
+
+    /**
+     * Compiled distribution truncated to [lo, hi].
+     */
+    public static final class Sampler {
+        final int type;
+        final double a;
+        final double b;
+        final double c;
+        final double split;
+        final double lo;
+        final double hi;
+
+        private Sampler(int type, double a, double b, double c, double split, double lo, double hi) {
+            this.type = type;
+            this.a = a;
+            this.b = b;
+            this.c = c;
+            this.split = split;
+            this.lo = lo;
+            this.hi = hi;
+        }
+
+        /**
+         * Inverse CDF of the untruncated distribution, clamped to the truncation bounds.
+         */
+        public double quantile(double u) {
+            double x = switch (type) {
+                case CONSTANT -> a;
+                case UNIFORM -> a + u * b;
+                case TRIANGULAR -> u < split
+                        ? a + Math.sqrt(u * (c - a) * (b - a))
+                        : c - Math.sqrt((1.0 - u) * (c - a) * (c - b));
+                case NORMAL -> a + b * inverseNormal(u);
+                default -> Math.exp(a + b * inverseNormal(u));
+            };
+            return Math.min(Math.max(x, lo), hi);
+        }
+
+        double sample(SplittableRandom rng) {
+            if (type == CONSTANT) {
+                return a;
+            }
+            for (int attempt = 0; attempt < MAX_RESAMPLES; attempt++) {
+                double u = rng.nextDouble();
+                double x = switch (type) {
+                    case UNIFORM -> a + u * b;
+                    case TRIANGULAR -> u < split
+                            ? a + Math.sqrt(u * (c - a) * (b - a))
+                            : c - Math.sqrt((1.0 - u) * (c - a) * (c - b));
+                    case NORMAL -> a + b * inverseNormal(u);
+                    default -> Math.exp(a + b * inverseNormal(u));
+                };
+                if (x >= lo && x <= hi) {
+                    return x;
+                }
+            }
+            // Bounds cut off almost all of the mass; fall back to clamping
+            return quantile(rng.nextDouble());
+        }
+    }
+
+    /**
+     * Compiles a distribution, intersecting its own [min, max] with the physical bounds of the input.
+     * A range that does not overlap the physical bounds is rejected rather than clamped to one bound.
+     */
+    public static Sampler compile(String name, RvVolumetricDistribution d, double physicalMin, double physicalMax) {
+        if (d == null || d.getType() == null) {
+            throw invalid(name, "distribution is required");
+        }
+        double lo = d.getMin() != null ? Math.max(d.getMin(), physicalMin) : physicalMin;
+        double hi = d.getMax() != null ? Math.min(d.getMax(), physicalMax) : physicalMax;
+        if (lo > hi && !RvVolumetricDistribution.TYPE_CONSTANT.equals(d.getType())) {
+            throw invalid(name, String.format("range [%s, %s] outside physical bounds [%s, %s]",
+                    d.getMin(), d.getMax(), physicalMin, physicalMax));
+        }
+        switch (d.getType()) {
+            case RvVolumetricDistribution.TYPE_CONSTANT -> {
+                double value = require(name, "mode", d.getMode());
+                checkRange(name, value, physicalMin, physicalMax);
+                return new Sampler(CONSTANT, value, 0, 0, 0, value, value);
+            }
+            case RvVolumetricDistribution.TYPE_UNIFORM -> {
+                double min = require(name, "min", d.getMin());
+                double max = require(name, "max", d.getMax());
+                if (!(min < max)) {
+                    throw invalid(name, "min must be lower than max");
+                }
+                return new Sampler(UNIFORM, min, max - min, 0, 0, lo, hi);
+            }
+            case RvVolumetricDistribution.TYPE_TRIANGULAR -> {
+                double min = require(name, "min", d.getMin());
+                double mode = require(name, "mode", d.getMode());
+                double max = require(name, "max", d.getMax());
+                if (!(min <= mode && mode <= max && min < max)) {
+                    throw invalid(name, "requires min <= mode <= max and min < max");
+                }
+                return new Sampler(TRIANGULAR, min, mode, max, (mode - min) / (max - min), lo, hi);
+            }
+            case RvVolumetricDistribution.TYPE_NORMAL -> {
+                double mean = require(name, "mean", d.getMean());
+                double sd = require(name, "stdDev", d.getStdDev());
+                if (sd <= 0) {
+                    throw invalid(name, "stdDev must be positive");
+                }
+                return new Sampler(NORMAL, mean, sd, 0, 0, lo, hi);
+            }
+            case RvVolumetricDistribution.TYPE_LOGNORMAL -> {
+                double mean = require(name, "mean", d.getMean());
+                double sd = require(name, "stdDev", d.getStdDev());
+                if (mean <= 0 || sd <= 0) {
+                    throw invalid(name, "mean and stdDev must be positive");
+                }
+                // Parameters of the underlying normal from the arithmetic mean and standard deviation
+                double sigma2 = Math.log(1.0 + (sd * sd) / (mean * mean));
+                return new Sampler(LOGNORMAL, Math.log(mean) - sigma2 / 2.0, Math.sqrt(sigma2), 0, 0, lo, hi);
+            }
+            default -> throw invalid(name, "unknown distribution type " + d.getType());
+        }
+    }
+
+    /**
+     * OOIP (STB) for one set of inputs; thickness in meters.
+     */
+    public static double ooip(double areaAcres, double thicknessM, double porosity, double waterSat, double bo) {
+        return OOIP_CONSTANT * areaAcres * thicknessM * M_TO_FT * porosity * (1.0 - waterSat) / bo;
+    }
+
+    /**
+     * Runs {@code n} realizations in parallel and returns the OOIP of each one, sorted ascending.
+     */
+    public static double[] simulate(Sampler area, Sampler thickness, Sampler porosity, Sampler waterSat, Sampler bo,
+                                    int n, long seed) {
+        double[] out = new double[n];
+        int chunks = Math.min(MAX_CHUNKS, Math.max(1, n / MIN_CHUNK));
+        SplittableRandom root = new SplittableRandom(seed);
+        SplittableRandom[] streams = new SplittableRandom[chunks];
+        for (int c = 0; c < chunks; c++) {
+            streams[c] = root.split();
+        }
+        IntStream.range(0, chunks).parallel().forEach(c -> {
+            SplittableRandom rng = streams[c];
+            int from = (int) ((long) n * c / chunks);
+            int to = (int) ((long) n * (c + 1) / chunks);
+            for (int i = from; i < to; i++) {
+                out[i] = ooip(area.sample(rng), thickness.sample(rng), porosity.sample(rng),
+                        waterSat.sample(rng), bo.sample(rng));
+            }
+        });
+        Arrays.parallelSort(out);
+        return out;
+    }
+
+    /**
+     * Linear-interpolated percentile of a sorted array, {@code p} in [0, 1].
+     */
+    public static double percentile(double[] sorted, double p) {
+        double pos = p * (sorted.length - 1);
+        int i = (int) Math.floor(pos);
+        if (i >= sorted.length - 1) {
+            return sorted[sorted.length - 1];
+        }
+        double frac = pos - i;
+        return sorted[i] + frac * (sorted[i + 1] - sorted[i]);
+    }
+
+    /**
+     * Inverse of the standard normal CDF (Acklam's rational approximation, relative error < 1.15e-9).
+     */
+    static double inverseNormal(double p) {
+        if (p <= 0.0) {
+            p = Double.MIN_NORMAL;
+        } else if (p >= 1.0) {
+            p = 1.0 - 1e-16;
+        }
+        final double pLow = 0.02425;
+        if (p < pLow) {
+            double q = Math.sqrt(-2.0 * Math.log(p));
+            return (((((-7.784894002430293e-03 * q - 3.223964580411365e-01) * q - 2.400758277161838e+00) * q
+                    - 2.549732539343734e+00) * q + 4.374664141464968e+00) * q + 2.938163982698783e+00)
+                    / ((((7.784695709041462e-03 * q + 3.224671290700398e-01) * q + 2.445134137142996e+00) * q
+                    + 3.754408661907416e+00) * q + 1.0);
+        }
+        if (p > 1.0 - pLow) {
+            double q = Math.sqrt(-2.0 * Math.log(1.0 - p));
+            return -(((((-7.784894002430293e-03 * q - 3.223964580411365e-01) * q - 2.400758277161838e+00) * q
+                    - 2.549732539343734e+00) * q + 4.374664141464968e+00) * q + 2.938163982698783e+00)
+                    / ((((7.784695709041462e-03 * q + 3.224671290700398e-01) * q + 2.445134137142996e+00) * q
+                    + 3.754408661907416e+00) * q + 1.0);
+        }
+        double q = p - 0.5;
+        double r = q * q;
+        return (((((-3.969683028665376e+01 * r + 2.209460984245205e+02) * r - 2.759285104469687e+02) * r
+                + 1.383577518672690e+02) * r - 3.066479806614716e+01) * r + 2.506628277459239e+00) * q
+                / (((((-5.447609879822406e+01 * r + 1.615858368580409e+02) * r - 1.556989798598866e+02) * r
+                + 6.680131188771972e+01) * r - 1.328068155288572e+01) * r + 1.0);
+    }
+
+    private static double require(String name, String param, Double value) {
+        if (value == null || !Double.isFinite(value)) {
+            throw invalid(name, param + " is required");
+        }
+        return value;
+    }
+
+    private static void checkRange(String name, double value, double min, double max) {
+        if (value < min || value > max) {
+            throw invalid(name, String.format("value must be between %s and %s, got %s", min, max, value));
+        }
+    }
+
+    private static RvBusinessException invalid(String name, String message) {
+        return new RvBusinessException(RvBusinessException.CALCULATION_ERROR, name + " distribution: " + message);
+    }
+}
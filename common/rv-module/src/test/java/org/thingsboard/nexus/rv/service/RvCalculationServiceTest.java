@@ -24,6 +24,9 @@ import org.mockito.junit.jupiter.MockitoExtension;
 import org.mockito.junit.jupiter.MockitoSettings;
 import org.mockito.quality.Strictness;
 import org.thingsboard.nexus.rv.config.RvModuleConfiguration;
+import org.thingsboard.nexus.rv.dto.RvOoipMonteCarloRequest;
+import org.thingsboard.nexus.rv.dto.RvOoipMonteCarloResultDto;
+import org.thingsboard.nexus.rv.dto.RvVolumetricDistribution;
 import org.thingsboard.nexus.rv.exception.RvBusinessException;
 
 import java.math.BigDecimal;
@@ -147,6 +150,98 @@ class RvCalculationServiceTest {
         });
     }
 
+    @Test
+    @DisplayName("OOIP Monte Carlo: Entradas constantes reproducen el cálculo determinístico")
+    void testCalculateOOIPMonteCarlo_ConstantInputs() {
+        // Given: Same inputs as the typical deterministic case
+        RvOoipMonteCarloRequest request = RvOoipMonteCarloRequest.builder()
+                .areaAcres(RvVolumetricDistribution.constant(1000))
+                .thicknessM(RvVolumetricDistribution.constant(30))
+                .porosity(RvVolumetricDistribution.constant(0.20))
+                .waterSaturation(RvVolumetricDistribution.constant(0.25))
+                .bo(RvVolumetricDistribution.constant(1.25))
+                .realizations(10_000)
+                .seed(1L)
+                .build();
+
+        // When
+        RvOoipMonteCarloResultDto result = calculationService.calculateOOIPMonteCarlo(request);
+        BigDecimal deterministic = calculationService.calculateOOIP(new BigDecimal("1000"), new BigDecimal("30"),
+                new BigDecimal("0.20"), new BigDecimal("0.25"), new BigDecimal("1.25"));
+
+        // Then: every percentile collapses to the deterministic value
+        assertEquals(deterministic.doubleValue(), result.getP90Stb(), 1.0);
+        assertEquals(deterministic.doubleValue(), result.getP50Stb(), 1.0);
+        assertEquals(deterministic.doubleValue(), result.getP10Stb(), 1.0);
+        assertEquals(0.0, result.getStdDevStb(), 1e-3);
+    }
+
+    @Test
+    @DisplayName("OOIP Monte Carlo: P90 < P50 < P10, reproducible con semilla y tornado ordenado")
+    void testCalculateOOIPMonteCarlo_Distributions() {
+        // Given
+        RvOoipMonteCarloRequest request = RvOoipMonteCarloRequest.builder()
+                .areaAcres(RvVolumetricDistribution.triangular(800, 1000, 1300))
+                .thicknessM(RvVolumetricDistribution.builder()
+                        .type(RvVolumetricDistribution.TYPE_NORMAL).mean(30.0).stdDev(5.0).build())
+                .porosity(RvVolumetricDistribution.builder()
+                        .type(RvVolumetricDistribution.TYPE_LOGNORMAL).mean(0.20).stdDev(0.03).build())
+                .waterSaturation(RvVolumetricDistribution.builder()
+                        .type(RvVolumetricDistribution.TYPE_UNIFORM).min(0.20).max(0.30).build())
+                .bo(RvVolumetricDistribution.constant(1.25))
+                .realizations(200_000)
+                .seed(42L)
+                .build();
+
+        // When
+        RvOoipMonteCarloResultDto first = calculationService.calculateOOIPMonteCarlo(request);
+        RvOoipMonteCarloResultDto second = calculationService.calculateOOIPMonteCarlo(request);
+
+        // Then
+        assertTrue(first.getP90Stb() < first.getP50Stb());
+        assertTrue(first.getP50Stb() < first.getP10Stb());
+        assertEquals(first.getP50Stb(), second.getP50Stb());
+        assertEquals(first.getP50Stb(), first.getBaseCaseStb(), first.getBaseCaseStb() * 0.03);
+        assertEquals(200_000L, java.util.Arrays.stream(first.getCounts()).sum());
+
+        // Thickness has the widest relative spread; a constant Bo has no swing
+        assertEquals(5, first.getTornado().size());
+        assertEquals(RvOoipMonteCarloResultDto.INPUT_THICKNESS, first.getTornado().get(0).getInput());
+        assertEquals(RvOoipMonteCarloResultDto.INPUT_BO, first.getTornado().get(4).getInput());
+        assertEquals(0.0, first.getTornado().get(4).getSwingStb(), 1e-6);
+    }
+
+    @Test
+    @DisplayName("OOIP Monte Carlo: Distribución triangular inválida lanza excepción")
+    void testCalculateOOIPMonteCarlo_InvalidDistribution() {
+        RvOoipMonteCarloRequest request = RvOoipMonteCarloRequest.builder()
+                .areaAcres(RvVolumetricDistribution.triangular(1000, 800, 1300))   // mode < min
+                .thicknessM(RvVolumetricDistribution.constant(30))
+                .porosity(RvVolumetricDistribution.constant(0.20))
+                .waterSaturation(RvVolumetricDistribution.constant(0.25))
+                .bo(RvVolumetricDistribution.constant(1.25))
+                .build();
+
+        assertThrows(RvBusinessException.class, () -> calculationService.calculateOOIPMonteCarlo(request));
+    }
+
+    @Test
+    @DisplayName("OOIP Monte Carlo: Rango fuera de los límites físicos lanza excepción")
+    void testCalculateOOIPMonteCarlo_RangeOutsidePhysicalBounds() {
+        RvOoipMonteCarloRequest request = RvOoipMonteCarloRequest.builder()
+                .areaAcres(RvVolumetricDistribution.constant(1000))
+                .thicknessM(RvVolumetricDistribution.constant(30))
+                .porosity(RvVolumetricDistribution.builder()
+                        .type(RvVolumetricDistribution.TYPE_UNIFORM).min(1.5).max(2.0).build())   // porosidad > 1
+                .waterSaturation(RvVolumetricDistribution.constant(0.25))
+                .bo(RvVolumetricDistribution.constant(1.25))
+                .build();
+
+        RvBusinessException e = assertThrows(RvBusinessException.class,
+                () -> calculationService.calculateOOIPMonteCarlo(request));
+        assertTrue(e.getMessage().contains("outside physical bounds"));
+    }
+
     // ===========================================
     // ARCHIE EQUATION TESTS
     // ===========================================
@@ -0,0 +1,80 @@
+/**
+ * Copyright © 2016-2026 The Thingsboard Authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.thingsboard.nexus.rv.service;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for RvIprCurveEngine.
+ * Tests composite IPR evaluation and the IPR/VLP operating point solver.
+ */
+@DisplayName("RvIprCurveEngine Unit Tests")
+class RvIprCurveEngineTest {
+
+    // Undersaturated: Pr = 3000 psi, Pb = 2000 psi, J = 1.5 bpd/psi
+    private final RvIprCurveEngine.Model composite = new RvIprCurveEngine.Model(3000, 2000, 1.5, 0, false, 1L);
+
+    @Test
+    @DisplayName("IPR compuesta: Línea recta sobre Pb y Vogel continua bajo Pb")
+    void testRate_CompositeIsContinuousAtPb() {
+        // qb = J * (Pr - Pb) = 1500, qmax = qb + J * Pb / 1.8
+        assertEquals(1500.0, RvIprCurveEngine.rate(composite, 2000), 1e-9);
+        assertEquals(1500.0, RvIprCurveEngine.rate(composite, 1999.999), 0.01);
+        assertEquals(1500.0 + 1.5 * 2000 / 1.8, composite.qmax, 1e-9);
+        assertEquals(composite.qmax, RvIprCurveEngine.rate(composite, 0), 1e-9);
+        assertEquals(0.0, RvIprCurveEngine.rate(composite, 3000), 1e-9);
+    }
+
+    @Test
+    @DisplayName("Curva: Puntos equiespaciados de Pr a 0 con caudal creciente")
+    void testCurve_MonotonicFromPrToZero() {
+        double[] pwf = new double[21];
+        double[] rate = new double[21];
+
+        RvIprCurveEngine.curve(composite, 20, pwf, rate);
+
+        assertEquals(3000.0, pwf[0], 1e-9);
+        assertEquals(0.0, pwf[20], 1e-9);
+        for (int i = 1; i <= 20; i++) {
+            assertTrue(rate[i] > rate[i - 1]);
+        }
+    }
+
+    @Test
+    @DisplayName("Punto de operación: Intersección IPR/VLP satisface ambas curvas")
+    void testOperatingPoint_IntersectsVlp() {
+        double[] vlpRate = {0, 1000, 2000, 4000};
+        double[] vlpPwf = {1200, 1500, 1900, 2800};
+        double[] point = new double[2];
+
+        assertTrue(RvIprCurveEngine.operatingPoint(composite, vlpRate, vlpPwf, point));
+
+        assertEquals(RvIprCurveEngine.rate(composite, point[1]), point[0], 1e-6);
+        assertEquals(RvIprCurveEngine.interpolate(vlpRate, vlpPwf, point[0]), point[1], 0.01);
+        assertEquals(1773.7, point[0], 0.1);
+    }
+
+    @Test
+    @DisplayName("Punto de operación: Sin flujo natural cuando la VLP supera Pr")
+    void testOperatingPoint_NoFlow() {
+        double[] point = new double[2];
+        assertFalse(RvIprCurveEngine.operatingPoint(composite,
+                new double[]{0, 1000}, new double[]{3100, 3300}, point));
+    }
+}
@@ -0,0 +1,179 @@
+/**
+ * Copyright © 2016-2026 The Thingsboard Authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.thingsboard.nexus.rv.service;
+
+import com.google.common.util.concurrent.Futures;
+import com.google.common.util.concurrent.ListeningScheduledExecutorService;
+import com.google.common.util.concurrent.MoreExecutors;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.thingsboard.nexus.rv.dto.RvIprBatchRequest;
+import org.thingsboard.nexus.rv.dto.RvIprBatchResultDto;
+import org.thingsboard.nexus.rv.dto.RvIprModelDto;
+import org.thingsboard.server.common.data.id.AssetId;
+import org.thingsboard.server.common.data.kv.AttributeKvEntry;
+import org.thingsboard.server.common.data.kv.BaseAttributeKvEntry;
+import org.thingsboard.server.common.data.kv.BooleanDataEntry;
+import org.thingsboard.server.common.data.kv.DoubleDataEntry;
+import org.thingsboard.server.dao.attributes.AttributesService;
+import org.thingsboard.server.dao.nexus.NexusAttributes;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+/**
+ * Unit tests for RvIprModelService.
+ * Tests the batch IPR path: bounded bulk attribute reads and the per-version curve cache.
+ */
+@DisplayName("RvIprModelService Unit Tests")
+class RvIprModelServiceTest {
+
+    private AttributesService attributesService;
+    private RvIprModelService service;
+    private ListeningScheduledExecutorService daoExecutor;
+
+    private final Map<UUID, List<AttributeKvEntry>> stored = new HashMap<>();
+
+    @BeforeEach
+    void setUp() {
+        attributesService = mock(AttributesService.class);
+        daoExecutor = MoreExecutors.listeningDecorator(Executors.newSingleThreadScheduledExecutor());
+        service = new RvIprModelService(mock(RvAssetService.class), new RvAttributeService(attributesService),
+                mock(RvHierarchyService.class));
+        when(attributesService.find(any(), any(AssetId.class), any(), anyList())).thenAnswer(invocation -> {
+            AssetId assetId = invocation.getArgument(1);
+            return Futures.immediateFuture(stored.getOrDefault(assetId.getId(), List.of()));
+        });
+    }
+
+    @AfterEach
+    void tearDown() {
+        daoExecutor.shutdownNow();
+    }
+
+    @Test
+    @DisplayName("La lectura masiva limita las consultas en curso a 64")
+    void testBulkReadIsBounded() {
+        List<UUID> modelIds = models(150, 1L);
+        AtomicInteger inFlight = new AtomicInteger();
+        AtomicInteger maxInFlight = new AtomicInteger();
+        when(attributesService.find(any(), any(AssetId.class), any(), anyList())).thenAnswer(invocation -> {
+            AssetId assetId = invocation.getArgument(1);
+            maxInFlight.accumulateAndGet(inFlight.incrementAndGet(), Math::max);
+            return daoExecutor.schedule(() -> {
+                inFlight.decrementAndGet();
+                return stored.get(assetId.getId());
+            }, 5, TimeUnit.MILLISECONDS);
+        });
+
+        RvIprBatchResultDto result = service.generateIprCurves(request(modelIds));
+
+        verify(attributesService, times(150)).find(any(), any(AssetId.class), any(), anyList());
+        assertTrue(maxInFlight.get() <= NexusAttributes.MAX_CONCURRENT_REQUESTS);
+        assertEquals(150, result.getCurves().size());
+        assertTrue(result.getCurves().stream().allMatch(c -> RvIprBatchResultDto.STATUS_NO_VLP.equals(c.getStatus())));
+    }
+
+    @Test
+    @DisplayName("Un fallo del DAO no deja el hilo marcado como interrumpido")
+    void testDaoFailureDoesNotInterrupt() {
+        List<UUID> modelIds = models(3, 1L);
+        when(attributesService.find(any(), any(AssetId.class), any(), anyList()))
+                .thenReturn(Futures.immediateFailedFuture(new IllegalStateException("db down")));
+
+        RuntimeException e = assertThrows(RuntimeException.class, () -> service.generateIprCurves(request(modelIds)));
+
+        assertEquals("db down", e.getCause().getMessage());
+        assertFalse(Thread.currentThread().isInterrupted());
+    }
+
+    @Test
+    @DisplayName("Las curvas sin cambios de parámetros salen de la caché")
+    void testCurvesServedFromCache() {
+        List<UUID> modelIds = models(5, 1L);
+
+        RvIprBatchResultDto first = service.generateIprCurves(request(modelIds));
+        RvIprBatchResultDto second = service.generateIprCurves(request(modelIds));
+
+        assertEquals(0, first.getCacheHits());
+        assertEquals(5, second.getCacheHits());
+        assertArrayEquals(first.getCurves().get(0).getRateBopd(), second.getCurves().get(0).getRateBopd());
+    }
+
+    @Test
+    @DisplayName("Una nueva versión de los parámetros recalcula la curva")
+    void testNewParameterVersionRecomputes() {
+        List<UUID> modelIds = models(2, 1L);
+        service.generateIprCurves(request(modelIds));
+
+        stored.put(modelIds.get(0), parameters(2000.0, 2L));
+        RvIprBatchResultDto result = service.generateIprCurves(request(modelIds));
+
+        assertEquals(1, result.getCacheHits());
+        RvIprBatchResultDto.WellCurve curve = result.getCurves().get(0);
+        assertEquals(2L, curve.getVersion());
+        assertEquals(2000.0, curve.getQmaxBopd(), 1e-9);
+    }
+
+    @Test
+    @DisplayName("Los modelos sin parámetros se marcan como NO_PARAMETERS")
+    void testModelWithoutParameters() {
+        List<UUID> modelIds = new ArrayList<>(models(1, 1L));
+        modelIds.add(UUID.randomUUID());
+
+        RvIprBatchResultDto result = service.generateIprCurves(request(modelIds));
+
+        assertEquals(RvIprBatchResultDto.STATUS_NO_VLP, result.getCurves().get(0).getStatus());
+        assertEquals(RvIprBatchResultDto.STATUS_NO_PARAMETERS, result.getCurves().get(1).getStatus());
+    }
+
+    private List<UUID> models(int count, long version) {
+        List<UUID> ids = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            UUID id = UUID.randomUUID();
+            stored.put(id, parameters(1000.0 + i, version));
+            ids.add(id);
+        }
+        return ids;
+    }
+
+    private static List<AttributeKvEntry> parameters(double qmax, long version) {
+        return List.of(
+                new BaseAttributeKvEntry(new DoubleDataEntry(RvIprModelDto.ATTR_RESERVOIR_PRESSURE_PSI, 3000.0), version),
+                new BaseAttributeKvEntry(new DoubleDataEntry(RvIprModelDto.ATTR_QMAX_BOPD, qmax), version),
+                new BaseAttributeKvEntry(new BooleanDataEntry("is_below_bubble_point", true), version));
+    }
+
+    private static RvIprBatchRequest request(List<UUID> modelIds) {
+        return RvIprBatchRequest.builder().modelIds(modelIds).numPoints(10).build();
+    }
+}
@@ -22,6 +22,8 @@ import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.thingsboard.nexus.rv.dto.RvAquiferFitRequest;
+import org.thingsboard.nexus.rv.dto.RvAquiferFitResultDto;
 import org.thingsboard.nexus.rv.dto.RvMaterialBalanceDto;
 import org.thingsboard.nexus.rv.dto.RvMaterialBalanceDto.MaterialBalanceDataPoint;
 import org.thingsboard.nexus.rv.exception.RvCalculationException;
@@ -391,6 +393,104 @@ class RvMaterialBalanceServiceTest {
         assertEquals(0, we.compareTo(BigDecimal.ZERO));
     }
 
+    // ===========================================
+    // AQUIFER FIT TESTS
+    // ===========================================
+
+    @Test
+    @DisplayName("Aquifer Fit: Recupera parámetros Fetkovich y OOIP de datos sintéticos")
+    void testFitAquiferModel_RecoversFetkovichParameters() {
+        // Given: Synthetic study built from N = 50 MMSTB, J = 0.0005 MMbbl/day/psi, Wei = 200 MMbbl
+        double n = 50.0;
+        double j = 0.0005;
+        double wei = 200.0;
+        RvMaterialBalanceDto study = createSyntheticWaterDriveStudy(n, j, wei);
+
+        RvAquiferFitRequest request = RvAquiferFitRequest.builder()
+                .study(study)
+                .aquiferModels(List.of(RvAquiferFitResultDto.AQUIFER_NONE,
+                        RvMaterialBalanceDto.AQUIFER_FETKOVICH, RvMaterialBalanceDto.AQUIFER_CARTER_TRACY))
+                .fetkovichProductivityIndexMin(j / 10).fetkovichProductivityIndexMax(j * 10).fetkovichProductivityIndexSteps(3)
+                .fetkovichEncroachableWaterMin(wei / 10).fetkovichEncroachableWaterMax(wei * 10).fetkovichEncroachableWaterSteps(3)
+                .carterTracyAquiferConstantSteps(5)
+                .carterTracyTdPerDaySteps(5)
+                .topCandidates(5)
+                .build();
+
+        // When
+        RvAquiferFitResultDto result = materialBalanceService.fitAquiferModel(request);
+
+        // Then: The exact Fetkovich candidate should win with N ≈ 50
+        assertEquals(RvMaterialBalanceDto.AQUIFER_FETKOVICH, result.getAquiferModel());
+        assertEquals(j, result.getAquiferParameters().get(RvAquiferFitResultDto.PARAM_PRODUCTIVITY_INDEX), j * 1e-6);
+        assertEquals(wei, result.getAquiferParameters().get(RvAquiferFitResultDto.PARAM_ENCROACHABLE_WATER), wei * 1e-6);
+        assertEquals(n, result.getCalculatedOOIP(), n * 0.01);
+        assertTrue(result.getR2() > 0.99);
+        assertEquals(1 + 9 + 25, result.getCandidatesEvaluated());
+        assertEquals(5, result.getRanking().size());
+        assertEquals(study.getDataPoints().size(), result.getWaterInflux().length);
+    }
+
+    @Test
+    @DisplayName("Aquifer Fit: Validación - Modelo de acuífero no soportado")
+    void testFitAquiferModel_UnsupportedModel() {
+        // Given
+        RvAquiferFitRequest request = RvAquiferFitRequest.builder()
+                .study(createSyntheticWaterDriveStudy(50.0, 0.0005, 200.0))
+                .aquiferModels(List.of(RvMaterialBalanceDto.AQUIFER_VAN_EVERDINGEN_HURST))
+                .build();
+
+        // When/Then
+        assertThrows(RvCalculationException.class, () -> materialBalanceService.fitAquiferModel(request));
+    }
+
+    @Test
+    @DisplayName("Aquifer Fit: Validación - Pasos fuera de rango antes de reservar la malla")
+    void testFitAquiferModel_StepsOutOfRange() {
+        // Given: A step count that would allocate a huge grid
+        RvAquiferFitRequest request = RvAquiferFitRequest.builder()
+                .study(createSyntheticWaterDriveStudy(50.0, 0.0005, 200.0))
+                .aquiferModels(List.of(RvMaterialBalanceDto.AQUIFER_FETKOVICH))
+                .fetkovichProductivityIndexSteps(Integer.MAX_VALUE)
+                .build();
+
+        // When/Then
+        RvCalculationException e = assertThrows(RvCalculationException.class,
+                () -> materialBalanceService.fitAquiferModel(request));
+        assertTrue(e.getMessage().contains("steps"));
+    }
+
+    @Test
+    @DisplayName("Aquifer Fit: Validación - Rango logarítmico no positivo")
+    void testFitAquiferModel_NonPositiveRange() {
+        // Given
+        RvAquiferFitRequest request = RvAquiferFitRequest.builder()
+                .study(createSyntheticWaterDriveStudy(50.0, 0.0005, 200.0))
+                .aquiferModels(List.of(RvMaterialBalanceDto.AQUIFER_CARTER_TRACY))
+                .carterTracyAquiferConstantMin(0.0)
+                .build();
+
+        // When/Then
+        assertThrows(RvCalculationException.class, () -> materialBalanceService.fitAquiferModel(request));
+    }
+
+    @Test
+    @DisplayName("Aquifer Fit: Validación - Espacio de búsqueda demasiado grande")
+    void testFitAquiferModel_SearchSpaceTooLarge() {
+        // Given: 200 x (1 + 200² + 200²) candidates
+        RvAquiferFitRequest request = RvAquiferFitRequest.builder()
+                .study(createSyntheticWaterDriveStudy(50.0, 0.0005, 200.0))
+                .gasCapRatioMin(0.0).gasCapRatioMax(1.0).gasCapRatioSteps(200)
+                .fetkovichProductivityIndexSteps(200).fetkovichEncroachableWaterSteps(200)
+                .carterTracyAquiferConstantSteps(200).carterTracyTdPerDaySteps(200)
+                .build();
+
+        // When/Then
+        RvCalculationException e = assertThrows(RvCalculationException.class,
+                () -> materialBalanceService.fitAquiferModel(request));
+        assertTrue(e.getMessage().contains("too large"));
+    }
+
     // ===========================================
     // HELPER METHODS
     // ===========================================
@@ -454,6 +554,49 @@ class RvMaterialBalanceServiceTest {
         return study;
     }
 
+    /**
+     * Create a study whose production exactly satisfies F = N*Et + We for a Fetkovich aquifer.
+     * With no gas or water production F = Np*(Bo - Rs*Bg), so Np is solved per point.
+     */
+    private RvMaterialBalanceDto createSyntheticWaterDriveStudy(double n, double j, double wei) {
+        RvMaterialBalanceDto study = new RvMaterialBalanceDto();
+        study.setId(UUID.randomUUID());
+        study.setName("Synthetic Water Drive Study");
+        study.setInitialPressure(new BigDecimal("3000"));
+        study.setInitialBo(new BigDecimal("1.20"));
+        study.setInitialBg(new BigDecimal("0.001"));
+        study.setInitialRs(new BigDecimal("500"));
+        study.setInitialWaterSaturation(new BigDecimal("0.25"));
+        study.setWaterCompressibility(new BigDecimal("0.000003"));
+        study.setRockCompressibility(new BigDecimal("0.000004"));
+
+        String[] dates = {"2024-01-01", "2024-04-01", "2024-07-01", "2024-10-01", "2025-01-01", "2025-04-01", "2025-07-01"};
+        List<MaterialBalanceDataPoint> dataPoints = new ArrayList<>();
+        for (int i = 0; i < dates.length; i++) {
+            MaterialBalanceDataPoint dp = new MaterialBalanceDataPoint();
+            dp.setDate(dates[i]);
+            dp.setPressure(BigDecimal.valueOf(3000 - 80 * i));
+            dp.setBo(BigDecimal.valueOf(1.20 + 0.015 * i));
+            dp.setBg(BigDecimal.valueOf(0.001 + 0.0001 * i));
+            dp.setRs(BigDecimal.valueOf(500 - 15 * i));
+            dp.setBw(BigDecimal.ONE);
+            dp.setCumulativeOilProduction(BigDecimal.ZERO);
+            dataPoints.add(dp);
+        }
+        study.setDataPoints(dataPoints);
+
+        RvMaterialBalanceSolver.Series series = RvMaterialBalanceSolver.prepare(study, 30.0);
+        double[] we = new double[series.n];
+        RvMaterialBalanceSolver.fetkovichInflux(series, j, wei, we);
+        for (int i = 0; i < series.n; i++) {
+            MaterialBalanceDataPoint dp = dataPoints.get(i);
+            double f = n * series.et(i, 0.0) + we[i];
+            double np = f / (dp.getBo().doubleValue() - dp.getRs().doubleValue() * dp.getBg().doubleValue());
+            dp.setCumulativeOilProduction(BigDecimal.valueOf(np));
+        }
+        return study;
+    }
+
     /**
      * Create a study with gas cap.
      */
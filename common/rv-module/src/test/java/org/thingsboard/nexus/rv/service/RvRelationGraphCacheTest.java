@@ -0,0 +1,185 @@
+/**
+ * Copyright © 2016-2026 The Thingsboard Authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.thingsboard.nexus.rv.service;
+
+import com.google.common.util.concurrent.Futures;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.mockito.junit.jupiter.MockitoSettings;
+import org.mockito.quality.Strictness;
+import org.thingsboard.server.common.data.id.AssetId;
+import org.thingsboard.server.common.data.id.EntityId;
+import org.thingsboard.server.common.data.id.TenantId;
+import org.thingsboard.server.common.data.relation.EntityRelation;
+import org.thingsboard.server.common.data.relation.RelationTypeGroup;
+import org.thingsboard.server.dao.relation.RelationService;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+/**
+ * Unit tests for RvRelationGraphCache.
+ * Verifies that traversals are served from memory and kept in sync by relation events.
+ */
+@ExtendWith(MockitoExtension.class)
+@MockitoSettings(strictness = Strictness.LENIENT)
+@DisplayName("RvRelationGraphCache Unit Tests")
+class RvRelationGraphCacheTest {
+
+    @Mock
+    private RelationService relationService;
+
+    private RvRelationGraphCache cache;
+
+    private final UUID tenantId = UUID.randomUUID();
+    private final Map<UUID, List<EntityRelation>> containsByParent = new HashMap<>();
+
+    @BeforeEach
+    void setUp() {
+        cache = new RvRelationGraphCache(relationService);
+        when(relationService.findByFromAndType(any(), any(), eq(RvHierarchyService.RELATION_CONTAINS), eq(RelationTypeGroup.COMMON)))
+                .thenAnswer(inv -> containsByParent.getOrDefault(((EntityId) inv.getArgument(1)).getId(), List.of()));
+        when(relationService.findByFromAndTypeAsync(any(), any(), eq(RvHierarchyService.RELATION_CONTAINS), eq(RelationTypeGroup.COMMON)))
+                .thenAnswer(inv -> Futures.immediateFuture(
+                        containsByParent.getOrDefault(((EntityId) inv.getArgument(1)).getId(), List.of())));
+    }
+
+    @Test
+    @DisplayName("Subtree: Carga por niveles y luego se sirve desde memoria")
+    void testGetSubtree_LoadsOncePerNode() {
+        // Given: field -> 2 reservoirs -> 3 wells each
+        UUID field = UUID.randomUUID();
+        List<UUID> reservoirs = List.of(UUID.randomUUID(), UUID.randomUUID());
+        reservoirs.forEach(r -> link(field, r));
+        List<UUID> wells = new ArrayList<>();
+        for (UUID reservoir : reservoirs) {
+            for (int i = 0; i < 3; i++) {
+                UUID well = UUID.randomUUID();
+                wells.add(well);
+                link(reservoir, well);
+            }
+        }
+
+        // When
+        List<RvRelationGraphCache.Node> first = cache.getSubtree(tenantId, field, RvHierarchyService.RELATION_CONTAINS, 0);
+        List<RvRelationGraphCache.Node> second = cache.getSubtree(tenantId, field, RvHierarchyService.RELATION_CONTAINS, 0);
+
+        // Then: 1 field + 2 reservoirs + 6 wells, and each node was queried only once
+        assertEquals(9, first.size());
+        assertEquals(first, second);
+        assertEquals(2, first.stream().filter(n -> n.depth() == 1).count());
+        assertEquals(6, first.stream().filter(n -> n.depth() == 2).count());
+        verify(relationService, times(1)).findByFromAndType(any(), eq(new AssetId(field)), any(), any());
+        verify(relationService, times(8)).findByFromAndTypeAsync(any(), any(), any(), any());
+    }
+
+    @Test
+    @DisplayName("Eventos: Alta y baja de relaciones actualizan listas cacheadas")
+    void testRelationEvents_UpdateLoadedLists() {
+        // Given
+        UUID reservoir = UUID.randomUUID();
+        UUID well = UUID.randomUUID();
+        assertTrue(cache.getOutgoing(tenantId, reservoir, RvHierarchyService.RELATION_CONTAINS).isEmpty());
+
+        // When: relation created
+        EntityRelation relation = new EntityRelation(new AssetId(reservoir), new AssetId(well), RvHierarchyService.RELATION_CONTAINS);
+        cache.onRelationSaved(TenantId.fromUUID(tenantId), relation);
+
+        // Then
+        assertEquals(List.of(well), cache.getOutgoing(tenantId, reservoir, RvHierarchyService.RELATION_CONTAINS));
+
+        // When: well deleted
+        cache.onEntityDeleted(TenantId.fromUUID(tenantId), new AssetId(well));
+
+        // Then: served from memory, no extra query
+        assertTrue(cache.getOutgoing(tenantId, reservoir, RvHierarchyService.RELATION_CONTAINS).isEmpty());
+        verify(relationService, times(1)).findByFromAndType(any(), any(), any(), any());
+    }
+
+    @Test
+    @DisplayName("Eventos: Borrar un pozo cargado por subárbol lo quita de los hijos del padre")
+    void testEntityDeleted_RemovesFromParentLoadedBySubtree() {
+        // Given: reservoir -> 2 wells, loaded through a traversal (incoming lists never loaded)
+        UUID reservoir = UUID.randomUUID();
+        UUID well1 = UUID.randomUUID();
+        UUID well2 = UUID.randomUUID();
+        link(reservoir, well1);
+        link(reservoir, well2);
+        assertEquals(3, cache.getSubtree(tenantId, reservoir, RvHierarchyService.RELATION_CONTAINS, 0).size());
+
+        // When
+        cache.onEntityDeleted(TenantId.fromUUID(tenantId), new AssetId(well1));
+
+        // Then
+        assertEquals(List.of(well2), cache.getOutgoing(tenantId, reservoir, RvHierarchyService.RELATION_CONTAINS));
+        List<RvRelationGraphCache.Node> subtree = cache.getSubtree(tenantId, reservoir, RvHierarchyService.RELATION_CONTAINS, 0);
+        assertEquals(2, subtree.size());
+        assertTrue(subtree.stream().noneMatch(n -> n.id().equals(well1)));
+    }
+
+    @Test
+    @DisplayName("Eventos: Una lectura en vuelo no pisa un evento concurrente")
+    void testConcurrentEvent_DiscardsInFlightRead() {
+        // Given: the DB read returns a snapshot taken before the relation was committed
+        UUID reservoir = UUID.randomUUID();
+        UUID well = UUID.randomUUID();
+        EntityRelation relation = new EntityRelation(new AssetId(reservoir), new AssetId(well), RvHierarchyService.RELATION_CONTAINS);
+        when(relationService.findByFromAndType(any(), eq(new AssetId(reservoir)), any(), any()))
+                .thenAnswer(inv -> {
+                    cache.onRelationSaved(TenantId.fromUUID(tenantId), relation);
+                    return List.of();
+                })
+                .thenReturn(List.of(relation));
+
+        // When
+        List<UUID> first = cache.getOutgoing(tenantId, reservoir, RvHierarchyService.RELATION_CONTAINS);
+        List<UUID> second = cache.getOutgoing(tenantId, reservoir, RvHierarchyService.RELATION_CONTAINS);
+
+        // Then: the stale snapshot was returned once but not cached
+        assertTrue(first.isEmpty());
+        assertEquals(List.of(well), second);
+        verify(relationService, times(2)).findByFromAndType(any(), any(), any(), any());
+    }
+
+    @Test
+    @DisplayName("Eventos: Tipos de relación ajenos a RV se ignoran")
+    void testRelationEvents_IgnoreForeignTypes() {
+        UUID from = UUID.randomUUID();
+        cache.getOutgoing(tenantId, from, RvHierarchyService.RELATION_CONTAINS);
+
+        cache.onRelationSaved(TenantId.fromUUID(tenantId),
+                new EntityRelation(new AssetId(from), new AssetId(UUID.randomUUID()), "Manages"));
+
+        assertTrue(cache.getOutgoing(tenantId, from, RvHierarchyService.RELATION_CONTAINS).isEmpty());
+    }
+
+    private void link(UUID parent, UUID child) {
+        containsByParent.computeIfAbsent(parent, k -> new ArrayList<>())
+                .add(new EntityRelation(new AssetId(parent), new AssetId(child), RvHierarchyService.RELATION_CONTAINS));
+    }
+}
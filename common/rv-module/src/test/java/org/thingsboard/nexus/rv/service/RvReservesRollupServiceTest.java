@@ -0,0 +1,179 @@
+/**
+ * Copyright © 2016-2026 The Thingsboard Authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.thingsboard.nexus.rv.service;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.mockito.junit.jupiter.MockitoSettings;
+import org.mockito.quality.Strictness;
+import org.thingsboard.nexus.rv.config.RvModuleConfiguration;
+import org.thingsboard.nexus.rv.dto.RvReservesRollupDto;
+import org.thingsboard.server.common.data.kv.AttributeKvEntry;
+import org.thingsboard.server.common.data.kv.BaseAttributeKvEntry;
+import org.thingsboard.server.common.data.kv.DoubleDataEntry;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+/**
+ * Unit tests for RvReservesRollupService.
+ * Verifies bottom-up aggregation and incremental delta propagation to ancestors.
+ */
+@ExtendWith(MockitoExtension.class)
+@MockitoSettings(strictness = Strictness.LENIENT)
+@DisplayName("RvReservesRollupService Unit Tests")
+class RvReservesRollupServiceTest {
+
+    @Mock
+    private RvHierarchyService hierarchyService;
+
+    @Mock
+    private RvAttributeService attributeService;
+
+    @Mock
+    private RvAssetService assetService;
+
+    private RvReservesRollupService rollupService;
+
+    private final UUID tenantId = UUID.randomUUID();
+    private final UUID field = UUID.randomUUID();
+    private final UUID reservoir1 = UUID.randomUUID();
+    private final UUID reservoir2 = UUID.randomUUID();
+    private final Map<UUID, List<AttributeKvEntry>> storedAttributes = new HashMap<>();
+
+    @BeforeEach
+    void setUp() {
+        rollupService = new RvReservesRollupService(hierarchyService, attributeService, assetService, new RvModuleConfiguration());
+        rollupService.init();
+
+        // field -> reservoir1, reservoir2
+        when(hierarchyService.getSubtree(eq(tenantId), eq(field), anyInt())).thenReturn(List.of(
+                new RvRelationGraphCache.Node(field, null, 0),
+                new RvRelationGraphCache.Node(reservoir1, field, 1),
+                new RvRelationGraphCache.Node(reservoir2, field, 1)));
+        when(hierarchyService.getAncestors(tenantId, field)).thenReturn(List.of());
+        when(hierarchyService.getAncestors(tenantId, reservoir1)).thenReturn(List.of(field));
+        when(hierarchyService.getAncestors(tenantId, reservoir2)).thenReturn(List.of(field));
+        when(attributeService.getServerAttributesBulk(any(), any())).thenAnswer(inv -> {
+            Map<UUID, List<AttributeKvEntry>> result = new HashMap<>();
+            for (UUID id : (Collection<UUID>) inv.getArgument(0)) {
+                result.put(id, storedAttributes.getOrDefault(id, List.of()));
+            }
+            return result;
+        });
+
+        store(reservoir1, "ooip_stb", 1_000_000.0);
+        store(reservoir1, RvReservesRollupDto.ATTR_OOIP_P90_STB, 800_000.0);
+        store(reservoir1, RvReservesRollupDto.ATTR_OOIP_P10_STB, 1_300_000.0);
+        store(reservoir2, "ooip_stb", 500_000.0);
+    }
+
+    @AfterEach
+    void tearDown() {
+        rollupService.destroy();
+    }
+
+    @Test
+    @DisplayName("Roll-up: Suma P90/P50/P10 de los hijos en el padre")
+    void testGetRollup_SumsChildren() {
+        RvReservesRollupDto rollup = rollupService.getRollup(tenantId, field);
+
+        assertEquals(2, rollup.getDescendantCount());
+        assertEquals(0, new BigDecimal("1300000").compareTo(rollup.getOoipStb().getP90()));
+        assertEquals(0, new BigDecimal("1500000").compareTo(rollup.getOoipStb().getP50()));
+        // reservoir2 has no P10: its P50 is used
+        assertEquals(0, new BigDecimal("1800000").compareTo(rollup.getOoipStb().getP10()));
+        verify(attributeService).saveServerAttributes(eq(field), any());
+    }
+
+    @Test
+    @DisplayName("Incremental: Un cambio en un hijo propaga solo el delta a sus ancestros")
+    void testOnValueChanged_PropagatesDelta() {
+        rollupService.getRollup(tenantId, field);
+        clearInvocations(hierarchyService, attributeService);
+
+        rollupService.onValueChanged(tenantId, reservoir2, RvReservesRollupDto.METRIC_OOIP, null, 700_000.0, null);
+
+        RvReservesRollupDto rollup = rollupService.getRollup(tenantId, field);
+        assertEquals(0, new BigDecimal("1700000").compareTo(rollup.getOoipStb().getP50()));
+        assertEquals(0, new BigDecimal("1500000").compareTo(rollup.getOoipStb().getP90()));
+        // No subtree reload, only the changed asset and its field are written
+        verify(hierarchyService, never()).getSubtree(any(), any(), anyInt());
+        verify(attributeService).saveServerAttributes(eq(reservoir2), any());
+        verify(attributeService).saveServerAttributes(eq(field), any());
+        verify(attributeService, times(2)).saveServerAttributes(any(), any());
+    }
+
+    @Test
+    @DisplayName("Relaciones: Quitar un hijo resta su total y un evento repetido no duplica")
+    void testOnContainsRelationChanged_IsIdempotent() {
+        rollupService.getRollup(tenantId, field);
+
+        rollupService.onContainsRelationChanged(tenantId, field, reservoir1, false);
+        rollupService.onContainsRelationChanged(tenantId, field, reservoir1, false);
+        assertEquals(0, new BigDecimal("500000").compareTo(rollupService.getRollup(tenantId, field).getOoipStb().getP50()));
+
+        rollupService.onContainsRelationChanged(tenantId, field, reservoir1, true);
+        rollupService.onContainsRelationChanged(tenantId, field, reservoir1, true);
+        RvReservesRollupDto rollup = rollupService.getRollup(tenantId, field);
+        assertEquals(0, new BigDecimal("1500000").compareTo(rollup.getOoipStb().getP50()));
+        assertEquals(2, rollup.getDescendantCount());
+    }
+
+    @Test
+    @DisplayName("Relaciones: Quitar un hijo desconocido recalcula solo el árbol del padre")
+    void testOnContainsRelationChanged_UnknownChildKeepsTenantState() {
+        // Given: a reservoir linked after the field tree was loaded, without an add event
+        UUID reservoir3 = UUID.randomUUID();
+        store(reservoir3, "ooip_stb", 200_000.0);
+        when(hierarchyService.getSubtree(eq(tenantId), eq(reservoir3), anyInt()))
+                .thenReturn(List.of(new RvRelationGraphCache.Node(reservoir3, null, 0)));
+        rollupService.getRollup(tenantId, field);
+        clearInvocations(hierarchyService);
+
+        // When
+        rollupService.onContainsRelationChanged(tenantId, field, reservoir3, false);
+
+        // Then: only the child and the parent's tree are read, the rest of the tenant stays cached
+        verify(hierarchyService).getSubtree(eq(tenantId), eq(reservoir3), anyInt());
+        verify(hierarchyService).getSubtree(eq(tenantId), eq(field), anyInt());
+        assertEquals(0, new BigDecimal("1500000").compareTo(rollupService.getRollup(tenantId, field).getOoipStb().getP50()));
+        assertEquals(0, new BigDecimal("200000").compareTo(rollupService.getRollup(tenantId, reservoir3).getOoipStb().getP50()));
+        assertEquals(0, new BigDecimal("500000").compareTo(rollupService.getRollup(tenantId, reservoir2).getOoipStb().getP50()));
+        verify(hierarchyService, times(2)).getSubtree(any(), any(), anyInt());
+    }
+
+    private void store(UUID assetId, String key, double value) {
+        storedAttributes.computeIfAbsent(assetId, k -> new ArrayList<>())
+                .add(new BaseAttributeKvEntry(new DoubleDataEntry(key, value), System.currentTimeMillis()));
+    }
+}
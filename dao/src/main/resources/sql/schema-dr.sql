@@ -378,3 +378,15 @@ CREATE INDEX IF NOT EXISTS idx_dr_mudlogs_tenant ON dr_mud_logs(tenant_id);
 CREATE INDEX IF NOT EXISTS idx_dr_mudlogs_run ON dr_mud_logs(run_id);
 CREATE INDEX IF NOT EXISTS idx_dr_mudlogs_depth ON dr_mud_logs(measured_depth_ft);
 CREATE INDEX IF NOT EXISTS idx_dr_mudlogs_time ON dr_mud_logs(log_time);
+
+-- =====================================================
+-- Table: dr_activity_kpis
+-- Description: Activity KPI aggregates (connections, trips, NPT) of runs, rigs and wells,
+-- built from rig state transitions and flushed periodically by the DR module
+-- =====================================================
+CREATE TABLE IF NOT EXISTS dr_activity_kpis (
+    scope_id UUID PRIMARY KEY,
+    scope_type VARCHAR(16) NOT NULL,
+    snapshot JSONB NOT NULL,
+    updated_time BIGINT NOT NULL
+);
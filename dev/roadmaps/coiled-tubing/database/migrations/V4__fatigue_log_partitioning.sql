@@ -0,0 +1,171 @@
+--
+-- Copyright © 2016-2026 The Thingsboard Authors
+--
+-- Licensed under the Apache License, Version 2.0 (the "License");
+-- you may not use this file except in compliance with the License.
+-- You may obtain a copy of the License at
+--
+--     http://www.apache.org/licenses/LICENSE-2.0
+--
+-- Unless required by applicable law or agreed to in writing, software
+-- distributed under the License is distributed on an "AS IS" BASIS,
+-- WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+-- See the License for the specific language governing permissions and
+-- limitations under the License.
+--
+
+-- Migración V4: Particionado mensual de ct_fatigue_log y agregados horarios/diarios
+--
+-- ct_fatigue_log pasa a ser una tabla particionada por rango de timestamp (un mes UTC por partición).
+-- Las particiones se crean bajo demanda con ct_fatigue_log_create_partition(); la aplicación la invoca
+-- antes de escribir en un mes nuevo, por lo que no hay partición DEFAULT.
+-- ct_fatigue_log_hourly y ct_fatigue_log_daily guardan los agregados por reel y por intervalo que
+-- sirven los gráficos de vida del reel sin recorrer los registros individuales. La aplicación los
+-- actualiza en la misma transacción en la que inserta cada lote de registros.
+--
+-- La tabla original se renombra a ct_fatigue_log_unpartitioned y se elimina en cuanto sus filas están
+-- copiadas en la particionada. Si la migración se interrumpe después de copiarlas y fuera de una
+-- transacción, hay que eliminarla a mano: DROP TABLE IF EXISTS ct_fatigue_log_unpartitioned;
+
+-- ============================================================================
+-- TABLA: ct_fatigue_log (particionada)
+-- ============================================================================
+ALTER TABLE ct_fatigue_log RENAME TO ct_fatigue_log_unpartitioned;
+ALTER TABLE ct_fatigue_log_unpartitioned RENAME CONSTRAINT ct_fatigue_log_pkey TO ct_fatigue_log_unpartitioned_pkey;
+DROP INDEX IF EXISTS idx_ct_fatigue_log_tenant;
+DROP INDEX IF EXISTS idx_ct_fatigue_log_reel;
+DROP INDEX IF EXISTS idx_ct_fatigue_log_job;
+DROP INDEX IF EXISTS idx_ct_fatigue_log_time;
+DROP INDEX IF EXISTS idx_ct_fatigue_log_reel_time;
+
+CREATE TABLE ct_fatigue_log (
+    LIKE ct_fatigue_log_unpartitioned INCLUDING DEFAULTS INCLUDING COMMENTS,
+
+    -- La clave de partición debe formar parte de la clave primaria
+    CONSTRAINT ct_fatigue_log_pkey PRIMARY KEY (id, timestamp),
+    CONSTRAINT fk_ct_fatigue_log_tenant FOREIGN KEY (tenant_id)
+        REFERENCES tenant(id) ON DELETE CASCADE,
+    CONSTRAINT fk_ct_fatigue_log_reel FOREIGN KEY (reel_id)
+        REFERENCES ct_reels(id) ON DELETE CASCADE,
+    CONSTRAINT fk_ct_fatigue_log_job FOREIGN KEY (job_id)
+        REFERENCES ct_jobs(id) ON DELETE SET NULL
+) PARTITION BY RANGE (timestamp);
+
+CREATE INDEX idx_ct_fatigue_log_tenant ON ct_fatigue_log(tenant_id);
+CREATE INDEX idx_ct_fatigue_log_job ON ct_fatigue_log(job_id);
+CREATE INDEX idx_ct_fatigue_log_reel_time ON ct_fatigue_log(reel_id, timestamp DESC);
+
+-- Crea (si no existe) la partición mensual que contiene p_ts (epoch ms)
+CREATE OR REPLACE FUNCTION ct_fatigue_log_create_partition(p_ts BIGINT) RETURNS VOID AS $$
+DECLARE
+    v_start TIMESTAMP := date_trunc('month', to_timestamp(p_ts / 1000.0) AT TIME ZONE 'UTC');
+    v_end TIMESTAMP := v_start + INTERVAL '1 month';
+BEGIN
+    EXECUTE format('CREATE TABLE IF NOT EXISTS %I PARTITION OF ct_fatigue_log FOR VALUES FROM (%s) TO (%s)',
+                   'ct_fatigue_log_' || to_char(v_start, 'YYYY_MM'),
+                   (extract(EPOCH FROM v_start) * 1000)::BIGINT,
+                   (extract(EPOCH FROM v_end) * 1000)::BIGINT);
+END;
+$$ LANGUAGE plpgsql;
+
+-- Elimina las particiones cuyo mes termina antes de p_ts (epoch ms). Los agregados se conservan.
+CREATE OR REPLACE FUNCTION ct_fatigue_log_drop_partitions_before(p_ts BIGINT) RETURNS INTEGER AS $$
+DECLARE
+    v_name TEXT;
+    v_dropped INTEGER := 0;
+BEGIN
+    FOR v_name IN
+        SELECT c.relname FROM pg_inherits i JOIN pg_class c ON c.oid = i.inhrelid
+        WHERE i.inhparent = 'ct_fatigue_log'::regclass AND c.relname ~ '^ct_fatigue_log_[0-9]{4}_[0-9]{2}$'
+    LOOP
+        IF extract(EPOCH FROM to_date(substr(v_name, 16), 'YYYY_MM')::TIMESTAMP + INTERVAL '1 month') * 1000 <= p_ts THEN
+            EXECUTE format('DROP TABLE %I', v_name);
+            v_dropped := v_dropped + 1;
+        END IF;
+    END LOOP;
+    RETURN v_dropped;
+END;
+$$ LANGUAGE plpgsql;
+
+-- Particiones para los datos existentes, el mes actual y el siguiente
+DO $$
+DECLARE
+    v_min BIGINT;
+    v_max BIGINT;
+    v_month TIMESTAMP;
+    v_last TIMESTAMP;
+BEGIN
+    SELECT min(timestamp), max(timestamp) INTO v_min, v_max FROM ct_fatigue_log_unpartitioned;
+    v_month := date_trunc('month', now() AT TIME ZONE 'UTC');
+    v_last := v_month + INTERVAL '1 month';
+    IF v_min IS NOT NULL THEN
+        v_month := LEAST(v_month, date_trunc('month', to_timestamp(v_min / 1000.0) AT TIME ZONE 'UTC'));
+        v_last := GREATEST(v_last, date_trunc('month', to_timestamp(v_max / 1000.0) AT TIME ZONE 'UTC'));
+    END IF;
+    WHILE v_month <= v_last LOOP
+        PERFORM ct_fatigue_log_create_partition((extract(EPOCH FROM v_month) * 1000)::BIGINT);
+        v_month := v_month + INTERVAL '1 month';
+    END LOOP;
+END $$;
+
+-- ============================================================================
+-- TABLAS: ct_fatigue_log_hourly / ct_fatigue_log_daily (agregados)
+-- ============================================================================
+CREATE TABLE ct_fatigue_log_hourly (
+    reel_id UUID NOT NULL,
+    bucket_ts BIGINT NOT NULL,
+    tenant_id UUID NOT NULL,
+
+    -- Agregados del intervalo
+    samples INTEGER NOT NULL,
+    min_cycle_number INTEGER,
+    max_cycle_number INTEGER,
+    max_von_mises_stress_psi DECIMAL(12,2),
+    damage_sum DECIMAL(18,10),
+    max_accumulated_fatigue_percent DECIMAL(6,3),
+    last_ts BIGINT NOT NULL,
+
+    CONSTRAINT ct_fatigue_log_hourly_pkey PRIMARY KEY (reel_id, bucket_ts),
+    CONSTRAINT fk_ct_fatigue_log_hourly_tenant FOREIGN KEY (tenant_id)
+        REFERENCES tenant(id) ON DELETE CASCADE,
+    CONSTRAINT fk_ct_fatigue_log_hourly_reel FOREIGN KEY (reel_id)
+        REFERENCES ct_reels(id) ON DELETE CASCADE
+);
+
+CREATE TABLE ct_fatigue_log_daily (
+    LIKE ct_fatigue_log_hourly INCLUDING DEFAULTS,
+
+    CONSTRAINT ct_fatigue_log_daily_pkey PRIMARY KEY (reel_id, bucket_ts),
+    CONSTRAINT fk_ct_fatigue_log_daily_tenant FOREIGN KEY (tenant_id)
+        REFERENCES tenant(id) ON DELETE CASCADE,
+    CONSTRAINT fk_ct_fatigue_log_daily_reel FOREIGN KEY (reel_id)
+        REFERENCES ct_reels(id) ON DELETE CASCADE
+);
+
+COMMENT ON TABLE ct_fatigue_log_hourly IS 'Agregados horarios (UTC) de ct_fatigue_log por reel';
+COMMENT ON TABLE ct_fatigue_log_daily IS 'Agregados diarios (UTC) de ct_fatigue_log por reel';
+COMMENT ON COLUMN ct_fatigue_log_hourly.bucket_ts IS 'Inicio del intervalo (epoch ms)';
+COMMENT ON COLUMN ct_fatigue_log_hourly.damage_sum IS 'Suma de fatigue_increment del intervalo';
+
+-- ============================================================================
+-- Migración de datos existentes
+-- ============================================================================
+INSERT INTO ct_fatigue_log SELECT * FROM ct_fatigue_log_unpartitioned;
+
+DROP TABLE ct_fatigue_log_unpartitioned;
+
+INSERT INTO ct_fatigue_log_hourly (reel_id, bucket_ts, tenant_id, samples, min_cycle_number, max_cycle_number,
+                                   max_von_mises_stress_psi, damage_sum, max_accumulated_fatigue_percent, last_ts)
+SELECT reel_id, timestamp - timestamp % 3600000, min(tenant_id::TEXT)::UUID, count(*), min(cycle_number),
+       max(cycle_number), max(von_mises_stress_psi), sum(fatigue_increment), max(accumulated_fatigue_percent),
+       max(timestamp)
+FROM ct_fatigue_log
+GROUP BY reel_id, timestamp - timestamp % 3600000;
+
+INSERT INTO ct_fatigue_log_daily (reel_id, bucket_ts, tenant_id, samples, min_cycle_number, max_cycle_number,
+                                  max_von_mises_stress_psi, damage_sum, max_accumulated_fatigue_percent, last_ts)
+SELECT reel_id, bucket_ts - bucket_ts % 86400000, min(tenant_id::TEXT)::UUID, sum(samples), min(min_cycle_number),
+       max(max_cycle_number), max(max_von_mises_stress_psi), sum(damage_sum),
+       max(max_accumulated_fatigue_percent), max(last_ts)
+FROM ct_fatigue_log_hourly
+GROUP BY reel_id, bucket_ts - bucket_ts % 86400000;
@@ -89,6 +89,8 @@ import org.thingsboard.server.dao.user.UserService;
 import org.thingsboard.server.dao.widget.WidgetTypeService;
 import org.thingsboard.server.dao.widget.WidgetsBundleService;
 import org.thingsboard.server.dao.nexus.DataDistributionService;
+import org.thingsboard.server.dao.nexus.ReelFatigueService;
+import org.thingsboard.server.dao.nexus.RigActivityService;
 
 import java.util.List;
 import java.util.Set;
@@ -441,6 +443,12 @@ public interface TbContext {
     // NEXUS Data Distribution Service
     DataDistributionService getDataDistributionService();
 
+    // NEXUS drilling activity KPIs fed by rig state transitions
+    RigActivityService getRigActivityService();
+
+    // NEXUS coiled tubing reel and string fatigue fed by reel telemetry
+    ReelFatigueService getReelFatigueService();
+
     // Configuration parameters for the MQTT client that is used in the MQTT node and Azure IoT hub node
 
     MqttClientSettings getMqttClientSettings();
@@ -0,0 +1,463 @@
+/**
+ * Copyright © 2016-2026 The Thingsboard Authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.thingsboard.rule.engine.nexus;
+
+import com.google.common.util.concurrent.Futures;
+import com.google.common.util.concurrent.ListenableFuture;
+import lombok.extern.slf4j.Slf4j;
+import org.thingsboard.common.util.ListeningExecutor;
+import org.thingsboard.rule.engine.api.TbContext;
+import org.thingsboard.server.common.data.EntityType;
+import org.thingsboard.server.common.data.asset.Asset;
+import org.thingsboard.server.common.data.id.AssetId;
+import org.thingsboard.server.common.data.kv.TsKvEntry;
+import org.thingsboard.server.common.data.nexus.AggregationType;
+import org.thingsboard.server.common.data.nexus.DataAggregation;
+import org.thingsboard.server.common.data.page.PageData;
+import org.thingsboard.server.common.data.page.PageLink;
+import org.thingsboard.server.common.data.relation.EntityRelation;
+import org.thingsboard.server.common.data.relation.RelationTypeGroup;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.TreeSet;
+import java.util.UUID;
+
+/**
+ * In-memory parent to children index used by {@link TbNexusDataAggregationNode}.
+ *
+ * Holds the "Contains" links between assets of the configured target and source types,
+ * the latest value of every aggregated key per child, and a running aggregate per
+ * (parent, source type, key). Asset, relation and telemetry changes are applied as
+ * deltas, so a message only touches the parents of its originator. A rule node instance
+ * belongs to a single tenant, so one index per node is one index per tenant.
+ *
+ * Not thread-safe: it is only used from the node's message processing. A rebuild fills a
+ * new instance off the message thread (see {@link #build}) and the node swaps it in.
+ */
+@Slf4j
+class NexusAggregationIndex {
+
+    static final String RELATION_TYPE_CONTAINS = "Contains";
+
+    private static final int PAGE_SIZE = 1000;
+    private static final int FETCH_BATCH_SIZE = 256;
+
+    /** Aggregated keys per source asset type. */
+    private final Map<String, Set<String>> keysBySourceType = new HashMap<>();
+    /** Target asset types each source asset type aggregates into. */
+    private final Map<String, Set<String>> targetTypesBySourceType = new HashMap<>();
+    private final Set<String> targetTypes = new HashSet<>();
+
+    private final Map<UUID, String> assetTypes = new HashMap<>();
+    private final Map<UUID, Set<UUID>> childrenByParent = new HashMap<>();
+    private final Map<UUID, Set<UUID>> parentsByChild = new HashMap<>();
+    private final Map<UUID, Map<String, Double>> latestByChild = new HashMap<>();
+    private final Map<AggregateKey, RunningAggregate> aggregates = new HashMap<>();
+
+    private String signature;
+    private boolean built;
+    private long lastRebuildTs;
+    private long lastRebuildTimeMs;
+    private int links;
+
+    record AggregateKey(UUID parentId, String sourceType, String key) {}
+
+    /**
+     * Signature of the asset types and keys an aggregation set needs; the index must be
+     * rebuilt when it changes.
+     */
+    static String signatureOf(Collection<DataAggregation> aggregations) {
+        Set<String> parts = new TreeSet<>();
+        for (DataAggregation aggregation : aggregations) {
+            parts.add(aggregation.getSourceAssetType() + "|" + aggregation.getTargetAssetType() + "|" + aggregation.getSourceKey());
+        }
+        return String.join(",", parts);
+    }
+
+    boolean needsRebuild(String signature, long rebuildIntervalMs, long now) {
+        return !built || !signature.equals(this.signature)
+                || (rebuildIntervalMs > 0 && now - lastRebuildTs >= rebuildIntervalMs);
+    }
+
+    /**
+     * Builds a new index with paged asset queries and batched, concurrent relation and
+     * latest-value lookups, chained on the DB callback executor so the caller never blocks.
+     * The steps run one after another, and the index is only handed out once complete.
+     */
+    static ListenableFuture<NexusAggregationIndex> build(TbContext ctx, Collection<DataAggregation> aggregations) {
+        long start = System.currentTimeMillis();
+        NexusAggregationIndex index = new NexusAggregationIndex();
+        for (DataAggregation aggregation : aggregations) {
+            index.keysBySourceType.computeIfAbsent(aggregation.getSourceAssetType(), t -> new LinkedHashSet<>())
+                    .add(aggregation.getSourceKey());
+            index.targetTypesBySourceType.computeIfAbsent(aggregation.getSourceAssetType(), t -> new HashSet<>())
+                    .add(aggregation.getTargetAssetType());
+            index.targetTypes.add(aggregation.getTargetAssetType());
+        }
+        String signature = signatureOf(aggregations);
+        ListeningExecutor executor = ctx.getDbCallbackExecutor();
+        ListenableFuture<List<UUID>> parents = executor.executeAsync(() -> index.loadAssets(ctx));
+        ListenableFuture<Void> linked = Futures.transformAsync(parents,
+                ids -> index.loadLinks(ctx, ids, 0), executor);
+        ListenableFuture<Void> loaded = Futures.transformAsync(linked,
+                v -> index.loadLatest(ctx, new ArrayList<>(index.parentsByChild.keySet()), 0), executor);
+        return Futures.transform(loaded, v -> {
+            index.signature = signature;
+            index.built = true;
+            index.lastRebuildTs = System.currentTimeMillis();
+            index.lastRebuildTimeMs = index.lastRebuildTs - start;
+            log.info("[{}] Aggregation index rebuilt in {} ms: {} assets, {} parents, {} links, {} aggregates",
+                    ctx.getTenantId(), index.lastRebuildTimeMs, index.assetTypes.size(), index.childrenByParent.size(),
+                    index.links, index.aggregates.size());
+            return index;
+        }, executor);
+    }
+
+    /**
+     * @return ids of the assets of a target type
+     */
+    private List<UUID> loadAssets(TbContext ctx) {
+        Set<String> types = new HashSet<>(targetTypes);
+        types.addAll(keysBySourceType.keySet());
+        List<UUID> parents = new ArrayList<>();
+        for (String type : types) {
+            PageLink pageLink = new PageLink(PAGE_SIZE);
+            PageData<Asset> page;
+            do {
+                page = ctx.getAssetService().findAssetsByTenantIdAndType(ctx.getTenantId(), type, pageLink);
+                for (Asset asset : page.getData()) {
+                    assetTypes.put(asset.getUuidId(), type);
+                    if (targetTypes.contains(type)) {
+                        parents.add(asset.getUuidId());
+                    }
+                }
+                pageLink = pageLink.nextPageLink();
+            } while (page.hasNext());
+        }
+        return parents;
+    }
+
+    private ListenableFuture<Void> loadLinks(TbContext ctx, List<UUID> parents, int from) {
+        if (from >= parents.size()) {
+            return Futures.immediateFuture(null);
+        }
+        List<UUID> batch = parents.subList(from, Math.min(from + FETCH_BATCH_SIZE, parents.size()));
+        List<ListenableFuture<List<EntityRelation>>> futures = new ArrayList<>(batch.size());
+        for (UUID parentId : batch) {
+            futures.add(ctx.getRelationService().findByFromAndTypeAsync(ctx.getTenantId(), new AssetId(parentId),
+                    RELATION_TYPE_CONTAINS, RelationTypeGroup.COMMON));
+        }
+        return Futures.transformAsync(Futures.allAsList(futures), results -> {
+            for (List<EntityRelation> relations : results) {
+                for (EntityRelation relation : relations) {
+                    if (relation.getTo().getEntityType() == EntityType.ASSET) {
+                        link(relation.getFrom().getId(), relation.getTo().getId());
+                    }
+                }
+            }
+            return loadLinks(ctx, parents, from + FETCH_BATCH_SIZE);
+        }, ctx.getDbCallbackExecutor());
+    }
+
+    private ListenableFuture<Void> loadLatest(TbContext ctx, List<UUID> children, int from) {
+        if (from >= children.size()) {
+            return Futures.immediateFuture(null);
+        }
+        List<UUID> batch = children.subList(from, Math.min(from + FETCH_BATCH_SIZE, children.size()));
+        List<ListenableFuture<List<TsKvEntry>>> futures = new ArrayList<>(batch.size());
+        for (UUID childId : batch) {
+            futures.add(ctx.getTimeseriesService().findLatest(ctx.getTenantId(), new AssetId(childId),
+                    keysBySourceType.get(assetTypes.get(childId))));
+        }
+        return Futures.transformAsync(Futures.allAsList(futures), results -> {
+            for (int i = 0; i < batch.size(); i++) {
+                updateValues(batch.get(i), toValues(results.get(i)));
+            }
+            return loadLatest(ctx, children, from + FETCH_BATCH_SIZE);
+        }, ctx.getDbCallbackExecutor());
+    }
+
+    static Map<String, Double> toValues(List<TsKvEntry> entries) {
+        Map<String, Double> values = new HashMap<>();
+        for (TsKvEntry entry : entries) {
+            Double value = TbNexusDataAggregationNode.extractDoubleValue(entry);
+            if (value != null) {
+                values.put(entry.getKey(), value);
+            }
+        }
+        return values;
+    }
+
+    void clear() {
+        keysBySourceType.clear();
+        targetTypesBySourceType.clear();
+        targetTypes.clear();
+        assetTypes.clear();
+        childrenByParent.clear();
+        parentsByChild.clear();
+        latestByChild.clear();
+        aggregates.clear();
+        links = 0;
+        built = false;
+    }
+
+    /** Forces a rebuild on the next message. */
+    void invalidate() {
+        built = false;
+    }
+
+    String getAssetType(UUID assetId) {
+        return assetTypes.get(assetId);
+    }
+
+    boolean isSourceType(String type) {
+        return type != null && keysBySourceType.containsKey(type);
+    }
+
+    boolean isIndexedType(String type) {
+        return type != null && (targetTypes.contains(type) || keysBySourceType.containsKey(type));
+    }
+
+    Set<String> getKeys(String sourceType) {
+        return keysBySourceType.getOrDefault(sourceType, Collections.emptySet());
+    }
+
+    Set<UUID> getParents(UUID childId) {
+        return parentsByChild.getOrDefault(childId, Collections.emptySet());
+    }
+
+    Set<UUID> getParentIds() {
+        return childrenByParent.keySet();
+    }
+
+    boolean hasChildValues(UUID childId) {
+        return latestByChild.containsKey(childId);
+    }
+
+    RunningAggregate getAggregate(UUID parentId, String sourceType, String key) {
+        return aggregates.get(new AggregateKey(parentId, sourceType, key));
+    }
+
+    int getAssetCount() {
+        return assetTypes.size();
+    }
+
+    int getLinkCount() {
+        return links;
+    }
+
+    long getLastRebuildTimeMs() {
+        return lastRebuildTimeMs;
+    }
+
+    /** Registers a created asset; only assets of configured types are kept. */
+    void addAsset(UUID assetId, String type) {
+        if (isIndexedType(type)) {
+            assetTypes.put(assetId, type);
+        }
+    }
+
+    /**
+     * Removes an asset and all its links.
+     *
+     * @return parents whose aggregates changed
+     */
+    Set<UUID> removeAsset(UUID assetId) {
+        Set<UUID> affected = unlinkAll(assetId);
+        affected.remove(assetId);
+        latestByChild.remove(assetId);
+        assetTypes.remove(assetId);
+        return affected;
+    }
+
+    /**
+     * Adds a "Contains" link if the two assets are of a configured target/source pair.
+     *
+     * @return true if a new link was added
+     */
+    boolean link(UUID parentId, UUID childId) {
+        String parentType = assetTypes.get(parentId);
+        String childType = assetTypes.get(childId);
+        if (parentType == null || childType == null
+                || !targetTypesBySourceType.getOrDefault(childType, Collections.emptySet()).contains(parentType)) {
+            return false;
+        }
+        if (!childrenByParent.computeIfAbsent(parentId, p -> new HashSet<>()).add(childId)) {
+            return false;
+        }
+        parentsByChild.computeIfAbsent(childId, c -> new HashSet<>()).add(parentId);
+        links++;
+        Map<String, Double> values = latestByChild.get(childId);
+        if (values != null) {
+            values.forEach((key, value) -> aggregate(parentId, childType, key).add(value));
+        }
+        return true;
+    }
+
+    /**
+     * @return true if an existing link was removed
+     */
+    boolean unlink(UUID parentId, UUID childId) {
+        Set<UUID> children = childrenByParent.get(parentId);
+        if (children == null || !children.remove(childId)) {
+            return false;
+        }
+        if (children.isEmpty()) {
+            childrenByParent.remove(parentId);
+        }
+        Set<UUID> parents = parentsByChild.get(childId);
+        if (parents != null) {
+            parents.remove(parentId);
+            if (parents.isEmpty()) {
+                parentsByChild.remove(childId);
+            }
+        }
+        links--;
+        String childType = assetTypes.get(childId);
+        Map<String, Double> values = latestByChild.get(childId);
+        if (values != null) {
+            values.forEach((key, value) -> removeFromAggregate(parentId, childType, key, value));
+        }
+        return true;
+    }
+
+    /**
+     * Removes every link of an asset, as parent and as child.
+     *
+     * @return parents whose aggregates changed, including the asset itself if it had children
+     */
+    Set<UUID> unlinkAll(UUID assetId) {
+        Set<UUID> affected = new HashSet<>();
+        for (UUID parentId : new ArrayList<>(getParents(assetId))) {
+            if (unlink(parentId, assetId)) {
+                affected.add(parentId);
+            }
+        }
+        Set<UUID> children = childrenByParent.get(assetId);
+        if (children != null) {
+            for (UUID childId : new ArrayList<>(children)) {
+                unlink(assetId, childId);
+            }
+            aggregates.keySet().removeIf(k -> k.parentId().equals(assetId));
+            affected.add(assetId);
+        }
+        return affected;
+    }
+
+    /**
+     * Applies new values of a child and updates the running aggregates of its parents.
+     *
+     * @return true if any tracked value changed
+     */
+    boolean updateValues(UUID childId, Map<String, Double> newValues) {
+        String childType = assetTypes.get(childId);
+        if (!isSourceType(childType) || newValues.isEmpty()) {
+            return false;
+        }
+        Set<String> keys = keysBySourceType.get(childType);
+        Map<String, Double> values = latestByChild.computeIfAbsent(childId, c -> new HashMap<>());
+        Set<UUID> parents = getParents(childId);
+        boolean changed = false;
+        for (Map.Entry<String, Double> entry : newValues.entrySet()) {
+            String key = entry.getKey();
+            Double value = entry.getValue();
+            if (!keys.contains(key) || value == null) {
+                continue;
+            }
+            Double previous = values.put(key, value);
+            if (value.equals(previous)) {
+                continue;
+            }
+            changed = true;
+            for (UUID parentId : parents) {
+                if (previous != null) {
+                    removeFromAggregate(parentId, childType, key, previous);
+                }
+                aggregate(parentId, childType, key).add(value);
+            }
+        }
+        return changed;
+    }
+
+    private RunningAggregate aggregate(UUID parentId, String sourceType, String key) {
+        return aggregates.computeIfAbsent(new AggregateKey(parentId, sourceType, key), k -> new RunningAggregate());
+    }
+
+    private void removeFromAggregate(UUID parentId, String sourceType, String key, double value) {
+        AggregateKey aggregateKey = new AggregateKey(parentId, sourceType, key);
+        RunningAggregate aggregate = aggregates.get(aggregateKey);
+        if (aggregate != null) {
+            aggregate.remove(value);
+            if (aggregate.getCount() == 0) {
+                aggregates.remove(aggregateKey);
+            }
+        }
+    }
+
+    /**
+     * Sum, count and an ordered multiset of the children's values, so every
+     * {@link AggregationType} is available after an O(log n) update.
+     */
+    static final class RunningAggregate {
+
+        private final TreeMap<Double, Integer> values = new TreeMap<>();
+        private double sum;
+        private int count;
+
+        void add(double value) {
+            values.merge(value, 1, Integer::sum);
+            sum += value;
+            count++;
+        }
+
+        void remove(double value) {
+            Integer n = values.get(value);
+            if (n == null) {
+                return;
+            }
+            if (n == 1) {
+                values.remove(value);
+            } else {
+                values.put(value, n - 1);
+            }
+            count--;
+            sum = count == 0 ? 0.0 : sum - value;
+        }
+
+        int getCount() {
+            return count;
+        }
+
+        double get(AggregationType type) {
+            return switch (type) {
+                case SUM -> sum;
+                case AVG -> count == 0 ? 0.0 : sum / count;
+                case MIN -> count == 0 ? 0.0 : values.firstKey();
+                case MAX -> count == 0 ? 0.0 : values.lastKey();
+                case COUNT -> count;
+            };
+        }
+    }
+}
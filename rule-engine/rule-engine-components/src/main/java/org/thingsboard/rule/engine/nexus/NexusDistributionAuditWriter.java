@@ -0,0 +1,179 @@
+/**
+ * Copyright © 2016-2026 The Thingsboard Authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.thingsboard.rule.engine.nexus;
+
+import lombok.extern.slf4j.Slf4j;
+import org.thingsboard.common.util.ListeningExecutor;
+import org.thingsboard.server.common.data.id.AssetId;
+import org.thingsboard.server.common.data.id.DeviceId;
+import org.thingsboard.server.common.data.id.TenantId;
+import org.thingsboard.server.common.data.nexus.DistributionLog;
+import org.thingsboard.server.common.data.nexus.DistributionStatus;
+import org.thingsboard.server.dao.nexus.DataDistributionService;
+
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Asynchronous, bounded writer of DISTRIBUTE audit entries for {@link TbNexusDataDistributionNode}.
+ *
+ * Entries are rolled up per (device, target asset, module, status) for one flush interval:
+ * keysProcessed and processingTimeMs hold the totals of the interval and errorMessage the
+ * distinct errors seen. Each interval is written as one row per group on the given executor,
+ * so the message path never waits on the database. The node calls {@link #flushIfDue()} from a
+ * timer, so an interval is written even when no further message arrives. When the number of pending groups
+ * reaches the limit, new groups are dropped and counted until the next flush.
+ */
+@Slf4j
+class NexusDistributionAuditWriter {
+
+    private static final int MAX_ERRORS_PER_GROUP = 10;
+    private static final int MAX_ERROR_MESSAGE_LENGTH = 4096;
+
+    private final DataDistributionService service;
+    private final TenantId tenantId;
+    private final ListeningExecutor executor;
+    private final long flushIntervalMs;
+    private final int maxPendingGroups;
+
+    private Map<GroupKey, Rollup> pending = new HashMap<>();
+    private long lastFlushTs = System.currentTimeMillis();
+    private long dropped;
+
+    private record GroupKey(DeviceId deviceId, AssetId targetAssetId, String moduleKey, DistributionStatus status) {}
+
+    private static final class Rollup {
+        private int keysProcessed;
+        private long processingTimeMs;
+        private final Set<String> errors = new LinkedHashSet<>();
+    }
+
+    NexusDistributionAuditWriter(DataDistributionService service, TenantId tenantId, ListeningExecutor executor,
+                                 long flushIntervalMs, int maxPendingGroups) {
+        this.service = service;
+        this.tenantId = tenantId;
+        this.executor = executor;
+        this.flushIntervalMs = flushIntervalMs;
+        this.maxPendingGroups = maxPendingGroups;
+    }
+
+    /**
+     * Adds one distribution to the current interval and triggers an asynchronous flush once
+     * the interval has elapsed.
+     */
+    void record(DeviceId deviceId, AssetId targetAssetId, String moduleKey, DistributionStatus status,
+                int keysProcessed, List<String> errors, long processingTime) {
+        synchronized (this) {
+            GroupKey key = new GroupKey(deviceId, targetAssetId, moduleKey, status);
+            Rollup rollup = pending.get(key);
+            if (rollup == null) {
+                if (pending.size() >= maxPendingGroups) {
+                    dropped++;
+                } else {
+                    rollup = new Rollup();
+                    pending.put(key, rollup);
+                }
+            }
+            if (rollup != null) {
+                rollup.keysProcessed += keysProcessed;
+                rollup.processingTimeMs += processingTime;
+                for (String error : errors) {
+                    if (rollup.errors.size() >= MAX_ERRORS_PER_GROUP) {
+                        break;
+                    }
+                    rollup.errors.add(error);
+                }
+            }
+        }
+        flushIfDue();
+    }
+
+    /**
+     * Writes the pending entries on the executor if the flush interval has elapsed.
+     */
+    void flushIfDue() {
+        Map<GroupKey, Rollup> toWrite = null;
+        synchronized (this) {
+            long now = System.currentTimeMillis();
+            if (now - lastFlushTs >= flushIntervalMs) {
+                toWrite = drain(now);
+            }
+        }
+        if (toWrite != null && !toWrite.isEmpty()) {
+            Map<GroupKey, Rollup> batch = toWrite;
+            executor.execute(() -> write(batch));
+        }
+    }
+
+    long getFlushIntervalMs() {
+        return flushIntervalMs;
+    }
+
+    /**
+     * Writes everything pending on the calling thread; used when the node stops.
+     */
+    void flush() {
+        Map<GroupKey, Rollup> toWrite;
+        synchronized (this) {
+            toWrite = drain(System.currentTimeMillis());
+        }
+        write(toWrite);
+    }
+
+    private Map<GroupKey, Rollup> drain(long now) {
+        Map<GroupKey, Rollup> drained = pending;
+        pending = new HashMap<>();
+        lastFlushTs = now;
+        if (dropped > 0) {
+            log.warn("[{}] Dropped {} distribution audit entries: more than {} pending groups",
+                    tenantId, dropped, maxPendingGroups);
+            dropped = 0;
+        }
+        return drained;
+    }
+
+    private void write(Map<GroupKey, Rollup> batch) {
+        for (Map.Entry<GroupKey, Rollup> entry : batch.entrySet()) {
+            GroupKey key = entry.getKey();
+            Rollup rollup = entry.getValue();
+
+            DistributionLog logEntry = new DistributionLog();
+            logEntry.setTenantId(tenantId);
+            logEntry.setDeviceId(key.deviceId());
+            logEntry.setTargetAssetId(key.targetAssetId());
+            logEntry.setModuleKey(key.moduleKey());
+            logEntry.setOperationType("DISTRIBUTE");
+            logEntry.setStatus(key.status());
+            logEntry.setKeysProcessed(rollup.keysProcessed);
+            logEntry.setProcessingTimeMs(rollup.processingTimeMs);
+
+            if (!rollup.errors.isEmpty()) {
+                String message = String.join("; ", rollup.errors);
+                logEntry.setErrorMessage(message.length() > MAX_ERROR_MESSAGE_LENGTH ?
+                        message.substring(0, MAX_ERROR_MESSAGE_LENGTH) : message);
+            }
+
+            try {
+                service.saveDistributionLog(tenantId, logEntry);
+            } catch (Exception e) {
+                log.error("[{}] Failed to save distribution audit entry for device {}", tenantId, key.deviceId(), e);
+            }
+        }
+    }
+}
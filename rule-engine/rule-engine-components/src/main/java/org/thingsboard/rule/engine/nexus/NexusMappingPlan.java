@@ -0,0 +1,178 @@
+/**
+ * Copyright © 2016-2026 The Thingsboard Authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.thingsboard.rule.engine.nexus;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import org.thingsboard.server.common.data.id.DataMappingRuleId;
+import org.thingsboard.server.common.data.kv.BasicTsKvEntry;
+import org.thingsboard.server.common.data.kv.DoubleDataEntry;
+import org.thingsboard.server.common.data.kv.LongDataEntry;
+import org.thingsboard.server.common.data.kv.StringDataEntry;
+import org.thingsboard.server.common.data.kv.TsKvEntry;
+import org.thingsboard.server.common.data.nexus.DataMappingRule;
+import org.thingsboard.server.common.data.nexus.DataSourceConfig;
+import org.thingsboard.server.common.data.nexus.TransformationType;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+
+/**
+ * Immutable, compiled form of a device's {@link DataSourceConfig} and its active
+ * {@link DataMappingRule}s, used by {@link TbNexusDataDistributionNode}.
+ *
+ * Rules are grouped by source key into arrays already sorted by descending priority, and
+ * SCALE factor/offset are parsed from the transformation config once, so mapping a message
+ * is one map lookup per key. A plan is never modified: a changed config or rule set
+ * produces a new plan that replaces the old one.
+ */
+final class NexusMappingPlan {
+
+    private static final Transform[] NO_TRANSFORMS = new Transform[0];
+
+    private final DataSourceConfig config;
+    private final List<DataMappingRule> rules;
+    private final Map<String, Transform[]> transformsBySourceKey;
+    private final long loadedTs;
+
+    private NexusMappingPlan(DataSourceConfig config, List<DataMappingRule> rules,
+                             Map<String, Transform[]> transformsBySourceKey, long loadedTs) {
+        this.config = config;
+        this.rules = rules;
+        this.transformsBySourceKey = transformsBySourceKey;
+        this.loadedTs = loadedTs;
+    }
+
+    /**
+     * Compiles a plan; {@code config} is null for a device without a data source configuration.
+     */
+    static NexusMappingPlan compile(DataSourceConfig config, List<DataMappingRule> rules, long loadedTs) {
+        List<DataMappingRule> source = rules != null ? List.copyOf(rules) : Collections.emptyList();
+        Map<String, List<DataMappingRule>> bySourceKey = new HashMap<>();
+        for (DataMappingRule rule : source) {
+            if (rule.isActive() && rule.getSourceKey() != null) {
+                bySourceKey.computeIfAbsent(rule.getSourceKey(), k -> new ArrayList<>()).add(rule);
+            }
+        }
+        Map<String, Transform[]> transforms = new HashMap<>(bySourceKey.size() * 2);
+        bySourceKey.forEach((key, keyRules) -> transforms.put(key, keyRules.stream()
+                .sorted(Comparator.comparingInt(DataMappingRule::getPriority).reversed())
+                .map(Transform::of)
+                .toArray(Transform[]::new)));
+        return new NexusMappingPlan(config, source, Collections.unmodifiableMap(transforms), loadedTs);
+    }
+
+    /**
+     * True when the plan was compiled from exactly this config and rule set.
+     */
+    boolean isCompiledFrom(DataSourceConfig config, List<DataMappingRule> rules) {
+        return Objects.equals(this.config, config)
+                && this.rules.equals(rules != null ? rules : Collections.emptyList());
+    }
+
+    /**
+     * The same plan with a new load timestamp, used when a refresh found no changes.
+     */
+    NexusMappingPlan reloadedAt(long ts) {
+        return new NexusMappingPlan(config, rules, transformsBySourceKey, ts);
+    }
+
+    DataSourceConfig getConfig() {
+        return config;
+    }
+
+    boolean hasRules() {
+        return !transformsBySourceKey.isEmpty();
+    }
+
+    /**
+     * Transforms for a source key, highest priority first; empty if no rule maps the key.
+     */
+    Transform[] getTransforms(String sourceKey) {
+        return transformsBySourceKey.getOrDefault(sourceKey, NO_TRANSFORMS);
+    }
+
+    long getLoadedTs() {
+        return loadedTs;
+    }
+
+    static TsKvEntry toTsKvEntry(long ts, String key, JsonNode value) {
+        if (value == null || value.isNull()) {
+            return null;
+        }
+
+        if (value.isNumber()) {
+            if (value.isIntegralNumber()) {
+                return new BasicTsKvEntry(ts, new LongDataEntry(key, value.longValue()));
+            } else {
+                return new BasicTsKvEntry(ts, new DoubleDataEntry(key, value.doubleValue()));
+            }
+        } else if (value.isTextual()) {
+            return new BasicTsKvEntry(ts, new StringDataEntry(key, value.textValue()));
+        } else if (value.isBoolean()) {
+            return new BasicTsKvEntry(ts, new StringDataEntry(key, String.valueOf(value.booleanValue())));
+        }
+
+        return null;
+    }
+
+    /**
+     * One compiled mapping rule.
+     */
+    static final class Transform {
+        private final DataMappingRuleId ruleId;
+        private final String targetKey;
+        private final boolean scale;
+        private final double factor;
+        private final double offset;
+
+        private Transform(DataMappingRuleId ruleId, String targetKey, boolean scale, double factor, double offset) {
+            this.ruleId = ruleId;
+            this.targetKey = targetKey;
+            this.scale = scale;
+            this.factor = factor;
+            this.offset = offset;
+        }
+
+        static Transform of(DataMappingRule rule) {
+            if (rule.getTransformationType() != TransformationType.SCALE) {
+                // DIRECT and transformations without a compiled form copy the value as is
+                return new Transform(rule.getId(), rule.getTargetKey(), false, 1.0, 0.0);
+            }
+            JsonNode configNode = rule.getTransformationConfig();
+            double factor = configNode != null && configNode.has("factor") ?
+                    configNode.get("factor").doubleValue() : 1.0;
+            double offset = configNode != null && configNode.has("offset") ?
+                    configNode.get("offset").doubleValue() : 0.0;
+            return new Transform(rule.getId(), rule.getTargetKey(), true, factor, offset);
+        }
+
+        DataMappingRuleId getRuleId() {
+            return ruleId;
+        }
+
+        TsKvEntry apply(long ts, JsonNode value) {
+            if (scale && value.isNumber()) {
+                return new BasicTsKvEntry(ts, new DoubleDataEntry(targetKey, value.doubleValue() * factor + offset));
+            }
+            return toTsKvEntry(ts, targetKey, value);
+        }
+    }
+}
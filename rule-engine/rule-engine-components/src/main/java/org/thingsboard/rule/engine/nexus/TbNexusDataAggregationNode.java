@@ -16,8 +16,9 @@
 package org.thingsboard.rule.engine.nexus;
 
 import com.fasterxml.jackson.databind.JsonNode;
+import com.google.common.util.concurrent.FutureCallback;
 import com.google.common.util.concurrent.Futures;
-import com.google.common.util.concurrent.ListenableFuture;
+import com.google.common.util.concurrent.MoreExecutors;
 import lombok.extern.slf4j.Slf4j;
 import org.thingsboard.common.util.JacksonUtil;
 import org.thingsboard.rule.engine.api.RuleNode;
@@ -28,31 +29,37 @@ import org.thingsboard.rule.engine.api.TbNodeException;
 import org.thingsboard.rule.engine.api.TimeseriesSaveRequest;
 import org.thingsboard.rule.engine.api.util.TbNodeUtils;
 import org.thingsboard.server.common.data.EntityType;
-import org.thingsboard.server.common.data.asset.Asset;
 import org.thingsboard.server.common.data.id.AssetId;
+import org.thingsboard.server.common.data.id.DataAggregationId;
 import org.thingsboard.server.common.data.id.EntityId;
 import org.thingsboard.server.common.data.id.TenantId;
 import org.thingsboard.server.common.data.kv.BasicTsKvEntry;
 import org.thingsboard.server.common.data.kv.DoubleDataEntry;
-import org.thingsboard.server.common.data.kv.LongDataEntry;
 import org.thingsboard.server.common.data.kv.TsKvEntry;
-import org.thingsboard.server.common.data.nexus.AggregationType;
+import org.thingsboard.server.common.data.msg.TbMsgType;
 import org.thingsboard.server.common.data.nexus.DataAggregation;
 import org.thingsboard.server.common.data.nexus.DistributionLog;
 import org.thingsboard.server.common.data.nexus.DistributionStatus;
 import org.thingsboard.server.common.data.plugin.ComponentType;
 import org.thingsboard.server.common.data.relation.EntityRelation;
-import org.thingsboard.server.common.data.relation.EntitySearchDirection;
 import org.thingsboard.server.common.data.relation.RelationTypeGroup;
 import org.thingsboard.server.common.msg.TbMsg;
+import org.thingsboard.server.common.msg.TbMsgMetaData;
 import org.thingsboard.server.dao.nexus.DataDistributionService;
-import org.thingsboard.server.dao.relation.RelationService;
 
 import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
 import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.stream.Collectors;
 
 /**
  * Rule Engine node for aggregating telemetry data from child assets to parent assets.
@@ -60,9 +67,21 @@ import java.util.concurrent.ConcurrentHashMap;
  * This node is part of the NEXUS Data Distribution System, responsible for:
  * 1. Receiving triggers (data or schedule)
  * 2. Looking up aggregation configurations
- * 3. Fetching data from child assets
- * 4. Computing aggregations (SUM, AVG, MIN, MAX, COUNT)
- * 5. Saving aggregated data to parent assets
+ * 3. Maintaining an in-memory parent to children index with running aggregates
+ *    (see {@link NexusAggregationIndex}), rebuilt in bulk in the background and swapped in
+ * 4. Applying asset, relation and telemetry changes to the index as deltas
+ * 5. Saving the aggregates (SUM, AVG, MIN, MAX, COUNT) of the affected parent assets
+ *
+ * Asset and relation lifecycle messages (Entity Created/Updated/Deleted, Relation
+ * Added or Updated, Relation Deleted, All Relations Deleted) keep the index current and
+ * should be routed to this node as well. Telemetry from a child asset only updates the
+ * parents of that child; any other trigger republishes every aggregate from the index.
+ * A parent left without children publishes 0 so its last aggregate does not linger.
+ *
+ * No database read blocks the message thread: the index rebuild and the latest values of a
+ * newly linked child are loaded asynchronously and handed back to the node with a self
+ * message. Deltas received while a rebuild runs are replayed onto the new index when it is
+ * swapped in; until the first rebuild completes the index is empty.
  *
  * Output routes:
  * - "Success": Aggregation completed successfully
@@ -82,6 +101,8 @@ import java.util.concurrent.ConcurrentHashMap;
                 "- <b>ON_DATA:</b> Execute when telemetry arrives<br/>" +
                 "- <b>ON_SCHEDULE:</b> Execute on scheduled intervals<br/>" +
                 "- <b>BOTH:</b> Execute on both triggers<br/><br/>" +
+                "Parent/child links and running aggregates are kept in memory and updated from " +
+                "entity and relation lifecycle messages, which should also be routed to this node.<br/><br/>" +
                 "Aggregation rules are defined in the NEXUS Data Aggregation configuration.",
         configDirective = "tbActionNodeNexusDataAggregationConfig",
         icon = "functions",
@@ -94,33 +115,65 @@ public class TbNexusDataAggregationNode implements TbNode {
     private static final String RELATION_NO_CONFIG = "No Config";
     private static final String RELATION_NO_CHILDREN = "No Children";
     private static final String RELATION_FAILURE = "Failure";
-    private static final String RELATION_TYPE_CONTAINS = "Contains";
+
+    private static final String METADATA_INDEX_SIZE = "aggregationIndexSize";
+    private static final String METADATA_INDEX_REBUILD_MS = "aggregationIndexRebuildMs";
+
+    private static final String METADATA_INDEX_ACTION = "aggregationIndexAction";
+    private static final String INDEX_ACTION_SWAP = "SWAP";
+    private static final String INDEX_ACTION_VALUES = "VALUES";
+
+    private static final long DEFAULT_CACHE_TTL_MS = 60000;
+    private static final long REBUILD_RETRY_DELAY_MS = 10000;
+    private static final int MAX_PENDING_DELTAS = 10000;
 
     private TbNexusDataAggregationNodeConfiguration config;
 
-    // Cache for aggregation configs
-    private final Map<String, List<DataAggregation>> aggregationCache = new ConcurrentHashMap<>();
+    private record CachedAggregations(List<DataAggregation> aggregations, long loadedTs) {}
+
+    // Cache for aggregation configs, reloaded in the background every cacheTtlMs
+    private final Map<String, CachedAggregations> aggregationCache = new ConcurrentHashMap<>();
+
+    // Cache keys being reloaded in the background
+    private final Set<String> refreshing = ConcurrentHashMap.newKeySet();
+
+    private long cacheTtlMs;
+
+    private NexusAggregationIndex index = new NexusAggregationIndex();
+
+    // Index built in the background, taken by the node when the swap self message arrives
+    private final AtomicReference<NexusAggregationIndex> rebuiltIndex = new AtomicReference<>();
+    private boolean rebuilding;
+    private long nextRebuildAttemptTs;
+
+    // Deltas applied while a rebuild runs, replayed onto the rebuilt index
+    private final List<TbMsg> pendingDeltas = new ArrayList<>();
+    private boolean pendingDeltasDropped;
 
     @Override
     public void init(TbContext ctx, TbNodeConfiguration configuration) throws TbNodeException {
         this.config = TbNodeUtils.convert(configuration, TbNexusDataAggregationNodeConfiguration.class);
+        this.cacheTtlMs = config.getCacheTtlMs() > 0 ? config.getCacheTtlMs() : DEFAULT_CACHE_TTL_MS;
         log.info("TbNexusDataAggregationNode initialized with config: moduleKey={}, triggerMode={}, aggregationTypes={}",
                 config.getModuleKey(), config.getTriggerMode(), config.getAggregationTypes());
     }
 
     @Override
     public void onMsg(TbContext ctx, TbMsg msg) {
+        if (msg.isTypeOf(TbMsgType.NEXUS_AGGREGATION_INDEX_SELF_MSG)) {
+            onIndexMsg(ctx, msg);
+            return;
+        }
+
         TenantId tenantId = ctx.getTenantId();
         DataDistributionService distributionService = ctx.getDataDistributionService();
-        RelationService relationService = ctx.getRelationService();
 
         long startTime = System.currentTimeMillis();
-        int aggregationsProcessed = 0;
         List<String> errors = new ArrayList<>();
 
         try {
             // Get aggregation configurations
-            List<DataAggregation> aggregations = getAggregationConfigs(distributionService, tenantId);
+            List<DataAggregation> aggregations = getActiveAggregations(ctx, distributionService, tenantId);
 
             if (aggregations.isEmpty()) {
                 log.debug("No aggregation configurations found for tenant: {}", tenantId);
@@ -128,53 +181,46 @@ public class TbNexusDataAggregationNode implements TbNode {
                 return;
             }
 
-            // Determine the source asset from message originator
+            ensureIndex(ctx, aggregations, startTime);
+
             EntityId originatorId = msg.getOriginator();
+            Collection<UUID> affectedParents;
             String sourceAssetType = null;
 
-            if (originatorId.getEntityType() == EntityType.ASSET) {
-                Asset sourceAsset = ctx.getAssetService().findAssetById(tenantId, new AssetId(originatorId.getId()));
-                if (sourceAsset != null) {
-                    sourceAssetType = sourceAsset.getType();
-                }
+            if (isLifecycleMsg(msg) || originatorId.getEntityType() == EntityType.ASSET) {
+                recordDelta(msg);
             }
 
-            // Filter and process aggregations
-            for (DataAggregation aggregation : aggregations) {
-                if (!aggregation.isActive()) {
-                    continue;
-                }
-
-                // Check if source asset type matches
-                if (sourceAssetType != null && !aggregation.getSourceAssetType().equals(sourceAssetType)) {
-                    continue;
-                }
-
-                try {
-                    boolean processed = processAggregation(ctx, tenantId, aggregation, relationService, msg);
-                    if (processed) {
-                        aggregationsProcessed++;
-                    }
-                } catch (Exception e) {
-                    String error = String.format("Aggregation %s failed: %s", aggregation.getId(), e.getMessage());
-                    errors.add(error);
-                    log.error("Error processing aggregation: {}", aggregation.getId(), e);
+            if (isLifecycleMsg(msg)) {
+                affectedParents = applyLifecycleMsg(ctx, msg);
+            } else if (originatorId.getEntityType() == EntityType.ASSET) {
+                // Telemetry from a child asset: apply the delta and refresh only its parents
+                sourceAssetType = index.getAssetType(originatorId.getId());
+                if (!index.isSourceType(sourceAssetType)) {
+                    ctx.tellNext(msg, RELATION_NO_CONFIG);
+                    return;
                 }
+                affectedParents = applyValues(originatorId.getId(), msg.getData());
+            } else {
+                affectedParents = index.getParentIds();
             }
 
+            int aggregationsProcessed = publish(ctx, aggregations, affectedParents, sourceAssetType, errors);
+
             // Log if enabled
             long processingTime = System.currentTimeMillis() - startTime;
             if (config.isEnableAuditLog() && aggregationsProcessed > 0) {
-                logAggregation(distributionService, tenantId, aggregationsProcessed, errors, processingTime);
+                logAggregation(distributionService, tenantId, "AGGREGATE", aggregationsProcessed, errors, processingTime);
             }
 
             // Determine result
-            if (aggregationsProcessed == 0 && errors.isEmpty()) {
-                ctx.tellNext(msg, RELATION_NO_CONFIG);
-            } else if (!errors.isEmpty() && aggregationsProcessed == 0) {
+            TbMsg out = withIndexMetrics(msg);
+            if (!errors.isEmpty() && aggregationsProcessed == 0) {
                 ctx.tellFailure(msg, new RuntimeException("All aggregations failed: " + String.join("; ", errors)));
+            } else if (aggregationsProcessed == 0 && index.getLinkCount() == 0) {
+                ctx.tellNext(out, RELATION_NO_CHILDREN);
             } else {
-                ctx.tellNext(msg, RELATION_SUCCESS);
+                ctx.tellNext(out, RELATION_SUCCESS);
             }
 
         } catch (Exception e) {
@@ -183,14 +229,71 @@ public class TbNexusDataAggregationNode implements TbNode {
         }
     }
 
-    private List<DataAggregation> getAggregationConfigs(DataDistributionService service, TenantId tenantId) {
+    /**
+     * Handles the node's own index messages: the swap-in of a rebuilt index and the latest
+     * values of a newly linked child. The affected aggregates are published; the message
+     * itself is not routed further.
+     */
+    private void onIndexMsg(TbContext ctx, TbMsg msg) {
+        List<String> errors = new ArrayList<>();
+        try {
+            List<DataAggregation> aggregations = getActiveAggregations(ctx, ctx.getDataDistributionService(), ctx.getTenantId());
+            Collection<UUID> affectedParents;
+            if (INDEX_ACTION_SWAP.equals(msg.getMetaData().getValue(METADATA_INDEX_ACTION))) {
+                affectedParents = swapInIndex(ctx);
+            } else {
+                recordDelta(msg);
+                affectedParents = applyValues(msg.getOriginator().getId(), msg.getData());
+            }
+            publish(ctx, aggregations, affectedParents, null, errors);
+        } catch (Exception e) {
+            log.error("[{}] Failed to apply aggregation index update", ctx.getTenantId(), e);
+        }
+    }
+
+    private List<DataAggregation> getActiveAggregations(TbContext ctx, DataDistributionService service, TenantId tenantId) {
+        return getAggregationConfigs(ctx, service, tenantId).stream()
+                .filter(DataAggregation::isActive)
+                .filter(a -> a.getSourceAssetType() != null && a.getTargetAssetType() != null
+                        && a.getSourceKey() != null && a.getTargetKey() != null && a.getAggregationType() != null)
+                .collect(Collectors.toList());
+    }
+
+    /**
+     * Returns the cached aggregation configs. The first call loads them synchronously;
+     * afterwards configs older than cacheTtlMs are reloaded on the DB callback executor and
+     * swapped in once ready, while messages keep using the current ones.
+     */
+    private List<DataAggregation> getAggregationConfigs(TbContext ctx, DataDistributionService service, TenantId tenantId) {
         String cacheKey = tenantId.toString() + "_" + config.getModuleKey();
 
         if (!config.isUseCache()) {
             return fetchAggregations(service, tenantId);
         }
 
-        return aggregationCache.computeIfAbsent(cacheKey, k -> fetchAggregations(service, tenantId));
+        long now = System.currentTimeMillis();
+        CachedAggregations cached = aggregationCache.get(cacheKey);
+        if (cached == null) {
+            cached = new CachedAggregations(fetchAggregations(service, tenantId), now);
+            aggregationCache.put(cacheKey, cached);
+            return cached.aggregations();
+        }
+        if (now - cached.loadedTs() >= cacheTtlMs && refreshing.add(cacheKey)) {
+            CachedAggregations current = cached;
+            ctx.getDbCallbackExecutor().execute(() -> {
+                try {
+                    aggregationCache.replace(cacheKey, current,
+                            new CachedAggregations(fetchAggregations(service, tenantId), System.currentTimeMillis()));
+                } catch (Exception e) {
+                    log.warn("Failed to refresh aggregation configs: {}", cacheKey, e);
+                    aggregationCache.replace(cacheKey, current,
+                            new CachedAggregations(current.aggregations(), System.currentTimeMillis()));
+                } finally {
+                    refreshing.remove(cacheKey);
+                }
+            });
+        }
+        return cached.aggregations();
     }
 
     private List<DataAggregation> fetchAggregations(DataDistributionService service, TenantId tenantId) {
@@ -202,119 +305,265 @@ public class TbNexusDataAggregationNode implements TbNode {
         }
     }
 
-    private boolean processAggregation(TbContext ctx, TenantId tenantId, DataAggregation aggregation,
-                                        RelationService relationService, TbMsg msg) {
-        // Find parent assets of the target type
-        List<Asset> parentAssets = findParentAssets(ctx, tenantId, aggregation.getTargetAssetType());
-
-        if (parentAssets.isEmpty()) {
-            log.debug("No parent assets found for aggregation: {}", aggregation.getId());
-            return false;
+    /**
+     * Starts a background rebuild on cold start, when the aggregation set changes or when the
+     * configured rebuild interval has elapsed. The current index keeps serving messages until
+     * the rebuilt one is swapped in.
+     */
+    private void ensureIndex(TbContext ctx, List<DataAggregation> aggregations, long now) {
+        if (rebuilding || now < nextRebuildAttemptTs
+                || !index.needsRebuild(NexusAggregationIndex.signatureOf(aggregations), config.getIndexRebuildIntervalMs(), now)) {
+            return;
         }
+        rebuilding = true;
+        Futures.addCallback(NexusAggregationIndex.build(ctx, aggregations), new FutureCallback<>() {
+            @Override
+            public void onSuccess(NexusAggregationIndex rebuilt) {
+                rebuiltIndex.set(rebuilt);
+                tellIndexMsg(ctx, INDEX_ACTION_SWAP, ctx.getSelfId(), TbMsg.EMPTY_STRING);
+            }
 
-        boolean anyProcessed = false;
-
-        for (Asset parentAsset : parentAssets) {
-            // Find child assets
-            List<Asset> childAssets = findChildAssets(ctx, tenantId, relationService,
-                    parentAsset.getId(), aggregation.getSourceAssetType());
-
-            if (childAssets.isEmpty()) {
-                continue;
+            @Override
+            public void onFailure(Throwable t) {
+                log.error("[{}] Failed to rebuild aggregation index", ctx.getTenantId(), t);
+                tellIndexMsg(ctx, INDEX_ACTION_SWAP, ctx.getSelfId(), TbMsg.EMPTY_STRING);
             }
+        }, MoreExecutors.directExecutor());
+    }
 
-            // Compute aggregation
-            Double result = computeAggregation(ctx, tenantId, childAssets, aggregation);
+    /**
+     * Replaces the index with the rebuilt one and replays the deltas received meanwhile.
+     * After a failed rebuild the current index is kept and the rebuild is retried later.
+     *
+     * @return parents to publish: every parent of the new index and those changed by the replay
+     */
+    private Collection<UUID> swapInIndex(TbContext ctx) {
+        NexusAggregationIndex rebuilt = rebuiltIndex.getAndSet(null);
+        rebuilding = false;
+        if (rebuilt == null) {
+            pendingDeltas.clear();
+            pendingDeltasDropped = false;
+            nextRebuildAttemptTs = System.currentTimeMillis() + REBUILD_RETRY_DELAY_MS;
+            return Collections.emptySet();
+        }
+        index = rebuilt;
+        Set<UUID> affectedParents = new HashSet<>(index.getParentIds());
+        for (TbMsg delta : pendingDeltas) {
+            affectedParents.addAll(applyDelta(ctx, delta));
+        }
+        pendingDeltas.clear();
+        if (pendingDeltasDropped) {
+            // Changes were lost while the rebuild ran, so the new index is already stale
+            pendingDeltasDropped = false;
+            index.invalidate();
+        }
+        if (config.isEnableAuditLog()) {
+            logAggregation(ctx.getDataDistributionService(), ctx.getTenantId(), "AGGREGATE_INDEX_REBUILD",
+                    index.getLinkCount(), Collections.emptyList(), index.getLastRebuildTimeMs());
+        }
+        return affectedParents;
+    }
 
-            if (result != null) {
-                // Save result to parent
-                saveAggregationResult(ctx, parentAsset.getId(), aggregation.getTargetKey(), result);
-                anyProcessed = true;
-            }
+    /** Keeps a delta message for replay while a rebuild runs. */
+    private void recordDelta(TbMsg msg) {
+        if (!rebuilding) {
+            return;
         }
+        if (pendingDeltas.size() < MAX_PENDING_DELTAS) {
+            pendingDeltas.add(msg);
+        } else {
+            pendingDeltasDropped = true;
+        }
+    }
 
-        return anyProcessed;
+    private Collection<UUID> applyDelta(TbContext ctx, TbMsg msg) {
+        if (isLifecycleMsg(msg)) {
+            return applyLifecycleMsg(ctx, msg);
+        }
+        return applyValues(msg.getOriginator().getId(), msg.getData());
     }
 
-    private List<Asset> findParentAssets(TbContext ctx, TenantId tenantId, String assetType) {
-        List<Asset> assets = new ArrayList<>();
-        try {
-            // This is a simplified implementation - in production you might want to use pagination
-            org.thingsboard.server.common.data.page.PageData<Asset> pageData =
-                    ctx.getAssetService().findAssetsByTenantIdAndType(tenantId, assetType,
-                            new org.thingsboard.server.common.data.page.PageLink(1000));
-            if (pageData != null && pageData.getData() != null) {
-                assets.addAll(pageData.getData());
-            }
-        } catch (Exception e) {
-            log.error("Error finding parent assets of type: {}", assetType, e);
+    /**
+     * Applies new values of a child asset.
+     *
+     * @return parents of the child
+     */
+    private Collection<UUID> applyValues(UUID childId, String data) {
+        String childType = index.getAssetType(childId);
+        if (!index.isSourceType(childType)) {
+            return Collections.emptySet();
         }
-        return assets;
+        index.updateValues(childId, parseValues(data, index.getKeys(childType)));
+        return index.getParents(childId);
     }
 
-    private List<Asset> findChildAssets(TbContext ctx, TenantId tenantId, RelationService relationService,
-                                         AssetId parentId, String childAssetType) {
-        List<Asset> childAssets = new ArrayList<>();
-        try {
-            List<EntityRelation> relations = relationService.findByFromAndType(tenantId, parentId,
-                    RELATION_TYPE_CONTAINS, RelationTypeGroup.COMMON);
-
-            for (EntityRelation relation : relations) {
-                if (relation.getTo().getEntityType() == EntityType.ASSET) {
-                    Asset childAsset = ctx.getAssetService().findAssetById(tenantId,
-                            new AssetId(relation.getTo().getId()));
-                    if (childAsset != null && childAsset.getType().equals(childAssetType)) {
-                        childAssets.add(childAsset);
+    private void tellIndexMsg(TbContext ctx, String action, EntityId originator, String data) {
+        TbMsgMetaData metaData = new TbMsgMetaData();
+        metaData.putValue(METADATA_INDEX_ACTION, action);
+        ctx.tellSelf(ctx.newMsg(null, TbMsgType.NEXUS_AGGREGATION_INDEX_SELF_MSG, originator, metaData, data), 0);
+    }
+
+    /**
+     * Loads the latest values of a child asynchronously and hands them back to the node
+     * as a self message.
+     */
+    private void requestLatestValues(TbContext ctx, UUID childId) {
+        String childType = index.getAssetType(childId);
+        Futures.addCallback(ctx.getTimeseriesService().findLatest(ctx.getTenantId(), new AssetId(childId), index.getKeys(childType)),
+                new FutureCallback<>() {
+                    @Override
+                    public void onSuccess(List<TsKvEntry> latest) {
+                        Map<String, Double> values = NexusAggregationIndex.toValues(latest);
+                        if (!values.isEmpty()) {
+                            tellIndexMsg(ctx, INDEX_ACTION_VALUES, new AssetId(childId), JacksonUtil.toString(values));
+                        }
                     }
-                }
+
+                    @Override
+                    public void onFailure(Throwable t) {
+                        log.warn("[{}] Failed to load latest values of asset {}", ctx.getTenantId(), childId, t);
+                    }
+                }, MoreExecutors.directExecutor());
+    }
+
+    private boolean isLifecycleMsg(TbMsg msg) {
+        return msg.isTypeOneOf(TbMsgType.ENTITY_CREATED, TbMsgType.ENTITY_UPDATED, TbMsgType.ENTITY_DELETED,
+                TbMsgType.RELATION_ADD_OR_UPDATE, TbMsgType.RELATION_DELETED, TbMsgType.RELATIONS_DELETED);
+    }
+
+    /**
+     * Applies an asset or relation lifecycle message to the index.
+     *
+     * @return parents whose aggregates changed
+     */
+    private Collection<UUID> applyLifecycleMsg(TbContext ctx, TbMsg msg) {
+        EntityId originatorId = msg.getOriginator();
+        if (msg.isTypeOneOf(TbMsgType.RELATION_ADD_OR_UPDATE, TbMsgType.RELATION_DELETED)) {
+            EntityRelation relation = JacksonUtil.fromString(msg.getData(), EntityRelation.class);
+            if (relation == null || !NexusAggregationIndex.RELATION_TYPE_CONTAINS.equals(relation.getType())
+                    || relation.getTypeGroup() != RelationTypeGroup.COMMON
+                    || relation.getFrom().getEntityType() != EntityType.ASSET
+                    || relation.getTo().getEntityType() != EntityType.ASSET) {
+                return Collections.emptySet();
             }
-        } catch (Exception e) {
-            log.error("Error finding child assets for parent: {}", parentId, e);
+            UUID parentId = relation.getFrom().getId();
+            UUID childId = relation.getTo().getId();
+            if (msg.isTypeOf(TbMsgType.RELATION_DELETED)) {
+                return index.unlink(parentId, childId) ? Set.of(parentId) : Collections.emptySet();
+            }
+            if (!index.link(parentId, childId)) {
+                return Collections.emptySet();
+            }
+            if (!index.hasChildValues(childId)) {
+                // First link of a child seen without telemetry: load its latest values once
+                requestLatestValues(ctx, childId);
+            }
+            return Set.of(parentId);
+        }
+        if (originatorId.getEntityType() != EntityType.ASSET) {
+            return Collections.emptySet();
+        }
+        UUID assetId = originatorId.getId();
+        if (msg.isTypeOf(TbMsgType.RELATIONS_DELETED)) {
+            return index.unlinkAll(assetId);
+        }
+        if (msg.isTypeOf(TbMsgType.ENTITY_DELETED)) {
+            return index.removeAsset(assetId);
+        }
+        JsonNode asset = JacksonUtil.toJsonNode(msg.getData());
+        String type = asset != null && asset.hasNonNull("type") ? asset.get("type").asText() : null;
+        if (msg.isTypeOf(TbMsgType.ENTITY_CREATED)) {
+            index.addAsset(assetId, type);
+        } else if (type != null && !type.equals(index.getAssetType(assetId))
+                && (index.getAssetType(assetId) != null || index.isIndexedType(type))) {
+            // An asset changed type: its links must be re-read, so rebuild on the next message
+            index.invalidate();
         }
-        return childAssets;
+        return Collections.emptySet();
     }
 
-    private Double computeAggregation(TbContext ctx, TenantId tenantId, List<Asset> childAssets,
-                                       DataAggregation aggregation) {
-        List<Double> values = new ArrayList<>();
-        String sourceKey = aggregation.getSourceKey();
+    /**
+     * Saves the current aggregates of the given parents, one save request per parent.
+     *
+     * @return number of aggregation configurations that produced at least one result
+     */
+    private int publish(TbContext ctx, List<DataAggregation> aggregations, Collection<UUID> parents,
+                        String sourceAssetType, List<String> errors) {
+        if (parents.isEmpty()) {
+            return 0;
+        }
+        long ts = System.currentTimeMillis();
+        Set<DataAggregationId> processed = new HashSet<>();
+        Map<UUID, List<TsKvEntry>> entriesByParent = new LinkedHashMap<>();
 
-        // Get latest values from child assets
-        for (Asset childAsset : childAssets) {
-            try {
-                List<TsKvEntry> entries = ctx.getTimeseriesService().findLatest(tenantId,
-                        childAsset.getId(), List.of(sourceKey)).get();
-
-                if (!entries.isEmpty()) {
-                    TsKvEntry entry = entries.get(0);
-                    if (entry.getValue() != null) {
-                        Double value = extractDoubleValue(entry);
-                        if (value != null) {
-                            values.add(value);
-                        }
-                    }
+        for (UUID parentId : parents) {
+            String parentType = index.getAssetType(parentId);
+            for (DataAggregation aggregation : aggregations) {
+                if (!aggregation.getTargetAssetType().equals(parentType)
+                        || (sourceAssetType != null && !aggregation.getSourceAssetType().equals(sourceAssetType))) {
+                    continue;
+                }
+                try {
+                    NexusAggregationIndex.RunningAggregate aggregate = index.getAggregate(parentId,
+                            aggregation.getSourceAssetType(), aggregation.getSourceKey());
+                    // No children left with this key: publish 0 rather than keep the last result
+                    double result = aggregate != null ? aggregate.get(aggregation.getAggregationType()) : 0.0;
+                    entriesByParent.computeIfAbsent(parentId, p -> new ArrayList<>())
+                            .add(new BasicTsKvEntry(ts, new DoubleDataEntry(aggregation.getTargetKey(), result)));
+                    processed.add(aggregation.getId());
+                } catch (Exception e) {
+                    errors.add(String.format("Aggregation %s failed: %s", aggregation.getId(), e.getMessage()));
+                    log.error("Error processing aggregation: {}", aggregation.getId(), e);
                 }
-            } catch (Exception e) {
-                log.error("Error getting telemetry for asset: {}", childAsset.getId(), e);
             }
         }
 
-        if (values.isEmpty()) {
-            return null;
+        entriesByParent.forEach((parentId, entries) -> saveAggregationResult(ctx, new AssetId(parentId), entries));
+        return processed.size();
+    }
+
+    private Map<String, Double> parseValues(String data, Set<String> keys) {
+        Map<String, Double> values = new HashMap<>();
+        JsonNode json = JacksonUtil.toJsonNode(data);
+        if (json != null) {
+            collectValues(json, keys, values);
         }
+        return values;
+    }
 
-        // Compute aggregation
-        AggregationType type = aggregation.getAggregationType();
-        return switch (type) {
-            case SUM -> values.stream().mapToDouble(Double::doubleValue).sum();
-            case AVG -> values.stream().mapToDouble(Double::doubleValue).average().orElse(0.0);
-            case MIN -> values.stream().mapToDouble(Double::doubleValue).min().orElse(0.0);
-            case MAX -> values.stream().mapToDouble(Double::doubleValue).max().orElse(0.0);
-            case COUNT -> (double) values.size();
-        };
+    /**
+     * Reads the tracked keys from a telemetry payload: a flat object, a {"ts", "values"}
+     * object or an array of either.
+     */
+    private void collectValues(JsonNode json, Set<String> keys, Map<String, Double> values) {
+        if (json.isArray()) {
+            for (JsonNode element : json) {
+                collectValues(element, keys, values);
+            }
+            return;
+        }
+        if (!json.isObject()) {
+            return;
+        }
+        JsonNode source = json.has("values") && json.get("values").isObject() ? json.get("values") : json;
+        for (String key : keys) {
+            JsonNode node = source.get(key);
+            if (node == null || node.isNull()) {
+                continue;
+            }
+            if (node.isNumber()) {
+                values.put(key, node.asDouble());
+            } else if (node.isTextual()) {
+                try {
+                    values.put(key, Double.parseDouble(node.asText()));
+                } catch (NumberFormatException e) {
+                    // not a numeric value, ignored for aggregation
+                }
+            }
+        }
     }
 
-    private Double extractDoubleValue(TsKvEntry entry) {
+    static Double extractDoubleValue(TsKvEntry entry) {
         if (entry.getDoubleValue().isPresent()) {
             return entry.getDoubleValue().get();
         } else if (entry.getLongValue().isPresent()) {
@@ -329,10 +578,7 @@ public class TbNexusDataAggregationNode implements TbNode {
         return null;
     }
 
-    private void saveAggregationResult(TbContext ctx, AssetId assetId, String key, Double value) {
-        long ts = System.currentTimeMillis();
-        List<TsKvEntry> entries = List.of(new BasicTsKvEntry(ts, new DoubleDataEntry(key, value)));
-
+    private void saveAggregationResult(TbContext ctx, AssetId assetId, List<TsKvEntry> entries) {
         if (config.isSaveAsTelemetry()) {
             ctx.getTelemetryService().saveTimeseries(TimeseriesSaveRequest.builder()
                     .tenantId(ctx.getTenantId())
@@ -340,20 +586,29 @@ public class TbNexusDataAggregationNode implements TbNode {
                     .entries(entries)
                     .ttl(0)
                     .strategy(TimeseriesSaveRequest.Strategy.PROCESS_ALL)
-                    .callback(new AggregationCallback(assetId, key))
+                    .callback(new AggregationCallback(assetId, entries.size()))
                     .build());
         }
 
         // Attribute saving can be added here if needed
     }
 
-    private void logAggregation(DataDistributionService service, TenantId tenantId,
-                                 int aggregationsProcessed, List<String> errors, long processingTime) {
+    private TbMsg withIndexMetrics(TbMsg msg) {
+        TbMsgMetaData metaData = msg.getMetaData().copy();
+        metaData.putValue(METADATA_INDEX_SIZE, String.valueOf(index.getLinkCount()));
+        metaData.putValue(METADATA_INDEX_REBUILD_MS, String.valueOf(index.getLastRebuildTimeMs()));
+        return msg.transform()
+                .metaData(metaData)
+                .build();
+    }
+
+    private void logAggregation(DataDistributionService service, TenantId tenantId, String operationType,
+                                 int keysProcessed, List<String> errors, long processingTime) {
         DistributionLog logEntry = new DistributionLog();
         logEntry.setTenantId(tenantId);
-        logEntry.setOperationType("AGGREGATE");
+        logEntry.setOperationType(operationType);
         logEntry.setStatus(errors.isEmpty() ? DistributionStatus.SUCCESS : DistributionStatus.PARTIAL);
-        logEntry.setKeysProcessed(aggregationsProcessed);
+        logEntry.setKeysProcessed(keysProcessed);
         logEntry.setProcessingTimeMs(processingTime);
 
         if (!errors.isEmpty()) {
@@ -366,6 +621,8 @@ public class TbNexusDataAggregationNode implements TbNode {
     @Override
     public void destroy() {
         aggregationCache.clear();
+        index.clear();
+        pendingDeltas.clear();
     }
 
     /**
@@ -373,21 +630,21 @@ public class TbNexusDataAggregationNode implements TbNode {
      */
     private static class AggregationCallback implements com.google.common.util.concurrent.FutureCallback<Void> {
         private final AssetId assetId;
-        private final String key;
+        private final int keys;
 
-        AggregationCallback(AssetId assetId, String key) {
+        AggregationCallback(AssetId assetId, int keys) {
             this.assetId = assetId;
-            this.key = key;
+            this.keys = keys;
         }
 
         @Override
         public void onSuccess(Void result) {
-            log.debug("Aggregation result saved successfully: asset={}, key={}", assetId, key);
+            log.debug("Aggregation results saved successfully: asset={}, keys={}", assetId, keys);
         }
 
         @Override
         public void onFailure(Throwable t) {
-            log.error("Failed to save aggregation result: asset={}, key={}", assetId, key, t);
+            log.error("Failed to save aggregation results: asset={}, keys={}", assetId, keys, t);
         }
     }
 }
@@ -71,6 +71,13 @@ public class TbNexusDataAggregationNodeConfiguration implements NodeConfiguratio
      */
     private long cacheTtlMs;
 
+    /**
+     * Interval in milliseconds after which the in-memory aggregation index is fully
+     * rebuilt from the database, as a safety net for changes that did not reach this node.
+     * 0 rebuilds only on cold start and when the aggregation configuration changes.
+     */
+    private long indexRebuildIntervalMs;
+
     /**
      * Whether to log aggregation operations for auditing.
      */
@@ -101,6 +108,7 @@ public class TbNexusDataAggregationNodeConfiguration implements NodeConfiguratio
         config.setAggregationTypes(List.of("SUM", "AVG", "MIN", "MAX", "COUNT"));
         config.setUseCache(true);
         config.setCacheTtlMs(60000);
+        config.setIndexRebuildIntervalMs(3600000);
         config.setEnableAuditLog(true);
         config.setSaveAsTelemetry(true);
         config.setSaveAsAttribute(false);
@@ -32,27 +32,23 @@ import org.thingsboard.server.common.data.EntityType;
 import org.thingsboard.server.common.data.id.AssetId;
 import org.thingsboard.server.common.data.id.DeviceId;
 import org.thingsboard.server.common.data.id.TenantId;
-import org.thingsboard.server.common.data.kv.BasicTsKvEntry;
-import org.thingsboard.server.common.data.kv.DoubleDataEntry;
-import org.thingsboard.server.common.data.kv.LongDataEntry;
-import org.thingsboard.server.common.data.kv.StringDataEntry;
 import org.thingsboard.server.common.data.kv.TsKvEntry;
 import org.thingsboard.server.common.data.nexus.DataMappingRule;
 import org.thingsboard.server.common.data.nexus.DataSourceConfig;
-import org.thingsboard.server.common.data.nexus.DistributionLog;
 import org.thingsboard.server.common.data.nexus.DistributionMode;
 import org.thingsboard.server.common.data.nexus.DistributionStatus;
-import org.thingsboard.server.common.data.nexus.TransformationType;
 import org.thingsboard.server.common.data.plugin.ComponentType;
 import org.thingsboard.server.common.msg.TbMsg;
 import org.thingsboard.server.dao.nexus.DataDistributionService;
 
 import java.util.ArrayList;
+import java.util.HashMap;
 import java.util.Iterator;
 import java.util.List;
 import java.util.Map;
-import java.util.Optional;
+import java.util.Set;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
 
 /**
  * Rule Engine node for distributing telemetry data from devices to Digital Twin assets.
@@ -63,6 +59,12 @@ import java.util.concurrent.ConcurrentHashMap;
  * 3. Applying mapping rules to transform data
  * 4. Distributing transformed data to Digital Twin assets
  *
+ * The configuration and active rules of each device are compiled into a
+ * {@link NexusMappingPlan} that is reloaded in the background every
+ * configRefreshIntervalMs and swapped in when it changed. Audit entries are rolled up
+ * per interval by a {@link NexusDistributionAuditWriter} instead of one row per message, and
+ * flushed by a timer so the last interval is written even when the device stops reporting.
+ *
  * Output routes:
  * - "Success": Data was successfully distributed
  * - "No Config": Device has no data source configuration
@@ -94,17 +96,35 @@ public class TbNexusDataDistributionNode implements TbNode {
     private static final String RELATION_PARTIAL = "Partial";
     private static final String RELATION_FAILURE = "Failure";
 
+    private static final long DEFAULT_CONFIG_REFRESH_INTERVAL_MS = 60000;
+    private static final long DEFAULT_AUDIT_LOG_FLUSH_INTERVAL_MS = 10000;
+    private static final int DEFAULT_AUDIT_LOG_MAX_PENDING_ENTRIES = 10000;
+
     private TbNexusDataDistributionNodeConfiguration config;
 
-    // Cache for data source configurations (device ID -> config)
-    private final Map<DeviceId, Optional<DataSourceConfig>> configCache = new ConcurrentHashMap<>();
+    // Compiled mapping plans (device ID -> plan), replaced as a whole when the config or rules change
+    private final Map<DeviceId, NexusMappingPlan> plans = new ConcurrentHashMap<>();
+
+    // Devices whose plan is being reloaded in the background
+    private final Set<DeviceId> refreshing = ConcurrentHashMap.newKeySet();
 
-    // Cache for mapping rules (config ID -> rules)
-    private final Map<String, List<DataMappingRule>> rulesCache = new ConcurrentHashMap<>();
+    private long configRefreshIntervalMs;
+    private volatile NexusDistributionAuditWriter auditWriter;
 
     @Override
     public void init(TbContext ctx, TbNodeConfiguration configuration) throws TbNodeException {
         this.config = TbNodeUtils.convert(configuration, TbNexusDataDistributionNodeConfiguration.class);
+        this.configRefreshIntervalMs = config.getConfigRefreshIntervalMs() > 0 ?
+                config.getConfigRefreshIntervalMs() : DEFAULT_CONFIG_REFRESH_INTERVAL_MS;
+        if (config.isEnableAuditLog()) {
+            this.auditWriter = new NexusDistributionAuditWriter(ctx.getDataDistributionService(), ctx.getTenantId(),
+                    ctx.getDbCallbackExecutor(),
+                    config.getAuditLogFlushIntervalMs() > 0 ?
+                            config.getAuditLogFlushIntervalMs() : DEFAULT_AUDIT_LOG_FLUSH_INTERVAL_MS,
+                    config.getAuditLogMaxPendingEntries() > 0 ?
+                            config.getAuditLogMaxPendingEntries() : DEFAULT_AUDIT_LOG_MAX_PENDING_ENTRIES);
+            scheduleAuditFlush(ctx, auditWriter);
+        }
         log.info("TbNexusDataDistributionNode initialized with config: moduleKey={}, mode={}, errorHandling={}",
                 config.getModuleKey(), config.getDistributionMode(), config.getErrorHandling());
     }
@@ -125,17 +145,16 @@ public class TbNexusDataDistributionNode implements TbNode {
         List<String> errors = new ArrayList<>();
 
         try {
-            // Get data source configuration
-            Optional<DataSourceConfig> configOpt = getDataSourceConfig(distributionService, tenantId, deviceId);
+            // Get the compiled data source configuration and mapping rules
+            NexusMappingPlan plan = getPlan(ctx, distributionService, tenantId, deviceId);
+            DataSourceConfig dataSourceConfig = plan.getConfig();
 
-            if (configOpt.isEmpty()) {
+            if (dataSourceConfig == null) {
                 log.debug("No data source configuration found for device: {}", deviceId);
                 ctx.tellNext(msg, RELATION_NO_CONFIG);
                 return;
             }
 
-            DataSourceConfig dataSourceConfig = configOpt.get();
-
             // Check if module filter applies
             if (!isModuleMatch(dataSourceConfig)) {
                 log.debug("Module filter mismatch for device: {}, config module: {}, filter: {}",
@@ -169,7 +188,7 @@ public class TbNexusDataDistributionNode implements TbNode {
                 keysProcessed = distributeDirectly(ctx, msg, dataSourceConfig, dataNode, ts, errors);
             } else {
                 // MAPPED or HIERARCHICAL
-                keysProcessed = distributeWithMapping(ctx, msg, distributionService, dataSourceConfig, dataNode, ts, errors);
+                keysProcessed = distributeWithMapping(ctx, msg, plan, dataNode, ts, errors);
             }
 
             // Determine result
@@ -177,9 +196,10 @@ public class TbNexusDataDistributionNode implements TbNode {
             DistributionStatus status = determineStatus(keysProcessed, errors);
 
             // Log if enabled
-            if (config.isEnableAuditLog()) {
-                logDistribution(distributionService, tenantId, deviceId, dataSourceConfig, status,
-                        keysProcessed, errors, processingTime);
+            NexusDistributionAuditWriter auditWriter = this.auditWriter;
+            if (auditWriter != null) {
+                auditWriter.record(deviceId, dataSourceConfig.getTargetAssetId(), dataSourceConfig.getModuleKey(),
+                        status, keysProcessed, errors, processingTime);
             }
 
             // Route message
@@ -203,10 +223,66 @@ public class TbNexusDataDistributionNode implements TbNode {
         }
     }
 
-    private Optional<DataSourceConfig> getDataSourceConfig(DataDistributionService service,
-                                                            TenantId tenantId, DeviceId deviceId) {
-        return configCache.computeIfAbsent(deviceId,
-                id -> service.findDataSourceConfigByDeviceId(tenantId, deviceId));
+    /**
+     * Flushes the audit writer every flush interval until the node is destroyed.
+     */
+    private void scheduleAuditFlush(TbContext ctx, NexusDistributionAuditWriter writer) {
+        ctx.schedule(() -> {
+            if (auditWriter != writer) {
+                return;
+            }
+            try {
+                writer.flushIfDue();
+            } catch (Exception e) {
+                log.warn("[{}] Failed to flush distribution audit entries", ctx.getTenantId(), e);
+            }
+            scheduleAuditFlush(ctx, writer);
+        }, writer.getFlushIntervalMs(), TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * Returns the device's current plan. The first message of a device loads it synchronously;
+     * afterwards a plan older than the refresh interval is reloaded on the DB callback executor
+     * and swapped in once ready, while messages keep using the current one.
+     */
+    private NexusMappingPlan getPlan(TbContext ctx, DataDistributionService service,
+                                     TenantId tenantId, DeviceId deviceId) {
+        long now = System.currentTimeMillis();
+        NexusMappingPlan plan = plans.get(deviceId);
+        if (plan == null) {
+            plan = loadPlan(service, tenantId, deviceId, null, now);
+            plans.put(deviceId, plan);
+            return plan;
+        }
+        if (now - plan.getLoadedTs() >= configRefreshIntervalMs && refreshing.add(deviceId)) {
+            NexusMappingPlan current = plan;
+            ctx.getDbCallbackExecutor().execute(() -> {
+                try {
+                    plans.replace(deviceId, current,
+                            loadPlan(service, tenantId, deviceId, current, System.currentTimeMillis()));
+                } catch (Exception e) {
+                    log.warn("Failed to refresh mapping plan for device: {}", deviceId, e);
+                    plans.replace(deviceId, current, current.reloadedAt(System.currentTimeMillis()));
+                } finally {
+                    refreshing.remove(deviceId);
+                }
+            });
+        }
+        return plan;
+    }
+
+    private NexusMappingPlan loadPlan(DataDistributionService service, TenantId tenantId, DeviceId deviceId,
+                                      NexusMappingPlan previous, long now) {
+        DataSourceConfig dataSourceConfig = service.findDataSourceConfigByDeviceId(tenantId, deviceId).orElse(null);
+        List<DataMappingRule> rules = dataSourceConfig != null ?
+                service.findActiveMappingRulesByDataSourceConfigId(dataSourceConfig.getId()) : List.of();
+        if (previous != null && previous.isCompiledFrom(dataSourceConfig, rules)) {
+            return previous.reloadedAt(now);
+        }
+        if (previous != null) {
+            log.debug("Data source configuration or mapping rules changed for device: {}", deviceId);
+        }
+        return NexusMappingPlan.compile(dataSourceConfig, rules, now);
     }
 
     private boolean isModuleMatch(DataSourceConfig dataSourceConfig) {
@@ -244,7 +320,7 @@ public class TbNexusDataDistributionNode implements TbNode {
 
             while (fields.hasNext()) {
                 Map.Entry<String, JsonNode> field = fields.next();
-                TsKvEntry entry = createTsKvEntry(ts, field.getKey(), field.getValue());
+                TsKvEntry entry = NexusMappingPlan.toTsKvEntry(ts, field.getKey(), field.getValue());
                 if (entry != null) {
                     entries.add(entry);
                     keysProcessed++;
@@ -262,13 +338,11 @@ public class TbNexusDataDistributionNode implements TbNode {
         return keysProcessed;
     }
 
-    private int distributeWithMapping(TbContext ctx, TbMsg msg, DataDistributionService service,
-                                       DataSourceConfig dataSourceConfig, JsonNode dataNode,
+    private int distributeWithMapping(TbContext ctx, TbMsg msg, NexusMappingPlan plan, JsonNode dataNode,
                                        long ts, List<String> errors) {
-        // Get mapping rules
-        List<DataMappingRule> rules = getMappingRules(service, dataSourceConfig);
+        DataSourceConfig dataSourceConfig = plan.getConfig();
 
-        if (rules.isEmpty()) {
+        if (!plan.hasRules()) {
             // No rules, fall back to direct distribution
             return distributeDirectly(ctx, msg, dataSourceConfig, dataNode, ts, errors);
         }
@@ -276,8 +350,8 @@ public class TbNexusDataDistributionNode implements TbNode {
         int keysProcessed = 0;
         AssetId defaultTarget = dataSourceConfig.getTargetAssetId();
 
-        // Group rules by target asset
-        Map<AssetId, List<TsKvEntry>> entriesByAsset = new ConcurrentHashMap<>();
+        // Group entries by target asset
+        Map<AssetId, List<TsKvEntry>> entriesByAsset = new HashMap<>();
 
         Iterator<Map.Entry<String, JsonNode>> fields = dataNode.fields();
         while (fields.hasNext()) {
@@ -285,16 +359,13 @@ public class TbNexusDataDistributionNode implements TbNode {
             String sourceKey = field.getKey();
             JsonNode value = field.getValue();
 
-            // Find matching rules for this key
-            List<DataMappingRule> matchingRules = rules.stream()
-                    .filter(r -> r.getSourceKey().equals(sourceKey) && r.isActive())
-                    .sorted((r1, r2) -> Integer.compare(r2.getPriority(), r1.getPriority()))
-                    .toList();
+            // Rules for this key, already sorted by priority
+            NexusMappingPlan.Transform[] transforms = plan.getTransforms(sourceKey);
 
-            if (matchingRules.isEmpty()) {
+            if (transforms.length == 0) {
                 // No rule for this key, send to default target if available
                 if (defaultTarget != null) {
-                    TsKvEntry entry = createTsKvEntry(ts, sourceKey, value);
+                    TsKvEntry entry = NexusMappingPlan.toTsKvEntry(ts, sourceKey, value);
                     if (entry != null) {
                         entriesByAsset.computeIfAbsent(defaultTarget, k -> new ArrayList<>()).add(entry);
                         keysProcessed++;
@@ -302,9 +373,9 @@ public class TbNexusDataDistributionNode implements TbNode {
                 }
             } else {
                 // Apply rules
-                for (DataMappingRule rule : matchingRules) {
+                for (NexusMappingPlan.Transform transform : transforms) {
                     try {
-                        TsKvEntry entry = applyMappingRule(ts, rule, value);
+                        TsKvEntry entry = transform.apply(ts, value);
                         if (entry != null) {
                             // Use the default target from config or resolve based on rule's relation/type
                             AssetId targetAsset = defaultTarget;
@@ -315,7 +386,7 @@ public class TbNexusDataDistributionNode implements TbNode {
                         }
                     } catch (Exception e) {
                         String error = String.format("Rule %s failed for key %s: %s",
-                                rule.getId(), sourceKey, e.getMessage());
+                                transform.getRuleId(), sourceKey, e.getMessage());
                         errors.add(error);
                         if ("FAIL".equalsIgnoreCase(config.getErrorHandling())) {
                             throw new RuntimeException(error, e);
@@ -337,56 +408,6 @@ public class TbNexusDataDistributionNode implements TbNode {
         return keysProcessed;
     }
 
-    private List<DataMappingRule> getMappingRules(DataDistributionService service, DataSourceConfig config) {
-        String cacheKey = config.getId().toString();
-        return rulesCache.computeIfAbsent(cacheKey,
-                k -> service.findActiveMappingRulesByDataSourceConfigId(config.getId()));
-    }
-
-    private TsKvEntry createTsKvEntry(long ts, String key, JsonNode value) {
-        if (value == null || value.isNull()) {
-            return null;
-        }
-
-        if (value.isNumber()) {
-            if (value.isIntegralNumber()) {
-                return new BasicTsKvEntry(ts, new LongDataEntry(key, value.longValue()));
-            } else {
-                return new BasicTsKvEntry(ts, new DoubleDataEntry(key, value.doubleValue()));
-            }
-        } else if (value.isTextual()) {
-            return new BasicTsKvEntry(ts, new StringDataEntry(key, value.textValue()));
-        } else if (value.isBoolean()) {
-            return new BasicTsKvEntry(ts, new StringDataEntry(key, String.valueOf(value.booleanValue())));
-        }
-
-        return null;
-    }
-
-    private TsKvEntry applyMappingRule(long ts, DataMappingRule rule, JsonNode value) {
-        String targetKey = rule.getTargetKey();
-        TransformationType transformationType = rule.getTransformationType();
-
-        if (transformationType == null || transformationType == TransformationType.DIRECT) {
-            return createTsKvEntry(ts, targetKey, value);
-        }
-
-        // Handle transformations
-        if (transformationType == TransformationType.SCALE && value.isNumber()) {
-            JsonNode configNode = rule.getTransformationConfig();
-            double factor = configNode != null && configNode.has("factor") ?
-                    configNode.get("factor").doubleValue() : 1.0;
-            double offset = configNode != null && configNode.has("offset") ?
-                    configNode.get("offset").doubleValue() : 0.0;
-
-            double transformed = value.doubleValue() * factor + offset;
-            return new BasicTsKvEntry(ts, new DoubleDataEntry(targetKey, transformed));
-        }
-
-        // For unsupported transformations, just use direct
-        return createTsKvEntry(ts, targetKey, value);
-    }
-
     private void saveTelemetry(TbContext ctx, AssetId assetId, List<TsKvEntry> entries) {
         ctx.getTelemetryService().saveTimeseries(TimeseriesSaveRequest.builder()
                 .tenantId(ctx.getTenantId())
@@ -408,30 +429,14 @@ public class TbNexusDataDistributionNode implements TbNode {
         }
     }
 
-    private void logDistribution(DataDistributionService service, TenantId tenantId, DeviceId deviceId,
-                                  DataSourceConfig dataSourceConfig, DistributionStatus status,
-                                  int keysProcessed, List<String> errors, long processingTime) {
-        DistributionLog logEntry = new DistributionLog();
-        logEntry.setTenantId(tenantId);
-        logEntry.setDeviceId(deviceId);
-        logEntry.setTargetAssetId(dataSourceConfig.getTargetAssetId());
-        logEntry.setModuleKey(dataSourceConfig.getModuleKey());
-        logEntry.setOperationType("DISTRIBUTE");
-        logEntry.setStatus(status);
-        logEntry.setKeysProcessed(keysProcessed);
-        logEntry.setProcessingTimeMs(processingTime);
-
-        if (!errors.isEmpty()) {
-            logEntry.setErrorMessage(String.join("; ", errors));
-        }
-
-        service.saveDistributionLog(tenantId, logEntry);
-    }
-
     @Override
     public void destroy() {
-        configCache.clear();
-        rulesCache.clear();
+        NexusDistributionAuditWriter auditWriter = this.auditWriter;
+        this.auditWriter = null;
+        if (auditWriter != null) {
+            auditWriter.flush();
+        }
+        plans.clear();
     }
 
     /**
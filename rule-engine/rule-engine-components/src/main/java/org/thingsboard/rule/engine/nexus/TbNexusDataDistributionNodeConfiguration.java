@@ -54,6 +54,24 @@ public class TbNexusDataDistributionNodeConfiguration implements NodeConfigurati
      */
     private boolean enableAuditLog;
 
+    /**
+     * Interval in milliseconds after which a device's data source configuration and mapping
+     * rules are reloaded in the background and, if changed, recompiled (0 = default of 60 s).
+     */
+    private long configRefreshIntervalMs;
+
+    /**
+     * Interval in milliseconds over which audit entries are rolled up before being written
+     * (0 = default of 10 s).
+     */
+    private long auditLogFlushIntervalMs;
+
+    /**
+     * Maximum number of rolled-up audit entries pending a flush; further entries are dropped
+     * (0 = default of 10000).
+     */
+    private int auditLogMaxPendingEntries;
+
     /**
      * Whether to propagate data to parent assets in the hierarchy.
      */
@@ -76,6 +94,9 @@ public class TbNexusDataDistributionNodeConfiguration implements NodeConfigurati
         config.setDistributionMode("MAPPED");
         config.setErrorHandling("LOG_AND_CONTINUE");
         config.setEnableAuditLog(true);
+        config.setConfigRefreshIntervalMs(60000);
+        config.setAuditLogFlushIntervalMs(10000);
+        config.setAuditLogMaxPendingEntries(10000);
         config.setPropagateToParents(false);
         config.setUseServerTs(false);
         config.setDefaultTtlSeconds(0);
@@ -0,0 +1,108 @@
+/**
+ * Copyright © 2016-2026 The Thingsboard Authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.thingsboard.rule.engine.nexus.ct;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import lombok.extern.slf4j.Slf4j;
+import org.thingsboard.common.util.JacksonUtil;
+import org.thingsboard.rule.engine.api.RuleNode;
+import org.thingsboard.rule.engine.api.TbContext;
+import org.thingsboard.rule.engine.api.TbNode;
+import org.thingsboard.rule.engine.api.TbNodeConfiguration;
+import org.thingsboard.rule.engine.api.TbNodeException;
+import org.thingsboard.rule.engine.api.util.TbNodeUtils;
+import org.thingsboard.server.common.data.nexus.ReelTelemetrySample;
+import org.thingsboard.server.common.data.plugin.ComponentType;
+import org.thingsboard.server.common.msg.TbMsg;
+import org.thingsboard.server.dao.nexus.ReelFatigueService;
+
+/**
+ * Rule Engine node that feeds coiled tubing reel telemetry to the NEXUS fatigue service.
+ *
+ * Each message of a CT_REEL asset (pressure, tension, temperature, direction and depth) is handed to
+ * {@link ReelFatigueService}, which runs the rainflow reel fatigue and the per-segment string fatigue
+ * map off the rule engine thread. The message is forwarded unchanged.
+ *
+ * Output routes:
+ * - "Success" once the sample was accepted
+ * - "Failure" when pressure or tension is missing
+ */
+@Slf4j
+@RuleNode(
+        type = ComponentType.ACTION,
+        name = "ct reel fatigue",
+        configClazz = CTReelFatigueNodeConfiguration.class,
+        nodeDescription = "Track coiled tubing reel and string fatigue from reel telemetry",
+        nodeDetails = "Feeds pressure, tension, temperature, direction and depth of a CT reel to the fatigue service, " +
+                "which counts fatigue cycles of the reel and the damage of every tubing segment passing the reel and gooseneck.<br/><br/>" +
+                "Assign it to the rule chain of CT_REEL assets. Samples of a reel must arrive in time order.",
+        configDirective = "tbActionNodeCtReelFatigueConfig",
+        icon = "donut_large",
+        docUrl = "https://nexus.thingsboard.io/docs/ct-module/fatigue",
+        relationTypes = {"Success", "Failure"}
+)
+public class CTReelFatigueNode implements TbNode {
+
+    private CTReelFatigueNodeConfiguration config;
+
+    @Override
+    public void init(TbContext ctx, TbNodeConfiguration configuration) throws TbNodeException {
+        this.config = TbNodeUtils.convert(configuration, CTReelFatigueNodeConfiguration.class);
+        log.info("CTReelFatigueNode initialized with config: {}", config);
+    }
+
+    @Override
+    public void onMsg(TbContext ctx, TbMsg msg) {
+        try {
+            JsonNode body = JacksonUtil.toJsonNode(msg.getData());
+            if (body == null || !body.isObject()) {
+                ctx.tellFailure(msg, new RuntimeException("Message body is not a JSON object"));
+                return;
+            }
+            Double pressure = getOptionalDouble(body, config.getPressurePsiField());
+            Double tension = getOptionalDouble(body, config.getTensionLbfField());
+            if (pressure == null || tension == null) {
+                ctx.tellFailure(msg, new RuntimeException("Missing reel pressure or tension"));
+                return;
+            }
+            JsonNode direction = config.getDirectionField() != null ? body.get(config.getDirectionField()) : null;
+            ReelTelemetrySample sample = new ReelTelemetrySample(msg.getMetaDataTs(), pressure, tension,
+                    getOptionalDouble(body, config.getTemperatureFField()),
+                    direction != null && direction.isTextual() ? direction.asText() : null,
+                    getOptionalDouble(body, config.getDepthFtField()));
+
+            ReelFatigueService reelFatigueService = ctx.getReelFatigueService();
+            if (reelFatigueService != null) {
+                reelFatigueService.onReelTelemetry(ctx.getTenantId(), msg.getOriginator(), sample);
+            }
+            ctx.tellSuccess(msg);
+        } catch (Exception e) {
+            log.error("Error feeding reel fatigue: {}", e.getMessage(), e);
+            ctx.tellFailure(msg, e);
+        }
+    }
+
+    private Double getOptionalDouble(JsonNode body, String fieldName) {
+        if (fieldName == null || fieldName.isEmpty()) {
+            return null;
+        }
+        JsonNode node = body.get(fieldName);
+        if (node == null || node.isNull() || !node.isNumber()) {
+            return null;
+        }
+        return node.asDouble();
+    }
+}
@@ -0,0 +1,44 @@
+/**
+ * Copyright © 2016-2026 The Thingsboard Authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.thingsboard.rule.engine.nexus.ct;
+
+import lombok.Data;
+import org.thingsboard.rule.engine.api.NodeConfiguration;
+
+/**
+ * Configuration for CT Reel Fatigue Rule Node.
+ */
+@Data
+public class CTReelFatigueNodeConfiguration implements NodeConfiguration<CTReelFatigueNodeConfiguration> {
+
+    // Input field names
+    private String pressurePsiField;
+    private String tensionLbfField;
+    private String temperatureFField;
+    private String directionField;
+    private String depthFtField;
+
+    @Override
+    public CTReelFatigueNodeConfiguration defaultConfiguration() {
+        CTReelFatigueNodeConfiguration config = new CTReelFatigueNodeConfiguration();
+        config.setPressurePsiField("pressure");
+        config.setTensionLbfField("tension");
+        config.setTemperatureFField("temperature");
+        config.setDirectionField("direction");
+        config.setDepthFtField("depth");
+        return config;
+    }
+}
@@ -17,6 +17,7 @@ package org.thingsboard.rule.engine.nexus.dr;
 
 import com.fasterxml.jackson.databind.JsonNode;
 import com.fasterxml.jackson.databind.node.ObjectNode;
+import com.google.common.util.concurrent.FutureCallback;
 import com.google.common.util.concurrent.Futures;
 import com.google.common.util.concurrent.ListenableFuture;
 import com.google.common.util.concurrent.SettableFuture;
@@ -31,15 +32,12 @@ import org.thingsboard.rule.engine.api.TbNodeException;
 import org.thingsboard.rule.engine.api.TimeseriesSaveRequest;
 import org.thingsboard.rule.engine.api.util.TbNodeUtils;
 import org.thingsboard.server.common.data.AttributeScope;
+import org.thingsboard.server.common.data.id.EntityId;
 import org.thingsboard.server.common.data.kv.BasicTsKvEntry;
 import org.thingsboard.server.common.data.kv.DoubleDataEntry;
 import org.thingsboard.server.common.data.plugin.ComponentType;
 import org.thingsboard.server.common.msg.TbMsg;
 
-import java.math.BigDecimal;
-import java.math.MathContext;
-import java.math.RoundingMode;
-
 /**
  * Rule Engine node for calculating Equivalent Circulating Density (ECD).
  *
@@ -52,6 +50,11 @@ import java.math.RoundingMode;
  *
  * Result: ECD in ppg
  *
+ * The mud weight only changes with a mud program update, so it is cached per originator: the
+ * message value wins when present, otherwise the cached value or, on a cold cache, the originator
+ * attribute of the same name is used. Cached values expire after a few minutes so an attribute
+ * update is picked up.
+ *
  * Output routes:
  * - "Success" for normal ECD
  * - "High ECD" when ECD exceeds high threshold (risk of fracturing formation)
@@ -75,10 +78,11 @@ import java.math.RoundingMode;
 )
 public class DrEcdCalculationNode implements TbNode {
 
-    private static final BigDecimal CONSTANT_0052 = new BigDecimal("0.052");
-    private static final MathContext MC = new MathContext(10, RoundingMode.HALF_UP);
+    // Pressure gradient constant: 0.052 psi/ft/ppg
+    private static final double PRESSURE_GRADIENT = 0.052;
 
     private DrEcdCalculationNodeConfiguration config;
+    private final DrStaticInputCache mudWeights = new DrStaticInputCache();
 
     @Override
     public void init(TbContext ctx, TbNodeConfiguration configuration) throws TbNodeException {
@@ -86,6 +90,11 @@ public class DrEcdCalculationNode implements TbNode {
         log.info("DrEcdCalculationNode initialized with config: {}", config);
     }
 
+    @Override
+    public void destroy() {
+        mudWeights.clear();
+    }
+
     @Override
     public void onMsg(TbContext ctx, TbMsg msg) {
         try {
@@ -98,54 +107,90 @@ public class DrEcdCalculationNode implements TbNode {
             ObjectNode body = (ObjectNode) jsonNode;
 
             // Extract input values
-            BigDecimal mudWeightPpg = extractBigDecimal(body, config.getMudWeightPpgField(), "Mud Weight");
-            BigDecimal annularPressureLossPsi = extractBigDecimal(body, config.getAnnularPressureLossPsiField(), "Annular Pressure Loss");
-            BigDecimal tvdFt = extractBigDecimal(body, config.getTvdFtField(), "TVD");
+            double annularPressureLossPsi = extractDouble(body, config.getAnnularPressureLossPsiField(), "Annular Pressure Loss");
+            double tvdFt = extractDouble(body, config.getTvdFtField(), "TVD");
 
             // Validate inputs
-            validatePositive("Mud Weight", mudWeightPpg);
             validateNonNegative("Annular Pressure Loss", annularPressureLossPsi);
             validatePositive("TVD", tvdFt);
 
-            // Calculate ECD
-            BigDecimal ecd = calculateEcd(mudWeightPpg, annularPressureLossPsi, tvdFt);
-
-            log.debug("ECD calculated: {} ppg for entity {}", ecd, msg.getOriginator());
-
-            // Round result
-            BigDecimal result = ecd.setScale(config.getResultPrecision(), RoundingMode.HALF_UP);
-
-            // Update message
-            TbMsg updatedMsg = updateMessage(msg, body, result);
-
-            // Determine routing
-            String routeType = determineRoute(result.doubleValue());
-
-            // Save and route
-            if (config.isSaveAsAttribute() || config.isSaveAsTelemetry()) {
-                ListenableFuture<Void> saveFuture = saveToDatabase(ctx, msg, result);
-                String finalRouteType = routeType;
-                Futures.addCallback(saveFuture, new com.google.common.util.concurrent.FutureCallback<Void>() {
-                    @Override
-                    public void onSuccess(Void aVoid) {
-                        routeMessage(ctx, updatedMsg, finalRouteType);
-                    }
-
-                    @Override
-                    public void onFailure(Throwable t) {
-                        ctx.tellFailure(msg, new RuntimeException("Failed to save ECD result", t));
-                    }
-                }, ctx.getDbCallbackExecutor());
-            } else {
-                routeMessage(ctx, updatedMsg, routeType);
+            EntityId originator = msg.getOriginator();
+            Double mudWeightPpg = mudWeights.resolve(originator, body, config.getMudWeightPpgField(), "Mud Weight");
+            if (mudWeightPpg != null) {
+                process(ctx, msg, body, mudWeightPpg, annularPressureLossPsi, tvdFt);
+                return;
+            }
+            if (!config.isStaticInputsFromAttributes()) {
+                throw new RuntimeException("Mud Weight field '" + config.getMudWeightPpgField() + "' not found in message body");
             }
 
+            AttributeScope scope = AttributeScope.valueOf(config.getContextAttributeScope());
+            Futures.addCallback(mudWeights.load(ctx, originator, scope, config.getMudWeightPpgField()),
+                    new FutureCallback<Double>() {
+                        @Override
+                        public void onSuccess(Double loaded) {
+                            if (loaded == null) {
+                                ctx.tellFailure(msg, new RuntimeException("Mud Weight field '" + config.getMudWeightPpgField()
+                                        + "' not found in message body or originator attributes"));
+                                return;
+                            }
+                            try {
+                                process(ctx, msg, body, loaded, annularPressureLossPsi, tvdFt);
+                            } catch (Exception e) {
+                                log.error("Error calculating ECD: {}", e.getMessage(), e);
+                                ctx.tellFailure(msg, e);
+                            }
+                        }
+
+                        @Override
+                        public void onFailure(Throwable t) {
+                            ctx.tellFailure(msg, new RuntimeException("Failed to load mud weight", t));
+                        }
+                    }, ctx.getDbCallbackExecutor());
+
         } catch (Exception e) {
             log.error("Error calculating ECD: {}", e.getMessage(), e);
             ctx.tellFailure(msg, e);
         }
     }
 
+    private void process(TbContext ctx, TbMsg msg, ObjectNode body, double mudWeightPpg,
+                         double annularPressureLossPsi, double tvdFt) {
+        validatePositive("Mud Weight", mudWeightPpg);
+
+        // Calculate ECD
+        double ecd = calculateEcd(mudWeightPpg, annularPressureLossPsi, tvdFt);
+
+        log.debug("ECD calculated: {} ppg for entity {}", ecd, msg.getOriginator());
+
+        // Round result
+        double result = round(ecd);
+
+        // Update message
+        TbMsg updatedMsg = updateMessage(msg, body, result);
+
+        // Determine routing
+        String routeType = determineRoute(result);
+
+        // Save and route
+        if (config.isSaveAsAttribute() || config.isSaveAsTelemetry()) {
+            ListenableFuture<Void> saveFuture = saveToDatabase(ctx, msg, result);
+            Futures.addCallback(saveFuture, new FutureCallback<Void>() {
+                @Override
+                public void onSuccess(Void aVoid) {
+                    routeMessage(ctx, updatedMsg, routeType);
+                }
+
+                @Override
+                public void onFailure(Throwable t) {
+                    ctx.tellFailure(msg, new RuntimeException("Failed to save ECD result", t));
+                }
+            }, ctx.getDbCallbackExecutor());
+        } else {
+            routeMessage(ctx, updatedMsg, routeType);
+        }
+    }
+
     private String determineRoute(double ecdValue) {
         if (config.isEnableEcdHighAlert() && ecdValue > config.getEcdHighThresholdPpg()) {
             return "High ECD";
@@ -173,29 +218,31 @@ public class DrEcdCalculationNode implements TbNode {
      * Calculate ECD.
      * ECD = MW + (APL / (0.052 * TVD))
      */
-    private BigDecimal calculateEcd(BigDecimal mudWeightPpg, BigDecimal annularPressureLossPsi, BigDecimal tvdFt) {
-        // Pressure gradient constant: 0.052 psi/ft/ppg
-        BigDecimal denominator = CONSTANT_0052.multiply(tvdFt, MC);
-        BigDecimal pressureComponent = annularPressureLossPsi.divide(denominator, MC);
-        return mudWeightPpg.add(pressureComponent, MC);
+    static double calculateEcd(double mudWeightPpg, double annularPressureLossPsi, double tvdFt) {
+        return mudWeightPpg + annularPressureLossPsi / (PRESSURE_GRADIENT * tvdFt);
+    }
+
+    private double round(double value) {
+        double factor = Math.pow(10, config.getResultPrecision());
+        return Math.round(value * factor) / factor;
     }
 
-    private TbMsg updateMessage(TbMsg msg, ObjectNode body, BigDecimal result) {
-        body.put(config.getOutputField(), result.doubleValue());
+    private TbMsg updateMessage(TbMsg msg, ObjectNode body, double result) {
+        body.put(config.getOutputField(), result);
 
         TbMsg.TbMsgBuilder builder = msg.transform()
                 .data(JacksonUtil.toString(body));
 
         if (config.isAddToMetadata()) {
             var md = msg.getMetaData();
-            md.putValue(config.getOutputField(), result.toPlainString());
+            md.putValue(config.getOutputField(), Double.toString(result));
             builder.metaData(md);
         }
 
         return builder.build();
     }
 
-    private ListenableFuture<Void> saveToDatabase(TbContext ctx, TbMsg msg, BigDecimal result) {
+    private ListenableFuture<Void> saveToDatabase(TbContext ctx, TbMsg msg, double result) {
         if (config.isSaveAsAttribute()) {
             return saveAsAttribute(ctx, msg, result);
         } else if (config.isSaveAsTelemetry()) {
@@ -204,9 +251,9 @@ public class DrEcdCalculationNode implements TbNode {
         return Futures.immediateFuture(null);
     }
 
-    private ListenableFuture<Void> saveAsAttribute(TbContext ctx, TbMsg msg, BigDecimal result) {
+    private ListenableFuture<Void> saveAsAttribute(TbContext ctx, TbMsg msg, double result) {
         AttributeScope scope = AttributeScope.valueOf(config.getAttributeScope());
-        DoubleDataEntry kvEntry = new DoubleDataEntry(config.getOutputField(), result.doubleValue());
+        DoubleDataEntry kvEntry = new DoubleDataEntry(config.getOutputField(), result);
 
         SettableFuture<Void> future = SettableFuture.create();
         ctx.getTelemetryService().saveAttributes(AttributesSaveRequest.builder()
@@ -219,10 +266,10 @@ public class DrEcdCalculationNode implements TbNode {
         return future;
     }
 
-    private ListenableFuture<Void> saveAsTelemetry(TbContext ctx, TbMsg msg, BigDecimal result) {
+    private ListenableFuture<Void> saveAsTelemetry(TbContext ctx, TbMsg msg, double result) {
         BasicTsKvEntry tsEntry = new BasicTsKvEntry(
                 System.currentTimeMillis(),
-                new DoubleDataEntry(config.getOutputField(), result.doubleValue())
+                new DoubleDataEntry(config.getOutputField(), result)
         );
 
         SettableFuture<Void> future = SettableFuture.create();
@@ -235,7 +282,7 @@ public class DrEcdCalculationNode implements TbNode {
         return future;
     }
 
-    private BigDecimal extractBigDecimal(ObjectNode body, String fieldName, String displayName) {
+    private double extractDouble(ObjectNode body, String fieldName, String displayName) {
         JsonNode node = body.get(fieldName);
         if (node == null || node.isNull()) {
             throw new RuntimeException(displayName + " field '" + fieldName + "' not found in message body");
@@ -243,17 +290,17 @@ public class DrEcdCalculationNode implements TbNode {
         if (!node.isNumber()) {
             throw new RuntimeException(displayName + " field '" + fieldName + "' must be a number");
         }
-        return BigDecimal.valueOf(node.asDouble());
+        return node.asDouble();
     }
 
-    private void validatePositive(String name, BigDecimal value) {
-        if (value == null || value.compareTo(BigDecimal.ZERO) <= 0) {
+    private void validatePositive(String name, double value) {
+        if (!(value > 0)) {
             throw new RuntimeException(String.format("%s must be positive, got %s", name, value));
         }
     }
 
-    private void validateNonNegative(String name, BigDecimal value) {
-        if (value == null || value.compareTo(BigDecimal.ZERO) < 0) {
+    private void validateNonNegative(String name, double value) {
+        if (!(value >= 0)) {
             throw new RuntimeException(String.format("%s must be non-negative, got %s", name, value));
         }
     }
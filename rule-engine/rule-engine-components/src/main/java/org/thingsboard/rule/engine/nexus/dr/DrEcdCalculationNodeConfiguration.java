@@ -29,6 +29,10 @@ public class DrEcdCalculationNodeConfiguration implements NodeConfiguration<DrEc
     private String annularPressureLossPsiField;
     private String tvdFtField;
 
+    // Static inputs missing from the message are read once from the originator attributes
+    private boolean staticInputsFromAttributes;
+    private String contextAttributeScope;
+
     // Output configuration
     private String outputField;
     private boolean addToMetadata;
@@ -51,6 +55,8 @@ public class DrEcdCalculationNodeConfiguration implements NodeConfiguration<DrEc
         config.setMudWeightPpgField("mudWeight");
         config.setAnnularPressureLossPsiField("annularPressureLoss");
         config.setTvdFtField("tvd");
+        config.setStaticInputsFromAttributes(true);
+        config.setContextAttributeScope("SERVER_SCOPE");
         config.setOutputField("ecd");
         config.setAddToMetadata(false);
         config.setSaveAsAttribute(false);
@@ -17,6 +17,8 @@ package org.thingsboard.rule.engine.nexus.dr;
 
 import com.fasterxml.jackson.databind.JsonNode;
 import com.fasterxml.jackson.databind.node.ObjectNode;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
 import com.google.common.util.concurrent.Futures;
 import com.google.common.util.concurrent.ListenableFuture;
 import com.google.common.util.concurrent.SettableFuture;
@@ -29,6 +31,7 @@ import org.thingsboard.rule.engine.api.TbNodeConfiguration;
 import org.thingsboard.rule.engine.api.TbNodeException;
 import org.thingsboard.rule.engine.api.TimeseriesSaveRequest;
 import org.thingsboard.rule.engine.api.util.TbNodeUtils;
+import org.thingsboard.server.common.data.id.EntityId;
 import org.thingsboard.server.common.data.kv.BasicTsKvEntry;
 import org.thingsboard.server.common.data.kv.BooleanDataEntry;
 import org.thingsboard.server.common.data.kv.StringDataEntry;
@@ -36,6 +39,7 @@ import org.thingsboard.server.common.data.kv.TsKvEntry;
 import org.thingsboard.server.common.data.plugin.ComponentType;
 import org.thingsboard.server.common.msg.TbMsg;
 
+import java.time.Duration;
 import java.util.ArrayList;
 import java.util.List;
 
@@ -46,11 +50,20 @@ import java.util.List;
  * Early detection is critical for well control and safety.
  *
  * Detection indicators:
- * 1. Pit gain (increase in pit volume) - PRIMARY
- * 2. Flow differential (flow out > flow in) - PRIMARY
+ * 1. Pit gain over a rolling baseline, pit gain rate (window slope) and pit gain CUSUM - PRIMARY
+ * 2. Flow differential (flow out > flow in) over its learned offset, and its CUSUM - PRIMARY
  * 3. Standpipe pressure drop
  * 4. Mud weight decrease (from gas cutting)
- * 5. Connection gas increase
+ * 5. Gas increase over background
+ *
+ * Baselines, slopes and CUSUMs are kept per well (message originator) in the node, so the
+ * baseline fields no longer have to be enriched upstream. The learned baselines only add
+ * sensitivity: pit gain and flow differential are always also checked against an absolute floor
+ * (the upstream baseline when present, otherwise zero flow differential and the pit level before
+ * the current rise), so a kick already in progress when the well is first seen, or a gain slow
+ * enough to drag a rolling baseline along, is still reported.
+ * Windows are dropped after {@link #WINDOW_IDLE_EXPIRY} without samples and capped at
+ * {@link #MAX_TRACKED_WELLS} wells.
  *
  * Severity levels:
  * - NONE: No kick indicators
@@ -84,14 +97,48 @@ import java.util.List;
 )
 public class DrKickDetectionNode implements TbNode {
 
+    static final Duration WINDOW_IDLE_EXPIRY = Duration.ofHours(1);
+    static final int MAX_TRACKED_WELLS = 10_000;
+    private static final int DEFAULT_WINDOW_SIZE = 120;
+    private static final int MIN_TREND_SAMPLES = 10;
+    private static final double DEFAULT_BASELINE_TIME_CONSTANT_SEC = 900.0;
+    private static final double DEFAULT_CUSUM_DRIFT_FRACTION = 0.5;
+    private static final double DEFAULT_CUSUM_THRESHOLD_MINUTES = 2.0;
+    private static final double MS_PER_MIN = 60_000.0;
+
+    // Indicator bits, in the order of INDICATOR_NAMES
+    private static final int PIT_GAIN = 1;
+    private static final int PIT_TREND = 1 << 1;
+    private static final int PIT_CUSUM = 1 << 2;
+    private static final int FLOW_INCREASE = 1 << 3;
+    private static final int FLOW_CUSUM = 1 << 4;
+    private static final int SPP_DROP = 1 << 5;
+    private static final int MUD_WEIGHT_DROP = 1 << 6;
+    private static final int GAS_INCREASE = 1 << 7;
+    private static final String[] INDICATOR_NAMES = {
+            "PIT_GAIN", "PIT_TREND", "PIT_CUSUM", "FLOW_INCREASE", "FLOW_CUSUM", "SPP_DROP", "MUD_WEIGHT_DROP", "GAS_INCREASE"
+    };
+
     private DrKickDetectionNodeConfiguration config;
+    private Cache<EntityId, KickWindow> windows;
 
     @Override
     public void init(TbContext ctx, TbNodeConfiguration configuration) throws TbNodeException {
         this.config = TbNodeUtils.convert(configuration, DrKickDetectionNodeConfiguration.class);
+        this.windows = Caffeine.newBuilder()
+                .expireAfterAccess(WINDOW_IDLE_EXPIRY)
+                .maximumSize(MAX_TRACKED_WELLS)
+                .build();
         log.info("DrKickDetectionNode initialized with config: {}", config);
     }
 
+    @Override
+    public void destroy() {
+        if (windows != null) {
+            windows.invalidateAll();
+        }
+    }
+
     @Override
     public void onMsg(TbContext ctx, TbMsg msg) {
         try {
@@ -103,8 +150,8 @@ public class DrKickDetectionNode implements TbNode {
 
             ObjectNode body = (ObjectNode) jsonNode;
 
-            // Analyze kick indicators
-            KickAnalysisResult analysis = analyzeKickIndicators(body);
+            // Analyze kick indicators over the well's window
+            KickAnalysisResult analysis = analyzeKickIndicators(msg.getOriginator(), msg.getMetaDataTs(), body);
 
             log.debug("Kick analysis: {} indicators, severity: {} for entity {}",
                     analysis.indicatorCount, analysis.severity, msg.getOriginator());
@@ -136,74 +183,42 @@ public class DrKickDetectionNode implements TbNode {
         }
     }
 
-    private KickAnalysisResult analyzeKickIndicators(ObjectNode body) {
-        List<String> detectedIndicators = new ArrayList<>();
-        int severityScore = 0;
-
-        // 1. Check pit volume gain
-        Double pitVolume = getOptionalDouble(body, config.getPitVolumeField());
-        Double baselinePitVolume = getOptionalDouble(body, config.getBaselinePitVolumeField());
-        if (pitVolume != null && baselinePitVolume != null) {
-            double pitGain = pitVolume - baselinePitVolume;
-            if (pitGain >= config.getPitGainThresholdBbl()) {
-                detectedIndicators.add("PIT_GAIN");
-                severityScore += (pitGain >= config.getPitGainThresholdBbl() * 2) ? 3 : 2;
-            }
-        }
-
-        // 2. Check flow differential
-        Double flowIn = getOptionalDouble(body, config.getFlowInGpmField());
-        Double flowOut = getOptionalDouble(body, config.getFlowOutGpmField());
-        if (flowIn != null && flowOut != null) {
-            double flowDiff = flowOut - flowIn;
-            if (flowDiff >= config.getFlowDifferentialThresholdGpm()) {
-                detectedIndicators.add("FLOW_INCREASE");
-                severityScore += (flowDiff >= config.getFlowDifferentialThresholdGpm() * 2) ? 3 : 2;
-            }
+    private KickAnalysisResult analyzeKickIndicators(EntityId originator, long ts, ObjectNode body) {
+        double pitVolume = getDouble(body, config.getPitVolumeField());
+        double flowIn = getDouble(body, config.getFlowInGpmField());
+        double flowOut = getDouble(body, config.getFlowOutGpmField());
+        double spp = getDouble(body, config.getStandpipePressureField());
+        double mudWeightIn = getDouble(body, config.getMudWeightInField());
+        double mudWeightOut = getDouble(body, config.getMudWeightOutField());
+        double gasUnits = getDouble(body, config.getGasUnitsField());
+        double baselinePitVolume = Double.NaN;
+        double baselineFlowDiff = Double.NaN;
+        if (config.isUseAttributeBaselines()) {
+            // Baselines computed upstream replace the default absolute floors
+            baselinePitVolume = getDouble(body, config.getBaselinePitVolumeField());
+            baselineFlowDiff = getDouble(body, config.getBaselineFlowDifferentialField());
         }
 
-        // 3. Check standpipe pressure (decrease indicates kick)
-        Double spp = getOptionalDouble(body, config.getStandpipePressureField());
-        // Pressure drop detection would need historical comparison
-        // For now, we assume baseline in attributes or metadata
-
-        // 4. Check mud weight decrease
-        Double mudWeightIn = getOptionalDouble(body, config.getMudWeightInField());
-        Double mudWeightOut = getOptionalDouble(body, config.getMudWeightOutField());
-        if (mudWeightIn != null && mudWeightOut != null) {
-            double mwDrop = mudWeightIn - mudWeightOut;
-            if (mwDrop >= config.getMudWeightDropThresholdPpg()) {
-                detectedIndicators.add("MUD_WEIGHT_DROP");
-                severityScore += 2;
-            }
+        KickWindow window = windows.get(originator, id -> new KickWindow(windowSize()));
+        synchronized (window) {
+            window.evaluate(ts, pitVolume, flowIn, flowOut, spp, mudWeightIn, mudWeightOut, gasUnits,
+                    baselinePitVolume, baselineFlowDiff);
+            return new KickAnalysisResult(window.indicators, calculateSeverity(window.score, window.signalCount()),
+                    window.pitGain, window.pitSlope, window.flowResidual);
         }
-
-        // 5. Check gas increase
-        Double gasUnits = getOptionalDouble(body, config.getGasUnitsField());
-        // Gas increase detection would need historical comparison
-
-        // Determine severity
-        KickSeverity severity = calculateSeverity(severityScore, detectedIndicators.size());
-
-        return new KickAnalysisResult(
-                !detectedIndicators.isEmpty(),
-                severity,
-                detectedIndicators.size(),
-                detectedIndicators
-        );
     }
 
-    private KickSeverity calculateSeverity(int score, int indicatorCount) {
-        if (indicatorCount == 0 || score == 0) {
+    private KickSeverity calculateSeverity(int score, int signalCount) {
+        if (signalCount == 0 || score == 0) {
             return KickSeverity.NONE;
         }
-        if (score >= 8 || indicatorCount >= 4) {
+        if (score >= 8 || signalCount >= 4) {
             return KickSeverity.CRITICAL;
         }
-        if (score >= 5 || indicatorCount >= 3) {
+        if (score >= 5 || signalCount >= 3) {
             return KickSeverity.HIGH;
         }
-        if (score >= 3 || indicatorCount >= 2) {
+        if (score >= 3 || signalCount >= 2) {
             return KickSeverity.MEDIUM;
         }
         return KickSeverity.LOW;
@@ -230,7 +245,20 @@ public class DrKickDetectionNode implements TbNode {
         body.put("kickIndicatorCount", analysis.indicatorCount);
 
         var indicatorsArray = body.putArray("kickIndicators");
-        analysis.indicators.forEach(indicatorsArray::add);
+        for (int i = 0; i < INDICATOR_NAMES.length; i++) {
+            if ((analysis.indicators & (1 << i)) != 0) {
+                indicatorsArray.add(INDICATOR_NAMES[i]);
+            }
+        }
+        if (!Double.isNaN(analysis.pitGain)) {
+            body.put("pitGain", analysis.pitGain);
+        }
+        if (!Double.isNaN(analysis.pitGainRate)) {
+            body.put("pitGainRate", analysis.pitGainRate);
+        }
+        if (!Double.isNaN(analysis.flowDifferential)) {
+            body.put("flowDifferential", analysis.flowDifferential);
+        }
 
         TbMsg.TbMsgBuilder builder = msg.transform()
                 .data(JacksonUtil.toString(body));
@@ -264,17 +292,244 @@ public class DrKickDetectionNode implements TbNode {
         return future;
     }
 
-    private Double getOptionalDouble(ObjectNode body, String fieldName) {
+    /**
+     * Numeric field of the message, NaN when absent so that evaluation needs no boxing.
+     */
+    private double getDouble(ObjectNode body, String fieldName) {
         if (fieldName == null || fieldName.isEmpty()) {
-            return null;
+            return Double.NaN;
         }
         JsonNode node = body.get(fieldName);
         if (node == null || node.isNull() || !node.isNumber()) {
-            return null;
+            return Double.NaN;
         }
         return node.asDouble();
     }
 
+    private int windowSize() {
+        return config.getWindowSize() > 2 ? config.getWindowSize() : DEFAULT_WINDOW_SIZE;
+    }
+
+    private static double orDefault(double value, double defaultValue) {
+        return value > 0 ? value : defaultValue;
+    }
+
+    /**
+     * Per-well detection state. Pit volume history lives in primitive ring buffers; baselines are
+     * time-weighted EWMAs that freeze while their CUSUM accumulates. The pit floor follows the pit
+     * down at once but only rises while the window trend is flat or falling, so a steady slow
+     * influx accumulates against it instead of being absorbed. Evaluation allocates nothing.
+     */
+    private final class KickWindow {
+        private final long[] ts;
+        private final double[] pit;
+        private int head;
+        private int size;
+        private long lastTs = Long.MIN_VALUE;
+
+        private double pitBaseline = Double.NaN;
+        private double pitFloor = Double.NaN;
+        private double flowDiffBaseline = Double.NaN;
+        private double sppBaseline = Double.NaN;
+        private double gasBaseline = Double.NaN;
+
+        // One-sided CUSUMs in threshold-minutes
+        private double pitCusum;
+        private double flowCusum;
+
+        // Result of the last evaluation
+        int indicators;
+        int score;
+        double pitGain;
+        double pitSlope;
+        double flowResidual;
+
+        KickWindow(int capacity) {
+            this.ts = new long[capacity];
+            this.pit = new double[capacity];
+        }
+
+        void evaluate(long now, double pitVolume, double flowIn, double flowOut, double spp,
+                      double mudWeightIn, double mudWeightOut, double gasUnits,
+                      double externalPitBaseline, double externalFlowBaseline) {
+            indicators = 0;
+            score = 0;
+            pitGain = Double.NaN;
+            pitSlope = Double.NaN;
+            flowResidual = Double.NaN;
+
+            double dtMin = lastTs != Long.MIN_VALUE && now > lastTs ? (now - lastTs) / MS_PER_MIN : 0.0;
+            if (now > lastTs) {
+                lastTs = now;
+            }
+            double alpha = dtMin > 0
+                    ? 1.0 - Math.exp(-dtMin * 60.0 / orDefault(config.getBaselineTimeConstantSec(), DEFAULT_BASELINE_TIME_CONSTANT_SEC))
+                    : 0.0;
+            double drift = orDefault(config.getCusumDriftFraction(), DEFAULT_CUSUM_DRIFT_FRACTION);
+            double limit = orDefault(config.getCusumThresholdMinutes(), DEFAULT_CUSUM_THRESHOLD_MINUTES);
+            boolean pumpsOn = Double.isNaN(flowIn) || flowIn >= config.getMinFlowInGpm();
+
+            // 1. Pit volume: gain over baseline, trend and CUSUM
+            if (!Double.isNaN(pitVolume)) {
+                push(now, pitVolume);
+                if (Double.isNaN(pitBaseline)) {
+                    pitBaseline = pitVolume;
+                    pitFloor = pitVolume;
+                }
+                double threshold = config.getPitGainThresholdBbl();
+                double rollingGain = pitVolume - pitBaseline;
+                pitSlope = slopePerMin();
+                pitGain = Math.max(rollingGain, pitVolume - (Double.isNaN(externalPitBaseline) ? pitFloor : externalPitBaseline));
+                if (threshold > 0) {
+                    pitCusum = Math.max(0.0, pitCusum + (rollingGain / threshold - drift) * dtMin);
+                    if (pitGain >= threshold) {
+                        flag(PIT_GAIN, pitGain >= threshold * 2 ? 3 : 2);
+                    }
+                    if (pitCusum >= limit) {
+                        flag(PIT_CUSUM, 2);
+                    }
+                }
+                if (size >= MIN_TREND_SAMPLES && config.getPitGainRateThresholdBblMin() > 0
+                        && pitSlope >= config.getPitGainRateThresholdBblMin()) {
+                    flag(PIT_TREND, 1);
+                }
+                if (pitCusum == 0.0) {
+                    pitBaseline += alpha * (pitVolume - pitBaseline);
+                }
+                if (pitVolume < pitFloor) {
+                    pitFloor = pitVolume;
+                } else if (!(pitSlope > 0.0)) {
+                    pitFloor += alpha * (pitVolume - pitFloor);
+                }
+            }
+
+            // 2. Flow differential against its learned offset; meaningless with pumps off (connection flow-back)
+            if (!Double.isNaN(flowIn) && !Double.isNaN(flowOut)) {
+                if (pumpsOn) {
+                    double diff = flowOut - flowIn;
+                    if (Double.isNaN(flowDiffBaseline)) {
+                        flowDiffBaseline = diff;
+                    }
+                    double threshold = config.getFlowDifferentialThresholdGpm();
+                    double learnedResidual = diff - flowDiffBaseline;
+                    flowResidual = Math.max(learnedResidual, diff - (Double.isNaN(externalFlowBaseline) ? 0.0 : externalFlowBaseline));
+                    if (threshold > 0) {
+                        flowCusum = Math.max(0.0, flowCusum + (learnedResidual / threshold - drift) * dtMin);
+                        if (flowResidual >= threshold) {
+                            flag(FLOW_INCREASE, flowResidual >= threshold * 2 ? 3 : 2);
+                        }
+                        if (flowCusum >= limit) {
+                            flag(FLOW_CUSUM, 2);
+                        }
+                    }
+                    if (flowCusum == 0.0) {
+                        flowDiffBaseline += alpha * (diff - flowDiffBaseline);
+                    }
+                } else {
+                    flowCusum = 0.0;
+                }
+            }
+
+            // 3. Standpipe pressure drop against its rolling baseline (pumps on only)
+            if (!Double.isNaN(spp) && pumpsOn) {
+                if (Double.isNaN(sppBaseline)) {
+                    sppBaseline = spp;
+                }
+                if (config.getPressureDropThresholdPsi() > 0 && sppBaseline - spp >= config.getPressureDropThresholdPsi()) {
+                    flag(SPP_DROP, 1);
+                } else {
+                    sppBaseline += alpha * (spp - sppBaseline);
+                }
+            }
+
+            // 4. Mud weight decrease (gas cutting)
+            if (!Double.isNaN(mudWeightIn) && !Double.isNaN(mudWeightOut)
+                    && mudWeightIn - mudWeightOut >= config.getMudWeightDropThresholdPpg()) {
+                flag(MUD_WEIGHT_DROP, 2);
+            }
+
+            // 5. Gas increase over background
+            if (!Double.isNaN(gasUnits)) {
+                if (Double.isNaN(gasBaseline)) {
+                    gasBaseline = gasUnits;
+                }
+                if (config.getGasIncreaseThresholdPercent() > 0 && gasBaseline > 0
+                        && (gasUnits - gasBaseline) / gasBaseline * 100.0 >= config.getGasIncreaseThresholdPercent()) {
+                    flag(GAS_INCREASE, 1);
+                } else {
+                    gasBaseline += alpha * (gasUnits - gasBaseline);
+                }
+            }
+        }
+
+        /**
+         * Number of independent signals (pit, flow, pressure, mud weight, gas) raising an indicator.
+         */
+        int signalCount() {
+            int count = 0;
+            if ((indicators & (PIT_GAIN | PIT_TREND | PIT_CUSUM)) != 0) {
+                count++;
+            }
+            if ((indicators & (FLOW_INCREASE | FLOW_CUSUM)) != 0) {
+                count++;
+            }
+            if ((indicators & SPP_DROP) != 0) {
+                count++;
+            }
+            if ((indicators & MUD_WEIGHT_DROP) != 0) {
+                count++;
+            }
+            if ((indicators & GAS_INCREASE) != 0) {
+                count++;
+            }
+            return count;
+        }
+
+        private void flag(int indicator, int points) {
+            indicators |= indicator;
+            score += points;
+        }
+
+        private void push(long now, double value) {
+            if (size > 0 && now <= ts[(head - 1 + ts.length) % ts.length]) {
+                return;
+            }
+            ts[head] = now;
+            pit[head] = value;
+            head = (head + 1) % ts.length;
+            if (size < ts.length) {
+                size++;
+            }
+        }
+
+        /**
+         * Least-squares slope of pit volume versus time (bbl/min), NaN with fewer than 3 samples.
+         */
+        private double slopePerMin() {
+            if (size < 3) {
+                return Double.NaN;
+            }
+            int start = (head - size + ts.length) % ts.length;
+            long t0 = ts[start];
+            double sumT = 0;
+            double sumV = 0;
+            for (int k = 0, i = start; k < size; k++, i = (i + 1) % ts.length) {
+                sumT += (ts[i] - t0) / MS_PER_MIN;
+                sumV += pit[i];
+            }
+            double meanT = sumT / size;
+            double meanV = sumV / size;
+            double sxx = 0;
+            double sxy = 0;
+            for (int k = 0, i = start; k < size; k++, i = (i + 1) % ts.length) {
+                double dt = (ts[i] - t0) / MS_PER_MIN - meanT;
+                sxx += dt * dt;
+                sxy += dt * (pit[i] - meanV);
+            }
+            return sxx > 0 ? sxy / sxx : Double.NaN;
+        }
+    }
+
     private enum KickSeverity {
         NONE, LOW, MEDIUM, HIGH, CRITICAL
     }
@@ -283,13 +538,19 @@ public class DrKickDetectionNode implements TbNode {
         final boolean kickDetected;
         final KickSeverity severity;
         final int indicatorCount;
-        final List<String> indicators;
+        final int indicators;
+        final double pitGain;
+        final double pitGainRate;
+        final double flowDifferential;
 
-        KickAnalysisResult(boolean kickDetected, KickSeverity severity, int indicatorCount, List<String> indicators) {
-            this.kickDetected = kickDetected;
+        KickAnalysisResult(int indicators, KickSeverity severity, double pitGain, double pitGainRate, double flowDifferential) {
+            this.kickDetected = indicators != 0;
             this.severity = severity;
-            this.indicatorCount = indicatorCount;
+            this.indicatorCount = Integer.bitCount(indicators);
             this.indicators = indicators;
+            this.pitGain = pitGain;
+            this.pitGainRate = pitGainRate;
+            this.flowDifferential = flowDifferential;
         }
     }
 }
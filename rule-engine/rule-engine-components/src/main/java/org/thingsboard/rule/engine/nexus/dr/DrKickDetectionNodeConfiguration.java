@@ -50,6 +50,14 @@ public class DrKickDetectionNodeConfiguration implements NodeConfiguration<DrKic
     private double mudWeightDropThresholdPpg;
     private double gasIncreaseThresholdPercent;
 
+    // Windowed detection (per well): rolling baselines, pit trend and CUSUM
+    private int windowSize;
+    private double baselineTimeConstantSec;
+    private double pitGainRateThresholdBblMin;
+    private double cusumDriftFraction;
+    private double cusumThresholdMinutes;
+    private double minFlowInGpm;
+
     // Output configuration
     private String outputKickIndicatorField;
     private String outputKickSeverityField;
@@ -85,6 +93,13 @@ public class DrKickDetectionNodeConfiguration implements NodeConfiguration<DrKic
         config.setMudWeightDropThresholdPpg(0.3);
         config.setGasIncreaseThresholdPercent(50.0);
 
+        config.setWindowSize(120);
+        config.setBaselineTimeConstantSec(900.0);
+        config.setPitGainRateThresholdBblMin(0.25);
+        config.setCusumDriftFraction(0.5);
+        config.setCusumThresholdMinutes(2.0);
+        config.setMinFlowInGpm(50.0);
+
         config.setOutputKickIndicatorField("kickIndicator");
         config.setOutputKickSeverityField("kickSeverity");
         config.setAddToMetadata(true);
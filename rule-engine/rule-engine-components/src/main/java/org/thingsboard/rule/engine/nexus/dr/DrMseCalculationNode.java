@@ -17,6 +17,7 @@ package org.thingsboard.rule.engine.nexus.dr;
 
 import com.fasterxml.jackson.databind.JsonNode;
 import com.fasterxml.jackson.databind.node.ObjectNode;
+import com.google.common.util.concurrent.FutureCallback;
 import com.google.common.util.concurrent.Futures;
 import com.google.common.util.concurrent.ListenableFuture;
 import com.google.common.util.concurrent.SettableFuture;
@@ -31,15 +32,12 @@ import org.thingsboard.rule.engine.api.TbNodeException;
 import org.thingsboard.rule.engine.api.TimeseriesSaveRequest;
 import org.thingsboard.rule.engine.api.util.TbNodeUtils;
 import org.thingsboard.server.common.data.AttributeScope;
+import org.thingsboard.server.common.data.id.EntityId;
 import org.thingsboard.server.common.data.kv.BasicTsKvEntry;
 import org.thingsboard.server.common.data.kv.DoubleDataEntry;
 import org.thingsboard.server.common.data.plugin.ComponentType;
 import org.thingsboard.server.common.msg.TbMsg;
 
-import java.math.BigDecimal;
-import java.math.MathContext;
-import java.math.RoundingMode;
-
 /**
  * Rule Engine node for calculating Mechanical Specific Energy (MSE).
  *
@@ -54,6 +52,10 @@ import java.math.RoundingMode;
  *
  * Result: MSE in psi
  *
+ * The bit diameter only changes with the BHA, so it is cached per originator: the message value
+ * wins when present, otherwise the cached value or, on a cold cache, the originator attribute of
+ * the same name is used. Cached values expire after a few minutes so an attribute update is picked up.
+ *
  * Output routes:
  * - "Success" for normal calculation
  * - "High MSE" when MSE exceeds configured threshold (indicates drilling inefficiency)
@@ -75,12 +77,8 @@ import java.math.RoundingMode;
 )
 public class DrMseCalculationNode implements TbNode {
 
-    private static final BigDecimal CONSTANT_480 = new BigDecimal("480");
-    private static final BigDecimal CONSTANT_4 = new BigDecimal("4");
-    private static final BigDecimal PI = new BigDecimal("3.14159265359");
-    private static final MathContext MC = new MathContext(10, RoundingMode.HALF_UP);
-
     private DrMseCalculationNodeConfiguration config;
+    private final DrStaticInputCache bitDiameters = new DrStaticInputCache();
 
     @Override
     public void init(TbContext ctx, TbNodeConfiguration configuration) throws TbNodeException {
@@ -88,6 +86,11 @@ public class DrMseCalculationNode implements TbNode {
         log.info("DrMseCalculationNode initialized with config: {}", config);
     }
 
+    @Override
+    public void destroy() {
+        bitDiameters.clear();
+    }
+
     @Override
     public void onMsg(TbContext ctx, TbMsg msg) {
         try {
@@ -100,58 +103,94 @@ public class DrMseCalculationNode implements TbNode {
             ObjectNode body = (ObjectNode) jsonNode;
 
             // Extract input values
-            BigDecimal wobKlbs = extractBigDecimal(body, config.getWobKlbsField(), "WOB");
-            BigDecimal rpm = extractBigDecimal(body, config.getRpmField(), "RPM");
-            BigDecimal torqueFtLbs = extractBigDecimal(body, config.getTorqueFtLbsField(), "Torque");
-            BigDecimal ropFtHr = extractBigDecimal(body, config.getRopFtHrField(), "ROP");
-            BigDecimal bitDiameterIn = extractBigDecimal(body, config.getBitDiameterInField(), "Bit Diameter");
+            double wobKlbs = extractDouble(body, config.getWobKlbsField(), "WOB");
+            double rpm = extractDouble(body, config.getRpmField(), "RPM");
+            double torqueFtLbs = extractDouble(body, config.getTorqueFtLbsField(), "Torque");
+            double ropFtHr = extractDouble(body, config.getRopFtHrField(), "ROP");
 
             // Validate inputs
             validatePositive("WOB", wobKlbs);
             validatePositive("RPM", rpm);
             validatePositive("Torque", torqueFtLbs);
             validatePositive("ROP", ropFtHr);
-            validatePositive("Bit Diameter", bitDiameterIn);
-
-            // Calculate MSE
-            BigDecimal mse = calculateMse(wobKlbs, rpm, torqueFtLbs, ropFtHr, bitDiameterIn);
-
-            log.debug("MSE calculated: {} psi for entity {}", mse, msg.getOriginator());
-
-            // Round result
-            BigDecimal result = mse.setScale(config.getResultPrecision(), RoundingMode.HALF_UP);
-
-            // Update message
-            TbMsg updatedMsg = updateMessage(msg, body, result);
-
-            // Determine if MSE is high (drilling inefficiency)
-            boolean isHighMse = config.isEnableMseAlert() &&
-                    result.doubleValue() > config.getMseThresholdPsi();
-
-            // Save and route
-            if (config.isSaveAsAttribute() || config.isSaveAsTelemetry()) {
-                ListenableFuture<Void> saveFuture = saveToDatabase(ctx, msg, result);
-                Futures.addCallback(saveFuture, new com.google.common.util.concurrent.FutureCallback<Void>() {
-                    @Override
-                    public void onSuccess(Void aVoid) {
-                        routeMessage(ctx, updatedMsg, isHighMse);
-                    }
-
-                    @Override
-                    public void onFailure(Throwable t) {
-                        ctx.tellFailure(msg, new RuntimeException("Failed to save MSE result", t));
-                    }
-                }, ctx.getDbCallbackExecutor());
-            } else {
-                routeMessage(ctx, updatedMsg, isHighMse);
+
+            EntityId originator = msg.getOriginator();
+            Double bitDiameterIn = bitDiameters.resolve(originator, body, config.getBitDiameterInField(), "Bit Diameter");
+            if (bitDiameterIn != null) {
+                process(ctx, msg, body, wobKlbs, rpm, torqueFtLbs, ropFtHr, bitDiameterIn);
+                return;
+            }
+            if (!config.isStaticInputsFromAttributes()) {
+                throw new RuntimeException("Bit Diameter field '" + config.getBitDiameterInField() + "' not found in message body");
             }
 
+            AttributeScope scope = AttributeScope.valueOf(config.getContextAttributeScope());
+            Futures.addCallback(bitDiameters.load(ctx, originator, scope, config.getBitDiameterInField()),
+                    new FutureCallback<Double>() {
+                        @Override
+                        public void onSuccess(Double loaded) {
+                            if (loaded == null) {
+                                ctx.tellFailure(msg, new RuntimeException("Bit Diameter field '" + config.getBitDiameterInField()
+                                        + "' not found in message body or originator attributes"));
+                                return;
+                            }
+                            try {
+                                process(ctx, msg, body, wobKlbs, rpm, torqueFtLbs, ropFtHr, loaded);
+                            } catch (Exception e) {
+                                log.error("Error calculating MSE: {}", e.getMessage(), e);
+                                ctx.tellFailure(msg, e);
+                            }
+                        }
+
+                        @Override
+                        public void onFailure(Throwable t) {
+                            ctx.tellFailure(msg, new RuntimeException("Failed to load bit diameter", t));
+                        }
+                    }, ctx.getDbCallbackExecutor());
+
         } catch (Exception e) {
             log.error("Error calculating MSE: {}", e.getMessage(), e);
             ctx.tellFailure(msg, e);
         }
     }
 
+    private void process(TbContext ctx, TbMsg msg, ObjectNode body, double wobKlbs, double rpm, double torqueFtLbs,
+                         double ropFtHr, double bitDiameterIn) {
+        validatePositive("Bit Diameter", bitDiameterIn);
+
+        // Calculate MSE
+        double mse = calculateMse(wobKlbs, rpm, torqueFtLbs, ropFtHr, bitDiameterIn);
+
+        log.debug("MSE calculated: {} psi for entity {}", mse, msg.getOriginator());
+
+        // Round result
+        double result = round(mse);
+
+        // Update message
+        TbMsg updatedMsg = updateMessage(msg, body, result);
+
+        // Determine if MSE is high (drilling inefficiency)
+        boolean isHighMse = config.isEnableMseAlert() && result > config.getMseThresholdPsi();
+
+        // Save and route
+        if (config.isSaveAsAttribute() || config.isSaveAsTelemetry()) {
+            ListenableFuture<Void> saveFuture = saveToDatabase(ctx, msg, result);
+            Futures.addCallback(saveFuture, new FutureCallback<Void>() {
+                @Override
+                public void onSuccess(Void aVoid) {
+                    routeMessage(ctx, updatedMsg, isHighMse);
+                }
+
+                @Override
+                public void onFailure(Throwable t) {
+                    ctx.tellFailure(msg, new RuntimeException("Failed to save MSE result", t));
+                }
+            }, ctx.getDbCallbackExecutor());
+        } else {
+            routeMessage(ctx, updatedMsg, isHighMse);
+        }
+    }
+
     private void routeMessage(TbContext ctx, TbMsg msg, boolean isHighMse) {
         if (isHighMse) {
             ctx.tellNext(msg, "High MSE");
@@ -164,43 +203,41 @@ public class DrMseCalculationNode implements TbNode {
      * Calculate MSE using Teale's equation.
      * MSE = (480 * T * N) / (D² * ROP) + (4 * WOB) / (π * D²)
      */
-    private BigDecimal calculateMse(BigDecimal wobKlbs, BigDecimal rpm, BigDecimal torqueFtLbs,
-                                     BigDecimal ropFtHr, BigDecimal bitDiameterIn) {
+    static double calculateMse(double wobKlbs, double rpm, double torqueFtLbs, double ropFtHr, double bitDiameterIn) {
         // Convert WOB from klbs to lbs
-        BigDecimal wobLbs = wobKlbs.multiply(new BigDecimal("1000"), MC);
-
-        // Calculate bit area: π * D² / 4 -> D² = (D² * π / 4) -> area
-        BigDecimal dSquared = bitDiameterIn.multiply(bitDiameterIn, MC);
+        double wobLbs = wobKlbs * 1000.0;
+        double dSquared = bitDiameterIn * bitDiameterIn;
 
         // Rotary component: (480 * T * N) / (D² * ROP)
-        BigDecimal rotaryNumerator = CONSTANT_480.multiply(torqueFtLbs, MC).multiply(rpm, MC);
-        BigDecimal rotaryDenominator = dSquared.multiply(ropFtHr, MC);
-        BigDecimal rotaryComponent = rotaryNumerator.divide(rotaryDenominator, MC);
+        double rotaryComponent = 480.0 * torqueFtLbs * rpm / (dSquared * ropFtHr);
 
         // WOB component: (4 * WOB) / (π * D²)
-        BigDecimal wobNumerator = CONSTANT_4.multiply(wobLbs, MC);
-        BigDecimal wobDenominator = PI.multiply(dSquared, MC);
-        BigDecimal wobComponent = wobNumerator.divide(wobDenominator, MC);
+        double wobComponent = 4.0 * wobLbs / (Math.PI * dSquared);
+
+        return rotaryComponent + wobComponent;
+    }
 
-        return rotaryComponent.add(wobComponent, MC);
+    private double round(double value) {
+        double factor = Math.pow(10, config.getResultPrecision());
+        return Math.round(value * factor) / factor;
     }
 
-    private TbMsg updateMessage(TbMsg msg, ObjectNode body, BigDecimal result) {
-        body.put(config.getOutputField(), result.doubleValue());
+    private TbMsg updateMessage(TbMsg msg, ObjectNode body, double result) {
+        body.put(config.getOutputField(), result);
 
         TbMsg.TbMsgBuilder builder = msg.transform()
                 .data(JacksonUtil.toString(body));
 
         if (config.isAddToMetadata()) {
             var md = msg.getMetaData();
-            md.putValue(config.getOutputField(), result.toPlainString());
+            md.putValue(config.getOutputField(), Double.toString(result));
             builder.metaData(md);
         }
 
         return builder.build();
     }
 
-    private ListenableFuture<Void> saveToDatabase(TbContext ctx, TbMsg msg, BigDecimal result) {
+    private ListenableFuture<Void> saveToDatabase(TbContext ctx, TbMsg msg, double result) {
         if (config.isSaveAsAttribute()) {
             return saveAsAttribute(ctx, msg, result);
         } else if (config.isSaveAsTelemetry()) {
@@ -209,9 +246,9 @@ public class DrMseCalculationNode implements TbNode {
         return Futures.immediateFuture(null);
     }
 
-    private ListenableFuture<Void> saveAsAttribute(TbContext ctx, TbMsg msg, BigDecimal result) {
+    private ListenableFuture<Void> saveAsAttribute(TbContext ctx, TbMsg msg, double result) {
         AttributeScope scope = AttributeScope.valueOf(config.getAttributeScope());
-        DoubleDataEntry kvEntry = new DoubleDataEntry(config.getOutputField(), result.doubleValue());
+        DoubleDataEntry kvEntry = new DoubleDataEntry(config.getOutputField(), result);
 
         SettableFuture<Void> future = SettableFuture.create();
         ctx.getTelemetryService().saveAttributes(AttributesSaveRequest.builder()
@@ -224,10 +261,10 @@ public class DrMseCalculationNode implements TbNode {
         return future;
     }
 
-    private ListenableFuture<Void> saveAsTelemetry(TbContext ctx, TbMsg msg, BigDecimal result) {
+    private ListenableFuture<Void> saveAsTelemetry(TbContext ctx, TbMsg msg, double result) {
         BasicTsKvEntry tsEntry = new BasicTsKvEntry(
                 System.currentTimeMillis(),
-                new DoubleDataEntry(config.getOutputField(), result.doubleValue())
+                new DoubleDataEntry(config.getOutputField(), result)
         );
 
         SettableFuture<Void> future = SettableFuture.create();
@@ -240,7 +277,7 @@ public class DrMseCalculationNode implements TbNode {
         return future;
     }
 
-    private BigDecimal extractBigDecimal(ObjectNode body, String fieldName, String displayName) {
+    private double extractDouble(ObjectNode body, String fieldName, String displayName) {
         JsonNode node = body.get(fieldName);
         if (node == null || node.isNull()) {
             throw new RuntimeException(displayName + " field '" + fieldName + "' not found in message body");
@@ -248,11 +285,11 @@ public class DrMseCalculationNode implements TbNode {
         if (!node.isNumber()) {
             throw new RuntimeException(displayName + " field '" + fieldName + "' must be a number");
         }
-        return BigDecimal.valueOf(node.asDouble());
+        return node.asDouble();
     }
 
-    private void validatePositive(String name, BigDecimal value) {
-        if (value == null || value.compareTo(BigDecimal.ZERO) <= 0) {
+    private void validatePositive(String name, double value) {
+        if (!(value > 0)) {
             throw new RuntimeException(String.format("%s must be positive, got %s", name, value));
         }
     }
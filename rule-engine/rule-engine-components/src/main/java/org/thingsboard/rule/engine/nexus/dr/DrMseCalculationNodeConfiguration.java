@@ -31,6 +31,10 @@ public class DrMseCalculationNodeConfiguration implements NodeConfiguration<DrMs
     private String ropFtHrField;
     private String bitDiameterInField;
 
+    // Static inputs missing from the message are read once from the originator attributes
+    private boolean staticInputsFromAttributes;
+    private String contextAttributeScope;
+
     // Output configuration
     private String outputField;
     private boolean addToMetadata;
@@ -53,6 +57,8 @@ public class DrMseCalculationNodeConfiguration implements NodeConfiguration<DrMs
         config.setTorqueFtLbsField("torque");
         config.setRopFtHrField("rop");
         config.setBitDiameterInField("bitDiameter");
+        config.setStaticInputsFromAttributes(true);
+        config.setContextAttributeScope("SERVER_SCOPE");
         config.setOutputField("mse");
         config.setAddToMetadata(false);
         config.setSaveAsAttribute(false);
@@ -17,6 +17,8 @@ package org.thingsboard.rule.engine.nexus.dr;
 
 import com.fasterxml.jackson.databind.JsonNode;
 import com.fasterxml.jackson.databind.node.ObjectNode;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
 import com.google.common.util.concurrent.Futures;
 import com.google.common.util.concurrent.ListenableFuture;
 import com.google.common.util.concurrent.SettableFuture;
@@ -31,11 +33,17 @@ import org.thingsboard.rule.engine.api.TbNodeException;
 import org.thingsboard.rule.engine.api.TimeseriesSaveRequest;
 import org.thingsboard.rule.engine.api.util.TbNodeUtils;
 import org.thingsboard.server.common.data.AttributeScope;
+import org.thingsboard.server.common.data.id.EntityId;
 import org.thingsboard.server.common.data.kv.BasicTsKvEntry;
+import org.thingsboard.server.common.data.kv.LongDataEntry;
 import org.thingsboard.server.common.data.kv.StringDataEntry;
+import org.thingsboard.server.common.data.kv.TsKvEntry;
+import org.thingsboard.server.common.data.nexus.RigStateTransition;
 import org.thingsboard.server.common.data.plugin.ComponentType;
 import org.thingsboard.server.common.msg.TbMsg;
+import org.thingsboard.server.dao.nexus.RigActivityService;
 
+import java.time.Duration;
 import java.util.ArrayList;
 import java.util.List;
 
@@ -54,6 +62,16 @@ import java.util.List;
  * - IN_SLIPS: Pipe stationary in slips
  * - STATIC: No activity (idle)
  *
+ * Keeps a per-rig sliding window of block position / bit depth in primitive ring buffers to
+ * derive pipe velocity, applies hysteresis to every threshold and requires a candidate state to
+ * persist for a minimum dwell time before it is committed. When {@code emitTransitionsOnly} is
+ * enabled only state transitions are routed, carrying the previous state and its duration.
+ * With a window size of 0 or 1 (configurations saved before windowing existed) pipe movement
+ * still comes from the sign of ROP, as it always did.
+ *
+ * Windows are dropped after {@link #WINDOW_IDLE_EXPIRY} without samples and capped at
+ * {@link #MAX_TRACKED_RIGS} originators.
+ *
  * Routes message to the detected state for conditional processing.
  */
 @Slf4j
@@ -70,6 +88,8 @@ import java.util.List;
                 "- TRIPPING_IN/OUT: Pipe movement<br/>" +
                 "- CONNECTION: Making connection<br/>" +
                 "- IN_SLIPS/STATIC: Stationary<br/><br/>" +
+                "Thresholds use hysteresis and a new state must hold for a minimum dwell time. " +
+                "With 'emit transitions only' the node forwards state changes with previous state and duration.<br/><br/>" +
                 "Routes message to detected state name for activity-based processing.",
         configDirective = "tbActionNodeDrRigStateConfig",
         icon = "build",
@@ -79,14 +99,31 @@ import java.util.List;
 )
 public class DrRigStateDetectionNode implements TbNode {
 
+    static final Duration WINDOW_IDLE_EXPIRY = Duration.ofHours(1);
+    static final int MAX_TRACKED_RIGS = 10_000;
+    private static final double DEFAULT_TRIP_SPEED_FT_MIN = 10.0;
+    private static final double MS_PER_MIN = 60_000.0;
+
     private DrRigStateDetectionNodeConfiguration config;
+    private Cache<EntityId, RigWindow> windows;
 
     @Override
     public void init(TbContext ctx, TbNodeConfiguration configuration) throws TbNodeException {
         this.config = TbNodeUtils.convert(configuration, DrRigStateDetectionNodeConfiguration.class);
+        this.windows = Caffeine.newBuilder()
+                .expireAfterAccess(WINDOW_IDLE_EXPIRY)
+                .maximumSize(MAX_TRACKED_RIGS)
+                .build();
         log.info("DrRigStateDetectionNode initialized with config: {}", config);
     }
 
+    @Override
+    public void destroy() {
+        if (windows != null) {
+            windows.invalidateAll();
+        }
+    }
+
     @Override
     public void onMsg(TbContext ctx, TbMsg msg) {
         try {
@@ -100,18 +137,33 @@ public class DrRigStateDetectionNode implements TbNode {
 
             // Extract drilling parameters
             DrillingParameters params = extractParameters(body);
+            long ts = msg.getMetaDataTs();
 
-            // Detect rig state
-            RigState state = detectRigState(params);
+            // Detect rig state over the rig's window
+            RigWindow window = windows.get(msg.getOriginator(), id -> new RigWindow(windowSize()));
+            Transition transition;
+            synchronized (window) {
+                transition = window.update(ts, params);
+            }
+            RigState state = transition.state;
 
             log.debug("Rig state detected: {} for entity {}", state, msg.getOriginator());
 
+            if (transition.changed) {
+                publishTransition(ctx, msg, transition, params);
+            }
+
+            if (config.isEmitTransitionsOnly() && !transition.changed) {
+                ctx.ack(msg);
+                return;
+            }
+
             // Update message
-            TbMsg updatedMsg = updateMessage(msg, body, state);
+            TbMsg updatedMsg = updateMessage(msg, body, transition);
 
-            // Save and route
-            if (config.isSaveAsAttribute() || config.isSaveAsTelemetry()) {
-                ListenableFuture<Void> saveFuture = saveToDatabase(ctx, msg, state);
+            // Save and route; with transitions only, every save is a state change
+            if ((config.isSaveAsAttribute() || config.isSaveAsTelemetry()) && (transition.changed || !config.isEmitTransitionsOnly())) {
+                ListenableFuture<Void> saveFuture = saveToDatabase(ctx, msg, transition);
                 Futures.addCallback(saveFuture, new com.google.common.util.concurrent.FutureCallback<Void>() {
                     @Override
                     public void onSuccess(Void aVoid) {
@@ -133,6 +185,22 @@ public class DrRigStateDetectionNode implements TbNode {
         }
     }
 
+    /**
+     * Feed the activity KPI aggregates (connection times, trip speeds, NPT) with the committed transition.
+     */
+    private void publishTransition(TbContext ctx, TbMsg msg, Transition transition, DrillingParameters params) {
+        RigActivityService rigActivityService = ctx.getRigActivityService();
+        if (rigActivityService == null) {
+            return;
+        }
+        rigActivityService.onRigStateTransition(ctx.getTenantId(), msg.getOriginator(), new RigStateTransition(
+                transition.state.name(),
+                transition.since,
+                transition.previous != null ? transition.previous.name() : null,
+                transition.previous != null ? transition.previousDurationMs : null,
+                params.bitDepth));
+    }
+
     private DrillingParameters extractParameters(ObjectNode body) {
         return new DrillingParameters(
                 getOptionalDouble(body, config.getBitDepthFtField()),
@@ -148,127 +216,89 @@ public class DrRigStateDetectionNode implements TbNode {
         );
     }
 
-    private RigState detectRigState(DrillingParameters p) {
+    /**
+     * 0 disables the velocity window; configurations saved before it existed keep the ROP sign.
+     */
+    private int windowSize() {
+        return config.getWindowSize() > 1 ? config.getWindowSize() : 0;
+    }
+
+    /**
+     * Decision tree over the latched (hysteresis) conditions of a rig.
+     */
+    private RigState classify(RigWindow w, boolean hasDepth) {
         // Check if we have minimum required data
-        if (p.bitDepth == null && p.holeDepth == null) {
+        if (!hasDepth) {
             return RigState.STATIC;
         }
 
-        boolean isOnBottom = isOnBottom(p);
-        boolean isRotating = isRotating(p);
-        boolean isCirculating = isCirculating(p);
-        boolean hasWob = hasWeightOnBit(p);
-        boolean pipeMovingDown = isPipeMovingDown(p);
-        boolean pipeMovingUp = isPipeMovingUp(p);
-        boolean inSlips = isInSlips(p);
-
         // Decision tree for rig state
-        if (isOnBottom) {
-            if (isRotating && hasWob) {
+        if (w.onBottom) {
+            if (w.rotating && w.weightOnBit) {
                 return RigState.DRILLING_ROTATING;
             }
-            if (!isRotating && hasWob && isCirculating) {
+            if (!w.rotating && w.weightOnBit && w.circulating) {
                 return RigState.DRILLING_SLIDING;
             }
-            if (isCirculating && !hasWob) {
+            if (w.circulating && !w.weightOnBit) {
                 return RigState.CIRCULATING;
             }
         }
 
         // Not on bottom
-        if (pipeMovingDown) {
-            if (isRotating) {
-                return RigState.REAMING;
-            }
-            return RigState.TRIPPING_IN;
+        if (w.movingDown) {
+            return w.rotating ? RigState.REAMING : RigState.TRIPPING_IN;
         }
-
-        if (pipeMovingUp) {
-            if (isRotating) {
-                return RigState.BACK_REAMING;
-            }
-            return RigState.TRIPPING_OUT;
+        if (w.movingUp) {
+            return w.rotating ? RigState.BACK_REAMING : RigState.TRIPPING_OUT;
         }
 
         // Pipe stationary
-        if (inSlips) {
-            if (isCirculating) {
-                return RigState.CONNECTION;
-            }
-            return RigState.IN_SLIPS;
+        if (w.inSlips) {
+            return w.circulating ? RigState.CONNECTION : RigState.IN_SLIPS;
         }
 
         // Circulating off bottom
-        if (isCirculating && !isOnBottom) {
+        if (w.circulating) {
             return RigState.CIRCULATING;
         }
 
         return RigState.STATIC;
     }
 
-    private boolean isOnBottom(DrillingParameters p) {
-        if (p.bitDepth != null && p.holeDepth != null) {
-            return (p.holeDepth - p.bitDepth) <= config.getOnBottomThresholdFt();
-        }
-        return false;
-    }
-
-    private boolean isRotating(DrillingParameters p) {
-        if (p.rpm != null) {
-            return p.rpm >= config.getMinRpmForRotating();
-        }
-        return false;
-    }
-
-    private boolean isCirculating(DrillingParameters p) {
-        if (p.flowRate != null) {
-            return p.flowRate >= config.getMinFlowForCirculating();
-        }
-        if (p.spp != null) {
-            return p.spp > 100; // Some pressure indicates pumps on
-        }
-        return false;
-    }
-
-    private boolean hasWeightOnBit(DrillingParameters p) {
-        if (p.wob != null) {
-            return p.wob >= config.getMinWobForDrilling();
-        }
-        return false;
-    }
-
-    private boolean isPipeMovingDown(DrillingParameters p) {
-        // Would typically compare current vs previous block position
-        // For now, use ROP as proxy
-        if (p.rop != null && p.rop > 0) {
-            return true;
-        }
-        return false;
-    }
-
-    private boolean isPipeMovingUp(DrillingParameters p) {
-        // Would typically compare current vs previous block position
-        // Negative ROP would indicate pulling out
-        if (p.rop != null && p.rop < 0) {
-            return true;
+    /**
+     * Schmitt trigger on a "value >= threshold" condition: once on, it stays on until the value
+     * drops below threshold * (1 - hysteresis).
+     */
+    private boolean latchAbove(boolean current, Double value, double threshold) {
+        if (value == null) {
+            return false;
         }
-        return false;
+        return current ? value >= threshold * (1.0 - config.getHysteresisFraction()) : value >= threshold;
     }
 
-    private boolean isInSlips(DrillingParameters p) {
-        if (p.blockPosition != null) {
-            return p.blockPosition <= config.getSlipPositionThresholdFt();
+    /**
+     * Schmitt trigger on a "value <= threshold" condition.
+     */
+    private boolean latchBelow(boolean current, Double value, double threshold) {
+        if (value == null) {
+            return false;
         }
-        return false;
+        return current ? value <= threshold * (1.0 + config.getHysteresisFraction()) : value <= threshold;
     }
 
-    private TbMsg updateMessage(TbMsg msg, ObjectNode body, RigState state) {
+    private TbMsg updateMessage(TbMsg msg, ObjectNode body, Transition transition) {
+        RigState state = transition.state;
         body.put(config.getOutputRigStateField(), state.name());
         body.put(config.getOutputRigStateCodeField(), state.getCode());
         body.put(config.getOutputActivityField(), state.getActivity());
 
         if (config.isTrackStateChanges()) {
-            body.put(config.getStateChangeTimeField(), System.currentTimeMillis());
+            body.put(config.getStateChangeTimeField(), transition.since);
+            if (transition.previous != null && config.getPreviousRigStateField() != null) {
+                body.put(config.getPreviousRigStateField(), transition.previous.name());
+                body.put(config.getPreviousStateDurationMsField(), transition.previousDurationMs);
+            }
         }
 
         TbMsg.TbMsgBuilder builder = msg.transform()
@@ -284,14 +314,14 @@ public class DrRigStateDetectionNode implements TbNode {
         return builder.build();
     }
 
-    private ListenableFuture<Void> saveToDatabase(TbContext ctx, TbMsg msg, RigState state) {
+    private ListenableFuture<Void> saveToDatabase(TbContext ctx, TbMsg msg, Transition transition) {
         List<ListenableFuture<Void>> futures = new ArrayList<>();
 
         if (config.isSaveAsAttribute()) {
-            futures.add(saveAsAttribute(ctx, msg, state));
+            futures.add(saveAsAttribute(ctx, msg, transition.state));
         }
         if (config.isSaveAsTelemetry()) {
-            futures.add(saveAsTelemetry(ctx, msg, state));
+            futures.add(saveAsTelemetry(ctx, msg, transition));
         }
 
         return Futures.transform(Futures.allAsList(futures), list -> null, ctx.getDbCallbackExecutor());
@@ -311,14 +341,22 @@ public class DrRigStateDetectionNode implements TbNode {
         return future;
     }
 
-    private ListenableFuture<Void> saveAsTelemetry(TbContext ctx, TbMsg msg, RigState state) {
-        long ts = System.currentTimeMillis();
+    private ListenableFuture<Void> saveAsTelemetry(TbContext ctx, TbMsg msg, Transition transition) {
+        // A transition is stamped with the start of the new state so the series is a clean list of
+        // transitions; per-sample saves keep the sample time so they do not overwrite each other
+        long ts = transition.changed ? transition.since : msg.getMetaDataTs();
+        List<TsKvEntry> entries = new ArrayList<>(3);
+        entries.add(new BasicTsKvEntry(ts, new StringDataEntry(config.getOutputRigStateField(), transition.state.name())));
+        if (transition.changed && transition.previous != null && config.getPreviousRigStateField() != null) {
+            entries.add(new BasicTsKvEntry(ts, new StringDataEntry(config.getPreviousRigStateField(), transition.previous.name())));
+            entries.add(new BasicTsKvEntry(ts, new LongDataEntry(config.getPreviousStateDurationMsField(), transition.previousDurationMs)));
+        }
 
         SettableFuture<Void> future = SettableFuture.create();
         ctx.getTelemetryService().saveTimeseries(TimeseriesSaveRequest.builder()
                 .tenantId(ctx.getTenantId())
                 .entityId(msg.getOriginator())
-                .entry(new BasicTsKvEntry(ts, new StringDataEntry(config.getOutputRigStateField(), state.name())))
+                .entries(entries)
                 .future(future)
                 .build());
         return future;
@@ -335,6 +373,169 @@ public class DrRigStateDetectionNode implements TbNode {
         return node.asDouble();
     }
 
+    /**
+     * Result of feeding one sample into a rig window.
+     */
+    private static final class Transition {
+        final RigState state;
+        final long since;
+        final boolean changed;
+        final RigState previous;
+        final long previousDurationMs;
+
+        Transition(RigState state, long since, boolean changed, RigState previous, long previousDurationMs) {
+            this.state = state;
+            this.since = since;
+            this.changed = changed;
+            this.previous = previous;
+            this.previousDurationMs = previousDurationMs;
+        }
+    }
+
+    /**
+     * Per-rig sliding window. Samples live in fixed-size primitive ring buffers; pipe velocity is
+     * the least-squares slope of bit depth (or block position) over the window.
+     */
+    private final class RigWindow {
+        private final long[] ts;
+        private final double[] depth;
+        private int head;
+        private int size;
+        private boolean depthFromBlock;
+
+        // Latched conditions
+        boolean onBottom;
+        boolean rotating;
+        boolean circulating;
+        boolean weightOnBit;
+        boolean movingDown;
+        boolean movingUp;
+        boolean inSlips;
+
+        private RigState committed;
+        private long committedSince;
+        private RigState candidate;
+        private long candidateSince;
+
+        RigWindow(int capacity) {
+            this.ts = new long[capacity];
+            this.depth = new double[capacity];
+        }
+
+        Transition update(long now, DrillingParameters p) {
+            push(now, p);
+
+            Double offBottom = p.bitDepth != null && p.holeDepth != null ? p.holeDepth - p.bitDepth : null;
+            onBottom = latchBelow(onBottom, offBottom, config.getOnBottomThresholdFt());
+            rotating = latchAbove(rotating, p.rpm, config.getMinRpmForRotating());
+            circulating = p.flowRate != null
+                    ? latchAbove(circulating, p.flowRate, config.getMinFlowForCirculating())
+                    : latchAbove(circulating, p.spp, 100.0); // Some pressure indicates pumps on
+            weightOnBit = latchAbove(weightOnBit, p.wob, config.getMinWobForDrilling());
+            inSlips = latchBelow(inSlips, p.blockPosition, config.getSlipPositionThresholdFt());
+
+            double velocity = velocityFtMin();
+            if (Double.isNaN(velocity)) {
+                // No window or not enough history: fall back to the sign of ROP
+                movingDown = p.rop != null && p.rop > 0;
+                movingUp = p.rop != null && p.rop < 0;
+            } else {
+                double tripSpeed = config.getTripSpeedThresholdFtMin() > 0 ? config.getTripSpeedThresholdFtMin() : DEFAULT_TRIP_SPEED_FT_MIN;
+                movingDown = latchAbove(movingDown, velocity, tripSpeed);
+                movingUp = latchAbove(movingUp, -velocity, tripSpeed);
+            }
+
+            RigState detected = classify(this, p.bitDepth != null || p.holeDepth != null);
+            return commit(detected, now);
+        }
+
+        /**
+         * Minimum dwell: a new state must be observed continuously for minStateDurationMs before it replaces the committed one.
+         */
+        private Transition commit(RigState detected, long now) {
+            if (committed == null) {
+                committed = detected;
+                committedSince = now;
+                return new Transition(detected, now, true, null, 0L);
+            }
+            if (detected == committed) {
+                candidate = null;
+                return new Transition(committed, committedSince, false, null, 0L);
+            }
+            if (detected != candidate) {
+                candidate = detected;
+                candidateSince = now;
+            }
+            if (now - candidateSince < config.getMinStateDurationMs()) {
+                return new Transition(committed, committedSince, false, null, 0L);
+            }
+            RigState previous = committed;
+            long previousDuration = candidateSince - committedSince;
+            committed = candidate;
+            committedSince = candidateSince;
+            candidate = null;
+            return new Transition(committed, committedSince, true, previous, previousDuration);
+        }
+
+        private void push(long now, DrillingParameters p) {
+            double value;
+            boolean fromBlock;
+            if (p.bitDepth != null) {
+                value = p.bitDepth;
+                fromBlock = false;
+            } else if (p.blockPosition != null) {
+                // Block moving down = pipe going in hole
+                value = -p.blockPosition;
+                fromBlock = true;
+            } else {
+                return;
+            }
+            if (ts.length == 0) {
+                return;
+            }
+            if (size > 0 && fromBlock != depthFromBlock) {
+                size = 0;
+            }
+            depthFromBlock = fromBlock;
+            if (size > 0 && now <= ts[(head - 1 + ts.length) % ts.length]) {
+                return;
+            }
+            ts[head] = now;
+            depth[head] = value;
+            head = (head + 1) % ts.length;
+            if (size < ts.length) {
+                size++;
+            }
+        }
+
+        /**
+         * Least-squares slope of depth versus time (ft/min), NaN with fewer than 3 samples.
+         */
+        private double velocityFtMin() {
+            if (size < 3) {
+                return Double.NaN;
+            }
+            int start = (head - size + ts.length) % ts.length;
+            long t0 = ts[start];
+            double sumT = 0;
+            double sumD = 0;
+            for (int k = 0, i = start; k < size; k++, i = (i + 1) % ts.length) {
+                sumT += (ts[i] - t0) / MS_PER_MIN;
+                sumD += depth[i];
+            }
+            double meanT = sumT / size;
+            double meanD = sumD / size;
+            double sxx = 0;
+            double sxy = 0;
+            for (int k = 0, i = start; k < size; k++, i = (i + 1) % ts.length) {
+                double dt = (ts[i] - t0) / MS_PER_MIN - meanT;
+                sxx += dt * dt;
+                sxy += dt * (depth[i] - meanD);
+            }
+            return sxx > 0 ? sxy / sxx : Double.NaN;
+        }
+    }
+
     private enum RigState {
         DRILLING_ROTATING(1, "Drilling"),
         DRILLING_SLIDING(2, "Drilling"),
@@ -58,6 +58,14 @@ public class DrRigStateDetectionNodeConfiguration implements NodeConfiguration<D
     // State change tracking
     private boolean trackStateChanges;
     private String stateChangeTimeField;
+    private String previousRigStateField;
+    private String previousStateDurationMsField;
+
+    // Windowed detection
+    private int windowSize;
+    private double hysteresisFraction;
+    private long minStateDurationMs;
+    private boolean emitTransitionsOnly;
 
     @Override
     public DrRigStateDetectionNodeConfiguration defaultConfiguration() {
@@ -91,6 +99,13 @@ public class DrRigStateDetectionNodeConfiguration implements NodeConfiguration<D
 
         config.setTrackStateChanges(true);
         config.setStateChangeTimeField("stateChangeTime");
+        config.setPreviousRigStateField("previousRigState");
+        config.setPreviousStateDurationMsField("previousStateDurationMs");
+
+        config.setWindowSize(30);
+        config.setHysteresisFraction(0.2);
+        config.setMinStateDurationMs(5000L);
+        config.setEmitTransitionsOnly(true);
         return config;
     }
 }
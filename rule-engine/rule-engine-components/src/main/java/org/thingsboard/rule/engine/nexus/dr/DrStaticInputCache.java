@@ -0,0 +1,87 @@
+/**
+ * Copyright © 2016-2026 The Thingsboard Authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.thingsboard.rule.engine.nexus.dr;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.google.common.util.concurrent.Futures;
+import com.google.common.util.concurrent.ListenableFuture;
+import org.thingsboard.rule.engine.api.TbContext;
+import org.thingsboard.server.common.data.AttributeScope;
+import org.thingsboard.server.common.data.id.EntityId;
+import org.thingsboard.server.common.data.kv.AttributeKvEntry;
+
+import java.time.Duration;
+import java.util.Optional;
+
+/**
+ * Per-originator cache of a static calculation input (bit diameter, mud weight, ...) that changes
+ * far less often than the sensor channels it is combined with.
+ *
+ * A value in the message always wins and refreshes the cache; otherwise the cached value is used,
+ * and on a cold cache it is read from the originator's attributes. Cached values expire
+ * {@link #VALUE_TTL} after they were last read from a message or the attributes, so an
+ * attribute update is picked up within that time.
+ */
+final class DrStaticInputCache {
+
+    static final Duration VALUE_TTL = Duration.ofMinutes(5);
+    private static final int MAX_ORIGINATORS = 10_000;
+
+    private final Cache<EntityId, Double> values = Caffeine.newBuilder()
+            .expireAfterWrite(VALUE_TTL)
+            .maximumSize(MAX_ORIGINATORS)
+            .build();
+
+    /**
+     * Value from the message body (cached for later messages) or the cached value, null if neither.
+     */
+    Double resolve(EntityId originator, ObjectNode body, String field, String displayName) {
+        JsonNode node = body.get(field);
+        if (node != null && !node.isNull()) {
+            if (!node.isNumber()) {
+                throw new RuntimeException(displayName + " field '" + field + "' must be a number");
+            }
+            double value = node.asDouble();
+            values.put(originator, value);
+            return value;
+        }
+        return values.getIfPresent(originator);
+    }
+
+    /**
+     * Read the value from the originator's attributes; resolves to null when the attribute is missing.
+     */
+    ListenableFuture<Double> load(TbContext ctx, EntityId originator, AttributeScope scope, String key) {
+        ListenableFuture<Optional<AttributeKvEntry>> future = ctx.getAttributesService()
+                .find(ctx.getTenantId(), originator, scope, key);
+        return Futures.transform(future, entry -> {
+            Double value = entry
+                    .flatMap(e -> e.getDoubleValue().or(() -> e.getLongValue().map(Long::doubleValue)))
+                    .orElse(null);
+            if (value != null) {
+                values.put(originator, value);
+            }
+            return value;
+        }, ctx.getDbCallbackExecutor());
+    }
+
+    void clear() {
+        values.invalidateAll();
+    }
+}
@@ -16,7 +16,9 @@
 package org.thingsboard.rule.engine.nexus.dr;
 
 import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.node.ArrayNode;
 import com.fasterxml.jackson.databind.node.ObjectNode;
+import com.google.common.util.concurrent.FutureCallback;
 import com.google.common.util.concurrent.Futures;
 import com.google.common.util.concurrent.ListenableFuture;
 import com.google.common.util.concurrent.SettableFuture;
@@ -31,6 +33,7 @@ import org.thingsboard.rule.engine.api.TbNodeException;
 import org.thingsboard.rule.engine.api.TimeseriesSaveRequest;
 import org.thingsboard.rule.engine.api.util.TbNodeUtils;
 import org.thingsboard.server.common.data.AttributeScope;
+import org.thingsboard.server.common.data.id.EntityId;
 import org.thingsboard.server.common.data.kv.AttributeKvEntry;
 import org.thingsboard.server.common.data.kv.BaseAttributeKvEntry;
 import org.thingsboard.server.common.data.kv.BasicTsKvEntry;
@@ -40,10 +43,15 @@ import org.thingsboard.server.common.data.plugin.ComponentType;
 import org.thingsboard.server.common.msg.TbMsg;
 
 import java.math.BigDecimal;
-import java.math.MathContext;
 import java.math.RoundingMode;
 import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
 
 /**
  * Rule Engine node for processing directional survey data using Minimum Curvature Method.
@@ -58,6 +66,11 @@ import java.util.List;
  * The Minimum Curvature Method assumes the wellbore follows the smoothest possible
  * path between two survey stations. It uses a ratio factor (RF) to account for wellbore curvature.
  *
+ * The node keeps the definitive stations of every wellbore (originator) in a node-local trajectory,
+ * seeded on a cache miss from the last survey station attributes ({@code lastSurvey*}) that it
+ * persists itself. Surveys arriving out of order or correcting an existing depth re-chain only the
+ * stations below them. Previous station fields present in the message body still take precedence.
+ *
  * Output routes:
  * - "Success" for normal surveys
  * - "High DLS" when DLS exceeds threshold (indicates high curvature stress)
@@ -74,6 +87,9 @@ import java.util.List;
                 "- Dog Leg Severity (DLS)<br/>" +
                 "- Vertical Section<br/>" +
                 "- Closure Distance and Direction<br/><br/>" +
+                "Chains each survey to the previous definitive station of the originator, kept in memory and " +
+                "persisted as 'last survey' attributes. Out-of-order or corrected surveys re-chain the stations " +
+                "below them and are listed in the re-chained stations field.<br/><br/>" +
                 "Routes to 'High DLS' when dogleg severity exceeds threshold.",
         configDirective = "tbActionNodeDrSurveyConfig",
         icon = "explore",
@@ -82,10 +98,11 @@ import java.util.List;
 )
 public class DrSurveyProcessingNode implements TbNode {
 
-    private static final MathContext MC = new MathContext(15, RoundingMode.HALF_UP);
-    private static final BigDecimal HUNDRED = new BigDecimal("100");
+    private static final int DEFAULT_MAX_CACHED_STATIONS = 1000;
+    private static final double MD_TOLERANCE_FT = 0.001;
 
     private DrSurveyProcessingNodeConfiguration config;
+    private final Map<EntityId, Trajectory> trajectories = new ConcurrentHashMap<>();
 
     @Override
     public void init(TbContext ctx, TbNodeConfiguration configuration) throws TbNodeException {
@@ -93,6 +110,11 @@ public class DrSurveyProcessingNode implements TbNode {
         log.info("DrSurveyProcessingNode initialized with config: {}", config);
     }
 
+    @Override
+    public void destroy() {
+        trajectories.clear();
+    }
+
     @Override
     public void onMsg(TbContext ctx, TbMsg msg) {
         try {
@@ -103,58 +125,32 @@ public class DrSurveyProcessingNode implements TbNode {
             }
 
             ObjectNode body = (ObjectNode) jsonNode;
+            EntityId wellboreId = msg.getOriginator();
 
             // Extract current survey
-            BigDecimal mdFt = extractBigDecimal(body, config.getMdFtField(), "MD");
-            BigDecimal incDeg = extractBigDecimal(body, config.getInclinationDegField(), "Inclination");
-            BigDecimal azDeg = extractBigDecimal(body, config.getAzimuthDegField(), "Azimuth");
-
-            // Extract previous survey
-            BigDecimal prevMdFt = getOptionalBigDecimal(body, config.getPrevMdFtField());
-            BigDecimal prevIncDeg = getOptionalBigDecimal(body, config.getPrevInclinationDegField());
-            BigDecimal prevAzDeg = getOptionalBigDecimal(body, config.getPrevAzimuthDegField());
-            BigDecimal prevTvdFt = getOptionalBigDecimal(body, config.getPrevTvdFtField());
-            BigDecimal prevNorthingFt = getOptionalBigDecimal(body, config.getPrevNorthingFtField());
-            BigDecimal prevEastingFt = getOptionalBigDecimal(body, config.getPrevEastingFtField());
-
-            SurveyResult result;
-
-            // If no previous survey, this is tie-in point (surface location)
-            if (prevMdFt == null || prevTvdFt == null) {
-                result = calculateTieInSurvey(mdFt, incDeg, azDeg);
-            } else {
-                result = calculateMinimumCurvature(
-                        prevMdFt, prevIncDeg, prevAzDeg, prevTvdFt, prevNorthingFt, prevEastingFt,
-                        mdFt, incDeg, azDeg
-                );
+            double mdFt = extractDouble(body, config.getMdFtField(), "MD");
+            double incDeg = extractDouble(body, config.getInclinationDegField(), "Inclination");
+            double azDeg = extractDouble(body, config.getAzimuthDegField(), "Azimuth");
+            boolean definitive = isDefinitive(body);
+            Survey survey = new Survey(mdFt, incDeg, azDeg, definitive);
+
+            // An explicit previous station in the body anchors a fresh trajectory (legacy flows)
+            Station previous = extractPreviousStation(body);
+            if (previous != null) {
+                Trajectory anchored = new Trajectory(maxCachedStations());
+                anchored.seed(previous);
+                process(ctx, msg, body, wellboreId, anchored, survey, true);
+                return;
             }
 
-            log.debug("Survey processed: TVD={}, N={}, E={}, DLS={} for entity {}",
-                    result.tvdFt, result.northingFt, result.eastingFt, result.dlsDegPer100ft, msg.getOriginator());
-
-            // Update message
-            TbMsg updatedMsg = updateMessage(msg, body, result);
-
-            // Determine if DLS is high
-            boolean isHighDls = config.isEnableDlsAlert() &&
-                    result.dlsDegPer100ft.doubleValue() > config.getDlsThresholdDegPer100ft();
-
-            // Save and route
-            if (config.isSaveAsAttribute() || config.isSaveAsTelemetry()) {
-                ListenableFuture<Void> saveFuture = saveToDatabase(ctx, msg, result);
-                Futures.addCallback(saveFuture, new com.google.common.util.concurrent.FutureCallback<Void>() {
-                    @Override
-                    public void onSuccess(Void aVoid) {
-                        routeMessage(ctx, updatedMsg, isHighDls);
-                    }
-
-                    @Override
-                    public void onFailure(Throwable t) {
-                        ctx.tellFailure(msg, new RuntimeException("Failed to save survey result", t));
-                    }
-                }, ctx.getDbCallbackExecutor());
+            Trajectory trajectory = trajectories.get(wellboreId);
+            if (trajectory != null) {
+                process(ctx, msg, body, wellboreId, trajectory, survey, false);
+            } else if (!config.isUsePreviousSurveyFromAttributes()) {
+                trajectory = trajectories.computeIfAbsent(wellboreId, id -> new Trajectory(maxCachedStations()));
+                process(ctx, msg, body, wellboreId, trajectory, survey, false);
             } else {
-                routeMessage(ctx, updatedMsg, isHighDls);
+                loadAndProcess(ctx, msg, body, wellboreId, survey);
             }
 
         } catch (Exception e) {
@@ -163,104 +159,78 @@ public class DrSurveyProcessingNode implements TbNode {
         }
     }
 
-    private SurveyResult calculateTieInSurvey(BigDecimal mdFt, BigDecimal incDeg, BigDecimal azDeg) {
-        // For tie-in point, assume vertical from surface
-        // TVD = MD * cos(Inc)
-        double incRad = Math.toRadians(incDeg.doubleValue());
-        BigDecimal tvdFt = mdFt.multiply(BigDecimal.valueOf(Math.cos(incRad)), MC);
-
-        return new SurveyResult(
-                tvdFt.setScale(config.getResultPrecision(), RoundingMode.HALF_UP),
-                BigDecimal.ZERO,
-                BigDecimal.ZERO,
-                BigDecimal.ZERO,
-                BigDecimal.ZERO,
-                BigDecimal.ZERO,
-                BigDecimal.ZERO
-        );
+    /**
+     * Seeds the wellbore trajectory from the persisted last survey station and processes the survey.
+     */
+    private void loadAndProcess(TbContext ctx, TbMsg msg, ObjectNode body, EntityId wellboreId, Survey survey) {
+        AttributeScope scope = AttributeScope.valueOf(config.getAttributeScope());
+        ListenableFuture<List<AttributeKvEntry>> future = ctx.getAttributesService()
+                .find(ctx.getTenantId(), wellboreId, scope, stationKeys());
+        Futures.addCallback(future, new FutureCallback<>() {
+            @Override
+            public void onSuccess(List<AttributeKvEntry> entries) {
+                try {
+                    Trajectory trajectory = trajectories.computeIfAbsent(wellboreId, id -> {
+                        Trajectory loaded = new Trajectory(maxCachedStations());
+                        Station last = toStation(entries);
+                        if (last != null) {
+                            loaded.seed(last);
+                        }
+                        return loaded;
+                    });
+                    process(ctx, msg, body, wellboreId, trajectory, survey, false);
+                } catch (Exception e) {
+                    log.error("Error processing survey: {}", e.getMessage(), e);
+                    ctx.tellFailure(msg, e);
+                }
+            }
+
+            @Override
+            public void onFailure(Throwable t) {
+                ctx.tellFailure(msg, new RuntimeException("Failed to load last survey station", t));
+            }
+        }, ctx.getDbCallbackExecutor());
     }
 
-    private SurveyResult calculateMinimumCurvature(
-            BigDecimal prevMdFt, BigDecimal prevIncDeg, BigDecimal prevAzDeg,
-            BigDecimal prevTvdFt, BigDecimal prevNorthingFt, BigDecimal prevEastingFt,
-            BigDecimal mdFt, BigDecimal incDeg, BigDecimal azDeg) {
-
-        // Convert to radians
-        double inc1Rad = Math.toRadians(prevIncDeg.doubleValue());
-        double az1Rad = Math.toRadians(prevAzDeg.doubleValue());
-        double inc2Rad = Math.toRadians(incDeg.doubleValue());
-        double az2Rad = Math.toRadians(azDeg.doubleValue());
-
-        // Course length
-        BigDecimal courseLength = mdFt.subtract(prevMdFt, MC);
-
-        // Calculate dogleg angle (radians)
-        double cosInc1 = Math.cos(inc1Rad);
-        double sinInc1 = Math.sin(inc1Rad);
-        double cosInc2 = Math.cos(inc2Rad);
-        double sinInc2 = Math.sin(inc2Rad);
-        double cosAzDiff = Math.cos(az2Rad - az1Rad);
-
-        double cosDogleg = cosInc1 * cosInc2 + sinInc1 * sinInc2 * cosAzDiff;
-        // Clamp to [-1, 1] to avoid NaN from acos
-        cosDogleg = Math.max(-1.0, Math.min(1.0, cosDogleg));
-        double doglegRad = Math.acos(cosDogleg);
-
-        // Ratio Factor (RF) for minimum curvature
-        double rf;
-        if (doglegRad < 0.0001) {
-            rf = 1.0; // Nearly straight section
-        } else {
-            rf = 2.0 / doglegRad * Math.tan(doglegRad / 2.0);
+    private void process(TbContext ctx, TbMsg msg, ObjectNode body, EntityId wellboreId,
+                         Trajectory trajectory, Survey survey, boolean replaceCached) {
+        ChainResult result;
+        synchronized (trajectory) {
+            result = trajectory.chain(survey);
         }
-
-        // Calculate increments
-        double halfCourse = courseLength.doubleValue() / 2.0;
-
-        double deltaTvd = halfCourse * rf * (cosInc1 + cosInc2);
-        double deltaNorthing = halfCourse * rf * (sinInc1 * Math.cos(az1Rad) + sinInc2 * Math.cos(az2Rad));
-        double deltaEasting = halfCourse * rf * (sinInc1 * Math.sin(az1Rad) + sinInc2 * Math.sin(az2Rad));
-
-        // Calculate new position
-        BigDecimal tvdFt = prevTvdFt.add(BigDecimal.valueOf(deltaTvd), MC);
-        BigDecimal northingFt = (prevNorthingFt != null ? prevNorthingFt : BigDecimal.ZERO)
-                .add(BigDecimal.valueOf(deltaNorthing), MC);
-        BigDecimal eastingFt = (prevEastingFt != null ? prevEastingFt : BigDecimal.ZERO)
-                .add(BigDecimal.valueOf(deltaEasting), MC);
-
-        // Calculate DLS (degrees per 100 ft)
-        double doglegDeg = Math.toDegrees(doglegRad);
-        BigDecimal dlsDegPer100ft = BigDecimal.ZERO;
-        if (courseLength.compareTo(BigDecimal.ZERO) > 0) {
-            dlsDegPer100ft = BigDecimal.valueOf(doglegDeg)
-                    .multiply(HUNDRED, MC)
-                    .divide(courseLength, MC);
+        if (replaceCached && survey.definitive) {
+            trajectories.put(wellboreId, trajectory);
         }
 
-        // Calculate vertical section
-        double vsAzRad = Math.toRadians(config.getVerticalSectionAzimuthDeg());
-        double verticalSection = northingFt.doubleValue() * Math.cos(vsAzRad)
-                + eastingFt.doubleValue() * Math.sin(vsAzRad);
-
-        // Calculate closure
-        double closureDistance = Math.sqrt(
-                northingFt.doubleValue() * northingFt.doubleValue() +
-                        eastingFt.doubleValue() * eastingFt.doubleValue()
-        );
-        double closureDirection = Math.toDegrees(Math.atan2(eastingFt.doubleValue(), northingFt.doubleValue()));
-        if (closureDirection < 0) {
-            closureDirection += 360;
+        log.debug("Survey processed: TVD={}, N={}, E={}, DLS={}, re-chained={} for entity {}",
+                result.station.tvdFt, result.station.northingFt, result.station.eastingFt,
+                result.station.dlsDegPer100ft, result.rechained.size(), wellboreId);
+
+        // Update message
+        TbMsg updatedMsg = updateMessage(msg, body, result);
+
+        // Determine if DLS is high
+        boolean isHighDls = config.isEnableDlsAlert() &&
+                result.station.dlsDegPer100ft > config.getDlsThresholdDegPer100ft();
+
+        // Save and route
+        boolean persistStation = config.isUsePreviousSurveyFromAttributes() && survey.definitive;
+        if (config.isSaveAsAttribute() || config.isSaveAsTelemetry() || persistStation) {
+            ListenableFuture<Void> saveFuture = saveToDatabase(ctx, msg, result, persistStation);
+            Futures.addCallback(saveFuture, new FutureCallback<Void>() {
+                @Override
+                public void onSuccess(Void aVoid) {
+                    routeMessage(ctx, updatedMsg, isHighDls);
+                }
+
+                @Override
+                public void onFailure(Throwable t) {
+                    ctx.tellFailure(msg, new RuntimeException("Failed to save survey result", t));
+                }
+            }, ctx.getDbCallbackExecutor());
+        } else {
+            routeMessage(ctx, updatedMsg, isHighDls);
         }
-
-        return new SurveyResult(
-                tvdFt.setScale(config.getResultPrecision(), RoundingMode.HALF_UP),
-                northingFt.setScale(config.getResultPrecision(), RoundingMode.HALF_UP),
-                eastingFt.setScale(config.getResultPrecision(), RoundingMode.HALF_UP),
-                dlsDegPer100ft.setScale(config.getResultPrecision(), RoundingMode.HALF_UP),
-                BigDecimal.valueOf(verticalSection).setScale(config.getResultPrecision(), RoundingMode.HALF_UP),
-                BigDecimal.valueOf(closureDistance).setScale(config.getResultPrecision(), RoundingMode.HALF_UP),
-                BigDecimal.valueOf(closureDirection).setScale(config.getResultPrecision(), RoundingMode.HALF_UP)
-        );
     }
 
     private void routeMessage(TbContext ctx, TbMsg msg, boolean isHighDls) {
@@ -271,33 +241,47 @@ public class DrSurveyProcessingNode implements TbNode {
         }
     }
 
-    private TbMsg updateMessage(TbMsg msg, ObjectNode body, SurveyResult result) {
-        body.put(config.getOutputTvdFtField(), result.tvdFt.doubleValue());
-        body.put(config.getOutputNorthingFtField(), result.northingFt.doubleValue());
-        body.put(config.getOutputEastingFtField(), result.eastingFt.doubleValue());
-        body.put(config.getOutputDlsDegPer100ftField(), result.dlsDegPer100ft.doubleValue());
-        body.put(config.getOutputVerticalSectionFtField(), result.verticalSectionFt.doubleValue());
-        body.put(config.getOutputClosureDistanceFtField(), result.closureDistanceFt.doubleValue());
-        body.put(config.getOutputClosureDirectionDegField(), result.closureDirectionDeg.doubleValue());
+    private TbMsg updateMessage(TbMsg msg, ObjectNode body, ChainResult result) {
+        Station s = result.station;
+        body.put(config.getOutputTvdFtField(), round(s.tvdFt));
+        body.put(config.getOutputNorthingFtField(), round(s.northingFt));
+        body.put(config.getOutputEastingFtField(), round(s.eastingFt));
+        body.put(config.getOutputDlsDegPer100ftField(), round(s.dlsDegPer100ft));
+        body.put(config.getOutputVerticalSectionFtField(), round(verticalSection(s)));
+        body.put(config.getOutputClosureDistanceFtField(), round(closureDistance(s)));
+        body.put(config.getOutputClosureDirectionDegField(), round(closureDirection(s)));
+
+        String rechainedField = config.getOutputRechainedStationsField();
+        if (!result.rechained.isEmpty() && rechainedField != null && !rechainedField.isEmpty()) {
+            ArrayNode stations = body.putArray(rechainedField);
+            for (Station r : result.rechained) {
+                ObjectNode node = stations.addObject();
+                node.put(config.getMdFtField(), r.mdFt);
+                node.put(config.getOutputTvdFtField(), round(r.tvdFt));
+                node.put(config.getOutputNorthingFtField(), round(r.northingFt));
+                node.put(config.getOutputEastingFtField(), round(r.eastingFt));
+                node.put(config.getOutputDlsDegPer100ftField(), round(r.dlsDegPer100ft));
+            }
+        }
 
         TbMsg.TbMsgBuilder builder = msg.transform()
                 .data(JacksonUtil.toString(body));
 
         if (config.isAddToMetadata()) {
             var md = msg.getMetaData();
-            md.putValue(config.getOutputTvdFtField(), result.tvdFt.toPlainString());
-            md.putValue(config.getOutputDlsDegPer100ftField(), result.dlsDegPer100ft.toPlainString());
+            md.putValue(config.getOutputTvdFtField(), format(s.tvdFt));
+            md.putValue(config.getOutputDlsDegPer100ftField(), format(s.dlsDegPer100ft));
             builder.metaData(md);
         }
 
         return builder.build();
     }
 
-    private ListenableFuture<Void> saveToDatabase(TbContext ctx, TbMsg msg, SurveyResult result) {
+    private ListenableFuture<Void> saveToDatabase(TbContext ctx, TbMsg msg, ChainResult result, boolean persistStation) {
         List<ListenableFuture<Void>> futures = new ArrayList<>();
 
-        if (config.isSaveAsAttribute()) {
-            futures.add(saveAsAttribute(ctx, msg, result));
+        if (config.isSaveAsAttribute() || persistStation) {
+            futures.add(saveAsAttribute(ctx, msg, result, persistStation));
         }
         if (config.isSaveAsTelemetry()) {
             futures.add(saveAsTelemetry(ctx, msg, result));
@@ -306,15 +290,28 @@ public class DrSurveyProcessingNode implements TbNode {
         return Futures.transform(Futures.allAsList(futures), list -> null, ctx.getDbCallbackExecutor());
     }
 
-    private ListenableFuture<Void> saveAsAttribute(TbContext ctx, TbMsg msg, SurveyResult result) {
+    private ListenableFuture<Void> saveAsAttribute(TbContext ctx, TbMsg msg, ChainResult result, boolean persistStation) {
         AttributeScope scope = AttributeScope.valueOf(config.getAttributeScope());
+        Station s = result.station;
 
         List<AttributeKvEntry> entries = new ArrayList<>();
         long ts = System.currentTimeMillis();
-        entries.add(new BaseAttributeKvEntry(ts, new DoubleDataEntry(config.getOutputTvdFtField(), result.tvdFt.doubleValue())));
-        entries.add(new BaseAttributeKvEntry(ts, new DoubleDataEntry(config.getOutputNorthingFtField(), result.northingFt.doubleValue())));
-        entries.add(new BaseAttributeKvEntry(ts, new DoubleDataEntry(config.getOutputEastingFtField(), result.eastingFt.doubleValue())));
-        entries.add(new BaseAttributeKvEntry(ts, new DoubleDataEntry(config.getOutputDlsDegPer100ftField(), result.dlsDegPer100ft.doubleValue())));
+        if (config.isSaveAsAttribute()) {
+            entries.add(new BaseAttributeKvEntry(ts, new DoubleDataEntry(config.getOutputTvdFtField(), round(s.tvdFt))));
+            entries.add(new BaseAttributeKvEntry(ts, new DoubleDataEntry(config.getOutputNorthingFtField(), round(s.northingFt))));
+            entries.add(new BaseAttributeKvEntry(ts, new DoubleDataEntry(config.getOutputEastingFtField(), round(s.eastingFt))));
+            entries.add(new BaseAttributeKvEntry(ts, new DoubleDataEntry(config.getOutputDlsDegPer100ftField(), round(s.dlsDegPer100ft))));
+        }
+        // Deepest definitive station, full precision, so a cold node can resume the chain
+        if (persistStation && result.last != null) {
+            Station last = result.last;
+            entries.add(new BaseAttributeKvEntry(ts, new DoubleDataEntry(config.getPrevMdFtField(), last.mdFt)));
+            entries.add(new BaseAttributeKvEntry(ts, new DoubleDataEntry(config.getPrevInclinationDegField(), last.incDeg)));
+            entries.add(new BaseAttributeKvEntry(ts, new DoubleDataEntry(config.getPrevAzimuthDegField(), last.azDeg)));
+            entries.add(new BaseAttributeKvEntry(ts, new DoubleDataEntry(config.getPrevTvdFtField(), last.tvdFt)));
+            entries.add(new BaseAttributeKvEntry(ts, new DoubleDataEntry(config.getPrevNorthingFtField(), last.northingFt)));
+            entries.add(new BaseAttributeKvEntry(ts, new DoubleDataEntry(config.getPrevEastingFtField(), last.eastingFt)));
+        }
 
         SettableFuture<Void> future = SettableFuture.create();
         ctx.getTelemetryService().saveAttributes(AttributesSaveRequest.builder()
@@ -327,17 +324,18 @@ public class DrSurveyProcessingNode implements TbNode {
         return future;
     }
 
-    private ListenableFuture<Void> saveAsTelemetry(TbContext ctx, TbMsg msg, SurveyResult result) {
+    private ListenableFuture<Void> saveAsTelemetry(TbContext ctx, TbMsg msg, ChainResult result) {
         long ts = System.currentTimeMillis();
+        Station s = result.station;
 
         List<TsKvEntry> entries = new ArrayList<>();
-        entries.add(new BasicTsKvEntry(ts, new DoubleDataEntry(config.getOutputTvdFtField(), result.tvdFt.doubleValue())));
-        entries.add(new BasicTsKvEntry(ts, new DoubleDataEntry(config.getOutputNorthingFtField(), result.northingFt.doubleValue())));
-        entries.add(new BasicTsKvEntry(ts, new DoubleDataEntry(config.getOutputEastingFtField(), result.eastingFt.doubleValue())));
-        entries.add(new BasicTsKvEntry(ts, new DoubleDataEntry(config.getOutputDlsDegPer100ftField(), result.dlsDegPer100ft.doubleValue())));
-        entries.add(new BasicTsKvEntry(ts, new DoubleDataEntry(config.getOutputVerticalSectionFtField(), result.verticalSectionFt.doubleValue())));
-        entries.add(new BasicTsKvEntry(ts, new DoubleDataEntry(config.getOutputClosureDistanceFtField(), result.closureDistanceFt.doubleValue())));
-        entries.add(new BasicTsKvEntry(ts, new DoubleDataEntry(config.getOutputClosureDirectionDegField(), result.closureDirectionDeg.doubleValue())));
+        entries.add(new BasicTsKvEntry(ts, new DoubleDataEntry(config.getOutputTvdFtField(), round(s.tvdFt))));
+        entries.add(new BasicTsKvEntry(ts, new DoubleDataEntry(config.getOutputNorthingFtField(), round(s.northingFt))));
+        entries.add(new BasicTsKvEntry(ts, new DoubleDataEntry(config.getOutputEastingFtField(), round(s.eastingFt))));
+        entries.add(new BasicTsKvEntry(ts, new DoubleDataEntry(config.getOutputDlsDegPer100ftField(), round(s.dlsDegPer100ft))));
+        entries.add(new BasicTsKvEntry(ts, new DoubleDataEntry(config.getOutputVerticalSectionFtField(), round(verticalSection(s)))));
+        entries.add(new BasicTsKvEntry(ts, new DoubleDataEntry(config.getOutputClosureDistanceFtField(), round(closureDistance(s)))));
+        entries.add(new BasicTsKvEntry(ts, new DoubleDataEntry(config.getOutputClosureDirectionDegField(), round(closureDirection(s)))));
 
         SettableFuture<Void> future = SettableFuture.create();
         ctx.getTelemetryService().saveTimeseries(TimeseriesSaveRequest.builder()
@@ -349,7 +347,87 @@ public class DrSurveyProcessingNode implements TbNode {
         return future;
     }
 
-    private BigDecimal extractBigDecimal(ObjectNode body, String fieldName, String displayName) {
+    private double verticalSection(Station s) {
+        double vsAzRad = Math.toRadians(config.getVerticalSectionAzimuthDeg());
+        return s.northingFt * Math.cos(vsAzRad) + s.eastingFt * Math.sin(vsAzRad);
+    }
+
+    private static double closureDistance(Station s) {
+        return Math.sqrt(s.northingFt * s.northingFt + s.eastingFt * s.eastingFt);
+    }
+
+    private static double closureDirection(Station s) {
+        if (s.northingFt == 0.0 && s.eastingFt == 0.0) {
+            return 0.0;
+        }
+        double closureDirection = Math.toDegrees(Math.atan2(s.eastingFt, s.northingFt));
+        if (closureDirection < 0) {
+            closureDirection += 360;
+        }
+        return closureDirection;
+    }
+
+    private double round(double value) {
+        double factor = Math.pow(10, config.getResultPrecision());
+        return Math.round(value * factor) / factor;
+    }
+
+    private String format(double value) {
+        return BigDecimal.valueOf(value).setScale(config.getResultPrecision(), RoundingMode.HALF_UP).toPlainString();
+    }
+
+    private int maxCachedStations() {
+        return config.getMaxCachedStations() > 1 ? config.getMaxCachedStations() : DEFAULT_MAX_CACHED_STATIONS;
+    }
+
+    private boolean isDefinitive(ObjectNode body) {
+        String fieldName = config.getDefinitiveField();
+        if (fieldName == null || fieldName.isEmpty()) {
+            return true;
+        }
+        JsonNode node = body.get(fieldName);
+        return node == null || !node.isBoolean() || node.asBoolean();
+    }
+
+    private List<String> stationKeys() {
+        return Arrays.asList(config.getPrevMdFtField(), config.getPrevInclinationDegField(), config.getPrevAzimuthDegField(),
+                config.getPrevTvdFtField(), config.getPrevNorthingFtField(), config.getPrevEastingFtField());
+    }
+
+    private Station extractPreviousStation(ObjectNode body) {
+        Double prevMdFt = getOptionalDouble(body, config.getPrevMdFtField());
+        Double prevTvdFt = getOptionalDouble(body, config.getPrevTvdFtField());
+        Double prevIncDeg = getOptionalDouble(body, config.getPrevInclinationDegField());
+        Double prevAzDeg = getOptionalDouble(body, config.getPrevAzimuthDegField());
+        if (prevMdFt == null || prevTvdFt == null || prevIncDeg == null || prevAzDeg == null) {
+            return null;
+        }
+        Double prevNorthingFt = getOptionalDouble(body, config.getPrevNorthingFtField());
+        Double prevEastingFt = getOptionalDouble(body, config.getPrevEastingFtField());
+        return new Station(prevMdFt, prevIncDeg, prevAzDeg, prevTvdFt,
+                prevNorthingFt != null ? prevNorthingFt : 0.0,
+                prevEastingFt != null ? prevEastingFt : 0.0, 0.0);
+    }
+
+    private Station toStation(List<AttributeKvEntry> entries) {
+        Map<String, Double> values = new HashMap<>();
+        for (AttributeKvEntry entry : entries) {
+            Optional<Double> value = entry.getDoubleValue().or(() -> entry.getLongValue().map(Long::doubleValue));
+            value.ifPresent(v -> values.put(entry.getKey(), v));
+        }
+        Double mdFt = values.get(config.getPrevMdFtField());
+        Double incDeg = values.get(config.getPrevInclinationDegField());
+        Double azDeg = values.get(config.getPrevAzimuthDegField());
+        Double tvdFt = values.get(config.getPrevTvdFtField());
+        if (mdFt == null || incDeg == null || azDeg == null || tvdFt == null) {
+            return null;
+        }
+        return new Station(mdFt, incDeg, azDeg, tvdFt,
+                values.getOrDefault(config.getPrevNorthingFtField(), 0.0),
+                values.getOrDefault(config.getPrevEastingFtField(), 0.0), 0.0);
+    }
+
+    private double extractDouble(ObjectNode body, String fieldName, String displayName) {
         JsonNode node = body.get(fieldName);
         if (node == null || node.isNull()) {
             throw new RuntimeException(displayName + " field '" + fieldName + "' not found in message body");
@@ -357,10 +435,10 @@ public class DrSurveyProcessingNode implements TbNode {
         if (!node.isNumber()) {
             throw new RuntimeException(displayName + " field '" + fieldName + "' must be a number");
         }
-        return BigDecimal.valueOf(node.asDouble());
+        return node.asDouble();
     }
 
-    private BigDecimal getOptionalBigDecimal(ObjectNode body, String fieldName) {
+    private Double getOptionalDouble(ObjectNode body, String fieldName) {
         if (fieldName == null || fieldName.isEmpty()) {
             return null;
         }
@@ -368,28 +446,274 @@ public class DrSurveyProcessingNode implements TbNode {
         if (node == null || node.isNull() || !node.isNumber()) {
             return null;
         }
-        return BigDecimal.valueOf(node.asDouble());
+        return node.asDouble();
+    }
+
+    private static final class Survey {
+        final double mdFt;
+        final double incDeg;
+        final double azDeg;
+        final boolean definitive;
+
+        Survey(double mdFt, double incDeg, double azDeg, boolean definitive) {
+            this.mdFt = mdFt;
+            this.incDeg = incDeg;
+            this.azDeg = azDeg;
+            this.definitive = definitive;
+        }
     }
 
-    private static class SurveyResult {
-        final BigDecimal tvdFt;
-        final BigDecimal northingFt;
-        final BigDecimal eastingFt;
-        final BigDecimal dlsDegPer100ft;
-        final BigDecimal verticalSectionFt;
-        final BigDecimal closureDistanceFt;
-        final BigDecimal closureDirectionDeg;
-
-        SurveyResult(BigDecimal tvdFt, BigDecimal northingFt, BigDecimal eastingFt,
-                     BigDecimal dlsDegPer100ft, BigDecimal verticalSectionFt,
-                     BigDecimal closureDistanceFt, BigDecimal closureDirectionDeg) {
+    private static final class Station {
+        final double mdFt;
+        final double incDeg;
+        final double azDeg;
+        final double tvdFt;
+        final double northingFt;
+        final double eastingFt;
+        final double dlsDegPer100ft;
+
+        Station(double mdFt, double incDeg, double azDeg, double tvdFt,
+                double northingFt, double eastingFt, double dlsDegPer100ft) {
+            this.mdFt = mdFt;
+            this.incDeg = incDeg;
+            this.azDeg = azDeg;
             this.tvdFt = tvdFt;
             this.northingFt = northingFt;
             this.eastingFt = eastingFt;
             this.dlsDegPer100ft = dlsDegPer100ft;
-            this.verticalSectionFt = verticalSectionFt;
-            this.closureDistanceFt = closureDistanceFt;
-            this.closureDirectionDeg = closureDirectionDeg;
+        }
+    }
+
+    private static final class ChainResult {
+        final Station station;
+        final List<Station> rechained;
+        final Station last;
+
+        ChainResult(Station station, List<Station> rechained, Station last) {
+            this.station = station;
+            this.rechained = rechained;
+            this.last = last;
+        }
+    }
+
+    /**
+     * Definitive stations of one wellbore ordered by MD, held in primitive arrays.
+     * When the trajectory was seeded from a single persisted station or trimmed to its capacity
+     * it is no longer complete: surveys at or above its first station are positioned from that
+     * station instead of from the surface.
+     */
+    private static final class Trajectory {
+        private final int maxStations;
+        private double[] md;
+        private double[] inc;
+        private double[] az;
+        private double[] tvd;
+        private double[] north;
+        private double[] east;
+        private double[] dls;
+        private int size;
+        private boolean complete = true;
+
+        // Scratch output of minimumCurvature: tvd, north, east, dls
+        private final double[] out = new double[4];
+
+        Trajectory(int maxStations) {
+            this.maxStations = maxStations;
+            int capacity = Math.min(maxStations + 1, 64);
+            md = new double[capacity];
+            inc = new double[capacity];
+            az = new double[capacity];
+            tvd = new double[capacity];
+            north = new double[capacity];
+            east = new double[capacity];
+            dls = new double[capacity];
+        }
+
+        void seed(Station station) {
+            size = 1;
+            md[0] = station.mdFt;
+            inc[0] = station.incDeg;
+            az[0] = station.azDeg;
+            tvd[0] = station.tvdFt;
+            north[0] = station.northingFt;
+            east[0] = station.eastingFt;
+            dls[0] = 0.0;
+            complete = false;
+        }
+
+        ChainResult chain(Survey survey) {
+            int i = lowerBound(survey.mdFt - MD_TOLERANCE_FT);
+            boolean correction = i < size && Math.abs(md[i] - survey.mdFt) <= MD_TOLERANCE_FT;
+            if (i == 0 && size > 0 && !complete) {
+                return chainAboveFirst(survey, correction);
+            }
+
+            if (!survey.definitive) {
+                // Provisional surveys are chained to their predecessor but never stored
+                compute(i - 1, survey.mdFt, survey.incDeg, survey.azDeg);
+                Station station = new Station(survey.mdFt, survey.incDeg, survey.azDeg, out[0], out[1], out[2], out[3]);
+                return new ChainResult(station, Collections.emptyList(), null);
+            }
+
+            if (!correction) {
+                insertAt(i);
+            }
+            md[i] = survey.mdFt;
+            inc[i] = survey.incDeg;
+            az[i] = survey.azDeg;
+            store(i);
+            return rechainBelow(i);
+        }
+
+        /**
+         * The stations above the first known one are unknown. Minimum curvature is symmetric, so a
+         * new survey is positioned backwards from the first station; a correction of the first
+         * station keeps its known position. Either way the stations below are re-chained from it.
+         */
+        private ChainResult chainAboveFirst(Survey survey, boolean correction) {
+            if (correction) {
+                out[0] = tvd[0];
+                out[1] = north[0];
+                out[2] = east[0];
+            } else {
+                compute(0, survey.mdFt, survey.incDeg, survey.azDeg);
+            }
+            // The dogleg from the unknown predecessor is unknown, as for a seeded station
+            Station station = new Station(survey.mdFt, survey.incDeg, survey.azDeg, out[0], out[1], out[2], 0.0);
+            if (!survey.definitive) {
+                return new ChainResult(station, Collections.emptyList(), null);
+            }
+
+            if (!correction) {
+                insertAt(0);
+            }
+            md[0] = station.mdFt;
+            inc[0] = station.incDeg;
+            az[0] = station.azDeg;
+            tvd[0] = station.tvdFt;
+            north[0] = station.northingFt;
+            east[0] = station.eastingFt;
+            dls[0] = 0.0;
+            return rechainBelow(0);
+        }
+
+        private ChainResult rechainBelow(int i) {
+            List<Station> rechained = Collections.emptyList();
+            if (i < size - 1) {
+                rechained = new ArrayList<>(size - 1 - i);
+                for (int j = i + 1; j < size; j++) {
+                    store(j);
+                    rechained.add(stationAt(j));
+                }
+            }
+            Station station = stationAt(i);
+            trim();
+            return new ChainResult(station, rechained, stationAt(size - 1));
+        }
+
+        private void store(int j) {
+            compute(j - 1, md[j], inc[j], az[j]);
+            tvd[j] = out[0];
+            north[j] = out[1];
+            east[j] = out[2];
+            dls[j] = out[3];
+        }
+
+        /**
+         * Minimum curvature from station {@code p} (tie-in from surface when negative) to the given survey,
+         * which may also lie above station {@code p}.
+         */
+        private void compute(int p, double mdFt, double incDeg, double azDeg) {
+            double inc2Rad = Math.toRadians(incDeg);
+            if (p < 0) {
+                // For tie-in point, assume vertical from surface: TVD = MD * cos(Inc)
+                out[0] = mdFt * Math.cos(inc2Rad);
+                out[1] = 0.0;
+                out[2] = 0.0;
+                out[3] = 0.0;
+                return;
+            }
+            double inc1Rad = Math.toRadians(inc[p]);
+            double az1Rad = Math.toRadians(az[p]);
+            double az2Rad = Math.toRadians(azDeg);
+            double courseLength = mdFt - md[p];
+
+            double cosInc1 = Math.cos(inc1Rad);
+            double sinInc1 = Math.sin(inc1Rad);
+            double cosInc2 = Math.cos(inc2Rad);
+            double sinInc2 = Math.sin(inc2Rad);
+
+            double cosDogleg = cosInc1 * cosInc2 + sinInc1 * sinInc2 * Math.cos(az2Rad - az1Rad);
+            // Clamp to [-1, 1] to avoid NaN from acos
+            cosDogleg = Math.max(-1.0, Math.min(1.0, cosDogleg));
+            double doglegRad = Math.acos(cosDogleg);
+
+            // Ratio Factor (RF) for minimum curvature
+            double rf = doglegRad < 0.0001 ? 1.0 : 2.0 / doglegRad * Math.tan(doglegRad / 2.0);
+            double halfCourse = courseLength / 2.0 * rf;
+
+            out[0] = tvd[p] + halfCourse * (cosInc1 + cosInc2);
+            out[1] = north[p] + halfCourse * (sinInc1 * Math.cos(az1Rad) + sinInc2 * Math.cos(az2Rad));
+            out[2] = east[p] + halfCourse * (sinInc1 * Math.sin(az1Rad) + sinInc2 * Math.sin(az2Rad));
+            out[3] = courseLength != 0 ? Math.toDegrees(doglegRad) * 100.0 / Math.abs(courseLength) : 0.0;
+        }
+
+        private Station stationAt(int j) {
+            return new Station(md[j], inc[j], az[j], tvd[j], north[j], east[j], dls[j]);
+        }
+
+        private int lowerBound(double mdFt) {
+            int lo = 0;
+            int hi = size;
+            while (lo < hi) {
+                int mid = (lo + hi) >>> 1;
+                if (md[mid] < mdFt) {
+                    lo = mid + 1;
+                } else {
+                    hi = mid;
+                }
+            }
+            return lo;
+        }
+
+        private void insertAt(int i) {
+            if (size == md.length) {
+                int capacity = md.length * 2;
+                md = Arrays.copyOf(md, capacity);
+                inc = Arrays.copyOf(inc, capacity);
+                az = Arrays.copyOf(az, capacity);
+                tvd = Arrays.copyOf(tvd, capacity);
+                north = Arrays.copyOf(north, capacity);
+                east = Arrays.copyOf(east, capacity);
+                dls = Arrays.copyOf(dls, capacity);
+            }
+            int tail = size - i;
+            if (tail > 0) {
+                System.arraycopy(md, i, md, i + 1, tail);
+                System.arraycopy(inc, i, inc, i + 1, tail);
+                System.arraycopy(az, i, az, i + 1, tail);
+                System.arraycopy(tvd, i, tvd, i + 1, tail);
+                System.arraycopy(north, i, north, i + 1, tail);
+                System.arraycopy(east, i, east, i + 1, tail);
+                System.arraycopy(dls, i, dls, i + 1, tail);
+            }
+            size++;
+        }
+
+        private void trim() {
+            int drop = size - maxStations;
+            if (drop <= 0) {
+                return;
+            }
+            size -= drop;
+            System.arraycopy(md, drop, md, 0, size);
+            System.arraycopy(inc, drop, inc, 0, size);
+            System.arraycopy(az, drop, az, 0, size);
+            System.arraycopy(tvd, drop, tvd, 0, size);
+            System.arraycopy(north, drop, north, 0, size);
+            System.arraycopy(east, drop, east, 0, size);
+            System.arraycopy(dls, drop, dls, 0, size);
+            complete = false;
         }
     }
 }
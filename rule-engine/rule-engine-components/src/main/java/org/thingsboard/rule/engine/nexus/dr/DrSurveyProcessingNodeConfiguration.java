@@ -39,6 +39,10 @@ public class DrSurveyProcessingNodeConfiguration implements NodeConfiguration<Dr
     private String prevNorthingFtField;
     private String prevEastingFtField;
 
+    // Station chaining
+    private String definitiveField;
+    private int maxCachedStations;
+
     // Output field names
     private String outputTvdFtField;
     private String outputNorthingFtField;
@@ -47,6 +51,7 @@ public class DrSurveyProcessingNodeConfiguration implements NodeConfiguration<Dr
     private String outputVerticalSectionFtField;
     private String outputClosureDistanceFtField;
     private String outputClosureDirectionDegField;
+    private String outputRechainedStationsField;
 
     // Vertical section calculation
     private double verticalSectionAzimuthDeg;
@@ -77,6 +82,9 @@ public class DrSurveyProcessingNodeConfiguration implements NodeConfiguration<Dr
         config.setPrevNorthingFtField("lastSurveyNorthingFt");
         config.setPrevEastingFtField("lastSurveyEastingFt");
 
+        config.setDefinitiveField("isDefinitive");
+        config.setMaxCachedStations(1000);
+
         config.setOutputTvdFtField("tvdFt");
         config.setOutputNorthingFtField("northingFt");
         config.setOutputEastingFtField("eastingFt");
@@ -84,6 +92,7 @@ public class DrSurveyProcessingNodeConfiguration implements NodeConfiguration<Dr
         config.setOutputVerticalSectionFtField("verticalSectionFt");
         config.setOutputClosureDistanceFtField("closureDistanceFt");
         config.setOutputClosureDirectionDegField("closureDirectionDeg");
+        config.setOutputRechainedStationsField("rechainedStations");
 
         config.setVerticalSectionAzimuthDeg(0.0);
 
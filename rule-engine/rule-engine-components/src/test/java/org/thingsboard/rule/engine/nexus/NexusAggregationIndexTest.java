@@ -0,0 +1,156 @@
+/**
+ * Copyright © 2016-2026 The Thingsboard Authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.thingsboard.rule.engine.nexus;
+
+import com.google.common.util.concurrent.Futures;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.thingsboard.rule.engine.TestDbCallbackExecutor;
+import org.thingsboard.rule.engine.api.TbContext;
+import org.thingsboard.server.common.data.asset.Asset;
+import org.thingsboard.server.common.data.id.AssetId;
+import org.thingsboard.server.common.data.id.TenantId;
+import org.thingsboard.server.common.data.kv.BasicTsKvEntry;
+import org.thingsboard.server.common.data.kv.DoubleDataEntry;
+import org.thingsboard.server.common.data.nexus.AggregationType;
+import org.thingsboard.server.common.data.nexus.DataAggregation;
+import org.thingsboard.server.common.data.page.PageData;
+import org.thingsboard.server.common.data.relation.EntityRelation;
+import org.thingsboard.server.common.data.relation.RelationTypeGroup;
+import org.thingsboard.server.dao.asset.AssetService;
+import org.thingsboard.server.dao.relation.RelationService;
+import org.thingsboard.server.dao.timeseries.TimeseriesService;
+
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+public class NexusAggregationIndexTest {
+
+    private static final String RIG = "DR_RIG";
+    private static final String SYSTEM = "DR_SYSTEM";
+    private static final String KEY = "power";
+
+    private final UUID rigId = UUID.randomUUID();
+    private final UUID pumpId = UUID.randomUUID();
+    private final UUID motorId = UUID.randomUUID();
+
+    private TbContext ctx;
+    private AssetService assetService;
+    private RelationService relationService;
+    private TimeseriesService timeseriesService;
+
+    @BeforeEach
+    void setUp() {
+        ctx = mock(TbContext.class);
+        assetService = mock(AssetService.class);
+        relationService = mock(RelationService.class);
+        timeseriesService = mock(TimeseriesService.class);
+        when(ctx.getTenantId()).thenReturn(TenantId.fromUUID(UUID.randomUUID()));
+        when(ctx.getDbCallbackExecutor()).thenReturn(new TestDbCallbackExecutor());
+        when(ctx.getAssetService()).thenReturn(assetService);
+        when(ctx.getRelationService()).thenReturn(relationService);
+        when(ctx.getTimeseriesService()).thenReturn(timeseriesService);
+
+        when(assetService.findAssetsByTenantIdAndType(any(), eq(RIG), any()))
+                .thenReturn(new PageData<>(List.of(asset(rigId, RIG)), 1, 1, false));
+        when(assetService.findAssetsByTenantIdAndType(any(), eq(SYSTEM), any()))
+                .thenReturn(new PageData<>(List.of(asset(pumpId, SYSTEM), asset(motorId, SYSTEM)), 1, 2, false));
+        when(relationService.findByFromAndTypeAsync(any(), eq(new AssetId(rigId)), eq(NexusAggregationIndex.RELATION_TYPE_CONTAINS), eq(RelationTypeGroup.COMMON)))
+                .thenReturn(Futures.immediateFuture(List.of(contains(rigId, pumpId), contains(rigId, motorId))));
+        when(timeseriesService.findLatest(any(), eq(new AssetId(pumpId)), any()))
+                .thenReturn(Futures.immediateFuture(List.of(new BasicTsKvEntry(1L, new DoubleDataEntry(KEY, 10.0)))));
+        when(timeseriesService.findLatest(any(), eq(new AssetId(motorId)), any()))
+                .thenReturn(Futures.immediateFuture(List.of(new BasicTsKvEntry(1L, new DoubleDataEntry(KEY, 30.0)))));
+    }
+
+    @Test
+    void givenAssetsAndRelations_whenBuild_thenAggregatesLatestValues() throws Exception {
+        NexusAggregationIndex index = NexusAggregationIndex.build(ctx, List.of(aggregation())).get();
+
+        assertThat(index.getLinkCount()).isEqualTo(2);
+        assertThat(index.getParents(pumpId)).containsExactly(rigId);
+        NexusAggregationIndex.RunningAggregate aggregate = index.getAggregate(rigId, SYSTEM, KEY);
+        assertThat(aggregate.get(AggregationType.SUM)).isEqualTo(40.0);
+        assertThat(aggregate.get(AggregationType.MAX)).isEqualTo(30.0);
+        assertThat(index.needsRebuild(NexusAggregationIndex.signatureOf(List.of(aggregation())), 0, System.currentTimeMillis())).isFalse();
+    }
+
+    @Test
+    void givenBuiltIndex_whenChildValueChanges_thenParentAggregateIsUpdated() throws Exception {
+        NexusAggregationIndex index = NexusAggregationIndex.build(ctx, List.of(aggregation())).get();
+
+        assertThat(index.updateValues(pumpId, Map.of(KEY, 50.0))).isTrue();
+
+        NexusAggregationIndex.RunningAggregate aggregate = index.getAggregate(rigId, SYSTEM, KEY);
+        assertThat(aggregate.get(AggregationType.SUM)).isEqualTo(80.0);
+        assertThat(aggregate.get(AggregationType.MIN)).isEqualTo(30.0);
+    }
+
+    @Test
+    void givenParentWithChildren_whenAllRelationsDeleted_thenParentIsAffected() throws Exception {
+        NexusAggregationIndex index = NexusAggregationIndex.build(ctx, List.of(aggregation())).get();
+
+        assertThat(index.unlinkAll(rigId)).containsExactly(rigId);
+        assertThat(index.getAggregate(rigId, SYSTEM, KEY)).isNull();
+        assertThat(index.getLinkCount()).isZero();
+    }
+
+    @Test
+    void givenParentWithChildren_whenParentDeleted_thenNothingIsPublishedForIt() throws Exception {
+        NexusAggregationIndex index = NexusAggregationIndex.build(ctx, List.of(aggregation())).get();
+
+        assertThat(index.removeAsset(rigId)).isEmpty();
+        assertThat(index.getAssetType(rigId)).isNull();
+    }
+
+    @Test
+    void givenLastChild_whenRemoved_thenParentAggregateIsEmpty() throws Exception {
+        NexusAggregationIndex index = NexusAggregationIndex.build(ctx, List.of(aggregation())).get();
+
+        assertThat(index.removeAsset(pumpId)).containsExactly(rigId);
+        assertThat(index.removeAsset(motorId)).containsExactly(rigId);
+        assertThat(index.getAggregate(rigId, SYSTEM, KEY)).isNull();
+    }
+
+    private static DataAggregation aggregation() {
+        DataAggregation aggregation = new DataAggregation();
+        aggregation.setSourceAssetType(SYSTEM);
+        aggregation.setTargetAssetType(RIG);
+        aggregation.setSourceKey(KEY);
+        aggregation.setTargetKey("totalPower");
+        aggregation.setAggregationType(AggregationType.SUM);
+        aggregation.setActive(true);
+        return aggregation;
+    }
+
+    private static Asset asset(UUID id, String type) {
+        Asset asset = new Asset(new AssetId(id));
+        asset.setType(type);
+        return asset;
+    }
+
+    private static EntityRelation contains(UUID parentId, UUID childId) {
+        return new EntityRelation(new AssetId(parentId), new AssetId(childId),
+                NexusAggregationIndex.RELATION_TYPE_CONTAINS, RelationTypeGroup.COMMON);
+    }
+}
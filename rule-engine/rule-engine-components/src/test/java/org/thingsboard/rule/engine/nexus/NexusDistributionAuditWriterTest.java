@@ -0,0 +1,100 @@
+/**
+ * Copyright © 2016-2026 The Thingsboard Authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.thingsboard.rule.engine.nexus;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.thingsboard.rule.engine.TestDbCallbackExecutor;
+import org.thingsboard.server.common.data.id.AssetId;
+import org.thingsboard.server.common.data.id.DeviceId;
+import org.thingsboard.server.common.data.id.TenantId;
+import org.thingsboard.server.common.data.nexus.DistributionLog;
+import org.thingsboard.server.common.data.nexus.DistributionStatus;
+import org.thingsboard.server.dao.nexus.DataDistributionService;
+
+import java.util.List;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+
+public class NexusDistributionAuditWriterTest {
+
+    private static final long FLUSH_INTERVAL_MS = 200;
+
+    private final TenantId tenantId = TenantId.fromUUID(UUID.randomUUID());
+    private final DeviceId deviceId = new DeviceId(UUID.randomUUID());
+    private final AssetId assetId = new AssetId(UUID.randomUUID());
+
+    private DataDistributionService service;
+
+    @BeforeEach
+    void setUp() {
+        service = mock(DataDistributionService.class);
+    }
+
+    @Test
+    void givenEntriesInOneInterval_whenTimerFlushes_thenOneRolledUpRowIsWritten() throws InterruptedException {
+        NexusDistributionAuditWriter writer = writer(100);
+        writer.record(deviceId, assetId, "DR", DistributionStatus.SUCCESS, 3, List.of(), 5);
+        writer.record(deviceId, assetId, "DR", DistributionStatus.SUCCESS, 4, List.of(), 7);
+        verify(service, never()).saveDistributionLog(any(), any());
+
+        Thread.sleep(FLUSH_INTERVAL_MS + 50);
+        writer.flushIfDue();
+
+        ArgumentCaptor<DistributionLog> captor = ArgumentCaptor.forClass(DistributionLog.class);
+        verify(service, times(1)).saveDistributionLog(eq(tenantId), captor.capture());
+        DistributionLog logEntry = captor.getValue();
+        assertThat(logEntry.getOperationType()).isEqualTo("DISTRIBUTE");
+        assertThat(logEntry.getKeysProcessed()).isEqualTo(7);
+        assertThat(logEntry.getProcessingTimeMs()).isEqualTo(12);
+    }
+
+    @Test
+    void givenIntervalNotElapsed_whenTimerFlushes_thenNothingIsWritten() {
+        NexusDistributionAuditWriter writer = writer(100);
+        writer.record(deviceId, assetId, "DR", DistributionStatus.SUCCESS, 3, List.of(), 5);
+
+        writer.flushIfDue();
+
+        verify(service, never()).saveDistributionLog(any(), any());
+    }
+
+    @Test
+    void givenMorePendingGroupsThanTheLimit_whenFlushed_thenExtraGroupsAreDropped() {
+        NexusDistributionAuditWriter writer = writer(1);
+        writer.record(deviceId, assetId, "DR", DistributionStatus.SUCCESS, 1, List.of(), 1);
+        writer.record(deviceId, assetId, "DR", DistributionStatus.PARTIAL, 1, List.of("failed"), 1);
+
+        writer.flush();
+
+        ArgumentCaptor<DistributionLog> captor = ArgumentCaptor.forClass(DistributionLog.class);
+        verify(service, times(1)).saveDistributionLog(eq(tenantId), captor.capture());
+        assertThat(captor.getValue().getStatus()).isEqualTo(DistributionStatus.SUCCESS);
+    }
+
+    private NexusDistributionAuditWriter writer(int maxPendingGroups) {
+        return new NexusDistributionAuditWriter(service, tenantId, new TestDbCallbackExecutor(),
+                FLUSH_INTERVAL_MS, maxPendingGroups);
+    }
+}
@@ -0,0 +1,140 @@
+/**
+ * Copyright © 2016-2026 The Thingsboard Authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.thingsboard.rule.engine.nexus;
+
+import org.junit.jupiter.api.Test;
+import org.thingsboard.common.util.JacksonUtil;
+import org.thingsboard.server.common.data.id.DataMappingRuleId;
+import org.thingsboard.server.common.data.id.DataSourceConfigId;
+import org.thingsboard.server.common.data.kv.TsKvEntry;
+import org.thingsboard.server.common.data.nexus.DataMappingRule;
+import org.thingsboard.server.common.data.nexus.DataSourceConfig;
+import org.thingsboard.server.common.data.nexus.TransformationType;
+
+import java.util.List;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class NexusMappingPlanTest {
+
+    private final DataSourceConfig config = new DataSourceConfig(new DataSourceConfigId(UUID.randomUUID()));
+
+    @Test
+    void givenRulesForOneKey_whenCompile_thenTransformsAreSortedByDescendingPriority() {
+        DataMappingRule low = rule("pressure", "pressureLow", TransformationType.DIRECT, null, 1);
+        DataMappingRule high = rule("pressure", "pressureHigh", TransformationType.DIRECT, null, 10);
+
+        NexusMappingPlan plan = NexusMappingPlan.compile(config, List.of(low, high), 0L);
+
+        NexusMappingPlan.Transform[] transforms = plan.getTransforms("pressure");
+        assertThat(transforms).hasSize(2);
+        assertThat(transforms[0].getRuleId()).isEqualTo(high.getId());
+        assertThat(transforms[1].getRuleId()).isEqualTo(low.getId());
+        assertThat(plan.hasRules()).isTrue();
+    }
+
+    @Test
+    void givenInactiveOrKeylessRules_whenCompile_thenTheyAreSkipped() {
+        DataMappingRule inactive = rule("pressure", "p", TransformationType.DIRECT, null, 1);
+        inactive.setActive(false);
+        DataMappingRule keyless = rule(null, "p", TransformationType.DIRECT, null, 1);
+
+        NexusMappingPlan plan = NexusMappingPlan.compile(config, List.of(inactive, keyless), 0L);
+
+        assertThat(plan.hasRules()).isFalse();
+        assertThat(plan.getTransforms("pressure")).isEmpty();
+    }
+
+    @Test
+    void givenScaleRule_whenApply_thenFactorAndOffsetAreApplied() {
+        DataMappingRule scale = rule("tempF", "tempC", TransformationType.SCALE,
+                "{\"factor\": 0.5, \"offset\": -16}", 1);
+
+        NexusMappingPlan plan = NexusMappingPlan.compile(config, List.of(scale), 0L);
+
+        TsKvEntry entry = plan.getTransforms("tempF")[0].apply(100L, JacksonUtil.toJsonNode("100"));
+        assertThat(entry.getKey()).isEqualTo("tempC");
+        assertThat(entry.getTs()).isEqualTo(100L);
+        assertThat(entry.getDoubleValue()).contains(34.0);
+    }
+
+    @Test
+    void givenScaleRuleWithoutConfig_whenApply_thenValueIsUnchanged() {
+        DataMappingRule scale = rule("rpm", "rotarySpeed", TransformationType.SCALE, null, 1);
+
+        NexusMappingPlan plan = NexusMappingPlan.compile(config, List.of(scale), 0L);
+
+        assertThat(plan.getTransforms("rpm")[0].apply(1L, JacksonUtil.toJsonNode("120")).getDoubleValue()).contains(120.0);
+    }
+
+    @Test
+    void givenScaleRuleAndTextValue_whenApply_thenValueIsCopied() {
+        DataMappingRule scale = rule("state", "rigState", TransformationType.SCALE, "{\"factor\": 2}", 1);
+
+        NexusMappingPlan plan = NexusMappingPlan.compile(config, List.of(scale), 0L);
+
+        assertThat(plan.getTransforms("state")[0].apply(1L, JacksonUtil.toJsonNode("\"DRILLING\"")).getStrValue())
+                .contains("DRILLING");
+    }
+
+    @Test
+    void givenSameConfigAndRules_whenCompared_thenPlanIsReused() {
+        DataMappingRule rule = rule("pressure", "p", TransformationType.DIRECT, null, 1);
+        NexusMappingPlan plan = NexusMappingPlan.compile(config, List.of(rule), 0L);
+
+        assertThat(plan.isCompiledFrom(config, List.of(new DataMappingRule(rule)))).isTrue();
+
+        DataMappingRule changed = new DataMappingRule(rule);
+        changed.setTargetKey("pressureKpa");
+        assertThat(plan.isCompiledFrom(config, List.of(changed))).isFalse();
+        assertThat(plan.isCompiledFrom(config, List.of())).isFalse();
+
+        NexusMappingPlan reloaded = plan.reloadedAt(5L);
+        assertThat(reloaded.getLoadedTs()).isEqualTo(5L);
+        assertThat(reloaded.getTransforms("pressure")).isSameAs(plan.getTransforms("pressure"));
+    }
+
+    @Test
+    void givenNoConfig_whenCompile_thenPlanHasNoRules() {
+        NexusMappingPlan plan = NexusMappingPlan.compile(null, null, 0L);
+
+        assertThat(plan.getConfig()).isNull();
+        assertThat(plan.hasRules()).isFalse();
+        assertThat(plan.isCompiledFrom(null, List.of())).isTrue();
+    }
+
+    @Test
+    void givenJsonValues_whenToTsKvEntry_thenTypeIsKept() {
+        assertThat(NexusMappingPlan.toTsKvEntry(1L, "k", JacksonUtil.toJsonNode("7")).getLongValue()).contains(7L);
+        assertThat(NexusMappingPlan.toTsKvEntry(1L, "k", JacksonUtil.toJsonNode("7.5")).getDoubleValue()).contains(7.5);
+        assertThat(NexusMappingPlan.toTsKvEntry(1L, "k", JacksonUtil.toJsonNode("true")).getStrValue()).contains("true");
+        assertThat(NexusMappingPlan.toTsKvEntry(1L, "k", JacksonUtil.toJsonNode("null"))).isNull();
+        assertThat(NexusMappingPlan.toTsKvEntry(1L, "k", JacksonUtil.toJsonNode("{}"))).isNull();
+    }
+
+    private static DataMappingRule rule(String sourceKey, String targetKey, TransformationType type,
+                                        String transformationConfig, int priority) {
+        DataMappingRule rule = new DataMappingRule(new DataMappingRuleId(UUID.randomUUID()));
+        rule.setSourceKey(sourceKey);
+        rule.setTargetKey(targetKey);
+        rule.setTransformationType(type);
+        rule.setTransformationConfig(transformationConfig != null ? JacksonUtil.toJsonNode(transformationConfig) : null);
+        rule.setPriority(priority);
+        rule.setActive(true);
+        return rule;
+    }
+}
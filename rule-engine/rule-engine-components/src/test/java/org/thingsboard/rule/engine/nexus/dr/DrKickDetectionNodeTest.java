@@ -0,0 +1,141 @@
+/**
+ * Copyright © 2016-2026 The Thingsboard Authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.thingsboard.rule.engine.nexus.dr;
+
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.JsonNode;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.thingsboard.common.util.JacksonUtil;
+import org.thingsboard.rule.engine.TestDbCallbackExecutor;
+import org.thingsboard.rule.engine.api.TbContext;
+import org.thingsboard.rule.engine.api.TbNodeConfiguration;
+import org.thingsboard.rule.engine.api.TbNodeException;
+import org.thingsboard.server.common.data.id.DeviceId;
+import org.thingsboard.server.common.data.id.TenantId;
+import org.thingsboard.server.common.data.msg.TbMsgType;
+import org.thingsboard.server.common.msg.TbMsg;
+import org.thingsboard.server.common.msg.TbMsgMetaData;
+
+import java.util.List;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.atLeast;
+import static org.mockito.Mockito.atLeastOnce;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+public class DrKickDetectionNodeTest {
+
+    private static final long SECOND = 1_000L;
+    private static final long MINUTE = 60 * SECOND;
+
+    private final DeviceId deviceId = new DeviceId(UUID.randomUUID());
+
+    private TbContext ctx;
+    private DrKickDetectionNode node;
+
+    @BeforeEach
+    void setUp() throws TbNodeException {
+        ctx = mock(TbContext.class);
+        when(ctx.getTenantId()).thenReturn(TenantId.fromUUID(UUID.randomUUID()));
+        when(ctx.getDbCallbackExecutor()).thenReturn(new TestDbCallbackExecutor());
+        DrKickDetectionNodeConfiguration config = new DrKickDetectionNodeConfiguration().defaultConfiguration();
+        config.setSaveAsTelemetry(false);
+        node = new DrKickDetectionNode();
+        node.init(ctx, new TbNodeConfiguration(JacksonUtil.valueToTree(config)));
+    }
+
+    @AfterEach
+    void tearDown() {
+        node.destroy();
+    }
+
+    @Test
+    void givenKickInProgressAtStartup_whenFirstSamplesArrive_thenFlowFloorDetectsIt() {
+        for (int i = 0; i < 10; i++) {
+            node.onMsg(ctx, sample(i * 10 * SECOND, 400.0, 500.0, 570.0));
+        }
+
+        List<TbMsg> results = routed("Kick Warning");
+        assertThat(results).hasSize(10);
+        assertThat(indicators(results.get(0))).contains("FLOW_INCREASE");
+        assertThat(JacksonUtil.toJsonNode(results.get(9).getData()).get("flowDifferential").asDouble()).isEqualTo(70.0);
+    }
+
+    @Test
+    void givenSlowPitGain_whenBelowRollingBaselineSensitivity_thenPitFloorDetectsIt() {
+        // 0.1 bbl/min lags a 15 min rolling baseline by only 1.5 bbl, below the CUSUM drift
+        long firstKickTs = -1;
+        for (int i = 0; i <= 120; i++) {
+            long ts = i * 30 * SECOND;
+            TbMsg result = evaluate(sample(ts, 400.0 + 0.1 * ts / MINUTE, 500.0, 500.0));
+            if (firstKickTs < 0 && indicators(result).contains("PIT_GAIN")) {
+                firstKickTs = ts;
+            }
+        }
+
+        assertThat(firstKickTs).isBetween(45 * MINUTE, 55 * MINUTE);
+    }
+
+    @Test
+    void givenPumpsOff_whenWellFlowsBack_thenNoFlowKick() {
+        for (int i = 0; i < 30; i++) {
+            node.onMsg(ctx, sample(i * 10 * SECOND, 400.0, 0.0, 80.0));
+        }
+        assertThat(routed("No Kick")).hasSize(30);
+
+        // The same differential with the pumps running is reported
+        TbMsg result = evaluate(sample(30 * 10 * SECOND, 400.0, 500.0, 580.0));
+        assertThat(indicators(result)).contains("FLOW_INCREASE");
+    }
+
+    private TbMsg evaluate(TbMsg msg) {
+        node.onMsg(ctx, msg);
+        ArgumentCaptor<TbMsg> captor = ArgumentCaptor.forClass(TbMsg.class);
+        verify(ctx, atLeastOnce()).tellNext(captor.capture(), anyString());
+        return captor.getValue();
+    }
+
+    private List<TbMsg> routed(String relation) {
+        ArgumentCaptor<TbMsg> captor = ArgumentCaptor.forClass(TbMsg.class);
+        verify(ctx, atLeast(0)).tellNext(captor.capture(), eq(relation));
+        return captor.getAllValues();
+    }
+
+    private static List<String> indicators(TbMsg msg) {
+        JsonNode indicators = JacksonUtil.toJsonNode(msg.getData()).get("kickIndicators");
+        return JacksonUtil.convertValue(indicators, new TypeReference<>() {});
+    }
+
+    private TbMsg sample(long ts, double pitVolume, double flowIn, double flowOut) {
+        TbMsgMetaData metaData = new TbMsgMetaData();
+        metaData.putValue("ts", String.valueOf(ts));
+        String data = "{\"pitVolume\":" + pitVolume + ",\"flowIn\":" + flowIn + ",\"flowOut\":" + flowOut + "}";
+        return TbMsg.newMsg()
+                .type(TbMsgType.POST_TELEMETRY_REQUEST)
+                .originator(deviceId)
+                .copyMetaData(metaData)
+                .data(data)
+                .build();
+    }
+}
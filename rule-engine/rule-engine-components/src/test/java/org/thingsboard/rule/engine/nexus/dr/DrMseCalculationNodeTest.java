@@ -0,0 +1,153 @@
+/**
+ * Copyright © 2016-2026 The Thingsboard Authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.thingsboard.rule.engine.nexus.dr;
+
+import com.google.common.util.concurrent.Futures;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.thingsboard.common.util.JacksonUtil;
+import org.thingsboard.rule.engine.TestDbCallbackExecutor;
+import org.thingsboard.rule.engine.api.TbContext;
+import org.thingsboard.rule.engine.api.TbNodeConfiguration;
+import org.thingsboard.rule.engine.api.TbNodeException;
+import org.thingsboard.server.common.data.AttributeScope;
+import org.thingsboard.server.common.data.id.DeviceId;
+import org.thingsboard.server.common.data.id.TenantId;
+import org.thingsboard.server.common.data.kv.BaseAttributeKvEntry;
+import org.thingsboard.server.common.data.kv.DoubleDataEntry;
+import org.thingsboard.server.common.data.msg.TbMsgType;
+import org.thingsboard.server.common.msg.TbMsg;
+import org.thingsboard.server.common.msg.TbMsgMetaData;
+import org.thingsboard.server.dao.attributes.AttributesService;
+
+import java.util.Optional;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.within;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.atLeastOnce;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+public class DrMseCalculationNodeTest {
+
+    private static final double WOB = 20.0;
+    private static final double RPM = 120.0;
+    private static final double TORQUE = 2_000.0;
+    private static final double ROP = 50.0;
+
+    private final DeviceId deviceId = new DeviceId(UUID.randomUUID());
+
+    private TbContext ctx;
+    private AttributesService attributesService;
+    private DrMseCalculationNode node;
+
+    @BeforeEach
+    void setUp() throws TbNodeException {
+        ctx = mock(TbContext.class);
+        attributesService = mock(AttributesService.class);
+        when(ctx.getTenantId()).thenReturn(TenantId.fromUUID(UUID.randomUUID()));
+        when(ctx.getDbCallbackExecutor()).thenReturn(new TestDbCallbackExecutor());
+        when(ctx.getAttributesService()).thenReturn(attributesService);
+        DrMseCalculationNodeConfiguration config = new DrMseCalculationNodeConfiguration().defaultConfiguration();
+        config.setSaveAsTelemetry(false);
+        node = new DrMseCalculationNode();
+        node.init(ctx, new TbNodeConfiguration(JacksonUtil.valueToTree(config)));
+    }
+
+    @AfterEach
+    void tearDown() {
+        node.destroy();
+    }
+
+    @Test
+    void givenDiameterInMessage_whenAttributeAndCacheDiffer_thenMessageValueWins() {
+        givenDiameterAttribute(12.25);
+        node.onMsg(ctx, sample(null));
+        assertThat(lastMse()).isCloseTo(expectedMse(12.25), within(0.01));
+
+        node.onMsg(ctx, sample(8.5));
+
+        assertThat(lastMse()).isCloseTo(expectedMse(8.5), within(0.01));
+        verify(attributesService, times(1)).find(any(), eq(deviceId), eq(AttributeScope.SERVER_SCOPE), eq("bitDiameter"));
+    }
+
+    @Test
+    void givenDiameterLoadedFromAttribute_whenNextMessageOmitsIt_thenCachedValueReused() {
+        givenDiameterAttribute(8.5);
+
+        node.onMsg(ctx, sample(null));
+        node.onMsg(ctx, sample(null));
+
+        ArgumentCaptor<TbMsg> captor = ArgumentCaptor.forClass(TbMsg.class);
+        verify(ctx, times(2)).tellSuccess(captor.capture());
+        assertThat(captor.getAllValues()).allSatisfy(msg ->
+                assertThat(mse(msg)).isCloseTo(expectedMse(8.5), within(0.01)));
+        verify(attributesService, times(1)).find(any(), eq(deviceId), eq(AttributeScope.SERVER_SCOPE), eq("bitDiameter"));
+    }
+
+    @Test
+    void givenColdCache_whenAttributeMissing_thenRoutedToFailure() {
+        when(attributesService.find(any(), eq(deviceId), eq(AttributeScope.SERVER_SCOPE), eq("bitDiameter")))
+                .thenReturn(Futures.immediateFuture(Optional.empty()));
+
+        TbMsg msg = sample(null);
+        node.onMsg(ctx, msg);
+
+        ArgumentCaptor<Throwable> captor = ArgumentCaptor.forClass(Throwable.class);
+        verify(ctx).tellFailure(eq(msg), captor.capture());
+        assertThat(captor.getValue()).hasMessageContaining("not found in message body or originator attributes");
+        verify(ctx, never()).tellSuccess(any());
+    }
+
+    private void givenDiameterAttribute(double value) {
+        when(attributesService.find(any(), eq(deviceId), eq(AttributeScope.SERVER_SCOPE), eq("bitDiameter")))
+                .thenReturn(Futures.immediateFuture(Optional.of(
+                        new BaseAttributeKvEntry(new DoubleDataEntry("bitDiameter", value), 1L))));
+    }
+
+    private double lastMse() {
+        ArgumentCaptor<TbMsg> captor = ArgumentCaptor.forClass(TbMsg.class);
+        verify(ctx, atLeastOnce()).tellSuccess(captor.capture());
+        return mse(captor.getValue());
+    }
+
+    private static double mse(TbMsg msg) {
+        return JacksonUtil.toJsonNode(msg.getData()).get("mse").asDouble();
+    }
+
+    private static double expectedMse(double bitDiameterIn) {
+        return DrMseCalculationNode.calculateMse(WOB, RPM, TORQUE, ROP, bitDiameterIn);
+    }
+
+    private TbMsg sample(Double bitDiameter) {
+        String data = "{\"wob\":" + WOB + ",\"rpm\":" + RPM + ",\"torque\":" + TORQUE + ",\"rop\":" + ROP
+                + (bitDiameter != null ? ",\"bitDiameter\":" + bitDiameter : "") + "}";
+        return TbMsg.newMsg()
+                .type(TbMsgType.POST_TELEMETRY_REQUEST)
+                .originator(deviceId)
+                .copyMetaData(new TbMsgMetaData())
+                .data(data)
+                .build();
+    }
+}
@@ -0,0 +1,193 @@
+/**
+ * Copyright © 2016-2026 The Thingsboard Authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.thingsboard.rule.engine.nexus.dr;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.thingsboard.common.util.JacksonUtil;
+import org.thingsboard.rule.engine.TestDbCallbackExecutor;
+import org.thingsboard.rule.engine.api.RuleEngineTelemetryService;
+import org.thingsboard.rule.engine.api.TbContext;
+import org.thingsboard.rule.engine.api.TbNodeConfiguration;
+import org.thingsboard.rule.engine.api.TbNodeException;
+import org.thingsboard.rule.engine.api.TimeseriesSaveRequest;
+import org.thingsboard.server.common.data.id.DeviceId;
+import org.thingsboard.server.common.data.id.TenantId;
+import org.thingsboard.server.common.data.kv.TsKvEntry;
+import org.thingsboard.server.common.data.msg.TbMsgType;
+import org.thingsboard.server.common.data.nexus.RigStateTransition;
+import org.thingsboard.server.common.msg.TbMsg;
+import org.thingsboard.server.common.msg.TbMsgMetaData;
+import org.thingsboard.server.dao.nexus.RigActivityService;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+public class DrRigStateDetectionNodeTest {
+
+    private static final long MINUTE = 60_000L;
+
+    private final DeviceId deviceId = new DeviceId(UUID.randomUUID());
+    private final List<TimeseriesSaveRequest> savedTimeseries = new ArrayList<>();
+
+    private TbContext ctx;
+    private DrRigStateDetectionNode node;
+
+    @BeforeEach
+    void setUp() {
+        ctx = mock(TbContext.class);
+        RuleEngineTelemetryService telemetryService = mock(RuleEngineTelemetryService.class);
+        when(ctx.getTenantId()).thenReturn(TenantId.fromUUID(UUID.randomUUID()));
+        when(ctx.getDbCallbackExecutor()).thenReturn(new TestDbCallbackExecutor());
+        when(ctx.getTelemetryService()).thenReturn(telemetryService);
+        doAnswer(inv -> {
+            TimeseriesSaveRequest request = inv.getArgument(0);
+            savedTimeseries.add(request);
+            request.getCallback().onSuccess(null);
+            return null;
+        }).when(telemetryService).saveTimeseries(any());
+        node = new DrRigStateDetectionNode();
+    }
+
+    @AfterEach
+    void tearDown() {
+        node.destroy();
+    }
+
+    @Test
+    void givenConfigWithoutWindow_whenPipePulledWithPositiveRop_thenKeepsRopSign() throws TbNodeException {
+        node.init(ctx, nodeConfiguration(legacyConfig()));
+
+        for (int i = 0; i < 5; i++) {
+            node.onMsg(ctx, sample(i * MINUTE, 1000.0 - 20.0 * i, 30.0));
+        }
+
+        verify(ctx, times(5)).tellNext(any(), eq("TRIPPING_IN"));
+    }
+
+    @Test
+    void givenWindowedConfig_whenPipePulledWithPositiveRop_thenUsesVelocity() throws TbNodeException {
+        DrRigStateDetectionNodeConfiguration config = legacyConfig();
+        config.setWindowSize(30);
+        node.init(ctx, nodeConfiguration(config));
+
+        for (int i = 0; i < 5; i++) {
+            node.onMsg(ctx, sample(i * MINUTE, 1000.0 - 20.0 * i, 30.0));
+        }
+
+        ArgumentCaptor<String> relations = ArgumentCaptor.forClass(String.class);
+        verify(ctx, times(5)).tellNext(any(), relations.capture());
+        // The first two samples have no velocity yet and fall back to the ROP sign
+        assertThat(relations.getAllValues()).containsExactly("TRIPPING_IN", "TRIPPING_IN", "TRIPPING_OUT", "TRIPPING_OUT", "TRIPPING_OUT");
+    }
+
+    @Test
+    void givenPerSampleSaves_whenStateUnchanged_thenEachSampleKeepsItsOwnTs() throws TbNodeException {
+        DrRigStateDetectionNodeConfiguration config = legacyConfig();
+        config.setSaveAsTelemetry(true);
+        node.init(ctx, nodeConfiguration(config));
+
+        node.onMsg(ctx, sample(MINUTE, 1000.0, 30.0));
+        node.onMsg(ctx, sample(2 * MINUTE, 1000.0, 30.0));
+        node.onMsg(ctx, sample(3 * MINUTE, 1000.0, 30.0));
+
+        assertThat(savedTimeseries).hasSize(3);
+        assertThat(savedTimeseries).extracting(r -> r.getEntries().get(0).getTs())
+                .containsExactly(MINUTE, 2 * MINUTE, 3 * MINUTE);
+        assertThat(savedTimeseries.get(2).getEntries()).extracting(TsKvEntry::getValueAsString).containsExactly("TRIPPING_IN");
+        verify(ctx, times(3)).tellNext(any(), anyString());
+    }
+
+    @Test
+    void givenTransitionsOnly_whenStateChanges_thenStampedWithStateStart() throws TbNodeException {
+        DrRigStateDetectionNodeConfiguration config = legacyConfig();
+        config.setSaveAsTelemetry(true);
+        config.setEmitTransitionsOnly(true);
+        config.setMinStateDurationMs(2 * MINUTE);
+        node.init(ctx, nodeConfiguration(config));
+
+        node.onMsg(ctx, sample(0, 1000.0, 30.0));
+        node.onMsg(ctx, sample(MINUTE, 1000.0, -30.0));
+        node.onMsg(ctx, sample(2 * MINUTE, 1000.0, -30.0));
+        node.onMsg(ctx, sample(3 * MINUTE, 1000.0, -30.0));
+
+        // Initial state plus one committed change, the latter stamped when it was first seen
+        assertThat(savedTimeseries).extracting(r -> r.getEntries().get(0).getTs()).containsExactly(0L, MINUTE);
+        assertThat(savedTimeseries.get(1).getEntries()).extracting(TsKvEntry::getValueAsString)
+                .containsExactly("TRIPPING_OUT", "TRIPPING_IN", String.valueOf(MINUTE));
+    }
+
+    @Test
+    void givenRigActivityService_whenStateChanges_thenOnlyTransitionsArePublished() throws TbNodeException {
+        RigActivityService rigActivityService = mock(RigActivityService.class);
+        when(ctx.getRigActivityService()).thenReturn(rigActivityService);
+        DrRigStateDetectionNodeConfiguration config = legacyConfig();
+        config.setMinStateDurationMs(2 * MINUTE);
+        node.init(ctx, nodeConfiguration(config));
+
+        node.onMsg(ctx, sample(0, 1000.0, 30.0));
+        node.onMsg(ctx, sample(MINUTE, 1000.0, -30.0));
+        node.onMsg(ctx, sample(2 * MINUTE, 1000.0, -30.0));
+        node.onMsg(ctx, sample(3 * MINUTE, 1000.0, -30.0));
+
+        ArgumentCaptor<RigStateTransition> transitions = ArgumentCaptor.forClass(RigStateTransition.class);
+        verify(rigActivityService, times(2)).onRigStateTransition(eq(ctx.getTenantId()), eq(deviceId), transitions.capture());
+        assertThat(transitions.getAllValues().get(0).previousRigState()).isNull();
+        assertThat(transitions.getAllValues().get(1)).isEqualTo(
+                new RigStateTransition("TRIPPING_OUT", MINUTE, "TRIPPING_IN", MINUTE, 1000.0));
+    }
+
+    private static DrRigStateDetectionNodeConfiguration legacyConfig() {
+        // What a configuration saved before windowed detection deserializes to
+        DrRigStateDetectionNodeConfiguration config = new DrRigStateDetectionNodeConfiguration().defaultConfiguration();
+        config.setWindowSize(0);
+        config.setHysteresisFraction(0.0);
+        config.setMinStateDurationMs(0L);
+        config.setEmitTransitionsOnly(false);
+        config.setSaveAsAttribute(false);
+        config.setSaveAsTelemetry(false);
+        return config;
+    }
+
+    private static TbNodeConfiguration nodeConfiguration(DrRigStateDetectionNodeConfiguration config) {
+        return new TbNodeConfiguration(JacksonUtil.valueToTree(config));
+    }
+
+    private TbMsg sample(long ts, double bitDepth, double rop) {
+        TbMsgMetaData metaData = new TbMsgMetaData();
+        metaData.putValue("ts", String.valueOf(ts));
+        String data = "{\"bitDepth\":" + bitDepth + ",\"holeDepth\":2000.0,\"rpm\":0,\"wob\":0,\"flowRate\":0,\"rop\":" + rop + "}";
+        return TbMsg.newMsg()
+                .type(TbMsgType.POST_TELEMETRY_REQUEST)
+                .originator(deviceId)
+                .copyMetaData(metaData)
+                .data(data)
+                .build();
+    }
+}
@@ -0,0 +1,171 @@
+/**
+ * Copyright © 2016-2026 The Thingsboard Authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.thingsboard.rule.engine.nexus.dr;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.google.common.util.concurrent.Futures;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.thingsboard.common.util.JacksonUtil;
+import org.thingsboard.rule.engine.TestDbCallbackExecutor;
+import org.thingsboard.rule.engine.api.AttributesSaveRequest;
+import org.thingsboard.rule.engine.api.RuleEngineTelemetryService;
+import org.thingsboard.rule.engine.api.TbContext;
+import org.thingsboard.rule.engine.api.TbNodeConfiguration;
+import org.thingsboard.rule.engine.api.TbNodeException;
+import org.thingsboard.server.common.data.AttributeScope;
+import org.thingsboard.server.common.data.id.AssetId;
+import org.thingsboard.server.common.data.id.TenantId;
+import org.thingsboard.server.common.data.kv.AttributeKvEntry;
+import org.thingsboard.server.common.data.kv.BaseAttributeKvEntry;
+import org.thingsboard.server.common.data.kv.DoubleDataEntry;
+import org.thingsboard.server.common.data.msg.TbMsgType;
+import org.thingsboard.server.common.msg.TbMsg;
+import org.thingsboard.server.common.msg.TbMsgMetaData;
+import org.thingsboard.server.dao.attributes.AttributesService;
+
+import java.util.List;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.within;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+public class DrSurveyProcessingNodeTest {
+
+    private static final double HOLD_TVD_PER_100FT = 100.0 * Math.cos(Math.toRadians(30.0));
+
+    private final AssetId wellboreId = new AssetId(UUID.randomUUID());
+
+    private TbContext ctx;
+    private DrSurveyProcessingNode node;
+
+    @BeforeEach
+    void setUp() throws TbNodeException {
+        ctx = mock(TbContext.class);
+        AttributesService attributesService = mock(AttributesService.class);
+        RuleEngineTelemetryService telemetryService = mock(RuleEngineTelemetryService.class);
+        when(ctx.getTenantId()).thenReturn(TenantId.fromUUID(UUID.randomUUID()));
+        when(ctx.getDbCallbackExecutor()).thenReturn(new TestDbCallbackExecutor());
+        when(ctx.getAttributesService()).thenReturn(attributesService);
+        when(ctx.getTelemetryService()).thenReturn(telemetryService);
+        // Last station persisted by a previous run: 30° hold to the east
+        when(attributesService.find(any(), eq(wellboreId), eq(AttributeScope.SERVER_SCOPE), anyCollection()))
+                .thenReturn(Futures.immediateFuture(List.of(
+                        attribute("lastSurveyMdFt", 1000.0),
+                        attribute("lastSurveyInclination", 30.0),
+                        attribute("lastSurveyAzimuth", 90.0),
+                        attribute("lastSurveyTvdFt", 950.0),
+                        attribute("lastSurveyNorthingFt", 0.0),
+                        attribute("lastSurveyEastingFt", 200.0))));
+        doAnswer(inv -> {
+            AttributesSaveRequest request = inv.getArgument(0);
+            request.getCallback().onSuccess(null);
+            return null;
+        }).when(telemetryService).saveAttributes(any());
+
+        DrSurveyProcessingNodeConfiguration config = new DrSurveyProcessingNodeConfiguration().defaultConfiguration();
+        config.setSaveAsAttribute(false);
+        config.setSaveAsTelemetry(false);
+        config.setEnableDlsAlert(false);
+        node = new DrSurveyProcessingNode();
+        node.init(ctx, new TbNodeConfiguration(JacksonUtil.valueToTree(config)));
+    }
+
+    @AfterEach
+    void tearDown() {
+        node.destroy();
+    }
+
+    @Test
+    void givenSeededTrajectory_whenSurveyAboveFirstStation_thenPositionedFromItAndBelowRechained() {
+        node.onMsg(ctx, survey(1100.0, 30.0, 90.0, true));
+        node.onMsg(ctx, survey(900.0, 30.0, 90.0, true));
+
+        List<JsonNode> results = results(2);
+        assertThat(results.get(0).get("tvdFt").asDouble()).isCloseTo(950.0 + HOLD_TVD_PER_100FT, within(0.01));
+        assertThat(results.get(0).get("eastingFt").asDouble()).isCloseTo(250.0, within(0.01));
+
+        JsonNode above = results.get(1);
+        assertThat(above.get("tvdFt").asDouble()).isCloseTo(950.0 - HOLD_TVD_PER_100FT, within(0.01));
+        assertThat(above.get("eastingFt").asDouble()).isCloseTo(150.0, within(0.01));
+        // On the same hold the stations below keep their position
+        JsonNode rechained = above.get("rechainedStations");
+        assertThat(rechained).hasSize(2);
+        assertThat(rechained.get(0).get("mdFt").asDouble()).isEqualTo(1000.0);
+        assertThat(rechained.get(0).get("tvdFt").asDouble()).isCloseTo(950.0, within(0.01));
+        assertThat(rechained.get(0).get("eastingFt").asDouble()).isCloseTo(200.0, within(0.01));
+        assertThat(rechained.get(1).get("eastingFt").asDouble()).isCloseTo(250.0, within(0.01));
+    }
+
+    @Test
+    void givenSeededTrajectory_whenFirstStationCorrected_thenKeepsItsPositionAndRechainsBelow() {
+        node.onMsg(ctx, survey(1100.0, 30.0, 90.0, true));
+        node.onMsg(ctx, survey(1000.0, 30.0, 0.0, true));
+
+        JsonNode corrected = results(2).get(1);
+        assertThat(corrected.get("tvdFt").asDouble()).isCloseTo(950.0, within(0.01));
+        assertThat(corrected.get("eastingFt").asDouble()).isCloseTo(200.0, within(0.01));
+        JsonNode rechained = corrected.get("rechainedStations");
+        assertThat(rechained).hasSize(1);
+        // The corrected station now points north, pulling the next one with it
+        assertThat(rechained.get(0).get("northingFt").asDouble()).isGreaterThan(10.0);
+        assertThat(rechained.get(0).get("eastingFt").asDouble()).isLessThan(250.0);
+    }
+
+    @Test
+    void givenSeededTrajectory_whenProvisionalSurveyAboveFirstStation_thenTrajectoryUnchanged() {
+        node.onMsg(ctx, survey(900.0, 30.0, 90.0, false));
+        node.onMsg(ctx, survey(1100.0, 30.0, 90.0, true));
+
+        List<JsonNode> results = results(2);
+        assertThat(results.get(0).get("tvdFt").asDouble()).isCloseTo(950.0 - HOLD_TVD_PER_100FT, within(0.01));
+        assertThat(results.get(1).has("rechainedStations")).isFalse();
+        assertThat(results.get(1).get("eastingFt").asDouble()).isCloseTo(250.0, within(0.01));
+    }
+
+    private List<JsonNode> results(int expected) {
+        verify(ctx, never()).tellFailure(any(), any());
+        ArgumentCaptor<TbMsg> captor = ArgumentCaptor.forClass(TbMsg.class);
+        verify(ctx, times(expected)).tellSuccess(captor.capture());
+        return captor.getAllValues().stream().map(msg -> JacksonUtil.toJsonNode(msg.getData())).toList();
+    }
+
+    private TbMsg survey(double mdFt, double incDeg, double azDeg, boolean definitive) {
+        String data = "{\"mdFt\":" + mdFt + ",\"inclination\":" + incDeg + ",\"azimuth\":" + azDeg
+                + ",\"isDefinitive\":" + definitive + "}";
+        return TbMsg.newMsg()
+                .type(TbMsgType.POST_TELEMETRY_REQUEST)
+                .originator(wellboreId)
+                .copyMetaData(new TbMsgMetaData())
+                .data(data)
+                .build();
+    }
+
+    private static AttributeKvEntry attribute(String key, double value) {
+        return new BaseAttributeKvEntry(0L, new DoubleDataEntry(key, value));
+    }
+}